@@ -83,6 +83,12 @@ public class BenchmarkExtractors {
 		ThresholdCornerExtractor algThresh = new ThresholdCornerExtractor();
 		NonMaxBlockStrict algBlockStrict = new NonMaxBlockStrict.Max();
 		NonMaxBlockStrict algBlockStrictMinMax = new NonMaxBlockStrict.MinMax();
+		NonMaxBlock algBlockStrict_MT = new NonMaxBlock_MT(new NonMaxBlock_MT.Factory() {
+			@Override
+			public NonMaxBlock create() {
+				return new NonMaxBlockStrict.Max();
+			}
+		});
 		NonMaxExtractorNaive algNaiveStrict = new NonMaxExtractorNaive(true);
 		NonMaxBlockRelaxed algBlockRelaxed = new NonMaxBlockRelaxed.Max();
 		NonMaxExtractorNaive algNaiveRelaxed = new NonMaxExtractorNaive(true);
@@ -94,12 +100,14 @@ public class BenchmarkExtractors {
 			windowRadius = radius;
 
 			NM alg2 = new NM("Block Strict",new WrapperNonMaximumBlock(algBlockStrict));
+			NM alg2_MT = new NM("Block Strict MT",new WrapperNonMaximumBlock(algBlockStrict_MT));
 			NM alg3 = new NM("Block Strict MinMax",new WrapperNonMaximumBlock(algBlockStrictMinMax));
 			NM alg4 = new NM("Naive Strict",new WrapperNonMaximumNaive(algNaiveStrict));
 			NM alg5 = new NM("Block Relaxed",new WrapperNonMaximumBlock(algBlockRelaxed));
 			NM alg6 = new NM("Naive Relaxed",new WrapperNonMaximumNaive(algNaiveRelaxed));
 
 			ProfileOperation.printOpsPerSec(alg2, TEST_TIME);
+			ProfileOperation.printOpsPerSec(alg2_MT, TEST_TIME);
 			ProfileOperation.printOpsPerSec(alg3, TEST_TIME);
 //			ProfileOperation.printOpsPerSec(alg4, TEST_TIME);
 //			ProfileOperation.printOpsPerSec(alg5, TEST_TIME);
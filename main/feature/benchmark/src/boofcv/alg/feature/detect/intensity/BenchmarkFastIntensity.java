@@ -68,6 +68,42 @@ public class BenchmarkFastIntensity< T extends ImageSingleBand> {
 		}
 	}
 
+	public class FAST9_NoPreTest extends PerformerBase {
+		ImplFastIntensity9<ImageUInt8> corner = new ImplFastIntensity9<ImageUInt8>(new ImplFastHelper_U8(60));
+
+		public FAST9_NoPreTest() {
+			corner.setUsePreTest(false);
+		}
+
+		@Override
+		public void process() {
+			corner.process((ImageUInt8)input,intensity);
+		}
+	}
+
+	public class FAST9_MT extends PerformerBase {
+		FastCornerIntensity<ImageUInt8> corner =
+				new FastCornerIntensity_MT<ImageUInt8>(new ImplFastIntensity9<ImageUInt8>(new ImplFastHelper_U8(60)));
+
+		@Override
+		public void process() {
+			corner.process((ImageUInt8)input,intensity);
+		}
+	}
+
+	public class FAST12_NoPreTest extends PerformerBase {
+		ImplFastIntensity12<ImageUInt8> corner = new ImplFastIntensity12<ImageUInt8>(new ImplFastHelper_U8(60));
+
+		public FAST12_NoPreTest() {
+			corner.setUsePreTest(false);
+		}
+
+		@Override
+		public void process() {
+			corner.process((ImageUInt8)input,intensity);
+		}
+	}
+
 	public class FAST12 extends PerformerBase {
 		ImplFastIntensity12<ImageUInt8> corner = new ImplFastIntensity12<ImageUInt8>(new ImplFastHelper_U8(60));
 
@@ -82,7 +118,10 @@ public class BenchmarkFastIntensity< T extends ImageSingleBand> {
 		System.out.println();
 
 		ProfileOperation.printOpsPerSec(new FAST_NAIVE_9(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new FAST9_NoPreTest(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new FAST9(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new FAST9_MT(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new FAST12_NoPreTest(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new FAST12(), TEST_TIME);
 
 	}
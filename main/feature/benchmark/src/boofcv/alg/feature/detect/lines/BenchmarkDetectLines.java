@@ -68,6 +68,39 @@ public class BenchmarkDetectLines<T extends ImageSingleBand, D extends ImageSing
 		}
 	}
 
+	public class HoughPolar_MT extends PerformerBase {
+
+		DetectLine<T> detector =
+				FactoryDetectLineAlgs.houghPolar(3, 30, 4, Math.PI / 180, edgeThreshold, maxLines, 0, true, imageType, derivType);
+
+		@Override
+		public void process() {
+			detector.detect(input);
+		}
+	}
+
+	public class HoughPolarAngle extends PerformerBase {
+
+		DetectLine<T> detector =
+				FactoryDetectLineAlgs.houghPolar(3, 30, 4, Math.PI / 180, edgeThreshold, maxLines, Math.PI / 18, false, imageType, derivType);
+
+		@Override
+		public void process() {
+			detector.detect(input);
+		}
+	}
+
+	public class HoughPolarAngle_MT extends PerformerBase {
+
+		DetectLine<T> detector =
+				FactoryDetectLineAlgs.houghPolar(3, 30, 4, Math.PI / 180, edgeThreshold, maxLines, Math.PI / 18, true, imageType, derivType);
+
+		@Override
+		public void process() {
+			detector.detect(input);
+		}
+	}
+
 	public class HoughFoot extends PerformerBase {
 
 		DetectLine<T> detector =
@@ -79,6 +112,17 @@ public class BenchmarkDetectLines<T extends ImageSingleBand, D extends ImageSing
 		}
 	}
 
+	public class HoughFoot_MT extends PerformerBase {
+
+		DetectLine<T> detector =
+				FactoryDetectLineAlgs.houghFoot(3, 10, 5, edgeThreshold, maxLines, true, imageType, derivType);
+
+		@Override
+		public void process() {
+			detector.detect(input);
+		}
+	}
+
 	public class HoughFootSub extends PerformerBase {
 
 		DetectLine<T> detector =
@@ -90,6 +134,17 @@ public class BenchmarkDetectLines<T extends ImageSingleBand, D extends ImageSing
 		}
 	}
 
+	public class HoughFootSub_MT extends PerformerBase {
+
+		DetectLine<T> detector =
+				FactoryDetectLineAlgs.houghFootSub(3, 6, 5, edgeThreshold, maxLines, 2, 2, true, imageType, derivType);
+
+		@Override
+		public void process() {
+			detector.detect(input);
+		}
+	}
+
 	public class LineRansac extends PerformerBase {
 
 		DetectLineSegment<T> detector =
@@ -106,8 +161,13 @@ public class BenchmarkDetectLines<T extends ImageSingleBand, D extends ImageSing
 		ConvertBufferedImage.convertFromSingle(image, input, imageType);
 
 		ProfileOperation.printOpsPerSec(new HoughPolar(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new HoughPolar_MT(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new HoughPolarAngle(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new HoughPolarAngle_MT(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new HoughFoot(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new HoughFoot_MT(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new HoughFootSub(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new HoughFootSub_MT(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new LineRansac(), TEST_TIME);
 		System.out.println("done");
 	}
@@ -46,10 +46,10 @@ public class BenchmarkTemplateIntensity<T extends ImageSingleBand> {
 	T image;
 	T template;
 
-	public BenchmarkTemplateIntensity(Class<T> imageType) {
+	public BenchmarkTemplateIntensity(Class<T> imageType, int templateWidth, int templateHeight) {
 		this.imageType = imageType;
 		image = GeneralizedImageOps.createSingleBand(imageType,width,height);
-		template = GeneralizedImageOps.createSingleBand(imageType,20,30);
+		template = GeneralizedImageOps.createSingleBand(imageType,templateWidth,templateHeight);
 
 		GImageMiscOps.fillUniform(image, rand, 0, 200);
 		GImageMiscOps.fillUniform(template, rand, 0, 200);
@@ -60,9 +60,9 @@ public class BenchmarkTemplateIntensity<T extends ImageSingleBand> {
 		TemplateMatchingIntensity<T> alg;
 		String name;
 
-		public TemplatePerformer(TemplateScoreType type) {
-			this.alg = FactoryTemplateMatching.createIntensity(type,imageType);
-			this.name = type.toString();
+		public TemplatePerformer(TemplateScoreType type, boolean fourier) {
+			this.alg = FactoryTemplateMatching.createIntensity(type,fourier,imageType);
+			this.name = type.toString() + (fourier ? " Fourier" : "");
 		}
 
 		@Override
@@ -77,22 +77,31 @@ public class BenchmarkTemplateIntensity<T extends ImageSingleBand> {
 	}
 
 	public void evaluateAll() {
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ========== "+imageType.getSimpleName());
+		System.out.println("=========  Profile Image Size " + width + " x " + height + " Template "+
+				template.width+" x "+template.height+" ========== "+imageType.getSimpleName());
 		System.out.println();
 
-		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.SUM_DIFF_SQ), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.NCC), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.SUM_DIFF_SQ,false), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.SUM_DIFF_SQ,true), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.NCC,false), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.NCC,true), TEST_TIME);
 	}
 
 	public static void main( String args[] ) {
-		BenchmarkTemplateIntensity<ImageUInt8>
-				benchmark_U8 = new BenchmarkTemplateIntensity<ImageUInt8>(ImageUInt8.class);
+		int templateSizes[] = new int[]{20,30,60,100};
 
-		benchmark_U8.evaluateAll();
+		for( int i = 0; i < templateSizes.length; i += 2 ) {
+			int tw = templateSizes[i], th = templateSizes[i+1];
 
-		BenchmarkTemplateIntensity<ImageFloat32>
-				benchmark_F32 = new BenchmarkTemplateIntensity<ImageFloat32>(ImageFloat32.class);
+			BenchmarkTemplateIntensity<ImageUInt8>
+					benchmark_U8 = new BenchmarkTemplateIntensity<ImageUInt8>(ImageUInt8.class,tw,th);
 
-		benchmark_F32.evaluateAll();
+			benchmark_U8.evaluateAll();
+
+			BenchmarkTemplateIntensity<ImageFloat32>
+					benchmark_F32 = new BenchmarkTemplateIntensity<ImageFloat32>(ImageFloat32.class,tw,th);
+
+			benchmark_F32.evaluateAll();
+		}
 	}
 }
@@ -102,7 +102,12 @@ public class GenerateImplFastIntensity extends CodeGeneratorBase {
 				"\t * @param helper Provide the image type specific helper.\n" +
 				"\t */\n" +
 				"\tpublic "+className+"(FastHelper<T> helper) {\n" +
-				"\t\tsuper(helper);\n" +
+				"\t\tsuper(helper,"+minContinuous+");\n" +
+				"\t}\n" +
+				"\n" +
+				"\t@Override\n" +
+				"\tpublic FastCornerIntensity<T> newInstance() {\n" +
+				"\t\treturn new "+className+"<T>(helper.newInstance());\n" +
 				"\t}\n\n");
 	}
 
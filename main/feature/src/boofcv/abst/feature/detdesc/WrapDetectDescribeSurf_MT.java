@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.feature.detdesc;
+
+import boofcv.abst.feature.orientation.OrientationIntegral;
+import boofcv.alg.feature.describe.DescribePointSurf;
+import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
+import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.ImageSingleBand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent version of {@link WrapDetectDescribeSurf}.  The orientation and description of the detected
+ * features are computed in parallel.  Features are split into blocks and each block has its own orientation and
+ * description algorithm, created by the provided {@link Factory}.  Storage for each feature is declared before
+ * the blocks are processed, so features are in the same order as the single threaded version.  The
+ * detector can be concurrent, e.g. {@link boofcv.alg.feature.detect.interest.FastHessianFeatureDetector_MT}.
+ * </p>
+ *
+ * @param <T> Input image type
+ * @param <II> Integral image type
+ *
+ * @author Peter Abeles
+ */
+public class WrapDetectDescribeSurf_MT
+		<T extends ImageSingleBand, II extends ImageSingleBand>
+		extends WrapDetectDescribeSurf<T,II>
+{
+	// minimum number of features described by a thread
+	public static final int MIN_BLOCK = 20;
+
+	// creates orientation and description algorithms
+	Factory<II> factory;
+
+	// algorithms used to process each block
+	List<OrientationIntegral<II>> orientations = new ArrayList<OrientationIntegral<II>>();
+	List<DescribePointSurf<II>> describers = new ArrayList<DescribePointSurf<II>>();
+
+	public WrapDetectDescribeSurf_MT(FastHessianFeatureDetector<II> detector,
+									 Factory<II> factory )
+	{
+		this(detector, factory, factory.createOrientation(), factory.createDescribe());
+	}
+
+	private WrapDetectDescribeSurf_MT(FastHessianFeatureDetector<II> detector,
+									  Factory<II> factory ,
+									  OrientationIntegral<II> orientation,
+									  DescribePointSurf<II> describe)
+	{
+		super(detector, orientation, describe);
+		this.factory = factory;
+		orientations.add(orientation);
+		describers.add(describe);
+	}
+
+	@Override
+	public void detect(T input) {
+		if( ii != null ) {
+			ii.reshape(input.width,input.height);
+		}
+
+		// compute integral image
+		ii = GIntegralImageOps.transform(input, ii);
+		features.reset();
+		featureAngles.reset();
+
+		// detect features
+		detector.detect(ii);
+		foundPoints = detector.getFoundPoints();
+
+		// declare storage for all the features so that they are in the same order as the input
+		final int N = foundPoints.size();
+		for( int i = 0; i < N; i++ ) {
+			features.grow();
+			featureAngles.push(0);
+		}
+
+		final int numBlocks = BoofConcurrency.computeNumBlocks(N, MIN_BLOCK);
+		while( orientations.size() < numBlocks ) {
+			orientations.add(factory.createOrientation());
+			describers.add(factory.createDescribe());
+		}
+		for( int i = 0; i < numBlocks; i++ ) {
+			orientations.get(i).setImage(ii);
+			describers.get(i).setImage(ii);
+		}
+
+		BoofConcurrency.loopBlocks(0, numBlocks, 1, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int block = min; block < max; block++ ) {
+					OrientationIntegral<II> orientation = orientations.get(block);
+					DescribePointSurf<II> describe = describers.get(block);
+
+					int i0 = BoofConcurrency.blockStart(0, N, numBlocks, block);
+					int i1 = BoofConcurrency.blockStart(0, N, numBlocks, block + 1);
+
+					for( int i = i0; i < i1; i++ ) {
+						ScalePoint p = foundPoints.get(i);
+
+						orientation.setScale(p.scale);
+						double angle = orientation.compute(p.x,p.y);
+						describe.describe(p.x,p.y, angle, p.scale, features.get(i));
+						featureAngles.data[i] = angle;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Creates new instances of the orientation and description algorithms.  Each instance must be
+	 * configured the same way.
+	 */
+	public interface Factory<II extends ImageSingleBand> {
+		public OrientationIntegral<II> createOrientation();
+
+		public DescribePointSurf<II> createDescribe();
+	}
+}
@@ -55,6 +55,12 @@ public class ConfigExtract implements Configuration {
 	 */
 	public boolean detectMaximums = true;
 
+	/**
+	 * If true then the image or candidate list is split up and processed by multiple threads.  The output is
+	 * identical to the single threaded version. Default is false.
+	 */
+	public boolean concurrent = false;
+
 	public ConfigExtract(int radius, float threshold, int ignoreBorder, boolean useStrictRule,
 						 boolean detectMinimums, boolean detectMaximums)
 	{
@@ -90,6 +96,7 @@ public class ConfigExtract implements Configuration {
 		this.useStrictRule = orig.useStrictRule;
 		this.detectMinimums = orig.detectMinimums;
 		this.detectMaximums = orig.detectMaximums;
+		this.concurrent = orig.concurrent;
 	}
 
 	@Override
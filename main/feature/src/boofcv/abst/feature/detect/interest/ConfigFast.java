@@ -39,6 +39,12 @@ public class ConfigFast implements Configuration {
 	 */
 	public int minContinuous=9;
 
+	/**
+	 * If true then the image is split into bands of rows which are processed by multiple threads.  The
+	 * found corners are identical to the single threaded version.
+	 */
+	public boolean concurrent = false;
+
 	public ConfigFast(int pixelTol, int minContinuous) {
 		this.pixelTol = pixelTol;
 		this.minContinuous = minContinuous;
@@ -24,6 +24,7 @@ import boofcv.abst.feature.detect.extract.NonMaxSuppression;
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.feature.detect.edge.GGradientToEdgeFeatures;
 import boofcv.alg.feature.detect.line.HoughTransformLineFootOfNorm;
+import boofcv.alg.feature.detect.line.HoughTransformLineFootOfNorm_MT;
 import boofcv.alg.feature.detect.line.ImageLinePruneMerge;
 import boofcv.alg.filter.binary.ThresholdImageOps;
 import boofcv.core.image.GeneralizedImageOps;
@@ -108,6 +109,32 @@ public class DetectLineHoughFootSubimage<I extends ImageSingleBand, D extends Im
 									   int totalVerticalDivisions ,
 									   int maxLines ,
 									   ImageGradient<I, D> gradient)
+	{
+		this(localMaxRadius, minCounts, minDistanceFromOrigin, thresholdEdge,
+				totalHorizontalDivisions, totalVerticalDivisions, maxLines, gradient, false);
+	}
+
+	/**
+	 * Specifies detection parameters.  The suggested parameters should be used as a starting point and will
+	 * likely need to be tuned significantly for each different scene.
+	 *
+	 * @param localMaxRadius Lines in transform space must be a local max in a region with this radius. Try 5;
+	 * @param minCounts Minimum number of counts/votes inside the transformed image. Try 5.
+	 * @param minDistanceFromOrigin Lines which are this close to the origin of the transformed image are ignored.  Try 5.
+	 * @param thresholdEdge Threshold for classifying pixels as edge or not.  Try 30.
+	 * @param maxLines Maximum number of lines it will detect.  Try 10.
+	 * @param gradient Computes the image gradient.
+	 * @param concurrent If true the Hough transform will be computed using multiple threads.
+	 */
+	public DetectLineHoughFootSubimage(int localMaxRadius,
+									   int minCounts,
+									   int minDistanceFromOrigin,
+									   float thresholdEdge,
+									   int totalHorizontalDivisions ,
+									   int totalVerticalDivisions ,
+									   int maxLines ,
+									   ImageGradient<I, D> gradient,
+									   boolean concurrent)
 	{
 		this.gradient = gradient;
 		this.thresholdEdge = thresholdEdge;
@@ -116,7 +143,10 @@ public class DetectLineHoughFootSubimage<I extends ImageSingleBand, D extends Im
 		this.maxLines = maxLines;
 		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmaxCandidate(
 				new ConfigExtract(localMaxRadius, minCounts, 0, false));
-		alg = new HoughTransformLineFootOfNorm(extractor,minDistanceFromOrigin);
+		if( concurrent )
+			alg = new HoughTransformLineFootOfNorm_MT(extractor,minDistanceFromOrigin);
+		else
+			alg = new HoughTransformLineFootOfNorm(extractor,minDistanceFromOrigin);
 		derivX = GeneralizedImageOps.createSingleBand(gradient.getDerivType(), 1, 1);
 		derivY = GeneralizedImageOps.createSingleBand(gradient.getDerivType(), 1, 1);
 	}
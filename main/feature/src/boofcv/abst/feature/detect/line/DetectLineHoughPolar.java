@@ -24,6 +24,7 @@ import boofcv.abst.feature.detect.extract.NonMaxSuppression;
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.feature.detect.edge.GGradientToEdgeFeatures;
 import boofcv.alg.feature.detect.line.HoughTransformLinePolar;
+import boofcv.alg.feature.detect.line.HoughTransformLinePolar_MT;
 import boofcv.alg.feature.detect.line.ImageLinePruneMerge;
 import boofcv.alg.filter.binary.ThresholdImageOps;
 import boofcv.core.image.GeneralizedImageOps;
@@ -95,6 +96,11 @@ public class DetectLineHoughPolar<I extends ImageSingleBand, D extends ImageSing
 	// the maximum number of lines it will return
 	int maxLines;
 
+	// only lines this close to the gradient's direction get votes
+	double angleTolerance;
+	// should the transform be computed using multiple threads
+	boolean concurrent;
+
 	// post processing pruning
 	ImageLinePruneMerge post = new ImageLinePruneMerge();
 
@@ -116,6 +122,33 @@ public class DetectLineHoughPolar<I extends ImageSingleBand, D extends ImageSing
 								float thresholdEdge,
 								int maxLines ,
 								ImageGradient<I, D> gradient)
+	{
+		this(localMaxRadius, minCounts, resolutionRange, resolutionAngle, thresholdEdge, maxLines, gradient, 0, false);
+	}
+
+	/**
+	 * Configures hough line detector.
+	 *
+	 * @param localMaxRadius Radius for local maximum suppression.  Try 2.
+	 * @param minCounts Minimum number of counts for detected line.  Critical tuning parameter and image dependent.
+	 * @param resolutionRange Resolution of line range in pixels.  Try 2
+	 * @param resolutionAngle Resolution of line angle in radius.  Try PI/180
+	 * @param thresholdEdge Edge detection threshold. Try 50.
+	 * @param maxLines Maximum number of lines to return. If <= 0 it will return them all.
+	 * @param gradient Algorithm for computing image gradient.
+	 * @param angleTolerance Edge pixels only vote for lines with an angle this close to the gradient's direction,
+	 *                       in radians.  If <= 0 then they vote for all angles. Try PI/18
+	 * @param concurrent If true the Hough transform will be computed using multiple threads.
+	 */
+	public DetectLineHoughPolar(int localMaxRadius,
+								int minCounts,
+								double resolutionRange ,
+								double resolutionAngle ,
+								float thresholdEdge,
+								int maxLines ,
+								ImageGradient<I, D> gradient,
+								double angleTolerance ,
+								boolean concurrent )
 	{
 		pruneAngleTol = (float)((localMaxRadius+1)*resolutionAngle);
 		pruneRangeTol = (float)((localMaxRadius+1)*resolutionRange);
@@ -125,6 +158,8 @@ public class DetectLineHoughPolar<I extends ImageSingleBand, D extends ImageSing
 		this.resolutionRange = resolutionRange;
 		this.resolutionAngle = resolutionAngle;
 		this.maxLines = maxLines <= 0 ? Integer.MAX_VALUE : maxLines;
+		this.angleTolerance = angleTolerance;
+		this.concurrent = concurrent;
 		extractor = FactoryFeatureExtractor.nonmax(new ConfigExtract(localMaxRadius, minCounts, 0, true));
 		derivX = GeneralizedImageOps.createSingleBand(gradient.getDerivType(), 1, 1);
 		derivY = GeneralizedImageOps.createSingleBand(gradient.getDerivType(), 1, 1);
@@ -138,7 +173,11 @@ public class DetectLineHoughPolar<I extends ImageSingleBand, D extends ImageSing
 			int numBinsRange = (int)Math.ceil(r/resolutionRange);
 			int numBinsAngle = (int)Math.ceil(Math.PI/resolutionAngle);
 
-			alg = new HoughTransformLinePolar(extractor,numBinsRange,numBinsAngle);
+			if( concurrent )
+				alg = new HoughTransformLinePolar_MT(extractor,numBinsRange,numBinsAngle);
+			else
+				alg = new HoughTransformLinePolar(extractor,numBinsRange,numBinsAngle);
+			alg.setAngleTolerance(angleTolerance);
 			derivX.reshape(input.width,input.height);
 			derivY.reshape(input.width,input.height);
 			intensity.reshape(input.width,input.height);
@@ -163,7 +202,7 @@ public class DetectLineHoughPolar<I extends ImageSingleBand, D extends ImageSing
 
 		ThresholdImageOps.threshold(suppressed, binary, thresholdEdge, false);
 
-		alg.transform(binary);
+		alg.transform(binary,derivX,derivY);
 		FastQueue<LineParametric2D_F32> lines = alg.extractLines();
 
 		List<LineParametric2D_F32> ret = new ArrayList<LineParametric2D_F32>();
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Associates features using a {@link DescriptorSearch}, which is typically an approximate nearest neighbor
+ * search.  Unlike {@link AssociateGreedy} the score between every possible pair is not computed or saved, so
+ * the run time is sub-quadratic and memory is linear in the number of features.
+ * </p>
+ *
+ * <p>
+ * For each source feature the best two matches in the destination set are found.  The match is rejected if
+ * its distance is not less than the maximum allowed error, or if it fails the ratio test [1], i.e. the ratio
+ * of the best distance to the second best distance is not less than the specified ratio.  Optionally, backwards
+ * validation can be used to reject matches which are not mutually the best, in which case the source features
+ * are searched for the best match to the destination feature.  With backwards validation each destination
+ * feature is matched to at most one source feature, even if the search of the source features is approximate.
+ * </p>
+ *
+ * <p>
+ * [1] Lowe, D. "Distinctive image features from scale-invariant keypoints" IJCV 2004
+ * </p>
+ *
+ * @param <D> Feature description type.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateDescriptorSearch<D> {
+
+	// searches for features in the destination list
+	private DescriptorSearch<D> searchDst;
+	// searches for features in the source list.  Only used for backwards validation
+	private DescriptorSearch<D> searchSrc;
+
+	// worst allowed fit score to associate
+	private double maxFitError = Double.MAX_VALUE;
+	// ratio between the best and second best match
+	private double ratioTest;
+
+	// stores the quality of fit score
+	private GrowQueue_F64 fitQuality = new GrowQueue_F64(100);
+	// stores indexes of associated
+	private GrowQueue_I32 pairs = new GrowQueue_I32(100);
+
+	private NnBestTwo result = new NnBestTwo();
+
+	// best source feature and its score for each destination feature.  Used to ensure unique destinations
+	private GrowQueue_I32 dstBestSrc = new GrowQueue_I32(100);
+	private GrowQueue_F64 dstBestScore = new GrowQueue_F64(100);
+
+	/**
+	 * Configure association
+	 *
+	 * @param searchDst Used to search the destination list
+	 * @param searchSrc Used to search the source list.  If null then backwards validation is not done.
+	 * @param ratioTest Maximum ratio between the best and second best match distance.  Set to 1 or more to disable.
+	 *                  Try 0.8
+	 */
+	public AssociateDescriptorSearch(DescriptorSearch<D> searchDst,
+									 DescriptorSearch<D> searchSrc,
+									 double ratioTest) {
+		this.searchDst = searchDst;
+		this.searchSrc = searchSrc;
+		this.ratioTest = ratioTest;
+	}
+
+	/**
+	 * Associates the two sets objects against each other by minimizing fit score.
+	 *
+	 * @param src Source list.
+	 * @param dst Destination list.
+	 */
+	public void associate( FastQueue<D> src ,
+						   FastQueue<D> dst )
+	{
+		fitQuality.reset();
+		pairs.reset();
+
+		searchDst.setPoints(dst);
+		for( int i = 0; i < src.size; i++ ) {
+			int match = -1;
+			double score = Double.MAX_VALUE;
+
+			if( searchDst.findNearest(src.data[i],maxFitError,result) && passesRatioTest(result) ) {
+				match = result.index;
+				score = result.distance;
+			}
+
+			pairs.push(match);
+			fitQuality.push(score);
+		}
+
+		if( searchSrc != null ) {
+			searchSrc.setPoints(src);
+			for( int i = 0; i < src.size; i++ ) {
+				int match = pairs.data[i];
+				if( match == -1 )
+					continue;
+
+				double scoreToBeat = fitQuality.data[i];
+
+				// reject if another source feature is at least as good a match.  Same as AssociateGreedy
+				boolean reject;
+				if( !searchSrc.findNearest(dst.data[match],-1,result) ) {
+					reject = false;
+				} else if( result.index != i ) {
+					reject = result.distance <= scoreToBeat;
+				} else {
+					reject = result.index2 >= 0 && result.distance2 <= scoreToBeat;
+				}
+
+				if( reject ) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
+				}
+			}
+
+			enforceUniqueDestination(src.size,dst.size);
+		}
+	}
+
+	/**
+	 * An approximate reverse search can miss a better source feature, letting two source features keep the
+	 * same destination.  Only the source feature with the best score is kept.  If several have the same score
+	 * then they are all rejected, which is the same as the backwards test.
+	 */
+	private void enforceUniqueDestination( int numSrc , int numDst ) {
+		dstBestSrc.resize(numDst);
+		dstBestScore.resize(numDst);
+		for( int i = 0; i < numDst; i++ ) {
+			dstBestSrc.data[i] = -1;
+			dstBestScore.data[i] = Double.MAX_VALUE;
+		}
+
+		for( int i = 0; i < numSrc; i++ ) {
+			int match = pairs.data[i];
+			if( match == -1 )
+				continue;
+
+			double score = fitQuality.data[i];
+			if( dstBestSrc.data[match] == -1 || score < dstBestScore.data[match] ) {
+				dstBestSrc.data[match] = i;
+				dstBestScore.data[match] = score;
+			} else if( score == dstBestScore.data[match] ) {
+				// tie, nobody gets it unless something better comes along
+				dstBestSrc.data[match] = -2;
+			}
+		}
+
+		for( int i = 0; i < numSrc; i++ ) {
+			int match = pairs.data[i];
+			if( match != -1 && dstBestSrc.data[match] != i ) {
+				pairs.data[i] = -1;
+				fitQuality.data[i] = Double.MAX_VALUE;
+			}
+		}
+	}
+
+	private boolean passesRatioTest( NnBestTwo result ) {
+		if( ratioTest >= 1 || result.index2 < 0 )
+			return true;
+		return result.distance < ratioTest*result.distance2;
+	}
+
+	/**
+	 * Returns a list of association pairs.  Each element in the returned list corresponds
+	 * to an element in the src list.  The value contained in the index indicate which element
+	 * in the dst list that object was associated with.  If a value of -1 is stored then
+	 * no association was found.
+	 *
+	 * @return Array containing associations by src index.
+	 */
+	public int[] getPairs() {
+		return pairs.data;
+	}
+
+	/**
+	 * Quality of fit scores for each association.  Lower fit scores are better.
+	 *
+	 * @return Array of fit sources by src index.
+	 */
+	public double[] getFitQuality() {
+		return fitQuality.data;
+	}
+
+	public void setMaxFitError(double maxFitError) {
+		this.maxFitError = maxFitError;
+	}
+
+	public double getRatioTest() {
+		return ratioTest;
+	}
+
+	public void setRatioTest(double ratioTest) {
+		this.ratioTest = ratioTest;
+	}
+
+	/**
+	 * If true then backwards validation is done and each destination feature is matched to at most one source.
+	 */
+	public boolean isBackwardsValidation() {
+		return searchSrc != null;
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Version of {@link AssociateGreedy} which is specialized for binary descriptors scored using Hamming distance.
+ * Both lists are packed into {@link PackedDescriptors_B} and an entire row of scores is computed at once.
+ * Produces identical results to {@link AssociateGreedy} with {@link ScoreAssociateHamming_B}.
+ * </p>
+ *
+ * <p>
+ * For backwards validation the two lowest scores for each destination feature are saved instead of the
+ * entire score matrix, so memory is linear in the number of features.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedyHamming_B extends AssociateGreedy<TupleDesc_B> {
+
+	// packed descriptors
+	private PackedDescriptors_B packedSrc = new PackedDescriptors_B();
+	private PackedDescriptors_B packedDst = new PackedDescriptors_B();
+
+	// score for one row
+	private int scores[] = new int[0];
+
+	// lowest and second lowest score for each destination feature
+	private int dstBest[] = new int[0];
+	private int dstBest2[] = new int[0];
+
+	/**
+	 * Configure association
+	 *
+	 * @param backwardsValidation If true then backwards validation is performed.
+	 */
+	public AssociateGreedyHamming_B(boolean backwardsValidation) {
+		super(new ScoreAssociateHamming_B(), backwardsValidation);
+	}
+
+	@Override
+	public void associate( FastQueue<TupleDesc_B> src ,
+						   FastQueue<TupleDesc_B> dst )
+	{
+		fitQuality.reset();
+		pairs.reset();
+
+		packedSrc.setTo(src);
+		packedDst.setTo(dst);
+
+		if( scores.length < dst.size ) {
+			scores = new int[dst.size];
+			dstBest = new int[dst.size];
+			dstBest2 = new int[dst.size];
+		}
+		for( int j = 0; j < dst.size; j++ ) {
+			dstBest[j] = Integer.MAX_VALUE;
+			dstBest2[j] = Integer.MAX_VALUE;
+		}
+
+		for( int i = 0; i < src.size; i++ ) {
+			packedSrc.hammingAll(i,packedDst,scores);
+
+			double bestScore = maxFitError;
+			int bestIndex = -1;
+
+			for( int j = 0; j < dst.size; j++ ) {
+				int fit = scores[j];
+
+				if( fit < bestScore ) {
+					bestIndex = j;
+					bestScore = fit;
+				}
+
+				if( fit < dstBest[j] ) {
+					dstBest2[j] = dstBest[j];
+					dstBest[j] = fit;
+				} else if( fit < dstBest2[j] ) {
+					dstBest2[j] = fit;
+				}
+			}
+			pairs.push(bestIndex);
+			fitQuality.push(bestScore);
+		}
+
+		if( backwardsValidation ) {
+			for( int i = 0; i < src.size; i++ ) {
+				int match = pairs.data[i];
+				if( match == -1 )
+					continue;
+
+				// The match is rejected if any other source feature has a score which is less than or equal.
+				// That's only possible if this feature doesn't have the lowest score or if the second
+				// lowest score is the same.
+				double scoreToBeat = fitQuality.data[i];
+				if( dstBest[match] < scoreToBeat || dstBest2[match] <= scoreToBeat ) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Searches a set of feature descriptors for the best and second best match to a target descriptor.  The
+ * second best match is used for ratio tests.  Implementations may be approximate.
+ *
+ * @param <D> Type of feature descriptor
+ *
+ * @author Peter Abeles
+ */
+public interface DescriptorSearch<D> {
+
+	/**
+	 * Specifies the set of descriptors which are searched.  Any internal data structures are rebuilt.  A reference
+	 * to the list is saved and it should not be modified until a new set of descriptors is passed in.
+	 *
+	 * @param points Descriptors which are to be searched.  Not modified.
+	 */
+	public void setPoints( FastQueue<D> points );
+
+	/**
+	 * Finds the best and second best match for the target descriptor.  If no match is found with a distance less
+	 * than maxDistance then false is returned.  The second best match is not constrained by maxDistance.
+	 *
+	 * @param target Descriptor being searched for
+	 * @param maxDistance Matches must have a distance less than this value.  If negative then it is ignored.
+	 * @param result (Output) Storage for the best two matches.
+	 * @return true if a match was found
+	 */
+	public boolean findNearest( D target , double maxDistance , NnBestTwo result );
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.TupleDesc;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Approximate nearest neighbor search using a forest of randomized K-D trees [1].  Each tree is split along a
+ * dimension which is randomly selected from the dimensions with the largest variance.  All trees are searched
+ * at the same time using a single best-bin-first priority queue and the search stops after a fixed number of
+ * descriptors have been compared.  Descriptors are only compared once per search even if they appear in
+ * multiple trees.
+ * </p>
+ *
+ * <p>
+ * Nodes for all the trees are stored in flat arrays and leaves reference a range inside a single array of
+ * descriptor indexes.  Memory usage is linear in the number of descriptors and is recycled between calls.
+ * Distance is Euclidean.
+ * </p>
+ *
+ * <p>
+ * [1] Silpa-Anan, C., and Hartley, R. "Optimised KD-trees for fast image descriptor matching." CVPR 2008
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class KdForestSearch<D extends TupleDesc> implements DescriptorSearch<D> {
+
+	// maximum number of descriptors inside a leaf
+	public static final int LEAF_SIZE = 4;
+	// maximum number of descriptors used to compute the variance when selecting a split
+	public static final int MAX_VARIANCE_SAMPLES = 100;
+
+	// number of trees in the forest
+	private int numTrees;
+	// maximum number of descriptors compared in a search
+	private int maxChecks;
+	// the split is randomly selected from this number of dimensions with the largest variance
+	private int numConsiderSplit;
+
+	private Random rand;
+
+	// descriptors being searched
+	private FastQueue<D> points;
+	private int dof;
+
+	// Nodes for all trees.  If the dimension is -1 then it's a leaf and nodeA to nodeB is
+	// the range inside of indexes.  Otherwise nodeA and nodeB are the left and right children.
+	private GrowQueue_I32 nodeDim = new GrowQueue_I32();
+	private GrowQueue_F64 nodeSplit = new GrowQueue_F64();
+	private GrowQueue_I32 nodeA = new GrowQueue_I32();
+	private GrowQueue_I32 nodeB = new GrowQueue_I32();
+	// index of the root node in each tree
+	private int roots[] = new int[0];
+	// descriptor indexes for all the trees
+	private int indexes[] = new int[0];
+
+	// work space for selecting split dimension
+	private double mean[] = new double[0];
+	private double variance[] = new double[0];
+	private int topDims[] = new int[0];
+
+	// used to ensure each descriptor is only checked once per search
+	private int visited[] = new int[0];
+	private int searchID;
+
+	// priority queue used by best-bin-first.  key is a lower bound on the distance squared
+	private double heapKey[] = new double[32];
+	private int heapNode[] = new int[32];
+	private int heapSize;
+
+	/**
+	 * Configures the search
+	 *
+	 * @param numTrees Number of trees in the forest.  Try 4 to 8.
+	 * @param maxChecks Maximum number of descriptors compared in each search.  Controls speed and accuracy.
+	 * @param numConsiderSplit Number of dimensions with the largest variance the split is randomly selected from.  Try 5
+	 * @param randomSeed Seed for the random number generator
+	 */
+	protected KdForestSearch(int numTrees, int maxChecks, int numConsiderSplit, long randomSeed) {
+		if( numTrees <= 0 )
+			throw new IllegalArgumentException("Must have at least one tree");
+		if( numConsiderSplit <= 0 )
+			throw new IllegalArgumentException("numConsiderSplit must be at least one");
+		this.numTrees = numTrees;
+		this.maxChecks = maxChecks;
+		this.numConsiderSplit = numConsiderSplit;
+		this.rand = new Random(randomSeed);
+		this.roots = new int[numTrees];
+	}
+
+	/**
+	 * Euclidean distance squared between two descriptors
+	 */
+	protected abstract double distanceSq( D a , D b );
+
+	@Override
+	public void setPoints(FastQueue<D> points) {
+		this.points = points;
+		int N = points.size;
+		dof = N > 0 ? points.data[0].size() : 0;
+
+		if( mean.length < dof ) {
+			mean = new double[dof];
+			variance = new double[dof];
+		}
+		if( topDims.length < numConsiderSplit )
+			topDims = new int[numConsiderSplit];
+		if( visited.length < N ) {
+			visited = new int[N];
+			searchID = 0;
+		}
+		if( indexes.length < N*numTrees )
+			indexes = new int[N*numTrees];
+
+		nodeDim.reset();
+		nodeSplit.reset();
+		nodeA.reset();
+		nodeB.reset();
+
+		for( int tree = 0; tree < numTrees; tree++ ) {
+			int start = tree*N;
+			for( int i = 0; i < N; i++ )
+				indexes[start+i] = i;
+			// shuffle so that each tree samples a different set of descriptors when computing variance
+			for( int i = N-1; i > 0; i-- ) {
+				int j = rand.nextInt(i+1);
+				int tmp = indexes[start+i];
+				indexes[start+i] = indexes[start+j];
+				indexes[start+j] = tmp;
+			}
+			roots[tree] = buildNode(start,start+N);
+		}
+	}
+
+	/**
+	 * Creates a node for the descriptors in the specified range of indexes and recursively creates its children.
+	 */
+	private int buildNode( int start , int end ) {
+		int node = nodeDim.size;
+		nodeDim.add(-1);
+		nodeSplit.add(0);
+		nodeA.add(start);
+		nodeB.add(end);
+
+		if( end-start <= LEAF_SIZE || dof == 0 )
+			return node;
+
+		int dim = selectSplitDimension(start, end);
+		int middle = (start+end)/2;
+		quickSelect(start,end,middle,dim);
+
+		nodeDim.data[node] = dim;
+		nodeSplit.data[node] = points.data[indexes[middle]].getDouble(dim);
+		int left = buildNode(start,middle);
+		int right = buildNode(middle,end);
+		nodeA.data[node] = left;
+		nodeB.data[node] = right;
+
+		return node;
+	}
+
+	/**
+	 * Randomly selects one of the dimensions with the largest variance.  The variance is computed from a
+	 * sample of the descriptors in the range.
+	 */
+	private int selectSplitDimension( int start , int end ) {
+		int N = Math.min(end-start,MAX_VARIANCE_SAMPLES);
+
+		for( int k = 0; k < dof; k++ ) {
+			mean[k] = 0;
+			variance[k] = 0;
+		}
+		for( int i = 0; i < N; i++ ) {
+			D p = points.data[indexes[start+i]];
+			for( int k = 0; k < dof; k++ )
+				mean[k] += p.getDouble(k);
+		}
+		for( int k = 0; k < dof; k++ )
+			mean[k] /= N;
+		for( int i = 0; i < N; i++ ) {
+			D p = points.data[indexes[start+i]];
+			for( int k = 0; k < dof; k++ ) {
+				double d = p.getDouble(k) - mean[k];
+				variance[k] += d*d;
+			}
+		}
+
+		// insertion sort into a short list of the dimensions with the largest variance
+		int numTop = 0;
+		int maxTop = Math.min(numConsiderSplit,dof);
+		for( int k = 0; k < dof; k++ ) {
+			double v = variance[k];
+			int i;
+			if( numTop < maxTop )
+				i = numTop++;
+			else if( v > variance[topDims[maxTop-1]] )
+				i = maxTop-1;
+			else
+				continue;
+
+			while( i > 0 && variance[topDims[i-1]] < v ) {
+				topDims[i] = topDims[i-1];
+				i--;
+			}
+			topDims[i] = k;
+		}
+
+		return topDims[rand.nextInt(numTop)];
+	}
+
+	/**
+	 * Rearranges the indexes so that the element at 'k' is where it would be if sorted along the dimension.
+	 * Elements before it are less than or equal and elements after are greater than or equal.
+	 */
+	private void quickSelect( int start , int end , int k , int dim ) {
+		int lo = start, hi = end-1;
+		while( lo < hi ) {
+			double pivot = points.data[indexes[(lo+hi)/2]].getDouble(dim);
+			int i = lo, j = hi;
+			while( i <= j ) {
+				while( points.data[indexes[i]].getDouble(dim) < pivot ) i++;
+				while( points.data[indexes[j]].getDouble(dim) > pivot ) j--;
+				if( i <= j ) {
+					int tmp = indexes[i];
+					indexes[i] = indexes[j];
+					indexes[j] = tmp;
+					i++; j--;
+				}
+			}
+			if( k <= j )
+				hi = j;
+			else if( k >= i )
+				lo = i;
+			else
+				break;
+		}
+	}
+
+	@Override
+	public boolean findNearest(D target, double maxDistance, NnBestTwo result) {
+		result.reset();
+		if( points == null || points.size == 0 )
+			return false;
+
+		if( ++searchID == Integer.MAX_VALUE ) {
+			for( int i = 0; i < visited.length; i++ )
+				visited[i] = 0;
+			searchID = 1;
+		}
+
+		int best = -1, best2 = -1;
+		double bestDist = Double.MAX_VALUE, bestDist2 = Double.MAX_VALUE;
+		int checks = 0;
+
+		heapSize = 0;
+		for( int tree = 0; tree < numTrees; tree++ )
+			heapPush(0,roots[tree]);
+
+		while( heapSize > 0 && checks < maxChecks ) {
+			double bound = heapKey[0];
+			int node = heapPop();
+
+			// nothing in this branch can be better than the second best
+			if( bound >= bestDist2 )
+				break;
+
+			// descend to a leaf while saving the other branch for later
+			int dim;
+			while( (dim = nodeDim.data[node]) >= 0 ) {
+				double diff = target.getDouble(dim) - nodeSplit.data[node];
+				int near,far;
+				if( diff < 0 ) {
+					near = nodeA.data[node]; far = nodeB.data[node];
+				} else {
+					near = nodeB.data[node]; far = nodeA.data[node];
+				}
+				double farBound = Math.max(bound,diff*diff);
+				if( farBound < bestDist2 )
+					heapPush(farBound,far);
+				node = near;
+			}
+
+			int end = nodeB.data[node];
+			for( int i = nodeA.data[node]; i < end; i++ ) {
+				int index = indexes[i];
+				if( visited[index] == searchID )
+					continue;
+				visited[index] = searchID;
+				checks++;
+
+				double d = distanceSq(target,points.data[index]);
+				if( d < bestDist ) {
+					best2 = best; bestDist2 = bestDist;
+					best = index; bestDist = d;
+				} else if( d < bestDist2 ) {
+					best2 = index; bestDist2 = d;
+				}
+			}
+		}
+
+		if( best < 0 )
+			return false;
+
+		double distance = Math.sqrt(bestDist);
+		if( maxDistance >= 0 && distance >= maxDistance )
+			return false;
+
+		result.index = best;
+		result.distance = distance;
+		if( best2 >= 0 ) {
+			result.index2 = best2;
+			result.distance2 = Math.sqrt(bestDist2);
+		}
+		return true;
+	}
+
+	private void heapPush( double key , int node ) {
+		if( heapSize == heapKey.length ) {
+			double k[] = new double[heapSize*2];
+			int n[] = new int[heapSize*2];
+			System.arraycopy(heapKey,0,k,0,heapSize);
+			System.arraycopy(heapNode,0,n,0,heapSize);
+			heapKey = k;
+			heapNode = n;
+		}
+		int i = heapSize++;
+		while( i > 0 ) {
+			int parent = (i-1)/2;
+			if( heapKey[parent] <= key )
+				break;
+			heapKey[i] = heapKey[parent];
+			heapNode[i] = heapNode[parent];
+			i = parent;
+		}
+		heapKey[i] = key;
+		heapNode[i] = node;
+	}
+
+	private int heapPop() {
+		int ret = heapNode[0];
+		heapSize--;
+		double key = heapKey[heapSize];
+		int node = heapNode[heapSize];
+		int i = 0;
+		while( true ) {
+			int child = 2*i+1;
+			if( child >= heapSize )
+				break;
+			if( child+1 < heapSize && heapKey[child+1] < heapKey[child] )
+				child++;
+			if( key <= heapKey[child] )
+				break;
+			heapKey[i] = heapKey[child];
+			heapNode[i] = heapNode[child];
+			i = child;
+		}
+		heapKey[i] = key;
+		heapNode[i] = node;
+		return ret;
+	}
+
+	public int getNumTrees() {
+		return numTrees;
+	}
+
+	public int getMaxChecks() {
+		return maxChecks;
+	}
+
+	public void setMaxChecks(int maxChecks) {
+		this.maxChecks = maxChecks;
+	}
+}
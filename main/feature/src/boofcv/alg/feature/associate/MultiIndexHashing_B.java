@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Approximate nearest neighbor search for binary descriptors using multi-index hashing [1].  Each descriptor
+ * is broken up into 16-bit substrings and there is one table for each substring.  If two descriptors are within
+ * a Hamming distance of r then at least one of their m substrings must be within a distance of r/m.  Candidates
+ * are found by looking up the target's substrings, and optionally all substrings within a Hamming distance of one
+ * or two, in every table.  Then the full Hamming distance is computed for each unique candidate.  Descriptors whose
+ * substrings are all farther away than the probe radius will be missed, which is why the search is approximate.
+ * </p>
+ *
+ * <p>
+ * Instead of a hash table with 2<sup>16</sup> buckets, each table is an array of descriptor indexes sorted by
+ * substring value and lookups are done with a binary search.  Memory is linear in the number of descriptors.
+ * </p>
+ *
+ * <p>
+ * [1] Norouzi, M., Punjani, A., and Fleet, D. J. "Fast search in hamming space with multi-index hashing." CVPR 2012
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MultiIndexHashing_B implements DescriptorSearch<TupleDesc_B> {
+
+	// number of possible substring values
+	private static final int NUM_KEYS = 1 << 16;
+
+	// Hamming distance of substrings which are looked up
+	private int probeRadius;
+
+	// descriptors being searched
+	private FastQueue<TupleDesc_B> points;
+	private int numTables;
+
+	// For each table: substring value of each descriptor and descriptor index, sorted by substring value
+	private int keys[] = new int[0];
+	private int order[] = new int[0];
+
+	// histogram used by counting sort
+	private int counts[];
+
+	// used to ensure each descriptor is only checked once per search
+	private int visited[] = new int[0];
+	private int searchID;
+
+	// best matches found so far in the current search
+	private int best, best2;
+	private int bestDist, bestDist2;
+
+	/**
+	 * Configures the search
+	 *
+	 * @param probeRadius Substrings within this Hamming distance of the target's substrings are looked up.  Can be
+	 *                    0, 1, or 2.  Larger values find more matches but are slower.
+	 */
+	public MultiIndexHashing_B(int probeRadius) {
+		if( probeRadius < 0 || probeRadius > 2 )
+			throw new IllegalArgumentException("probeRadius must be 0, 1, or 2");
+		this.probeRadius = probeRadius;
+	}
+
+	@Override
+	public void setPoints(FastQueue<TupleDesc_B> points) {
+		this.points = points;
+		int N = points.size;
+		numTables = N > 0 ? (points.data[0].numBits+15)/16 : 0;
+
+		if( visited.length < N ) {
+			visited = new int[N];
+			searchID = 0;
+		}
+		if( keys.length < N*numTables ) {
+			keys = new int[N*numTables];
+			order = new int[N*numTables];
+		}
+		if( counts == null )
+			counts = new int[NUM_KEYS+1];
+
+		// counting sort each table by substring value
+		for( int table = 0; table < numTables; table++ ) {
+			int offset = table*N;
+			for( int i = 0; i < counts.length; i++ )
+				counts[i] = 0;
+			for( int i = 0; i < N; i++ )
+				counts[substring(points.data[i].data,table)+1]++;
+			for( int i = 1; i < counts.length; i++ )
+				counts[i] += counts[i-1];
+			for( int i = 0; i < N; i++ ) {
+				int key = substring(points.data[i].data,table);
+				int location = offset + counts[key]++;
+				keys[location] = key;
+				order[location] = i;
+			}
+		}
+	}
+
+	/**
+	 * Returns the value of the specified 16-bit substring
+	 */
+	private static int substring( int data[] , int table ) {
+		return (data[table >> 1] >>> ((table & 1) << 4)) & 0xFFFF;
+	}
+
+	@Override
+	public boolean findNearest(TupleDesc_B target, double maxDistance, NnBestTwo result) {
+		result.reset();
+		if( points == null || points.size == 0 )
+			return false;
+
+		if( ++searchID == Integer.MAX_VALUE ) {
+			for( int i = 0; i < visited.length; i++ )
+				visited[i] = 0;
+			searchID = 1;
+		}
+
+		best = best2 = -1;
+		bestDist = bestDist2 = Integer.MAX_VALUE;
+
+		for( int table = 0; table < numTables; table++ ) {
+			int key = substring(target.data,table);
+			lookup(target,table,key);
+			if( probeRadius >= 1 ) {
+				for( int i = 0; i < 16; i++ ) {
+					int keyI = key ^ (1 << i);
+					lookup(target,table,keyI);
+					if( probeRadius >= 2 ) {
+						for( int j = i+1; j < 16; j++ )
+							lookup(target,table,keyI ^ (1 << j));
+					}
+				}
+			}
+		}
+
+		if( best < 0 )
+			return false;
+		if( maxDistance >= 0 && bestDist >= maxDistance )
+			return false;
+
+		result.index = best;
+		result.distance = bestDist;
+		if( best2 >= 0 ) {
+			result.index2 = best2;
+			result.distance2 = bestDist2;
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the distance to all descriptors in the table with the specified substring value
+	 */
+	private void lookup( TupleDesc_B target , int table , int key ) {
+		int N = points.size;
+		int offset = table*N;
+
+		// binary search for the first element with this key
+		int lo = offset, hi = offset+N;
+		while( lo < hi ) {
+			int mid = (lo+hi) >>> 1;
+			if( keys[mid] < key )
+				lo = mid+1;
+			else
+				hi = mid;
+		}
+
+		int end = offset+N;
+		for( int i = lo; i < end && keys[i] == key; i++ ) {
+			int index = order[i];
+			if( visited[index] == searchID )
+				continue;
+			visited[index] = searchID;
+
+			int d = hamming(target.data,points.data[index].data);
+			if( d < bestDist ) {
+				best2 = best; bestDist2 = bestDist;
+				best = index; bestDist = d;
+			} else if( d < bestDist2 ) {
+				best2 = index; bestDist2 = d;
+			}
+		}
+	}
+
+	private static int hamming( int a[] , int b[] ) {
+		int total = 0;
+		for( int i = 0; i < a.length; i++ )
+			total += Integer.bitCount(a[i] ^ b[i]);
+		return total;
+	}
+
+	public int getProbeRadius() {
+		return probeRadius;
+	}
+}
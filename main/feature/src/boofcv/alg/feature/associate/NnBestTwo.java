@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+/**
+ * Results from {@link DescriptorSearch}, the indexes of the best two matches and their distance.
+ *
+ * @author Peter Abeles
+ */
+public class NnBestTwo {
+	/** Index of the best match.  -1 if no match */
+	public int index;
+	/** Distance of the best match */
+	public double distance;
+	/** Index of the second best match.  -1 if there is no second match */
+	public int index2;
+	/** Distance of the second best match */
+	public double distance2;
+
+	public NnBestTwo() {
+		reset();
+	}
+
+	public void reset() {
+		index = -1;
+		index2 = -1;
+		distance = Double.MAX_VALUE;
+		distance2 = Double.MAX_VALUE;
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * A set of binary descriptors packed into a single contiguous array of longs.  Each descriptor takes up
+ * {@link #stride} elements and unused bits are zero.  Packing the data this way avoids following a reference
+ * for every descriptor and allows the Hamming distance to be computed 64-bits at a time using
+ * {@link Long#bitCount(long)}, which the JIT replaces with a single popcnt instruction on CPUs which support it.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PackedDescriptors_B {
+	/** Packed descriptors. */
+	public long data[] = new long[0];
+	/** Number of longs used to store each descriptor */
+	public int stride;
+	/** Number of descriptors */
+	public int size;
+
+	/**
+	 * Copies the descriptors into the packed array.  All descriptors must have the same number of bits.
+	 *
+	 * @param descriptors Descriptors which are to be packed.  Not modified.
+	 */
+	public void setTo( FastQueue<TupleDesc_B> descriptors ) {
+		size = descriptors.size;
+		stride = size > 0 ? (descriptors.data[0].data.length+1)/2 : 0;
+
+		if( data.length < size*stride )
+			data = new long[size*stride];
+
+		for( int i = 0; i < size; i++ ) {
+			int src[] = descriptors.data[i].data;
+			if( (src.length+1)/2 != stride )
+				throw new IllegalArgumentException("All descriptors must be the same length");
+			int index = i*stride;
+			int j = 0;
+			for( ; j+1 < src.length; j += 2 ) {
+				data[index++] = (src[j] & 0xFFFFFFFFL) | ((long)src[j+1] << 32);
+			}
+			if( j < src.length )
+				data[index] = src[j] & 0xFFFFFFFFL;
+		}
+	}
+
+	/**
+	 * Computes the Hamming distance between a descriptor in this set and a descriptor in another set
+	 *
+	 * @param indexA Index of descriptor in this set
+	 * @param setB The other set
+	 * @param indexB Index of descriptor in the other set
+	 * @return Hamming distance
+	 */
+	public int hamming( int indexA , PackedDescriptors_B setB , int indexB ) {
+		return hamming(data,indexA*stride,setB.data,indexB*stride,stride);
+	}
+
+	/**
+	 * Computes the Hamming distance between two packed descriptors
+	 */
+	public static int hamming( long a[] , int offsetA , long b[] , int offsetB , int length ) {
+		int total = 0;
+		for( int i = 0; i < length; i++ ) {
+			total += Long.bitCount(a[offsetA+i] ^ b[offsetB+i]);
+		}
+		return total;
+	}
+
+	/**
+	 * Computes the Hamming distance between a descriptor in this set and every descriptor in another set.
+	 *
+	 * @param indexA Index of descriptor in this set
+	 * @param setB The other set
+	 * @param scores (Output) Hamming distance to each descriptor in setB.  Must be at least setB.size long.
+	 */
+	public void hammingAll( int indexA , PackedDescriptors_B setB , int scores[] ) {
+		final long[] a = data;
+		final long[] b = setB.data;
+		final int offsetA = indexA*stride;
+		final int N = stride;
+
+		for( int j = 0, offsetB = 0; j < setB.size; j++, offsetB += N ) {
+			int total = 0;
+			for( int i = 0; i < N; i++ ) {
+				total += Long.bitCount(a[offsetA+i] ^ b[offsetB+i]);
+			}
+			scores[j] = total;
+		}
+	}
+}
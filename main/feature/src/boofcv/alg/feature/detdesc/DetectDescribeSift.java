@@ -85,6 +85,19 @@ public class DetectDescribeSift {
 		featureAngles.reset();
 		location.reset();
 
+		detect(input);
+
+		FastQueue<ScalePoint> found = detector.getFoundPoints();
+
+		for( int i = 0; i < found.size; i++ ) {
+			describe(found.data[i], orientation, describe, features, featureScales, featureAngles, location);
+		}
+	}
+
+	/**
+	 * Computes the scale-space and detects features inside of it
+	 */
+	protected void detect( ImageFloat32 input ) {
 		ss.constructPyramid(input);
 		ss.computeFeatureIntensity();
 		ss.computeDerivatives();
@@ -92,30 +105,35 @@ public class DetectDescribeSift {
 		detector.process(ss);
 		orientation.setScaleSpace(ss);
 		describe.setScaleSpace(ss);
+	}
 
-		FastQueue<ScalePoint> found = detector.getFoundPoints();
-
-		for( int i = 0; i < found.size; i++ ) {
-			ScalePoint sp = found.data[i];
-			orientation.process(sp.x,sp.y,sp.scale);
+	/**
+	 * Estimates the orientations of a detected feature and computes a descriptor for each orientation.  Results
+	 * are added to the provided storage.
+	 */
+	protected static void describe( ScalePoint sp ,
+									OrientationHistogramSift orientation , DescribePointSift describe ,
+									SurfFeatureQueue features , GrowQueue_F64 featureScales ,
+									GrowQueue_F64 featureAngles , FastQueue<Point2D_F64> location )
+	{
+		orientation.process(sp.x,sp.y,sp.scale);
 
-			GrowQueue_F64 angles = orientation.getOrientations();
+		GrowQueue_F64 angles = orientation.getOrientations();
 
-			int imageIndex = orientation.getImageIndex();
-			double pixelScale = orientation.getPixelScale();
+		int imageIndex = orientation.getImageIndex();
+		double pixelScale = orientation.getPixelScale();
 
-			for( int j = 0; j < angles.size; j++ ) {
-				SurfFeature desc = features.grow();
+		for( int j = 0; j < angles.size; j++ ) {
+			SurfFeature desc = features.grow();
 
-				double yaw = angles.data[j];
+			double yaw = angles.data[j];
 
-				describe.process(sp.x,sp.y,sp.scale,yaw,imageIndex,pixelScale,desc);
+			describe.process(sp.x,sp.y,sp.scale,yaw,imageIndex,pixelScale,desc);
 
-				desc.laplacianPositive = sp.white;
-				featureScales.push(sp.scale);
-				featureAngles.push(yaw);
-				location.grow().set(sp.x,sp.y);
-			}
+			desc.laplacianPositive = sp.white;
+			featureScales.push(sp.scale);
+			featureAngles.push(yaw);
+			location.grow().set(sp.x,sp.y);
 		}
 	}
 
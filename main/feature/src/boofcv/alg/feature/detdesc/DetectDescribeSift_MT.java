@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftDetector;
+import boofcv.alg.feature.detect.interest.SiftImageScaleSpace;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.feature.SurfFeatureQueue;
+import boofcv.struct.image.ImageFloat32;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent version of {@link DetectDescribeSift}.  The orientation and description of the detected features are
+ * computed in parallel.  Features are split into blocks and each block has its own orientation and description
+ * algorithm, created by the provided {@link Factory}, so that each thread has its own histograms.  The results of
+ * each block are then added to the output in order, producing the same features as the single threaded version.
+ * The scale-space can be concurrent too, e.g. {@link boofcv.alg.feature.detect.interest.SiftImageScaleSpace_MT}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DetectDescribeSift_MT extends DetectDescribeSift {
+
+	// minimum number of features described by a thread
+	public static final int MIN_BLOCK = 20;
+
+	// creates orientation and description algorithms
+	Factory factory;
+
+	// algorithms and storage used by each block
+	List<Block> blocks = new ArrayList<Block>();
+
+	// features being described
+	FastQueue<ScalePoint> found;
+	int numBlocks;
+
+	public DetectDescribeSift_MT(SiftImageScaleSpace ss,
+								 SiftDetector detector,
+								 Factory factory )
+	{
+		super(ss, detector, factory.createOrientation(), factory.createDescribe());
+		this.factory = factory;
+		blocks.add(new Block(orientation, describe));
+	}
+
+	@Override
+	public void process( ImageFloat32 input ) {
+
+		features.reset();
+		featureScales.reset();
+		featureAngles.reset();
+		location.reset();
+
+		detect(input);
+
+		found = detector.getFoundPoints();
+
+		numBlocks = BoofConcurrency.computeNumBlocks(found.size, MIN_BLOCK);
+		while( blocks.size() < numBlocks ) {
+			blocks.add(new Block(factory.createOrientation(), factory.createDescribe()));
+		}
+		for( int i = 0; i < numBlocks; i++ ) {
+			blocks.get(i).setScaleSpace(ss);
+		}
+
+		BoofConcurrency.loopBlocks(0, numBlocks, 1, taskDescribe);
+
+		// add the results in the same order as the single threaded version
+		for( int i = 0; i < numBlocks; i++ ) {
+			Block b = blocks.get(i);
+
+			for( int j = 0; j < b.features.size; j++ ) {
+				features.grow().setTo(b.features.get(j));
+				featureScales.push(b.featureScales.get(j));
+				featureAngles.push(b.featureAngles.get(j));
+				location.grow().set(b.location.get(j));
+			}
+		}
+	}
+
+	private IntRangeTask taskDescribe = new IntRangeTask() {
+		@Override
+		public void process(int min, int max) {
+			for( int block = min; block < max; block++ ) {
+				Block b = blocks.get(block);
+				b.reset();
+
+				int i0 = BoofConcurrency.blockStart(0, found.size, numBlocks, block);
+				int i1 = BoofConcurrency.blockStart(0, found.size, numBlocks, block + 1);
+
+				for( int i = i0; i < i1; i++ ) {
+					describe(found.data[i], b.orientation, b.describe,
+							b.features, b.featureScales, b.featureAngles, b.location);
+				}
+			}
+		}
+	};
+
+	/**
+	 * Algorithms and the features which they found for a single block
+	 */
+	private static class Block {
+		OrientationHistogramSift orientation;
+		DescribePointSift describe;
+
+		SurfFeatureQueue features;
+		GrowQueue_F64 featureScales = new GrowQueue_F64(100);
+		GrowQueue_F64 featureAngles = new GrowQueue_F64(100);
+		FastQueue<Point2D_F64> location = new FastQueue<Point2D_F64>(100,Point2D_F64.class,true);
+
+		private Block(OrientationHistogramSift orientation, DescribePointSift describe) {
+			this.orientation = orientation;
+			this.describe = describe;
+			features = new SurfFeatureQueue(describe.getDescriptorLength());
+		}
+
+		public void setScaleSpace( SiftImageScaleSpace ss ) {
+			orientation.setScaleSpace(ss);
+			describe.setScaleSpace(ss);
+		}
+
+		public void reset() {
+			features.reset();
+			featureScales.reset();
+			featureAngles.reset();
+			location.reset();
+		}
+	}
+
+	/**
+	 * Creates new instances of the orientation and description algorithms.  Each instance must be
+	 * configured the same way.
+	 */
+	public interface Factory {
+		public OrientationHistogramSift createOrientation();
+
+		public DescribePointSift createDescribe();
+	}
+}
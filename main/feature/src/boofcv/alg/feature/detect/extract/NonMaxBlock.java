@@ -77,6 +77,21 @@ public abstract class NonMaxBlock {
 	 * @param localMax (Output) storage for found local maximums.
 	 */
 	public void process(ImageFloat32 intensityImage, QueueCorner localMin, QueueCorner localMax) {
+		process(intensityImage, localMin, localMax, 0, getNumBlockRows(intensityImage.height));
+	}
+
+	/**
+	 * Same as {@link #process(ImageFloat32, QueueCorner, QueueCorner)} but only the specified rows of blocks are
+	 * searched.  Each row of blocks is independent, allowing the image to be split up.
+	 *
+	 * @param intensityImage (Input) Feature intensity image.
+	 * @param localMin (Output) storage for found local minimums.
+	 * @param localMax (Output) storage for found local maximums.
+	 * @param row0 First row of blocks which is searched, inclusive.
+	 * @param row1 Last row of blocks which is searched, exclusive.
+	 */
+	public void process(ImageFloat32 intensityImage, QueueCorner localMin, QueueCorner localMax,
+						int row0 , int row1 ) {
 
 		this.localMin = localMin;
 		this.localMax = localMax;
@@ -86,7 +101,8 @@ public abstract class NonMaxBlock {
 
 		int step = radius+1;
 
-		for( int y = border; y < endY; y += step ) {
+		int yEnd = Math.min(endY, border + row1*step);
+		for( int y = border + row0*step; y < yEnd; y += step ) {
 			int y1 = y + step;
 			if( y1 > endY ) y1 = endY;
 
@@ -98,6 +114,17 @@ public abstract class NonMaxBlock {
 		}
 	}
 
+	/**
+	 * Returns the number of rows of blocks that an image with the specified height is broken up into.
+	 */
+	public int getNumBlockRows( int imageHeight ) {
+		int length = imageHeight - 2*border;
+		if( length <= 0 )
+			return 0;
+		int step = radius+1;
+		return (length + step - 1)/step;
+	}
+
 	protected abstract void searchBlock( int x0 , int y0 , int x1 , int y1 , ImageFloat32 img );
 
 	public void setSearchRadius(int radius) {
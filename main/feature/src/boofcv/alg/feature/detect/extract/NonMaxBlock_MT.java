@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.ImageFloat32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent version of {@link NonMaxBlock}.  The image is split up into bands of block rows and each band is
+ * searched by its own instance of the wrapped algorithm.  Features found in each band are then appended to the
+ * output in band order, so the output is identical to the single threaded version, including the order.
+ * </p>
+ *
+ * <p>
+ * Settings, e.g. search radius and thresholds, are specified on this class and copied to each instance.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class NonMaxBlock_MT extends NonMaxBlock {
+
+	// minimum number of pixel rows in a band
+	public static final int MIN_BLOCK = 20;
+
+	// creates the algorithm used to search each band
+	Factory factory;
+
+	// searches each band and stores the found features
+	List<Worker> workers = new ArrayList<Worker>();
+	int numBands;
+	// range of block rows being searched
+	int firstRow;
+	int numBlockRows;
+
+	// image being processed
+	ImageFloat32 intensity;
+
+	IntRangeTask task = new IntRangeTask() {
+		@Override
+		public void process(int minInclusive, int maxExclusive) {
+			for( int i = minInclusive; i < maxExclusive; i++ ) {
+				int row0 = firstRow + BoofConcurrency.blockStart(0,numBlockRows,numBands,i);
+				int row1 = firstRow + BoofConcurrency.blockStart(0,numBlockRows,numBands,i+1);
+
+				Worker w = workers.get(i);
+				w.localMin.reset();
+				w.localMax.reset();
+				w.alg.process(intensity,w.localMin,w.localMax,row0,row1);
+			}
+		}
+	};
+
+	/**
+	 * Creates a concurrent version of the algorithm returned by the factory.  The factory is invoked once for
+	 * each thread and the settings of the first instance it returns are used as the initial settings.
+	 *
+	 * @param factory Creates new instances of the algorithm which is to be run concurrently.
+	 */
+	public NonMaxBlock_MT( Factory factory ) {
+		this(factory.create(), factory);
+	}
+
+	private NonMaxBlock_MT( NonMaxBlock alg , Factory factory ) {
+		super(alg.detectsMinimum, alg.detectsMaximum);
+		this.factory = factory;
+		workers.add(new Worker(alg));
+
+		setSearchRadius(alg.getSearchRadius());
+		setBorder(alg.getBorder());
+		setThresholdMin(alg.getThresholdMin());
+		setThresholdMax(alg.getThresholdMax());
+	}
+
+	@Override
+	public void process(ImageFloat32 intensityImage, QueueCorner localMin, QueueCorner localMax,
+						int row0, int row1) {
+
+		numBlockRows = row1-row0;
+		int step = radius+1;
+		numBands = BoofConcurrency.computeNumBlocks(numBlockRows, Math.max(1,MIN_BLOCK/step));
+
+		declareWorkers(numBands);
+
+		// the first worker handles everything when there isn't enough to split up
+		if( numBands <= 1 ) {
+			workers.get(0).alg.process(intensityImage, localMin, localMax, row0, row1);
+			return;
+		}
+
+		intensity = intensityImage;
+		firstRow = row0;
+
+		BoofConcurrency.loopBlocks(0,numBands,1,task);
+
+		// combine the results in order
+		for( int i = 0; i < numBands; i++ ) {
+			Worker w = workers.get(i);
+			if( localMin != null )
+				append(w.localMin,localMin);
+			if( localMax != null )
+				append(w.localMax,localMax);
+		}
+
+		intensity = null;
+	}
+
+	private static void append( QueueCorner src , QueueCorner dst ) {
+		for( int i = 0; i < src.size; i++ ) {
+			dst.add(src.data[i].x,src.data[i].y);
+		}
+	}
+
+	/**
+	 * Makes sure there are enough workers and that their settings match this class
+	 */
+	private void declareWorkers( int total ) {
+		while( workers.size() < total ) {
+			workers.add(new Worker(factory.create()));
+		}
+
+		for( int i = 0; i < total; i++ ) {
+			NonMaxBlock alg = workers.get(i).alg;
+			alg.setSearchRadius(radius);
+			alg.setBorder(border);
+			alg.setThresholdMin(thresholdMin);
+			alg.setThresholdMax(thresholdMax);
+		}
+	}
+
+	/**
+	 * Not used.  Blocks are searched by the workers.
+	 */
+	@Override
+	protected void searchBlock(int x0, int y0, int x1, int y1, ImageFloat32 img) {
+		throw new RuntimeException("Blocks are searched by the workers");
+	}
+
+	private static class Worker {
+		NonMaxBlock alg;
+		QueueCorner localMin = new QueueCorner(10);
+		QueueCorner localMax = new QueueCorner(10);
+
+		private Worker(NonMaxBlock alg) {
+			this.alg = alg;
+		}
+	}
+
+	/**
+	 * Creates new instances of the algorithm, one for each thread.
+	 */
+	public interface Factory {
+		public NonMaxBlock create();
+	}
+}
@@ -56,24 +56,52 @@ public abstract class NonMaxCandidate {
 						QueueCorner candidatesMin, QueueCorner candidatesMax,
 						QueueCorner foundMin , QueueCorner foundMax ) {
 
+		int total = 0;
+		if( candidatesMin != null )
+			total += candidatesMin.size;
+		if( candidatesMax != null )
+			total += candidatesMax.size;
+
+		process(intensityImage, candidatesMin, candidatesMax, foundMin, foundMax, 0, total);
+	}
+
+	/**
+	 * Same as {@link #process(ImageFloat32, QueueCorner, QueueCorner, QueueCorner, QueueCorner)} but only
+	 * a range of candidates is examined.  Candidates are indexed as if the maximum candidates were appended to
+	 * the minimum candidates.  Each candidate is independent, allowing the list to be split up.
+	 *
+	 * @param first Index of the first candidate examined, inclusive.
+	 * @param last Index of the last candidate examined, exclusive.
+	 */
+	public void process(ImageFloat32 intensityImage,
+						QueueCorner candidatesMin, QueueCorner candidatesMax,
+						QueueCorner foundMin , QueueCorner foundMax ,
+						int first , int last ) {
+
 		this.input = intensityImage;
 
 		// pixels indexes larger than these should not be examined
 		endX = intensityImage.width-ignoreBorder;
 		endY = intensityImage.height-ignoreBorder;
 
-		if( candidatesMin != null )
-			examineMinimum(intensityImage,candidatesMin,foundMin);
-		if( candidatesMax != null )
-			examineMaximum(intensityImage,candidatesMax,foundMax);
+		int numMin = candidatesMin == null ? 0 : candidatesMin.size;
 
+		if( candidatesMin != null && first < numMin )
+			examineMinimum(intensityImage,candidatesMin,first,Math.min(last,numMin),foundMin);
+		if( candidatesMax != null && last > numMin )
+			examineMaximum(intensityImage,candidatesMax,Math.max(first,numMin)-numMin,last-numMin,foundMax);
 	}
 
 	protected void examineMinimum( ImageFloat32 intensityImage , QueueCorner candidates , QueueCorner found ) {
+		examineMinimum(intensityImage,candidates,0,candidates.size,found);
+	}
+
+	protected void examineMinimum( ImageFloat32 intensityImage , QueueCorner candidates ,
+								   int first , int last , QueueCorner found ) {
 		final int stride = intensityImage.stride;
 		final float inten[] = intensityImage.data;
 
-		for (int iter = 0; iter < candidates.size; iter++) {
+		for (int iter = first; iter < last; iter++) {
 			Point2D_I16 pt = candidates.data[iter];
 
 			if( pt.x < ignoreBorder || pt.y < ignoreBorder || pt.x >= endX || pt.y >= endY )
@@ -95,10 +123,15 @@ public abstract class NonMaxCandidate {
 	}
 
 	protected void examineMaximum( ImageFloat32 intensityImage , QueueCorner candidates , QueueCorner found ) {
+		examineMaximum(intensityImage,candidates,0,candidates.size,found);
+	}
+
+	protected void examineMaximum( ImageFloat32 intensityImage , QueueCorner candidates ,
+								   int first , int last , QueueCorner found ) {
 		final int stride = intensityImage.stride;
 		final float inten[] = intensityImage.data;
 
-		for (int iter = 0; iter < candidates.size; iter++) {
+		for (int iter = first; iter < last; iter++) {
 			Point2D_I16 pt = candidates.data[iter];
 
 			if( pt.x < ignoreBorder || pt.y < ignoreBorder || pt.x >= endX || pt.y >= endY )
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.ImageFloat32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent version of {@link NonMaxCandidate}.  The list of candidates is split up into blocks and each block
+ * is examined by its own instance of the wrapped algorithm.  Features found in each block are then appended to
+ * the output in block order, so the output is identical to the single threaded version, including the order.
+ * </p>
+ *
+ * <p>
+ * Settings, e.g. search radius and thresholds, are specified on this class and copied to each instance.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class NonMaxCandidate_MT extends NonMaxCandidate {
+
+	// minimum number of candidates in a block
+	public static final int MIN_BLOCK = 200;
+
+	// creates the algorithm used to examine each block
+	Factory factory;
+
+	// examines each block and stores the found features
+	List<Worker> workers = new ArrayList<Worker>();
+	int numBlocks;
+	// range of candidates being examined
+	int first;
+	int length;
+
+	// input to the algorithm
+	QueueCorner candidatesMin;
+	QueueCorner candidatesMax;
+
+	IntRangeTask task = new IntRangeTask() {
+		@Override
+		public void process(int minInclusive, int maxExclusive) {
+			for( int i = minInclusive; i < maxExclusive; i++ ) {
+				int a = first + BoofConcurrency.blockStart(0,length,numBlocks,i);
+				int b = first + BoofConcurrency.blockStart(0,length,numBlocks,i+1);
+
+				Worker w = workers.get(i);
+				w.foundMin.reset();
+				w.foundMax.reset();
+				w.alg.process(input,candidatesMin,candidatesMax,w.foundMin,w.foundMax,a,b);
+			}
+		}
+	};
+
+	/**
+	 * Creates a concurrent version of the algorithm returned by the factory.  The factory is invoked once for
+	 * each thread and the settings of the first instance it returns are used as the initial settings.
+	 *
+	 * @param factory Creates new instances of the algorithm which is to be run concurrently.
+	 */
+	public NonMaxCandidate_MT( Factory factory ) {
+		this(factory.create(), factory);
+	}
+
+	private NonMaxCandidate_MT( NonMaxCandidate alg , Factory factory ) {
+		this.factory = factory;
+		workers.add(new Worker(alg));
+
+		setSearchRadius(alg.getSearchRadius());
+		setBorder(alg.getBorder());
+		setThresholdMin(alg.getThresholdMin());
+		setThresholdMax(alg.getThresholdMax());
+	}
+
+	@Override
+	public void process(ImageFloat32 intensityImage,
+						QueueCorner candidatesMin, QueueCorner candidatesMax,
+						QueueCorner foundMin, QueueCorner foundMax,
+						int first, int last) {
+
+		length = last-first;
+		numBlocks = BoofConcurrency.computeNumBlocks(length,MIN_BLOCK);
+
+		declareWorkers(numBlocks);
+
+		// the first worker handles everything when there isn't enough to split up
+		if( numBlocks <= 1 ) {
+			workers.get(0).alg.process(intensityImage,candidatesMin,candidatesMax,foundMin,foundMax,first,last);
+			return;
+		}
+
+		this.input = intensityImage;
+		this.candidatesMin = candidatesMin;
+		this.candidatesMax = candidatesMax;
+		this.first = first;
+
+		BoofConcurrency.loopBlocks(0,numBlocks,1,task);
+
+		// combine the results in order
+		for( int i = 0; i < numBlocks; i++ ) {
+			Worker w = workers.get(i);
+			if( foundMin != null )
+				append(w.foundMin,foundMin);
+			if( foundMax != null )
+				append(w.foundMax,foundMax);
+		}
+
+		this.input = null;
+		this.candidatesMin = null;
+		this.candidatesMax = null;
+	}
+
+	private static void append( QueueCorner src , QueueCorner dst ) {
+		for( int i = 0; i < src.size; i++ ) {
+			dst.add(src.data[i].x,src.data[i].y);
+		}
+	}
+
+	/**
+	 * Makes sure there are enough workers and that their settings match this class
+	 */
+	private void declareWorkers( int total ) {
+		while( workers.size() < total ) {
+			workers.add(new Worker(factory.create()));
+		}
+
+		for( int i = 0; i < total; i++ ) {
+			NonMaxCandidate alg = workers.get(i).alg;
+			alg.setSearchRadius(radius);
+			alg.setBorder(ignoreBorder);
+			alg.setThresholdMin(thresholdMin);
+			alg.setThresholdMax(thresholdMax);
+		}
+	}
+
+	/**
+	 * Not used.  Candidates are examined by the workers.
+	 */
+	@Override
+	protected boolean searchMin(int center, float val) {
+		throw new RuntimeException("Candidates are examined by the workers");
+	}
+
+	/**
+	 * Not used.  Candidates are examined by the workers.
+	 */
+	@Override
+	protected boolean searchMax(int center, float val) {
+		throw new RuntimeException("Candidates are examined by the workers");
+	}
+
+	private static class Worker {
+		NonMaxCandidate alg;
+		QueueCorner foundMin = new QueueCorner(10);
+		QueueCorner foundMax = new QueueCorner(10);
+
+		private Worker(NonMaxCandidate alg) {
+			this.alg = alg;
+		}
+	}
+
+	/**
+	 * Creates new instances of the algorithm, one for each thread.
+	 */
+	public interface Factory {
+		public NonMaxCandidate create();
+	}
+}
@@ -24,6 +24,8 @@ import boofcv.struct.QueueCorner;
 import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageSingleBand;
 
+import java.util.Arrays;
+
 /**
  * <p>
  * Generic interface for fast corner detection algorithms. The general idea is that at the points in a circle around
@@ -39,6 +41,13 @@ import boofcv.struct.image.ImageSingleBand;
  * </p>
  *
  * <p>
+ * Before the decision tree is applied, each row is scanned with a quick test which only examines the four points in
+ * the circle at 0, 90, 180, and 270 degrees.  Pixels which can't possibly be a corner are rejected and the decision
+ * tree is only applied to the remaining candidates.  The quick test uses a look up table and doesn't change which
+ * pixels are found to be corners.
+ * </p>
+ *
+ * <p>
  * After a pixel is flagged as a corner then the the intensity the difference between the average
  * exterior pixel value which is part of the corner and the center pixel value.  See code for details.
  * </p>
@@ -83,15 +92,64 @@ public abstract class FastCornerIntensity<T extends ImageSingleBand> implements
 	// Used to sample the image and compute the score
 	protected FastHelper<T> helper;
 
+	// minimum number of continuous pixels in the circle for it to be a corner
+	protected int minContinuous;
+
+	// should the quick rejection test be used?
+	protected boolean usePreTest = true;
+	// look up table used to quickly reject pixels.  See FastHelper.preTestRow()
+	protected int []preTestTable;
+	// storage for pixels in a row which passed the quick rejection test
+	private int []rowCandidates = new int[0];
+
 	/**
 	 * Constructor
 	 *
 	 * @param helper Provide the image type specific helper.
+	 * @param minContinuous Minimum number of continuous pixels in the circle for it to be a corner.
 	 */
-	protected FastCornerIntensity(FastHelper<T> helper) {
+	protected FastCornerIntensity(FastHelper<T> helper, int minContinuous) {
 		this.helper = helper;
+		this.minContinuous = minContinuous;
+		this.preTestTable = createPreTestTable(minContinuous);
+	}
+
+	/**
+	 * Creates the look up table for the quick rejection test, which only examines the four points in the circle at
+	 * 0, 90, 180, and 270 degrees.  Any continuous arc of minContinuous pixels must contain at least
+	 * minContinuous/4 of these points and they must be next to each other.
+	 */
+	public static int[] createPreTestTable( int minContinuous ) {
+		int required = minContinuous/4;
+
+		boolean possible[] = new boolean[16];
+		for( int mask = 0; mask < 16; mask++ ) {
+			for( int start = 0; start < 4 && !possible[mask]; start++ ) {
+				boolean all = true;
+				for( int i = 0; i < required; i++ ) {
+					if( (mask & (1 << ((start+i)%4))) == 0 ) {
+						all = false;
+						break;
+					}
+				}
+				possible[mask] = all;
+			}
+		}
+
+		int table[] = new int[256];
+		for( int lower = 0; lower < 16; lower++ ) {
+			for( int upper = 0; upper < 16; upper++ ) {
+				table[lower | upper << 4] = (possible[lower] ? 1 : 0) | (possible[upper] ? 2 : 0);
+			}
+		}
+		return table;
 	}
 
+	/**
+	 * Creates a new instance of the same algorithm with the same settings.
+	 */
+	public abstract FastCornerIntensity<T> newInstance();
+
 	public QueueCorner getCandidates() {
 		return candidates;
 	}
@@ -106,8 +164,33 @@ public abstract class FastCornerIntensity<T extends ImageSingleBand> implements
 		return radius;
 	}
 
+	public int getMinContinuous() {
+		return minContinuous;
+	}
+
+	/**
+	 * If set to false then the quick rejection test is turned off and the decision tree is applied to every pixel.
+	 * Intended for testing and benchmarking, since the found corners are the same either way.
+	 */
+	public void setUsePreTest( boolean usePreTest ) {
+		this.usePreTest = usePreTest;
+		this.preTestTable = createPreTestTable(usePreTest ? minContinuous : 0);
+	}
+
+	public boolean isUsePreTest() {
+		return usePreTest;
+	}
+
 	public void process( T image , ImageFloat32 intensity ) {
 		candidates.reset();
+		setImage(image);
+		processRows(intensity, radius, image.height - radius, candidates);
+	}
+
+	/**
+	 * Specifies the image being processed
+	 */
+	protected void setImage( T image ) {
 		this.image = image;
 
 		if( stride != image.stride ) {
@@ -115,22 +198,46 @@ public abstract class FastCornerIntensity<T extends ImageSingleBand> implements
 			offsets = DiscretizedCircle.imageOffsets(radius, image.stride);
 		}
 		helper.setImage(image,offsets);
+	}
+
+	/**
+	 * Computes the intensity of pixels inside the specified rows.  Each row is first scanned with a quick rejection
+	 * test and the full test is only applied to pixels which pass.
+	 *
+	 * @param intensity (Output) Corner intensity.
+	 * @param y0 First row, inclusive.
+	 * @param y1 Last row, exclusive.
+	 * @param found (Output) Pixels which are corners are added to this list.
+	 */
+	protected void processRows( ImageFloat32 intensity , int y0 , int y1 , QueueCorner found ) {
+		int width = image.width - 2*radius;
+		if( width <= 0 )
+			return;
+		if( rowCandidates.length < width )
+			rowCandidates = new int[width];
+
+		for (int y = y0; y < y1; y++) {
+			int rowIntensity = intensity.startIndex + y*intensity.stride + radius;
+			int rowIndex = image.startIndex + y*image.stride + radius;
+
+			// most pixels are not corners, so set the entire row to zero and only write the corners
+			Arrays.fill(intensity.data,rowIntensity,rowIntensity+width,0);
+
+			int total = helper.preTestRow(rowIndex,width,preTestTable,rowCandidates);
 
-		for (int y = radius; y < image.height-radius; y++) {
-			int indexIntensity = intensity.startIndex + y*intensity.stride + radius;
-			int index = image.startIndex + y*image.stride + radius;
-			for (int x = radius; x < image.width-radius; x++, index++,indexIntensity++) {
+			for( int i = 0; i < total; i++ ) {
+				int c = rowCandidates[i];
+				int offset = c >> 2;
+				int index = rowIndex + offset;
 
 				helper.setThresholds(index);
 
-				if( checkLower(index) ) {
-					intensity.data[indexIntensity] = helper.scoreLower(index);
-					candidates.add(x,y);
-				} else if( checkUpper(index)) {
-					intensity.data[indexIntensity] = helper.scoreUpper(index);
-					candidates.add(x,y);
-				} else {
-					intensity.data[indexIntensity] = 0;
+				if( (c & 1) != 0 && checkLower(index) ) {
+					intensity.data[rowIntensity+offset] = helper.scoreLower(index);
+					found.add(radius+offset,y);
+				} else if( (c & 2) != 0 && checkUpper(index) ) {
+					intensity.data[rowIntensity+offset] = helper.scoreUpper(index);
+					found.add(radius+offset,y);
 				}
 			}
 		}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent version of {@link FastCornerIntensity}.  The image is split up into bands of rows and each band is
+ * processed by its own instance of the wrapped algorithm.  Corners found in each band are then appended in band
+ * order, so the intensity image and list of corners are identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FastCornerIntensity_MT<T extends ImageSingleBand> extends FastCornerIntensity<T> {
+
+	// minimum number of rows in a band
+	public static final int MIN_BLOCK = 20;
+
+	// the algorithm being run concurrently
+	FastCornerIntensity<T> alg;
+
+	// processes each band.  The first one is alg
+	List<FastCornerIntensity<T>> workers = new ArrayList<FastCornerIntensity<T>>();
+	int numBands;
+
+	// images being processed
+	ImageFloat32 intensity;
+
+	IntRangeTask task = new IntRangeTask() {
+		@Override
+		public void process(int minInclusive, int maxExclusive) {
+			int y0 = radius;
+			int y1 = image.height - radius;
+
+			for( int i = minInclusive; i < maxExclusive; i++ ) {
+				int row0 = BoofConcurrency.blockStart(y0,y1,numBands,i);
+				int row1 = BoofConcurrency.blockStart(y0,y1,numBands,i+1);
+
+				FastCornerIntensity<T> w = workers.get(i);
+				w.getCandidates().reset();
+				w.setImage(image);
+				w.processRows(intensity,row0,row1,w.getCandidates());
+			}
+		}
+	};
+
+	/**
+	 * Creates a concurrent version of the provided algorithm.  Additional instances are created using
+	 * {@link FastCornerIntensity#newInstance()}.
+	 *
+	 * @param alg The algorithm which is to be run concurrently.
+	 */
+	public FastCornerIntensity_MT(FastCornerIntensity<T> alg) {
+		super(alg.helper, alg.minContinuous);
+		this.alg = alg;
+		this.usePreTest = alg.usePreTest;
+		workers.add(alg);
+	}
+
+	@Override
+	public FastCornerIntensity<T> newInstance() {
+		return new FastCornerIntensity_MT<T>(alg.newInstance());
+	}
+
+	@Override
+	public void setUsePreTest(boolean usePreTest) {
+		super.setUsePreTest(usePreTest);
+		for( int i = 0; i < workers.size(); i++ )
+			workers.get(i).setUsePreTest(usePreTest);
+	}
+
+	@Override
+	public void process(T image, ImageFloat32 intensity) {
+		QueueCorner candidates = getCandidates();
+		candidates.reset();
+
+		numBands = BoofConcurrency.computeNumBlocks(Math.max(0,image.height - 2*radius),MIN_BLOCK);
+
+		while( workers.size() < numBands ) {
+			FastCornerIntensity<T> w = alg.newInstance();
+			w.setUsePreTest(usePreTest);
+			workers.add(w);
+		}
+
+		this.image = image;
+		this.intensity = intensity;
+
+		BoofConcurrency.loopBlocks(0,numBands,1,task);
+
+		// combine the results in order
+		for( int i = 0; i < numBands; i++ ) {
+			QueueCorner found = workers.get(i).getCandidates();
+			for( int j = 0; j < found.size; j++ ) {
+				candidates.add(found.data[j].x,found.data[j].y);
+			}
+		}
+
+		this.intensity = null;
+	}
+
+	/**
+	 * Not used.  Pixels are checked by the workers.
+	 */
+	@Override
+	protected boolean checkLower(int index) {
+		throw new RuntimeException("Pixels are checked by the workers");
+	}
+
+	/**
+	 * Not used.  Pixels are checked by the workers.
+	 */
+	@Override
+	protected boolean checkUpper(int index) {
+		throw new RuntimeException("Pixels are checked by the workers");
+	}
+}
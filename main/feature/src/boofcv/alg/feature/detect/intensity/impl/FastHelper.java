@@ -51,4 +51,25 @@ public interface FastHelper<T extends ImageSingleBand> {
 	 * Checks to see if the specified pixel is above the upper threshold
 	 */
 	boolean checkPixelUpper( int index );
+
+	/**
+	 * Quickly rejects pixels in a row which can't be corners by only examining the four points in the circle at
+	 * 0, 90, 180, and 270 degrees, i.e. offsets 0, 4, 8, and 12.  For each pixel a 4-bit mask is computed of which
+	 * points are below the lower threshold and another of which are above the upper threshold.  The table is looked
+	 * up using lowerMask | upperMask << 4 and returns 1 if a lower corner is possible and 2 if an upper corner is
+	 * possible.
+	 *
+	 * @param index0 Index of the first pixel in the row.
+	 * @param length Number of pixels in the row.
+	 * @param table Lookup table with 256 elements.
+	 * @param candidates (Output) For each pixel which passed, its offset from index0 shifted by 2 bits or'ed with
+	 *                   the value from the lookup table.
+	 * @return Number of pixels which passed.
+	 */
+	int preTestRow( int index0 , int length , int table[] , int candidates[] );
+
+	/**
+	 * Creates a new instance with the same settings.
+	 */
+	FastHelper<T> newInstance();
 }
@@ -101,4 +101,39 @@ public class ImplFastHelper_F32 implements FastHelper<ImageFloat32> {
 	{
 		return (image.data[index] ) > upper;
 	}
+
+	@Override
+	public int preTestRow( int index0 , int length , int table[] , int candidates[] ) {
+		final float[] data = image.data;
+		final int o0 = offsets[0];
+		final int o4 = offsets[4];
+		final int o8 = offsets[8];
+		final int o12 = offsets[12];
+
+		int total = 0;
+		for( int i = 0; i < length; i++ ) {
+			int index = index0 + i;
+			float center = data[index];
+			float lower = center - pixelTol;
+			float upper = center + pixelTol;
+
+			float a = data[index+o0];
+			float b = data[index+o4];
+			float c = data[index+o8];
+			float d = data[index+o12];
+
+			int mask = (a < lower ? 0x01 : 0) | (b < lower ? 0x02 : 0) | (c < lower ? 0x04 : 0) | (d < lower ? 0x08 : 0) |
+					(a > upper ? 0x10 : 0) | (b > upper ? 0x20 : 0) | (c > upper ? 0x40 : 0) | (d > upper ? 0x80 : 0);
+
+			int result = table[mask];
+			if( result != 0 )
+				candidates[total++] = (i << 2) | result;
+		}
+		return total;
+	}
+
+	@Override
+	public FastHelper<ImageFloat32> newInstance() {
+		return new ImplFastHelper_F32((int)pixelTol);
+	}
 }
@@ -101,4 +101,39 @@ public class ImplFastHelper_U8 implements FastHelper<ImageUInt8> {
 	{
 		return (image.data[index] & 0xFF) > upper;
 	}
+
+	@Override
+	public int preTestRow( int index0 , int length , int table[] , int candidates[] ) {
+		final byte[] data = image.data;
+		final int o0 = offsets[0];
+		final int o4 = offsets[4];
+		final int o8 = offsets[8];
+		final int o12 = offsets[12];
+
+		int total = 0;
+		for( int i = 0; i < length; i++ ) {
+			int index = index0 + i;
+			int center = data[index] & 0xFF;
+			int lower = center - pixelTol;
+			int upper = center + pixelTol;
+
+			int a = data[index+o0] & 0xFF;
+			int b = data[index+o4] & 0xFF;
+			int c = data[index+o8] & 0xFF;
+			int d = data[index+o12] & 0xFF;
+
+			int mask = (a < lower ? 0x01 : 0) | (b < lower ? 0x02 : 0) | (c < lower ? 0x04 : 0) | (d < lower ? 0x08 : 0) |
+					(a > upper ? 0x10 : 0) | (b > upper ? 0x20 : 0) | (c > upper ? 0x40 : 0) | (d > upper ? 0x80 : 0);
+
+			int result = table[mask];
+			if( result != 0 )
+				candidates[total++] = (i << 2) | result;
+		}
+		return total;
+	}
+
+	@Override
+	public FastHelper<ImageUInt8> newInstance() {
+		return new ImplFastHelper_U8(pixelTol);
+	}
 }
@@ -40,7 +40,12 @@ public class ImplFastIntensity10<T extends ImageSingleBand> extends FastCornerIn
 	 * @param helper Provide the image type specific helper.
 	 */
 	public ImplFastIntensity10(FastHelper<T> helper) {
-		super(helper);
+		super(helper,10);
+	}
+
+	@Override
+	public FastCornerIntensity<T> newInstance() {
+		return new ImplFastIntensity10<T>(helper.newInstance());
 	}
 
 	@Override
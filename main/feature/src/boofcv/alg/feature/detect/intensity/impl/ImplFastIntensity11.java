@@ -40,7 +40,12 @@ public class ImplFastIntensity11<T extends ImageSingleBand> extends FastCornerIn
 	 * @param helper Provide the image type specific helper.
 	 */
 	public ImplFastIntensity11(FastHelper<T> helper) {
-		super(helper);
+		super(helper,11);
+	}
+
+	@Override
+	public FastCornerIntensity<T> newInstance() {
+		return new ImplFastIntensity11<T>(helper.newInstance());
 	}
 
 	@Override
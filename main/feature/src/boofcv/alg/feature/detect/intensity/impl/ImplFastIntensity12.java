@@ -40,7 +40,12 @@ public class ImplFastIntensity12<T extends ImageSingleBand> extends FastCornerIn
 	 * @param helper Provide the image type specific helper.
 	 */
 	public ImplFastIntensity12(FastHelper<T> helper) {
-		super(helper);
+		super(helper,12);
+	}
+
+	@Override
+	public FastCornerIntensity<T> newInstance() {
+		return new ImplFastIntensity12<T>(helper.newInstance());
 	}
 
 	@Override
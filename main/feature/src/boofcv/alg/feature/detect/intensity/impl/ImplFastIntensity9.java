@@ -40,7 +40,12 @@ public class ImplFastIntensity9<T extends ImageSingleBand> extends FastCornerInt
 	 * @param helper Provide the image type specific helper.
 	 */
 	public ImplFastIntensity9(FastHelper<T> helper) {
-		super(helper);
+		super(helper,9);
+	}
+
+	@Override
+	public FastCornerIntensity<T> newInstance() {
+		return new ImplFastIntensity9<T>(helper.newInstance());
 	}
 
 	@Override
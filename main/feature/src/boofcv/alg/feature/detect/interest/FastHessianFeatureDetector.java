@@ -85,11 +85,11 @@ import java.util.List;
 public class FastHessianFeatureDetector<II extends ImageSingleBand> {
 
 	// finds features from 2D intensity image
-	private NonMaxSuppression extractor;
+	protected NonMaxSuppression extractor;
 	// sorts feature by their intensity
-	private SelectNBestFeatures sortBest;
+	protected SelectNBestFeatures sortBest;
 	// the maximum number of returned feature per scale
-	private int maxFeaturesPerScale;
+	protected int maxFeaturesPerScale;
 
 	// local sub-space
 	private ImageFloat32 intensity[];
@@ -97,19 +97,19 @@ public class FastHessianFeatureDetector<II extends ImageSingleBand> {
 	private QueueCorner foundFeatures = new QueueCorner(100);
 
 	// List of found feature points
-	private FastQueue<ScalePoint> foundPoints = new FastQueue<ScalePoint>(10,ScalePoint.class,true);
+	protected FastQueue<ScalePoint> foundPoints = new FastQueue<ScalePoint>(10,ScalePoint.class,true);
 
 	// size of detected feature at the smallest scale
-	private int initialSize;
+	protected int initialSize;
 	// the number of octaves it examines
-	private int numberOfOctaves;
+	protected int numberOfOctaves;
 
 	// local variables that are predeclared
-	private int sizes[];
+	protected int sizes[];
 
 	// how often the image is sampled in the first octave
 	// a value of 1 would mean every pixel is sampled
-	private int initialSampleRate;
+	protected int initialSampleRate;
 
 	/**
 	 * <p>
@@ -229,22 +229,44 @@ public class FastHessianFeatureDetector<II extends ImageSingleBand> {
 		int index1 = (spaceIndex + 1) % 3;
 		int index2 = (spaceIndex + 2) % 3;
 
-		ImageBorder_F32 inten0 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity[index0], 0);
-		ImageFloat32 inten1 = intensity[index1];
-		ImageBorder_F32 inten2 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity[index2], 0);
+		findLocalScaleSpaceMax(intensity[index0],intensity[index1],intensity[index2],size,level,skip,
+				extractor,sortBest,foundFeatures,foundPoints);
+	}
+
+	/**
+	 * Looks for features which are local maximums in the image and scale-space.  All the state which is modified
+	 * is passed in, allowing different levels to be processed at the same time.
+	 *
+	 * @param intensity0 Intensity of the level below
+	 * @param intensity1 Intensity of the level being searched
+	 * @param intensity2 Intensity of the level above
+	 * @param size Size of features in different scale-spaces.
+	 * @param level Which level in the scale-space
+	 * @param skip How many pixels are skipped over.
+	 * @param extractor Finds local maximums in the image
+	 * @param sortBest Selects the best features.  Can be null.
+	 * @param foundFeatures Storage for local maximums in the image
+	 * @param foundPoints Found features are added to this list
+	 */
+	protected void findLocalScaleSpaceMax( ImageFloat32 intensity0 , ImageFloat32 intensity1 , ImageFloat32 intensity2 ,
+										   int []size, int level, int skip ,
+										   NonMaxSuppression extractor , SelectNBestFeatures sortBest ,
+										   QueueCorner foundFeatures , FastQueue<ScalePoint> foundPoints ) {
+		ImageBorder_F32 inten0 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity0, 0);
+		ImageBorder_F32 inten2 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity2, 0);
 
 		// find local maximums in image 2D space.  Borders need to be ignored since
 		// false positives are found around them as an artifact of pixels outside being
 		// treated as being zero.
 		foundFeatures.reset();
 		extractor.setIgnoreBorder(size[level] / (2 * skip));
-		extractor.process(intensity[index1],null,null,null,foundFeatures);
+		extractor.process(intensity1,null,null,null,foundFeatures);
 
 		// Can't consider feature which are right up against the border since they might not be a true local
 		// maximum when you consider the features on the other side of the ignore border
 		int ignoreRadius = extractor.getIgnoreBorder() + extractor.getSearchRadius();
-		int ignoreWidth = intensity[index1].width-ignoreRadius;
-		int ignoreHeight = intensity[index1].height-ignoreRadius;
+		int ignoreWidth = intensity1.width-ignoreRadius;
+		int ignoreHeight = intensity1.height-ignoreRadius;
 
 		// number of features which can be added
 		int numberRemaining;
@@ -252,7 +274,7 @@ public class FastHessianFeatureDetector<II extends ImageSingleBand> {
 		// if configured to do so, only select the features with the highest intensity
 		QueueCorner features;
 		if( sortBest != null ) {
-			sortBest.process(intensity[index1],foundFeatures,true);
+			sortBest.process(intensity1,foundFeatures,true);
 			features = sortBest.getBestCorners();
 			numberRemaining = maxFeaturesPerScale;
 		} else {
@@ -271,7 +293,7 @@ public class FastHessianFeatureDetector<II extends ImageSingleBand> {
 			if( f.x < ignoreRadius || f.x >= ignoreWidth || f.y < ignoreRadius || f.y >= ignoreHeight )
 				continue;
 
-			float val = inten1.get(f.x,f.y);
+			float val = intensity1.get(f.x,f.y);
 
 			// see if it is a max in scale-space too
 			if( checkMax(inten0,val,f.x,f.y) && checkMax(inten2,val,f.x,f.y) ) {
@@ -279,9 +301,9 @@ public class FastHessianFeatureDetector<II extends ImageSingleBand> {
 				// find the feature's location to sub-pixel accuracy using a second order polynomial
 				// NOTE: In the original paper this was done using a quadratic.  See comments above.
 				// NOTE: Using a 2D polynomial for x and y might produce better results.
-				float peakX = polyPeak(inten1.get(f.x-1,f.y),inten1.get(f.x,f.y),inten1.get(f.x+1,f.y));
-				float peakY = polyPeak(inten1.get(f.x,f.y-1),inten1.get(f.x,f.y),inten1.get(f.x,f.y+1));
-				float peakS = polyPeak(inten0.get(f.x,f.y),inten1.get(f.x,f.y),inten2.get(f.x,f.y));
+				float peakX = polyPeak(intensity1.get(f.x-1,f.y),intensity1.get(f.x,f.y),intensity1.get(f.x+1,f.y));
+				float peakY = polyPeak(intensity1.get(f.x,f.y-1),intensity1.get(f.x,f.y),intensity1.get(f.x,f.y+1));
+				float peakS = polyPeak(inten0.get(f.x,f.y),intensity1.get(f.x,f.y),inten2.get(f.x,f.y));
 
 				float interpX = (f.x+peakX)*skip;
 				float interpY = (f.y+peakY)*skip;
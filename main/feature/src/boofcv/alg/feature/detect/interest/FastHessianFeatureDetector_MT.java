@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.feature.detect.extract.SelectNBestFeatures;
+import boofcv.alg.feature.detect.intensity.GIntegralImageFeatureIntensity;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent version of {@link FastHessianFeatureDetector}.  The intensity of every scale in every octave only
+ * depends on the integral image, so all of them are computed at the same time.  Then each scale which has a
+ * scale above and below it is searched for local maximums at the same time.  Non-maximum suppression is not
+ * thread safe so each scale has its own instance, created by the provided {@link Factory}.
+ * </p>
+ *
+ * <p>
+ * Features found in each scale are saved separately and then combined in the same order as the single threaded
+ * algorithm, so the output is identical.  All the intensity images are kept in memory at the same time, which
+ * requires about 5.3 times as much memory as a single image, instead of 3 images.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FastHessianFeatureDetector_MT<II extends ImageSingleBand> extends FastHessianFeatureDetector<II> {
+
+	// creates non-maximum suppression for each scale
+	Factory factory;
+
+	// intensity of each scale across all the octaves
+	List<Layer> layers = new ArrayList<Layer>();
+	int numLayers;
+	// scales which are searched for features
+	List<Level> levels = new ArrayList<Level>();
+	int numLevels;
+	// shape of the integral image the scales were declared for
+	int declaredWidth = -1, declaredHeight = -1;
+
+	/**
+	 * Configures the detector.  See {@link FastHessianFeatureDetector} for a description of the parameters.
+	 *
+	 * @param factory Creates a new instance of non-maximum suppression.
+	 */
+	public FastHessianFeatureDetector_MT(Factory factory, int maxFeaturesPerScale,
+										 int initialSampleRate, int initialSize,
+										 int numberScalesPerOctave,
+										 int numberOfOctaves) {
+		super(factory.create(), maxFeaturesPerScale, initialSampleRate, initialSize,
+				numberScalesPerOctave, numberOfOctaves);
+		this.factory = factory;
+	}
+
+	@Override
+	public void detect( final II integral ) {
+		foundPoints.reset();
+		declareScales(integral);
+
+		// compute the intensity of every scale
+		BoofConcurrency.loopBlocks(0, numLayers, 1, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int i = min; i < max; i++ ) {
+					Layer l = layers.get(i);
+					GIntegralImageFeatureIntensity.hessian(integral, l.skip, l.size, l.intensity);
+				}
+			}
+		});
+
+		// search for features
+		BoofConcurrency.loopBlocks(0, numLevels, 1, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int i = min; i < max; i++ ) {
+					Level l = levels.get(i);
+					l.found.reset();
+					findLocalScaleSpaceMax(layers.get(l.layer - 1).intensity, layers.get(l.layer).intensity,
+							layers.get(l.layer + 1).intensity, l.sizes, l.level, l.skip,
+							l.extractor, l.sortBest, l.foundFeatures, l.found);
+				}
+			}
+		});
+
+		// combine the results in the same order as the single threaded algorithm
+		for( int i = 0; i < numLevels; i++ ) {
+			FastQueue<ScalePoint> found = levels.get(i).found;
+			for( int j = 0; j < found.size; j++ ) {
+				ScalePoint p = found.get(j);
+				foundPoints.grow().set(p.x, p.y, p.scale);
+			}
+		}
+	}
+
+	/**
+	 * Determines which scales will be processed, using the same rules as the single threaded algorithm.  The
+	 * scales only depend on the shape of the image, so nothing is done if it has not changed.
+	 */
+	private void declareScales( II integral ) {
+		if( integral.width == declaredWidth && integral.height == declaredHeight )
+			return;
+		declaredWidth = integral.width;
+		declaredHeight = integral.height;
+
+		numLayers = 0;
+		numLevels = 0;
+
+		// computes feature intensity every 'skip' pixels
+		int skip = initialSampleRate;
+		// increment between kernel sizes
+		int sizeStep = 6;
+		// initial size of the kernel in the first octave
+		int octaveSize = initialSize;
+		for( int octave = 0; octave < numberOfOctaves; octave++ ) {
+			int[] featureSize = new int[sizes.length];
+			for( int i = 0; i < featureSize.length; i++ ) {
+				featureSize[i] = octaveSize + i*sizeStep;
+			}
+			// if the maximum kernel size is larger than the image don't process
+			// the image any more
+			int maxSize = featureSize[featureSize.length-1];
+			if( maxSize > integral.width || maxSize > integral.height )
+				break;
+
+			int w = integral.width/skip;
+			int h = integral.height/skip;
+
+			for( int i = 0; i < featureSize.length; i++ ) {
+				Layer layer = growLayer();
+				layer.skip = skip;
+				layer.size = featureSize[i];
+				layer.intensity.reshape(w,h);
+
+				if( i >= 2 ) {
+					Level level = growLevel();
+					level.layer = numLayers-2;
+					level.sizes = featureSize;
+					level.level = i-1;
+					level.skip = skip;
+				}
+			}
+
+			skip += skip;
+			octaveSize += sizeStep;
+			sizeStep += sizeStep;
+		}
+	}
+
+	private Layer growLayer() {
+		if( numLayers == layers.size() )
+			layers.add(new Layer());
+		return layers.get(numLayers++);
+	}
+
+	private Level growLevel() {
+		if( numLevels == levels.size() ) {
+			Level l = new Level();
+			// the first level can use the extractor owned by the parent
+			if( levels.isEmpty() ) {
+				l.extractor = extractor;
+				l.sortBest = sortBest;
+			} else {
+				l.extractor = factory.create();
+				if( maxFeaturesPerScale > 0 )
+					l.sortBest = new SelectNBestFeatures(maxFeaturesPerScale);
+			}
+			levels.add(l);
+		}
+		return levels.get(numLevels++);
+	}
+
+	/**
+	 * Feature intensity at a single scale
+	 */
+	private static class Layer {
+		int skip;
+		int size;
+		ImageFloat32 intensity = new ImageFloat32(1,1);
+	}
+
+	/**
+	 * A scale which is searched for features and the storage required to search it
+	 */
+	private static class Level {
+		// index of the layer being searched
+		int layer;
+		// sizes of features in the octave and which one is being searched
+		int[] sizes;
+		int level;
+		int skip;
+
+		NonMaxSuppression extractor;
+		SelectNBestFeatures sortBest;
+		QueueCorner foundFeatures = new QueueCorner(100);
+		FastQueue<ScalePoint> found = new FastQueue<ScalePoint>(10,ScalePoint.class,true);
+	}
+
+	/**
+	 * Creates a new instance of non-maximum suppression.  Each instance must be configured the same way.
+	 */
+	public interface Factory {
+		public NonMaxSuppression create();
+	}
+}
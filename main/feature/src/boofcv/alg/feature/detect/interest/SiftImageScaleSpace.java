@@ -184,15 +184,25 @@ public class SiftImageScaleSpace {
 	public void computeDerivatives() {
 		int maxScales = actualOctaves*numScales;
 		for( int i = 0; i < maxScales; i++ ) {
-			ImageFloat32 input = scale[i];
-			ImageFloat32 dx = derivX[i];
-			ImageFloat32 dy = derivY[i];
+			computeDerivative(i, gradient);
+		}
+	}
 
-			dx.reshape(input.width,input.height);
-			dy.reshape(input.width,input.height);
+	/**
+	 * Computes the image derivative of a single layer in the pyramid.
+	 *
+	 * @param index Index of the layer
+	 * @param gradient Computes the gradient
+	 */
+	protected void computeDerivative( int index , ImageGradient<ImageFloat32,ImageFloat32> gradient ) {
+		ImageFloat32 input = scale[index];
+		ImageFloat32 dx = derivX[index];
+		ImageFloat32 dy = derivY[index];
 
-			gradient.process(input,dx,dy);
-		}
+		dx.reshape(input.width,input.height);
+		dy.reshape(input.width,input.height);
+
+		gradient.process(input,dx,dy);
 	}
 
 	/**
@@ -215,7 +225,7 @@ public class SiftImageScaleSpace {
 	 * Applies the specified amount of blur to the input image and stores the results in
 	 * the output image
 	 */
-	private void blurImage( ImageFloat32 input , ImageFloat32 output , double sigma ) {
+	protected void blurImage( ImageFloat32 input , ImageFloat32 output , double sigma ) {
 		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, sigma, -1);
 
 		storage.reshape(input.width,input.height);
@@ -227,22 +237,32 @@ public class SiftImageScaleSpace {
 	 * Compute difference of Gaussian feature intensity across scale space
 	 */
 	public void computeFeatureIntensity() {
-		int indexDog = 0;
 		for( int o = 0; o < actualOctaves; o++ ) {
-			for( int i = 1; i < numScales; i++ , indexDog++ ) {
-				int indexScale = o*numScales + i;
+			for( int i = 1; i < numScales; i++ ) {
+				computeFeatureIntensity(o,i);
+			}
+		}
+	}
+
+	/**
+	 * Computes the difference of Gaussian between the specified scale and the one before it.
+	 *
+	 * @param octave The octave
+	 * @param i Scale inside the octave.  Must be >= 1
+	 */
+	protected void computeFeatureIntensity( int octave , int i ) {
+		int indexScale = octave*numScales + i;
+		int indexDog = octave*(numScales-1) + i - 1;
 
-				PixelMath.subtract(scale[indexScale],scale[indexScale-1],dog[indexDog]);
+		PixelMath.subtract(scale[indexScale],scale[indexScale-1],dog[indexDog]);
 
-				// NOTE: In SIFT paper it states you don't need to do this adjustment.  However, since the difference
-				// between scales is not a constant factor in this implementation you do need to do it.
+		// NOTE: In SIFT paper it states you don't need to do this adjustment.  However, since the difference
+		// between scales is not a constant factor in this implementation you do need to do it.
 
-				// compute adjustment to make it better approximate of the Laplacian of Gaussian detector
-				double k = (i+1)/(double)i;
-				double adjustment = k-1;
-				PixelMath.divide(dog[indexDog], (float) adjustment, dog[indexDog]);
-			}
-		}
+		// compute adjustment to make it better approximate of the Laplacian of Gaussian detector
+		double k = (i+1)/(double)i;
+		double adjustment = k-1;
+		PixelMath.divide(dog[indexDog], (float) adjustment, dog[indexDog]);
 	}
 
 	/**
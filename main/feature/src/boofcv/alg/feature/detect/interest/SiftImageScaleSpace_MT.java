@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.filter.convolve.ConvolveNormalized;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.ImageFloat32;
+
+/**
+ * <p>
+ * Concurrent version of {@link SiftImageScaleSpace}.  Each scale in an octave is computed by blurring the previous
+ * scale, so the scales are still computed one at a time, but the blur is split up between threads.  The horizontal
+ * pass is split into bands of rows and the vertical pass into bands of columns.  Once the octaves have been
+ * constructed the difference of Gaussian and the gradient of each layer in an octave are independent of each
+ * other and are computed in parallel.  The output is identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SiftImageScaleSpace_MT extends SiftImageScaleSpace {
+
+	// minimum number of rows or columns in a band
+	public static final int MIN_BLOCK = 20;
+
+	// computes the gradient of each scale in an octave.  ImageGradient is not thread safe
+	private ImageGradient<ImageFloat32,ImageFloat32> gradients[];
+
+	// octave being processed
+	private int octave;
+
+	// input and output of the blur being computed
+	private ImageFloat32 blurInput;
+	private ImageFloat32 blurOutput;
+	private Kernel1D_F32 kernel;
+
+	/**
+	 * See {@link SiftImageScaleSpace#SiftImageScaleSpace}
+	 */
+	public SiftImageScaleSpace_MT(float blurSigma, int numScales, int numOctaves, boolean doubleInputImage) {
+		super(blurSigma, numScales, numOctaves, doubleInputImage);
+
+		gradients = new ImageGradient[numScales];
+		for( int i = 0; i < numScales; i++ ) {
+			gradients[i] = FactoryDerivative.three_F32();
+		}
+	}
+
+	@Override
+	protected void blurImage( ImageFloat32 input , ImageFloat32 output , double sigma ) {
+		kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, sigma, -1);
+
+		storage.reshape(input.width,input.height);
+		blurInput = input;
+		blurOutput = output;
+
+		BoofConcurrency.loopBlocks(0, input.height, MIN_BLOCK, taskHorizontal);
+		BoofConcurrency.loopBlocks(0, input.width, MIN_BLOCK, taskVertical);
+	}
+
+	@Override
+	public void computeDerivatives() {
+		for( octave = 0; octave < actualOctaves; octave++ ) {
+			BoofConcurrency.loopBlocks(0, numScales, taskDerivative);
+		}
+	}
+
+	@Override
+	public void computeFeatureIntensity() {
+		for( octave = 0; octave < actualOctaves; octave++ ) {
+			BoofConcurrency.loopBlocks(1, numScales, taskIntensity);
+		}
+	}
+
+	/**
+	 * The horizontal blur only mixes pixels inside the same row
+	 */
+	private IntRangeTask taskHorizontal = new IntRangeTask() {
+		@Override
+		public void process(int y0, int y1) {
+			ConvolveNormalized.horizontal(kernel,
+					blurInput.subimage(0, y0, blurInput.width, y1, null),
+					storage.subimage(0, y0, storage.width, y1, null));
+		}
+	};
+
+	/**
+	 * The vertical blur only mixes pixels inside the same column
+	 */
+	private IntRangeTask taskVertical = new IntRangeTask() {
+		@Override
+		public void process(int x0, int x1) {
+			ConvolveNormalized.vertical(kernel,
+					storage.subimage(x0, 0, x1, storage.height, null),
+					blurOutput.subimage(x0, 0, x1, blurOutput.height, null));
+		}
+	};
+
+	private IntRangeTask taskDerivative = new IntRangeTask() {
+		@Override
+		public void process(int min, int max) {
+			for( int i = min; i < max; i++ ) {
+				computeDerivative(octave*numScales + i, gradients[i]);
+			}
+		}
+	};
+
+	private IntRangeTask taskIntensity = new IntRangeTask() {
+		@Override
+		public void process(int min, int max) {
+			for( int i = min; i < max; i++ ) {
+				computeFeatureIntensity(octave, i);
+			}
+		}
+	};
+}
@@ -28,6 +28,7 @@ import georegression.struct.line.LineParametric2D_F32;
 import georegression.struct.point.Point2D_I16;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
 
 /**
  * <p>
@@ -103,16 +104,45 @@ public class HoughTransformLineFootOfNorm {
 		originY = derivX.height/2;
 		candidates.reset();
 
+		vote(derivX, derivY, binary);
+	}
+
+	/**
+	 * Adds the vote from every edge pixel to the transform.
+	 */
+	protected void vote( ImageSingleBand derivX , ImageSingleBand derivY , ImageUInt8 binary ) {
+		computeVotes(derivX, derivY, binary, 0, binary.height, null);
+	}
+
+	/**
+	 * Computes the transform pixel that each edge pixel inside the specified rows votes for.
+	 *
+	 * @param y0 First row, inclusive
+	 * @param y1 Last row, exclusive
+	 * @param votes Output. Index of transform pixels, in the order the edge pixels are encountered.  If null
+	 *              then the votes are added to the transform instead.
+	 */
+	protected void computeVotes( ImageSingleBand derivX , ImageSingleBand derivY , ImageUInt8 binary ,
+								 int y0 , int y1 , GrowQueue_I32 votes ) {
 		if( derivX instanceof ImageFloat32 )
-			_transform((ImageFloat32)derivX,(ImageFloat32)derivY,binary);
+			_transform((ImageFloat32)derivX,(ImageFloat32)derivY,binary,y0,y1,votes);
 		else if( derivX instanceof ImageSInt16 )
-			_transform((ImageSInt16)derivX,(ImageSInt16)derivY,binary);
+			_transform((ImageSInt16)derivX,(ImageSInt16)derivY,binary,y0,y1,votes);
 		else if( derivX instanceof ImageSInt32 )
-			_transform((ImageSInt32)derivX,(ImageSInt32)derivY,binary);
+			_transform((ImageSInt32)derivX,(ImageSInt32)derivY,binary,y0,y1,votes);
 		else
 			throw new IllegalArgumentException("Unsupported derivative image type: "+derivX.getClass().getSimpleName());
 	}
 
+	/**
+	 * Increments the transform for each vote
+	 */
+	protected void applyVotes( GrowQueue_I32 votes ) {
+		for( int i = 0; i < votes.size; i++ ) {
+			vote(votes.data[i]);
+		}
+	}
+
 	/**
 	 * Searches for local maximas and converts into lines.
 	 *
@@ -151,6 +181,18 @@ public class HoughTransformLineFootOfNorm {
 	 * @param derivY gradient of point.
 	 */
 	public void parameterize( int x , int y , float derivX , float derivY )
+	{
+		int index = computeIndex(x, y, derivX, derivY);
+		if( index >= 0 )
+			vote(index);
+	}
+
+	/**
+	 * Computes the index of the pixel in the transform which the point votes for.
+	 *
+	 * @return Index of the pixel in the transform or -1 if it is outside the transform
+	 */
+	protected int computeIndex( int x , int y , float derivX , float derivY )
 	{
 		// put the point in a new coordinate system centered at the image's origin
 		// this minimizes error, which is a function of distance from origin
@@ -163,12 +205,18 @@ public class HoughTransformLineFootOfNorm {
 		int x0 = (int)(v*derivX) + originX;
 		int y0 = (int)(v*derivY) + originY;
 
-		if( transform.isInBounds(x0,y0)) {
-			int index = transform.startIndex+y0*transform.stride+x0;
-			// keep track of candidate pixels so that a sparse search can be done
-			// to detect lines
-			if( transform.data[index]++ == 1 )
-				candidates.add(x0,y0);
+		if( transform.isInBounds(x0,y0))
+			return transform.startIndex+y0*transform.stride+x0;
+		return -1;
+	}
+
+	private void vote( int index ) {
+		// keep track of candidate pixels so that a sparse search can be done
+		// to detect lines
+		if( transform.data[index]++ == 1 ) {
+			int x0 = (index-transform.startIndex)%transform.stride;
+			int y0 = (index-transform.startIndex)/transform.stride;
+			candidates.add(x0,y0);
 		}
 	}
 
@@ -191,49 +239,67 @@ public class HoughTransformLineFootOfNorm {
 		return foundIntensity.data;
 	}
 
-	private void _transform( ImageFloat32 derivX , ImageFloat32 derivY , ImageUInt8 binary )
+	private void _transform( ImageFloat32 derivX , ImageFloat32 derivY , ImageUInt8 binary ,
+							 int y0 , int y1 , GrowQueue_I32 votes )
 	{
-		// apply the transform to the entire image
-		for( int y = 0; y < binary.height; y++ ) {
+		for( int y = y0; y < y1; y++ ) {
 			int start = binary.startIndex + y*binary.stride;
 			int end = start + binary.width;
 
 			for( int index = start; index < end; index++ ) {
 				if( binary.data[index] != 0 ) {
 					int x = index-start;
-					parameterize(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+					if( votes == null ) {
+						parameterize(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+					} else {
+						int vote = computeIndex(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+						if( vote >= 0 )
+							votes.add(vote);
+					}
 				}
 			}
 		}
 	}
 
-	private void _transform( ImageSInt16 derivX , ImageSInt16 derivY , ImageUInt8 binary )
+	private void _transform( ImageSInt16 derivX , ImageSInt16 derivY , ImageUInt8 binary ,
+							 int y0 , int y1 , GrowQueue_I32 votes )
 	{
-		// apply the transform to the entire image
-		for( int y = 0; y < binary.height; y++ ) {
+		for( int y = y0; y < y1; y++ ) {
 			int start = binary.startIndex + y*binary.stride;
 			int end = start + binary.width;
 
 			for( int index = start; index < end; index++ ) {
 				if( binary.data[index] != 0 ) {
 					int x = index-start;
-					parameterize(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+					if( votes == null ) {
+						parameterize(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+					} else {
+						int vote = computeIndex(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+						if( vote >= 0 )
+							votes.add(vote);
+					}
 				}
 			}
 		}
 	}
 
-	private void _transform( ImageSInt32 derivX , ImageSInt32 derivY , ImageUInt8 binary )
+	private void _transform( ImageSInt32 derivX , ImageSInt32 derivY , ImageUInt8 binary ,
+							 int y0 , int y1 , GrowQueue_I32 votes )
 	{
-		// apply the transform to the entire image
-		for( int y = 0; y < binary.height; y++ ) {
+		for( int y = y0; y < y1; y++ ) {
 			int start = binary.startIndex + y*binary.stride;
 			int end = start + binary.width;
 
 			for( int index = start; index < end; index++ ) {
 				if( binary.data[index] != 0 ) {
 					int x = index-start;
-					parameterize(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+					if( votes == null ) {
+						parameterize(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+					} else {
+						int vote = computeIndex(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+						if( vote >= 0 )
+							votes.add(vote);
+					}
 				}
 			}
 		}
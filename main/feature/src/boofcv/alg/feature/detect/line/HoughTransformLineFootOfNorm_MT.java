@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.line;
+
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Concurrent version of {@link HoughTransformLineFootOfNorm}.  The input image is split into bands of rows and
+ * each thread computes which transform pixel each of its edge pixels votes for.  Each edge pixel only casts a
+ * single vote, so the votes are then added by a single thread in the same order as the single threaded version.
+ * This avoids needing an image sized accumulator for each thread and the output, including the order of
+ * candidate lines, is identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HoughTransformLineFootOfNorm_MT extends HoughTransformLineFootOfNorm {
+
+	// minimum number of rows in a band
+	public static final int MIN_BLOCK = 20;
+
+	// votes from each band
+	GrowQueue_I32 bandVotes[] = new GrowQueue_I32[0];
+	int numBlocks;
+
+	// images being processed
+	ImageSingleBand derivX;
+	ImageSingleBand derivY;
+	ImageUInt8 binary;
+
+	IntRangeTask taskVote = new IntRangeTask() {
+		@Override
+		public void process(int minInclusive, int maxExclusive) {
+			for( int i = minInclusive; i < maxExclusive; i++ ) {
+				int y0 = BoofConcurrency.blockStart(0,binary.height,numBlocks,i);
+				int y1 = BoofConcurrency.blockStart(0,binary.height,numBlocks,i+1);
+				bandVotes[i].reset();
+				computeVotes(derivX,derivY,binary,y0,y1,bandVotes[i]);
+			}
+		}
+	};
+
+	/**
+	 * See {@link HoughTransformLineFootOfNorm#HoughTransformLineFootOfNorm}
+	 */
+	public HoughTransformLineFootOfNorm_MT(NonMaxSuppression extractor, int minDistanceFromOrigin) {
+		super(extractor, minDistanceFromOrigin);
+	}
+
+	@Override
+	protected void vote(ImageSingleBand derivX, ImageSingleBand derivY, ImageUInt8 binary) {
+		numBlocks = BoofConcurrency.computeNumBlocks(binary.height,MIN_BLOCK);
+		if( numBlocks <= 1 ) {
+			super.vote(derivX, derivY, binary);
+			return;
+		}
+
+		if( bandVotes.length < numBlocks ) {
+			GrowQueue_I32 tmp[] = new GrowQueue_I32[numBlocks];
+			System.arraycopy(bandVotes,0,tmp,0,bandVotes.length);
+			for( int i = bandVotes.length; i < numBlocks; i++ )
+				tmp[i] = new GrowQueue_I32();
+			bandVotes = tmp;
+		}
+
+		this.derivX = derivX;
+		this.derivY = derivY;
+		this.binary = binary;
+
+		BoofConcurrency.loopBlocks(0,numBlocks,1,taskVote);
+
+		this.derivX = null;
+		this.derivY = null;
+		this.binary = null;
+
+		for( int i = 0; i < numBlocks; i++ ) {
+			applyVotes(bandVotes[i]);
+		}
+	}
+}
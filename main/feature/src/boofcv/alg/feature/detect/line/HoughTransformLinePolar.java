@@ -20,10 +20,13 @@ package boofcv.alg.feature.detect.line;
 
 
 import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.InputSanityCheck;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.feature.CachedSineCosine_F32;
 import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
 import boofcv.struct.image.ImageUInt8;
 import georegression.struct.line.LineParametric2D_F32;
 import georegression.struct.point.Point2D_I16;
@@ -40,6 +43,13 @@ import org.ddogleg.struct.GrowQueue_F32;
  * </p>
  *
  * <p>
+ * If the image gradient is provided and an angle tolerance has been set, then each pixel only votes for lines
+ * whose angle is within the tolerance of the gradient's direction.  The line's normal should be parallel to the
+ * gradient, so most of the skipped votes would have been for lines which don't exist.  This reduces the number
+ * of votes and the amount of clutter in the transform.
+ * </p>
+ *
+ * <p>
  * USAGE NOTE: Duplicate/very similar lines are possible due to angles being cyclical.  What happens is that if
  * a line's orientation lies along a boundary point its angles will be split up between top and bottom
  * of the transform.  When lines are extracted using non-maximum it will detects peaks at the top
@@ -69,6 +79,11 @@ public class HoughTransformLinePolar {
 	// lookup tables for sine and cosine functions
 	CachedSineCosine_F32 tableTrig;
 
+	// only angles within this tolerance of the gradient get votes.  If <= 0 then all angles get votes
+	double angleTolerance = 0;
+	// number of bins on either side of the gradient's angle which get votes
+	int angleBinsTol;
+
 	/**
 	 * Specifies parameters of transform.  The minimum number of points specified in the extractor
 	 * is an important tuning parameter.
@@ -85,6 +100,7 @@ public class HoughTransformLinePolar {
 		transform.reshape(numBinsRange,numBinsAngle);
 
 		tableTrig = new CachedSineCosine_F32(0,(float)Math.PI,numBinsAngle);
+		setAngleTolerance(0);
 	}
 
 	public int getNumBinsRange() {
@@ -102,19 +118,65 @@ public class HoughTransformLinePolar {
 	 */
 	public void transform( ImageUInt8 binary )
 	{
+		transform(binary,null,null);
+	}
+
+	/**
+	 * Computes the Hough transform of the image.  If an angle tolerance has been set then the gradient
+	 * is used to restrict which angles each pixel votes for.
+	 *
+	 * @param binary Binary image that indicates which pixels lie on edges.
+	 * @param derivX (Optional) Image derivative along x-axis.  If null all angles get votes.
+	 * @param derivY (Optional) Image derivative along y-axis.  If null all angles get votes.
+	 */
+	public <D extends ImageSingleBand> void transform( ImageUInt8 binary , D derivX , D derivY )
+	{
+		if( derivX != null )
+			InputSanityCheck.checkSameShape(derivX,derivY,binary);
+
+		initialize(binary);
+
+		vote(binary, derivX, derivY, 0, binary.height, transform);
+	}
+
+	/**
+	 * Resets the transform and computes the transform's coordinate system
+	 */
+	protected void initialize( ImageUInt8 binary ) {
 		ImageMiscOps.fill(transform, 0);
 
 		originX = binary.width/2;
 		originY = binary.height/2;
 		r_max = Math.sqrt(originX*originX+originY*originY);
+	}
 
-		for( int y = 0; y < binary.height; y++ ) {
+	/**
+	 * Adds the votes from edge pixels inside the specified rows to the accumulator
+	 *
+	 * @param y0 First row, inclusive
+	 * @param y1 Last row, exclusive
+	 * @param accumulator Image the votes are added to.  Same shape as the transform.
+	 */
+	protected void vote( ImageUInt8 binary , ImageSingleBand derivX , ImageSingleBand derivY ,
+						 int y0 , int y1 , ImageFloat32 accumulator ) {
+		boolean restrict = derivX != null && angleBinsTol >= 0;
+
+		for( int y = y0; y < y1; y++ ) {
 			int start = binary.startIndex + y*binary.stride;
 			int stop = start + binary.width;
 
 			for( int index = start; index < stop; index++ ) {
 				if( binary.data[index] != 0 ) {
-					parameterize(index-start,y);
+					int x = index-start;
+					if( restrict ) {
+						double dx = GeneralizedImageOps.get(derivX,x,y);
+						double dy = GeneralizedImageOps.get(derivY,x,y);
+						if( dx != 0 || dy != 0 ) {
+							parameterize(x,y,Math.atan2(dy,dx),accumulator);
+							continue;
+						}
+					}
+					parameterize(x,y,accumulator);
 				}
 			}
 		}
@@ -157,22 +219,88 @@ public class HoughTransformLinePolar {
 	 * Converts the pixel coordinate into a line in parameter space
 	 */
 	public void parameterize( int x , int y )
+	{
+		parameterize(x,y,transform);
+	}
+
+	/**
+	 * Converts the pixel coordinate into a line in parameter space and adds the votes to the accumulator
+	 */
+	protected void parameterize( int x , int y , ImageFloat32 accumulator )
 	{
 		// put the point in a new coordinate system centered at the image's origin
 		x -= originX;
 		y -= originY;
 
-		int w2 = transform.width/2;
+		for( int i = 0; i < accumulator.height; i++ ) {
+			vote(x,y,i,accumulator);
+		}
+	}
+
+	/**
+	 * Converts the pixel coordinate into a line in parameter space, but only votes for angles close to the
+	 * gradient's direction.
+	 *
+	 * @param angle Direction of the image gradient. -pi to pi
+	 */
+	protected void parameterize( int x , int y , double angle , ImageFloat32 accumulator )
+	{
+		// angle bin 0 and the last bin are both lines with the same orientation
+		int period = accumulator.height-1;
+		if( 2*angleBinsTol+1 >= period ) {
+			parameterize(x,y,accumulator);
+			return;
+		}
+
+		x -= originX;
+		y -= originY;
 
-		for( int i = 0; i < transform.height; i++ ) {
-			double p = x*tableTrig.c[i] + y*tableTrig.s[i];
+		if( angle < 0 )
+			angle += Math.PI;
+		int center = (int)Math.round(angle*period/Math.PI);
 
-			int col = (int)Math.floor(p * w2 / r_max) + w2;
-			int index = transform.startIndex + i*transform.stride + col;
-			transform.data[index]++;
+		for( int i = center-angleBinsTol; i <= center+angleBinsTol; i++ ) {
+			int bin = i % period;
+			if( bin < 0 )
+				bin += period;
+			vote(x,y,bin,accumulator);
+			if( bin == 0 )
+				vote(x,y,period,accumulator);
 		}
 	}
 
+	/**
+	 * Adds a vote for the line with the specified angle which passes through the point.  The point
+	 * is relative to the transform's origin.
+	 */
+	private void vote( int x , int y , int angleBin , ImageFloat32 accumulator ) {
+		int w2 = accumulator.width/2;
+
+		double p = x*tableTrig.c[angleBin] + y*tableTrig.s[angleBin];
+
+		int col = (int)Math.floor(p * w2 / r_max) + w2;
+		int index = accumulator.startIndex + angleBin*accumulator.stride + col;
+		accumulator.data[index]++;
+	}
+
+	/**
+	 * Specifies how close the angle of a line needs to be to the gradient's direction for a pixel to vote for it.
+	 * Only used when the gradient is passed in.
+	 *
+	 * @param angleTolerance Tolerance in radians.  If <= 0 then all angles get votes.
+	 */
+	public void setAngleTolerance( double angleTolerance ) {
+		this.angleTolerance = angleTolerance;
+		if( angleTolerance <= 0 )
+			angleBinsTol = -1;
+		else
+			angleBinsTol = (int)Math.ceil(angleTolerance*(transform.height-1)/Math.PI);
+	}
+
+	public double getAngleTolerance() {
+		return angleTolerance;
+	}
+
 	/**
 	 * Returns the Hough transform image.
 	 *
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.line;
+
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * <p>
+ * Concurrent version of {@link HoughTransformLinePolar}.  The input image is split into bands of rows and
+ * each thread votes into its own accumulator.  The accumulators are then summed together, split up by rows
+ * in the transform.  Votes are integer counts, so the transform is identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HoughTransformLinePolar_MT extends HoughTransformLinePolar {
+
+	// minimum number of rows in a band
+	public static final int MIN_BLOCK = 20;
+
+	// accumulators for each band.  The first band votes directly into the transform
+	ImageFloat32 accumulators[] = new ImageFloat32[0];
+	int numBlocks;
+
+	// images being processed
+	ImageUInt8 binary;
+	ImageSingleBand derivX;
+	ImageSingleBand derivY;
+
+	IntRangeTask taskVote = new IntRangeTask() {
+		@Override
+		public void process(int minInclusive, int maxExclusive) {
+			for( int i = minInclusive; i < maxExclusive; i++ ) {
+				int y0 = BoofConcurrency.blockStart(0,binary.height,numBlocks,i);
+				int y1 = BoofConcurrency.blockStart(0,binary.height,numBlocks,i+1);
+				vote(binary,derivX,derivY,y0,y1,accumulators[i]);
+			}
+		}
+	};
+
+	IntRangeTask taskSum = new IntRangeTask() {
+		@Override
+		public void process(int row0, int row1) {
+			for( int i = 1; i < numBlocks; i++ ) {
+				ImageFloat32 a = accumulators[i];
+				for( int y = row0; y < row1; y++ ) {
+					int indexT = transform.startIndex + y*transform.stride;
+					int indexA = a.startIndex + y*a.stride;
+					int end = indexT + transform.width;
+					while( indexT < end ) {
+						transform.data[indexT++] += a.data[indexA++];
+					}
+				}
+			}
+		}
+	};
+
+	/**
+	 * See {@link HoughTransformLinePolar#HoughTransformLinePolar}
+	 */
+	public HoughTransformLinePolar_MT(NonMaxSuppression extractor, int numBinsRange, int numBinsAngle) {
+		super(extractor, numBinsRange, numBinsAngle);
+	}
+
+	@Override
+	public <D extends ImageSingleBand> void transform(ImageUInt8 binary, D derivX, D derivY) {
+		numBlocks = BoofConcurrency.computeNumBlocks(binary.height,MIN_BLOCK);
+		if( numBlocks <= 1 ) {
+			super.transform(binary, derivX, derivY);
+			return;
+		}
+
+		if( derivX != null )
+			InputSanityCheck.checkSameShape(derivX,derivY,binary);
+
+		initialize(binary);
+
+		if( accumulators.length < numBlocks ) {
+			ImageFloat32 tmp[] = new ImageFloat32[numBlocks];
+			System.arraycopy(accumulators,0,tmp,0,accumulators.length);
+			for( int i = Math.max(1,accumulators.length); i < numBlocks; i++ )
+				tmp[i] = new ImageFloat32(transform.width,transform.height);
+			tmp[0] = transform;
+			accumulators = tmp;
+		}
+		for( int i = 1; i < numBlocks; i++ )
+			ImageMiscOps.fill(accumulators[i],0);
+
+		this.binary = binary;
+		this.derivX = derivX;
+		this.derivY = derivY;
+
+		BoofConcurrency.loopBlocks(0,numBlocks,1,taskVote);
+		BoofConcurrency.loopBlocks(0,transform.height,MIN_BLOCK,taskSum);
+
+		this.binary = null;
+		this.derivX = null;
+		this.derivY = null;
+	}
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.template;
+
+import boofcv.abst.transform.fft.DiscreteFourierTransform;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.fft.DiscreteFourierTransformOps;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.core.image.GConvertImage;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageFloat64;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.InterleavedF64;
+
+/**
+ * <p>
+ * Template matching where the cross correlation between the image and the template is computed using the
+ * Fourier transform and the local sums of the image are computed using integral images.  The intensity
+ * is the same as the brute force implementations, up to numerical precision, but the cost is O(N log N) in the
+ * number of pixels N instead of O(N*M), where M is the number of pixels in the template.  For large templates
+ * this is much faster.  For very small templates the brute force implementations can be faster.
+ * </p>
+ *
+ * <p>
+ * The template is rotated by 180 degrees and padded with zeros to the size of the image.  Multiplying its
+ * Fourier transform with the image's transform then computes the cross correlation at every location.  Since the
+ * template is padded to the size of the image the circular correlation does not wrap around for any location
+ * where the template is inside the image.  All computations are done in double precision since the score
+ * is found by subtracting large sums from each other.
+ * </p>
+ *
+ * @see TemplateNCC
+ * @see TemplateDiffSquared
+ *
+ * @author Peter Abeles
+ */
+public abstract class TemplateIntensityFourier<T extends ImageSingleBand>
+		implements TemplateMatchingIntensity<T>
+{
+	// Match intensity image
+	private ImageFloat32 intensity = new ImageFloat32(1, 1);
+
+	// offset from pixel intensity coordinate to top left corner of template
+	private int offsetX;
+	private int offsetY;
+
+	// computes the Fourier transform
+	private DiscreteFourierTransform<ImageFloat64,InterleavedF64> dft =
+			DiscreteFourierTransformOps.createTransformF64();
+
+	// input image and template converted into double
+	private ImageFloat64 imageF = new ImageFloat64(1,1);
+	private ImageFloat64 templateF = new ImageFloat64(1,1);
+	// template rotated by 180 degrees and padded to the image's size
+	private ImageFloat64 templatePadded = new ImageFloat64(1,1);
+	// cross correlation between the image and template
+	private ImageFloat64 correlation = new ImageFloat64(1,1);
+
+	// Fourier transform of the image, template, and their product
+	private InterleavedF64 imageFT = new InterleavedF64(1,1,2);
+	private InterleavedF64 templateFT = new InterleavedF64(1,1,2);
+
+	// image squared
+	private ImageFloat64 square = new ImageFloat64(1,1);
+	// integral images of the image and the image squared.  Have an extra row and column of zeros
+	// at the top and left so that block sums along the border don't need to be handled differently
+	private ImageFloat64 integral = new ImageFloat64(1,1);
+	private ImageFloat64 integralSq = new ImageFloat64(1,1);
+
+	// number of pixels in the template
+	protected double area;
+	// sum of the template's values and squared values
+	protected double templateSum;
+	protected double templateSumSq;
+
+	@Override
+	public void process(T image, T template) {
+		if( template.width > image.width || template.height > image.height )
+			throw new IllegalArgumentException("The template must be smaller than the image");
+
+		int width = image.width;
+		int height = image.height;
+
+		intensity.reshape(width, height);
+		offsetX = template.width / 2;
+		offsetY = template.height / 2;
+
+		imageF.reshape(width, height);
+		templateF.reshape(template.width, template.height);
+		GConvertImage.convert(image, imageF);
+		GConvertImage.convert(template, templateF);
+
+		computeTemplateStatistics();
+		computeCorrelation();
+		computeIntegral();
+
+		// compute the score using the same locations as BaseTemplateIntensity
+		int tw = template.width;
+		int th = template.height;
+		int w = width - tw;
+		int h = height - th;
+
+		for (int y = 0; y < h; y++) {
+			int index = intensity.startIndex + (y + offsetY) * intensity.stride + offsetX;
+			int indexCorr = y * correlation.stride;
+			for (int x = 0; x < w; x++) {
+				double sum = IntegralImageOps.block_unsafe(integral, x, y, x + tw, y + th);
+				double sumSq = IntegralImageOps.block_unsafe(integralSq, x, y, x + tw, y + th);
+
+				intensity.data[index++] = computeScore(correlation.data[indexCorr++], sum, sumSq);
+			}
+		}
+	}
+
+	private void computeTemplateStatistics() {
+		area = templateF.width*templateF.height;
+		templateSum = 0;
+		templateSumSq = 0;
+
+		int N = templateF.width*templateF.height;
+		for (int i = 0; i < N; i++) {
+			double v = templateF.data[i];
+			templateSum += v;
+			templateSumSq += v*v;
+		}
+	}
+
+	/**
+	 * Computes the cross correlation between the image and template for every location
+	 */
+	private void computeCorrelation() {
+		int width = imageF.width;
+		int height = imageF.height;
+
+		templatePadded.reshape(width, height);
+		correlation.reshape(width, height);
+		imageFT.reshape(width, height);
+		templateFT.reshape(width, height);
+
+		// rotate the template by 180 degrees so that convolution computes the correlation
+		double shift = templateShift();
+		ImageMiscOps.fill(templatePadded, 0);
+		for (int y = 0; y < templateF.height; y++) {
+			int py = (height - y) % height;
+			for (int x = 0; x < templateF.width; x++) {
+				int px = (width - x) % width;
+				templatePadded.data[py*width + px] = templateF.data[y*templateF.width + x] - shift;
+			}
+		}
+
+		dft.forward(imageF, imageFT);
+		dft.forward(templatePadded, templateFT);
+		DiscreteFourierTransformOps.multiplyComplex(imageFT, templateFT, templateFT);
+		dft.inverse(templateFT, correlation);
+	}
+
+	/**
+	 * Computes integral images of the image and the image squared
+	 */
+	private void computeIntegral() {
+		int width = imageF.width;
+		int height = imageF.height;
+
+		square.reshape(width, height);
+		for (int i = 0; i < width*height; i++) {
+			double v = imageF.data[i];
+			square.data[i] = v*v;
+		}
+
+		if( integral.width != width+1 || integral.height != height+1 ) {
+			integral.reshape(width+1, height+1);
+			integralSq.reshape(width+1, height+1);
+			ImageMiscOps.fill(integral, 0);
+			ImageMiscOps.fill(integralSq, 0);
+		}
+
+		IntegralImageOps.transform(imageF, integral.subimage(1, 1, width+1, height+1, null));
+		IntegralImageOps.transform(square, integralSq.subimage(1, 1, width+1, height+1, null));
+	}
+
+	/**
+	 * Value which is subtracted from the template before the correlation is computed
+	 */
+	protected abstract double templateShift();
+
+	/**
+	 * Computes the match score at a single location.
+	 *
+	 * @param correlation Correlation between the template, minus {@link #templateShift()}, and the image
+	 * @param sum Sum of the image pixels under the template
+	 * @param sumSq Sum of the squared image pixels under the template
+	 * @return match value with better matches having a more positive value
+	 */
+	protected abstract float computeScore(double correlation, double sum, double sumSq);
+
+	@Override
+	public ImageFloat32 getIntensity() {
+		return intensity;
+	}
+
+	@Override
+	public boolean isBorderProcessed() {
+		return false;
+	}
+
+	@Override
+	public int getOffsetX() {
+		return offsetX;
+	}
+
+	@Override
+	public int getOffsetY() {
+		return offsetY;
+	}
+
+	/**
+	 * Same score as {@link TemplateDiffSquared}.  The squared difference is expanded into the sum of the
+	 * squared image, the squared template, and their correlation.
+	 */
+	public static class DiffSquared<T extends ImageSingleBand> extends TemplateIntensityFourier<T> {
+		@Override
+		protected double templateShift() {
+			return 0;
+		}
+
+		@Override
+		protected float computeScore(double correlation, double sum, double sumSq) {
+			return (float)-(sumSq - 2*correlation + templateSumSq);
+		}
+	}
+
+	/**
+	 * Same score as {@link TemplateNCC}.  The mean is subtracted from the template, which removes the
+	 * image's mean from the correlation since the template then sums to zero.
+	 */
+	public static class NCC<T extends ImageSingleBand> extends TemplateIntensityFourier<T> {
+
+		double templateMean;
+		double templateSigma;
+
+		@Override
+		protected double templateShift() {
+			templateMean = templateSum/area;
+			templateSigma = Math.sqrt(Math.max(0, templateSumSq/area - templateMean*templateMean));
+			return templateMean;
+		}
+
+		@Override
+		protected float computeScore(double correlation, double sum, double sumSq) {
+			double imageMean = sum/area;
+			double imageSigma = Math.sqrt(Math.max(0, sumSq/area - imageMean*imageMean));
+
+			// technically top should be divided by area, but that won't change the solution
+			return (float)(correlation/(imageSigma*templateSigma));
+		}
+	}
+}
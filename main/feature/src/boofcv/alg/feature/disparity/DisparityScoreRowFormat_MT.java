@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageSingleBand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent version of {@link DisparityScoreRowFormat}.  The rows in the disparity image are split into
+ * blocks and each block is processed by its own instance of a single threaded algorithm.  Each instance has
+ * its own score buffers and {@link DisparitySelect}, so no state is shared between threads.  A block is
+ * processed using a sub-image which includes the rows above and below it that are needed to compute
+ * the score along its border.  Since every instance starts its sliding window at the top of its block, the
+ * output is identical to the single threaded algorithm for integer images.
+ * </p>
+ *
+ * <p>
+ * For floating point images the output is not always bit identical.  The window score of each column is a
+ * running sum which adds one row and removes another as the window moves down, so its round off error depends
+ * on the row the sum was started at.  After n rows the two sums differ by at most about 2*n*2<sup>-24</sup>
+ * times the largest score in the column, a relative error below 10<sup>-4</sup> for an image with 500 rows.
+ * The selected disparity only changes if the two best scores are within this amount of each other.  Images
+ * with small integer pixel values have exact sums and the output is identical.
+ * </p>
+ *
+ * <p>
+ * Instances of the single threaded algorithm are created as needed by the provided {@link Factory}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DisparityScoreRowFormat_MT
+		<Input extends ImageSingleBand, Disparity extends ImageSingleBand>
+		extends DisparityScoreRowFormat<Input,Disparity>
+{
+	// creates new instances of the single threaded algorithm
+	Factory<Input,Disparity> factory;
+
+	// algorithm used to process each block
+	List<DisparityScoreRowFormat<Input,Disparity>> workers =
+			new ArrayList<DisparityScoreRowFormat<Input,Disparity>>();
+
+	// storage for sub-images of each block
+	List<Input> subLeft = new ArrayList<Input>();
+	List<Input> subRight = new ArrayList<Input>();
+	List<Disparity> subDisparity = new ArrayList<Disparity>();
+
+	/**
+	 * Specifies how the single threaded algorithm is created.
+	 *
+	 * @param factory Creates a new instance of the single threaded algorithm, with its own {@link DisparitySelect}.
+	 */
+	public DisparityScoreRowFormat_MT( Factory<Input,Disparity> factory ) {
+		this(factory, factory.create());
+	}
+
+	private DisparityScoreRowFormat_MT( Factory<Input,Disparity> factory ,
+										DisparityScoreRowFormat<Input,Disparity> first ) {
+		super(first.minDisparity, first.maxDisparity, first.radiusX, first.radiusY);
+		this.factory = factory;
+		workers.add(first);
+	}
+
+	@Override
+	public void _process( final Input left , final Input right , final Disparity disparity ) {
+		final int borderY = getBorderY();
+		final int rowStart = borderY;
+		final int rowEnd = left.height - borderY;
+
+		// Each block recomputes 2*borderY rows of scores which it shares with its neighbors.  Don't let
+		// that overhead dominate
+		int minBlock = Math.max(16,2*borderY+1);
+		final int numBlocks = BoofConcurrency.computeNumBlocks(rowEnd - rowStart, minBlock);
+
+		if( numBlocks <= 1 ) {
+			workers.get(0).process(left, right, disparity);
+			return;
+		}
+
+		declareBlocks(numBlocks, left, disparity);
+
+		BoofConcurrency.loopBlocks(0, numBlocks, 1, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int block = min; block < max; block++ ) {
+					int y0 = BoofConcurrency.blockStart(rowStart, rowEnd, numBlocks, block) - borderY;
+					int y1 = BoofConcurrency.blockStart(rowStart, rowEnd, numBlocks, block + 1) + borderY;
+
+					Input l = (Input)left.subimage(0, y0, left.width, y1, subLeft.get(block));
+					Input r = (Input)right.subimage(0, y0, right.width, y1, subRight.get(block));
+					Disparity d = (Disparity)disparity.subimage(0, y0, disparity.width, y1, subDisparity.get(block));
+
+					workers.get(block).process(l, r, d);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Makes sure there is an algorithm and sub-images for each block
+	 */
+	private void declareBlocks( int numBlocks , Input left , Disparity disparity ) {
+		while( workers.size() < numBlocks ) {
+			workers.add(factory.create());
+		}
+		while( subLeft.size() < numBlocks ) {
+			subLeft.add((Input)left._createNew(-1, -1));
+			subRight.add((Input)left._createNew(-1, -1));
+			subDisparity.add((Disparity)disparity._createNew(-1, -1));
+		}
+	}
+
+	@Override
+	public Class<Input> getInputType() {
+		return workers.get(0).getInputType();
+	}
+
+	@Override
+	public Class<Disparity> getDisparityType() {
+		return workers.get(0).getDisparityType();
+	}
+
+	@Override
+	public int getBorderX() {
+		return workers.get(0).getBorderX();
+	}
+
+	@Override
+	public int getBorderY() {
+		return workers.get(0).getBorderY();
+	}
+
+	/**
+	 * Creates a new instance of the single threaded algorithm.  Each instance must have its own
+	 * {@link DisparitySelect} since they are not thread safe.
+	 */
+	public interface Factory<Input extends ImageSingleBand, Disparity extends ImageSingleBand> {
+		public DisparityScoreRowFormat<Input,Disparity> create();
+	}
+}
@@ -19,7 +19,7 @@
 package boofcv.factory.feature.associate;
 
 import boofcv.abst.feature.associate.*;
-import boofcv.alg.feature.associate.AssociateGreedy;
+import boofcv.alg.feature.associate.*;
 import boofcv.struct.feature.*;
 import org.ddogleg.nn.FactoryNearestNeighbor;
 import org.ddogleg.nn.NearestNeighbor;
@@ -35,7 +35,8 @@ public class FactoryAssociation {
 
 	/**
 	 * Returns an algorithm for associating features together which uses a brute force greedy algorithm.
-	 * See {@link AssociateGreedy} for details.
+	 * See {@link AssociateGreedy} for details.  If the score is {@link ScoreAssociateHamming_B} then
+	 * {@link AssociateGreedyHamming_B} is used, which produces the same results but is much faster.
 	 * 
 	 * @param score Computes the fit score between two features.
 	 * @param maxError Maximum allowed error/fit score between two features.  To disable set to Double.MAX_VALUE
@@ -49,7 +50,11 @@ public class FactoryAssociation {
 			double maxError ,
 			boolean backwardsValidation )
 	{
-		AssociateGreedy<D> alg = new AssociateGreedy<D>(score,backwardsValidation);
+		AssociateGreedy<D> alg;
+		if( score.getClass() == ScoreAssociateHamming_B.class )
+			alg = (AssociateGreedy)new AssociateGreedyHamming_B(backwardsValidation);
+		else
+			alg = new AssociateGreedy<D>(score,backwardsValidation);
 		alg.setMaxFitError(maxError);
 		WrapAssociateGreedy<D> ret = new WrapAssociateGreedy<D>(alg);
 		return ret;
@@ -99,6 +104,73 @@ public class FactoryAssociation {
 		return new AssociateNearestNeighbor<TupleDesc_F64>(nn,dimension);
 	}
 
+	/**
+	 * Approximate association using a forest of randomized K-D trees which are all searched at once.  Memory
+	 * is linear in the number of features and the best and second best matches are found, allowing a ratio test.
+	 * Matches are scored using Euclidean distance.
+	 *
+	 * @see AssociateDescriptorSearch
+	 * @see KdForestSearch
+	 *
+	 * @param tupleType Type of descriptor.  TupleDesc_F64 or TupleDesc_F32
+	 * @param numTrees Number of trees in the forest.  Try 4
+	 * @param maxChecks Maximum number of descriptors compared in each search.  Controls speed and accuracy.  Try 200
+	 * @param ratioTest Maximum ratio between the best and second best match distance.  Try 0.8.  Disable with 1.
+	 * @param maxError Maximum allowed Euclidean distance between two features.  To disable set to Double.MAX_VALUE
+	 * @param backwardsValidation If true associations are validated by associating in the reverse direction.
+	 * @param randomSeed Seed used by random number generator
+	 * @return Association using approximate nearest neighbor
+	 */
+	public static <D extends TupleDesc> AssociateDescription<D> kdForest( Class<D> tupleType ,
+																		  int numTrees , int maxChecks ,
+																		  double ratioTest , double maxError ,
+																		  boolean backwardsValidation ,
+																		  long randomSeed ) {
+		// each search gets a different seed so that the trees differ between directions
+		DescriptorSearch<D> searchDst = createKdForest(tupleType, numTrees, maxChecks, randomSeed);
+		DescriptorSearch<D> searchSrc = backwardsValidation ?
+				createKdForest(tupleType, numTrees, maxChecks, randomSeed+1) : null;
+
+		AssociateDescriptorSearch<D> alg = new AssociateDescriptorSearch<D>(searchDst,searchSrc,ratioTest);
+		alg.setMaxFitError(maxError);
+		return new WrapAssociateDescriptorSearch<D>(alg);
+	}
+
+	private static DescriptorSearch createKdForest( Class tupleType , int numTrees , int maxChecks , long seed ) {
+		if( tupleType == TupleDesc_F64.class )
+			return new KdForestSearch_F64(numTrees,maxChecks,5,seed);
+		else if( tupleType == TupleDesc_F32.class )
+			return new KdForestSearch_F32(numTrees,maxChecks,5,seed);
+		else
+			throw new IllegalArgumentException("Unsupported descriptor type "+tupleType.getSimpleName());
+	}
+
+	/**
+	 * Approximate association for binary descriptors using multi-index hashing.  Memory is linear in the
+	 * number of features and the best and second best matches are found, allowing a ratio test.
+	 * Matches are scored using Hamming distance.
+	 *
+	 * @see AssociateDescriptorSearch
+	 * @see MultiIndexHashing_B
+	 *
+	 * @param probeRadius Hamming distance of 16-bit substrings which are looked up.  0, 1, or 2.  Try 1
+	 * @param ratioTest Maximum ratio between the best and second best match distance.  Try 0.8.  Disable with 1.
+	 * @param maxError Maximum allowed Hamming distance between two features.  To disable set to Double.MAX_VALUE
+	 * @param backwardsValidation If true associations are validated by associating in the reverse direction.
+	 * @return Association using approximate nearest neighbor
+	 */
+	public static AssociateDescription<TupleDesc_B> multiIndexHashing( int probeRadius ,
+																	   double ratioTest , double maxError ,
+																	   boolean backwardsValidation ) {
+		DescriptorSearch<TupleDesc_B> searchDst = new MultiIndexHashing_B(probeRadius);
+		DescriptorSearch<TupleDesc_B> searchSrc = backwardsValidation ? new MultiIndexHashing_B(probeRadius) : null;
+
+		AssociateDescriptorSearch<TupleDesc_B> alg =
+				new AssociateDescriptorSearch<TupleDesc_B>(searchDst,searchSrc,ratioTest);
+		alg.setMaxFitError(maxError);
+		return new WrapAssociateDescriptorSearch<TupleDesc_B>(alg);
+	}
+
 	/**
 	 * Given a feature descriptor type it returns a "reasonable" default {@link ScoreAssociation}.
 	 *
@@ -32,10 +32,12 @@ import boofcv.alg.feature.describe.DescribePointSurf;
 import boofcv.alg.feature.describe.DescribePointSurfMod;
 import boofcv.alg.feature.describe.DescribePointSurfMultiSpectral;
 import boofcv.alg.feature.detdesc.DetectDescribeSift;
+import boofcv.alg.feature.detdesc.DetectDescribeSift_MT;
 import boofcv.alg.feature.detdesc.DetectDescribeSurfMultiSpectral;
 import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
 import boofcv.alg.feature.detect.interest.SiftDetector;
 import boofcv.alg.feature.detect.interest.SiftImageScaleSpace;
+import boofcv.alg.feature.detect.interest.SiftImageScaleSpace_MT;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
 import boofcv.alg.transform.ii.GIntegralImageOps;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
@@ -69,20 +71,62 @@ public class FactoryDetectDescribe {
 		  ConfigSiftDetector configDetector ,
 		  ConfigSiftOrientation configOri ,
 		  ConfigSiftDescribe configDesc) {
+		return sift(configSS, configDetector, configOri, configDesc, false);
+	}
+
+	/**
+	 * Creates a new SIFT feature detector and describer, which can optionally compute the scale-space and
+	 * describe features using multiple threads.  Features are returned in the same order either way.
+	 *
+	 * @see SiftImageScaleSpace_MT
+	 * @see DetectDescribeSift_MT
+	 *
+	 * @param configSS Configuration for scale-space.  Pass in null for default options.
+	 * @param configDetector Configuration for detector.  Pass in null for default options.
+	 * @param configOri Configuration for region orientation.  Pass in null for default options.
+	 * @param configDesc Configuration for descriptor. Pass in null for default options.
+	 * @param concurrent If true multiple threads will be used
+	 * @return SIFT
+	 */
+	public static DetectDescribePoint<ImageFloat32,SurfFeature>
+	sift( ConfigSiftScaleSpace configSS,
+		  ConfigSiftDetector configDetector ,
+		  final ConfigSiftOrientation configOri ,
+		  final ConfigSiftDescribe configDesc ,
+		  boolean concurrent ) {
 
 		if( configSS == null )
 			configSS = new ConfigSiftScaleSpace();
 		configSS.checkValidity();
 
-		SiftImageScaleSpace ss = new SiftImageScaleSpace(configSS.blurSigma, configSS.numScales, configSS.numOctaves,
-				configSS.doubleInputImage);
-
 		SiftDetector detector = FactoryInterestPointAlgs.siftDetector(configDetector);
 
-		OrientationHistogramSift orientation = FactoryOrientationAlgs.sift(configOri);
-		DescribePointSift describe = FactoryDescribePointAlgs.sift(configDesc);
+		DetectDescribeSift combined;
+		if( concurrent ) {
+			SiftImageScaleSpace ss = new SiftImageScaleSpace_MT(configSS.blurSigma, configSS.numScales,
+					configSS.numOctaves, configSS.doubleInputImage);
+
+			DetectDescribeSift_MT.Factory factory = new DetectDescribeSift_MT.Factory() {
+				@Override
+				public OrientationHistogramSift createOrientation() {
+					return FactoryOrientationAlgs.sift(configOri);
+				}
+
+				@Override
+				public DescribePointSift createDescribe() {
+					return FactoryDescribePointAlgs.sift(configDesc);
+				}
+			};
+			combined = new DetectDescribeSift_MT(ss,detector,factory);
+		} else {
+			SiftImageScaleSpace ss = new SiftImageScaleSpace(configSS.blurSigma, configSS.numScales,
+					configSS.numOctaves, configSS.doubleInputImage);
+
+			OrientationHistogramSift orientation = FactoryOrientationAlgs.sift(configOri);
+			DescribePointSift describe = FactoryDescribePointAlgs.sift(configDesc);
 
-		DetectDescribeSift combined = new DetectDescribeSift(ss,detector,orientation,describe);
+			combined = new DetectDescribeSift(ss,detector,orientation,describe);
+		}
 
 		return new WrapDetectDescribeSift(combined);
 	}
@@ -112,10 +156,48 @@ public class FactoryDetectDescribe {
 												 ConfigSurfDescribe.Speed configDesc,
 												 ConfigAverageIntegral configOrientation,
 												 Class<T> imageType) {
+		return surfFast(configDetector, configDesc, configOrientation, imageType, false);
+	}
 
-		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
+	/**
+	 * Same as {@link #surfFast(ConfigFastHessian, ConfigSurfDescribe.Speed, ConfigAverageIntegral, Class)} but
+	 * can optionally detect and describe features using multiple threads.  Features are returned in the same
+	 * order either way.
+	 *
+	 * @see boofcv.alg.feature.detect.interest.FastHessianFeatureDetector_MT
+	 * @see WrapDetectDescribeSurf_MT
+	 *
+	 * @param configDetector		Configuration for SURF detector
+	 * @param configDesc			Configuration for SURF descriptor
+	 * @param configOrientation		Configuration for orientation
+	 * @param concurrent			If true multiple threads will be used
+	 * @return SURF detector and descriptor
+	 */
+	public static <T extends ImageSingleBand, II extends ImageSingleBand>
+	DetectDescribePoint<T,SurfFeature> surfFast( ConfigFastHessian configDetector ,
+												 final ConfigSurfDescribe.Speed configDesc,
+												 final ConfigAverageIntegral configOrientation,
+												 Class<T> imageType , boolean concurrent ) {
+
+		final Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
+
+		FastHessianFeatureDetector<II> detector = FactoryInterestPointAlgs.fastHessian(configDetector,concurrent);
+
+		if( concurrent ) {
+			WrapDetectDescribeSurf_MT.Factory<II> factory = new WrapDetectDescribeSurf_MT.Factory<II>() {
+				@Override
+				public OrientationIntegral<II> createOrientation() {
+					return FactoryOrientationAlgs.average_ii(configOrientation, integralType);
+				}
+
+				@Override
+				public DescribePointSurf<II> createDescribe() {
+					return FactoryDescribePointAlgs.surfSpeed(configDesc, integralType);
+				}
+			};
+			return new WrapDetectDescribeSurf_MT<T,II>( detector, factory );
+		}
 
-		FastHessianFeatureDetector<II> detector = FactoryInterestPointAlgs.fastHessian(configDetector);
 		DescribePointSurf<II> describe = FactoryDescribePointAlgs.surfSpeed(configDesc, integralType);
 		OrientationIntegral<II> orientation = FactoryOrientationAlgs.average_ii(configOrientation, integralType);
 
@@ -190,10 +272,49 @@ public class FactoryDetectDescribe {
 												   ConfigSurfDescribe.Stablility configDescribe,
 												   ConfigSlidingIntegral configOrientation,
 												   Class<T> imageType ) {
+		return surfStable(configDetector, configDescribe, configOrientation, imageType, false);
+	}
 
-		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
+	/**
+	 * Same as {@link #surfStable(ConfigFastHessian, ConfigSurfDescribe.Stablility, ConfigSlidingIntegral, Class)}
+	 * but can optionally detect and describe features using multiple threads.  Features are returned in the same
+	 * order either way.
+	 *
+	 * @see boofcv.alg.feature.detect.interest.FastHessianFeatureDetector_MT
+	 * @see WrapDetectDescribeSurf_MT
+	 *
+	 * @param configDetector Configuration for SURF detector.  Null for default.
+	 * @param configDescribe Configuration for SURF descriptor.  Null for default.
+	 * @param configOrientation Configuration for region orientation.  Null for default.
+	 * @param imageType Specify type of input image.
+	 * @param concurrent If true multiple threads will be used
+	 * @return SURF detector and descriptor
+	 */
+	public static <T extends ImageSingleBand, II extends ImageSingleBand>
+	DetectDescribePoint<T,SurfFeature> surfStable( ConfigFastHessian configDetector,
+												   final ConfigSurfDescribe.Stablility configDescribe,
+												   final ConfigSlidingIntegral configOrientation,
+												   Class<T> imageType , boolean concurrent ) {
+
+		final Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
+
+		FastHessianFeatureDetector<II> detector = FactoryInterestPointAlgs.fastHessian(configDetector,concurrent);
+
+		if( concurrent ) {
+			WrapDetectDescribeSurf_MT.Factory<II> factory = new WrapDetectDescribeSurf_MT.Factory<II>() {
+				@Override
+				public OrientationIntegral<II> createOrientation() {
+					return FactoryOrientationAlgs.sliding_ii(configOrientation, integralType);
+				}
+
+				@Override
+				public DescribePointSurf<II> createDescribe() {
+					return FactoryDescribePointAlgs.surfStability(configDescribe, integralType);
+				}
+			};
+			return new WrapDetectDescribeSurf_MT<T,II>( detector, factory );
+		}
 
-		FastHessianFeatureDetector<II> detector = FactoryInterestPointAlgs.fastHessian(configDetector);
 		DescribePointSurfMod<II> describe = FactoryDescribePointAlgs.surfStability(configDescribe, integralType);
 		OrientationIntegral<II> orientation = FactoryOrientationAlgs.sliding_ii(configOrientation, integralType);
 
@@ -67,22 +67,18 @@ public class FactoryFeatureExtractor {
 		config.checkValidity();
 
 		NonMaxBlock ret;
-		if (config.useStrictRule) {
-			if( config.detectMaximums)
-				if( config.detectMinimums )
-					ret = new NonMaxBlockStrict.MinMax();
-				else
-					ret = new NonMaxBlockStrict.Max();
-			else
-				ret = new NonMaxBlockStrict.Min();
+		if( config.concurrent ) {
+			final boolean strict = config.useStrictRule;
+			final boolean minimums = config.detectMinimums;
+			final boolean maximums = config.detectMaximums;
+			ret = new NonMaxBlock_MT(new NonMaxBlock_MT.Factory() {
+				@Override
+				public NonMaxBlock create() {
+					return createNonMaxBlock(strict, minimums, maximums);
+				}
+			});
 		} else {
-			if( config.detectMaximums)
-				if( config.detectMinimums )
-					ret = new NonMaxBlockRelaxed.MinMax();
-				else
-					ret = new NonMaxBlockRelaxed.Max();
-			else
-				ret = new NonMaxBlockRelaxed.Min();
+			ret = createNonMaxBlock(config.useStrictRule, config.detectMinimums, config.detectMaximums);
 		}
 
 		ret.setSearchRadius(config.radius);
@@ -108,10 +104,16 @@ public class FactoryFeatureExtractor {
 		NonMaxCandidate alg;
 
 		// no need to check the detection max/min since these algorithms can handle both
-		if (config.useStrictRule) {
-			alg = new NonMaxCandidateStrict();
+		if( config.concurrent ) {
+			final boolean strict = config.useStrictRule;
+			alg = new NonMaxCandidate_MT(new NonMaxCandidate_MT.Factory() {
+				@Override
+				public NonMaxCandidate create() {
+					return createNonMaxCandidate(strict);
+				}
+			});
 		} else {
-			alg = new NonMaxCandidateRelaxed();
+			alg = createNonMaxCandidate(config.useStrictRule);
 		}
 
 		WrapperNonMaxCandidate ret = new WrapperNonMaxCandidate(alg,false,true);
@@ -123,4 +125,31 @@ public class FactoryFeatureExtractor {
 		return ret;
 	}
 
+	private static NonMaxBlock createNonMaxBlock( boolean useStrictRule , boolean detectMinimums , boolean detectMaximums ) {
+		if (useStrictRule) {
+			if( detectMaximums)
+				if( detectMinimums )
+					return new NonMaxBlockStrict.MinMax();
+				else
+					return new NonMaxBlockStrict.Max();
+			else
+				return new NonMaxBlockStrict.Min();
+		} else {
+			if( detectMaximums)
+				if( detectMinimums )
+					return new NonMaxBlockRelaxed.MinMax();
+				else
+					return new NonMaxBlockRelaxed.Max();
+			else
+				return new NonMaxBlockRelaxed.Min();
+		}
+	}
+
+	private static NonMaxCandidate createNonMaxCandidate( boolean useStrictRule ) {
+		if (useStrictRule) {
+			return new NonMaxCandidateStrict();
+		} else {
+			return new NonMaxCandidateRelaxed();
+		}
+	}
 }
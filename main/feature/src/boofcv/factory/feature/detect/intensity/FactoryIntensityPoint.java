@@ -49,7 +49,23 @@ public class FactoryIntensityPoint {
 	 */
 	public static <I extends ImageSingleBand, D extends ImageSingleBand>
 	GeneralFeatureIntensity<I,D>  fast( int pixelTol, int minCont, Class<I> imageType ) {
-		FastCornerIntensity<I> alg =  FactoryIntensityPointAlg.fast(pixelTol, minCont, imageType);
+		return fast(pixelTol, minCont, false, imageType);
+	}
+
+	/**
+	 * Feature intensity for Fast corner detector.  See {@link FastCornerIntensity} for more details.
+	 *
+	 * @param pixelTol How different pixels need to be to be considered part of a corner. Image dependent.  Try 20 to start.
+	 * @param minCont Minimum number of continue pixels in a circle for it ot be a corner.  Can be 9,10,11 or 12.
+	 * @param concurrent If true the image is split into bands of rows which are processed by multiple threads.
+	 * @param imageType Type of input image it is computed form.
+	 * @param <I> Input image type.
+	 * @param <D> Derivative type.
+	 * @return Fast feature intensity
+	 */
+	public static <I extends ImageSingleBand, D extends ImageSingleBand>
+	GeneralFeatureIntensity<I,D>  fast( int pixelTol, int minCont, boolean concurrent, Class<I> imageType ) {
+		FastCornerIntensity<I> alg =  FactoryIntensityPointAlg.fast(pixelTol, minCont, concurrent, imageType);
 		return new WrapperFastCornerIntensity<I, D>(alg);
 	}
 
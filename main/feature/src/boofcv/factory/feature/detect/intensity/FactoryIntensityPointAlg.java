@@ -19,6 +19,7 @@
 package boofcv.factory.feature.detect.intensity;
 
 import boofcv.alg.feature.detect.intensity.FastCornerIntensity;
+import boofcv.alg.feature.detect.intensity.FastCornerIntensity_MT;
 import boofcv.alg.feature.detect.intensity.HarrisCornerIntensity;
 import boofcv.alg.feature.detect.intensity.ShiTomasiCornerIntensity;
 import boofcv.alg.feature.detect.intensity.impl.*;
@@ -47,6 +48,21 @@ public class FactoryIntensityPointAlg {
 	 */
 	public static <T extends ImageSingleBand>
 	FastCornerIntensity<T> fast(int pixelTol, int minCont, Class<T> imageType)
+	{
+		return fast(pixelTol, minCont, false, imageType);
+	}
+
+	/**
+	 * Common interface for creating a {@link boofcv.alg.feature.detect.intensity.FastCornerIntensity} from different image types.
+	 *
+	 * @param pixelTol How different pixels need to be to be considered part of a corner. Image dependent.  Try 20 to start.
+	 * @param minCont Minimum number of continue pixels in a circle for it ot be a corner.  Can be 9,10,11 or 12.
+	 * @param concurrent If true the image is split into bands of rows which are processed by multiple threads.
+	 * @param imageType Type of input image it is computed form.
+	 * @return Fast corner
+	 */
+	public static <T extends ImageSingleBand>
+	FastCornerIntensity<T> fast(int pixelTol, int minCont, boolean concurrent, Class<T> imageType)
 	{
 		FastHelper<T> helper;
 
@@ -57,17 +73,23 @@ public class FactoryIntensityPointAlg {
 		else
 			throw new IllegalArgumentException("Unsupported image type "+imageType);
 
+		FastCornerIntensity<T> alg;
 		if( minCont == 9 ) {
-			return new ImplFastIntensity9<T>(helper);
+			alg = new ImplFastIntensity9<T>(helper);
 		} else if( minCont == 10 ) {
-			return new ImplFastIntensity10<T>(helper);
+			alg = new ImplFastIntensity10<T>(helper);
 		} else if( minCont == 11 ) {
-			return new ImplFastIntensity11<T>(helper);
+			alg = new ImplFastIntensity11<T>(helper);
 		} else if( minCont == 12 ) {
-			return new ImplFastIntensity12<T>(helper);
+			alg = new ImplFastIntensity12<T>(helper);
 		} else {
 			throw new IllegalArgumentException("Specified minCont is not supported");
 		}
+
+		if( concurrent )
+			alg = new FastCornerIntensity_MT<T>(alg);
+
+		return alg;
 	}
 
 	/**
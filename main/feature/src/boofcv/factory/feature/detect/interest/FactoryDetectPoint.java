@@ -113,7 +113,8 @@ public class FactoryDetectPoint {
 
 		ConfigGeneralDetector d = configDetector;
 
-		FastCornerIntensity<T> alg = FactoryIntensityPointAlg.fast(configFast.pixelTol, configFast.minContinuous, imageType);
+		FastCornerIntensity<T> alg = FactoryIntensityPointAlg.fast(configFast.pixelTol, configFast.minContinuous,
+				configFast.concurrent, imageType);
 		GeneralFeatureIntensity<T, D> intensity = new WrapperFastCornerIntensity<T, D>(alg);
 		ConfigGeneralDetector configExtract =
 				new ConfigGeneralDetector(d.maxFeatures,d.radius,d.threshold,0,true,false,true);
@@ -166,13 +166,40 @@ public class FactoryInterestPointAlgs {
 	 */
 	public static <II extends ImageSingleBand>
 	FastHessianFeatureDetector<II> fastHessian( ConfigFastHessian config ) {
+		return fastHessian(config, false);
+	}
+
+	/**
+	 * Creates a Fast Hessian blob detector used by SURF.
+	 *
+	 * @see FastHessianFeatureDetector_MT
+	 *
+	 * @param config Configuration for detector. Pass in null for default options.
+	 * @param concurrent If true the scales will be processed using multiple threads.
+	 * @return The feature detector
+	 */
+	public static <II extends ImageSingleBand>
+	FastHessianFeatureDetector<II> fastHessian( ConfigFastHessian config , boolean concurrent ) {
 
 		if( config == null )
 			config = new ConfigFastHessian();
 		config.checkValidity();
 
-		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(
-				new ConfigExtract(config.extractRadius, config.detectThreshold, 5, true));
+		final ConfigExtract configExtract =
+				new ConfigExtract(config.extractRadius, config.detectThreshold, 5, true);
+
+		if( concurrent ) {
+			FastHessianFeatureDetector_MT.Factory factory = new FastHessianFeatureDetector_MT.Factory() {
+				@Override
+				public NonMaxSuppression create() {
+					return FactoryFeatureExtractor.nonmax(configExtract);
+				}
+			};
+			return new FastHessianFeatureDetector_MT<II>(factory, config.maxFeaturesPerScale,
+					config.initialSampleSize, config.initialSize, config.numberScalesPerOctave, config.numberOfOctaves);
+		}
+
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(configExtract);
 		return new FastHessianFeatureDetector<II>(extractor, config.maxFeaturesPerScale,
 				config.initialSampleSize, config.initialSize, config.numberScalesPerOctave, config.numberOfOctaves);
 	}
@@ -116,9 +116,40 @@ public class FactoryDetectLineAlgs {
 									   Class<I> imageType ,
 									   Class<D> derivType ) {
 
+		return houghFoot(localMaxRadius,minCounts,minDistanceFromOrigin,thresholdEdge,maxLines,false,imageType,derivType);
+	}
+
+	/**
+	 * Detects lines using the foot of norm parametrization, see {@link DetectLineHoughFoot}.  The polar
+	 * parametrization is more common, but more difficult to tune.
+	 *
+	 * @see DetectLineHoughFoot
+	 *
+	 * @param localMaxRadius Lines in transform space must be a local max in a region with this radius. Try 5;
+	 * @param minCounts Minimum number of counts/votes inside the transformed image. Try 5.
+	 * @param minDistanceFromOrigin Lines which are this close to the origin of the transformed image are ignored.  Try 5.
+	 * @param thresholdEdge Threshold for classifying pixels as edge or not.  Try 30.
+	 * @param maxLines Maximum number of lines to return. If <= 0 it will return them all.
+	 * @param concurrent If true the Hough transform will be computed using multiple threads.
+	 * @param imageType Type of single band input image.
+	 * @param derivType Image derivative type.                    
+	 * @param <I> Input image type.
+	 * @param <D> Image derivative type.
+	 * @return Line detector.
+	 */
+	public static <I extends ImageSingleBand, D extends ImageSingleBand>
+	DetectLineHoughFoot<I,D> houghFoot(int localMaxRadius,
+									   int minCounts ,
+									   int minDistanceFromOrigin ,
+									   float thresholdEdge ,
+									   int maxLines ,
+									   boolean concurrent ,
+									   Class<I> imageType ,
+									   Class<D> derivType ) {
+
 		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType,derivType);
 
-		return new DetectLineHoughFoot<I,D>(localMaxRadius,minCounts,minDistanceFromOrigin,thresholdEdge,maxLines,gradient);
+		return new DetectLineHoughFoot<I,D>(localMaxRadius,minCounts,minDistanceFromOrigin,thresholdEdge,maxLines,gradient,concurrent);
 	}
 
 	/**
@@ -151,11 +182,78 @@ public class FactoryDetectLineAlgs {
 									   Class<I> imageType ,
 									   Class<D> derivType ) {
 
+		return houghFootSub(localMaxRadius,minCounts,minDistanceFromOrigin,thresholdEdge,maxLines,
+				totalHorizontalDivisions,totalVerticalDivisions,false,imageType,derivType);
+	}
+
+	/**
+	 * Detects lines using a foot of norm parametrization and sub images to reduce degenerate
+	 * configurations, see {@link DetectLineHoughFootSubimage} for details.
+	 *
+	 * @see DetectLineHoughFootSubimage
+	 *
+	 * @param localMaxRadius Lines in transform space must be a local max in a region with this radius. Try 5;
+	 * @param minCounts Minimum number of counts/votes inside the transformed image. Try 5.
+	 * @param minDistanceFromOrigin Lines which are this close to the origin of the transformed image are ignored.  Try 5.
+	 * @param thresholdEdge Threshold for classifying pixels as edge or not.  Try 30.
+	 * @param maxLines Maximum number of lines to return. If <= 0 it will return them all.
+	 * @param totalHorizontalDivisions Number of sub-images in horizontal direction Try 2
+	 * @param totalVerticalDivisions Number of sub images in vertical direction.  Try 2
+	 * @param concurrent If true the Hough transform will be computed using multiple threads.
+	 * @param imageType Type of single band input image.
+	 * @param derivType Image derivative type.
+	 * @param <I> Input image type.
+	 * @param <D> Image derivative type.
+	 * @return Line detector.
+	 */
+	public static <I extends ImageSingleBand, D extends ImageSingleBand>
+	DetectLineHoughFootSubimage<I,D> houghFootSub(int localMaxRadius,
+									   int minCounts ,
+									   int minDistanceFromOrigin ,
+									   float thresholdEdge ,
+									   int maxLines ,
+									   int totalHorizontalDivisions ,
+									   int totalVerticalDivisions ,
+									   boolean concurrent ,
+									   Class<I> imageType ,
+									   Class<D> derivType ) {
+
 		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType,derivType);
 
 		return new DetectLineHoughFootSubimage<I,D>(localMaxRadius,
 				minCounts,minDistanceFromOrigin,thresholdEdge,
-				totalHorizontalDivisions,totalVerticalDivisions,maxLines,gradient);
+				totalHorizontalDivisions,totalVerticalDivisions,maxLines,gradient,concurrent);
+	}
+
+	/**
+	 * Creates a Hough line detector based on polar parametrization.
+	 *
+	 * @see DetectLineHoughPolar
+	 *
+	 * @param localMaxRadius Radius for local maximum suppression.  Try 2.
+	 * @param minCounts Minimum number of counts for detected line.  Critical tuning parameter and image dependent.
+	 * @param resolutionRange Resolution of line range in pixels.  Try 2
+	 * @param resolutionAngle Resolution of line angle in radius.  Try PI/180
+	 * @param thresholdEdge Edge detection threshold. Try 50.
+	 * @param maxLines Maximum number of lines to return. If <= 0 it will return them all.
+	 * @param imageType Type of single band input image.
+	 * @param derivType Image derivative type.                    
+	 * @param <I> Input image type.
+	 * @param <D> Image derivative type.
+	 * @return Line detector.
+	 */
+	public static <I extends ImageSingleBand, D extends ImageSingleBand>
+	DetectLineHoughPolar<I,D> houghPolar(int localMaxRadius,
+										 int minCounts,
+										 double resolutionRange ,
+										 double resolutionAngle ,
+										 float thresholdEdge,
+										 int maxLines ,
+										 Class<I> imageType ,
+										 Class<D> derivType ) {
+
+		return houghPolar(localMaxRadius,minCounts,resolutionRange,resolutionAngle,thresholdEdge,maxLines,
+				0,false,imageType,derivType);
 	}
 
 	/**
@@ -169,6 +267,9 @@ public class FactoryDetectLineAlgs {
 	 * @param resolutionAngle Resolution of line angle in radius.  Try PI/180
 	 * @param thresholdEdge Edge detection threshold. Try 50.
 	 * @param maxLines Maximum number of lines to return. If <= 0 it will return them all.
+	 * @param angleTolerance Edge pixels only vote for lines with an angle this close to the gradient's direction,
+	 *                       in radians.  If <= 0 then they vote for all angles. Try PI/18
+	 * @param concurrent If true the Hough transform will be computed using multiple threads.
 	 * @param imageType Type of single band input image.
 	 * @param derivType Image derivative type.                    
 	 * @param <I> Input image type.
@@ -182,12 +283,15 @@ public class FactoryDetectLineAlgs {
 										 double resolutionAngle ,
 										 float thresholdEdge,
 										 int maxLines ,
+										 double angleTolerance ,
+										 boolean concurrent ,
 										 Class<I> imageType ,
 										 Class<D> derivType ) {
 
 		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType,derivType);
 
-		return new DetectLineHoughPolar<I,D>(localMaxRadius,minCounts,resolutionRange,resolutionAngle,thresholdEdge,maxLines,gradient);
+		return new DetectLineHoughPolar<I,D>(localMaxRadius,minCounts,resolutionRange,resolutionAngle,thresholdEdge,
+				maxLines,gradient,angleTolerance,concurrent);
 	}
 
 }
@@ -19,6 +19,7 @@
 package boofcv.factory.feature.detect.template;
 
 import boofcv.alg.feature.detect.template.TemplateDiffSquared;
+import boofcv.alg.feature.detect.template.TemplateIntensityFourier;
 import boofcv.alg.feature.detect.template.TemplateMatching;
 import boofcv.alg.feature.detect.template.TemplateMatchingIntensity;
 import boofcv.alg.feature.detect.template.TemplateNCC;
@@ -66,6 +67,31 @@ public class FactoryTemplateMatching {
 		throw new IllegalArgumentException("Type not found: " + type);
 	}
 
+	/**
+	 * Creates {@link TemplateMatchingIntensity} of the specified type.  If fourier is true then
+	 * {@link TemplateIntensityFourier} is used, which is much faster for large templates and computes the
+	 * same score up to numerical precision.
+	 *
+	 * @param type      Type of error function
+	 * @param fourier   If true the correlation is computed using the Fourier transform
+	 * @param imageType Image type being processed
+	 * @return {@link TemplateMatchingIntensity} of the specified type.
+	 */
+	public static <T extends ImageSingleBand>
+	TemplateMatchingIntensity<T> createIntensity(TemplateScoreType type, boolean fourier, Class<T> imageType) {
+		if( !fourier )
+			return createIntensity(type, imageType);
+
+		switch (type) {
+			case SUM_DIFF_SQ:
+				return new TemplateIntensityFourier.DiffSquared<T>();
+
+			case NCC:
+				return new TemplateIntensityFourier.NCC<T>();
+		}
+		throw new IllegalArgumentException("Type not found: " + type);
+	}
+
 	/**
 	 * Creates an instance of {@link TemplateMatching} for the specified score type.
 	 *
@@ -79,4 +105,19 @@ public class FactoryTemplateMatching {
 
 		return new TemplateMatching<T>(intensity);
 	}
+
+	/**
+	 * Creates an instance of {@link TemplateMatching} for the specified score type.
+	 *
+	 * @param type      Type of error function
+	 * @param fourier   If true the correlation is computed using the Fourier transform
+	 * @param imageType Image type being processed
+	 * @return {@link TemplateMatching} of the specified type.
+	 */
+	public static <T extends ImageSingleBand>
+	TemplateMatching<T> createMatcher(TemplateScoreType type, boolean fourier, Class<T> imageType) {
+		TemplateMatchingIntensity<T> intensity = createIntensity(type, fourier, imageType);
+
+		return new TemplateMatching<T>(intensity);
+	}
 }
@@ -23,6 +23,7 @@ import boofcv.abst.feature.disparity.StereoDisparitySparse;
 import boofcv.abst.feature.disparity.WrapDisparitySadRect;
 import boofcv.abst.feature.disparity.WrapDisparitySparseSadRect;
 import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
+import boofcv.alg.feature.disparity.DisparityScoreRowFormat_MT;
 import boofcv.alg.feature.disparity.DisparitySelect;
 import boofcv.alg.feature.disparity.DisparitySparseScoreSadRect;
 import boofcv.alg.feature.disparity.DisparitySparseSelect;
@@ -85,57 +86,44 @@ public class FactoryStereoDisparity {
 			   int validateRtoL ,
 			   double texture ,
 			   Class<T> imageType ) {
+		return regionWta(whichAlg,minDisparity,maxDisparity,regionRadiusX,regionRadiusY,
+				maxPerPixelError,validateRtoL,texture,imageType,false);
+	}
 
-		double maxError = (regionRadiusX*2+1)*(regionRadiusY*2+1)*maxPerPixelError;
-
-		// 3 regions are used not just one in this case
-		if( whichAlg == DisparityAlgorithms.RECT_FIVE )
-			maxError *= 3;
-
-		DisparitySelect select;
-		if( imageType == ImageUInt8.class || imageType == ImageSInt16.class ) {
-			select = selectDisparity_S32((int) maxError, validateRtoL, texture);
-		} else if( imageType == ImageFloat32.class ) {
-			select = selectDisparity_F32((int) maxError, validateRtoL, texture);
-		} else {
-			throw new IllegalArgumentException("Unknown image type");
-		}
-
-		DisparityScoreRowFormat<T,ImageUInt8> alg = null;
-
-		switch( whichAlg ) {
-			case RECT:
-				if( imageType == ImageUInt8.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_U8(minDisparity,
-							maxDisparity,regionRadiusX,regionRadiusY,select);
-				} else if( imageType == ImageSInt16.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_S16(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				} else if( imageType == ImageFloat32.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_F32(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				}
-				break;
-
-			case RECT_FIVE:
-				if( imageType == ImageUInt8.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_U8(minDisparity,
-							maxDisparity,regionRadiusX,regionRadiusY,select);
-				} else if( imageType == ImageSInt16.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_S16(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				} else if( imageType == ImageFloat32.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_F32(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				}
-				break;
-
-			default:
-				throw new IllegalArgumentException("Unknown algorithms "+whichAlg);
+	/**
+	 * <p>
+	 * Crates algorithms for computing dense disparity images up to pixel level accuracy.
+	 * </p>
+	 *
+	 * <p>
+	 * NOTE: For RECT_FIVE the size of the sub-regions it uses is what is specified.
+	 * </p>
+	 *
+	 * @param minDisparity Minimum disparity that it will check. Must be >= 0 and < maxDisparity
+	 * @param maxDisparity Maximum disparity that it will calculate. Must be > 0
+	 * @param regionRadiusX Radius of the rectangular region along x-axis.
+	 * @param regionRadiusY Radius of the rectangular region along y-axis.
+	 * @param maxPerPixelError Maximum allowed error in a region per pixel.  Set to < 0 to disable.
+	 * @param validateRtoL Tolerance for how difference the left to right associated values can be.  Try 6
+	 * @param texture Tolerance for how similar optimal region is to other region.  Closer to zero is more tolerant.
+	 *                Try 0.1
+	 * @param imageType Type of input image.
+	 * @param concurrent If true blocks of rows will be processed in parallel.
+	 *                   See {@link DisparityScoreRowFormat_MT}.
+	 * @return Rectangular region based WTA disparity.algorithm.
+	 */
+	public static <T extends ImageSingleBand> StereoDisparity<T,ImageUInt8>
+	regionWta( DisparityAlgorithms whichAlg ,
+			   int minDisparity , int maxDisparity,
+			   int regionRadiusX, int regionRadiusY ,
+			   double maxPerPixelError ,
+			   int validateRtoL ,
+			   double texture ,
+			   Class<T> imageType ,
+			   boolean concurrent ) {
 
-		}
-		if( alg == null)
-			throw new RuntimeException("Image type not supported: "+imageType.getSimpleName() );
+		DisparityScoreRowFormat<T,ImageUInt8> alg = createScoreRowFormat(whichAlg,minDisparity,maxDisparity,
+				regionRadiusX,regionRadiusY,maxPerPixelError,validateRtoL,texture,imageType,false,concurrent);
 
 		return new WrapDisparitySadRect<T,ImageUInt8>(alg);
 	}
@@ -168,6 +156,72 @@ public class FactoryStereoDisparity {
 					   int validateRtoL ,
 					   double texture ,
 					   Class<T> imageType ) {
+		return regionSubpixelWta(whichAlg,minDisparity,maxDisparity,regionRadiusX,regionRadiusY,
+				maxPerPixelError,validateRtoL,texture,imageType,false);
+	}
+
+	/**
+	 * <p>
+	 * Returns an algorithm for computing a dense disparity images with sub-pixel disparity accuracy.
+	 * </p>
+	 *
+	 * <p>
+	 * NOTE: For RECT_FIVE the size of the sub-regions it uses is what is specified.
+	 * </p>
+	 *
+	 * @param minDisparity Minimum disparity that it will check. Must be >= 0 and < maxDisparity
+	 * @param maxDisparity Maximum disparity that it will calculate. Must be > 0
+	 * @param regionRadiusX Radius of the rectangular region along x-axis. Try 3.
+	 * @param regionRadiusY Radius of the rectangular region along y-axis. Try 3.
+	 * @param maxPerPixelError Maximum allowed error in a region per pixel.  Set to < 0 to disable.
+	 * @param validateRtoL Tolerance for how difference the left to right associated values can be.  Try 6
+	 * @param texture Tolerance for how similar optimal region is to other region.  Disable with a value <= 0.
+	 *                Closer to zero is more tolerant. Try 0.1
+	 * @param imageType Type of input image.
+	 * @param concurrent If true blocks of rows will be processed in parallel.
+	 *                   See {@link DisparityScoreRowFormat_MT}.
+	 * @return Rectangular region based WTA disparity.algorithm.
+	 */
+	public static <T extends ImageSingleBand> StereoDisparity<T,ImageFloat32>
+	regionSubpixelWta( DisparityAlgorithms whichAlg ,
+					   int minDisparity , int maxDisparity,
+					   int regionRadiusX, int regionRadiusY ,
+					   double maxPerPixelError ,
+					   int validateRtoL ,
+					   double texture ,
+					   Class<T> imageType ,
+					   boolean concurrent ) {
+
+		DisparityScoreRowFormat<T,ImageFloat32> alg = createScoreRowFormat(whichAlg,minDisparity,maxDisparity,
+				regionRadiusX,regionRadiusY,maxPerPixelError,validateRtoL,texture,imageType,true,concurrent);
+
+		return new WrapDisparitySadRect<T,ImageFloat32>(alg);
+	}
+
+	/**
+	 * Creates the dense disparity algorithm.  If concurrent then each block of rows will be processed by
+	 * its own instance of the single threaded algorithm.
+	 */
+	private static DisparityScoreRowFormat
+	createScoreRowFormat( final DisparityAlgorithms whichAlg ,
+						  final int minDisparity , final int maxDisparity,
+						  final int regionRadiusX, final int regionRadiusY ,
+						  final double maxPerPixelError ,
+						  final int validateRtoL ,
+						  final double texture ,
+						  final Class imageType ,
+						  final boolean subpixel ,
+						  boolean concurrent ) {
+
+		if( concurrent ) {
+			return new DisparityScoreRowFormat_MT(new DisparityScoreRowFormat_MT.Factory() {
+				@Override
+				public DisparityScoreRowFormat create() {
+					return createScoreRowFormat(whichAlg,minDisparity,maxDisparity,regionRadiusX,regionRadiusY,
+							maxPerPixelError,validateRtoL,texture,imageType,subpixel,false);
+				}
+			});
+		}
 
 		double maxError = (regionRadiusX*2+1)*(regionRadiusY*2+1)*maxPerPixelError;
 
@@ -177,14 +231,20 @@ public class FactoryStereoDisparity {
 
 		DisparitySelect select;
 		if( imageType == ImageUInt8.class || imageType == ImageSInt16.class ) {
-			select = selectDisparitySubpixel_S32((int) maxError, validateRtoL, texture);
+			if( subpixel )
+				select = selectDisparitySubpixel_S32((int) maxError, validateRtoL, texture);
+			else
+				select = selectDisparity_S32((int) maxError, validateRtoL, texture);
 		} else if( imageType == ImageFloat32.class ) {
-			select = selectDisparitySubpixel_F32((int) maxError, validateRtoL, texture);
+			if( subpixel )
+				select = selectDisparitySubpixel_F32((int) maxError, validateRtoL, texture);
+			else
+				select = selectDisparity_F32((int) maxError, validateRtoL, texture);
 		} else {
 			throw new IllegalArgumentException("Unknown image type");
 		}
 
-		DisparityScoreRowFormat<T,ImageFloat32> alg = null;
+		DisparityScoreRowFormat alg = null;
 
 		switch( whichAlg ) {
 			case RECT:
@@ -220,7 +280,7 @@ public class FactoryStereoDisparity {
 		if( alg == null)
 			throw new RuntimeException("Image type not supported: "+imageType.getSimpleName() );
 
-		return new WrapDisparitySadRect<T,ImageFloat32>(alg);
+		return alg;
 	}
 
 	/**
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.feature.associate.AssociateDescriptorSearch;
+import boofcv.alg.feature.associate.DescriptorSearch;
+import boofcv.alg.feature.associate.KdForestSearch_F64;
+import boofcv.alg.feature.associate.NnBestTwo;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestWrapAssociateDescriptorSearch {
+
+	@Test
+	public void normal() {
+		new StandardTests() {
+			@Override
+			public AssociateDescription<TupleDesc_F64> createAlg() {
+				AssociateDescriptorSearch<TupleDesc_F64> alg = new AssociateDescriptorSearch<TupleDesc_F64>(
+						new KdForestSearch_F64(2,100,5,234),null,1.0);
+				return new WrapAssociateDescriptorSearch<TupleDesc_F64>(alg);
+			}
+		}.allTests();
+	}
+
+	@Test
+	public void backwards() {
+		new StandardTests() {
+			@Override
+			public AssociateDescription<TupleDesc_F64> createAlg() {
+				AssociateDescriptorSearch<TupleDesc_F64> alg = new AssociateDescriptorSearch<TupleDesc_F64>(
+						new KdForestSearch_F64(2,100,5,234),new KdForestSearch_F64(2,100,5,235),1.0);
+				return new WrapAssociateDescriptorSearch<TupleDesc_F64>(alg);
+			}
+		}.allTests();
+	}
+
+	/**
+	 * The reverse search is approximate and misses the best source.  Destinations should still be unique.
+	 */
+	@Test
+	public void backwards_approximate() {
+		new StandardTests() {
+			@Override
+			public AssociateDescription<TupleDesc_F64> createAlg() {
+				AssociateDescriptorSearch<TupleDesc_F64> alg = new AssociateDescriptorSearch<TupleDesc_F64>(
+						new KdForestSearch_F64(2,100,5,234),new MissBest(),1.0);
+				return new WrapAssociateDescriptorSearch<TupleDesc_F64>(alg);
+			}
+		}.allTests();
+	}
+
+	/**
+	 * Approximate search which always returns the last point with a distance worse than any real match
+	 */
+	private static class MissBest implements DescriptorSearch<TupleDesc_F64> {
+		FastQueue<TupleDesc_F64> points;
+
+		@Override
+		public void setPoints(FastQueue<TupleDesc_F64> points) {
+			this.points = points;
+		}
+
+		@Override
+		public boolean findNearest(TupleDesc_F64 target, double maxDistance, NnBestTwo result) {
+			result.reset();
+			result.index = points.size-1;
+			result.distance = 1e10;
+			return true;
+		}
+	}
+
+	private static abstract class StandardTests extends StandardAssociateDescriptionChecks<TupleDesc_F64>
+	{
+		public StandardTests() {
+			super(TupleDesc_F64.class);
+		}
+
+		@Override
+		protected TupleDesc_F64 c(double value) {
+			TupleDesc_F64 s = new TupleDesc_F64(1);
+			s.value[0] = value;
+			return s;
+		}
+	}
+}
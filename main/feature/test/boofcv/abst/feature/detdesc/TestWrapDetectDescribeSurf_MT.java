@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.feature.detdesc;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.struct.feature.SurfFeature;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageType;
+import georegression.struct.point.Point2D_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestWrapDetectDescribeSurf_MT extends GenericTestsDetectDescribePoint<ImageFloat32,SurfFeature>
+{
+	int maxThreads;
+
+	public TestWrapDetectDescribeSurf_MT() {
+		super(true, true, ImageType.single(ImageFloat32.class), SurfFeature.class);
+	}
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	@Override
+	public DetectDescribePoint<ImageFloat32, SurfFeature> createDetDesc() {
+		return FactoryDetectDescribe.surfStable(null,null,null, ImageFloat32.class, true);
+	}
+
+	/**
+	 * Results should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingle() {
+		ImageFloat32 input = new ImageFloat32(200,170);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		compare(FactoryDetectDescribe.surfStable(null, null, null, ImageFloat32.class, false),
+				FactoryDetectDescribe.surfStable(null, null, null, ImageFloat32.class, true), input);
+		compare(FactoryDetectDescribe.surfFast(null, null, null, ImageFloat32.class, false),
+				FactoryDetectDescribe.surfFast(null, null, null, ImageFloat32.class, true), input);
+	}
+
+	private void compare( DetectDescribePoint<ImageFloat32, SurfFeature> single ,
+						  DetectDescribePoint<ImageFloat32, SurfFeature> multi ,
+						  ImageFloat32 input ) {
+		assertTrue(multi instanceof WrapDetectDescribeSurf_MT);
+
+		single.detect(input);
+		multi.detect(input);
+
+		assertTrue(single.getNumberOfFeatures() > 0);
+		assertEquals(single.getNumberOfFeatures(), multi.getNumberOfFeatures());
+
+		for( int i = 0; i < single.getNumberOfFeatures(); i++ ) {
+			Point2D_F64 e = single.getLocation(i);
+			Point2D_F64 f = multi.getLocation(i);
+			assertEquals(e.x, f.x, 0);
+			assertEquals(e.y, f.y, 0);
+			assertEquals(single.getScale(i), multi.getScale(i), 0);
+			assertEquals(single.getOrientation(i), multi.getOrientation(i), 0);
+
+			SurfFeature a = single.getDescription(i);
+			SurfFeature b = multi.getDescription(i);
+			assertEquals(a.laplacianPositive, b.laplacianPositive);
+			for( int j = 0; j < a.value.length; j++ ) {
+				assertEquals(a.value[j], b.value[j], 0);
+			}
+		}
+	}
+}
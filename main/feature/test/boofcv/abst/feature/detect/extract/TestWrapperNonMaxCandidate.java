@@ -20,6 +20,8 @@ package boofcv.abst.feature.detect.extract;
 
 import boofcv.alg.feature.detect.extract.NonMaxCandidateRelaxed;
 import boofcv.alg.feature.detect.extract.NonMaxCandidateStrict;
+import boofcv.alg.feature.detect.extract.NonMaxCandidate_MT;
+import boofcv.alg.feature.detect.extract.TestNonMaxCandidate_MT;
 import org.junit.Test;
 
 /**
@@ -50,4 +52,16 @@ public class TestWrapperNonMaxCandidate {
 		};
 		checks.testAll();
 	}
+
+	@Test
+	public void checkConcurrent() {
+		GeneralNonMaxSuppressionChecks checks = new GeneralNonMaxSuppressionChecks() {
+
+			@Override
+			public NonMaxSuppression createAlg() {
+				return new WrapperNonMaxCandidate(new NonMaxCandidate_MT(TestNonMaxCandidate_MT.factory(true)),true,true);
+			}
+		};
+		checks.testAll();
+	}
 }
@@ -19,7 +19,9 @@
 package boofcv.abst.feature.detect.extract;
 
 import boofcv.alg.feature.detect.extract.NonMaxBlockRelaxed;
+import boofcv.alg.feature.detect.extract.NonMaxBlock_MT;
 import boofcv.alg.feature.detect.extract.NonMaxBlockStrict;
+import boofcv.alg.feature.detect.extract.TestNonMaxBlock_MT;
 import org.junit.Test;
 
 /**
@@ -98,4 +100,16 @@ public class TestWrapperNonMaximumBlock {
 		};
 		checks.testAll();
 	}
+
+	@Test
+	public void checkConcurrent() {
+		GeneralNonMaxSuppressionChecks checks = new GeneralNonMaxSuppressionChecks() {
+
+			@Override
+			public NonMaxSuppression createAlg() {
+				return new WrapperNonMaximumBlock(new NonMaxBlock_MT(TestNonMaxBlock_MT.factory(true,true,true)));
+			}
+		};
+		checks.testAll();
+	}
 }
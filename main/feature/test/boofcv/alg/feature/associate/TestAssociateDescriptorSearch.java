@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateDescriptorSearch {
+
+	@Test
+	public void basic() {
+		FastQueue<TupleDesc_F64> a = createData(1,2,3,4);
+		FastQueue<TupleDesc_F64> b = createData(3,4,1,40);
+
+		AssociateDescriptorSearch<TupleDesc_F64> alg = new AssociateDescriptorSearch<TupleDesc_F64>(
+				new Exhaustive(),null,1.0);
+		alg.setMaxFitError(0.5);
+
+		alg.associate(a,b);
+
+		int pairs[] = alg.getPairs();
+
+		assertEquals(2,pairs[0]);
+		assertEquals(-1,pairs[1]);
+		assertEquals(0,pairs[2]);
+		assertEquals(1,pairs[3]);
+
+		double fitScore[] = alg.getFitQuality();
+
+		assertEquals(0,fitScore[0],1e-5);
+		assertEquals(0,fitScore[2],1e-5);
+		assertEquals(0,fitScore[3],1e-5);
+	}
+
+	/**
+	 * Matches which are ambiguous should be rejected by the ratio test
+	 */
+	@Test
+	public void ratioTest() {
+		FastQueue<TupleDesc_F64> a = createData(1,10);
+		FastQueue<TupleDesc_F64> b = createData(1.5,2,10.1,12);
+
+		AssociateDescriptorSearch<TupleDesc_F64> alg = new AssociateDescriptorSearch<TupleDesc_F64>(
+				new Exhaustive(),null,0.8);
+		alg.associate(a,b);
+
+		// 0.5/1.0 passes and 0.1/1.9 passes
+		assertEquals(0,alg.getPairs()[0]);
+		assertEquals(2,alg.getPairs()[1]);
+
+		// 0.5/1.0 fails
+		alg.setRatioTest(0.4);
+		alg.associate(a,b);
+		assertEquals(-1,alg.getPairs()[0]);
+		assertEquals(2,alg.getPairs()[1]);
+
+		// disabled
+		alg.setRatioTest(1.0);
+		alg.setMaxFitError(0.6);
+		alg.associate(a,b);
+		assertEquals(0,alg.getPairs()[0]);
+		assertEquals(2,alg.getPairs()[1]);
+	}
+
+	@Test
+	public void backwardsValidation() {
+		FastQueue<TupleDesc_F64> a = createData(1,2,3,4);
+		FastQueue<TupleDesc_F64> b = createData(3,4,1.1,1.05);
+
+		AssociateDescriptorSearch<TupleDesc_F64> alg = new AssociateDescriptorSearch<TupleDesc_F64>(
+				new Exhaustive(),null,1.0);
+		alg.associate(a,b);
+
+		// without validation 2 matches up with 1.1
+		assertEquals(3,alg.getPairs()[0]);
+		assertEquals(2,alg.getPairs()[1]);
+
+		alg = new AssociateDescriptorSearch<TupleDesc_F64>(new Exhaustive(),new Exhaustive(),1.0);
+		alg.associate(a,b);
+
+		// 1.1 is closer to 1 than 2
+		assertEquals(3,alg.getPairs()[0]);
+		assertEquals(-1,alg.getPairs()[1]);
+		assertEquals(0,alg.getPairs()[2]);
+		assertEquals(1,alg.getPairs()[3]);
+	}
+
+	/**
+	 * If the reverse search is approximate and returns a third source feature which is a worse match than both,
+	 * the destination should still only be matched to the best source feature.
+	 */
+	@Test
+	public void backwardsValidation_approximate() {
+		FastQueue<TupleDesc_F64> a = createData(1,1.25,2,50);
+		FastQueue<TupleDesc_F64> b = createData(1.5,50);
+
+		DescriptorSearch<TupleDesc_F64> reverse = new DescriptorSearch<TupleDesc_F64>() {
+			FastQueue<TupleDesc_F64> points;
+
+			@Override
+			public void setPoints(FastQueue<TupleDesc_F64> points) {
+				this.points = points;
+			}
+
+			@Override
+			public boolean findNearest(TupleDesc_F64 target, double maxDistance, NnBestTwo result) {
+				// always finds the last source with a poor score
+				result.reset();
+				result.index = points.size-1;
+				result.distance = 1000;
+				return true;
+			}
+		};
+
+		AssociateDescriptorSearch<TupleDesc_F64> alg = new AssociateDescriptorSearch<TupleDesc_F64>(
+				new Exhaustive(),reverse,1.0);
+		alg.associate(a,b);
+
+		// 1.25 is the best match to 1.5
+		assertEquals(-1,alg.getPairs()[0]);
+		assertEquals(0,alg.getPairs()[1]);
+		assertEquals(-1,alg.getPairs()[2]);
+		assertEquals(1,alg.getPairs()[3]);
+
+		// two sources with the same score are both rejected
+		a = createData(1,2,50);
+		alg.associate(a,b);
+		assertEquals(-1,alg.getPairs()[0]);
+		assertEquals(-1,alg.getPairs()[1]);
+		assertEquals(1,alg.getPairs()[2]);
+	}
+
+	private FastQueue<TupleDesc_F64> createData( double ...values )
+	{
+		FastQueue<TupleDesc_F64> ret = new FastQueue<TupleDesc_F64>(10, TupleDesc_F64.class,false);
+
+		for( int i = 0; i < values.length; i++ ) {
+			TupleDesc_F64 d = new TupleDesc_F64(1);
+			d.value[0] = values[i];
+			ret.add(d);
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Search every point for the best match
+	 */
+	private static class Exhaustive implements DescriptorSearch<TupleDesc_F64> {
+		FastQueue<TupleDesc_F64> points;
+
+		@Override
+		public void setPoints(FastQueue<TupleDesc_F64> points) {
+			this.points = points;
+		}
+
+		@Override
+		public boolean findNearest(TupleDesc_F64 target, double maxDistance, NnBestTwo result) {
+			NnBestTwo found = TestKdForestSearch_F64.bruteForce(points, target);
+			result.reset();
+			if( found.index < 0 || (maxDistance >= 0 && found.distance >= maxDistance) )
+				return false;
+			result.index = found.index;
+			result.distance = found.distance;
+			result.index2 = found.index2;
+			result.distance2 = found.distance2;
+			return true;
+		}
+	}
+}
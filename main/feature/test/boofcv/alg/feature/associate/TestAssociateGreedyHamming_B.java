@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateGreedyHamming_B {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against the generic algorithm.  Descriptors are short so that there are lots of ties.
+	 */
+	@Test
+	public void compareToGreedy() {
+		for( boolean backwards : new boolean[]{false,true} ) {
+			for( double maxError : new double[]{Double.MAX_VALUE,10} ) {
+				FastQueue<TupleDesc_B> src = createSet(60,32);
+				FastQueue<TupleDesc_B> dst = createSet(50,32);
+
+				AssociateGreedy<TupleDesc_B> expected =
+						new AssociateGreedy<TupleDesc_B>(new ScoreAssociateHamming_B(),backwards);
+				AssociateGreedyHamming_B alg = new AssociateGreedyHamming_B(backwards);
+				expected.setMaxFitError(maxError);
+				alg.setMaxFitError(maxError);
+
+				expected.associate(src,dst);
+				alg.associate(src,dst);
+
+				for( int i = 0; i < src.size; i++ ) {
+					assertEquals(expected.getPairs()[i],alg.getPairs()[i]);
+					assertEquals(expected.getFitQuality()[i],alg.getFitQuality()[i],1e-8);
+				}
+
+				// call it again and see if it gets the same result
+				alg.associate(src,dst);
+				for( int i = 0; i < src.size; i++ ) {
+					assertEquals(expected.getPairs()[i],alg.getPairs()[i]);
+				}
+			}
+		}
+	}
+
+	private FastQueue<TupleDesc_B> createSet( int N , int numBits ) {
+		FastQueue<TupleDesc_B> ret = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+		for( int i = 0; i < N; i++ ) {
+			TupleDesc_B d = new TupleDesc_B(numBits);
+			for( int j = 0; j < d.data.length; j++ )
+				d.data[j] = rand.nextInt();
+			ret.add(d);
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.TupleDesc_F32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKdForestSearch_F32 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * If the number of checks is large enough to visit every point the solution should be exact
+	 */
+	@Test
+	public void exhaustive() {
+		FastQueue<TupleDesc_F32> points = new FastQueue<TupleDesc_F32>(TupleDesc_F32.class,false);
+		for( int i = 0; i < 200; i++ )
+			points.add(createPoint(8));
+
+		KdForestSearch_F32 alg = new KdForestSearch_F32(3,1000,5,234);
+		alg.setPoints(points);
+
+		NnBestTwo result = new NnBestTwo();
+		for( int trial = 0; trial < 50; trial++ ) {
+			TupleDesc_F32 target = createPoint(8);
+			assertTrue(alg.findNearest(target, -1, result));
+
+			int best = -1, best2 = -1;
+			double bestDist = Double.MAX_VALUE, bestDist2 = Double.MAX_VALUE;
+			for( int i = 0; i < points.size; i++ ) {
+				double d = DescriptorDistance.euclideanSq(points.get(i),target);
+				if( d < bestDist ) {
+					best2 = best; bestDist2 = bestDist;
+					best = i; bestDist = d;
+				} else if( d < bestDist2 ) {
+					best2 = i; bestDist2 = d;
+				}
+			}
+
+			assertEquals(best,result.index);
+			assertEquals(best2,result.index2);
+			assertEquals(Math.sqrt(bestDist),result.distance,1e-4);
+		}
+	}
+
+	private TupleDesc_F32 createPoint( int dof ) {
+		TupleDesc_F32 p = new TupleDesc_F32(dof);
+		for( int i = 0; i < dof; i++ )
+			p.value[i] = rand.nextFloat();
+		return p;
+	}
+}
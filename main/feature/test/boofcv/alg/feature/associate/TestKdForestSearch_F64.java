@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKdForestSearch_F64 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * If the number of checks is large enough to visit every point the solution should be exact
+	 */
+	@Test
+	public void exhaustive() {
+		FastQueue<TupleDesc_F64> points = createPoints(200,8);
+		KdForestSearch_F64 alg = new KdForestSearch_F64(3,1000,5,234);
+		alg.setPoints(points);
+
+		NnBestTwo result = new NnBestTwo();
+		for( int trial = 0; trial < 50; trial++ ) {
+			TupleDesc_F64 target = createPoint(8);
+			assertTrue(alg.findNearest(target, -1, result));
+
+			NnBestTwo expected = bruteForce(points,target);
+			assertEquals(expected.index,result.index);
+			assertEquals(expected.index2,result.index2);
+			assertEquals(expected.distance,result.distance,1e-8);
+			assertEquals(expected.distance2,result.distance2,1e-8);
+		}
+	}
+
+	/**
+	 * With a limited number of checks it should still find the correct match most of the time when the target
+	 * is close to a point
+	 */
+	@Test
+	public void approximate() {
+		FastQueue<TupleDesc_F64> points = createPoints(2000,32);
+		KdForestSearch_F64 alg = new KdForestSearch_F64(4,200,5,234);
+		alg.setPoints(points);
+
+		NnBestTwo result = new NnBestTwo();
+		int correct = 0;
+		for( int trial = 0; trial < 100; trial++ ) {
+			int index = rand.nextInt(points.size);
+			TupleDesc_F64 target = points.get(index).copy();
+			for( int i = 0; i < target.value.length; i++ )
+				target.value[i] += rand.nextGaussian()*0.01;
+
+			if( alg.findNearest(target, -1, result) && result.index == index )
+				correct++;
+		}
+		assertTrue(correct >= 90);
+	}
+
+	@Test
+	public void maxDistance() {
+		FastQueue<TupleDesc_F64> points = new FastQueue<TupleDesc_F64>(TupleDesc_F64.class,false);
+		points.add(new TupleDesc_F64(2));
+		points.get(0).value[0] = 1;
+
+		KdForestSearch_F64 alg = new KdForestSearch_F64(2,100,5,234);
+		alg.setPoints(points);
+
+		NnBestTwo result = new NnBestTwo();
+		TupleDesc_F64 target = new TupleDesc_F64(2);
+		assertFalse(alg.findNearest(target,0.5,result));
+		// must be less than
+		assertFalse(alg.findNearest(target,1,result));
+		assertTrue(alg.findNearest(target, 1.1, result));
+		assertEquals(0,result.index);
+		assertEquals(1,result.distance,1e-8);
+		assertEquals(-1,result.index2);
+	}
+
+	/**
+	 * Make sure it can handle an empty set and being called multiple times
+	 */
+	@Test
+	public void reuse() {
+		KdForestSearch_F64 alg = new KdForestSearch_F64(2,100,5,234);
+		NnBestTwo result = new NnBestTwo();
+
+		alg.setPoints(new FastQueue<TupleDesc_F64>(TupleDesc_F64.class,false));
+		assertFalse(alg.findNearest(createPoint(4),-1,result));
+
+		for( int i = 0; i < 3; i++ ) {
+			FastQueue<TupleDesc_F64> points = createPoints(50+i*100,4);
+			alg.setPoints(points);
+			assertTrue(alg.findNearest(points.get(10),-1,result));
+			assertEquals(10,result.index);
+			assertEquals(0,result.distance,1e-8);
+		}
+	}
+
+	private FastQueue<TupleDesc_F64> createPoints( int N , int dof ) {
+		FastQueue<TupleDesc_F64> points = new FastQueue<TupleDesc_F64>(TupleDesc_F64.class,false);
+		for( int i = 0; i < N; i++ )
+			points.add(createPoint(dof));
+		return points;
+	}
+
+	private TupleDesc_F64 createPoint( int dof ) {
+		TupleDesc_F64 p = new TupleDesc_F64(dof);
+		for( int i = 0; i < dof; i++ )
+			p.value[i] = rand.nextDouble();
+		return p;
+	}
+
+	public static NnBestTwo bruteForce( FastQueue<TupleDesc_F64> points , TupleDesc_F64 target ) {
+		NnBestTwo ret = new NnBestTwo();
+		for( int i = 0; i < points.size; i++ ) {
+			double d = Math.sqrt(DescriptorDistance.euclideanSq(points.get(i),target));
+			if( d < ret.distance ) {
+				ret.index2 = ret.index; ret.distance2 = ret.distance;
+				ret.index = i; ret.distance = d;
+			} else if( d < ret.distance2 ) {
+				ret.index2 = i; ret.distance2 = d;
+			}
+		}
+		return ret;
+	}
+}
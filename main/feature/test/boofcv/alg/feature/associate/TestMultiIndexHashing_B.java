@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMultiIndexHashing_B {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Targets are noisy copies of points in the list.  With a few bits flipped the substrings of the
+	 * correct match should be found.
+	 */
+	@Test
+	public void findPlanted() {
+		for( int probeRadius = 0; probeRadius <= 2; probeRadius++ ) {
+			FastQueue<TupleDesc_B> points = createPoints(500,256);
+			MultiIndexHashing_B alg = new MultiIndexHashing_B(probeRadius);
+			alg.setPoints(points);
+
+			NnBestTwo result = new NnBestTwo();
+			for( int trial = 0; trial < 50; trial++ ) {
+				int index = rand.nextInt(points.size);
+				TupleDesc_B target = points.get(index).copy();
+				for( int i = 0; i < 10; i++ ) {
+					int bit = rand.nextInt(256);
+					target.data[bit/32] ^= 1 << (bit%32);
+				}
+
+				assertTrue(alg.findNearest(target, -1, result));
+				assertEquals(index,result.index);
+				assertEquals(DescriptorDistance.hamming(target,points.get(index)),result.distance,1e-8);
+				assertTrue(result.distance <= result.distance2);
+			}
+		}
+	}
+
+	/**
+	 * Check the second best match when both are exact matches for a substring
+	 */
+	@Test
+	public void secondBest() {
+		FastQueue<TupleDesc_B> points = createPoints(100,64);
+		TupleDesc_B target = points.get(5).copy();
+		// differs in 3 bits from the target
+		points.get(20).setTo(target);
+		points.get(20).data[0] ^= 0x7;
+		// differs in 1 bit from the target
+		points.get(5).data[1] ^= 0x1000;
+
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(0);
+		alg.setPoints(points);
+
+		NnBestTwo result = new NnBestTwo();
+		assertTrue(alg.findNearest(target, -1, result));
+		assertEquals(5,result.index);
+		assertEquals(1,result.distance,1e-8);
+		assertEquals(20,result.index2);
+		assertEquals(3,result.distance2,1e-8);
+	}
+
+	@Test
+	public void maxDistance() {
+		FastQueue<TupleDesc_B> points = createPoints(10,64);
+		TupleDesc_B target = points.get(3).copy();
+		target.data[0] ^= 0x3;
+
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(1);
+		alg.setPoints(points);
+
+		NnBestTwo result = new NnBestTwo();
+		assertFalse(alg.findNearest(target,2,result));
+		assertTrue(alg.findNearest(target,3,result));
+		assertEquals(3,result.index);
+	}
+
+	/**
+	 * Number of bits is not a multiple of 16
+	 */
+	@Test
+	public void oddNumberOfBits() {
+		FastQueue<TupleDesc_B> points = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+		for( int i = 0; i < 50; i++ ) {
+			TupleDesc_B p = new TupleDesc_B(40);
+			p.data[0] = rand.nextInt();
+			p.data[1] = rand.nextInt() & 0xFF;
+			points.add(p);
+		}
+
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(1);
+		alg.setPoints(points);
+
+		NnBestTwo result = new NnBestTwo();
+		for( int i = 0; i < points.size; i++ ) {
+			assertTrue(alg.findNearest(points.get(i),-1,result));
+			assertEquals(0,result.distance,1e-8);
+		}
+	}
+
+	private FastQueue<TupleDesc_B> createPoints( int N , int numBits ) {
+		FastQueue<TupleDesc_B> points = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+		for( int i = 0; i < N; i++ ) {
+			TupleDesc_B p = new TupleDesc_B(numBits);
+			for( int j = 0; j < p.data.length; j++ )
+				p.data[j] = rand.nextInt();
+			points.add(p);
+		}
+		return points;
+	}
+}
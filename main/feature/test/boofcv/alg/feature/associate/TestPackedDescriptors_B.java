@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPackedDescriptors_B {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void hamming() {
+		// test an odd and even number of ints
+		for( int numBits : new int[]{30,64,96,256,500} ) {
+			FastQueue<TupleDesc_B> a = createSet(20,numBits);
+			FastQueue<TupleDesc_B> b = createSet(15,numBits);
+
+			PackedDescriptors_B packedA = new PackedDescriptors_B();
+			PackedDescriptors_B packedB = new PackedDescriptors_B();
+			packedA.setTo(a);
+			packedB.setTo(b);
+
+			assertEquals(20,packedA.size);
+			assertEquals((a.get(0).data.length+1)/2,packedA.stride);
+
+			int scores[] = new int[b.size];
+			for( int i = 0; i < a.size; i++ ) {
+				packedA.hammingAll(i,packedB,scores);
+				for( int j = 0; j < b.size; j++ ) {
+					int expected = DescriptorDistance.hamming(a.get(i),b.get(j));
+					assertEquals(expected,packedA.hamming(i,packedB,j));
+					assertEquals(expected,scores[j]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Make sure the negative ints are correctly packed and don't set the upper bits
+	 */
+	@Test
+	public void setTo_negative() {
+		FastQueue<TupleDesc_B> a = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+		TupleDesc_B d = new TupleDesc_B(96);
+		d.data[0] = -1;
+		d.data[2] = -1;
+		a.add(d);
+
+		PackedDescriptors_B packed = new PackedDescriptors_B();
+		packed.setTo(a);
+
+		assertEquals(2,packed.stride);
+		assertEquals(0xFFFFFFFFL,packed.data[0]);
+		assertEquals(0xFFFFFFFFL,packed.data[1]);
+	}
+
+	private FastQueue<TupleDesc_B> createSet( int N , int numBits ) {
+		FastQueue<TupleDesc_B> ret = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+		for( int i = 0; i < N; i++ ) {
+			TupleDesc_B d = new TupleDesc_B(numBits);
+			for( int j = 0; j < d.data.length; j++ )
+				d.data[j] = rand.nextInt();
+			ret.add(d);
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftImageScaleSpace;
+import boofcv.alg.feature.detect.interest.SiftImageScaleSpace_MT;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
+import boofcv.struct.feature.SurfFeature;
+import boofcv.struct.image.ImageFloat32;
+import georegression.struct.point.Point2D_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDetectDescribeSift_MT {
+
+	Random rand = new Random(234);
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	/**
+	 * Results should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingle() {
+		ImageFloat32 input = new ImageFloat32(200,170);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		DetectDescribeSift single = new DetectDescribeSift(new SiftImageScaleSpace(1.6f, 5, 4, false),
+				FactoryInterestPointAlgs.siftDetector(null),
+				createOrientation(), createDescribe());
+
+		DetectDescribeSift_MT multi = new DetectDescribeSift_MT(new SiftImageScaleSpace_MT(1.6f, 5, 4, false),
+				FactoryInterestPointAlgs.siftDetector(null),
+				new DetectDescribeSift_MT.Factory() {
+					@Override
+					public OrientationHistogramSift createOrientation() {
+						return TestDetectDescribeSift_MT.this.createOrientation();
+					}
+
+					@Override
+					public DescribePointSift createDescribe() {
+						return TestDetectDescribeSift_MT.this.createDescribe();
+					}
+				});
+
+		// process twice to make sure the storage is reset correctly
+		for( int trial = 0; trial < 2; trial++ ) {
+			single.process(input);
+			multi.process(input);
+
+			int N = single.getFeatures().size;
+			assertTrue(N > DetectDescribeSift_MT.MIN_BLOCK*2);
+			assertEquals(N, multi.getFeatures().size);
+			assertEquals(N, multi.getFeatureScales().size);
+			assertEquals(N, multi.getFeatureAngles().size);
+			assertEquals(N, multi.getLocation().size);
+
+			for( int i = 0; i < N; i++ ) {
+				Point2D_F64 e = single.getLocation().get(i);
+				Point2D_F64 f = multi.getLocation().get(i);
+				assertEquals(e.x, f.x, 0);
+				assertEquals(e.y, f.y, 0);
+				assertEquals(single.getFeatureScales().get(i), multi.getFeatureScales().get(i), 0);
+				assertEquals(single.getFeatureAngles().get(i), multi.getFeatureAngles().get(i), 0);
+
+				SurfFeature a = single.getFeatures().get(i);
+				SurfFeature b = multi.getFeatures().get(i);
+				assertEquals(a.laplacianPositive, b.laplacianPositive);
+				for( int j = 0; j < a.value.length; j++ ) {
+					assertEquals(a.value[j], b.value[j], 0);
+				}
+			}
+		}
+	}
+
+	private OrientationHistogramSift createOrientation() {
+		return new OrientationHistogramSift(32,2.5,1.5);
+	}
+
+	private DescribePointSift createDescribe() {
+		return new DescribePointSift(4,8,8,0.5, 2.5);
+	}
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.ImageFloat32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestNonMaxBlock_MT {
+
+	Random rand = new Random(234);
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	@Test
+	public void checkStrict() {
+		GenericNonMaxTests checks = new GenericNonMaxTests(true,true,true) {
+
+			@Override
+			public void findMaximums(ImageFloat32 intensity, float threshold, int radius, int border,
+									 QueueCorner foundMinimum, QueueCorner foundMaximum)
+			{
+				NonMaxBlock_MT alg = new NonMaxBlock_MT(factory(true,true,true));
+				alg.setThresholdMin(-threshold);
+				alg.setThresholdMax(threshold);
+				alg.setBorder(border);
+				alg.setSearchRadius(radius);
+				alg.process(intensity,foundMinimum,foundMaximum);
+			}
+		};
+
+		checks.allStandard();
+	}
+
+	@Test
+	public void checkRelaxed() {
+		GenericNonMaxTests checks = new GenericNonMaxTests(false,true,true) {
+
+			@Override
+			public void findMaximums(ImageFloat32 intensity, float threshold, int radius, int border,
+									 QueueCorner foundMinimum, QueueCorner foundMaximum)
+			{
+				NonMaxBlock_MT alg = new NonMaxBlock_MT(factory(false,true,true));
+				alg.setThresholdMin(-threshold);
+				alg.setThresholdMax(threshold);
+				alg.setBorder(border);
+				alg.setSearchRadius(radius);
+				alg.process(intensity,foundMinimum,foundMaximum);
+			}
+		};
+
+		checks.allStandard();
+	}
+
+	/**
+	 * The found features and their order should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingleThread() {
+		ImageFloat32 intensity = new ImageFloat32(150,213);
+		ImageMiscOps.fillUniform(intensity,rand,-10,10);
+
+		NonMaxBlock_MT.Factory[] factories = new NonMaxBlock_MT.Factory[]{
+				factory(true,false,true),factory(true,true,false),factory(true,true,true),
+				factory(false,false,true),factory(false,true,false),factory(false,true,true)};
+
+		for( NonMaxBlock_MT.Factory factory : factories ) {
+			NonMaxBlock alg = factory.create();
+			for( int radius = 1; radius <= 3; radius++ ) {
+				for( int border = 0; border <= 4; border += 4 ) {
+					alg.setSearchRadius(radius);
+					alg.setBorder(border);
+					alg.setThresholdMin(-2);
+					alg.setThresholdMax(2);
+
+					QueueCorner expectedMin = new QueueCorner();
+					QueueCorner expectedMax = new QueueCorner();
+					alg.process(intensity,expectedMin,expectedMax);
+
+					NonMaxBlock_MT algMT = new NonMaxBlock_MT(factory);
+					algMT.setSearchRadius(radius);
+					algMT.setBorder(border);
+					algMT.setThresholdMin(-2);
+					algMT.setThresholdMax(2);
+					QueueCorner foundMin = new QueueCorner();
+					QueueCorner foundMax = new QueueCorner();
+					// process it twice to make sure the workers are reset
+					algMT.process(intensity,foundMin,foundMax);
+					foundMin.reset();
+					foundMax.reset();
+					algMT.process(intensity,foundMin,foundMax);
+
+					assertTrue(expectedMin.size+expectedMax.size > 0);
+					checkIdentical(expectedMin,foundMin);
+					checkIdentical(expectedMax,foundMax);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Only the specified rows of blocks should be searched
+	 */
+	@Test
+	public void process_rows() {
+		ImageFloat32 intensity = new ImageFloat32(60,100);
+		ImageMiscOps.fillUniform(intensity,rand,-10,10);
+
+		NonMaxBlock_MT alg = new NonMaxBlock_MT(factory(true,false,true));
+		alg.setSearchRadius(1);
+		alg.setThresholdMax(2);
+
+		NonMaxBlockStrict.Max serial = new NonMaxBlockStrict.Max();
+		serial.setSearchRadius(1);
+		serial.setThresholdMax(2);
+
+		QueueCorner expected = new QueueCorner();
+		QueueCorner found = new QueueCorner();
+		serial.process(intensity,null,expected);
+
+		alg.process(intensity,null,found,10,45);
+
+		int count = 0;
+		for( int i = 0; i < expected.size; i++ ) {
+			int y = expected.get(i).y;
+			if( y >= 20 && y < 90 ) {
+				assertEquals(expected.get(i).x,found.get(count).x);
+				assertEquals(y,found.get(count).y);
+				count++;
+			}
+		}
+		assertEquals(count,found.size);
+	}
+
+	/**
+	 * The settings of the first instance should be used by the concurrent algorithm
+	 */
+	@Test
+	public void copySettings() {
+		NonMaxBlock_MT alg = new NonMaxBlock_MT(new NonMaxBlock_MT.Factory() {
+			@Override
+			public NonMaxBlock create() {
+				NonMaxBlock ret = new NonMaxBlockStrict.Max();
+				ret.setSearchRadius(3);
+				ret.setBorder(2);
+				ret.setThresholdMax(5);
+				return ret;
+			}
+		});
+
+		assertEquals(3,alg.getSearchRadius());
+		assertEquals(2,alg.getBorder());
+		assertEquals(5,alg.getThresholdMax(),1e-8);
+		assertTrue(!alg.detectsMinimum);
+		assertTrue(alg.detectsMaximum);
+	}
+
+	public static NonMaxBlock_MT.Factory factory( final boolean strict , final boolean min , final boolean max ) {
+		return new NonMaxBlock_MT.Factory() {
+			@Override
+			public NonMaxBlock create() {
+				if( strict ) {
+					if( min && max ) return new NonMaxBlockStrict.MinMax();
+					return min ? new NonMaxBlockStrict.Min() : new NonMaxBlockStrict.Max();
+				} else {
+					if( min && max ) return new NonMaxBlockRelaxed.MinMax();
+					return min ? new NonMaxBlockRelaxed.Min() : new NonMaxBlockRelaxed.Max();
+				}
+			}
+		};
+	}
+
+	public static void checkIdentical( QueueCorner expected , QueueCorner found ) {
+		assertEquals(expected.size,found.size);
+		for( int i = 0; i < expected.size; i++ ) {
+			assertEquals(expected.get(i).x,found.get(i).x);
+			assertEquals(expected.get(i).y,found.get(i).y);
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.ImageFloat32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestNonMaxCandidate_MT extends GenericNonMaxCandidateTests {
+
+	int maxThreads;
+
+	public TestNonMaxCandidate_MT() {
+		super(true, true, true);
+	}
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	@Override
+	public void findMaximums(ImageFloat32 intensity, float threshold, int radius, int border,
+							 QueueCorner candidatesMin, QueueCorner candidatesMax,
+							 QueueCorner foundMinimum, QueueCorner foundMaximum)
+	{
+		NonMaxCandidate_MT alg = new NonMaxCandidate_MT(factory(true));
+		alg.setSearchRadius(radius);
+		alg.setBorder(border);
+		alg.setThresholdMin(-threshold);
+		alg.setThresholdMax(threshold);
+
+		alg.process(intensity,candidatesMin,candidatesMax,foundMinimum,foundMaximum);
+	}
+
+	/**
+	 * The found features and their order should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingleThread() {
+		ImageFloat32 intensity = new ImageFloat32(150,213);
+		ImageMiscOps.fillUniform(intensity,rand,-10,10);
+
+		QueueCorner candidatesMin = new QueueCorner();
+		QueueCorner candidatesMax = new QueueCorner();
+		for( int i = 0; i < 3000; i++ ) {
+			candidatesMin.add(rand.nextInt(intensity.width),rand.nextInt(intensity.height));
+			candidatesMax.add(rand.nextInt(intensity.width),rand.nextInt(intensity.height));
+		}
+
+		for( int type = 0; type < 2; type++ ) {
+			NonMaxCandidate_MT.Factory factory = factory(type == 0);
+			NonMaxCandidate alg = factory.create();
+			for( int radius = 1; radius <= 3; radius++ ) {
+				for( int border = 0; border <= 4; border += 4 ) {
+					alg.setSearchRadius(radius);
+					alg.setBorder(border);
+					alg.setThresholdMin(-2);
+					alg.setThresholdMax(2);
+
+					QueueCorner expectedMin = new QueueCorner();
+					QueueCorner expectedMax = new QueueCorner();
+					alg.process(intensity,candidatesMin,candidatesMax,expectedMin,expectedMax);
+
+					NonMaxCandidate_MT algMT = new NonMaxCandidate_MT(factory);
+					algMT.setSearchRadius(radius);
+					algMT.setBorder(border);
+					algMT.setThresholdMin(-2);
+					algMT.setThresholdMax(2);
+					QueueCorner foundMin = new QueueCorner();
+					QueueCorner foundMax = new QueueCorner();
+					algMT.process(intensity,candidatesMin,candidatesMax,foundMin,foundMax);
+					foundMin.reset();
+					foundMax.reset();
+					algMT.process(intensity,candidatesMin,candidatesMax,foundMin,foundMax);
+
+					assertTrue(expectedMin.size > 0 && expectedMax.size > 0);
+					TestNonMaxBlock_MT.checkIdentical(expectedMin,foundMin);
+					TestNonMaxBlock_MT.checkIdentical(expectedMax,foundMax);
+				}
+			}
+		}
+	}
+
+	public static NonMaxCandidate_MT.Factory factory( final boolean strict ) {
+		return new NonMaxCandidate_MT.Factory() {
+			@Override
+			public NonMaxCandidate create() {
+				if( strict )
+					return new NonMaxCandidateStrict();
+				else
+					return new NonMaxCandidateRelaxed();
+			}
+		};
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.intensity;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFastCornerIntensity {
+
+	/**
+	 * Compare the look up table against a brute force check of every possible set of compass points
+	 */
+	@Test
+	public void createPreTestTable() {
+		for( int minContinuous = 9; minContinuous <= 12; minContinuous++ ) {
+			int table[] = FastCornerIntensity.createPreTestTable(minContinuous);
+			assertEquals(256,table.length);
+
+			for( int lower = 0; lower < 16; lower++ ) {
+				for( int upper = 0; upper < 16; upper++ ) {
+					int expected = (possible(lower,minContinuous) ? 1 : 0) | (possible(upper,minContinuous) ? 2 : 0);
+					assertEquals(expected,table[lower | upper << 4]);
+				}
+			}
+		}
+
+		// everything should pass
+		int table[] = FastCornerIntensity.createPreTestTable(0);
+		for( int i = 0; i < table.length; i++ )
+			assertEquals(3,table[i]);
+	}
+
+	/**
+	 * See if an arc of minContinuous pixels in a 16 pixel circle could contain the compass points in the mask
+	 */
+	private boolean possible( int mask , int minContinuous ) {
+		for( int start = 0; start < 16; start++ ) {
+			boolean matches = true;
+			for( int i = 0; i < minContinuous; i++ ) {
+				int pixel = (start+i)%16;
+				if( pixel % 4 == 0 && (mask & (1 << (pixel/4))) == 0 ) {
+					matches = false;
+					break;
+				}
+			}
+			if( matches )
+				return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.intensity.impl.*;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFastCornerIntensity_MT {
+
+	Random rand = new Random(234);
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	/**
+	 * Results should be identical to the single threaded version, including the order of the corners
+	 */
+	@Test
+	public void compareToSingle_U8() {
+		ImageUInt8 input = new ImageUInt8(60,117);
+		ImageMiscOps.fillUniform(input, rand, 0, 50);
+
+		compareToSingle(new ImplFastIntensity9<ImageUInt8>(new ImplFastHelper_U8(20)),input);
+		compareToSingle(new ImplFastIntensity10<ImageUInt8>(new ImplFastHelper_U8(20)),input);
+		compareToSingle(new ImplFastIntensity11<ImageUInt8>(new ImplFastHelper_U8(20)),input);
+		compareToSingle(new ImplFastIntensity12<ImageUInt8>(new ImplFastHelper_U8(20)),input);
+	}
+
+	@Test
+	public void compareToSingle_F32() {
+		ImageFloat32 input = new ImageFloat32(60,117);
+		ImageMiscOps.fillUniform(input, rand, 0, 50);
+
+		compareToSingle(new ImplFastIntensity9<ImageFloat32>(new ImplFastHelper_F32(20)),input);
+		compareToSingle(new ImplFastIntensity12<ImageFloat32>(new ImplFastHelper_F32(20)),input);
+	}
+
+	/**
+	 * Sub-images and images too small to be split up
+	 */
+	@Test
+	public void subImageAndSmall() {
+		ImageUInt8 input = new ImageUInt8(60,117);
+		ImageMiscOps.fillUniform(input, rand, 0, 50);
+		ImageUInt8 sub = BoofTesting.createSubImageOf(input);
+
+		compareToSingle(new ImplFastIntensity9<ImageUInt8>(new ImplFastHelper_U8(20)),sub);
+
+		ImageUInt8 small = new ImageUInt8(30,8);
+		ImageMiscOps.fillUniform(small, rand, 0, 50);
+		compareToSingle(new ImplFastIntensity9<ImageUInt8>(new ImplFastHelper_U8(20)),small);
+	}
+
+	private <T extends ImageSingleBand>
+	void compareToSingle( FastCornerIntensity<T> single , T input ) {
+		FastCornerIntensity_MT<T> alg = new FastCornerIntensity_MT<T>(single.newInstance());
+
+		ImageFloat32 expected = new ImageFloat32(input.width,input.height);
+		ImageFloat32 found = new ImageFloat32(input.width,input.height);
+
+		// process it twice to make sure it's reset correctly
+		for( int trial = 0; trial < 2; trial++ ) {
+			single.process(input,expected);
+			alg.process(input,found);
+
+			BoofTesting.assertEquals(expected,found,1e-8);
+
+			QueueCorner a = single.getCandidates();
+			QueueCorner b = alg.getCandidates();
+
+			assertEquals(a.size,b.size);
+			for( int i = 0; i < a.size; i++ ) {
+				assertEquals(a.get(i).x,b.get(i).x);
+				assertEquals(a.get(i).y,b.get(i).y);
+			}
+		}
+	}
+}
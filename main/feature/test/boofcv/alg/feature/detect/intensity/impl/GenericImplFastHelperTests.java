@@ -18,6 +18,7 @@
 
 package boofcv.alg.feature.detect.intensity.impl;
 
+import boofcv.alg.feature.detect.intensity.FastCornerIntensity;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.misc.DiscretizedCircle;
@@ -127,6 +128,59 @@ public abstract class GenericImplFastHelperTests<T extends ImageSingleBand> {
 		assertFalse(alg.checkPixelUpper(image.getIndex(10,14)));
 	}
 
+	@Test
+	public void preTestRow() {
+		GImageMiscOps.fill(image, 30);
+		alg.setImage(image,offsets);
+
+		int table[] = FastCornerIntensity.createPreTestTable(9);
+		int candidates[] = new int[5];
+		int index0 = image.getIndex(8,11);
+
+		// everything is the same value so nothing should pass
+		assertEquals(0,alg.preTestRow(index0,5,table,candidates));
+
+		// two adjacent compass points darker at (10,11) and three brighter at (11,11)
+		setCompass(10,11,new int[]{0,4},30-threshold-1);
+		setCompass(11,11,new int[]{4,8,12},30+threshold+1);
+
+		int total = alg.preTestRow(index0,5,table,candidates);
+		assertTrue(total >= 2);
+		boolean foundLower = false, foundUpper = false;
+		for( int i = 0; i < total; i++ ) {
+			int offset = candidates[i] >> 2;
+			if( offset == 2 && (candidates[i] & 1) != 0 )
+				foundLower = true;
+			if( offset == 3 && (candidates[i] & 2) != 0 )
+				foundUpper = true;
+		}
+		assertTrue(foundLower);
+		assertTrue(foundUpper);
+
+		// a table which lets everything through
+		table = FastCornerIntensity.createPreTestTable(0);
+		assertEquals(5,alg.preTestRow(index0,5,table,candidates));
+		for( int i = 0; i < 5; i++ ) {
+			assertEquals(i,candidates[i] >> 2);
+			assertEquals(3,candidates[i] & 3);
+		}
+	}
+
+	@Test
+	public void newInstance() {
+		FastHelper<T> found = alg.newInstance();
+		assertTrue(found != alg);
+		assertTrue(found.getClass() == alg.getClass());
+	}
+
+	private void setCompass( int x , int y , int which[] , int value ) {
+		int index = image.getIndex(x,y);
+		for( int i : which ) {
+			int o = index + offsets[i] - image.startIndex;
+			GeneralizedImageOps.set(image,o % image.stride,o / image.stride,value);
+		}
+	}
+
 	private void setCircle( int x , int y , int value ) {
 		for( int i = 0; i < offsets.length; i++ ) {
 			int offY = offsets[i] / image.stride;
@@ -51,7 +51,30 @@ public abstract class GenericImplFastIntensity {
 
 	@Test
 	public void compareToNaiveDetection() {
+		alg.setUsePreTest(true);
+		compareToNaive();
+	}
+
+	/**
+	 * The quick rejection test should not change which corners are found
+	 */
+	@Test
+	public void compareToNaiveDetection_noPreTest() {
+		alg.setUsePreTest(false);
+		compareToNaive();
+		alg.setUsePreTest(true);
+	}
+
+	@Test
+	public void newInstance() {
+		FastCornerIntensity<ImageUInt8> found = alg.newInstance();
+
+		assertTrue(found != alg);
+		assertEquals(alg.getClass(),found.getClass());
+		assertEquals(alg.getMinContinuous(),found.getMinContinuous());
+	}
 
+	private void compareToNaive() {
 		ImageUInt8 input = new ImageUInt8(40,50);
 		GImageMiscOps.fillUniform(input, rand, 0, 50);
 		ImageFloat32 intensity = new ImageFloat32(input.width,input.height);
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.interest.ConfigFastHessian;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.ImageFloat32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFastHessianFeatureDetector_MT {
+
+	Random rand = new Random(234);
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	/**
+	 * The same features should be found in the same order as the single threaded version
+	 */
+	@Test
+	public void compareToSingle() {
+		ImageFloat32 input = new ImageFloat32(200,170);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+		ImageFloat32 integral = IntegralImageOps.transform(input, null);
+
+		for( int maxPerScale : new int[]{-1,20}) {
+			ConfigFastHessian config = new ConfigFastHessian(1, 2, maxPerScale, 1, 9, 4, 4);
+
+			FastHessianFeatureDetector<ImageFloat32> single = FactoryInterestPointAlgs.fastHessian(config, false);
+			FastHessianFeatureDetector<ImageFloat32> multi = FactoryInterestPointAlgs.fastHessian(config, true);
+			assertTrue(multi instanceof FastHessianFeatureDetector_MT);
+
+			single.detect(integral);
+			// process twice to make sure internal storage is reset correctly
+			multi.detect(integral);
+			multi.detect(integral);
+
+			checkIdentical(single, multi);
+		}
+	}
+
+	/**
+	 * The number of octaves which can be processed changes with the image size
+	 */
+	@Test
+	public void changeImageSize() {
+		ConfigFastHessian config = new ConfigFastHessian(1, 2, -1, 1, 9, 4, 4);
+
+		FastHessianFeatureDetector<ImageFloat32> single = FactoryInterestPointAlgs.fastHessian(config, false);
+		FastHessianFeatureDetector<ImageFloat32> multi = FactoryInterestPointAlgs.fastHessian(config, true);
+
+		for( int size : new int[]{200,60,200} ) {
+			ImageFloat32 input = new ImageFloat32(size,size-30);
+			ImageMiscOps.fillUniform(input, rand, 0, 255);
+			ImageFloat32 integral = IntegralImageOps.transform(input, null);
+
+			single.detect(integral);
+			multi.detect(integral);
+
+			checkIdentical(single, multi);
+		}
+	}
+
+	private void checkIdentical( FastHessianFeatureDetector<ImageFloat32> single ,
+								 FastHessianFeatureDetector<ImageFloat32> multi ) {
+		List<ScalePoint> expected = single.getFoundPoints();
+		List<ScalePoint> found = multi.getFoundPoints();
+
+		assertTrue(expected.size() > 0);
+		assertEquals(expected.size(), found.size());
+
+		for( int i = 0; i < expected.size(); i++ ) {
+			ScalePoint e = expected.get(i);
+			ScalePoint f = found.get(i);
+
+			assertEquals(e.x, f.x, 0);
+			assertEquals(e.y, f.y, 0);
+			assertEquals(e.scale, f.scale, 0);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSiftImageScaleSpace_MT {
+
+	Random rand = new Random(234);
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	/**
+	 * Every image in the scale-space should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingle() {
+		compareToSingle(false);
+		compareToSingle(true);
+	}
+
+	private void compareToSingle( boolean doubleInput ) {
+		ImageFloat32 input = new ImageFloat32(150,123);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		SiftImageScaleSpace single = new SiftImageScaleSpace(1.6f, 5, 4, doubleInput);
+		SiftImageScaleSpace_MT multi = new SiftImageScaleSpace_MT(1.6f, 5, 4, doubleInput);
+
+		process(single, input);
+		process(multi, input);
+
+		assertEquals(single.actualOctaves, multi.actualOctaves);
+
+		int numScales = single.actualOctaves*single.numScales;
+		for( int i = 0; i < numScales; i++ ) {
+			BoofTesting.assertEquals(single.scale[i], multi.scale[i], 0);
+			BoofTesting.assertEquals(single.derivX[i], multi.derivX[i], 0);
+			BoofTesting.assertEquals(single.derivY[i], multi.derivY[i], 0);
+		}
+		int numDog = single.actualOctaves*(single.numScales-1);
+		for( int i = 0; i < numDog; i++ ) {
+			BoofTesting.assertEquals(single.dog[i], multi.dog[i], 0);
+		}
+	}
+
+	private void process( SiftImageScaleSpace ss , ImageFloat32 input ) {
+		ss.constructPyramid(input);
+		ss.computeFeatureIntensity();
+		ss.computeDerivatives();
+	}
+}
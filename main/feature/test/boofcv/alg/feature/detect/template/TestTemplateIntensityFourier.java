@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.detect.template;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTemplateIntensityFourier {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void instanceNCC() {
+		new GeneralTemplateMatchTests<ImageFloat32>(
+				new TemplateIntensityFourier.NCC<ImageFloat32>(), ImageFloat32.class) {
+		}.allTests();
+		new GeneralTemplateMatchTests<ImageUInt8>(
+				new TemplateIntensityFourier.NCC<ImageUInt8>(), ImageUInt8.class) {
+		}.allTests();
+	}
+
+	@Test
+	public void instanceDiffSquared() {
+		new GeneralTemplateMatchTests<ImageFloat32>(
+				new TemplateIntensityFourier.DiffSquared<ImageFloat32>(), ImageFloat32.class) {
+		}.allTests();
+		new GeneralTemplateMatchTests<ImageUInt8>(
+				new TemplateIntensityFourier.DiffSquared<ImageUInt8>(), ImageUInt8.class) {
+		}.allTests();
+	}
+
+	/**
+	 * Compare the intensity against the brute force implementations
+	 */
+	@Test
+	public void compareToBruteForce() {
+		compare(new TemplateNCC.F32(), new TemplateIntensityFourier.NCC<ImageFloat32>(), ImageFloat32.class);
+		compare(new TemplateNCC.U8(), new TemplateIntensityFourier.NCC<ImageUInt8>(), ImageUInt8.class);
+		compare(new TemplateDiffSquared.F32(), new TemplateIntensityFourier.DiffSquared<ImageFloat32>(),
+				ImageFloat32.class);
+		compare(new TemplateDiffSquared.U8(), new TemplateIntensityFourier.DiffSquared<ImageUInt8>(),
+				ImageUInt8.class);
+	}
+
+	private <T extends ImageSingleBand>
+	void compare( TemplateMatchingIntensity<T> expected , TemplateMatchingIntensity<T> found , Class<T> imageType ) {
+		// process images of different sizes to make sure the internal storage is resized correctly
+		for( int trial = 0; trial < 2; trial++ ) {
+			T image = GeneralizedImageOps.createSingleBand(imageType, 47 - trial*6, 35 + trial*4);
+			T template = GeneralizedImageOps.createSingleBand(imageType, 7 + trial, 9 - trial);
+
+			GImageMiscOps.fillUniform(image, rand, 0, 200);
+			GImageMiscOps.fillUniform(template, rand, 0, 200);
+
+			expected.process(image, template);
+			found.process(image, template);
+
+			assertEquals(expected.getOffsetX(), found.getOffsetX());
+			assertEquals(expected.getOffsetY(), found.getOffsetY());
+
+			ImageFloat32 a = expected.getIntensity();
+			ImageFloat32 b = found.getIntensity();
+
+			int w = image.width - template.width;
+			int h = image.height - template.height;
+
+			for (int y = 0; y < h; y++) {
+				for (int x = 0; x < w; x++) {
+					int px = x + expected.getOffsetX();
+					int py = y + expected.getOffsetY();
+					float va = a.get(px, py);
+					assertEquals(va, b.get(px, py), Math.max(1e-3, Math.abs(va)*1e-4));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity;
+
+import boofcv.abst.feature.disparity.StereoDisparity;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.feature.disparity.DisparityAlgorithms;
+import boofcv.factory.feature.disparity.FactoryStereoDisparity;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSInt16;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDisparityScoreRowFormat_MT {
+
+	Random rand = new Random(234);
+
+	int width = 60;
+	int height = 83;
+
+	/**
+	 * The output should be identical to the single threaded algorithm no matter how the rows are split up
+	 */
+	@Test
+	public void compareToSingleThread() {
+		int before = BoofConcurrency.getMaxThreads();
+		try {
+			for( int numThreads : new int[]{1,2,3,7} ) {
+				BoofConcurrency.setMaxThreads(numThreads);
+
+				compareToSingleThread(DisparityAlgorithms.RECT, ImageUInt8.class, false);
+				compareToSingleThread(DisparityAlgorithms.RECT_FIVE, ImageUInt8.class, false);
+				compareToSingleThread(DisparityAlgorithms.RECT, ImageSInt16.class, true);
+				compareToSingleThread(DisparityAlgorithms.RECT_FIVE, ImageFloat32.class, true);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	private <T extends ImageSingleBand>
+	void compareToSingleThread( DisparityAlgorithms which , Class<T> imageType , boolean subpixel ) {
+		// integer values ensure the floating point sums are exact and don't depend on where a block starts
+		T left = GeneralizedImageOps.createSingleBand(imageType, width, height);
+		T right = GeneralizedImageOps.createSingleBand(imageType, width, height);
+		GImageMiscOps.fillUniform(left, rand, 0, 30);
+		if( imageType == ImageFloat32.class )
+			roundPixels((ImageFloat32)left);
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				double v = x >= 5 ? GeneralizedImageOps.get(left, x - 5, y) : 0;
+				GeneralizedImageOps.set(right, x, y, v + rand.nextInt(3));
+			}
+		}
+
+		StereoDisparity<T,?> serial = create(which, imageType, subpixel, false);
+		StereoDisparity<T,?> concurrent = create(which, imageType, subpixel, true);
+
+		serial.process(left, right);
+		concurrent.process(left, right);
+
+		assertEquals(serial.getBorderX(), concurrent.getBorderX());
+		assertEquals(serial.getBorderY(), concurrent.getBorderY());
+		BoofTesting.assertEquals(serial.getDisparity(), concurrent.getDisparity(), 1e-8);
+
+		// process a second time to make sure workers are correctly reused
+		concurrent.process(left, right);
+		BoofTesting.assertEquals(serial.getDisparity(), concurrent.getDisparity(), 1e-8);
+	}
+
+	/**
+	 * With fractional pixel values the floating point scores differ by round off, which should only rarely
+	 * change the selected disparity
+	 */
+	@Test
+	public void compareToSingleThread_F32_roundOff() {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			height = 200;
+			ImageFloat32 left = new ImageFloat32(width,height);
+			ImageFloat32 right = new ImageFloat32(width,height);
+			GImageMiscOps.fillUniform(left, rand, 0, 30);
+			for( int y = 0; y < height; y++ ) {
+				for( int x = 0; x < width; x++ ) {
+					float v = x >= 5 ? left.get(x - 5, y) : 0;
+					right.set(x, y, v + rand.nextFloat()*3);
+				}
+			}
+
+			StereoDisparity<ImageFloat32,?> serial = create(DisparityAlgorithms.RECT, ImageFloat32.class, false, false);
+			StereoDisparity<ImageFloat32,?> concurrent = create(DisparityAlgorithms.RECT, ImageFloat32.class, false, true);
+
+			serial.process(left, right);
+			concurrent.process(left, right);
+
+			ImageSingleBand expected = serial.getDisparity();
+			ImageSingleBand found = concurrent.getDisparity();
+			int numDifferent = 0;
+			for( int y = 0; y < height; y++ ) {
+				for( int x = 0; x < width; x++ ) {
+					if( GeneralizedImageOps.get(expected, x, y) != GeneralizedImageOps.get(found, x, y) )
+						numDifferent++;
+				}
+			}
+			assertTrue(numDifferent <= width*height/100);
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	private <T extends ImageSingleBand> StereoDisparity<T,?>
+	create( DisparityAlgorithms which , Class<T> imageType , boolean subpixel , boolean concurrent ) {
+		if( subpixel )
+			return FactoryStereoDisparity.regionSubpixelWta(which, 2, 12, 2, 3, 20, 1, 0.1, imageType, concurrent);
+		else
+			return FactoryStereoDisparity.regionWta(which, 2, 12, 2, 3, 20, 1, 0.1, imageType, concurrent);
+	}
+
+	private void roundPixels( ImageFloat32 image ) {
+		for( int i = 0; i < image.data.length; i++ ) {
+			image.data[i] = (float)Math.floor(image.data[i]);
+		}
+	}
+
+	/**
+	 * Images which are too small to be split up should be processed by a single algorithm
+	 */
+	@Test
+	public void smallImage() {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			height = 12;
+			compareToSingleThread(DisparityAlgorithms.RECT, ImageUInt8.class, false);
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+}
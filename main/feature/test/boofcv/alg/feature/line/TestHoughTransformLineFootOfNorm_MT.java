@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.line;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.feature.detect.line.HoughTransformLineFootOfNorm;
+import boofcv.alg.feature.detect.line.HoughTransformLineFootOfNorm_MT;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSInt16;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.line.LineParametric2D_F32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHoughTransformLineFootOfNorm_MT {
+
+	Random rand = new Random(234);
+
+	int width = 120;
+	int height = 150;
+
+	int previousThreads;
+
+	@Before
+	public void before() {
+		previousThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(previousThreads);
+	}
+
+	/**
+	 * The transform and found lines should be identical to the single threaded version, including their order
+	 */
+	@Test
+	public void compareToSingleThread() {
+		compareToSingleThread(ImageFloat32.class);
+		compareToSingleThread(ImageSInt16.class);
+	}
+
+	private <D extends ImageSingleBand> void compareToSingleThread( Class<D> derivType ) {
+		ImageUInt8 binary = new ImageUInt8(width,height);
+		D derivX = GeneralizedImageOps.createSingleBand(derivType, width, height);
+		D derivY = GeneralizedImageOps.createSingleBand(derivType, width, height);
+
+		ImageMiscOps.fillUniform(binary,rand,0,2);
+		GImageMiscOps.fillUniform(derivX,rand,-20,20);
+		GImageMiscOps.fillUniform(derivY,rand,-20,20);
+		for( int i = 0; i < height; i++ ) {
+			binary.set(20, i, 1);
+			GeneralizedImageOps.set(derivX,20,i,20);
+			GeneralizedImageOps.set(derivY,20,i,0);
+		}
+
+		HoughTransformLineFootOfNorm expected = create(false);
+		HoughTransformLineFootOfNorm found = create(true);
+
+		// call it twice to make sure the internal state is reset
+		for( int trial = 0; trial < 2; trial++ ) {
+			expected.transform(derivX,derivY,binary);
+			found.transform(derivX,derivY,binary);
+
+			BoofTesting.assertEquals(expected.getTransform(),found.getTransform(),0);
+
+			FastQueue<LineParametric2D_F32> linesE = expected.extractLines();
+			FastQueue<LineParametric2D_F32> linesF = found.extractLines();
+
+			assertTrue(linesE.size > 0);
+			assertEquals(linesE.size,linesF.size);
+			for( int i = 0; i < linesE.size; i++ ) {
+				LineParametric2D_F32 e = linesE.get(i);
+				LineParametric2D_F32 f = linesF.get(i);
+				assertEquals(e.p.x,f.p.x,0);
+				assertEquals(e.p.y,f.p.y,0);
+				assertEquals(e.slope.x,f.slope.x,0);
+				assertEquals(e.slope.y,f.slope.y,0);
+			}
+		}
+	}
+
+	private HoughTransformLineFootOfNorm create( boolean concurrent ) {
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmaxCandidate(new ConfigExtract(2, 3, 0, false));
+		if( concurrent )
+			return new HoughTransformLineFootOfNorm_MT(extractor,2);
+		else
+			return new HoughTransformLineFootOfNorm(extractor,2);
+	}
+}
@@ -21,7 +21,9 @@ package boofcv.alg.feature.line;
 import boofcv.abst.feature.detect.extract.ConfigExtract;
 import boofcv.abst.feature.detect.extract.NonMaxSuppression;
 import boofcv.alg.feature.detect.line.HoughTransformLinePolar;
+import boofcv.alg.misc.ImageStatistics;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageUInt8;
 import georegression.struct.line.LineParametric2D_F32;
 import org.ddogleg.struct.FastQueue;
@@ -66,4 +68,44 @@ public class TestHoughTransformLinePolar {
 			assertEquals(Math.abs(l.slope.y),1,0.1);
 		}
 	}
+
+	/**
+	 * When restricted by the gradient's direction there should be fewer votes but the line should still
+	 * be found and get the same number of votes
+	 */
+	@Test
+	public void angleTolerance() {
+		ImageUInt8 image = new ImageUInt8(width,height);
+		ImageFloat32 derivX = new ImageFloat32(width,height);
+		ImageFloat32 derivY = new ImageFloat32(width,height);
+
+		for( int i = 0; i < height; i++ ) {
+			image.set(5,i,1);
+			derivX.set(5,i,20);
+		}
+
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(new ConfigExtract(4,5,0, true));
+		HoughTransformLinePolar all = new HoughTransformLinePolar(extractor,40,180);
+		HoughTransformLinePolar restricted = new HoughTransformLinePolar(extractor,40,180);
+		restricted.setAngleTolerance(Math.PI/18);
+
+		all.transform(image,derivX,derivY);
+		restricted.transform(image,derivX,derivY);
+
+		ImageFloat32 a = all.getTransform();
+		ImageFloat32 r = restricted.getTransform();
+		assertTrue(ImageStatistics.sum(r) < ImageStatistics.sum(a)/5 );
+		assertEquals(ImageStatistics.max(a),ImageStatistics.max(r),1e-8);
+
+		FastQueue<LineParametric2D_F32> lines =  restricted.extractLines();
+
+		assertTrue(lines.size() > 0);
+
+		for( int i = 0; i < lines.size(); i++ ) {
+			LineParametric2D_F32 l = lines.get(i);
+			assertEquals(l.p.x,5,0.1);
+			assertEquals(Math.abs(l.slope.x),0,1e-4);
+			assertEquals(Math.abs(l.slope.y),1,0.1);
+		}
+	}
 }
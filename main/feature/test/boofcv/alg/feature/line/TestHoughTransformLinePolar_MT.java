@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.line;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.feature.detect.line.HoughTransformLinePolar;
+import boofcv.alg.feature.detect.line.HoughTransformLinePolar_MT;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.line.LineParametric2D_F32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHoughTransformLinePolar_MT {
+
+	Random rand = new Random(234);
+
+	int width = 120;
+	int height = 150;
+
+	int previousThreads;
+
+	@Before
+	public void before() {
+		previousThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(previousThreads);
+	}
+
+	/**
+	 * Compare the transform and found lines against the single threaded version
+	 */
+	@Test
+	public void compareToSingleThread() {
+		ImageUInt8 binary = new ImageUInt8(width,height);
+		ImageFloat32 derivX = new ImageFloat32(width,height);
+		ImageFloat32 derivY = new ImageFloat32(width,height);
+
+		ImageMiscOps.fillUniform(binary,rand,0,2);
+		ImageMiscOps.fillUniform(derivX,rand,-20,20);
+		ImageMiscOps.fillUniform(derivY,rand,-20,20);
+		// add a few lines so that there is something to find
+		for( int i = 0; i < height; i++ ) {
+			binary.set(20,i,1);
+			binary.set(i*width/height,i,1);
+		}
+
+		for( double tol : new double[]{0,Math.PI/18} ) {
+			HoughTransformLinePolar expected = create(false);
+			HoughTransformLinePolar found = create(true);
+			expected.setAngleTolerance(tol);
+			found.setAngleTolerance(tol);
+
+			// call it twice to make sure the accumulators are reset
+			for( int trial = 0; trial < 2; trial++ ) {
+				expected.transform(binary,derivX,derivY);
+				found.transform(binary,derivX,derivY);
+
+				BoofTesting.assertEquals(expected.getTransform(),found.getTransform(),0);
+
+				FastQueue<LineParametric2D_F32> linesE = expected.extractLines();
+				FastQueue<LineParametric2D_F32> linesF = found.extractLines();
+
+				assertTrue(linesE.size > 0);
+				assertEquals(linesE.size,linesF.size);
+				for( int i = 0; i < linesE.size; i++ ) {
+					LineParametric2D_F32 e = linesE.get(i);
+					LineParametric2D_F32 f = linesF.get(i);
+					assertEquals(e.p.x,f.p.x,0);
+					assertEquals(e.p.y,f.p.y,0);
+					assertEquals(e.slope.x,f.slope.x,0);
+					assertEquals(e.slope.y,f.slope.y,0);
+				}
+			}
+		}
+	}
+
+	private HoughTransformLinePolar create( boolean concurrent ) {
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(new ConfigExtract(2,40,0, true));
+		if( concurrent )
+			return new HoughTransformLinePolar_MT(extractor,100,180);
+		else
+			return new HoughTransformLinePolar(extractor,100,180);
+	}
+}
@@ -242,23 +242,19 @@ public class PointTrackerKltPyramid<I extends ImageSingleBand,D extends ImageSin
 
 		// track features
 		tracker.setImage(basePyramid,derivX,derivY);
+		trackFeatures();
+	}
+
+	/**
+	 * Tracks all the active features.  Features which could not be tracked are dropped.
+	 */
+	protected void trackFeatures() {
 		for( int i = 0; i < active.size(); ) {
 			PyramidKltFeature t = active.get(i);
-			KltTrackFault ret = tracker.track(t);
-
-			boolean success = false;
-
-			if( ret == KltTrackFault.SUCCESS ) {
-				// discard a track if its center drifts outside the image.
-				if( image.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
-					PointTrack p = t.getCookie();
-					p.set(t.x,t.y);
-					i++;
-					success = true;
-				}
-			}
 
-			if( !success ) {
+			if( trackFeature(tracker,t) ) {
+				i++;
+			} else {
 				active.remove(i);
 				dropped.add( t );
 				unused.add( t );
@@ -266,6 +262,27 @@ public class PointTrackerKltPyramid<I extends ImageSingleBand,D extends ImageSin
 		}
 	}
 
+	/**
+	 * Tracks a single feature and updates its description.
+	 *
+	 * @param tracker Tracker which has been set to the current image
+	 * @param t The feature being tracked
+	 * @return true if it was successfully tracked or false if it should be dropped
+	 */
+	protected boolean trackFeature( PyramidKltTracker<I,D> tracker , PyramidKltFeature t ) {
+		KltTrackFault ret = tracker.track(t);
+
+		if( ret == KltTrackFault.SUCCESS ) {
+			// discard a track if its center drifts outside the image.
+			if( input.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
+				PointTrack p = t.getCookie();
+				p.set(t.x,t.y);
+				return true;
+			}
+		}
+		return false;
+	}
+
 	protected void declareOutput() {
 		if( derivX == null ) {
 			// declare storage for image derivative since the image size is now known
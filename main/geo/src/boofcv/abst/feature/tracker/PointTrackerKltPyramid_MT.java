@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.interpolate.InterpolateRectangle;
+import boofcv.alg.tracker.klt.KltConfig;
+import boofcv.alg.tracker.klt.KltTracker;
+import boofcv.alg.tracker.klt.PyramidKltFeature;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.pyramid.PyramidDiscrete;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent version of {@link PointTrackerKltPyramid}.  The list of active tracks is split into blocks and each
+ * block is tracked by its own {@link PyramidKltTracker}, which shares the image pyramid and its gradient with
+ * the others.  Tracks are dropped after all the blocks have finished, so the order of active and dropped tracks is
+ * the same as the single threaded version.  To also compute the pyramid and its gradient concurrently pass in
+ * concurrent implementations, see {@link boofcv.factory.feature.tracker.FactoryPointTracker}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PointTrackerKltPyramid_MT<I extends ImageSingleBand,D extends ImageSingleBand>
+		extends PointTrackerKltPyramid<I,D>
+{
+	// minimum number of tracks in a block
+	private static final int MIN_BLOCK = 50;
+
+	// used to create the tracker for each block
+	private InterpolateRectangle<I> interpInput;
+	private InterpolateRectangle<D> interpDeriv;
+
+	// trackers for each block after the first.  The first block uses the single threaded tracker
+	private List<PyramidKltTracker<I,D>> workers = new ArrayList<PyramidKltTracker<I,D>>();
+
+	// if each active track was successfully tracked
+	private boolean[] success = new boolean[0];
+
+	/**
+	 * See {@link PointTrackerKltPyramid#PointTrackerKltPyramid}
+	 */
+	public PointTrackerKltPyramid_MT(KltConfig config,
+									 int templateRadius ,
+									 PyramidDiscrete<I> pyramid,
+									 GeneralFeatureDetector<I, D> detector,
+									 ImageGradient<I, D> gradient,
+									 InterpolateRectangle<I> interpInput,
+									 InterpolateRectangle<D> interpDeriv,
+									 Class<D> derivType ) {
+		super(config, templateRadius, pyramid, detector, gradient, interpInput, interpDeriv, derivType);
+
+		this.interpInput = interpInput;
+		this.interpDeriv = interpDeriv;
+	}
+
+	@Override
+	protected void trackFeatures() {
+		final int N = active.size();
+		final int numBlocks = BoofConcurrency.computeNumBlocks(N, MIN_BLOCK);
+
+		if( success.length < N )
+			success = new boolean[N];
+
+		while( workers.size() < numBlocks-1 ) {
+			KltTracker<I, D> klt = new KltTracker<I, D>(interpInput.copy(), interpDeriv.copy(), config);
+			workers.add(new PyramidKltTracker<I, D>(klt));
+		}
+		for( int i = 0; i < numBlocks-1; i++ ) {
+			workers.get(i).setImage(basePyramid, derivX, derivY);
+		}
+
+		final boolean[] success = this.success;
+		BoofConcurrency.loopBlocks(0, numBlocks, 1, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int block = min; block < max; block++ ) {
+					PyramidKltTracker<I,D> worker = block == 0 ? tracker : workers.get(block-1);
+					int i0 = BoofConcurrency.blockStart(0, N, numBlocks, block);
+					int i1 = BoofConcurrency.blockStart(0, N, numBlocks, block + 1);
+
+					for( int i = i0; i < i1; i++ ) {
+						success[i] = trackFeature(worker, active.get(i));
+					}
+				}
+			}
+		});
+
+		// drop tracks which failed while preserving the order of the active list
+		int numActive = 0;
+		for( int i = 0; i < N; i++ ) {
+			PyramidKltFeature t = active.get(i);
+			if( success[i] ) {
+				active.set(numActive++, t);
+			} else {
+				dropped.add( t );
+				unused.add( t );
+			}
+		}
+		while( active.size() > numActive ) {
+			active.remove(active.size() - 1);
+		}
+	}
+}
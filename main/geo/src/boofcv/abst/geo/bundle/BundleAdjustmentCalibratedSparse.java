@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.geo.bundle;
+
+import boofcv.abst.geo.BundleAdjustmentCalibrated;
+import boofcv.alg.geo.bundle.*;
+import georegression.struct.se.Se3_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Performs bundle adjustment using Levenberg-Marquardt and sparse matrices.  The Jacobian is only stored as
+ * the non-zero blocks of each observation, see {@link CalibPoseAndPointRodriguesSparseJacobian}, and the normal
+ * equations are solved by taking the Schur complement on the points, see
+ * {@link CalibPoseAndPointSchurComplement}.  Scales to problems with many more views and points than
+ * {@link BundleAdjustmentCalibratedDense}.
+ * </p>
+ *
+ * <p>
+ * If concurrent, the Jacobian and the normal equations are computed using multiple threads.  The results
+ * are the same either way.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentCalibratedSparse
+		implements BundleAdjustmentCalibrated
+{
+	// converts to and from a parameterized version of the model
+	CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+	// storage for model parameters
+	double param[] = new double[0];
+	double candidate[] = new double[0];
+	double step[] = new double[0];
+
+	// computes residuals and the Jacobian
+	CalibPoseAndPointRodriguesSparseJacobian jacobian;
+	// solves the normal equations
+	CalibPoseAndPointSchurComplement schur;
+
+	// initial value of the damping parameter
+	double initialLambda = 1e-3;
+	// if lambda grows larger than this no further progress can be made
+	double maxLambda = 1e16;
+
+	int maxIterations;
+	double convergenceTol;
+
+	/**
+	 * Configures bundle adjustment
+	 *
+	 * @param convergenceTol Convergence tolerance.  Stops when the gradient or relative change in error
+	 *                       is less than this value.
+	 * @param maxIterations Maximum number of iterations.
+	 * @param concurrent If true multiple threads will be used.
+	 */
+	public BundleAdjustmentCalibratedSparse(double convergenceTol,
+											int maxIterations ,
+											boolean concurrent ) {
+		this.convergenceTol = convergenceTol;
+		this.maxIterations = maxIterations;
+		jacobian = new CalibPoseAndPointRodriguesSparseJacobian(concurrent);
+		schur = new CalibPoseAndPointSchurComplement(concurrent);
+	}
+
+	public BundleAdjustmentCalibratedSparse(double convergenceTol,
+											int maxIterations ) {
+		this(convergenceTol,maxIterations,false);
+	}
+
+	@Override
+	public boolean process(CalibratedPoseAndPoint initialModel,
+						   List<ViewPointObservations> observations)
+	{
+		int numViews = initialModel.getNumViews();
+		int numPoints = initialModel.getNumPoints();
+		int numViewsUnknown = initialModel.getNumUnknownViews();
+
+		codec.configure(numViews,numPoints,numViewsUnknown,initialModel.getKnownArray());
+
+		int N = codec.getParamLength();
+		if( param.length < N ) {
+			param = new double[ N ];
+			candidate = new double[ N ];
+			step = new double[ N ];
+		}
+
+		boolean known[] = initialModel.getKnownArray();
+		Se3_F64 extrinsic[] = new Se3_F64[numViews];
+		for( int i = 0; i < extrinsic.length; i++ ) {
+			if( known[i]) {
+				extrinsic[i] = new Se3_F64();
+				extrinsic[i].set( initialModel.getWorldToCamera(i));
+			}
+		}
+
+		codec.encode(initialModel,param);
+		jacobian.configure(observations,numPoints,extrinsic);
+		schur.configure(jacobian);
+
+		jacobian.process(param);
+		double error = jacobian.computeSumSquared();
+		double gtol = convergenceTol * observations.size();
+		double lambda = initialLambda;
+
+		for( int iteration = 0; iteration < maxIterations; iteration++ ) {
+			schur.computeNormal();
+			if( schur.computeMaxGradient() <= gtol )
+				break;
+
+			// increase the damping until the error decreases
+			boolean improved = false;
+			while( lambda <= maxLambda ) {
+				if( schur.solve(lambda, step) ) {
+					for( int i = 0; i < N; i++ ) {
+						candidate[i] = param[i] + step[i];
+					}
+					jacobian.computeResiduals(candidate);
+					double candidateError = jacobian.computeSumSquared();
+
+					if( candidateError < error ) {
+						double tmp[] = param; param = candidate; candidate = tmp;
+						lambda = Math.max(lambda/10, 1e-12);
+						improved = error - candidateError > convergenceTol*error;
+						error = candidateError;
+						break;
+					}
+				}
+				lambda *= 10;
+			}
+
+			if( !improved )
+				break;
+
+			jacobian.process(param);
+		}
+
+		codec.decode(param, initialModel);
+
+		return true;
+	}
+
+	public boolean isConcurrent() {
+		return jacobian.isConcurrent();
+	}
+}
@@ -19,12 +19,9 @@
 package boofcv.alg.distort;
 
 import boofcv.alg.geo.PerspectiveOps;
-import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.TypeInterpolate;
 import boofcv.core.image.border.BorderType;
-import boofcv.core.image.border.FactoryImageBorder;
-import boofcv.core.image.border.ImageBorder;
 import boofcv.factory.distort.FactoryDistort;
-import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.calib.IntrinsicParameters;
 import boofcv.struct.distort.*;
 import boofcv.struct.image.ImageSingleBand;
@@ -231,15 +228,25 @@ public class LensDistortionOps {
 	public static <T extends ImageSingleBand> ImageDistort<T>
 	removeRadialImage(IntrinsicParameters param, BorderType borderType, Class<T> imageType)
 	{
-		InterpolatePixelS<T> interp = FactoryInterpolation.bilinearPixelS(imageType);
-		ImageBorder<T> border;
-		if( borderType == BorderType.VALUE )
-			border = FactoryImageBorder.value(imageType, 0);
-		else
-			border = FactoryImageBorder.general(imageType,borderType);
+		return removeRadialImage(param, borderType, imageType, false);
+	}
 
+	/**
+	 * Same as {@link #removeRadialImage(IntrinsicParameters, BorderType, Class)} but can optionally
+	 * process the image using multiple threads.
+	 *
+	 * @param param Intrinsic camera parameters
+	 * @param imageType Type of single band image being processed
+	 * @param borderType Specifies how the image border is handled.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @return Image distort that removes radial distortion
+	 */
+	public static <T extends ImageSingleBand> ImageDistort<T>
+	removeRadialImage(IntrinsicParameters param, BorderType borderType, Class<T> imageType, boolean concurrent)
+	{
 		// only compute the transform once
-		ImageDistort<T> ret = FactoryDistort.distortCached(interp, border, imageType);
+		ImageDistort<T> ret = FactoryDistort.distortPacked(TypeInterpolate.BILINEAR, borderType, false,
+				concurrent, imageType);
 
 		PointTransform_F32 transform = transformPixelToRadial_F32(param);
 
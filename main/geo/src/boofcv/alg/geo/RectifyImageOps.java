@@ -22,6 +22,7 @@ import boofcv.alg.distort.*;
 import boofcv.alg.geo.rectify.RectifyCalibrated;
 import boofcv.alg.geo.rectify.RectifyFundamental;
 import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.TypeInterpolate;
 import boofcv.factory.distort.FactoryDistort;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.calib.IntrinsicParameters;
@@ -475,10 +476,26 @@ public class RectifyImageOps {
 	rectifyImage(IntrinsicParameters param,
 				 DenseMatrix64F rectify , Class<T> imageType)
 	{
-		InterpolatePixelS<T> interp = FactoryInterpolation.bilinearPixelS(imageType);
+		return rectifyImage(param, rectify, imageType, false);
+	}
 
+	/**
+	 * Creates an {@link ImageDistort} for rectifying an image given its radial distortion and
+	 * rectification matrix.  Can optionally process the image using multiple threads.
+	 *
+	 * @param param Intrinsic parameters.
+	 * @param rectify Transform for rectifying the image.
+	 * @param imageType Type of single band image the transform is to be applied to.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @return ImageDistort for rectifying the image.
+	 */
+	public static <T extends ImageSingleBand> ImageDistort<T>
+	rectifyImage(IntrinsicParameters param,
+				 DenseMatrix64F rectify , Class<T> imageType , boolean concurrent )
+	{
 		// only compute the transform once
-		ImageDistort<T> ret = FactoryDistort.distortCached(interp,null,imageType);
+		ImageDistort<T> ret = FactoryDistort.distortPacked(TypeInterpolate.BILINEAR, null, false,
+				concurrent, imageType);
 
 		PointTransform_F32 transform = transformRectToPixel_F32(param, rectify);
 
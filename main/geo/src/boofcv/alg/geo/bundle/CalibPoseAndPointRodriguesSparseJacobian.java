@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.alg.geo.RodriguesRotationJacobian;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.so.Rodrigues_F64;
+import org.ejml.data.DenseMatrix64F;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the residuals and the non-zero blocks of the Jacobian for bundle adjustment with known calibration,
+ * see {@link CalibPoseAndPointResiduals} and {@link CalibPoseAndPointRodriguesJacobian}.  Parameters are encoded
+ * by {@link CalibPoseAndPointRodriguesCodec}.  Each observation only depends on the pose of its view and
+ * the location of its point, so the Jacobian is stored as one 2x6 block for the view and one 2x3 block for the
+ * point per observation, instead of as a dense matrix.
+ * </p>
+ *
+ * <p>
+ * Observations are processed independently of each other and, if concurrent, in parallel.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CalibPoseAndPointRodriguesSparseJacobian {
+
+	// minimum number of observations processed by a thread
+	public static final int MIN_BLOCK = 200;
+
+	// if the extrinsic parameters are known, specify them here
+	Se3_F64 extrinsic[];
+
+	// number of camera views
+	int numViews;
+	// number of points in world coordinates
+	int numPoints;
+	// number of views with unknown extrinsic parameters
+	int numViewsUnknown;
+	// number of observations across all views
+	int numObservations;
+	// total number of parameters being optimized
+	int numParameters;
+	// index in parameters of the first point
+	int indexFirstPoint;
+
+	// index of the first observation in each view.  numViews+1 elements
+	int viewFirstObs[] = new int[0];
+	// index of the first parameter in each view.  -1 if the view is known
+	int viewParam[] = new int[0];
+	// view and point of each observation
+	int obsView[] = new int[0];
+	int obsPoint[] = new int[0];
+	// observed location of each observation, interleaved x and y
+	double obsXY[] = new double[0];
+
+	// rotation matrix, translation and partials of the rotation matrix of each view
+	double viewR[] = new double[0];
+	double viewT[] = new double[0];
+	double viewRj[] = new double[0];
+
+	// residuals of each observation, predicted minus observed.  2 per observation
+	double residuals[] = new double[0];
+	// 2x6 block, row major, for the view parameters of each observation.  Not computed for known views
+	double jacView[] = new double[0];
+	// 2x3 block, row major, for the point parameters of each observation
+	double jacPoint[] = new double[0];
+
+	// if true observations are processed using multiple threads
+	boolean concurrent;
+
+	// used to compute the Jacobian from Rodrigues coordinates
+	RodriguesRotationJacobian rodJacobian = new RodriguesRotationJacobian();
+	Rodrigues_F64 rodrigues = new Rodrigues_F64();
+	DenseMatrix64F R = new DenseMatrix64F(3,3);
+
+	// parameters being processed
+	double input[];
+	// if true the Jacobian is computed along with the residuals
+	boolean computeJacobian;
+
+	// processes a range of observations
+	IntRangeTask task = new IntRangeTask() {
+		@Override
+		public void process(int min, int max) {
+			processObservations(min, max);
+		}
+	};
+
+	public CalibPoseAndPointRodriguesSparseJacobian( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
+	public CalibPoseAndPointRodriguesSparseJacobian() {
+		this(false);
+	}
+
+	/**
+	 * Specifies the observations and which views are known.
+	 *
+	 * @param observations Observations in each view
+	 * @param numPoints Number of points
+	 * @param extrinsic Known extrinsic parameters for each view.  Null if unknown.
+	 */
+	public void configure( List<ViewPointObservations> observations , int numPoints , Se3_F64 ...extrinsic) {
+		if( extrinsic.length < observations.size() )
+			throw new RuntimeException("knownExtrinsic length is less than the number of views in 'observations'");
+
+		this.extrinsic = extrinsic;
+		this.numViews = observations.size();
+		this.numPoints = numPoints;
+
+		if( viewFirstObs.length < numViews + 1 ) {
+			viewFirstObs = new int[numViews+1];
+			viewParam = new int[numViews];
+			viewR = new double[numViews*9];
+			viewT = new double[numViews*3];
+			viewRj = new double[numViews*27];
+		}
+
+		numViewsUnknown = 0;
+		numObservations = 0;
+		for( int i = 0; i < numViews; i++ ) {
+			viewFirstObs[i] = numObservations;
+			if( extrinsic[i] == null )
+				viewParam[i] = 6*numViewsUnknown++;
+			else
+				viewParam[i] = -1;
+			numObservations += observations.get(i).points.size;
+		}
+		viewFirstObs[numViews] = numObservations;
+
+		indexFirstPoint = numViewsUnknown*6;
+		numParameters = numViewsUnknown*6 + numPoints*3;
+
+		if( obsView.length < numObservations ) {
+			obsView = new int[numObservations];
+			obsPoint = new int[numObservations];
+			obsXY = new double[numObservations*2];
+			residuals = new double[numObservations*2];
+			jacView = new double[numObservations*12];
+			jacPoint = new double[numObservations*6];
+		}
+
+		int index = 0;
+		for( int i = 0; i < numViews; i++ ) {
+			ViewPointObservations obs = observations.get(i);
+			for( int j = 0; j < obs.points.size; j++ , index++ ) {
+				PointIndexObservation o = obs.points.get(j);
+				if( o.pointIndex < 0 || o.pointIndex >= numPoints )
+					throw new IllegalArgumentException("Observation references a point which doesn't exist");
+				obsView[index] = i;
+				obsPoint[index] = o.pointIndex;
+				obsXY[index*2] = o.obs.x;
+				obsXY[index*2+1] = o.obs.y;
+			}
+		}
+	}
+
+	/**
+	 * Computes the residuals and the Jacobian blocks for the provided parameters.
+	 *
+	 * @param input Parameters encoded using {@link CalibPoseAndPointRodriguesCodec}
+	 */
+	public void process( double[] input ) {
+		process(input,true);
+	}
+
+	/**
+	 * Only computes the residuals for the provided parameters.
+	 *
+	 * @param input Parameters encoded using {@link CalibPoseAndPointRodriguesCodec}
+	 */
+	public void computeResiduals( double[] input ) {
+		process(input,false);
+	}
+
+	private void process( double[] input , boolean computeJacobian ) {
+		this.input = input;
+		this.computeJacobian = computeJacobian;
+
+		computeViews();
+
+		if( concurrent ) {
+			BoofConcurrency.loopBlocks(0, numObservations, MIN_BLOCK, task);
+		} else {
+			processObservations(0, numObservations);
+		}
+		this.input = null;
+	}
+
+	/**
+	 * Computes the rotation matrix, translation, and Rodrigues partials for each view
+	 */
+	private void computeViews() {
+		for( int i = 0; i < numViews; i++ ) {
+			int param = viewParam[i];
+			if( param >= 0 ) {
+				double rodX = input[param];
+				double rodY = input[param+1];
+				double rodZ = input[param+2];
+
+				rodrigues.setParamVector(rodX,rodY,rodZ);
+				RotationMatrixGenerator.rodriguesToMatrix(rodrigues,R);
+				System.arraycopy(R.data,0,viewR,i*9,9);
+				System.arraycopy(input,param+3,viewT,i*3,3);
+
+				if( computeJacobian ) {
+					rodJacobian.process(rodX,rodY,rodZ);
+					System.arraycopy(rodJacobian.Rx.data,0,viewRj,i*27,9);
+					System.arraycopy(rodJacobian.Ry.data,0,viewRj,i*27+9,9);
+					System.arraycopy(rodJacobian.Rz.data,0,viewRj,i*27+18,9);
+				}
+			} else {
+				System.arraycopy(extrinsic[i].getR().data,0,viewR,i*9,9);
+				viewT[i*3  ] = extrinsic[i].getT().x;
+				viewT[i*3+1] = extrinsic[i].getT().y;
+				viewT[i*3+2] = extrinsic[i].getT().z;
+			}
+		}
+	}
+
+	/**
+	 * Computes the residual, and optionally the Jacobian, of each observation in the range.  Only local variables
+	 * are modified, making it safe to call from multiple threads.
+	 */
+	private void processObservations( int start , int end ) {
+		final double[] input = this.input;
+		final double[] R = viewR;
+
+		for( int k = start; k < end; k++ ) {
+			int view = obsView[k];
+			int indexR = view*9;
+			int indexT = view*3;
+			int indexP = indexFirstPoint + obsPoint[k]*3;
+
+			double X = input[indexP];
+			double Y = input[indexP+1];
+			double Z = input[indexP+2];
+
+			// location of point in camera view
+			double cx = R[indexR  ]*X + R[indexR+1]*Y + R[indexR+2]*Z + viewT[indexT];
+			double cy = R[indexR+3]*X + R[indexR+4]*Y + R[indexR+5]*Z + viewT[indexT+1];
+			double cz = R[indexR+6]*X + R[indexR+7]*Y + R[indexR+8]*Z + viewT[indexT+2];
+
+			residuals[k*2  ] = cx/cz - obsXY[k*2];
+			residuals[k*2+1] = cy/cz - obsXY[k*2+1];
+
+			if( !computeJacobian )
+				continue;
+
+			double divZ = 1.0/cz;
+			double divZ2 = divZ*divZ;
+
+			// gradient of the point.  deriv [x,y] = -dot(z)*(R*X+T)/(z^2) + R*dot(X)/z
+			int indexJ = k*6;
+			for( int col = 0; col < 3; col++ ) {
+				double dz = R[indexR+6+col]*divZ2;
+				jacPoint[indexJ+col]   = R[indexR+col]*divZ   - dz*cx;
+				jacPoint[indexJ+3+col] = R[indexR+3+col]*divZ - dz*cy;
+			}
+
+			if( viewParam[view] < 0 )
+				continue;
+
+			// gradient from rotation.  deriv [x,y] = -dot(z)/(z^2)*(R*X+T) + (1/z)*dot(R)*X
+			indexJ = k*12;
+			int indexRj = view*27;
+			for( int col = 0; col < 3; col++ , indexRj += 9 ) {
+				double dx = viewRj[indexRj  ]*X + viewRj[indexRj+1]*Y + viewRj[indexRj+2]*Z;
+				double dy = viewRj[indexRj+3]*X + viewRj[indexRj+4]*Y + viewRj[indexRj+5]*Z;
+				double dz = viewRj[indexRj+6]*X + viewRj[indexRj+7]*Y + viewRj[indexRj+8]*Z;
+
+				jacView[indexJ+col]   = dx*divZ - dz*divZ2*cx;
+				jacView[indexJ+6+col] = dy*divZ - dz*divZ2*cy;
+			}
+
+			// gradient from translation. deriv [x,y] = -dot(z)*T/(z^2) + dot(T)/z
+			jacView[indexJ+3] = divZ;
+			jacView[indexJ+4] = 0;
+			jacView[indexJ+5] = -cx*divZ2;
+			jacView[indexJ+9] = 0;
+			jacView[indexJ+10] = divZ;
+			jacView[indexJ+11] = -cy*divZ2;
+		}
+	}
+
+	/**
+	 * Returns the sum of the residuals squared
+	 */
+	public double computeSumSquared() {
+		double total = 0;
+		for( int i = 0; i < numObservations*2; i++ ) {
+			double r = residuals[i];
+			total += r*r;
+		}
+		return total;
+	}
+
+	public int getNumOfInputsN() {
+		return numParameters;
+	}
+
+	public int getNumOfOutputsM() {
+		return numObservations*2;
+	}
+
+	public int getNumViews() {
+		return numViews;
+	}
+
+	public int getNumPoints() {
+		return numPoints;
+	}
+
+	public int getNumViewsUnknown() {
+		return numViewsUnknown;
+	}
+
+	public int getNumObservations() {
+		return numObservations;
+	}
+
+	public double[] getResiduals() {
+		return residuals;
+	}
+
+	public double[] getJacView() {
+		return jacView;
+	}
+
+	public double[] getJacPoint() {
+		return jacPoint;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+}
@@ -0,0 +1,455 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.factory.LinearSolver;
+import org.ejml.factory.LinearSolverFactory;
+
+/**
+ * <p>
+ * Solves the damped normal equations of bundle adjustment by taking the Schur complement on the points.  The
+ * Jacobian blocks come from {@link CalibPoseAndPointRodriguesSparseJacobian}.  In block form the normal
+ * equations are:
+ * </p>
+ * <pre>
+ * [ U   W ] [da]   [-ga]
+ * [ W'  V ] [db] = [-gb]
+ * </pre>
+ * <p>
+ * where U is block diagonal with one 6x6 block for each unknown view, V is block diagonal with one 3x3 block for
+ * each point, and W has one 6x3 block for each observation.  Since V is trivial to invert the points are
+ * eliminated, leaving the reduced camera system (U - W*inv(V)*W')*da = -ga + W*inv(V)*gb, which is solved using
+ * Cholesky decomposition.  The point steps are then found one at a time.  Memory and computation grow linearly
+ * with the number of points and observations, instead of quadratically as with a dense Jacobian.
+ * </p>
+ *
+ * <p>
+ * Damping follows Levenberg-Marquardt, each diagonal element d is replaced by d + lambda*d.  If concurrent,
+ * views and points are processed in parallel.  Each thread writes to different blocks, so the results do not
+ * depend on the number of threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CalibPoseAndPointSchurComplement {
+
+	// minimum number of views and points processed by a thread
+	public static final int MIN_BLOCK_VIEWS = 4;
+	public static final int MIN_BLOCK_POINTS = 100;
+
+	// smallest value a diagonal element is scaled by when damped.  Keeps unobserved parameters invertible
+	public static final double MIN_DIAGONAL = 1e-12;
+
+	// source of residuals and Jacobian blocks
+	CalibPoseAndPointRodriguesSparseJacobian jac;
+
+	// if true views and points are processed using multiple threads
+	boolean concurrent;
+
+	// observations of each point.  Index of first observation in pointObs for each point
+	int pointFirstObs[] = new int[0];
+	int pointObs[] = new int[0];
+
+	// 6x6 blocks of J'*J for each unknown view
+	double U[] = new double[0];
+	// 3x3 blocks of J'*J for each point
+	double V[] = new double[0];
+	// 6x3 block of J'*J for each observation in an unknown view
+	double W[] = new double[0];
+	// gradient J'*r for each view and point
+	double ga[] = new double[0];
+	double gb[] = new double[0];
+
+	// inverse of the damped V blocks
+	double Vinv[] = new double[0];
+	// W*inv(V) for each observation
+	double Y[] = new double[0];
+
+	// reduced camera system
+	DenseMatrix64F S = new DenseMatrix64F(1,1);
+	DenseMatrix64F rhsA = new DenseMatrix64F(1,1);
+	DenseMatrix64F stepA = new DenseMatrix64F(1,1);
+	LinearSolver<DenseMatrix64F> solver;
+
+	// variables used by the tasks
+	double lambda;
+	double step[];
+	// set to true if a V block could not be inverted
+	volatile boolean failed;
+
+	public CalibPoseAndPointSchurComplement( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
+	public CalibPoseAndPointSchurComplement() {
+		this(false);
+	}
+
+	/**
+	 * Specifies the Jacobian.  Must be called after the Jacobian has been configured.
+	 */
+	public void configure( CalibPoseAndPointRodriguesSparseJacobian jacobian ) {
+		this.jac = jacobian;
+
+		int numPoints = jac.numPoints;
+		int numObs = jac.numObservations;
+		int numUnknown = jac.numViewsUnknown;
+
+		if( pointFirstObs.length < numPoints + 1 ) {
+			pointFirstObs = new int[numPoints+1];
+			V = new double[numPoints*9];
+			gb = new double[numPoints*3];
+			Vinv = new double[numPoints*9];
+		}
+		if( pointObs.length < numObs ) {
+			pointObs = new int[numObs];
+			W = new double[numObs*18];
+			Y = new double[numObs*18];
+		}
+		if( U.length < numUnknown*36 ) {
+			U = new double[numUnknown*36];
+			ga = new double[numUnknown*6];
+		}
+
+		// find the observations of each point
+		for( int i = 0; i <= numPoints; i++ ) {
+			pointFirstObs[i] = 0;
+		}
+		for( int k = 0; k < numObs; k++ ) {
+			pointFirstObs[jac.obsPoint[k]+1]++;
+		}
+		for( int i = 0; i < numPoints; i++ ) {
+			pointFirstObs[i+1] += pointFirstObs[i];
+		}
+		int count[] = new int[numPoints];
+		for( int k = 0; k < numObs; k++ ) {
+			int p = jac.obsPoint[k];
+			pointObs[pointFirstObs[p] + count[p]++] = k;
+		}
+
+		int N = numUnknown*6;
+		S.reshape(N,N);
+		rhsA.reshape(N,1);
+		stepA.reshape(N,1);
+		solver = LinearSolverFactory.symmPosDef(Math.max(1,N));
+	}
+
+	/**
+	 * Computes the blocks in the normal equations and the gradient from the current Jacobian
+	 */
+	public void computeNormal() {
+		loop(0, jac.numViews, MIN_BLOCK_VIEWS, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int view = min; view < max; view++ ) {
+					computeNormalView(view);
+				}
+			}
+		});
+		loop(0, jac.numPoints, MIN_BLOCK_POINTS, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int point = min; point < max; point++ ) {
+					computeNormalPoint(point);
+				}
+			}
+		});
+	}
+
+	private void computeNormalView( int view ) {
+		int param = jac.viewParam[view];
+		if( param < 0 )
+			return;
+
+		int indexU = param*6;
+		for( int i = 0; i < 36; i++ )
+			U[indexU+i] = 0;
+		for( int i = 0; i < 6; i++ )
+			ga[param+i] = 0;
+
+		final double[] A = jac.jacView;
+		final double[] B = jac.jacPoint;
+		final double[] r = jac.residuals;
+
+		for( int k = jac.viewFirstObs[view]; k < jac.viewFirstObs[view+1]; k++ ) {
+			int indexA = k*12;
+			int indexB = k*6;
+			int indexW = k*18;
+			double r0 = r[k*2], r1 = r[k*2+1];
+
+			for( int i = 0; i < 6; i++ ) {
+				double a0 = A[indexA+i];
+				double a1 = A[indexA+6+i];
+				for( int j = 0; j < 6; j++ ) {
+					U[indexU+i*6+j] += a0*A[indexA+j] + a1*A[indexA+6+j];
+				}
+				for( int j = 0; j < 3; j++ ) {
+					W[indexW+i*3+j] = a0*B[indexB+j] + a1*B[indexB+3+j];
+				}
+				ga[param+i] += a0*r0 + a1*r1;
+			}
+		}
+	}
+
+	private void computeNormalPoint( int point ) {
+		int indexV = point*9;
+		for( int i = 0; i < 9; i++ )
+			V[indexV+i] = 0;
+		for( int i = 0; i < 3; i++ )
+			gb[point*3+i] = 0;
+
+		final double[] B = jac.jacPoint;
+		final double[] r = jac.residuals;
+
+		for( int idx = pointFirstObs[point]; idx < pointFirstObs[point+1]; idx++ ) {
+			int k = pointObs[idx];
+			int indexB = k*6;
+			double r0 = r[k*2], r1 = r[k*2+1];
+
+			for( int i = 0; i < 3; i++ ) {
+				double b0 = B[indexB+i];
+				double b1 = B[indexB+3+i];
+				for( int j = 0; j < 3; j++ ) {
+					V[indexV+i*3+j] += b0*B[indexB+j] + b1*B[indexB+3+j];
+				}
+				gb[point*3+i] += b0*r0 + b1*r1;
+			}
+		}
+	}
+
+	/**
+	 * Returns the largest element in the gradient, by magnitude
+	 */
+	public double computeMaxGradient() {
+		double max = 0;
+		for( int i = 0; i < jac.numViewsUnknown*6; i++ ) {
+			max = Math.max(max,Math.abs(ga[i]));
+		}
+		for( int i = 0; i < jac.numPoints*3; i++ ) {
+			max = Math.max(max,Math.abs(gb[i]));
+		}
+		return max;
+	}
+
+	/**
+	 * Solves for the step which minimizes the damped linear approximation.
+	 *
+	 * @param lambda Levenberg-Marquardt damping parameter.  Must be &gt; 0
+	 * @param step (Output) The step, in the same order as parameters encoded by
+	 * {@link CalibPoseAndPointRodriguesCodec}.
+	 * @return true if successful or false if the system is singular
+	 */
+	public boolean solve( double lambda , double step[] ) {
+		this.lambda = lambda;
+		this.step = step;
+		this.failed = false;
+
+		// invert the point blocks
+		loop(0, jac.numPoints, MIN_BLOCK_POINTS, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int point = min; point < max; point++ ) {
+					if( !invertPoint(point) )
+						failed = true;
+				}
+			}
+		});
+		if( failed )
+			return false;
+
+		// construct and solve the reduced camera system
+		if( jac.numViewsUnknown > 0 ) {
+			loop(0, jac.numViews, MIN_BLOCK_VIEWS, new IntRangeTask() {
+				@Override
+				public void process(int min, int max) {
+					for( int view = min; view < max; view++ ) {
+						reducedRow(view);
+					}
+				}
+			});
+
+			if( !solver.setA(S) )
+				return false;
+			solver.solve(rhsA, stepA);
+
+			for( int i = 0; i < stepA.numRows; i++ ) {
+				double v = stepA.data[i];
+				if( Double.isNaN(v) || Double.isInfinite(v) )
+					return false;
+			}
+			System.arraycopy(stepA.data,0,step,0,stepA.numRows);
+		}
+
+		// back substitute to find the step for each point
+		loop(0, jac.numPoints, MIN_BLOCK_POINTS, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int point = min; point < max; point++ ) {
+					pointStep(point);
+				}
+			}
+		});
+
+		this.step = null;
+		return true;
+	}
+
+	/**
+	 * Inverts the damped 3x3 block of the point and computes W*inv(V) for each of its observations
+	 */
+	private boolean invertPoint( int point ) {
+		int index = point*9;
+
+		double a11 = damp(V[index  ]), a12 = V[index+1], a13 = V[index+2];
+		double a22 = damp(V[index+4]), a23 = V[index+5];
+		double a33 = damp(V[index+8]);
+
+		// the block is symmetric
+		double c11 = a22*a33 - a23*a23;
+		double c12 = a13*a23 - a12*a33;
+		double c13 = a12*a23 - a13*a22;
+		double c22 = a11*a33 - a13*a13;
+		double c23 = a12*a13 - a11*a23;
+		double c33 = a11*a22 - a12*a12;
+
+		double det = a11*c11 + a12*c12 + a13*c13;
+		if( !(det > 0) || Double.isInfinite(det) )
+			return false;
+
+		double[] inv = Vinv;
+		inv[index  ] = c11/det; inv[index+1] = c12/det; inv[index+2] = c13/det;
+		inv[index+3] = c12/det; inv[index+4] = c22/det; inv[index+5] = c23/det;
+		inv[index+6] = c13/det; inv[index+7] = c23/det; inv[index+8] = c33/det;
+
+		for( int idx = pointFirstObs[point]; idx < pointFirstObs[point+1]; idx++ ) {
+			int k = pointObs[idx];
+			if( jac.viewParam[jac.obsView[k]] < 0 )
+				continue;
+
+			int indexW = k*18;
+			for( int i = 0; i < 6; i++ ) {
+				double w0 = W[indexW+i*3], w1 = W[indexW+i*3+1], w2 = W[indexW+i*3+2];
+				for( int j = 0; j < 3; j++ ) {
+					Y[indexW+i*3+j] = w0*inv[index+j] + w1*inv[index+3+j] + w2*inv[index+6+j];
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the row of blocks in the reduced camera system which belongs to the view
+	 */
+	private void reducedRow( int view ) {
+		int param = jac.viewParam[view];
+		if( param < 0 )
+			return;
+
+		final int N = S.numCols;
+		final double[] s = S.data;
+
+		// damped diagonal block
+		for( int i = 0; i < 6; i++ ) {
+			int indexS = (param+i)*N;
+			for( int j = 0; j < N; j++ ) {
+				s[indexS+j] = 0;
+			}
+			for( int j = 0; j < 6; j++ ) {
+				s[indexS+param+j] = U[param*6+i*6+j];
+			}
+			s[indexS+param+i] = damp(s[indexS+param+i]);
+			rhsA.data[param+i] = -ga[param+i];
+		}
+
+		// subtract W*inv(V)*W' for every pair of observations of the same point
+		for( int k1 = jac.viewFirstObs[view]; k1 < jac.viewFirstObs[view+1]; k1++ ) {
+			int point = jac.obsPoint[k1];
+			int indexY = k1*18;
+
+			for( int i = 0; i < 6; i++ ) {
+				double y0 = Y[indexY+i*3], y1 = Y[indexY+i*3+1], y2 = Y[indexY+i*3+2];
+				rhsA.data[param+i] += y0*gb[point*3] + y1*gb[point*3+1] + y2*gb[point*3+2];
+			}
+
+			for( int idx = pointFirstObs[point]; idx < pointFirstObs[point+1]; idx++ ) {
+				int k2 = pointObs[idx];
+				int param2 = jac.viewParam[jac.obsView[k2]];
+				if( param2 < 0 )
+					continue;
+
+				int indexW = k2*18;
+				for( int i = 0; i < 6; i++ ) {
+					double y0 = Y[indexY+i*3], y1 = Y[indexY+i*3+1], y2 = Y[indexY+i*3+2];
+					int indexS = (param+i)*N + param2;
+					for( int j = 0; j < 6; j++ ) {
+						s[indexS+j] -= y0*W[indexW+j*3] + y1*W[indexW+j*3+1] + y2*W[indexW+j*3+2];
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the step for a point given the step for the views
+	 */
+	private void pointStep( int point ) {
+		int indexG = point*3;
+		double b0 = -gb[indexG], b1 = -gb[indexG+1], b2 = -gb[indexG+2];
+
+		for( int idx = pointFirstObs[point]; idx < pointFirstObs[point+1]; idx++ ) {
+			int k = pointObs[idx];
+			int param = jac.viewParam[jac.obsView[k]];
+			if( param < 0 )
+				continue;
+
+			int indexW = k*18;
+			for( int i = 0; i < 6; i++ ) {
+				double da = step[param+i];
+				b0 -= W[indexW+i*3  ]*da;
+				b1 -= W[indexW+i*3+1]*da;
+				b2 -= W[indexW+i*3+2]*da;
+			}
+		}
+
+		int index = point*9;
+		int indexStep = jac.indexFirstPoint + point*3;
+		step[indexStep  ] = Vinv[index  ]*b0 + Vinv[index+1]*b1 + Vinv[index+2]*b2;
+		step[indexStep+1] = Vinv[index+3]*b0 + Vinv[index+4]*b1 + Vinv[index+5]*b2;
+		step[indexStep+2] = Vinv[index+6]*b0 + Vinv[index+7]*b1 + Vinv[index+8]*b2;
+	}
+
+	private double damp( double d ) {
+		return d + lambda*Math.max(d,MIN_DIAGONAL);
+	}
+
+	private void loop( int start , int end , int minBlock , IntRangeTask task ) {
+		if( concurrent )
+			BoofConcurrency.loopBlocks(start, end, minBlock, task);
+		else
+			task.process(start, end);
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+}
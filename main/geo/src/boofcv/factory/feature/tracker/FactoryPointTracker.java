@@ -115,6 +115,25 @@ public class FactoryPointTracker {
 	public static <I extends ImageSingleBand, D extends ImageSingleBand>
 	PointTracker<I> klt(PkltConfig config, ConfigGeneralDetector configExtract,
 						Class<I> imageType, Class<D> derivType ) {
+		return klt(config, configExtract, imageType, derivType, false);
+	}
+
+	/**
+	 * Pyramid KLT feature tracker which can optionally use multiple threads.  When concurrent the image pyramid
+	 * and its gradient are computed using multiple threads and active tracks are split between threads, each
+	 * with its own tracker.
+	 *
+	 * @see boofcv.alg.tracker.klt.PyramidKltTracker
+	 * @see PointTrackerKltPyramid_MT
+	 *
+	 * @param config Config for the tracker. Try PkltConfig.createDefault().
+	 * @param configExtract Configuration for extracting features
+	 * @param concurrent If true the tracker will use multiple threads.
+	 * @return KLT based tracker.
+	 */
+	public static <I extends ImageSingleBand, D extends ImageSingleBand>
+	PointTracker<I> klt(PkltConfig config, ConfigGeneralDetector configExtract,
+						Class<I> imageType, Class<D> derivType , boolean concurrent ) {
 
 		if( derivType == null )
 			derivType = GImageDerivativeOps.getDerivativeType(imageType);
@@ -132,12 +151,17 @@ public class FactoryPointTracker {
 		InterpolateRectangle<I> interpInput = FactoryInterpolation.<I>bilinearRectangle(imageType);
 		InterpolateRectangle<D> interpDeriv = FactoryInterpolation.<D>bilinearRectangle(derivType);
 
-		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType, derivType);
+		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType, derivType, concurrent);
 
-		PyramidDiscrete<I> pyramid = FactoryPyramid.discreteGaussian(config.pyramidScaling,-1,2,true,imageType);
+		PyramidDiscrete<I> pyramid = FactoryPyramid.discreteGaussian(config.pyramidScaling,-1,2,true,imageType,
+				concurrent);
 
-		return new PointTrackerKltPyramid<I, D>(config.config,config.templateRadius,pyramid,detector,
-				gradient,interpInput,interpDeriv,derivType);
+		if( concurrent )
+			return new PointTrackerKltPyramid_MT<I, D>(config.config,config.templateRadius,pyramid,detector,
+					gradient,interpInput,interpDeriv,derivType);
+		else
+			return new PointTrackerKltPyramid<I, D>(config.config,config.templateRadius,pyramid,detector,
+					gradient,interpInput,interpDeriv,derivType);
 	}
 
 	/**
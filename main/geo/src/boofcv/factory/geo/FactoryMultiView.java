@@ -20,6 +20,7 @@ package boofcv.factory.geo;
 
 import boofcv.abst.geo.*;
 import boofcv.abst.geo.bundle.BundleAdjustmentCalibratedDense;
+import boofcv.abst.geo.bundle.BundleAdjustmentCalibratedSparse;
 import boofcv.abst.geo.f.*;
 import boofcv.abst.geo.h.LeastSquaresHomography;
 import boofcv.abst.geo.h.WrapHomographyLinear;
@@ -57,11 +58,42 @@ public class FactoryMultiView {
 	/**
 	 * Creates bundle adjustment for a camera with a know and fixed intrinsic calibration
 	 *
+	 * @see BundleAdjustmentCalibratedSparse
+	 *
 	 * @param tol Convergence tolerance.  Try 1e-8
 	 * @param maxIterations Maximum number of iterations. Try 200 or more
 	 * @return Bundle Adjustment
 	 */
 	public static BundleAdjustmentCalibrated bundleCalibrated(double tol , int maxIterations) {
+		return bundleCalibrated(tol, maxIterations, false);
+	}
+
+	/**
+	 * Creates bundle adjustment for a camera with a know and fixed intrinsic calibration.  The sparse
+	 * structure of the problem is taken advantage of, making it practical for a large number of views and points.
+	 *
+	 * @see BundleAdjustmentCalibratedSparse
+	 *
+	 * @param tol Convergence tolerance.  Try 1e-8
+	 * @param maxIterations Maximum number of iterations. Try 200 or more
+	 * @param concurrent If true multiple threads will be used
+	 * @return Bundle Adjustment
+	 */
+	public static BundleAdjustmentCalibrated bundleCalibrated(double tol , int maxIterations , boolean concurrent ) {
+		return new BundleAdjustmentCalibratedSparse(tol,maxIterations,concurrent);
+	}
+
+	/**
+	 * Creates bundle adjustment for a camera with a know and fixed intrinsic calibration which uses dense matrices.
+	 * Only practical for small problems.
+	 *
+	 * @see BundleAdjustmentCalibratedDense
+	 *
+	 * @param tol Convergence tolerance.  Try 1e-8
+	 * @param maxIterations Maximum number of iterations. Try 200 or more
+	 * @return Bundle Adjustment
+	 */
+	public static BundleAdjustmentCalibrated bundleCalibratedDense(double tol , int maxIterations) {
 		return new BundleAdjustmentCalibratedDense(tol,maxIterations);
 	}
 
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.PkltConfig;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.tracker.FactoryPointTracker;
+import boofcv.struct.image.ImageFloat32;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPointTrackerKltPyramid_MT extends TestPointTrackerKltPyramid {
+
+	@Override
+	public PointTracker<ImageFloat32> createTracker() {
+		config = new PkltConfig();
+		return FactoryPointTracker.klt(config, new ConfigGeneralDetector(200, 3, 1000, 0, true),
+				ImageFloat32.class, ImageFloat32.class, true);
+	}
+
+	/**
+	 * Tracks should be identical to the single threaded tracker and in the same order
+	 */
+	@Test
+	public void compareToSingleThread() {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			Random rand = new Random(234);
+			ImageFloat32 noise = new ImageFloat32(320,240);
+			ImageMiscOps.fillUniform(noise, rand, 0, 255);
+			ImageFloat32 frame0 = BlurImageOps.gaussian(noise, null, -1, 2, null);
+			ImageFloat32 frame1 = new ImageFloat32(320,240);
+			ImageMiscOps.fill(frame1, 0);
+			// shift the image and add a region which can't be tracked
+			frame1.subimage(2,1,320,240,null).setTo(frame0.subimage(0,0,318,239,null));
+			ImageMiscOps.fillRectangle(frame1, 100, 200, 150, 60, 40);
+
+			PointTracker<ImageFloat32> expected = FactoryPointTracker.klt(new PkltConfig(),
+					new ConfigGeneralDetector(600, 3, 1, 0, true), ImageFloat32.class, ImageFloat32.class, false);
+			PointTracker<ImageFloat32> found = FactoryPointTracker.klt(new PkltConfig(),
+					new ConfigGeneralDetector(600, 3, 1, 0, true), ImageFloat32.class, ImageFloat32.class, true);
+
+			expected.process(frame0);
+			expected.spawnTracks();
+			found.process(frame0);
+			found.spawnTracks();
+			assertTrue(expected.getActiveTracks(null).size() > 200);
+
+			expected.process(frame1);
+			found.process(frame1);
+
+			assertTrue(expected.getDroppedTracks(null).size() > 0);
+			compare(expected.getActiveTracks(null), found.getActiveTracks(null));
+			compare(expected.getDroppedTracks(null), found.getDroppedTracks(null));
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	private void compare( List<PointTrack> expected , List<PointTrack> found ) {
+		assertEquals(expected.size(), found.size());
+		for( int i = 0; i < expected.size(); i++ ) {
+			PointTrack e = expected.get(i);
+			PointTrack f = found.get(i);
+			assertEquals(e.featureId, f.featureId);
+			assertEquals(e.x, f.x, 0);
+			assertEquals(e.y, f.y, 0);
+		}
+	}
+}
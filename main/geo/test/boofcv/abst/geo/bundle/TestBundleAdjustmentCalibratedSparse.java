@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.geo.bundle;
+
+import boofcv.alg.geo.GeoTestingOps;
+import boofcv.alg.geo.bundle.CalibPoseAndPointResiduals;
+import boofcv.alg.geo.bundle.CalibratedPoseAndPoint;
+import boofcv.alg.geo.bundle.ViewPointObservations;
+import boofcv.concurrency.BoofConcurrency;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static boofcv.alg.geo.bundle.TestCalibPoseAndPointSchurComplement.createSparseObservations;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBundleAdjustmentCalibratedSparse {
+
+	Random rand = new Random(234);
+	int numViews = 2;
+	int numPoints = 4;
+
+	/**
+	 * Perfect observations and model
+	 */
+	@Test
+	public void perfect() {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+
+		BundleAdjustmentCalibratedSparse alg = new BundleAdjustmentCalibratedSparse(1e-8,500);
+
+		assertTrue(alg.process(model, observations));
+
+		// compute error, which should be zero
+		assertEquals(0,computeError(model,observations),1e-8);
+	}
+
+	/**
+	 * Perfect observations with a corrupted model.  See if the error decreases
+	 */
+	@Test
+	public void noisy() {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+
+		BundleAdjustmentCalibratedSparse alg = new BundleAdjustmentCalibratedSparse(1e-12,500);
+
+		// add noise to the model
+		model.getWorldToCamera(0).getT().x += 0.02;
+		model.getWorldToCamera(1).getT().y -= 0.01;
+
+		double errorBefore = computeError(model,observations);
+
+		assertTrue(alg.process(model, observations));
+
+		double errorAfter = computeError(model,observations);
+
+		// the error should be less now
+		assertTrue(errorAfter<errorBefore*0.1);
+	}
+
+	/**
+	 * Larger problem where each view only sees some of the points and the first view is known.  The known
+	 * view removes the gauge freedom, so the original model should be recovered.
+	 */
+	@Test
+	public void sparseKnownView() {
+		int numViews = 8;
+		int numPoints = 60;
+
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createSparseObservations(model,numViews,numPoints);
+		model.setViewKnown(0,true);
+		model.setViewKnown(1,true);
+
+		Se3_F64 expected = model.getWorldToCamera(4).copy();
+		Point3D_F64 expectedPt = model.getPoint(7).copy();
+
+		for( int i = 2; i < numViews; i++ ) {
+			model.getWorldToCamera(i).getT().x += rand.nextGaussian()*0.01;
+			model.getWorldToCamera(i).getT().y += rand.nextGaussian()*0.01;
+		}
+		for( int i = 0; i < numPoints; i++ ) {
+			model.getPoint(i).z += rand.nextGaussian()*0.01;
+		}
+
+		BundleAdjustmentCalibratedSparse alg = new BundleAdjustmentCalibratedSparse(1e-12,500);
+		assertTrue(alg.process(model, observations));
+
+		assertEquals(0,computeError(model,observations),1e-8);
+		assertEquals(0,expected.getT().distance(model.getWorldToCamera(4).getT()),1e-4);
+		assertEquals(0,expectedPt.distance(model.getPoint(7)),1e-3);
+	}
+
+	/**
+	 * The same solution should be found when concurrent
+	 */
+	@Test
+	public void concurrent() {
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			int numViews = 10;
+			int numPoints = 400;
+
+			CalibratedPoseAndPoint a = createModel(numViews,numPoints,rand);
+			List<ViewPointObservations> observations = createSparseObservations(a,numViews,numPoints);
+			a.setViewKnown(0,true);
+			for( int i = 1; i < numViews; i++ ) {
+				a.getWorldToCamera(i).getT().x += rand.nextGaussian()*0.01;
+			}
+
+			CalibratedPoseAndPoint b = new CalibratedPoseAndPoint();
+			b.configure(numViews,numPoints);
+			b.setViewKnown(0,true);
+			for( int i = 0; i < numViews; i++ )
+				b.getWorldToCamera(i).set(a.getWorldToCamera(i));
+			for( int i = 0; i < numPoints; i++ )
+				b.getPoint(i).set(a.getPoint(i));
+
+			assertTrue(new BundleAdjustmentCalibratedSparse(1e-12,20,false).process(a,observations));
+			assertTrue(new BundleAdjustmentCalibratedSparse(1e-12,20,true).process(b,observations));
+
+			for( int i = 0; i < numViews; i++ ) {
+				assertEquals(0,a.getWorldToCamera(i).getT().distance(b.getWorldToCamera(i).getT()),0);
+			}
+			for( int i = 0; i < numPoints; i++ ) {
+				assertEquals(0,a.getPoint(i).distance(b.getPoint(i)),0);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	private double computeError( CalibratedPoseAndPoint model ,
+								 List<ViewPointObservations> observations )
+	{
+		CalibPoseAndPointResiduals func = new CalibPoseAndPointResiduals();
+		func.configure(null,model,observations);
+		double residuals[] = new double[ func.getNumOfOutputsM() ];
+
+		func.process(model,residuals);
+
+		return GeoTestingOps.residualError(residuals);
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import georegression.struct.se.Se3_F64;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCalibPoseAndPointRodriguesSparseJacobian {
+
+	Random rand = new Random(48854);
+	int numPoints = 5;
+
+	CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+	CalibPoseAndPointResiduals func = new CalibPoseAndPointResiduals();
+
+	@Test
+	public void allUnknown() {
+		compareToDense(false, false, false);
+	}
+
+	@Test
+	public void allKnown() {
+		compareToDense(true, true);
+	}
+
+	@Test
+	public void mixed() {
+		compareToDense(false, true, false, true);
+	}
+
+	/**
+	 * Compares the residuals and the Jacobian blocks against the dense implementation
+	 */
+	private void compareToDense( boolean ...known ) {
+		int numViews = known.length;
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+		Se3_F64 extrinsic[] = configureKnown(model,known);
+
+		codec.configure(numViews,numPoints,model.getNumUnknownViews(),known);
+		func.configure(codec,model,observations);
+
+		CalibPoseAndPointRodriguesJacobian dense = new CalibPoseAndPointRodriguesJacobian();
+		dense.configure(observations,numPoints,extrinsic);
+
+		CalibPoseAndPointRodriguesSparseJacobian alg = new CalibPoseAndPointRodriguesSparseJacobian();
+		alg.configure(observations,numPoints,extrinsic);
+
+		int N = codec.getParamLength();
+		assertEquals(N,alg.getNumOfInputsN());
+		assertEquals(func.getNumOfOutputsM(),alg.getNumOfOutputsM());
+
+		double param[] = new double[N];
+		codec.encode(model,param);
+
+		double expectedResiduals[] = new double[func.getNumOfOutputsM()];
+		double expectedJacobian[] = new double[func.getNumOfOutputsM()*N];
+		func.process(param,expectedResiduals);
+		dense.process(param,expectedJacobian);
+
+		alg.process(param);
+
+		int obsIndex = 0;
+		int viewParam = 0;
+		for( int view = 0; view < numViews; view++ ) {
+			List<PointIndexObservation> points = observations.get(view).getPoints().toList();
+			for( PointIndexObservation o : points ) {
+				for( int row = 0; row < 2; row++ ) {
+					int indexRow = (obsIndex*2+row)*N;
+					assertEquals(expectedResiduals[obsIndex*2+row],alg.getResiduals()[obsIndex*2+row],1e-8);
+
+					if( !known[view] ) {
+						for( int col = 0; col < 6; col++ ) {
+							assertEquals(expectedJacobian[indexRow+viewParam+col],
+									alg.getJacView()[obsIndex*12+row*6+col],1e-8);
+						}
+					}
+					int indexPoint = model.getNumUnknownViews()*6 + o.pointIndex*3;
+					for( int col = 0; col < 3; col++ ) {
+						assertEquals(expectedJacobian[indexRow+indexPoint+col],
+								alg.getJacPoint()[obsIndex*6+row*3+col],1e-8);
+					}
+				}
+				obsIndex++;
+			}
+			if( !known[view] )
+				viewParam += 6;
+		}
+
+		// only residuals should be computed now
+		param[N-1] += 0.1;
+		func.process(param,expectedResiduals);
+		alg.computeResiduals(param);
+		for( int i = 0; i < expectedResiduals.length; i++ ) {
+			assertEquals(expectedResiduals[i],alg.getResiduals()[i],1e-8);
+		}
+	}
+
+	/**
+	 * Results should be identical when computed using multiple threads
+	 */
+	@Test
+	public void concurrent() {
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			int numViews = 6;
+			int numPoints = 300;
+			boolean known[] = new boolean[]{true,false,false,false,false,false};
+			CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+			List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+			Se3_F64 extrinsic[] = configureKnown(model,known);
+
+			codec.configure(numViews,numPoints,model.getNumUnknownViews(),known);
+			double param[] = new double[codec.getParamLength()];
+			codec.encode(model,param);
+
+			CalibPoseAndPointRodriguesSparseJacobian single = new CalibPoseAndPointRodriguesSparseJacobian(false);
+			CalibPoseAndPointRodriguesSparseJacobian multi = new CalibPoseAndPointRodriguesSparseJacobian(true);
+			single.configure(observations,numPoints,extrinsic);
+			multi.configure(observations,numPoints,extrinsic);
+
+			single.process(param);
+			multi.process(param);
+
+			int M = single.getNumObservations();
+			for( int i = 0; i < M*2; i++ )
+				assertEquals(single.getResiduals()[i],multi.getResiduals()[i],0);
+			for( int i = 0; i < M*12; i++ )
+				assertEquals(single.getJacView()[i],multi.getJacView()[i],0);
+			for( int i = 0; i < M*6; i++ )
+				assertEquals(single.getJacPoint()[i],multi.getJacPoint()[i],0);
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	public static Se3_F64[] configureKnown( CalibratedPoseAndPoint model , boolean ...known ) {
+		Se3_F64 extrinsic[] = new Se3_F64[known.length];
+		for( int i = 0; i < known.length; i++ ) {
+			model.setViewKnown(i,known[i]);
+			if( known[i] ) {
+				extrinsic[i] = new Se3_F64();
+				extrinsic[i].set(model.getWorldToCamera(i));
+			}
+		}
+		return extrinsic;
+	}
+}
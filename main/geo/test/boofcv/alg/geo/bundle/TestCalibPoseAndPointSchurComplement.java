@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import georegression.struct.se.Se3_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static boofcv.alg.geo.bundle.TestCalibPoseAndPointRodriguesSparseJacobian.configureKnown;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCalibPoseAndPointSchurComplement {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare the step against the solution found by explicitly solving the dense damped normal equations
+	 */
+	@Test
+	public void compareToDense() {
+		compareToDense(4, 6, false, false, false, false);
+		compareToDense(4, 6, true, false, true, false);
+		compareToDense(3, 5, true, true, true);
+	}
+
+	private void compareToDense( int numViews , int numPoints , boolean ...known ) {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createSparseObservations(model, numViews, numPoints);
+		Se3_F64 extrinsic[] = configureKnown(model,known);
+
+		CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+		codec.configure(numViews,numPoints,model.getNumUnknownViews(),known);
+		int N = codec.getParamLength();
+		double param[] = new double[N];
+		codec.encode(model,param);
+		// perturb the parameters so that the residuals aren't zero
+		for( int i = 0; i < N; i++ )
+			param[i] += rand.nextGaussian()*0.01;
+
+		CalibPoseAndPointRodriguesSparseJacobian jac = new CalibPoseAndPointRodriguesSparseJacobian();
+		jac.configure(observations,numPoints,extrinsic);
+		jac.process(param);
+
+		CalibPoseAndPointSchurComplement alg = new CalibPoseAndPointSchurComplement();
+		alg.configure(jac);
+		alg.computeNormal();
+
+		double lambda = 0.01;
+		double found[] = new double[N];
+		assertTrue(alg.solve(lambda, found));
+
+		// construct the dense Jacobian
+		int M = jac.getNumOfOutputsM();
+		DenseMatrix64F J = new DenseMatrix64F(M,N);
+		DenseMatrix64F r = new DenseMatrix64F(M,1);
+		for( int k = 0; k < jac.getNumObservations(); k++ ) {
+			int view = jac.obsView[k];
+			int indexPoint = jac.indexFirstPoint + jac.obsPoint[k]*3;
+			for( int row = 0; row < 2; row++ ) {
+				r.set(k*2+row,0,jac.getResiduals()[k*2+row]);
+				if( jac.viewParam[view] >= 0 ) {
+					for( int col = 0; col < 6; col++ )
+						J.set(k*2+row,jac.viewParam[view]+col,jac.getJacView()[k*12+row*6+col]);
+				}
+				for( int col = 0; col < 3; col++ )
+					J.set(k*2+row,indexPoint+col,jac.getJacPoint()[k*6+row*3+col]);
+			}
+		}
+
+		DenseMatrix64F A = new DenseMatrix64F(N,N);
+		DenseMatrix64F b = new DenseMatrix64F(N,1);
+		CommonOps.multInner(J,A);
+		CommonOps.multTransA(J,r,b);
+		CommonOps.scale(-1,b);
+		for( int i = 0; i < N; i++ ) {
+			double d = A.get(i,i);
+			A.set(i,i,d + lambda*Math.max(d,CalibPoseAndPointSchurComplement.MIN_DIAGONAL));
+		}
+		DenseMatrix64F expected = new DenseMatrix64F(N,1);
+		assertTrue(CommonOps.solve(A,b,expected));
+
+		for( int i = 0; i < N; i++ ) {
+			assertEquals(expected.data[i],found[i],1e-6*Math.max(1,Math.abs(expected.data[i])));
+		}
+
+		// the gradient should match too
+		double maxGradient = 0;
+		for( int i = 0; i < N; i++ )
+			maxGradient = Math.max(maxGradient,Math.abs(b.data[i]));
+		assertEquals(maxGradient,alg.computeMaxGradient(),1e-8);
+	}
+
+	/**
+	 * Results should be identical when computed using multiple threads
+	 */
+	@Test
+	public void concurrent() {
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			int numViews = 20;
+			int numPoints = 500;
+			boolean known[] = new boolean[numViews];
+			known[0] = true;
+
+			CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+			List<ViewPointObservations> observations = createSparseObservations(model, numViews, numPoints);
+			Se3_F64 extrinsic[] = configureKnown(model,known);
+
+			CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+			codec.configure(numViews,numPoints,model.getNumUnknownViews(),known);
+			int N = codec.getParamLength();
+			double param[] = new double[N];
+			codec.encode(model,param);
+			for( int i = 0; i < N; i++ )
+				param[i] += rand.nextGaussian()*0.01;
+
+			CalibPoseAndPointRodriguesSparseJacobian jac = new CalibPoseAndPointRodriguesSparseJacobian();
+			jac.configure(observations,numPoints,extrinsic);
+			jac.process(param);
+
+			CalibPoseAndPointSchurComplement single = new CalibPoseAndPointSchurComplement(false);
+			CalibPoseAndPointSchurComplement multi = new CalibPoseAndPointSchurComplement(true);
+			single.configure(jac);
+			multi.configure(jac);
+			single.computeNormal();
+			multi.computeNormal();
+
+			double expected[] = new double[N];
+			double found[] = new double[N];
+			assertTrue(single.solve(0.001,expected));
+			assertTrue(multi.solve(0.001,found));
+
+			for( int i = 0; i < N; i++ ) {
+				assertEquals(expected[i],found[i],0);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	/**
+	 * Each view only observes a subset of the points and the last point is never observed
+	 */
+	public static List<ViewPointObservations> createSparseObservations( CalibratedPoseAndPoint model ,
+																		int numViews , int numPoints ) {
+		List<ViewPointObservations> all = createObservations(model,numViews,numPoints);
+		List<ViewPointObservations> ret = new ArrayList<ViewPointObservations>();
+
+		for( int view = 0; view < numViews; view++ ) {
+			ViewPointObservations src = all.get(view);
+			ViewPointObservations dst = new ViewPointObservations();
+			for( int i = 0; i < src.getPoints().size; i++ ) {
+				PointIndexObservation o = src.getPoints().get(i);
+				if( o.pointIndex == numPoints-1 || (o.pointIndex+view) % 3 == 0 )
+					continue;
+				dst.getPoints().grow().set(o.pointIndex,o.obs);
+			}
+			ret.add(dst);
+		}
+		return ret;
+	}
+}
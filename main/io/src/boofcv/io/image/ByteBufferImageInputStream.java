@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.io.image;
+
+import javax.imageio.stream.ImageInputStreamImpl;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link javax.imageio.stream.ImageInputStream} which reads directly from a {@link ByteBuffer}.  Allows
+ * {@link javax.imageio.ImageIO} to decode images stored in memory mapped files without copying the data into
+ * an array first or caching it.
+ *
+ * @author Peter Abeles
+ */
+public class ByteBufferImageInputStream extends ImageInputStreamImpl {
+
+	// data being read.  Position zero is the start of the stream
+	ByteBuffer data;
+
+	/**
+	 * Creates a stream which reads from the buffer's position up to its limit.  The buffer is not modified.
+	 *
+	 * @param buffer Data that is to be read
+	 */
+	public ByteBufferImageInputStream( ByteBuffer buffer ) {
+		this.data = buffer.slice();
+	}
+
+	@Override
+	public int read() throws IOException {
+		checkClosed();
+		bitOffset = 0;
+		if( streamPos >= data.limit() )
+			return -1;
+		return data.get((int)streamPos++) & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		checkClosed();
+		bitOffset = 0;
+		if( len == 0 )
+			return 0;
+		long remaining = data.limit() - streamPos;
+		if( remaining <= 0 )
+			return -1;
+		len = (int)Math.min(len,remaining);
+		data.position((int)streamPos);
+		data.get(b,off,len);
+		streamPos += len;
+		return len;
+	}
+
+	@Override
+	public long length() {
+		return data.limit();
+	}
+}
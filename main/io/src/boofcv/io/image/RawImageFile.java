@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.io.image;
+
+import boofcv.struct.image.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>
+ * Compact binary container for {@link ImageSingleBand}, {@link MultiSpectral}, and {@link ImageInterleaved} images.
+ * The file contains a small header followed by the image's raw primitive data, which allows it to be memory mapped
+ * and copied straight into the image's data array with bulk operations, or accessed without copying through
+ * a read-only view.  Intended for caching intermediate results, e.g. rectified images or gradients, between the
+ * stages of a pipeline, not for long term storage.
+ * </p>
+ *
+ * <p>
+ * Header format, all values are big endian:
+ * <pre>
+ * int    magic number
+ * byte   version
+ * byte   byte order of the pixel data. 0 = big endian, 1 = little endian
+ * byte   {@link ImageType.Family} ordinal
+ * byte   data type, index in {@link #DATA_TYPES}
+ * int    width
+ * int    height
+ * int    number of bands
+ * </pre>
+ * The header is padded to {@link #HEADER_SIZE} bytes so that the pixel data is aligned.  Pixel data is written in
+ * the machine's native byte order without any padding between rows.  Single band and interleaved images are
+ * written one row at a time and MultiSpectral images one band at a time.
+ * </p>
+ *
+ * <p>
+ * The pixel data can't be larger than 2 GB.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RawImageFile {
+	// identifies the file type.  'BRAW'
+	public static final int MAGIC = 0x42524157;
+	public static final int VERSION = 1;
+	// number of bytes before the pixel data starts
+	public static final int HEADER_SIZE = 32;
+
+	// data types which can be saved.  Their index is saved in the header
+	public static final ImageDataType[] DATA_TYPES = new ImageDataType[]{
+			ImageDataType.U8,ImageDataType.S8,ImageDataType.U16,ImageDataType.S16,
+			ImageDataType.S32,ImageDataType.S64,ImageDataType.F32,ImageDataType.F64};
+
+	RandomAccessFile file;
+	FileChannel channel;
+	// read-only mapping of the pixel data
+	MappedByteBuffer buffer;
+
+	// description of the image in the file
+	ImageType<?> imageType;
+	int width;
+	int height;
+
+	/**
+	 * Opens the file, reads its header, and maps its pixel data into memory.
+	 *
+	 * @param fileName Path to the file
+	 * @throws IOException If the file can't be read or is not a raw image file
+	 */
+	public RawImageFile( String fileName ) throws IOException {
+		file = new RandomAccessFile(fileName,"r");
+		channel = file.getChannel();
+
+		boolean success = false;
+		try {
+			if( channel.size() < HEADER_SIZE )
+				throw new IOException("File is too small to be a raw image");
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while( header.hasRemaining() ) {
+				if( channel.read(header,header.position()) < 0 )
+					throw new IOException("Unexpected end of file");
+			}
+			header.flip();
+
+			if( header.getInt() != MAGIC )
+				throw new IOException("Not a raw image file");
+			int version = header.get();
+			if( version != VERSION )
+				throw new IOException("Unsupported version "+version);
+			ByteOrder order = header.get() == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+			int family = header.get();
+			int dataType = header.get();
+			width = header.getInt();
+			height = header.getInt();
+			int numBands = header.getInt();
+
+			if( family < 0 || family >= ImageType.Family.values().length ||
+					dataType < 0 || dataType >= DATA_TYPES.length )
+				throw new IOException("Unknown image type");
+			if( width <= 0 || height <= 0 || numBands <= 0 )
+				throw new IOException("Invalid image shape "+width+" x "+height+" x "+numBands);
+
+			imageType = new ImageType(ImageType.Family.values()[family],DATA_TYPES[dataType],numBands);
+
+			// each term is checked so that the product can't overflow
+			long length = (long)width*height;
+			if( length <= Integer.MAX_VALUE )
+				length *= numBands;
+			if( length <= Integer.MAX_VALUE )
+				length *= DATA_TYPES[dataType].getNumBits()/8;
+			if( length > Integer.MAX_VALUE )
+				throw new IOException("Pixel data is larger than 2 GB");
+			if( channel.size() < HEADER_SIZE + length )
+				throw new IOException("File is truncated");
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY,HEADER_SIZE,length);
+			buffer.order(order);
+			success = true;
+		} finally {
+			if( !success )
+				closeQuietly();
+		}
+	}
+
+	/**
+	 * Saves the image into a raw image file.  Sub-images are supported.
+	 *
+	 * @param image The image which is to be saved.  Must not be empty.
+	 * @param fileName Path to the output file.  If it already exists it will be overwritten.
+	 * @throws IOException If the file can't be written
+	 */
+	public static void save( ImageBase image , String fileName ) throws IOException {
+		ImageType.Family family;
+		ImageDataType dataType;
+		int numBands;
+
+		if( image instanceof ImageSingleBand ) {
+			family = ImageType.Family.SINGLE_BAND;
+			dataType = ((ImageSingleBand)image).getTypeInfo();
+			numBands = 1;
+		} else if( image instanceof MultiSpectral ) {
+			MultiSpectral ms = (MultiSpectral)image;
+			family = ImageType.Family.MULTI_SPECTRAL;
+			dataType = ImageDataType.classToType(ms.getType());
+			numBands = ms.getNumBands();
+		} else if( image instanceof ImageInterleaved ) {
+			family = ImageType.Family.INTERLEAVED;
+			dataType = ((ImageInterleaved)image).getTypeInfo();
+			numBands = ((ImageInterleaved)image).getNumBands();
+		} else {
+			throw new IllegalArgumentException("Unsupported image type "+image.getClass().getSimpleName());
+		}
+
+		int typeIndex = -1;
+		for( int i = 0; i < DATA_TYPES.length; i++ ) {
+			if( DATA_TYPES[i] == dataType )
+				typeIndex = i;
+		}
+		if( typeIndex < 0 )
+			throw new IllegalArgumentException("Unsupported data type "+dataType);
+
+		long length = (long)image.width*image.height*numBands*(dataType.getNumBits()/8);
+		if( length == 0 )
+			throw new IllegalArgumentException("Image is empty");
+		if( length > Integer.MAX_VALUE )
+			throw new IllegalArgumentException("Image is too large");
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC);
+		header.put((byte)VERSION);
+		header.put((byte)(ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? 0 : 1));
+		header.put((byte)family.ordinal());
+		header.put((byte)typeIndex);
+		header.putInt(image.width);
+		header.putInt(image.height);
+		header.putInt(numBands);
+		header.position(0);
+
+		File f = new File(fileName);
+		if( f.exists() && !f.delete() )
+			throw new IOException("Can't overwrite "+fileName);
+
+		RandomAccessFile out = new RandomAccessFile(f,"rw");
+		try {
+			FileChannel channel = out.getChannel();
+			while( header.hasRemaining() )
+				channel.write(header,header.position());
+
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE,HEADER_SIZE,length);
+			buffer.order(ByteOrder.nativeOrder());
+
+			if( image instanceof MultiSpectral ) {
+				MultiSpectral ms = (MultiSpectral)image;
+				int bandLength = image.width*image.height;
+				for( int band = 0; band < numBands; band++ ) {
+					ImageSingleBand b = ms.getBand(band);
+					copyRows(b, getData(b), typed(buffer,dataType,band*bandLength,bandLength), image.width, true);
+				}
+			} else {
+				copyRows(image, getData(image), typed(buffer,dataType,0,(int)(length*8/dataType.getNumBits())),
+						image.width*numBands, true);
+			}
+			buffer.force();
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Copies the pixel data into the provided image.  If the image is null a new one is declared, otherwise it
+	 * is reshaped to match the size of the image in the file.  Sub-images are supported, but can't be reshaped.
+	 *
+	 * @param storage (Optional) Image which the pixels are written into.  Must be the same type as the image in the file.
+	 * @return The image
+	 */
+	public <T extends ImageBase> T load( T storage ) {
+		if( storage == null ) {
+			storage = (T)imageType.createImage(width,height);
+		} else {
+			checkType(storage);
+			if( storage.width != width || storage.height != height )
+				storage.reshape(width,height);
+		}
+
+		if( storage instanceof MultiSpectral ) {
+			MultiSpectral ms = (MultiSpectral)storage;
+			for( int band = 0; band < ms.getNumBands(); band++ ) {
+				ImageSingleBand b = ms.getBand(band);
+				copyRows(b, getData(b), getBand(band), width, false);
+			}
+		} else {
+			copyRows(storage, getData(storage), getData(), width*imageType.getNumBands(), false);
+		}
+
+		return storage;
+	}
+
+	/**
+	 * Returns a read-only view of all the pixel data in the file.  The type of buffer depends on the image's
+	 * data type, e.g. {@link FloatBuffer} for F32 images.  No data is copied.
+	 */
+	public Buffer getData() {
+		return typed(buffer.duplicate().order(buffer.order()),imageType.getDataType(),
+				0,width*height*imageType.getNumBands());
+	}
+
+	/**
+	 * Returns a read-only view of a single band inside a MultiSpectral image.  The type of buffer depends on the
+	 * image's data type, e.g. {@link FloatBuffer} for F32 images.  No data is copied.
+	 *
+	 * @param band Which band
+	 */
+	public Buffer getBand( int band ) {
+		if( imageType.getFamily() != ImageType.Family.MULTI_SPECTRAL && band != 0 )
+			throw new IllegalArgumentException("Only MultiSpectral images have bands stored separately");
+		if( band < 0 || band >= imageType.getNumBands() )
+			throw new IllegalArgumentException("Invalid band "+band);
+
+		int bandLength = width*height;
+		return typed(buffer.duplicate().order(buffer.order()),imageType.getDataType(),band*bandLength,bandLength);
+	}
+
+	/**
+	 * Closes the file.  Previously returned views should not be used after this has been called.
+	 */
+	public void close() throws IOException {
+		buffer = null;
+		if( channel != null )
+			channel.close();
+		if( file != null )
+			file.close();
+	}
+
+	/**
+	 * Closes the file after an error without hiding the original exception
+	 */
+	private void closeQuietly() {
+		try {
+			close();
+		} catch( IOException ignore ) {
+		}
+	}
+
+	public ImageType<?> getImageType() {
+		return imageType;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	private void checkType( ImageBase image ) {
+		ImageDataType expected = imageType.getDataType();
+		boolean matches;
+		switch( imageType.getFamily() ) {
+			case SINGLE_BAND:
+				matches = image instanceof ImageSingleBand && ((ImageSingleBand)image).getTypeInfo() == expected;
+				break;
+
+			case MULTI_SPECTRAL:
+				matches = image instanceof MultiSpectral &&
+						ImageDataType.classToType(((MultiSpectral)image).getType()) == expected &&
+						((MultiSpectral)image).getNumBands() == imageType.getNumBands();
+				break;
+
+			default:
+				matches = image instanceof ImageInterleaved &&
+						((ImageInterleaved)image).getTypeInfo() == expected &&
+						((ImageInterleaved)image).getNumBands() == imageType.getNumBands();
+		}
+		if( !matches )
+			throw new IllegalArgumentException("Image doesn't match the type in the file");
+	}
+
+	/**
+	 * Creates a typed view of a region inside the buffer.  Offset and length are in elements.
+	 */
+	private static Buffer typed( ByteBuffer buffer , ImageDataType type , int offset , int length ) {
+		int bytes = type.getNumBits()/8;
+		ByteOrder order = buffer.order();
+		buffer.limit(offset*bytes + length*bytes);
+		buffer.position(offset*bytes);
+		ByteBuffer region = buffer.slice().order(order);
+		buffer.clear();
+
+		switch( bytes ) {
+			case 1: return region;
+			case 2: return region.asShortBuffer();
+			case 4: return type.isInteger() ? region.asIntBuffer() : region.asFloatBuffer();
+			case 8: return type.isInteger() ? region.asLongBuffer() : region.asDoubleBuffer();
+		}
+		throw new RuntimeException("BUG");
+	}
+
+	/**
+	 * Returns the image's data array.  The array's type depends on the image type.
+	 */
+	private static Object getData( ImageBase image ) {
+		if( image instanceof ImageInt8 ) return ((ImageInt8)image).data;
+		if( image instanceof ImageInt16 ) return ((ImageInt16)image).data;
+		if( image instanceof ImageSInt32 ) return ((ImageSInt32)image).data;
+		if( image instanceof ImageSInt64 ) return ((ImageSInt64)image).data;
+		if( image instanceof ImageFloat32 ) return ((ImageFloat32)image).data;
+		if( image instanceof ImageFloat64 ) return ((ImageFloat64)image).data;
+		if( image instanceof InterleavedI8 ) return ((InterleavedI8)image).data;
+		if( image instanceof InterleavedI16 ) return ((InterleavedI16)image).data;
+		if( image instanceof InterleavedS32 ) return ((InterleavedS32)image).data;
+		if( image instanceof InterleavedS64 ) return ((InterleavedS64)image).data;
+		if( image instanceof InterleavedF32 ) return ((InterleavedF32)image).data;
+		if( image instanceof InterleavedF64 ) return ((InterleavedF64)image).data;
+		throw new IllegalArgumentException("Unsupported image type "+image.getClass().getSimpleName());
+	}
+
+	/**
+	 * Copies pixels between the image's data array and the buffer.  If the image isn't a sub-image then everything
+	 * is copied at once, otherwise one row at a time.
+	 *
+	 * @param rowLength Number of elements in each row
+	 * @param toBuffer If true the image is copied into the buffer, otherwise the buffer into the image
+	 */
+	private static void copyRows( ImageBase image , Object data , Buffer buffer , int rowLength , boolean toBuffer ) {
+		if( image.startIndex == 0 && image.stride == rowLength ) {
+			copy(data, 0, buffer, rowLength*image.height, toBuffer);
+		} else {
+			for( int y = 0; y < image.height; y++ ) {
+				copy(data, image.startIndex + y*image.stride, buffer, rowLength, toBuffer);
+			}
+		}
+	}
+
+	private static void copy( Object data , int offset , Buffer buffer , int length , boolean toBuffer ) {
+		if( buffer instanceof ByteBuffer ) {
+			if( toBuffer ) ((ByteBuffer)buffer).put((byte[])data,offset,length);
+			else ((ByteBuffer)buffer).get((byte[])data,offset,length);
+		} else if( buffer instanceof ShortBuffer ) {
+			if( toBuffer ) ((ShortBuffer)buffer).put((short[])data,offset,length);
+			else ((ShortBuffer)buffer).get((short[])data,offset,length);
+		} else if( buffer instanceof IntBuffer ) {
+			if( toBuffer ) ((IntBuffer)buffer).put((int[])data,offset,length);
+			else ((IntBuffer)buffer).get((int[])data,offset,length);
+		} else if( buffer instanceof LongBuffer ) {
+			if( toBuffer ) ((LongBuffer)buffer).put((long[])data,offset,length);
+			else ((LongBuffer)buffer).get((long[])data,offset,length);
+		} else if( buffer instanceof FloatBuffer ) {
+			if( toBuffer ) ((FloatBuffer)buffer).put((float[])data,offset,length);
+			else ((FloatBuffer)buffer).get((float[])data,offset,length);
+		} else {
+			if( toBuffer ) ((DoubleBuffer)buffer).put((double[])data,offset,length);
+			else ((DoubleBuffer)buffer).get((double[])data,offset,length);
+		}
+	}
+}
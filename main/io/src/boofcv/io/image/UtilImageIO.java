@@ -19,6 +19,7 @@
 package boofcv.io.image;
 
 import boofcv.core.image.ConvertBufferedImage;
+import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageSingleBand;
 import boofcv.struct.image.ImageUInt8;
 import boofcv.struct.image.MultiSpectral;
@@ -442,6 +443,37 @@ public class UtilImageIO {
 		os.close();
 	}
 
+	/**
+	 * Saves an image in the raw format used by {@link RawImageFile}.  Any single band, MultiSpectral, or
+	 * interleaved image can be saved and read back in without any loss of precision.
+	 *
+	 * @param image The image being saved
+	 * @param fileName Location where the image is to be written to.
+	 * @throws IOException
+	 */
+	public static void saveRaw( ImageBase image , String fileName ) throws IOException {
+		RawImageFile.save(image, fileName);
+	}
+
+	/**
+	 * Loads an image saved by {@link #saveRaw}.  The file is memory mapped and copied directly into the
+	 * image's data array.
+	 *
+	 * @param fileName Location of the raw image file
+	 * @param storage (Optional) Where the image is written in to.  Will be resized if needed.  Must be the same
+	 *                type of image as the one in the file.  If null a new image is declared.
+	 * @return The read in image
+	 * @throws IOException
+	 */
+	public static <T extends ImageBase> T loadRaw( String fileName , T storage ) throws IOException {
+		RawImageFile file = new RawImageFile(fileName);
+		try {
+			return file.load(storage);
+		} finally {
+			file.close();
+		}
+	}
+
 	private static String readLine( DataInputStream in ) throws IOException {
 		String s = "";
 		while( true ) {
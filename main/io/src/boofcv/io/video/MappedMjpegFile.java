@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.io.video;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Provides random access to the JPEG images inside an MJPEG file by memory mapping it.  The first time a file is
+ * opened it is scanned for the start and end of each JPEG image, using the same markers as {@link VideoMjpegCodec},
+ * and the location of each image is saved in an index.  After that the compressed data for any frame can be
+ * accessed in constant time without copying it.
+ * </p>
+ *
+ * <p>
+ * The index can optionally be saved to a file next to the video, with an ".index" suffix, so that the file does not
+ * need to be scanned again the next time it is opened.  A saved index is only used if the size and modification
+ * time of the video match the ones recorded in the index.
+ * </p>
+ *
+ * <p>
+ * Files larger than 2 GB are mapped in several segments.  Each frame is entirely contained inside a single segment.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MappedMjpegFile {
+	// identifies an index file
+	public static final int INDEX_MAGIC = 0x4D4A5049;
+	public static final int INDEX_VERSION = 1;
+	// number of bytes in the index before the list of frames
+	public static final int INDEX_HEADER_SIZE = 4+4+8+8+4;
+
+	// Maximum size of a single memory mapped region
+	long maxSegmentSize = Integer.MAX_VALUE;
+	// size of the region which is mapped at once while scanning for images
+	int scanBlockSize = 64*1024*1024;
+
+	RandomAccessFile file;
+	FileChannel channel;
+	long fileLength;
+
+	// location and size of each frame in the file
+	long[] frameOffset = new long[0];
+	int[] frameLength = new int[0];
+	int numFrames;
+
+	// which segment each frame is inside of
+	int[] frameSegment;
+	// location and size of each segment in the file
+	long[] segmentOffset;
+	long[] segmentLength;
+	// memory mapped segments.  Mapped the first time they are accessed
+	MappedByteBuffer[] segments;
+
+	/**
+	 * Opens the file and loads or creates its index.
+	 *
+	 * @param fileName Path to the MJPEG file
+	 * @param persistIndex If true a saved index will be loaded and if none is available the index will be saved.
+	 *                     The index is rebuilt if it can't be read and the video is still opened if it can't be saved.
+	 * @throws IOException If the file can't be opened or read
+	 */
+	public MappedMjpegFile( String fileName , boolean persistIndex ) throws IOException {
+		File f = new File(fileName);
+		file = new RandomAccessFile(f,"r");
+		channel = file.getChannel();
+
+		boolean success = false;
+		try {
+			fileLength = channel.size();
+
+			File indexFile = new File(fileName+".index");
+			boolean loaded = false;
+			// the index is only a cache, so failing to load or save it shouldn't stop the video from being read
+			if( persistIndex && indexFile.isFile() ) {
+				try {
+					loaded = loadIndex(indexFile,f.lastModified());
+				} catch( IOException e ) {
+					loaded = false;
+				}
+			}
+			if( !loaded ) {
+				buildIndex();
+				if( persistIndex ) {
+					try {
+						saveIndex(indexFile, f.lastModified());
+					} catch( IOException e ) {
+						// don't leave a partially written index behind
+						if( indexFile.isFile() )
+							indexFile.delete();
+					}
+				}
+			}
+			declareSegments();
+			success = true;
+		} finally {
+			if( !success )
+				close();
+		}
+	}
+
+	/**
+	 * Opens the file and builds the index without saving it
+	 */
+	public MappedMjpegFile( String fileName ) throws IOException {
+		this(fileName,false);
+	}
+
+	/**
+	 * Scans through the file and records the location of each JPEG image
+	 */
+	protected void buildIndex() throws IOException {
+		numFrames = 0;
+
+		boolean foundFF = false;
+		boolean inside = false;
+		long frameStart = 0;
+
+		byte[] work = new byte[64*1024];
+		for( long blockStart = 0; blockStart < fileLength; blockStart += scanBlockSize ) {
+			long size = Math.min(scanBlockSize,fileLength-blockStart);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,blockStart,size);
+
+			long location = blockStart;
+			while( buffer.hasRemaining() ) {
+				int length = Math.min(work.length,buffer.remaining());
+				buffer.get(work,0,length);
+
+				for( int i = 0; i < length; i++ , location++ ) {
+					byte b = work[i];
+					if( foundFF ) {
+						if( !inside && b == VideoMjpegCodec.SOI ) {
+							inside = true;
+							frameStart = location-1;
+							foundFF = false;
+						} else if( inside && b == VideoMjpegCodec.EOI ) {
+							addFrame(frameStart, location + 1 - frameStart);
+							inside = false;
+							foundFF = false;
+						} else {
+							foundFF = b == (byte)0xFF;
+						}
+					} else {
+						foundFF = b == (byte)0xFF;
+					}
+				}
+			}
+		}
+
+		// the last image was truncated.  Let the decoder decide what to do with it
+		if( inside && fileLength-frameStart > 2 )
+			addFrame(frameStart,fileLength-frameStart);
+	}
+
+	private void addFrame( long offset , long length ) throws IOException {
+		if( length > maxSegmentSize )
+			throw new IOException("Frame is too large. "+length+" bytes");
+
+		if( numFrames == frameOffset.length ) {
+			int size = Math.max(1024,numFrames*2);
+			frameOffset = Arrays.copyOf(frameOffset,size);
+			frameLength = Arrays.copyOf(frameLength,size);
+		}
+		frameOffset[numFrames] = offset;
+		frameLength[numFrames] = (int)length;
+		numFrames++;
+	}
+
+	/**
+	 * Splits the file into segments which can be memory mapped.  Segments start at the beginning of a frame and
+	 * are extended until the next frame would make it too large.
+	 */
+	protected void declareSegments() {
+		frameSegment = new int[numFrames];
+		long[] offsets = new long[numFrames];
+		long[] lengths = new long[numFrames];
+
+		int numSegments = 0;
+		for( int i = 0; i < numFrames; i++ ) {
+			long end = frameOffset[i] + frameLength[i];
+			if( numSegments == 0 || end - offsets[numSegments-1] > maxSegmentSize ) {
+				offsets[numSegments++] = frameOffset[i];
+			}
+			lengths[numSegments-1] = end - offsets[numSegments-1];
+			frameSegment[i] = numSegments-1;
+		}
+
+		segmentOffset = Arrays.copyOf(offsets,numSegments);
+		segmentLength = Arrays.copyOf(lengths,numSegments);
+		segments = new MappedByteBuffer[numSegments];
+	}
+
+	/**
+	 * Returns the compressed JPEG data for the specified frame.  The returned buffer directly references the
+	 * memory mapped file and is read only.  Its position is zero and its limit is the size of the image.
+	 * Each call returns a new buffer so it is safe to call from multiple threads.
+	 *
+	 * @param frame Index of the frame
+	 * @return JPEG data for the frame
+	 */
+	public ByteBuffer getFrame( int frame ) {
+		if( frame < 0 || frame >= numFrames )
+			throw new IllegalArgumentException("Frame out of bounds. "+frame);
+
+		int index = frameSegment[frame];
+		ByteBuffer buffer = getSegment(index).duplicate();
+		int start = (int)(frameOffset[frame]-segmentOffset[index]);
+		buffer.limit(start+frameLength[frame]);
+		buffer.position(start);
+		return buffer.slice();
+	}
+
+	private synchronized MappedByteBuffer getSegment( int index ) {
+		if( segments[index] == null ) {
+			if( channel == null )
+				throw new IllegalStateException("File has been closed");
+			try {
+				segments[index] = channel.map(FileChannel.MapMode.READ_ONLY,segmentOffset[index],segmentLength[index]);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return segments[index];
+	}
+
+	/**
+	 * Saves the index to a file
+	 *
+	 * @param indexFile Where the index is saved
+	 * @param lastModified Modification time of the video
+	 */
+	public void saveIndex( File indexFile , long lastModified ) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+		try {
+			out.writeInt(INDEX_MAGIC);
+			out.writeInt(INDEX_VERSION);
+			out.writeLong(fileLength);
+			out.writeLong(lastModified);
+			out.writeInt(numFrames);
+			for( int i = 0; i < numFrames; i++ ) {
+				out.writeLong(frameOffset[i]);
+				out.writeInt(frameLength[i]);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Loads a saved index.  If the index is for a different version of the file then it is not used.
+	 *
+	 * @param indexFile File containing the index
+	 * @param lastModified Modification time of the video
+	 * @return true if the index was loaded or false if it doesn't match the video
+	 */
+	public boolean loadIndex( File indexFile , long lastModified ) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+		try {
+			if( in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION )
+				return false;
+			if( in.readLong() != fileLength || in.readLong() != lastModified )
+				return false;
+
+			// make sure the number of frames is possible before declaring memory.  Each frame is 12 bytes
+			int N = in.readInt();
+			if( N < 0 || N*12L > indexFile.length() - INDEX_HEADER_SIZE )
+				return false;
+			long[] offsets = new long[N];
+			int[] lengths = new int[N];
+			for( int i = 0; i < N; i++ ) {
+				offsets[i] = in.readLong();
+				lengths[i] = in.readInt();
+				if( offsets[i] < 0 || lengths[i] < 0 || offsets[i] + lengths[i] > fileLength )
+					return false;
+			}
+			frameOffset = offsets;
+			frameLength = lengths;
+			numFrames = N;
+			return true;
+		} catch( EOFException e ) {
+			return false;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Closes the file.  Java provides no way to explicitly unmap a file, so memory which has already been mapped
+	 * is released once all the buffers referencing it have been garbage collected.
+	 */
+	public synchronized void close() {
+		if( channel == null )
+			return;
+		try {
+			channel.close();
+			file.close();
+		} catch (IOException ignore) {
+		}
+		channel = null;
+		file = null;
+		if( segments != null )
+			Arrays.fill(segments,null);
+	}
+
+	/**
+	 * Number of images in the file
+	 */
+	public int getNumberOfFrames() {
+		return numFrames;
+	}
+
+	/**
+	 * Location of the first byte of the frame in the file
+	 */
+	public long getFrameOffset( int frame ) {
+		return frameOffset[frame];
+	}
+
+	/**
+	 * Number of bytes in the frame
+	 */
+	public int getFrameLength( int frame ) {
+		return frameLength[frame];
+	}
+
+	public long getFileLength() {
+		return fileLength;
+	}
+}
@@ -22,20 +22,18 @@ import boofcv.io.MediaManager;
 import boofcv.io.VideoCallBack;
 import boofcv.io.image.SimpleImageSequence;
 import boofcv.io.image.UtilImageIO;
-import boofcv.io.video.VideoMjpegCodec;
 import boofcv.io.wrapper.images.ImageStreamSequence;
-import boofcv.io.wrapper.images.JpegByteImageSequence;
+import boofcv.io.wrapper.images.MjpegMappedSequence;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
 import java.io.Reader;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -83,10 +81,8 @@ public class DefaultMediaManager implements MediaManager {
 
 		if( fileName.endsWith("mjpeg") || fileName.endsWith("MJPEG") ) {
 			try {
-				VideoMjpegCodec codec = new VideoMjpegCodec();
-				List<byte[]> data = codec.read(new FileInputStream(fileName));
-				return new JpegByteImageSequence<T>(type,data,false);
-			} catch (FileNotFoundException e) {
+				return new MjpegMappedSequence<T>(fileName,type);
+			} catch (IOException e) {
 				throw new RuntimeException(e);
 			}
 		} else if( fileName.endsWith("mpng") || fileName.endsWith("MPNG")) {
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.io.wrapper.images;
+
+import boofcv.core.image.ConvertBufferedImage;
+import boofcv.io.image.ByteBufferImageInputStream;
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.io.video.MappedMjpegFile;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Image sequence which reads from a memory mapped MJPEG file using {@link MappedMjpegFile}.  Images are decoded
+ * straight from the mapped file and any frame in the sequence can be jumped to in constant time.
+ *
+ * @author Peter Abeles
+ */
+public class MjpegMappedSequence<T extends ImageBase> implements SimpleImageSequence<T> {
+
+	MappedMjpegFile file;
+
+	// index of the next frame which will be read
+	int index;
+	// index of the most recently read frame
+	int frameNumber = -1;
+
+	// type of image it outputs
+	ImageType<T> imageType;
+
+	BufferedImage imageGUI;
+	T output;
+
+	// loop back and forth in the sequence
+	boolean loop = false;
+	// is it traversing in the forwards or backwards direction
+	boolean forward = true;
+
+	public MjpegMappedSequence( MappedMjpegFile file , ImageType<T> imageType ) {
+		this.file = file;
+		this.imageType = imageType;
+
+		output = imageType.createImage(1,1);
+	}
+
+	/**
+	 * Opens the file without saving its index
+	 */
+	public MjpegMappedSequence( String fileName , ImageType<T> imageType ) throws IOException {
+		this(new MappedMjpegFile(fileName),imageType);
+	}
+
+	@Override
+	public boolean hasNext() {
+		if( loop )
+			return file.getNumberOfFrames() > 0;
+		return index < file.getNumberOfFrames();
+	}
+
+	@Override
+	public T next() {
+		frameNumber = index;
+		try {
+			imageGUI = ImageIO.read(new ByteBufferImageInputStream(file.getFrame(index)));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		if( imageGUI == null )
+			throw new RuntimeException("Unable to decode frame "+index);
+
+		int N = file.getNumberOfFrames();
+		if( forward ) {
+			index++;
+			if( loop && index >= N ) {
+				index = Math.max(0,N-2);
+				forward = false;
+			}
+		} else {
+			index--;
+			if( loop && index < 0 ) {
+				index = Math.min(1,N-1);
+				forward = true;
+			}
+		}
+
+		output.reshape(imageGUI.getWidth(),imageGUI.getHeight());
+		ConvertBufferedImage.convertFrom(imageGUI, output, true);
+
+		return output;
+	}
+
+	/**
+	 * Changes the frame which will be read by the next call to {@link #next()}.
+	 *
+	 * @param frame Index of the frame
+	 */
+	public void setFrameNumber( int frame ) {
+		if( frame < 0 || frame >= file.getNumberOfFrames() )
+			throw new IllegalArgumentException("Frame out of bounds. "+frame);
+		index = frame;
+		forward = true;
+	}
+
+	/**
+	 * Total number of frames in the sequence
+	 */
+	public int getTotalFrames() {
+		return file.getNumberOfFrames();
+	}
+
+	@Override
+	public void setLoop(boolean loop) {
+		this.loop = loop;
+	}
+
+	@Override
+	public BufferedImage getGuiImage() {
+		return imageGUI;
+	}
+
+	@Override
+	public void close() {
+		file.close();
+	}
+
+	@Override
+	public int getFrameNumber() {
+		return frameNumber;
+	}
+
+	@Override
+	public ImageType<T> getImageType() {
+		return imageType;
+	}
+
+	@Override
+	public void reset() {
+		index = 0;
+		frameNumber = -1;
+		forward = true;
+	}
+
+	public MappedMjpegFile getFile() {
+		return file;
+	}
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.io.wrapper.images;
+
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * <p>
+ * Wrapper around another {@link SimpleImageSequence} which reads, decodes, and converts images in a background
+ * thread while the user is processing the previous image.  Images are written into a fixed size ring of
+ * reusable buffers.  Once all the buffers are full the background thread blocks until the user requests the
+ * next image, which prevents the decoder from running arbitrarily far ahead of the consumer.
+ * </p>
+ *
+ * <p>
+ * The image returned by {@link #next()} remains valid until the next call to {@link #next()}, at which point its
+ * buffer is recycled.  The GUI image is the same reference returned by the wrapped sequence.  This is safe for
+ * sequences which create a new image every frame, such as ones which decode JPEG images, but if the wrapped
+ * sequence recycles its GUI image it can be modified before the user sees it.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PipelinedImageSequence<T extends ImageBase> implements SimpleImageSequence<T> {
+
+	// sequence which is being read in the background
+	SimpleImageSequence<T> source;
+
+	// decoded frames waiting to be read by the user.  Bounded by the number of frames
+	BlockingQueue<Frame<T>> filled = new LinkedBlockingQueue<Frame<T>>();
+	// frames which can be written into by the background thread
+	BlockingQueue<Frame<T>> free = new LinkedBlockingQueue<Frame<T>>();
+
+	// all the frames that were declared
+	List<Frame<T>> frames = new ArrayList<Frame<T>>();
+
+	// marks the end of the sequence in the filled queue
+	final Frame<T> end = new Frame<T>(null);
+	// tells the background thread to stop when it is taken from the free queue
+	final Frame<T> stop = new Frame<T>(null);
+
+	// frame which was most recently returned by next()
+	Frame<T> current;
+	// frame which has been removed from the filled queue by hasNext() but not yet returned
+	Frame<T> pending;
+
+	Thread thread;
+	volatile boolean running;
+	// true if the background thread reached the end of the sequence or an error
+	volatile boolean finished;
+
+	/**
+	 * Creates and starts reading from the sequence.
+	 *
+	 * @param source The sequence which is to be read in the background.
+	 * @param numBuffers Number of images which can be read ahead of the user.  Must be at least 1.
+	 */
+	public PipelinedImageSequence(SimpleImageSequence<T> source, int numBuffers) {
+		if( numBuffers < 1 )
+			throw new IllegalArgumentException("Must have at least one buffer");
+
+		this.source = source;
+
+		// one additional buffer for the image being processed by the user
+		ImageType<T> imageType = source.getImageType();
+		for( int i = 0; i < numBuffers+1; i++ ) {
+			Frame<T> f = new Frame<T>(imageType.createImage(1, 1));
+			frames.add(f);
+			free.add(f);
+		}
+
+		startThread();
+	}
+
+	/**
+	 * Creates a pipeline with 2 buffers.
+	 */
+	public PipelinedImageSequence(SimpleImageSequence<T> source) {
+		this(source,2);
+	}
+
+	@Override
+	public boolean hasNext() {
+		if( pending == null ) {
+			// closed and nothing left to read
+			if( thread == null && filled.isEmpty() )
+				return false;
+			pending = takeFilled();
+		}
+		return pending != end;
+	}
+
+	@Override
+	public T next() {
+		if( !hasNext() )
+			throw new IllegalArgumentException("No more images in the sequence");
+
+		if( current != null )
+			free.add(current);
+		current = pending;
+		pending = null;
+
+		if( current.error != null ) {
+			RuntimeException e = current.error;
+			current.error = null;
+			throw e;
+		}
+
+		return current.image;
+	}
+
+	@Override
+	public <InternalImage> InternalImage getGuiImage() {
+		if( current == null )
+			return null;
+		return (InternalImage)current.gui;
+	}
+
+	@Override
+	public void close() {
+		stopThread();
+		source.close();
+	}
+
+	@Override
+	public int getFrameNumber() {
+		if( current == null )
+			return -1;
+		return current.frameNumber;
+	}
+
+	/**
+	 * Changes the looping behavior of the wrapped sequence.  Images which have already been read in the
+	 * background are not affected.
+	 */
+	@Override
+	public void setLoop(boolean loop) {
+		stopThread();
+		try {
+			source.setLoop(loop);
+			if( loop && finished ) {
+				// the end of the sequence was reached but it can now keep on reading
+				if( pending == end )
+					pending = null;
+				filled.remove(end);
+				finished = false;
+			}
+		} finally {
+			startThread();
+		}
+	}
+
+	@Override
+	public ImageType<T> getImageType() {
+		return source.getImageType();
+	}
+
+	/**
+	 * Discards all the images which have been read ahead and restarts the wrapped sequence
+	 */
+	@Override
+	public void reset() {
+		stopThread();
+		try {
+			source.reset();
+		} finally {
+			recycleAll();
+			finished = false;
+			startThread();
+		}
+	}
+
+	/**
+	 * Puts all frames back into the free queue
+	 */
+	private void recycleAll() {
+		filled.clear();
+		free.clear();
+		for( int i = 0; i < frames.size(); i++ ) {
+			Frame<T> f = frames.get(i);
+			f.gui = null;
+			f.error = null;
+			free.add(f);
+		}
+		current = null;
+		pending = null;
+	}
+
+	private Frame<T> takeFilled() {
+		try {
+			return filled.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
+	private void startThread() {
+		if( finished )
+			return;
+		running = true;
+		thread = new Thread(new Worker(),"PipelinedImageSequence");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops the background thread and blocks until it has finished.  If an image is being decoded
+	 * it will finish decoding it first.
+	 */
+	private void stopThread() {
+		if( thread == null )
+			return;
+		running = false;
+		free.add(stop);
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+		free.remove(stop);
+		thread = null;
+	}
+
+	/**
+	 * Reads images from the source until told to stop or the end of the sequence is reached
+	 */
+	private class Worker implements Runnable {
+		@Override
+		public void run() {
+			while( running ) {
+				Frame<T> f;
+				try {
+					f = free.take();
+				} catch (InterruptedException e) {
+					return;
+				}
+				if( f == stop || !running ) {
+					if( f != stop )
+						free.add(f);
+					return;
+				}
+
+				if( !source.hasNext() ) {
+					free.add(f);
+					finish();
+					return;
+				}
+
+				try {
+					T image = source.next();
+					f.image.reshape(image.width, image.height);
+					f.image.setTo(image);
+					f.gui = source.getGuiImage();
+					f.frameNumber = source.getFrameNumber();
+				} catch( RuntimeException e ) {
+					f.error = e;
+					filled.add(f);
+					finish();
+					return;
+				}
+				filled.add(f);
+			}
+		}
+
+		private void finish() {
+			finished = true;
+			filled.add(end);
+		}
+	}
+
+	/**
+	 * Storage for a single image read in from the sequence
+	 */
+	static class Frame<T extends ImageBase> {
+		T image;
+		Object gui;
+		int frameNumber;
+		// exception thrown while reading the frame
+		RuntimeException error;
+
+		Frame(T image) {
+			this.image = image;
+		}
+	}
+}
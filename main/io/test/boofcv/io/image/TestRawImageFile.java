@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.io.image;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.ShortBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRawImageFile {
+
+	Random rand = new Random(234);
+	int width = 20;
+	int height = 30;
+
+	/**
+	 * Save and load every supported type of image
+	 */
+	@Test
+	public void saveLoad_allTypes() throws IOException {
+		Class singleTypes[] = new Class[]{ImageUInt8.class,ImageSInt8.class,ImageUInt16.class,ImageSInt16.class,
+				ImageSInt32.class,ImageSInt64.class,ImageFloat32.class,ImageFloat64.class};
+		Class interTypes[] = new Class[]{InterleavedU8.class,InterleavedS8.class,InterleavedU16.class,
+				InterleavedS16.class,InterleavedS32.class,InterleavedS64.class,InterleavedF32.class,InterleavedF64.class};
+
+		for( Class type : singleTypes ) {
+			checkSaveLoad(GeneralizedImageOps.createSingleBand(type, width, height));
+			checkSaveLoad(new MultiSpectral(type, width, height, 3));
+		}
+		for( Class type : interTypes ) {
+			checkSaveLoad(GeneralizedImageOps.createInterleaved(type, width, height, 2));
+		}
+	}
+
+	private void checkSaveLoad( ImageBase orig ) throws IOException {
+		GImageMiscOps.fillUniform(orig, rand, 0, 100);
+
+		File f = File.createTempFile("boofcv",".raw");
+		try {
+			// see if sub-images are correctly handled when saving and loading
+			for( int i = 0; i < 2; i++ ) {
+				ImageBase input = i == 0 ? orig : BoofTesting.createSubImageOf(orig);
+				RawImageFile.save(input, f.getPath());
+
+				RawImageFile file = new RawImageFile(f.getPath());
+				assertEquals(width, file.getWidth());
+				assertEquals(height, file.getHeight());
+
+				ImageBase found = file.load(null);
+				assertTrue(found.getClass() == orig.getClass());
+				BoofTesting.assertEquals(orig, found, 0);
+
+				ImageBase storage = BoofTesting.createSubImageOf(orig._createNew(width, height));
+				file.load(storage);
+				BoofTesting.assertEquals(orig, storage, 0);
+
+				file.close();
+			}
+		} finally {
+			f.delete();
+		}
+	}
+
+	/**
+	 * The provided storage should be reshaped to the size of the image in the file
+	 */
+	@Test
+	public void load_reshape() throws IOException {
+		ImageFloat32 orig = new ImageFloat32(width,height);
+		GImageMiscOps.fillUniform(orig, rand, -10, 10);
+
+		File f = File.createTempFile("boofcv",".raw");
+		try {
+			RawImageFile.save(orig, f.getPath());
+
+			RawImageFile file = new RawImageFile(f.getPath());
+			ImageFloat32 found = file.load(new ImageFloat32(5,7));
+			file.close();
+
+			BoofTesting.assertEquals(orig, found, 0);
+		} finally {
+			f.delete();
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void load_wrongType() throws IOException {
+		File f = File.createTempFile("boofcv",".raw");
+		try {
+			RawImageFile.save(new ImageFloat32(width,height), f.getPath());
+
+			RawImageFile file = new RawImageFile(f.getPath());
+			try {
+				file.load(new ImageUInt8(width,height));
+			} finally {
+				file.close();
+			}
+		} finally {
+			f.delete();
+		}
+	}
+
+	/**
+	 * Check the read-only views of the mapped data
+	 */
+	@Test
+	public void views() throws IOException {
+		MultiSpectral<ImageSInt16> orig = new MultiSpectral<ImageSInt16>(ImageSInt16.class,width,height,2);
+		GImageMiscOps.fillUniform(orig, rand, -1000, 1000);
+
+		File f = File.createTempFile("boofcv",".raw");
+		try {
+			RawImageFile.save(orig, f.getPath());
+
+			RawImageFile file = new RawImageFile(f.getPath());
+			assertEquals(ImageType.Family.MULTI_SPECTRAL, file.getImageType().getFamily());
+			assertEquals(ImageDataType.S16, file.getImageType().getDataType());
+			assertEquals(2, file.getImageType().getNumBands());
+
+			ShortBuffer all = (ShortBuffer)file.getData();
+			assertEquals(width*height*2, all.remaining());
+
+			for( int band = 0; band < 2; band++ ) {
+				ShortBuffer view = (ShortBuffer)file.getBand(band);
+				assertEquals(width*height, view.remaining());
+				for( int y = 0; y < height; y++ ) {
+					for( int x = 0; x < width; x++ ) {
+						short expected = (short)orig.getBand(band).get(x,y);
+						assertEquals(expected, view.get(y*width+x));
+						assertEquals(expected, all.get(band*width*height + y*width+x));
+					}
+				}
+			}
+
+			try {
+				all.put(0,(short)2);
+				fail("Should be read only");
+			} catch( ReadOnlyBufferException ignore ) {}
+
+			file.close();
+		} finally {
+			f.delete();
+		}
+	}
+
+	@Test
+	public void views_interleaved() throws IOException {
+		InterleavedF32 orig = new InterleavedF32(width,height,3);
+		GImageMiscOps.fillUniform(orig, rand, -10, 10);
+
+		File f = File.createTempFile("boofcv",".raw");
+		try {
+			RawImageFile.save(orig, f.getPath());
+
+			RawImageFile file = new RawImageFile(f.getPath());
+			FloatBuffer view = (FloatBuffer)file.getData();
+			assertEquals(width*height*3, view.remaining());
+			for( int i = 0; i < view.remaining(); i++ ) {
+				assertEquals(orig.data[i], view.get(i), 0);
+			}
+			file.close();
+		} finally {
+			f.delete();
+		}
+	}
+
+	@Test(expected=IOException.class)
+	public void notRawImage() throws IOException {
+		File f = File.createTempFile("boofcv",".raw");
+		try {
+			FileOutputStream out = new FileOutputStream(f);
+			out.write(new byte[100]);
+			out.close();
+
+			new RawImageFile(f.getPath());
+		} finally {
+			f.delete();
+		}
+	}
+
+	/**
+	 * Corrupt headers with impossible image shapes should be rejected before the data is mapped
+	 */
+	@Test
+	public void invalidShape() throws IOException {
+		checkInvalidShape(-5, height, 1);
+		checkInvalidShape(width, 0, 1);
+		checkInvalidShape(width, height, -2);
+		// larger than 2 GB and overflows a long if multiplied naively
+		checkInvalidShape(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+		checkInvalidShape(100000, 100000, 1);
+	}
+
+	private void checkInvalidShape( int width , int height , int numBands ) throws IOException {
+		File f = File.createTempFile("boofcv",".raw");
+		try {
+			ByteBuffer header = ByteBuffer.allocate(RawImageFile.HEADER_SIZE);
+			header.putInt(RawImageFile.MAGIC);
+			header.put((byte)RawImageFile.VERSION);
+			header.put((byte)0);
+			header.put((byte)ImageType.Family.SINGLE_BAND.ordinal());
+			header.put((byte)0);
+			header.putInt(width);
+			header.putInt(height);
+			header.putInt(numBands);
+
+			FileOutputStream out = new FileOutputStream(f);
+			out.write(header.array());
+			out.write(new byte[1000]);
+			out.close();
+
+			try {
+				new RawImageFile(f.getPath());
+				fail("Should have thrown an exception");
+			} catch( IOException ignore ) {}
+		} finally {
+			// the file can only be deleted on some platforms if it was closed
+			assertTrue(f.delete());
+		}
+	}
+}
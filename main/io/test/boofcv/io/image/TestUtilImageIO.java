@@ -19,6 +19,7 @@
 package boofcv.io.image;
 
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageUInt8;
 import boofcv.struct.image.MultiSpectral;
 import org.junit.Test;
@@ -109,6 +110,26 @@ public class TestUtilImageIO {
 		assertTrue(f.delete());
 	}
 
+	@Test
+	public void loadRaw_saveRaw() throws IOException {
+		MultiSpectral<ImageFloat32> orig = new MultiSpectral<ImageFloat32>(ImageFloat32.class,width,height,2);
+		GImageMiscOps.fillUniform(orig,rand,-100,100);
+
+		UtilImageIO.saveRaw(orig,"temp.raw");
+		MultiSpectral<ImageFloat32> found = UtilImageIO.loadRaw("temp.raw",null);
+
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				for( int k = 0; k < 2; k++ )
+					assertEquals(orig.getBand(k).get(x,y),found.getBand(k).get(x,y),0);
+			}
+		}
+
+		// clean up
+		File f = new File("temp.raw");
+		assertTrue(f.delete());
+	}
+
 	/**
 	 * See if load image fails gracefully if an image is not present
 	 */
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.io.video;
+
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMappedMjpegFile {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare the found frames against what {@link VideoMjpegCodec} finds
+	 */
+	@Test
+	public void compareToCodec() throws IOException {
+		File f = createVideo(5);
+		try {
+			List<byte[]> expected = new VideoMjpegCodec().read(new FileInputStream(f));
+
+			MappedMjpegFile alg = new MappedMjpegFile(f.getPath());
+			checkFrames(expected, alg);
+			alg.close();
+		} finally {
+			f.delete();
+		}
+	}
+
+	/**
+	 * Scan the file using blocks which are much smaller than the images
+	 */
+	@Test
+	public void smallScanBlocks() throws IOException {
+		File f = createVideo(5);
+		try {
+			List<byte[]> expected = new VideoMjpegCodec().read(new FileInputStream(f));
+
+			MappedMjpegFile alg = new MappedMjpegFile(f.getPath());
+			alg.scanBlockSize = 37;
+			alg.buildIndex();
+			alg.declareSegments();
+			checkFrames(expected, alg);
+			alg.close();
+		} finally {
+			f.delete();
+		}
+	}
+
+	/**
+	 * Force it to split the file into multiple segments
+	 */
+	@Test
+	public void multipleSegments() throws IOException {
+		File f = createVideo(6);
+		try {
+			List<byte[]> expected = new VideoMjpegCodec().read(new FileInputStream(f));
+
+			MappedMjpegFile alg = new MappedMjpegFile(f.getPath());
+			int largest = 0;
+			for( int i = 0; i < alg.getNumberOfFrames(); i++ )
+				largest = Math.max(largest,alg.getFrameLength(i));
+			alg.maxSegmentSize = largest*2;
+			alg.declareSegments();
+
+			assertTrue(alg.segments.length > 1);
+			for( int i = 0; i < alg.segments.length; i++ )
+				assertTrue(alg.segmentLength[i] <= alg.maxSegmentSize);
+
+			checkFrames(expected, alg);
+			alg.close();
+		} finally {
+			f.delete();
+		}
+	}
+
+	/**
+	 * Save the index and see if it's used the next time the file is opened
+	 */
+	@Test
+	public void persistIndex() throws IOException {
+		File f = createVideo(4);
+		File indexFile = new File(f.getPath()+".index");
+		try {
+			MappedMjpegFile original = new MappedMjpegFile(f.getPath(),true);
+			original.close();
+			assertTrue(indexFile.exists());
+
+			// corrupt the saved index in a way which is still valid so that it can tell if it was used
+			MappedMjpegFile modified = new MappedMjpegFile(f.getPath());
+			modified.frameLength[0] -= 1;
+			modified.saveIndex(indexFile,f.lastModified());
+			modified.close();
+
+			MappedMjpegFile found = new MappedMjpegFile(f.getPath(),true);
+			assertEquals(original.getNumberOfFrames(),found.getNumberOfFrames());
+			assertEquals(original.getFrameLength(0)-1,found.getFrameLength(0));
+			found.close();
+
+			// if the modification time is different the index should be ignored
+			assertFalse(modified.loadIndex(indexFile,f.lastModified()+1000));
+		} finally {
+			f.delete();
+			indexFile.delete();
+		}
+	}
+
+	/**
+	 * A corrupt index with an impossible number of frames should be ignored and the index rebuilt
+	 */
+	@Test
+	public void persistIndex_badCount() throws IOException {
+		File f = createVideo(4);
+		File indexFile = new File(f.getPath()+".index");
+		try {
+			for( int N : new int[]{-1,Integer.MAX_VALUE,5} ) {
+				DataOutputStream out = new DataOutputStream(new FileOutputStream(indexFile));
+				out.writeInt(MappedMjpegFile.INDEX_MAGIC);
+				out.writeInt(MappedMjpegFile.INDEX_VERSION);
+				out.writeLong(f.length());
+				out.writeLong(f.lastModified());
+				out.writeInt(N);
+				// only enough data for 4 frames
+				out.write(new byte[4*12]);
+				out.close();
+
+				MappedMjpegFile found = new MappedMjpegFile(f.getPath(),true);
+				assertEquals(4,found.getNumberOfFrames());
+				found.close();
+				assertTrue(indexFile.delete());
+			}
+		} finally {
+			f.delete();
+			indexFile.delete();
+		}
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void getFrame_closed() throws IOException {
+		File f = createVideo(2);
+		try {
+			MappedMjpegFile alg = new MappedMjpegFile(f.getPath());
+			alg.close();
+			alg.getFrame(0);
+		} finally {
+			f.delete();
+		}
+	}
+
+	/**
+	 * If the index can't be saved the video should still be opened using the index in memory
+	 */
+	@Test
+	public void persistIndex_cantSave() throws IOException {
+		File f = createVideo(4);
+		// a directory with the same name as the index will cause it to fail when writing
+		File indexFile = new File(f.getPath()+".index");
+		assertTrue(indexFile.mkdir());
+		try {
+			MappedMjpegFile expected = new MappedMjpegFile(f.getPath());
+			MappedMjpegFile found = new MappedMjpegFile(f.getPath(),true);
+
+			assertEquals(4,found.getNumberOfFrames());
+			for( int i = 0; i < 4; i++ ) {
+				assertEquals(expected.getFrameOffset(i),found.getFrameOffset(i));
+				assertEquals(expected.getFrameLength(i),found.getFrameLength(i));
+			}
+			assertTrue(indexFile.isDirectory());
+
+			expected.close();
+			found.close();
+		} finally {
+			f.delete();
+			indexFile.delete();
+		}
+	}
+
+	@Test
+	public void getFrame_bounds() throws IOException {
+		File f = createVideo(2);
+		try {
+			MappedMjpegFile alg = new MappedMjpegFile(f.getPath());
+			try {
+				alg.getFrame(2);
+				fail("Exception expected");
+			} catch( IllegalArgumentException ignore ) {}
+			alg.close();
+		} finally {
+			f.delete();
+		}
+	}
+
+	/**
+	 * The codec doesn't include the EOI marker but the mapped frames do
+	 */
+	private void checkFrames(List<byte[]> expected, MappedMjpegFile alg) {
+		assertEquals(expected.size(), alg.getNumberOfFrames());
+		for( int i = 0; i < expected.size(); i++ ) {
+			byte[] e = expected.get(i);
+			ByteBuffer found = alg.getFrame(i);
+			assertEquals(0,found.position());
+			assertEquals(e.length+2,found.limit());
+			for( int j = 0; j < e.length; j++ )
+				assertEquals(e[j],found.get(j));
+			assertEquals((byte)0xFF,found.get(e.length));
+			assertEquals(VideoMjpegCodec.EOI,found.get(e.length+1));
+		}
+	}
+
+	/**
+	 * Creates an MJPEG file containing random images with some junk between them
+	 */
+	public File createVideo( int numFrames ) throws IOException {
+		File f = File.createTempFile("mapped",".mjpeg");
+		OutputStream out = new FileOutputStream(f);
+
+		for( int i = 0; i < numFrames; i++ ) {
+			out.write(createJpeg(20+i*3,15+i));
+			out.write(rand.nextInt(100));
+		}
+		out.close();
+		return f;
+	}
+
+	public byte[] createJpeg( int width , int height ) throws IOException {
+		BufferedImage image = new BufferedImage(width,height,BufferedImage.TYPE_INT_RGB);
+		for( int y = 0; y < height; y++ )
+			for( int x = 0; x < width; x++ )
+				image.setRGB(x,y,rand.nextInt(0xFFFFFF));
+
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		ImageIO.write(image,"jpg",bout);
+		return bout.toByteArray();
+	}
+}
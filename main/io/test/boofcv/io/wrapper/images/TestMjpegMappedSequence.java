@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.io.wrapper.images;
+
+import boofcv.io.video.TestMappedMjpegFile;
+import boofcv.io.video.VideoMjpegCodec;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMjpegMappedSequence {
+
+	ImageType<ImageUInt8> imageType = ImageType.single(ImageUInt8.class);
+
+	/**
+	 * Compare the decoded images against {@link JpegByteImageSequence}
+	 */
+	@Test
+	public void compareToJpegByte() throws IOException {
+		File f = new TestMappedMjpegFile().createVideo(5);
+		try {
+			List<byte[]> data = new VideoMjpegCodec().read(new FileInputStream(f));
+			JpegByteImageSequence<ImageUInt8> expected = new JpegByteImageSequence<ImageUInt8>(imageType,data,false);
+			MjpegMappedSequence<ImageUInt8> alg = new MjpegMappedSequence<ImageUInt8>(f.getPath(),imageType);
+
+			assertEquals(5,alg.getTotalFrames());
+			assertEquals(-1,alg.getFrameNumber());
+
+			int total = 0;
+			while( expected.hasNext() ) {
+				assertTrue(alg.hasNext());
+				BoofTesting.assertEquals(expected.next(),alg.next(),0);
+				assertEquals(total,alg.getFrameNumber());
+				assertEquals(alg.getGuiImage().getWidth(),expected.getGuiImage().getWidth());
+				total++;
+			}
+			assertFalse(alg.hasNext());
+			alg.close();
+		} finally {
+			f.delete();
+		}
+	}
+
+	/**
+	 * Jump to different frames and see if the same images are read
+	 */
+	@Test
+	public void setFrameNumber() throws IOException {
+		File f = new TestMappedMjpegFile().createVideo(5);
+		try {
+			MjpegMappedSequence<ImageUInt8> alg = new MjpegMappedSequence<ImageUInt8>(f.getPath(),imageType);
+
+			List<ImageUInt8> images = new ArrayList<ImageUInt8>();
+			while( alg.hasNext() )
+				images.add(alg.next().clone());
+
+			int[] order = new int[]{3,0,4,1,1};
+			for( int frame : order ) {
+				alg.setFrameNumber(frame);
+				BoofTesting.assertEquals(images.get(frame),alg.next(),0);
+				assertEquals(frame,alg.getFrameNumber());
+			}
+
+			alg.reset();
+			BoofTesting.assertEquals(images.get(0),alg.next(),0);
+			alg.close();
+		} finally {
+			f.delete();
+		}
+	}
+
+	/**
+	 * When looping it should go back and forth like the other sequences
+	 */
+	@Test
+	public void loop() throws IOException {
+		File f = new TestMappedMjpegFile().createVideo(3);
+		try {
+			MjpegMappedSequence<ImageUInt8> alg = new MjpegMappedSequence<ImageUInt8>(f.getPath(),imageType);
+			alg.setLoop(true);
+
+			int[] expected = new int[]{0,1,2,1,0,1,2,1};
+			for( int frame : expected ) {
+				assertTrue(alg.hasNext());
+				alg.next();
+				assertEquals(frame,alg.getFrameNumber());
+			}
+			alg.close();
+		} finally {
+			f.delete();
+		}
+	}
+}
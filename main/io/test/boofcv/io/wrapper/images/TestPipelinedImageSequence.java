@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.io.wrapper.images;
+
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.ImageUInt8;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPipelinedImageSequence {
+
+	/**
+	 * Read through the whole sequence and see if the images are the same as the source
+	 */
+	@Test
+	public void readAll() {
+		for( int numBuffers = 1; numBuffers <= 3; numBuffers++ ) {
+			DummySequence source = new DummySequence(10);
+			PipelinedImageSequence<ImageUInt8> alg = new PipelinedImageSequence<ImageUInt8>(source,numBuffers);
+
+			assertTrue(alg.getImageType().getDataType() == source.getImageType().getDataType());
+			assertEquals(-1,alg.getFrameNumber());
+
+			int total = 0;
+			while( alg.hasNext() ) {
+				ImageUInt8 image = alg.next();
+				checkFrame(total, image);
+				assertEquals(total,alg.getFrameNumber());
+				BufferedImage gui = alg.getGuiImage();
+				assertEquals(total+1,gui.getWidth());
+				total++;
+			}
+			assertEquals(10,total);
+			assertFalse(alg.hasNext());
+			alg.close();
+			assertTrue(source.closed);
+		}
+	}
+
+	/**
+	 * The background thread should not read further ahead than the number of buffers
+	 */
+	@Test
+	public void backPressure() throws InterruptedException {
+		DummySequence source = new DummySequence(20);
+		PipelinedImageSequence<ImageUInt8> alg = new PipelinedImageSequence<ImageUInt8>(source,3);
+
+		// the extra buffer for the user's image is also filled before it has been requested.  Once every
+		// buffer is filled the background thread can't read any more
+		waitUntilFilled(alg, 4);
+		assertEquals(4,source.numRead);
+		assertTrue(alg.free.isEmpty());
+
+		// the returned image is still owned by the user so nothing more can be read
+		alg.next();
+		assertEquals(3,alg.filled.size());
+		assertTrue(alg.free.isEmpty());
+		assertEquals(4,source.numRead);
+
+		// the previous image is now recycled
+		alg.next();
+		waitUntilFilled(alg, 3);
+		assertEquals(5,source.numRead);
+		assertTrue(alg.free.isEmpty());
+
+		alg.close();
+	}
+
+	/**
+	 * Waits until the background thread has filled the specified number of buffers
+	 */
+	private void waitUntilFilled( PipelinedImageSequence alg , int expected ) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 5000;
+		while( alg.filled.size() != expected ) {
+			if( System.currentTimeMillis() > timeout )
+				fail("Timed out waiting for "+expected+" filled buffers. Found "+alg.filled.size());
+			Thread.sleep(1);
+		}
+	}
+
+	/**
+	 * If interrupted while waiting for an image the thread's interrupted flag should be preserved
+	 */
+	@Test
+	public void interruptedWhileWaiting() {
+		DummySequence source = new DummySequence(10);
+		// no images will be read until released, so hasNext() has to wait
+		source.release = new CountDownLatch(1);
+		PipelinedImageSequence<ImageUInt8> alg = new PipelinedImageSequence<ImageUInt8>(source,2);
+
+		Thread.currentThread().interrupt();
+		try {
+			alg.hasNext();
+			fail("Exception expected");
+		} catch( RuntimeException e ) {
+			assertTrue(e.getCause() instanceof InterruptedException);
+		}
+		assertTrue(Thread.interrupted());
+
+		source.release.countDown();
+		alg.close();
+	}
+
+	@Test
+	public void reset() {
+		DummySequence source = new DummySequence(10);
+		PipelinedImageSequence<ImageUInt8> alg = new PipelinedImageSequence<ImageUInt8>(source,2);
+
+		for( int i = 0; i < 4; i++ )
+			alg.next();
+		alg.reset();
+
+		int total = 0;
+		while( alg.hasNext() ) {
+			checkFrame(total, alg.next());
+			total++;
+		}
+		assertEquals(10,total);
+		alg.close();
+	}
+
+	/**
+	 * Turn on looping after the end of the sequence has been reached
+	 */
+	@Test
+	public void setLoop() {
+		DummySequence source = new DummySequence(4);
+		PipelinedImageSequence<ImageUInt8> alg = new PipelinedImageSequence<ImageUInt8>(source,2);
+
+		for( int i = 0; i < 4; i++ )
+			checkFrame(i, alg.next());
+		assertFalse(alg.hasNext());
+
+		alg.setLoop(true);
+		for( int i = 0; i < 10; i++ ) {
+			assertTrue(alg.hasNext());
+			checkFrame(i%4, alg.next());
+		}
+		alg.close();
+	}
+
+	/**
+	 * Exceptions in the background thread should be passed along to the user
+	 */
+	@Test
+	public void exception() {
+		DummySequence source = new DummySequence(10);
+		source.failAt = 3;
+		PipelinedImageSequence<ImageUInt8> alg = new PipelinedImageSequence<ImageUInt8>(source,2);
+
+		for( int i = 0; i < 3; i++ )
+			checkFrame(i, alg.next());
+
+		assertTrue(alg.hasNext());
+		try {
+			alg.next();
+			fail("Exception expected");
+		} catch( RuntimeException ignore ) {}
+		assertFalse(alg.hasNext());
+		alg.close();
+	}
+
+	private void checkFrame(int index, ImageUInt8 image) {
+		assertEquals(index+1,image.width);
+		assertEquals(5,image.height);
+		for( int y = 0; y < image.height; y++ )
+			for( int x = 0; x < image.width; x++ )
+				assertEquals(index+x+y,image.get(x,y));
+	}
+
+	/**
+	 * Creates images with a different shape and value every frame.  The output image is recycled, like most
+	 * sequences do.
+	 */
+	private static class DummySequence implements SimpleImageSequence<ImageUInt8> {
+		int length;
+		int index;
+		boolean loop;
+		volatile int numRead;
+		int failAt = -1;
+		// if not null, images are not read until it has been released
+		CountDownLatch release;
+		boolean closed;
+
+		ImageUInt8 image = new ImageUInt8(1,1);
+		BufferedImage gui;
+
+		private DummySequence(int length) {
+			this.length = length;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return loop || index < length;
+		}
+
+		@Override
+		public ImageUInt8 next() {
+			if( release != null ) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+			if( index == failAt )
+				throw new RuntimeException("Failed");
+			if( loop && index >= length )
+				index = 0;
+			image.reshape(index+1,5);
+			for( int y = 0; y < image.height; y++ )
+				for( int x = 0; x < image.width; x++ )
+					image.set(x,y,index+x+y);
+			gui = new BufferedImage(index+1,5,BufferedImage.TYPE_INT_RGB);
+			index++;
+			numRead++;
+			return image;
+		}
+
+		@Override
+		public <InternalImage> InternalImage getGuiImage() {
+			return (InternalImage)gui;
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+
+		@Override
+		public int getFrameNumber() {
+			return index-1;
+		}
+
+		@Override
+		public void setLoop(boolean loop) {
+			this.loop = loop;
+		}
+
+		@Override
+		public ImageType<ImageUInt8> getImageType() {
+			return ImageType.single(ImageUInt8.class);
+		}
+
+		@Override
+		public void reset() {
+			index = 0;
+		}
+	}
+}
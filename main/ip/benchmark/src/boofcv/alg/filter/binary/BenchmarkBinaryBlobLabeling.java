@@ -63,6 +63,46 @@ public class BenchmarkBinaryBlobLabeling {
 		}
 	}
 
+	public static class Blocks8 extends PerformerBase {
+
+		ContourLabelBlocks alg = new ContourLabelBlocks(8,false);
+
+		@Override
+		public void process() {
+			alg.process(input,output);
+		}
+	}
+
+	public static class Blocks4 extends PerformerBase {
+
+		ContourLabelBlocks alg = new ContourLabelBlocks(4,false);
+
+		@Override
+		public void process() {
+			alg.process(input,output);
+		}
+	}
+
+	public static class Blocks8_MT extends PerformerBase {
+
+		ContourLabelBlocks alg = new ContourLabelBlocks(8,true);
+
+		@Override
+		public void process() {
+			alg.process(input,output);
+		}
+	}
+
+	public static class Blocks4_MT extends PerformerBase {
+
+		ContourLabelBlocks alg = new ContourLabelBlocks(4,true);
+
+		@Override
+		public void process() {
+			alg.process(input,output);
+		}
+	}
+
 	public static void main(String args[]) {
 		System.out.println("=========  Profile Image Size "+ imgWidth +" x "+ imgHeight  +" ==========");
 
@@ -80,6 +120,10 @@ public class BenchmarkBinaryBlobLabeling {
 
 		ProfileOperation.printOpsPerSec(new NewAlg8(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new NewAlg4(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Blocks8(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Blocks4(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Blocks8_MT(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Blocks4_MT(), TEST_TIME);
 
 	}
 }
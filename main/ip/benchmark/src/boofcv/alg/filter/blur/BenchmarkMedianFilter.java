@@ -18,6 +18,7 @@
 
 package boofcv.alg.filter.blur;
 
+import boofcv.alg.filter.blur.impl.ImplMedianHistogramConstant;
 import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner;
 import boofcv.alg.filter.blur.impl.ImplMedianHistogramInnerNaive;
 import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;
@@ -25,6 +26,7 @@ import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageSInt16;
 import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageUInt16;
 import boofcv.struct.image.ImageUInt8;
 import com.google.caliper.Param;
 import com.google.caliper.Runner;
@@ -48,14 +50,23 @@ public class BenchmarkMedianFilter extends SimpleBenchmark {
 	static ImageUInt8 out_I8 = new ImageUInt8(imgWidth,imgHeight);
 	static ImageSInt16 out_I16 = new ImageSInt16(imgWidth,imgHeight);
 	static ImageSInt32 out_I32 = new ImageSInt32(imgWidth,imgHeight);
+	static ImageUInt16 imgU16 = new ImageUInt16(imgWidth,imgHeight);
+	static ImageUInt16 out_U16 = new ImageUInt16(imgWidth,imgHeight);
+	static ImageFloat32 imgFloat32_14 = new ImageFloat32(imgWidth,imgHeight);
+
+	static ImplMedianHistogramConstant constant = new ImplMedianHistogramConstant();
 
 	// iterate through different sized kernel radius
-	@Param({"1", "2", "3", "5","10"}) private int radius;
+	@Param({"1", "2", "3", "5","10","15"}) private int radius;
 
 	public BenchmarkMedianFilter() {
 		Random rand = new Random(234);
 		ImageMiscOps.fillUniform(imgInt8,rand, 0, 100);
 		ImageMiscOps.fillUniform(imgFloat32,rand,0,200);
+		// 14-bit data, like what comes from a thermal camera
+		ImageMiscOps.fillUniform(imgU16,rand,0,1 << 14);
+		for( int i = 0; i < imgU16.data.length; i++ )
+			imgFloat32_14.data[i] = imgU16.data[i]*0.01f;
 	}
 
 	public int timeBlurImageOps_I8(int reps) {
@@ -82,6 +93,30 @@ public class BenchmarkMedianFilter extends SimpleBenchmark {
 		return 0;
 	}
 
+	public int timeHistogramConstant_I8(int reps) {
+		for( int i = 0; i < reps; i++ )
+			constant.process(imgInt8,out_I8,radius);
+		return 0;
+	}
+
+	public int timeHistogramConstant_U16(int reps) {
+		for( int i = 0; i < reps; i++ )
+			constant.process(imgU16,out_U16,radius);
+		return 0;
+	}
+
+	public int timeHistogramConstant_F32_14bit(int reps) {
+		for( int i = 0; i < reps; i++ )
+			constant.process(imgFloat32_14,out_F32,radius,false);
+		return 0;
+	}
+
+	public int timeHistogramConstant_F32_quantized(int reps) {
+		for( int i = 0; i < reps; i++ )
+			constant.process(imgFloat32,out_F32,radius,true);
+		return 0;
+	}
+
 	public int timeSortNaive_I8(int reps) {
 		for( int i = 0; i < reps; i++ )
 			ImplMedianSortNaive.process(imgInt8,out_I8,radius,null);
@@ -23,6 +23,7 @@ import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageUInt8;
+import boofcv.struct.image.InterleavedU8;
 import boofcv.struct.image.MultiSpectral;
 
 import java.awt.image.BufferedImage;
@@ -42,6 +43,7 @@ public class BenchmarkConvertBufferedImage {
 	static BufferedImage imgBuff;
 	static ImageUInt8 imgInt8;
 	static MultiSpectral<ImageUInt8> multiInt8;
+	static InterleavedU8 interInt8;
 	
 	static ImageBase boofImg;
 
@@ -53,6 +55,14 @@ public class BenchmarkConvertBufferedImage {
 		}
 	}
 
+	public static class FromBuffToBoof_MT extends PerformerBase
+	{
+		@Override
+		public void process() {
+			ConvertBufferedImage.convertFrom(imgBuff,boofImg,true,true);
+		}
+	}
+
 	public static class FromBoofToBuff extends PerformerBase
 	{
 		@Override
@@ -96,11 +106,18 @@ public class BenchmarkConvertBufferedImage {
 		}
 	}
 
-	public static void evaluateConvert( ImageBase image , String name )
+	public static void evaluateConvertFrom( ImageBase image , String name )
 	{
 		boofImg = image;
 		System.out.printf("Buffered to %s  %10.2f ops/sec\n",name,
 				ProfileOperation.profileOpsPerSec(new FromBuffToBoof(),1000, false));
+		System.out.printf("Buffered to %s MT  %10.2f ops/sec\n",name,
+				ProfileOperation.profileOpsPerSec(new FromBuffToBoof_MT(),1000, false));
+	}
+
+	public static void evaluateConvert( ImageBase image , String name )
+	{
+		evaluateConvertFrom(image, name);
 		System.out.printf("%s to Buffered  %10.2f ops/sec\n",name,
 				ProfileOperation.profileOpsPerSec(new FromBoofToBuff(),1000, false));
 
@@ -109,6 +126,7 @@ public class BenchmarkConvertBufferedImage {
 	public static void main( String args[] ) {
 		imgInt8 = new ImageUInt8(imgWidth,imgHeight);
 		multiInt8 = new MultiSpectral<ImageUInt8>(ImageUInt8.class,imgWidth,imgHeight,3);
+		interInt8 = new InterleavedU8(imgWidth,imgHeight,3);
 		
 		GImageMiscOps.fillUniform(imgInt8, rand, 0, 100);
 		for( int i = 0; i < multiInt8.getNumBands(); i++ )
@@ -124,11 +142,13 @@ public class BenchmarkConvertBufferedImage {
 		System.out.println("---- TYPE_3BYTE_BGR ----");
 		evaluateConvert(imgInt8,"ImageUInt8");
 		evaluateConvert(multiInt8,"MultiSpectral_U8");
+		evaluateConvertFrom(interInt8,"InterleavedU8");
 
 		System.out.println("---- TYPE_INT_RGB ----");
 		createBufferedImage(BufferedImage.TYPE_INT_RGB);
 		evaluateConvert(imgInt8,"ImageUInt8");
 		evaluateConvert(multiInt8,"MultiSpectral_U8");
+		evaluateConvertFrom(interInt8,"InterleavedU8");
 
 		System.out.println("---- TYPE_BYTE_GRAY ----");
 		createBufferedImage(BufferedImage.TYPE_BYTE_GRAY);
@@ -24,12 +24,12 @@ import boofcv.misc.CodeGeneratorBase;
 import java.io.FileNotFoundException;
 
 /**
- * Code generator for {@link ConvolveImageStandard}.
+ * Code generator for {@link ConvolveImageStandard} and its concurrent version {@link ConvolveImageStandard_MT}.
  *
  * @author Peter Abeles
  */
 public class GenerateConvolveImageStandard extends CodeGeneratorBase {
-	String className = "ConvolveImageStandard";
+	String className;
 
 	String kernelType;
 	String inputType;
@@ -42,9 +42,20 @@ public class GenerateConvolveImageStandard extends CodeGeneratorBase {
 	String bitWise;
 	boolean hasDivide;
 	boolean hasBound;
+	// should the concurrent version of the class be created
+	boolean concurrent;
 
 	@Override
 	public void generate()throws FileNotFoundException {
+		concurrent = false;
+		className = "ConvolveImageStandard";
+		createFile();
+		concurrent = true;
+		className = "ConvolveImageStandard_MT";
+		createFile();
+	}
+
+	private void createFile() throws FileNotFoundException {
 		printPreamble();
 		printAllOps(AutoTypeImage.F32, AutoTypeImage.F32, false, false);
 //		printAllOps(AutoTypeImage.F32, AutoTypeImage.F32, false, true);
@@ -63,10 +74,32 @@ public class GenerateConvolveImageStandard extends CodeGeneratorBase {
 
 	private void printPreamble() throws FileNotFoundException {
 		setOutputFile(className);
+		if( concurrent ) {
+			out.print("import boofcv.concurrency.BoofConcurrency;\n" +
+					"import boofcv.concurrency.IntRangeTask;\n");
+		}
 		out.print("import boofcv.struct.convolve.*;\n" +
 				"import boofcv.struct.image.*;\n");
 		out.println();
 		out.println();
+		if( concurrent ) {
+			out.print("/**\n" +
+					" * <p>\n" +
+					" * Concurrent implementation of {@link ConvolveImageStandard}.  The image is split into bands of rows\n" +
+					" * which are convolved in parallel using {@link BoofConcurrency}.  Each pixel is computed with exactly the\n" +
+					" * same operations as the single threaded version, so the output is identical.\n" +
+					" * </p>\n" +
+					" * \n" +
+					" * <p>\n" +
+					" * NOTE: This code was automatically generated using {@link "+getClass().getName()+"}.\n" +
+					" * </p>\n" +
+					" * \n" +
+					" * @author Peter Abeles\n" +
+					" */\n" +
+					"@SuppressWarnings({\"ForLoopReplaceableByForEach\"})\n" +
+					"public class " + className + " {\n\n");
+			return;
+		}
 		out.print("/**\n" +
 				" * <p>\n" +
 				" * Standard algorithms with no fancy optimization for convolving 1D and 2D kernels across an image.\n" +
@@ -106,12 +139,19 @@ public class GenerateConvolveImageStandard extends CodeGeneratorBase {
 		printConvolve2D();
 	}
 
+	/**
+	 * Variables which are referenced inside the row loop need to be final in the concurrent version
+	 */
+	private String fin() {
+		return concurrent ? "final " : "";
+	}
+
 	private void printHorizontal() {
-		String paramDiv = hasDivide ? " int divisor," : "";
+		String paramDiv = hasDivide ? " " + fin() + "int divisor," : "";
 		String totalDiv = hasDivide ? "((total+halfDivisor)/divisor)" : "total";
 
 		out.print("\tpublic static void horizontal( Kernel1D_" + kernelType + " kernel ,\n");
-		out.print("\t\t\t\t\t\t\t\t  " + inputType + " image, " + outputType + " dest," + paramDiv + "\n");
+		out.print("\t\t\t\t\t\t\t\t  " + fin() + inputType + " image, " + fin() + outputType + " dest," + paramDiv + "\n");
 		out.print("\t\t\t\t\t\t\t\t  boolean includeBorder) {\n" +
 				"\t\tfinal " + inputData + "[] dataSrc = image.data;\n" +
 				"\t\tfinal " + outputData + "[] dataDst = dest.data;\n" +
@@ -126,9 +166,8 @@ public class GenerateConvolveImageStandard extends CodeGeneratorBase {
 				"\n" +
 				"\t\tfinal int width = image.getWidth();\n" +
 				"\t\tfinal int height = image.getHeight()-yBorder;\n" +
-				"\n" +
-				"\t\tfor( int i = yBorder; i < height; i++ ) {\n" +
-				"\t\t\tint indexDst = dest.startIndex + i*dest.stride+radius;\n" +
+				"\n");
+		String body = "\t\t\tint indexDst = dest.startIndex + i*dest.stride+radius;\n" +
 				"\t\t\tint j = image.startIndex + i*image.stride - radius;\n" +
 				"\t\t\tfinal int jEnd = j+width-radius;\n" +
 				"\n" +
@@ -139,17 +178,17 @@ public class GenerateConvolveImageStandard extends CodeGeneratorBase {
 				"\t\t\t\t\ttotal += (dataSrc[indexSrc++] " + bitWise + ") * dataKer[k];\n" +
 				"\t\t\t\t}\n" +
 				"\t\t\t\tdataDst[indexDst++] = " + typeCast + totalDiv + ";\n" +
-				"\t\t\t}\n" +
-				"\t\t}\n" +
-				"\t}\n\n");
+				"\t\t\t}\n";
+		printRowLoop(concurrent,"i","yBorder","height","",body);
+		out.print("\t}\n\n");
 	}
 
 	private void printVertical() {
-		String paramDiv = hasDivide ? " int divisor," : "";
+		String paramDiv = hasDivide ? " " + fin() + "int divisor," : "";
 		String totalDiv = hasDivide ? "((total+halfDivisor)/divisor)" : "total";
 
 		out.print("\tpublic static void vertical( Kernel1D_" + kernelType + " kernel,\n" +
-				"\t\t\t\t\t\t\t\t " + inputType + " image, " + outputType + " dest," + paramDiv + "\n" +
+				"\t\t\t\t\t\t\t\t " + fin() + inputType + " image, " + fin() + outputType + " dest," + paramDiv + "\n" +
 				"\t\t\t\t\t\t\t\t boolean includeBorder)\n" +
 				"\t{\n" +
 				"\t\tfinal " + inputData + "[] dataSrc = image.data;\n" +
@@ -167,9 +206,8 @@ public class GenerateConvolveImageStandard extends CodeGeneratorBase {
 				"\t\tfinal int yEnd = imgHeight-radius;\n" +
 				"\n" +
 				"\t\tfinal int xBorder = includeBorder ? 0 : radius;\n" +
-				"\n" +
-				"\t\tfor( int y = radius; y < yEnd; y++ ) {\n" +
-				"\t\t\tint indexDst = dest.startIndex+y*dest.stride+xBorder;\n" +
+				"\n");
+		String body = "\t\t\tint indexDst = dest.startIndex+y*dest.stride+xBorder;\n" +
 				"\t\t\tint i = image.startIndex + (y-radius)*image.stride;\n" +
 				"\t\t\tfinal int iEnd = i+imgWidth-xBorder;\n" +
 				"\n" +
@@ -181,16 +219,16 @@ public class GenerateConvolveImageStandard extends CodeGeneratorBase {
 				"\t\t\t\t\tindexSrc += image.stride;\n" +
 				"\t\t\t\t}\n" +
 				"\t\t\t\tdataDst[indexDst++] = " + typeCast + totalDiv + ";\n" +
-				"\t\t\t}\n" +
-				"\t\t}\n" +
-				"\t}\n\n");
+				"\t\t\t}\n";
+		printRowLoop(concurrent,"y","radius","yEnd","",body);
+		out.print("\t}\n\n");
 	}
 
 	private void printConvolve2D() {
 
-		String paramDiv = hasDivide ? ", int divisor " : "";
+		String paramDiv = hasDivide ? ", " + fin() + "int divisor " : "";
 		String totalDiv = hasDivide ? "((total+halfDivisor)/divisor)" : "total";
-		String paramBound = hasBound ? ", "+sumType+" minValue , "+sumType+" maxValue " : "";
+		String paramBound = hasBound ? ", "+fin()+sumType+" minValue , "+fin()+sumType+" maxValue " : "";
 		String performBound = "";
 
 		if( hasBound ) {
@@ -203,7 +241,7 @@ public class GenerateConvolveImageStandard extends CodeGeneratorBase {
 		}
 
 
-		out.print("\tpublic static void convolve( Kernel2D_" + kernelType + " kernel , " + inputType + " src , " + outputType + " dest " + paramDiv + paramBound + ")\n" +
+		out.print("\tpublic static void convolve( Kernel2D_" + kernelType + " kernel , " + fin() + inputType + " src , " + fin() + outputType + " dest " + paramDiv + paramBound + ")\n" +
 				"\t{\n" +
 				"\t\tfinal " + kernelData + "[] dataKernel = kernel.data;\n" +
 				"\t\tfinal " + inputData + "[] dataSrc = src.data;\n" +
@@ -214,10 +252,9 @@ public class GenerateConvolveImageStandard extends CodeGeneratorBase {
 		if( hasDivide )
 			out.print("\t\tfinal int halfDivisor = divisor/2;\n");
 		out.print("\n" +
-				"\t\tint kernelRadius = kernel.width/2;\n" +
-				"\n" +
-				"\t\tfor( int y = kernelRadius; y < height-kernelRadius; y++ ) {\n" +
-				"\t\t\tint indexDst = dest.startIndex + y*dest.stride+kernelRadius;\n" +
+				"\t\t" + fin() + "int kernelRadius = kernel.width/2;\n" +
+				"\n");
+		String body = "\t\t\tint indexDst = dest.startIndex + y*dest.stride+kernelRadius;\n" +
 				"\t\t\tfor( int x = kernelRadius; x < width-kernelRadius; x++ ) {\n" +
 				"\t\t\t\t" + sumType + " total = 0;\n" +
 				"\t\t\t\tint indexKer = 0;\n" +
@@ -229,9 +266,9 @@ public class GenerateConvolveImageStandard extends CodeGeneratorBase {
 				"\t\t\t\t}\n" +
 				performBound +
 				"\t\t\t\tdataDst[indexDst++] = " + typeCast + totalDiv + ";\n" +
-				"\t\t\t}\n" +
-				"\t\t}\n" +
-				"\t}\n\n");
+				"\t\t\t}\n";
+		printRowLoop(concurrent,"y","kernelRadius","height-kernelRadius","",body);
+		out.print("\t}\n\n");
 	}
 
 	public static void main(String args[]) throws FileNotFoundException {
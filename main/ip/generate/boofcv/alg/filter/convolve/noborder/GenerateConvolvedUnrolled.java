@@ -24,6 +24,9 @@ import boofcv.misc.CodeGeneratorBase;
 import java.io.FileNotFoundException;
 
 /**
+ * Code generator for {@link ConvolveImageUnrolled_F32_F32} and the other unrolled convolution classes.  Creates
+ * a single threaded version and a concurrent version, which has an _MT suffix, of each class.
+ *
  * @author Peter Abeles
  */
 public class GenerateConvolvedUnrolled extends CodeGeneratorBase {
@@ -40,12 +43,21 @@ public class GenerateConvolvedUnrolled extends CodeGeneratorBase {
 	String sumType;
 	boolean hasDivisor;
 	boolean isInteger;
+	// should the concurrent version of the class be created
+	boolean concurrent;
 
 	String declareHalf;
 	String divide;
 
 	@Override
 	public void generate() throws FileNotFoundException {
+		concurrent = false;
+		createAll();
+		concurrent = true;
+		createAll();
+	}
+
+	protected void createAll() throws FileNotFoundException {
 		create(AutoTypeImage.F32,AutoTypeImage.F32,false);
 		create(AutoTypeImage.U8,AutoTypeImage.I8,true);
 		create(AutoTypeImage.U8,AutoTypeImage.I16,false);
@@ -61,6 +73,8 @@ public class GenerateConvolvedUnrolled extends CodeGeneratorBase {
 		String name = "ConvolveImageUnrolled_"+inputImg.getAbbreviatedType()+"_"+outputImg.getAbbreviatedType();
 		if( divided )
 			name += "_Div";
+		if( concurrent )
+			name += "_MT";
 
 		typeKernel = isInteger ? "I32" : "F32";
 		typeInput = inputImg.getSingleBandName();
@@ -102,11 +116,19 @@ public class GenerateConvolvedUnrolled extends CodeGeneratorBase {
 	}
 
 	public void printPreamble() {
+		if( concurrent ) {
+			out.print("import boofcv.concurrency.BoofConcurrency;\n");
+			out.print("import boofcv.concurrency.IntRangeTask;\n");
+		}
 		out.print("import boofcv.struct.convolve.Kernel1D_" + typeKernel + ";\n");
 		out.print("import boofcv.struct.convolve.Kernel2D_" + typeKernel + ";\n");
 		out.print("import boofcv.struct.image." + typeInput + ";\n");
 		if (typeInput.compareTo(typeOutput) != 0)
 			out.print("import boofcv.struct.image." + typeOutput + ";\n");
+		if( concurrent ) {
+			printPreambleConcurrent();
+			return;
+		}
 		out.print("\n" +
 				"/**\n" +
 				" * <p>\n" +
@@ -128,6 +150,32 @@ public class GenerateConvolvedUnrolled extends CodeGeneratorBase {
 				"public class " + className + " {\n");
 	}
 
+	public void printPreambleConcurrent() {
+		String serialName = className.substring(0,className.length()-3);
+		out.print("\n" +
+				"/**\n" +
+				" * <p>\n" +
+				" * Concurrent implementation of {@link " + serialName + "}.  The image is split into bands of rows\n" +
+				" * which are convolved in parallel using {@link BoofConcurrency}.  Each pixel is computed with exactly the\n" +
+				" * same operations as the single threaded version, so the output is identical.\n" +
+				" * </p>\n" +
+				" * \n" +
+				" * <p>\n" +
+				" * DO NOT MODIFY.  This class was automatically generated by {@link GenerateConvolvedUnrolled}.\n" +
+				" * </p>\n" +
+				" *\n" +
+				" * @author Peter Abeles\n" +
+				" */\n" +
+				"public class " + className + " {\n");
+	}
+
+	/**
+	 * Variables which are referenced inside the row loop need to be final in the concurrent version
+	 */
+	private String fin() {
+		return concurrent ? "final " : "";
+	}
+
 	public void createMaster(String opName, int kernelDOF , boolean hasDivisor ) {
 		String kernel = "Kernel"+kernelDOF+"D_"+typeKernel;
 
@@ -175,10 +223,10 @@ public class GenerateConvolvedUnrolled extends CodeGeneratorBase {
 		String typeCast = generateTypeCast();
 
 		out.print("\tpublic static void horizontal" + num + "( Kernel1D_" + typeKernel + " kernel ,\n" +
-				"\t\t\t\t\t\t\t\t\t" + typeInput + " image, " + typeOutput + " dest,\n");
+				"\t\t\t\t\t\t\t\t\t" + fin() + typeInput + " image, " + fin() + typeOutput + " dest,\n");
 
 		if( hasDivisor ) {
-			out.print("\t\t\t\t\t\t\t\t\tint divisor, boolean includeBorder) {\n");
+			out.print("\t\t\t\t\t\t\t\t\t" + fin() + "int divisor, boolean includeBorder) {\n");
 		} else {
 			out.print("\t\t\t\t\t\t\t\t\tboolean includeBorder) {\n");
 		}
@@ -196,38 +244,38 @@ public class GenerateConvolvedUnrolled extends CodeGeneratorBase {
 				"\t\tfinal int width = image.getWidth();\n" +
 				"\t\tfinal int height = image.getHeight()-yBorder;\n" +
 				(hasDivisor ? declareHalf : "")+
-				"\n" +
-				"\t\tfor( int i = yBorder; i < height; i++ ) {\n" +
-				"\t\t\tint indexDst = dest.startIndex + i*dest.stride+radius;\n" +
+				"\n");
+
+		String body = "\t\t\tint indexDst = dest.startIndex + i*dest.stride+radius;\n" +
 				"\t\t\tint j = image.startIndex + i*image.stride - radius;\n" +
 				"\t\t\tfinal int jEnd = j+width-radius;\n" +
 				"\n" +
 				"\t\t\tfor( j += radius; j < jEnd; j++ ) {\n" +
 				"\t\t\t\tint indexSrc = j;\n" +
-				"\t\t\t\t" + sumType + " total = (dataSrc[indexSrc++]" + bitWise + ")*k1;\n");
+				"\t\t\t\t" + sumType + " total = (dataSrc[indexSrc++]" + bitWise + ")*k1;\n";
 		for (int i = 1; i < num - 1; i++) {
-			out.printf("\t\t\t\ttotal += (dataSrc[indexSrc++]" + bitWise + ")*k%d;\n", (i + 1));
+			body += String.format("\t\t\t\ttotal += (dataSrc[indexSrc++]" + bitWise + ")*k%d;\n", (i + 1));
 		}
-		out.printf("\t\t\t\ttotal += (dataSrc[indexSrc]" + bitWise + ")*k%d;\n", num);
-		out.printf("\n");
+		body += String.format("\t\t\t\ttotal += (dataSrc[indexSrc]" + bitWise + ")*k%d;\n", num);
+		body += "\n";
 		if( hasDivisor ) {
-			out.print("\t\t\t\tdataDst[indexDst++] = " + typeCast + "("+divide+");\n");
+			body += "\t\t\t\tdataDst[indexDst++] = " + typeCast + "("+divide+");\n";
 		} else {
-			out.print("\t\t\t\tdataDst[indexDst++] = " + typeCast + "total;\n");
+			body += "\t\t\t\tdataDst[indexDst++] = " + typeCast + "total;\n";
 		}
+		body += "\t\t\t}\n";
 
-		out.print("\t\t\t}\n" +
-				"\t\t}\n" +
-				"\t}\n\n");
+		printRowLoop(concurrent,"i","yBorder","height","",body);
+		out.print("\t}\n\n");
 	}
 
 	public void addVertical(int num, boolean hasDivisor) {
 		String typeCast = generateTypeCast();
 
 		out.print("\tpublic static void vertical" + num + "( Kernel1D_" + typeKernel + " kernel,\n" +
-				"\t\t\t\t\t\t\t\t " + typeInput + " image, " + typeOutput + " dest,\n");
+				"\t\t\t\t\t\t\t\t " + fin() + typeInput + " image, " + fin() + typeOutput + " dest,\n");
 		if( hasDivisor )
-			out.print("\t\t\t\t\t\t\t\t int divisor , boolean includeBorder)\n");
+			out.print("\t\t\t\t\t\t\t\t " + fin() + "int divisor , boolean includeBorder)\n");
 		else
 			out.print("\t\t\t\t\t\t\t\t boolean includeBorder)\n");
 		out.print("\t{\n" +
@@ -247,34 +295,35 @@ public class GenerateConvolvedUnrolled extends CodeGeneratorBase {
 				"\t\tfinal int yEnd = imgHeight-radius;\n" +
 				"\n" +
 				"\t\tfinal int xBorder = includeBorder ? 0 : radius;\n" +
-				"\n" +
-				"\t\tfor( int y = radius; y < yEnd; y++ ) {\n" +
-				"\t\t\tint indexDst = dest.startIndex+y*dest.stride+xBorder;\n" +
+				"\n");
+
+		String body = "\t\t\tint indexDst = dest.startIndex+y*dest.stride+xBorder;\n" +
 				"\t\t\tint i = image.startIndex + (y-radius)*image.stride;\n" +
 				"\t\t\tfinal int iEnd = i+imgWidth-xBorder;\n" +
 				"\n" +
 				"\t\t\tfor( i += xBorder; i < iEnd; i++ ) {\n" +
 				"\t\t\t\tint indexSrc = i;\n" +
 				"\n" +
-				"\t\t\t\t" + sumType + " total = (dataSrc[indexSrc]"+bitWise+") * k1;\n");
+				"\t\t\t\t" + sumType + " total = (dataSrc[indexSrc]"+bitWise+") * k1;\n";
 		for (int i = 1; i < num; i++) {
-			out.printf("\t\t\t\tindexSrc += image.stride;\n");
-			out.printf("\t\t\t\ttotal += (dataSrc[indexSrc]" + bitWise + ")*k%d;\n", (i + 1));
+			body += "\t\t\t\tindexSrc += image.stride;\n";
+			body += String.format("\t\t\t\ttotal += (dataSrc[indexSrc]" + bitWise + ")*k%d;\n", (i + 1));
 		}
-		out.print("\n");
+		body += "\n";
 		if( hasDivisor )
-			out.print("\t\t\t\tdataDst[indexDst++] = " + typeCast + "("+divide+");\n");
+			body += "\t\t\t\tdataDst[indexDst++] = " + typeCast + "("+divide+");\n";
 		else
-			out.print("\t\t\t\tdataDst[indexDst++] = " + typeCast + "total;\n");
-		out.print("\t\t\t}\n" +
-				"\t\t}\n" +
-				"\t}\n\n");
+			body += "\t\t\t\tdataDst[indexDst++] = " + typeCast + "total;\n";
+		body += "\t\t\t}\n";
+
+		printRowLoop(concurrent,"y","radius","yEnd","",body);
+		out.print("\t}\n\n");
 	}
 
 	public void addConvolve(int num ) {
 		String typeCast = generateTypeCast();
 
-		out.print("\tpublic static void convolve" + num + "( Kernel2D_" + typeKernel + " kernel, " + typeInput + " src, " + typeOutput + " dest)\n");
+		out.print("\tpublic static void convolve" + num + "( " + fin() + "Kernel2D_" + typeKernel + " kernel, " + fin() + typeInput + " src, " + fin() + typeOutput + " dest)\n");
 
 		out.print("\t{\n" +
 				"\t\tfinal " + dataInput + "[] dataSrc = src.data;\n" +
@@ -284,25 +333,25 @@ public class GenerateConvolvedUnrolled extends CodeGeneratorBase {
 				"\t\tfinal int height = src.getHeight();\n" +
 				"\n" +
 				"\t\tfinal int kernelRadius = kernel.getRadius();\n" +
-				"\n" +
-				"\t\tfor( int y = kernelRadius; y < height-kernelRadius; y++ ) {\n" +
-				"\n" +
-				"\t\t\t// first time through the value needs to be set\n");
+				"\n");
+
+		String body = "\n" +
+				"\t\t\t// first time through the value needs to be set\n";
 		for( int i = 0; i < num; i++ ) {
-			out.print("\t\t\t"+sumType+" k"+(i+1)+" = kernel.data["+i+"];\n");
+			body += "\t\t\t"+sumType+" k"+(i+1)+" = kernel.data["+i+"];\n";
 		}
-		out.print("\n" +
+		body += "\n" +
 				"\t\t\tint indexDst = dest.startIndex + y*dest.stride+kernelRadius;\n" +
 				"\t\t\tint indexSrcRow = src.startIndex+(y-kernelRadius)*src.stride-kernelRadius;\n" +
 				"\t\t\tfor( int x = kernelRadius; x < width-kernelRadius; x++ ) {\n" +
 				"\t\t\t\tint indexSrc = indexSrcRow + x;\n" +
 				"\n" +
-				"\t\t\t\t"+sumType+" total = 0;\n");
+				"\t\t\t\t"+sumType+" total = 0;\n";
 		for( int i = 0; i < num-1; i++ ) {
-			out.print("\t\t\t\ttotal += (dataSrc[indexSrc++] "+bitWise+")* k"+(i+1)+";\n");
+			body += "\t\t\t\ttotal += (dataSrc[indexSrc++] "+bitWise+")* k"+(i+1)+";\n";
 		}
-		out.print("\t\t\t\ttotal += (dataSrc[indexSrc] "+bitWise+")* k"+num+";\n");
-		out.print("\n" +
+		body += "\t\t\t\ttotal += (dataSrc[indexSrc] "+bitWise+")* k"+num+";\n";
+		body += "\n" +
 				"\t\t\t\tdataDst[indexDst++] = "+typeCast+"total;\n" +
 				"\t\t\t}\n" +
 				"\n" +
@@ -310,31 +359,32 @@ public class GenerateConvolvedUnrolled extends CodeGeneratorBase {
 				"\t\t\tfor( int i = 1; i < "+num+"; i++ ) {\n" +
 				"\t\t\t\tindexDst = dest.startIndex + y*dest.stride+kernelRadius;\n" +
 				"\t\t\t\tindexSrcRow = src.startIndex+(y+i-kernelRadius)*src.stride-kernelRadius;\n" +
-				"\t\t\t\t\n");
+				"\t\t\t\t\n";
 		for( int i = 0; i < num; i++ ) {
-			out.print("\t\t\t\tk"+(i+1)+" = kernel.data[i*"+num+" + "+i+"];\n");
+			body += "\t\t\t\tk"+(i+1)+" = kernel.data[i*"+num+" + "+i+"];\n";
 		}
-		out.print("\n" +
+		body += "\n" +
 				"\t\t\t\tfor( int x = kernelRadius; x < width-kernelRadius; x++ ) {\n" +
 				"\t\t\t\t\tint indexSrc = indexSrcRow+x;\n" +
 				"\n" +
-				"\t\t\t\t\t"+sumType+" total = 0;\n");
+				"\t\t\t\t\t"+sumType+" total = 0;\n";
 		for( int i = 0; i < num-1; i++ ) {
-			out.print("\t\t\t\t\ttotal += (dataSrc[indexSrc++] "+bitWise+")* k"+(i+1)+";\n");
+			body += "\t\t\t\t\ttotal += (dataSrc[indexSrc++] "+bitWise+")* k"+(i+1)+";\n";
 		}
-		out.print("\t\t\t\t\ttotal += (dataSrc[indexSrc] "+bitWise+")* k"+(num)+";\n");
-		out.print("\n" +
+		body += "\t\t\t\t\ttotal += (dataSrc[indexSrc] "+bitWise+")* k"+(num)+";\n";
+		body += "\n" +
 				"\t\t\t\t\tdataDst[indexDst++] += "+typeCast+"total;\n" +
 				"\t\t\t\t}\n" +
-				"\t\t\t}\n" +
-				"\t\t}\n" +
-				"\t}\n\n");
+				"\t\t\t}\n";
+
+		printRowLoop(concurrent,"y","kernelRadius","height-kernelRadius","",body);
+		out.print("\t}\n\n");
 	}
 
 	public void addConvolveDiv(int num ) {
 		String typeCast = generateTypeCast();
 
-		out.print("\tpublic static void convolve" + num + "( Kernel2D_" + typeKernel + " kernel, " + typeInput + " src, " + typeOutput + " dest , int divisor )\n");
+		out.print("\tpublic static void convolve" + num + "( " + fin() + "Kernel2D_" + typeKernel + " kernel, " + fin() + typeInput + " src, " + fin() + typeOutput + " dest , " + fin() + "int divisor )\n");
 
 		out.print("\t{\n" +
 				"\t\tfinal " + dataInput + "[] dataSrc = src.data;\n" +
@@ -345,54 +395,56 @@ public class GenerateConvolvedUnrolled extends CodeGeneratorBase {
 				declareHalf +
 				"\n" +
 				"\t\tfinal int kernelRadius = kernel.getRadius();\n");
-		out.print("\t\tfinal "+sumType+" totalRow[] = new int[ width ];\n");
-		out.print("\n" +
-				"\t\tfor( int y = kernelRadius; y < height-kernelRadius; y++ ) {\n" +
-				"\n" +
-				"\t\t\t// first time through the value needs to be set\n");
+
+		// each thread needs its own storage for the row sum
+		String blockSetup = "\t\tfinal "+sumType+" totalRow[] = new int[ width ];\n\n";
+
+		String body = "\n" +
+				"\t\t\t// first time through the value needs to be set\n";
 		for( int i = 0; i < num; i++ ) {
-			out.print("\t\t\t"+sumType+" k"+(i+1)+" = kernel.data["+i+"];\n");
+			body += "\t\t\t"+sumType+" k"+(i+1)+" = kernel.data["+i+"];\n";
 		}
-		out.print("\n" +
+		body += "\n" +
 				"\t\t\tint indexSrcRow = src.startIndex+(y-kernelRadius)*src.stride-kernelRadius;\n" +
 				"\t\t\tfor( int x = kernelRadius; x < width-kernelRadius; x++ ) {\n" +
 				"\t\t\t\tint indexSrc = indexSrcRow + x;\n" +
 				"\n" +
-				"\t\t\t\t"+sumType+" total = 0;\n");
+				"\t\t\t\t"+sumType+" total = 0;\n";
 		for( int i = 0; i < num-1; i++ ) {
-			out.print("\t\t\t\ttotal += (dataSrc[indexSrc++] "+bitWise+")* k"+(i+1)+";\n");
+			body += "\t\t\t\ttotal += (dataSrc[indexSrc++] "+bitWise+")* k"+(i+1)+";\n";
 		}
-		out.print("\t\t\t\ttotal += (dataSrc[indexSrc] "+bitWise+")* k"+num+";\n");
-		out.print("\n" +
+		body += "\t\t\t\ttotal += (dataSrc[indexSrc] "+bitWise+")* k"+num+";\n";
+		body += "\n" +
 				"\t\t\t\ttotalRow[x] = total;\n" +
 				"\t\t\t}\n" +
 				"\n" +
 				"\t\t\t// rest of the convolution rows are an addition\n" +
 				"\t\t\tfor( int i = 1; i < "+num+"; i++ ) {\n" +
 				"\t\t\t\tindexSrcRow = src.startIndex+(y+i-kernelRadius)*src.stride-kernelRadius;\n" +
-				"\t\t\t\t\n");
+				"\t\t\t\t\n";
 		for( int i = 0; i < num; i++ ) {
-			out.print("\t\t\t\tk"+(i+1)+" = kernel.data[i*"+num+" + "+i+"];\n");
+			body += "\t\t\t\tk"+(i+1)+" = kernel.data[i*"+num+" + "+i+"];\n";
 		}
-		out.print("\n" +
+		body += "\n" +
 				"\t\t\t\tfor( int x = kernelRadius; x < width-kernelRadius; x++ ) {\n" +
 				"\t\t\t\t\tint indexSrc = indexSrcRow+x;\n" +
 				"\n" +
-				"\t\t\t\t\t"+sumType+" total = 0;\n");
+				"\t\t\t\t\t"+sumType+" total = 0;\n";
 		for( int i = 0; i < num-1; i++ ) {
-			out.print("\t\t\t\t\ttotal += (dataSrc[indexSrc++] "+bitWise+")* k"+(i+1)+";\n");
+			body += "\t\t\t\t\ttotal += (dataSrc[indexSrc++] "+bitWise+")* k"+(i+1)+";\n";
 		}
-		out.print("\t\t\t\t\ttotal += (dataSrc[indexSrc] "+bitWise+")* k"+(num)+";\n");
-		out.print("\n" +
+		body += "\t\t\t\t\ttotal += (dataSrc[indexSrc] "+bitWise+")* k"+(num)+";\n";
+		body += "\n" +
 				"\t\t\t\t\ttotalRow[x] += total;\n" +
 				"\t\t\t\t}\n" +
 				"\t\t\t}\n" +
 				"\t\t\tint indexDst = dest.startIndex + y*dest.stride+kernelRadius;\n" +
 				"\t\t\tfor( int x = kernelRadius; x < width-kernelRadius; x++ ) {\n" +
 				"\t\t\t\tdataDst[indexDst++] = "+typeCast+"((totalRow[x]+halfDivisor)/ divisor);\n" +
-				"\t\t\t}\n"+
-				"\t\t}\n" +
-				"\t}\n\n");
+				"\t\t\t}\n";
+
+		printRowLoop(concurrent,"y","kernelRadius","height-kernelRadius",blockSetup,body);
+		out.print("\t}\n\n");
 	}
 
 	private String generateTypeCast() {
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.filter.binary;
+
+import boofcv.abst.filter.FilterImageInterface;
+import boofcv.alg.filter.binary.GThresholdImageOps;
+import boofcv.alg.filter.binary.ThresholdSquareIntegral;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * {@link FilterImageInterface} wrapper around {@link ThresholdSquareIntegral}.  The integral image is
+ * saved between calls.
+ *
+ * @author Peter Abeles
+ */
+public class ThresholdSquareIntegralFilter<T extends ImageSingleBand> implements FilterImageInterface<T,ImageUInt8> {
+
+	ThresholdSquareIntegral alg;
+
+	// radius of the square region
+	int radius;
+	// bias added to the local mean
+	double bias;
+	// should it threshold up or down
+	boolean down;
+
+	// type of image it processes
+	Class<T> inputType;
+
+	public ThresholdSquareIntegralFilter(ThresholdSquareIntegral alg,
+										 int radius, double bias, boolean down,
+										 Class<T> inputType) {
+		this.alg = alg;
+		this.radius = radius;
+		this.bias = bias;
+		this.down = down;
+		this.inputType = inputType;
+	}
+
+	@Override
+	public void process(T input, ImageUInt8 output) {
+		GThresholdImageOps.adaptiveSquareIntegral(input, output, radius, bias, down, alg);
+	}
+
+	@Override
+	public int getHorizontalBorder() {
+		return 0;
+	}
+
+	@Override
+	public int getVerticalBorder() {
+		return 0;
+	}
+
+	@Override
+	public Class<T> getInputType() {
+		return inputType;
+	}
+
+	public int getRadius() {
+		return radius;
+	}
+
+	public void setRadius(int radius) {
+		this.radius = radius;
+	}
+
+	public double getBias() {
+		return bias;
+	}
+
+	public void setBias(double bias) {
+		this.bias = bias;
+	}
+
+	public boolean isDown() {
+		return down;
+	}
+
+	public void setDown(boolean down) {
+		this.down = down;
+	}
+}
@@ -19,6 +19,8 @@
 package boofcv.abst.filter.blur;
 
 import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.filter.blur.impl.ImplMedianHistogramConstant;
+import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageSingleBand;
 import boofcv.testing.BoofTesting;
 
@@ -37,14 +39,29 @@ public class MedianImageFilter<T extends ImageSingleBand> implements BlurFilter<
 	private Method m;
 	// size of the blur region
 	private int radius;
+	// filter and its storage, which is reused between calls
+	private ImplMedianHistogramConstant storage = new ImplMedianHistogramConstant();
 
 	Class<T> imageType;
 
 	public MedianImageFilter( Class<T> imageType , int radius) {
+		this(imageType,radius,false);
+	}
+
+	/**
+	 * @param imageType Type of image being processed.
+	 * @param radius Radius of the square region.
+	 * @param quantized If true then floating point images with too many unique values are quantized, see
+	 *                  {@link BlurImageOps#medianQuantized}.  Integer images are never quantized.
+	 */
+	public MedianImageFilter( Class<T> imageType , int radius , boolean quantized ) {
 		this.radius = radius;
 		this.imageType = imageType;
 
-		m = BoofTesting.findMethod(BlurImageOps.class,"median",imageType,imageType,int.class);
+		// integer images always have few enough levels to be exact
+		String name = quantized && imageType == ImageFloat32.class ? "medianQuantized" : "median";
+		m = BoofTesting.findMethod(BlurImageOps.class,name,imageType,imageType,int.class,
+				ImplMedianHistogramConstant.class);
 
 		if( m == null )
 			throw new IllegalArgumentException("Can't find matching function for image type "+imageType.getSimpleName());
@@ -68,7 +85,7 @@ public class MedianImageFilter<T extends ImageSingleBand> implements BlurFilter<
 	@Override
 	public void process(T input, T output) {
 		try {
-			m.invoke(null,input,output,radius);
+			m.invoke(null,input,output,radius,storage);
 		} catch (IllegalAccessException e) {
 			throw new RuntimeException(e);
 		} catch (InvocationTargetException e) {
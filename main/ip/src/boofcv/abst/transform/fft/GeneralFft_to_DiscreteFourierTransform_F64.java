@@ -44,6 +44,20 @@ public class GeneralFft_to_DiscreteFourierTransform_F64
 	// if true then it can modify the input images
 	private boolean modifyInputs = false;
 
+	// if true then the transform is computed using multiple threads
+	private boolean concurrent;
+
+	public GeneralFft_to_DiscreteFourierTransform_F64() {
+		this(false);
+	}
+
+	/**
+	 * @param concurrent If true then the transform is computed using multiple threads
+	 */
+	public GeneralFft_to_DiscreteFourierTransform_F64( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
 	@Override
 	public void forward(ImageFloat64 image, InterleavedF64 transform ) {
 		DiscreteFourierTransformOps.checkImageArguments(image,transform);
@@ -93,7 +107,7 @@ public class GeneralFft_to_DiscreteFourierTransform_F64
 		if( prevWidth != image.width || prevHeight != image.height ) {
 			prevWidth = image.width;
 			prevHeight = image.height;
-			alg = new GeneralPurposeFFT_F64_2D(image.height,image.width);
+			alg = new GeneralPurposeFFT_F64_2D(image.height,image.width,concurrent);
 		}
 	}
 
@@ -19,8 +19,10 @@
 package boofcv.alg;
 
 import boofcv.core.image.GeneralizedImageOps;
+import boofcv.core.image.ImagePool;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageType;
 
 /**
  * @author Peter Abeles
@@ -55,7 +57,11 @@ public class InputSanityCheck {
 	 */
 	public static <T extends ImageSingleBand> T checkDeclare(T input, T output) {
 		if (output == null) {
-			output = (T) input._createNew(input.width, input.height);
+			ImagePool pool = ImagePool.getGlobal();
+			if( pool != null )
+				output = pool.acquireZeros(ImageType.single((Class<T>)input.getClass()), input.width, input.height);
+			else
+				output = (T) input._createNew(input.width, input.height);
 		} else if (output.width != input.width || output.height != input.height)
 			throw new IllegalArgumentException("Width and/or height of input and output do not match.");
 		return output;
@@ -69,6 +75,45 @@ public class InputSanityCheck {
 		return output;
 	}
 
+	/**
+	 * Same as {@link #checkDeclare(ImageSingleBand, ImageSingleBand)} but for images which are only used internally
+	 * as work space.  If a global {@link ImagePool} has been set then the work image is taken from the pool and its
+	 * initial contents are undefined.  Once finished call {@link #releaseWork} to give it back to the pool.
+	 */
+	public static <T extends ImageSingleBand> T checkDeclareWork(T input, T work) {
+		if (work == null) {
+			ImagePool pool = ImagePool.getGlobal();
+			if( pool != null )
+				return pool.acquire(ImageType.single((Class<T>)input.getClass()), input.width, input.height);
+		}
+		return checkDeclare(input,work);
+	}
+
+	/**
+	 * Same as {@link #checkDeclare(ImageSingleBand, ImageSingleBand, Class)} but for images which are only used
+	 * internally as work space.  See {@link #checkDeclareWork(ImageSingleBand, ImageSingleBand)}.
+	 */
+	public static <T extends ImageSingleBand> T checkDeclareWork(ImageSingleBand<?> input, T work , Class<T> workType ) {
+		if (work == null) {
+			ImagePool pool = ImagePool.getGlobal();
+			if( pool != null )
+				return pool.acquireSingle(workType, input.width, input.height);
+		}
+		return checkDeclare(input,work,workType);
+	}
+
+	/**
+	 * Gives a work image declared by checkDeclareWork back to the global {@link ImagePool}.  If the work image
+	 * was provided by the user then nothing is done.
+	 *
+	 * @param provided The work image passed in by the user.  Can be null.
+	 * @param work The work image returned by checkDeclareWork.
+	 */
+	public static void releaseWork( ImageBase provided , ImageBase work ) {
+		if( provided != work )
+			ImagePool.releaseGlobal(work);
+	}
+
 	public static void checkSameShape(ImageBase<?> imgA, ImageBase<?> imgB) {
 		if (imgA.width != imgB.width)
 			throw new IllegalArgumentException("Image widths do not match.");
@@ -21,6 +21,7 @@ package boofcv.alg.distort;
 import boofcv.alg.distort.impl.DistortSupport;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.core.image.border.BorderType;
 import boofcv.core.image.border.FactoryImageBorder;
 import boofcv.core.image.border.ImageBorder;
 import boofcv.factory.distort.FactoryDistort;
@@ -189,6 +190,30 @@ public class DistortImageOps {
 		return distorter;
 	}
 
+	/**
+	 * Easy way to create {@link ImageDistort} given {@link PixelTransform_F32}.  The distortion is cached
+	 * in a compact table and can optionally be applied using multiple threads.
+	 *
+	 * @see FactoryDistort#distortPacked
+	 *
+	 * @param transform Image transform.
+	 * @param interpType Which interpolation. Try bilinear.
+	 * @param fixedPoint If true the distortion is stored in fixed point, which uses half the memory.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @param imageType Image of single band image it will process.
+	 * @return The {@link ImageDistort}
+	 */
+	public static <T extends ImageSingleBand>
+	ImageDistort<T> createImageDistort( PointTransform_F32 transform ,
+										TypeInterpolate interpType,
+										boolean fixedPoint , boolean concurrent ,
+										Class<T> imageType ) {
+		ImageDistort<T> distorter = FactoryDistort.distortPacked(interpType, BorderType.VALUE, fixedPoint, concurrent, imageType);
+		distorter.setModel(new PointToPixelTransform_F32(transform));
+
+		return distorter;
+	}
+
 	/**
 	 * Rescales the input image and writes the results into the output image.  The scale
 	 * factor is determined independently of the width and height.
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.core.image.border.ImageBorder;
+import boofcv.struct.distort.PixelTransform_F32;
+import boofcv.struct.image.ImageSingleBand;
+import georegression.struct.point.Point2D_F32;
+
+/**
+ * <p>
+ * Implementation of {@link ImageDistort} which caches the distortion in a {@link PixelTransformPacked_F32}.
+ * Like {@link ImageDistortCache} the distortion is only computed once, but the table uses much less memory.
+ * The output image is processed one tile at a time, which keeps the region of the input image being read
+ * small enough to stay in the CPU's cache when the distortion varies smoothly.
+ * </p>
+ *
+ * <p>
+ * When the table is in floating point format the output is identical to {@link ImageDistortBasic}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class ImageDistortPacked<T extends ImageSingleBand> implements ImageDistort<T> {
+
+	// cached distortion
+	protected PixelTransformPacked_F32 table;
+	// distortion model from the dst to src image
+	protected PixelTransform_F32 dstToSrc;
+	// if true the table needs to be recomputed
+	protected boolean dirty;
+
+	// sub pixel interpolation
+	protected InterpolatePixelS<T> interp;
+	// handle the image border
+	protected ImageBorder<T> border;
+
+	// size of a tile in the output image
+	protected int tileWidth = 64;
+	protected int tileHeight = 32;
+
+	protected T srcImg;
+	protected T dstImg;
+
+	// transformed coordinate of the current pixel
+	private Point2D_F32 s = new Point2D_F32();
+
+	/**
+	 * Specifies configuration parameters
+	 *
+	 * @param interp Interpolation algorithm
+	 * @param border How borders are handled
+	 * @param fixedPoint If true the distortion is cached in fixed point format
+	 */
+	public ImageDistortPacked(InterpolatePixelS<T> interp,
+							  ImageBorder<T> border ,
+							  boolean fixedPoint ) {
+		this.interp = interp;
+		this.border = border;
+		this.table = new PixelTransformPacked_F32(fixedPoint);
+	}
+
+	@Override
+	public void setModel(PixelTransform_F32 dstToSrc) {
+		this.dirty = true;
+		this.dstToSrc = dstToSrc;
+	}
+
+	/**
+	 * Specifies a table which has already been computed.  The table will be used until
+	 * {@link #setModel} is called.
+	 *
+	 * @param table Cached distortion.  Must be the same shape as the output image.
+	 */
+	public void setTable( PixelTransformPacked_F32 table ) {
+		this.table = table;
+		this.dstToSrc = null;
+		this.dirty = false;
+	}
+
+	@Override
+	public void apply(T srcImg, T dstImg) {
+		apply(srcImg,dstImg,0,0,dstImg.width,dstImg.height);
+	}
+
+	@Override
+	public void apply(T srcImg, T dstImg, int dstX0, int dstY0, int dstX1, int dstY1) {
+		init(srcImg, dstImg);
+
+		for( int ty0 = dstY0; ty0 < dstY1; ty0 += tileHeight ) {
+			int ty1 = Math.min(dstY1,ty0+tileHeight);
+			for( int tx0 = dstX0; tx0 < dstX1; tx0 += tileWidth ) {
+				int tx1 = Math.min(dstX1,tx0+tileWidth);
+
+				if( border != null )
+					applyBorder(tx0,ty0,tx1,ty1);
+				else
+					applyNoBorder(tx0,ty0,tx1,ty1);
+			}
+		}
+	}
+
+	private void init(T srcImg, T dstImg) {
+		if( dirty || table.getWidth() != dstImg.width || table.getHeight() != dstImg.height ) {
+			if( dstToSrc == null )
+				throw new IllegalArgumentException("Unexpected dstImg dimension");
+			table.set(dstToSrc,dstImg.width,dstImg.height);
+			dirty = false;
+		}
+
+		this.srcImg = srcImg;
+		this.dstImg = dstImg;
+		interp.setImage(srcImg);
+		if( border != null )
+			border.setImage(srcImg);
+	}
+
+	protected void applyBorder( int x0 , int y0 , int x1 , int y1 ) {
+		final float minInterpX = interp.getFastBorderX();
+		final float minInterpY = interp.getFastBorderY();
+		final float maxInterpX = srcImg.getWidth()-interp.getFastBorderX()-1;
+		final float maxInterpY = srcImg.getHeight()-interp.getFastBorderY()-1;
+
+		final float widthF = srcImg.getWidth()-1;
+		final float heightF = srcImg.getHeight()-1;
+
+		for( int y = y0; y < y1; y++ ) {
+			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+			for( int x = x0; x < x1; x++ , indexDst++ ) {
+				table.get(x,y,s);
+
+				if( s.x < minInterpX || s.x > maxInterpX || s.y < minInterpY || s.y > maxInterpY ) {
+					if( s.x < 0f || s.x > widthF || s.y < 0f || s.y > heightF )
+						assign(indexDst,(float)border.getGeneral((int)s.x,(int)s.y));
+					else
+						assign(indexDst,interp.get(s.x, s.y));
+				} else {
+					assign(indexDst,interp.get_fast(s.x, s.y));
+				}
+			}
+		}
+	}
+
+	protected void applyNoBorder( int x0 , int y0 , int x1 , int y1 ) {
+		final float minInterpX = interp.getFastBorderX();
+		final float minInterpY = interp.getFastBorderY();
+		final float maxInterpX = srcImg.getWidth()-interp.getFastBorderX()-1;
+		final float maxInterpY = srcImg.getHeight()-interp.getFastBorderY()-1;
+
+		final float widthF = srcImg.getWidth()-1;
+		final float heightF = srcImg.getHeight()-1;
+
+		for( int y = y0; y < y1; y++ ) {
+			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+			for( int x = x0; x < x1; x++ , indexDst++ ) {
+				table.get(x,y,s);
+
+				if( s.x < minInterpX || s.x > maxInterpX || s.y < minInterpY || s.y > maxInterpY ) {
+					if( s.x >= 0f && s.x <= widthF && s.y >= 0f && s.y <= heightF )
+						assign(indexDst,interp.get(s.x, s.y));
+				} else {
+					assign(indexDst,interp.get_fast(s.x, s.y));
+				}
+			}
+		}
+	}
+
+	protected abstract void assign( int indexDst , float value );
+
+	/**
+	 * Specifies the size of the tiles the output image is processed in
+	 */
+	public void setTileSize( int tileWidth , int tileHeight ) {
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+	}
+
+	public PixelTransformPacked_F32 getTable() {
+		return table;
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.distort.PixelTransform_F32;
+import boofcv.struct.image.ImageSingleBand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent version of {@link ImageDistortPacked}.  The output image is split into blocks of rows and each
+ * block is processed by its own instance of {@link ImageDistortPacked}, which in turn processes its block one
+ * tile at a time.  Interpolation and border handling are not thread safe, so every instance has its own.  The
+ * distortion table is only computed once and is shared by all the instances.  The output is identical to the
+ * single threaded algorithm.
+ * </p>
+ *
+ * <p>
+ * Instances of the single threaded algorithm are created as needed by the provided {@link Factory}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImageDistortPacked_MT<T extends ImageSingleBand> implements ImageDistort<T> {
+
+	// minimum number of rows processed by a thread
+	public static final int MIN_BLOCK = 32;
+
+	// creates new instances of the single threaded algorithm
+	Factory<T> factory;
+
+	// algorithm used to process each block
+	List<ImageDistortPacked<T>> workers = new ArrayList<ImageDistortPacked<T>>();
+
+	// distortion table shared by all the workers
+	PixelTransformPacked_F32 table;
+	// distortion model from the dst to src image
+	PixelTransform_F32 dstToSrc;
+	// if true the table needs to be recomputed
+	boolean dirty;
+
+	/**
+	 * Specifies how the single threaded algorithm is created.
+	 *
+	 * @param factory Creates a new instance of the single threaded algorithm with its own interpolation and border.
+	 */
+	public ImageDistortPacked_MT( Factory<T> factory ) {
+		this.factory = factory;
+		ImageDistortPacked<T> first = factory.create();
+		workers.add(first);
+		table = first.getTable();
+	}
+
+	@Override
+	public void setModel(PixelTransform_F32 dstToSrc) {
+		this.dirty = true;
+		this.dstToSrc = dstToSrc;
+	}
+
+	@Override
+	public void apply(T srcImg, T dstImg) {
+		apply(srcImg,dstImg,0,0,dstImg.width,dstImg.height);
+	}
+
+	@Override
+	public void apply(final T srcImg, final T dstImg,
+					  final int dstX0, final int dstY0, final int dstX1, final int dstY1) {
+		if( dirty || table.getWidth() != dstImg.width || table.getHeight() != dstImg.height ) {
+			if( dstToSrc == null )
+				throw new IllegalArgumentException("Unexpected dstImg dimension");
+			table.set(dstToSrc,dstImg.width,dstImg.height);
+			dirty = false;
+		}
+
+		final int numBlocks = BoofConcurrency.computeNumBlocks(dstY1 - dstY0, MIN_BLOCK);
+
+		while( workers.size() < numBlocks ) {
+			workers.add(factory.create());
+		}
+		for( int i = 0; i < numBlocks; i++ ) {
+			workers.get(i).setTable(table);
+		}
+
+		if( numBlocks <= 1 ) {
+			workers.get(0).apply(srcImg,dstImg,dstX0,dstY0,dstX1,dstY1);
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(0, numBlocks, 1, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int block = min; block < max; block++ ) {
+					int y0 = BoofConcurrency.blockStart(dstY0, dstY1, numBlocks, block);
+					int y1 = BoofConcurrency.blockStart(dstY0, dstY1, numBlocks, block + 1);
+
+					workers.get(block).apply(srcImg,dstImg,dstX0,y0,dstX1,y1);
+				}
+			}
+		});
+	}
+
+	public PixelTransformPacked_F32 getTable() {
+		return table;
+	}
+
+	/**
+	 * Creates a new instance of the single threaded algorithm.  Each instance must have its own
+	 * interpolation and border since they are not thread safe.
+	 */
+	public interface Factory<T extends ImageSingleBand> {
+		public ImageDistortPacked<T> create();
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort;
+
+import boofcv.struct.distort.PixelTransform_F32;
+import georegression.struct.point.Point2D_F32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Precomputes a {@link PixelTransform_F32} for every pixel in an image and stores the results in primitive
+ * arrays.  Compared to storing a {@link Point2D_F32} for each pixel this requires much less memory and
+ * creates no objects for the garbage collector.
+ * </p>
+ *
+ * <p>
+ * Two formats are supported.  In floating point format the transformed coordinate of each pixel is saved
+ * as two floats, requiring 8 bytes per pixel.  In fixed point format the displacement from each pixel to its
+ * transformed coordinate is saved as two shorts with {@link #FRACTION_BITS} fractional bits, requiring 4 bytes
+ * per pixel.  This has a resolution of 1/32 of a pixel and can represent displacements of up to about 1023
+ * pixels.  Pixels with larger displacements are saved in floating point in a separate list.
+ * </p>
+ *
+ * <p>
+ * Once computed the table is only read, so {@link #get(int, int, Point2D_F32)} can be called from multiple
+ * threads at the same time.  {@link #compute(int, int)} is not thread safe since it writes to
+ * {@link #distX} and {@link #distY}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PixelTransformPacked_F32 extends PixelTransform_F32 {
+
+	// number of fractional bits in the fixed point format
+	public static final int FRACTION_BITS = 5;
+	public static final float SCALE = 1 << FRACTION_BITS;
+	// used to indicate that the displacement is too large to be stored in fixed point
+	public static final short OVERFLOW = Short.MIN_VALUE;
+
+	// shape of the image the table was computed for
+	protected int width, height;
+
+	// is the table stored in fixed point
+	protected boolean fixedPoint;
+
+	// transformed (x,y) coordinate of each pixel, interleaved.  Only used in floating point format
+	protected float[] coordinates = new float[0];
+	// fixed point displacement (dx,dy) of each pixel, interleaved.  Only used in fixed point format
+	protected short[] offsets = new short[0];
+
+	// index of pixels which could not be stored in fixed point, in increasing order
+	protected int[] overflowIndex = new int[0];
+	// transformed (x,y) coordinate of each overflow pixel, interleaved
+	protected float[] overflowCoordinates = new float[0];
+	protected int numOverflow;
+
+	// internal work space
+	private Point2D_F32 work = new Point2D_F32();
+
+	/**
+	 * Specifies the storage format.
+	 *
+	 * @param fixedPoint If true the table is stored in fixed point, otherwise floating point.
+	 */
+	public PixelTransformPacked_F32( boolean fixedPoint ) {
+		this.fixedPoint = fixedPoint;
+	}
+
+	/**
+	 * Computes the table for the specified transform and image shape
+	 *
+	 * @param transform The transform which is to be cached.
+	 * @param width Image width
+	 * @param height Image height
+	 */
+	public void set( PixelTransform_F32 transform , int width , int height ) {
+		this.width = width;
+		this.height = height;
+
+		int N = width*height;
+
+		if( fixedPoint ) {
+			coordinates = new float[0];
+			if( offsets.length != N*2 )
+				offsets = new short[N*2];
+			numOverflow = 0;
+
+			int index = 0;
+			for( int y = 0; y < height; y++ ) {
+				for( int x = 0; x < width; x++ , index++ ) {
+					transform.compute(x,y);
+					float dx = (transform.distX - x)*SCALE;
+					float dy = (transform.distY - y)*SCALE;
+
+					// the negated comparisons also catch NaN
+					if( !(Math.abs(dx) <= Short.MAX_VALUE) || !(Math.abs(dy) <= Short.MAX_VALUE) ) {
+						offsets[index*2] = OVERFLOW;
+						offsets[index*2+1] = 0;
+						addOverflow(index, transform.distX, transform.distY);
+					} else {
+						offsets[index*2] = (short)Math.round(dx);
+						offsets[index*2+1] = (short)Math.round(dy);
+					}
+				}
+			}
+		} else {
+			offsets = new short[0];
+			if( coordinates.length != N*2 )
+				coordinates = new float[N*2];
+			numOverflow = 0;
+
+			int index = 0;
+			for( int y = 0; y < height; y++ ) {
+				for( int x = 0; x < width; x++ ) {
+					transform.compute(x,y);
+					coordinates[index++] = transform.distX;
+					coordinates[index++] = transform.distY;
+				}
+			}
+		}
+	}
+
+	private void addOverflow( int index , float x , float y ) {
+		if( numOverflow == overflowIndex.length ) {
+			int size = Math.max(16,numOverflow*2);
+			overflowIndex = Arrays.copyOf(overflowIndex,size);
+			overflowCoordinates = Arrays.copyOf(overflowCoordinates,size*2);
+		}
+		overflowIndex[numOverflow] = index;
+		overflowCoordinates[numOverflow*2] = x;
+		overflowCoordinates[numOverflow*2+1] = y;
+		numOverflow++;
+	}
+
+	/**
+	 * Looks up the transformed coordinate of a pixel.  Thread safe.
+	 *
+	 * @param x Pixel x-coordinate
+	 * @param y Pixel y-coordinate
+	 * @param output Storage for the transformed coordinate
+	 */
+	public final void get( int x , int y , Point2D_F32 output ) {
+		int index = y*width + x;
+		if( fixedPoint ) {
+			short dx = offsets[index*2];
+			if( dx == OVERFLOW ) {
+				int which = Arrays.binarySearch(overflowIndex,0,numOverflow,index);
+				output.x = overflowCoordinates[which*2];
+				output.y = overflowCoordinates[which*2+1];
+			} else {
+				output.x = x + dx/SCALE;
+				output.y = y + offsets[index*2+1]/SCALE;
+			}
+		} else {
+			output.x = coordinates[index*2];
+			output.y = coordinates[index*2+1];
+		}
+	}
+
+	@Override
+	public void compute(int x, int y) {
+		get(x,y,work);
+		distX = work.x;
+		distY = work.y;
+	}
+
+	/**
+	 * Number of bytes used to store the table
+	 */
+	public long getMemoryBytes() {
+		return coordinates.length*4L + offsets.length*2L + overflowIndex.length*4L + overflowCoordinates.length*4L;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public boolean isFixedPoint() {
+		return fixedPoint;
+	}
+
+	public int getNumOverflow() {
+		return numOverflow;
+	}
+}
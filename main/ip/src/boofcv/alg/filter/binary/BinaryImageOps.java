@@ -291,6 +291,7 @@ public class BinaryImageOps {
 	 * </p>
 	 *
 	 * @see LinearContourLabelChang2004
+	 * @see ContourLabelBlocks
 	 *
 	 * @param input Input binary image.  Not modified.
 	 * @oaram rule Connectivity rule.  Can be 4 or 8.  8 is more commonly used.
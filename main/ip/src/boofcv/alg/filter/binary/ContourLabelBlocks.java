@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageUInt8;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Labels blobs in a binary image and finds their external and internal contours, producing the same labeled
+ * image and contours as {@link LinearContourLabelChang2004}.  Instead of labeling and tracing in a single
+ * sequential scan, each step can be split up between threads:
+ * <ol>
+ * <li>Blobs are labeled with {@link LabelBlobsUnionFind}.</li>
+ * <li>Holes are found by labeling the background using the opposite connectivity rule.  Every background
+ * region which does not touch the image border is a hole.</li>
+ * <li>The external contour of each blob is traced starting from its first pixel, and the internal contour of
+ * each hole is traced starting from the blob pixel just above the hole's first pixel.</li>
+ * </ol>
+ * Contours are saved in {@link PackedContours}, which stores all the points in a single primitive array.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ContourLabelBlocks {
+
+	// minimum number of blobs traced by a thread
+	public static final int MIN_BLOCK_TRACE = 100;
+
+	// labels the blobs and the background
+	private LabelBlobsUnionFind labelBlobs;
+	private LabelBlobsUnionFind labelBackground;
+
+	// binary image with a border of zero.
+	private ImageUInt8 border = new ImageUInt8(1,1);
+	// labeled background of the binary image with a border
+	private ImageSInt32 background = new ImageSInt32(1,1);
+
+	// holes sorted by the blob they belong to. For blob i: holes.data[holeStart.data[i]] to holes.data[holeStart.data[i+1]-1]
+	private GrowQueue_I32 holeStart = new GrowQueue_I32();
+	private GrowQueue_I32 holes = new GrowQueue_I32();
+
+	// found contours
+	private PackedContours contours = new PackedContours();
+
+	// storage for each block of blobs being traced
+	private Block blocks[] = new Block[0];
+	private int numBlobs;
+	private int numBlocks;
+
+	// connectivity rule
+	private int rule;
+	// should it process the image using multiple threads
+	private boolean concurrent;
+
+	private IntRangeTask taskTrace = new IntRangeTask() {
+		@Override
+		public void process(int minInclusive, int maxExclusive) {
+			for( int i = minInclusive; i < maxExclusive; i++ ) {
+				int blob0 = BoofConcurrency.blockStart(0,numBlobs,numBlocks,i);
+				int blob1 = BoofConcurrency.blockStart(0,numBlobs,numBlocks,i+1);
+				trace(blocks[i],blocks[i].contours,blob0,blob1);
+			}
+		}
+	};
+
+	/**
+	 * Configures the algorithm.
+	 *
+	 * @param rule Connectivity rule.  4 or 8
+	 * @param concurrent If true the image will be processed in parallel using {@link BoofConcurrency}.
+	 */
+	public ContourLabelBlocks( int rule , boolean concurrent ) {
+		this.rule = rule;
+		this.concurrent = concurrent;
+		labelBlobs = new LabelBlobsUnionFind(rule,concurrent);
+		labelBackground = new LabelBlobsUnionFind(rule == 8 ? 4 : 8,concurrent);
+	}
+
+	/**
+	 * Processes the binary image to find the contour of and label blobs.
+	 *
+	 * @param binary Input binary image. Not modified.
+	 * @param labeled Output. Labeled image.  Modified.
+	 */
+	public void process( ImageUInt8 binary , ImageSInt32 labeled ) {
+		InputSanityCheck.checkSameShape(binary,labeled);
+
+		// ensure that the image border pixels are filled with zero by enlarging the image
+		if( border.width != binary.width+2 || border.height != binary.height+2)  {
+			border.reshape(binary.width + 2, binary.height + 2);
+			ImageMiscOps.fillBorder(border, 0, 1);
+			background.reshape(border.width,border.height);
+		}
+		border.subimage(1,1,border.width-1,border.height-1, null).setTo(binary);
+
+		numBlobs = labelBlobs.process(binary,1,labeled);
+
+		// the background touching the image border is the first region in the image with a border
+		int numRegions = labelBackground.process(border,0,background);
+		findHoles(labeled,numRegions);
+
+		// trace the contours
+		numBlocks = concurrent ? BoofConcurrency.computeNumBlocks(numBlobs,MIN_BLOCK_TRACE) : 1;
+		if( blocks.length < numBlocks ) {
+			Block tmp[] = new Block[numBlocks];
+			System.arraycopy(blocks,0,tmp,0,blocks.length);
+			for( int i = blocks.length; i < numBlocks; i++ )
+				tmp[i] = new Block(rule);
+			blocks = tmp;
+		}
+
+		if( numBlocks > 1 ) {
+			BoofConcurrency.loopBlocks(0,numBlocks,1,taskTrace);
+			contours.reset();
+			for( int i = 0; i < numBlocks; i++ )
+				contours.append(blocks[i].contours);
+		} else {
+			trace(blocks[0],contours,0,numBlobs);
+		}
+	}
+
+	/**
+	 * Sorts the holes by the blob they belong to.  Holes are already in the order their first pixel appears in
+	 * a raster scan, which is the order {@link LinearContourLabelChang2004} finds internal contours in.
+	 */
+	private void findHoles( ImageSInt32 labeled , int numRegions ) {
+		GrowQueue_I32 firstX = labelBackground.getFirstX();
+		GrowQueue_I32 firstY = labelBackground.getFirstY();
+
+		holeStart.resize(numBlobs+1);
+		for( int i = 0; i <= numBlobs; i++ )
+			holeStart.data[i] = 0;
+
+		// region 0 is the background outside of all the blobs
+		holes.resize(numRegions-1);
+		for( int i = 1; i < numRegions; i++ ) {
+			int blob = owner(labeled,firstX.data[i],firstY.data[i]);
+			holeStart.data[blob+1]++;
+		}
+		for( int i = 0; i < numBlobs; i++ )
+			holeStart.data[i+1] += holeStart.data[i];
+
+		for( int i = 1; i < numRegions; i++ ) {
+			int blob = owner(labeled,firstX.data[i],firstY.data[i]);
+			holes.data[holeStart.data[blob]++] = i;
+		}
+		// undo the shift caused by filling in the holes
+		for( int i = numBlobs; i > 0; i-- )
+			holeStart.data[i] = holeStart.data[i-1];
+		holeStart.data[0] = 0;
+	}
+
+	/**
+	 * Index of the blob which contains the pixel above a hole's first pixel.  Coordinates of the hole are
+	 * in the image with a border.
+	 */
+	private static int owner( ImageSInt32 labeled , int x , int y ) {
+		return labeled.unsafe_get(x-1,y-2)-1;
+	}
+
+	/**
+	 * Traces the external and internal contours of the specified range of blobs
+	 */
+	private void trace( Block block , PackedContours output , int blob0 , int blob1 ) {
+		GrowQueue_I32 blobX = labelBlobs.getFirstX();
+		GrowQueue_I32 blobY = labelBlobs.getFirstY();
+		GrowQueue_I32 holeX = labelBackground.getFirstX();
+		GrowQueue_I32 holeY = labelBackground.getFirstY();
+
+		output.reset();
+		block.tracer.setInputs(border,output);
+
+		for( int blob = blob0; blob < blob1; blob++ ) {
+			block.tracer.trace(blobX.data[blob]+1,blobY.data[blob]+1,true);
+
+			int end = holeStart.data[blob+1];
+			for( int i = holeStart.data[blob]; i < end; i++ ) {
+				int hole = holes.data[i];
+				block.tracer.trace(holeX.data[hole],holeY.data[hole]-1,false);
+			}
+			output.finishBlob();
+		}
+	}
+
+	/**
+	 * Contours of every blob found in the last image processed
+	 */
+	public PackedContours getContours() {
+		return contours;
+	}
+
+	public int getRule() {
+		return rule;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Storage for a thread tracing a block of blobs
+	 */
+	private static class Block {
+		ContourTracerPacked tracer;
+		PackedContours contours = new PackedContours();
+
+		private Block( int rule ) {
+			tracer = new ContourTracerPacked(rule);
+		}
+	}
+}
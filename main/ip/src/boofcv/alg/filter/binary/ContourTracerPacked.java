@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.binary;
+
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * Traces the contour around a blob and saves the points into {@link PackedContours}.  Produces the same points
+ * as {@link ContourTracer}, but the binary image is only read from, so several tracers can process the same
+ * image at once.  The input binary image is assumed to have a 1-pixel border of zeros that needs to be
+ * compensated for.
+ *
+ * @author Peter Abeles
+ */
+public class ContourTracerPacked {
+
+	// which connectivity rule is being used. 4 and 8 supported
+	private int rule;
+
+	// binary image being traced
+	private ImageUInt8 binary;
+
+	// storage for contour
+	private PackedContours contours;
+
+	// coordinate of pixel being examined (x,y)
+	private int x,y;
+	// direction it moved in
+	private int dir;
+	// index of the pixel in the image's internal array
+	private int indexBinary;
+
+	// the pixel index offset to each neighbor
+	private int offsetsBinary[];
+	// lookup table for which direction it should search next given the direction it traveled into the current pixel
+	private int nextDirection[];
+
+	/**
+	 * Specifies connectivity rule
+	 *
+	 * @param rule Specifies 4 or 8 as connectivity rule
+	 */
+	public ContourTracerPacked( int rule ) {
+		if( rule != 4 && rule != 8 )
+			throw new IllegalArgumentException("Connectivity rule must be 4 or 8 not "+rule);
+		this.rule = rule;
+
+		offsetsBinary = new int[rule];
+
+		if( rule == 8 ) {
+			nextDirection = new int[8];
+			for( int i = 0; i < 8; i++ )
+				nextDirection[i] = ((i+4)%8 + 2)%8;
+		} else {
+			nextDirection = new int[4];
+			for( int i = 0; i < 4; i++ )
+				nextDirection[i] = ((i+2)%4 + 1)%4;
+		}
+	}
+
+	/**
+	 * @param binary Binary image with a border of zeros added to the outside.  Not modified.
+	 * @param contours Storage for contour points.
+	 */
+	public void setInputs( ImageUInt8 binary , PackedContours contours ) {
+		this.binary = binary;
+		this.contours = contours;
+
+		int s = binary.stride;
+		if( rule == 8 ) {
+			offsetsBinary[0] =  1;   // x =  1 y =  0
+			offsetsBinary[1] =  1+s; // x =  1 y =  1
+			offsetsBinary[2] =    s; // x =  0 y =  1
+			offsetsBinary[3] = -1+s; // x = -1 y =  1
+			offsetsBinary[4] = -1  ; // x = -1 y =  0
+			offsetsBinary[5] = -1-s; // x = -1 y = -1
+			offsetsBinary[6] =   -s; // x =  0 y = -1
+			offsetsBinary[7] =  1-s; // x =  1 y = -1
+		} else {
+			offsetsBinary[0] =  1;   // x =  1 y =  0
+			offsetsBinary[1] =    s; // x =  0 y =  1
+			offsetsBinary[2] = -1;   // x = -1 y =  0
+			offsetsBinary[3] =   -s; // x =  0 y = -1
+		}
+	}
+
+	/**
+	 * Traces a contour and adds it to the blob currently being constructed in the {@link PackedContours}.
+	 *
+	 * @param initialX x-coordinate of first pixel in the binary image with a border
+	 * @param initialY y-coordinate of first pixel in the binary image with a border
+	 * @param external True for tracing an external contour or false for internal.
+	 */
+	public void trace( int initialX , int initialY , boolean external )
+	{
+		int initialDir;
+		if( rule == 8 )
+			initialDir = external ? 7 : 3;
+		else
+			initialDir = external ? 0 : 2;
+
+		this.dir = initialDir;
+		x = initialX;
+		y = initialY;
+
+		indexBinary = binary.getIndex(x,y);
+		add(x,y);
+
+		// find the next black pixel.  handle case where its an isolated point
+		if( searchBlack() ) {
+			initialDir = dir;
+			moveToNext();
+			dir = nextDirection[dir];
+
+			while( true ) {
+				// search in clockwise direction around the current pixel for next black pixel
+				searchBlack();
+				if( x == initialX && y == initialY && dir == initialDir ) {
+					// returned to the initial state again. search is finished
+					break;
+				} else {
+					add(x, y);
+					moveToNext();
+					dir = nextDirection[dir];
+				}
+			}
+		}
+
+		contours.finishContour();
+	}
+
+	/**
+	 * Searches in a circle around the current point in a clock-wise direction for the first black pixel.
+	 */
+	private boolean searchBlack() {
+		for( int i = 0; i < offsetsBinary.length; i++ ) {
+			if( binary.data[indexBinary + offsetsBinary[dir]] == 1 )
+				return true;
+			dir = (dir+1)%rule;
+		}
+		return false;
+	}
+
+	private void moveToNext() {
+		// move to the next pixel using the precomputed pixel index offsets
+		indexBinary += offsetsBinary[dir];
+		// compute the new pixel coordinate from the binary pixel index
+		int a = indexBinary - binary.startIndex;
+		x = a%binary.stride;
+		y = a/binary.stride;
+	}
+
+	/**
+	 * Adds a point to the contour and compensates for the border added to binary image
+	 */
+	private void add( int x , int y ) {
+		contours.addPoint(x-1,y-1);
+	}
+}
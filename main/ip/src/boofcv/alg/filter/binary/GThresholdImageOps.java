@@ -97,6 +97,39 @@ public class GThresholdImageOps {
 		}
 	}
 
+	/**
+	 * <p>
+	 * Thresholds the image using an adaptive threshold that is computed using a local square region centered
+	 * on each pixel.  The threshold is equal to the average value of the surrounding pixels plus the bias,
+	 * which is computed from an integral image in a single pass.  See {@link ThresholdSquareIntegral}.
+	 * If down is true then b(x,y) = I(x,y) <= T(x,y) + bias ? 1 : 0.  Otherwise
+	 * b(x,y) = I(x,y) >= T(x,y) + bias ? 1 : 0
+	 * </p>
+	 *
+	 * @param input Input image.
+	 * @param output (optional) Output binary image.  If null it will be declared internally.
+	 * @param radius Radius of square region.
+	 * @param bias Bias used to adjust threshold.  Rounded to the nearest integer for integer images.
+	 * @param down Should it threshold up or down.
+	 * @param engine (Optional) Saves the integral image between calls.  If null will be declared internally.
+	 * @return Thresholded image.
+	 */
+	public static <T extends ImageSingleBand>
+	ImageUInt8 adaptiveSquareIntegral( T input , ImageUInt8 output ,
+									   int radius , double bias , boolean down, ThresholdSquareIntegral engine )
+	{
+		if( engine == null )
+			engine = new ThresholdSquareIntegral();
+
+		if( input instanceof ImageFloat32 ) {
+			return engine.process((ImageFloat32) input, output, radius, (float) bias, down);
+		} else if( input instanceof ImageUInt8 ) {
+			return engine.process((ImageUInt8) input, output, radius, (int)Math.round(bias), down);
+		} else {
+			throw new IllegalArgumentException("Unknown image type: "+input.getClass().getSimpleName());
+		}
+	}
+
 	/**
 	 * <p>
 	 * Thresholds the image using an adaptive threshold that is computed using a local square region centered
@@ -0,0 +1,425 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageUInt8;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Labels connected pixels which have the specified value using a block based union-find algorithm.  The image
+ * is split into bands of rows.  Inside each band pixels are given provisional labels in a raster scan and
+ * labels which are found to be connected are merged using a union-find data structure.  The bands are then
+ * joined by merging the labels of connected pixels along the seams between bands.  If concurrent is true the
+ * bands are labeled in parallel.
+ * </p>
+ *
+ * <p>
+ * Components are labeled from 1 to N in the order their first pixel is encountered in a raster scan, which
+ * is the same order used by {@link LinearContourLabelChang2004}.  Pixels which don't have the specified value
+ * are set to zero.  The output is the same no matter how many bands the image is split into.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LabelBlobsUnionFind {
+
+	// minimum number of rows in a band
+	public static final int MIN_BLOCK = 32;
+
+	// connectivity rule.  4 or 8
+	private int rule;
+	// should the image be processed in bands by multiple threads
+	private boolean concurrent;
+
+	// storage for each band
+	private Band bands[] = new Band[0];
+	private int numBands;
+
+	// parent of each provisional label across all the bands
+	private GrowQueue_I32 parent = new GrowQueue_I32();
+	// look up table from provisional label to final label
+	private GrowQueue_I32 finalLabel = new GrowQueue_I32();
+	// location of the first pixel in each component
+	private GrowQueue_I32 firstX = new GrowQueue_I32();
+	private GrowQueue_I32 firstY = new GrowQueue_I32();
+
+	// images being processed by the band tasks
+	private ImageUInt8 input;
+	private ImageSInt32 output;
+	private int value;
+
+	private IntRangeTask taskLabel = new IntRangeTask() {
+		@Override
+		public void process(int minInclusive, int maxExclusive) {
+			for( int i = minInclusive; i < maxExclusive; i++ )
+				labelBand(bands[i]);
+		}
+	};
+
+	private IntRangeTask taskRelabel = new IntRangeTask() {
+		@Override
+		public void process(int minInclusive, int maxExclusive) {
+			for( int i = minInclusive; i < maxExclusive; i++ )
+				relabelBand(bands[i]);
+		}
+	};
+
+	/**
+	 * Configures the algorithm
+	 *
+	 * @param rule Connectivity rule.  4 or 8
+	 * @param concurrent If true the image will be labeled in parallel using {@link BoofConcurrency}.
+	 */
+	public LabelBlobsUnionFind( int rule , boolean concurrent ) {
+		if( rule != 4 && rule != 8 )
+			throw new IllegalArgumentException("Connectivity rule must be 4 or 8 not "+rule);
+		this.rule = rule;
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Labels all the pixels in the input image which are equal to 'value'.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param value Value of pixels which are labeled
+	 * @param output Output labeled image.  Modified.
+	 * @return Number of connected components found
+	 */
+	public int process( ImageUInt8 input , int value , ImageSInt32 output ) {
+		InputSanityCheck.checkSameShape(input,output);
+
+		this.input = input;
+		this.output = output;
+		this.value = value;
+
+		// split the image into bands
+		numBands = concurrent ? BoofConcurrency.computeNumBlocks(input.height,MIN_BLOCK) : 1;
+		if( bands.length < numBands ) {
+			Band tmp[] = new Band[numBands];
+			System.arraycopy(bands,0,tmp,0,bands.length);
+			for( int i = bands.length; i < numBands; i++ )
+				tmp[i] = new Band();
+			bands = tmp;
+		}
+		for( int i = 0; i < numBands; i++ ) {
+			bands[i].y0 = BoofConcurrency.blockStart(0,input.height,numBands,i);
+			bands[i].y1 = BoofConcurrency.blockStart(0,input.height,numBands,i+1);
+		}
+
+		if( numBands > 1 )
+			BoofConcurrency.loopBlocks(0,numBands,1,taskLabel);
+		else
+			taskLabel.process(0,numBands);
+
+		mergeBands();
+		int numComponents = computeFinalLabels();
+
+		if( numBands > 1 )
+			BoofConcurrency.loopBlocks(0,numBands,1,taskRelabel);
+		else
+			taskRelabel.process(0,numBands);
+
+		this.input = null;
+		this.output = null;
+
+		return numComponents;
+	}
+
+	/**
+	 * Assigns provisional labels to pixels inside the band in a raster scan.  A new label is created when
+	 * a pixel has no neighbors which have already been labeled.
+	 */
+	private void labelBand( Band band ) {
+		band.parent.reset();
+		band.first.reset();
+
+		if( rule == 8 )
+			labelBand8(band);
+		else
+			labelBand4(band);
+	}
+
+	private void labelBand8( Band band ) {
+		final GrowQueue_I32 parent = band.parent;
+		final byte value = (byte)this.value;
+		final byte[] in = input.data;
+		final int[] out = output.data;
+		final int width = input.width;
+		final int strideIn = input.stride;
+		final int strideOut = output.stride;
+
+		for( int y = band.y0; y < band.y1; y++ ) {
+			int indexIn = input.startIndex + y*strideIn;
+			int indexOut = output.startIndex + y*strideOut;
+			boolean hasAbove = y > band.y0;
+
+			for( int x = 0; x < width; x++ , indexIn++ , indexOut++ ) {
+				if( in[indexIn] != value ) {
+					out[indexOut] = 0;
+					continue;
+				}
+
+				int label = 0;
+				if( hasAbove && in[indexIn-strideIn] == value ) {
+					// all the other neighbors are connected to the one above
+					label = out[indexOut-strideOut];
+				} else {
+					boolean hasLeft = x > 0;
+					if( hasLeft && in[indexIn-1] == value )
+						label = out[indexOut-1];
+					else if( hasAbove && hasLeft && in[indexIn-strideIn-1] == value )
+						label = out[indexOut-strideOut-1];
+
+					if( hasAbove && x < width-1 && in[indexIn-strideIn+1] == value ) {
+						int right = out[indexOut-strideOut+1];
+						if( label == 0 )
+							label = right;
+						else if( label != right )
+							label = union(parent,label-1,right-1)+1;
+					}
+				}
+
+				if( label == 0 )
+					label = createLabel(band,y*width+x);
+				out[indexOut] = label;
+			}
+		}
+	}
+
+	private void labelBand4( Band band ) {
+		final GrowQueue_I32 parent = band.parent;
+		final byte value = (byte)this.value;
+		final byte[] in = input.data;
+		final int[] out = output.data;
+		final int width = input.width;
+		final int strideIn = input.stride;
+		final int strideOut = output.stride;
+
+		for( int y = band.y0; y < band.y1; y++ ) {
+			int indexIn = input.startIndex + y*strideIn;
+			int indexOut = output.startIndex + y*strideOut;
+			boolean hasAbove = y > band.y0;
+
+			for( int x = 0; x < width; x++ , indexIn++ , indexOut++ ) {
+				if( in[indexIn] != value ) {
+					out[indexOut] = 0;
+					continue;
+				}
+
+				int label = 0;
+				if( x > 0 && in[indexIn-1] == value )
+					label = out[indexOut-1];
+				if( hasAbove && in[indexIn-strideIn] == value ) {
+					int above = out[indexOut-strideOut];
+					if( label == 0 )
+						label = above;
+					else if( label != above )
+						label = union(parent,label-1,above-1)+1;
+				}
+
+				if( label == 0 )
+					label = createLabel(band,y*width+x);
+				out[indexOut] = label;
+			}
+		}
+	}
+
+	/**
+	 * Creates a new provisional label which is its own set
+	 *
+	 * @return The new label
+	 */
+	private static int createLabel( Band band , int pixel ) {
+		band.parent.add(band.parent.size);
+		band.first.add(pixel);
+		return band.parent.size;
+	}
+
+	/**
+	 * Combines the labels from all the bands together and merges labels which are connected across the seams
+	 */
+	private void mergeBands() {
+		parent.reset();
+		for( int i = 0; i < numBands; i++ ) {
+			Band band = bands[i];
+			band.offset = parent.size;
+			for( int j = 0; j < band.parent.size; j++ )
+				parent.add(band.offset + band.parent.data[j]);
+		}
+
+		final byte value = (byte)this.value;
+		final int width = input.width;
+
+		for( int i = 1; i < numBands; i++ ) {
+			Band above = bands[i-1];
+			Band below = bands[i];
+
+			int indexIn = input.startIndex + below.y0*input.stride;
+			int indexOut = output.startIndex + below.y0*output.stride;
+			int s = input.stride;
+			int so = output.stride;
+
+			for( int x = 0; x < width; x++ , indexIn++ , indexOut++ ) {
+				if( input.data[indexIn] != value )
+					continue;
+
+				int a = below.offset + output.data[indexOut] - 1;
+
+				if( input.data[indexIn-s] == value )
+					union(parent, a, above.offset + output.data[indexOut-so] - 1);
+				if( rule == 8 ) {
+					if( x > 0 && input.data[indexIn-s-1] == value )
+						union(parent, a, above.offset + output.data[indexOut-so-1] - 1);
+					if( x < width-1 && input.data[indexIn-s+1] == value )
+						union(parent, a, above.offset + output.data[indexOut-so+1] - 1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the final label of each provisional label.  The root of each set is the provisional label with
+	 * the smallest index, which was created at the component's first pixel in the raster scan.
+	 */
+	private int computeFinalLabels() {
+		finalLabel.resize(parent.size);
+		firstX.reset();
+		firstY.reset();
+
+		int width = input.width;
+		int count = 0;
+		for( int i = 0; i < numBands; i++ ) {
+			Band band = bands[i];
+			for( int j = 0; j < band.parent.size; j++ ) {
+				int index = band.offset + j;
+				int root = find(parent,index);
+				if( root == index ) {
+					finalLabel.data[index] = ++count;
+					int pixel = band.first.data[j];
+					firstX.add(pixel%width);
+					firstY.add(pixel/width);
+				} else {
+					finalLabel.data[index] = finalLabel.data[root];
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Converts provisional labels into final labels
+	 */
+	private void relabelBand( Band band ) {
+		final int[] out = output.data;
+		final int[] lookup = finalLabel.data;
+		final int offset = band.offset - 1;
+
+		for( int y = band.y0; y < band.y1; y++ ) {
+			int indexOut = output.startIndex + y*output.stride;
+			int end = indexOut + output.width;
+
+			for( ; indexOut < end; indexOut++ ) {
+				int label = out[indexOut];
+				if( label != 0 )
+					out[indexOut] = lookup[offset + label];
+			}
+		}
+	}
+
+	/**
+	 * Finds the root of the set while compressing the path
+	 */
+	private static int find( GrowQueue_I32 parent , int index ) {
+		int[] p = parent.data;
+		while( p[index] != index ) {
+			p[index] = p[p[index]];
+			index = p[index];
+		}
+		return index;
+	}
+
+	/**
+	 * Merges two sets.  The root with the smallest index becomes the root of the merged set.
+	 *
+	 * @return The root of the merged set
+	 */
+	private static int union( GrowQueue_I32 parent , int a , int b ) {
+		int rootA = find(parent,a);
+		int rootB = find(parent,b);
+
+		if( rootA < rootB ) {
+			parent.data[rootB] = rootA;
+			return rootA;
+		} else {
+			parent.data[rootA] = rootB;
+			return rootB;
+		}
+	}
+
+	/**
+	 * Number of components found in the last image processed
+	 */
+	public int getNumComponents() {
+		return firstX.size;
+	}
+
+	/**
+	 * x-coordinate of the first pixel in each component, in the order of their labels
+	 */
+	public GrowQueue_I32 getFirstX() {
+		return firstX;
+	}
+
+	/**
+	 * y-coordinate of the first pixel in each component, in the order of their labels
+	 */
+	public GrowQueue_I32 getFirstY() {
+		return firstY;
+	}
+
+	public int getRule() {
+		return rule;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Provisional labels inside a band of rows
+	 */
+	private static class Band {
+		// first row, inclusive
+		int y0;
+		// last row, exclusive
+		int y1;
+		// index of the band's first label when combined with all the other bands
+		int offset;
+		// union-find parent of each label in the band
+		GrowQueue_I32 parent = new GrowQueue_I32();
+		// index of the pixel which created each label
+		GrowQueue_I32 first = new GrowQueue_I32();
+	}
+}
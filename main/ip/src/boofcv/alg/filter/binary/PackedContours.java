@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.binary;
+
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Compact storage for the external and internal contours of every blob in a labeled image.  All the points are
+ * stored inside of a single array of primitives, instead of a {@link Point2D_I32} for each point, which avoids
+ * creating millions of objects when an image contains a large number of blobs.  The contours of each blob
+ * are stored one after another, first the external contour and then its internal contours.
+ * </p>
+ *
+ * <p>
+ * Blobs are indexed starting from zero.  The blob with index i has a label of i+1 in the labeled image.
+ * {@link #toContour} and {@link #toList()} convert the contours into {@link Contour} for code which uses
+ * the older format.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PackedContours {
+
+	/**
+	 * Coordinates of every point in every contour.  Stored in an interleaved format, x0,y0,x1,y1,...
+	 */
+	public GrowQueue_I32 points = new GrowQueue_I32();
+	/**
+	 * Index of the first point in each contour.  Has one more element than the number of contours.
+	 */
+	public GrowQueue_I32 contourStart = new GrowQueue_I32();
+	/**
+	 * Index of the external contour of each blob.  Internal contours are the ones which follow it.
+	 * Has one more element than the number of blobs.
+	 */
+	public GrowQueue_I32 blobStart = new GrowQueue_I32();
+
+	public PackedContours() {
+		reset();
+	}
+
+	/**
+	 * Discards all the blobs and contours
+	 */
+	public void reset() {
+		points.reset();
+		contourStart.reset();
+		contourStart.add(0);
+		blobStart.reset();
+		blobStart.add(0);
+	}
+
+	/**
+	 * Adds a point to the contour which is currently being constructed
+	 */
+	public void addPoint( int x , int y ) {
+		points.add(x);
+		points.add(y);
+	}
+
+	/**
+	 * Marks the end of the contour which is currently being constructed.  The first contour in a blob is its
+	 * external contour.
+	 */
+	public void finishContour() {
+		contourStart.add(points.size/2);
+	}
+
+	/**
+	 * Marks the end of the blob which is currently being constructed
+	 */
+	public void finishBlob() {
+		blobStart.add(contourStart.size-1);
+	}
+
+	/**
+	 * Adds all the blobs in 'src' after the blobs already contained in this instance
+	 */
+	public void append( PackedContours src ) {
+		int offsetPoints = points.size/2;
+		int offsetContours = contourStart.size-1;
+
+		points.addAll(src.points);
+		for( int i = 1; i < src.contourStart.size; i++ )
+			contourStart.add(offsetPoints + src.contourStart.data[i]);
+		for( int i = 1; i < src.blobStart.size; i++ )
+			blobStart.add(offsetContours + src.blobStart.data[i]);
+	}
+
+	public int getNumBlobs() {
+		return blobStart.size-1;
+	}
+
+	public int getNumContours() {
+		return contourStart.size-1;
+	}
+
+	/**
+	 * Index of the external contour in the specified blob
+	 */
+	public int getExternal( int blob ) {
+		return blobStart.data[blob];
+	}
+
+	public int getNumInternal( int blob ) {
+		return blobStart.data[blob+1] - blobStart.data[blob] - 1;
+	}
+
+	/**
+	 * Index of the specified internal contour in a blob
+	 */
+	public int getInternal( int blob , int which ) {
+		return blobStart.data[blob] + 1 + which;
+	}
+
+	/**
+	 * Number of points in the specified contour
+	 */
+	public int getContourSize( int contour ) {
+		return contourStart.data[contour+1] - contourStart.data[contour];
+	}
+
+	public int getX( int contour , int index ) {
+		return points.data[(contourStart.data[contour]+index)*2];
+	}
+
+	public int getY( int contour , int index ) {
+		return points.data[(contourStart.data[contour]+index)*2+1];
+	}
+
+	/**
+	 * Copies the points in a contour into a list.  New points are declared.
+	 *
+	 * @param contour Index of the contour
+	 * @param output Storage for the points.  Not cleared.
+	 */
+	public void getContour( int contour , List<Point2D_I32> output ) {
+		int end = contourStart.data[contour+1]*2;
+		for( int i = contourStart.data[contour]*2; i < end; i += 2 ) {
+			output.add( new Point2D_I32(points.data[i],points.data[i+1]));
+		}
+	}
+
+	/**
+	 * Converts the specified blob into the format used by {@link LinearContourLabelChang2004}.
+	 *
+	 * @param blob Index of the blob.
+	 * @param storage (Optional) Storage for the contour.  If null a new instance is declared.
+	 * @return The contour
+	 */
+	public Contour toContour( int blob , Contour storage ) {
+		if( storage == null )
+			storage = new Contour();
+		else
+			storage.reset();
+
+		storage.id = blob+1;
+		getContour(getExternal(blob),storage.external);
+		int N = getNumInternal(blob);
+		for( int i = 0; i < N; i++ ) {
+			List<Point2D_I32> inner = new ArrayList<Point2D_I32>();
+			getContour(getInternal(blob,i),inner);
+			storage.internal.add(inner);
+		}
+
+		return storage;
+	}
+
+	/**
+	 * Converts every blob into the format used by {@link LinearContourLabelChang2004}.
+	 */
+	public List<Contour> toList() {
+		int N = getNumBlobs();
+		List<Contour> ret = new ArrayList<Contour>(N);
+		for( int i = 0; i < N; i++ ) {
+			ret.add( toContour(i,null));
+		}
+		return ret;
+	}
+}
@@ -349,12 +349,12 @@ public class ThresholdImageOps {
 											 ImageUInt8 storage1 , ImageUInt8 storage2 ) {
 
 		output = InputSanityCheck.checkDeclare(input,output,ImageUInt8.class);
-		storage1 = InputSanityCheck.checkDeclare(input,storage1,ImageUInt8.class);
-		storage2 = InputSanityCheck.checkDeclare(input,storage2,ImageUInt8.class);
+		ImageUInt8 work1 = InputSanityCheck.checkDeclareWork(input,storage1,ImageUInt8.class);
+		ImageUInt8 work2 = InputSanityCheck.checkDeclareWork(input,storage2,ImageUInt8.class);
 
-		ImageUInt8 mean = storage1;
+		ImageUInt8 mean = work1;
 
-		BlurImageOps.mean(input,mean,radius,storage2);
+		BlurImageOps.mean(input,mean,radius,work2);
 
 		if( down ) {
 			for( int y = 0; y < input.height; y++ ) {
@@ -392,6 +392,9 @@ public class ThresholdImageOps {
 			}
 		}
 
+		InputSanityCheck.releaseWork(storage1,work1);
+		InputSanityCheck.releaseWork(storage2,work2);
+
 		return output;
 	}
 
@@ -415,12 +418,12 @@ public class ThresholdImageOps {
 											   ImageUInt8 storage1 , ImageUInt8 storage2 ) {
 
 		output = InputSanityCheck.checkDeclare(input,output,ImageUInt8.class);
-		storage1 = InputSanityCheck.checkDeclare(input,storage1,ImageUInt8.class);
-		storage2 = InputSanityCheck.checkDeclare(input,storage2,ImageUInt8.class);
+		ImageUInt8 work1 = InputSanityCheck.checkDeclareWork(input,storage1,ImageUInt8.class);
+		ImageUInt8 work2 = InputSanityCheck.checkDeclareWork(input,storage2,ImageUInt8.class);
 
-		ImageUInt8 blur = storage1;
+		ImageUInt8 blur = work1;
 
-		BlurImageOps.gaussian(input,blur,-1,radius,storage2);
+		BlurImageOps.gaussian(input,blur,-1,radius,work2);
 
 		if( down ) {
 			for( int y = 0; y < input.height; y++ ) {
@@ -458,6 +461,9 @@ public class ThresholdImageOps {
 			}
 		}
 
+		InputSanityCheck.releaseWork(storage1,work1);
+		InputSanityCheck.releaseWork(storage2,work2);
+
 		return output;
 	}
 
@@ -481,12 +487,12 @@ public class ThresholdImageOps {
 											 ImageFloat32 storage1 , ImageFloat32 storage2 ) {
 
 		output = InputSanityCheck.checkDeclare(input,output,ImageUInt8.class);
-		storage1 = InputSanityCheck.checkDeclare(input,storage1,ImageFloat32.class);
-		storage2 = InputSanityCheck.checkDeclare(input,storage2,ImageFloat32.class);
+		ImageFloat32 work1 = InputSanityCheck.checkDeclareWork(input,storage1,ImageFloat32.class);
+		ImageFloat32 work2 = InputSanityCheck.checkDeclareWork(input,storage2,ImageFloat32.class);
 
-		ImageFloat32 mean = storage1;
+		ImageFloat32 mean = work1;
 
-		BlurImageOps.mean(input,mean,radius,storage2);
+		BlurImageOps.mean(input,mean,radius,work2);
 
 		if( down ) {
 			for( int y = 0; y < input.height; y++ ) {
@@ -524,6 +530,9 @@ public class ThresholdImageOps {
 			}
 		}
 
+		InputSanityCheck.releaseWork(storage1,work1);
+		InputSanityCheck.releaseWork(storage2,work2);
+
 		return output;
 	}
 
@@ -547,12 +556,12 @@ public class ThresholdImageOps {
 											   ImageFloat32 storage1 , ImageFloat32 storage2 ) {
 
 		output = InputSanityCheck.checkDeclare(input,output,ImageUInt8.class);
-		storage1 = InputSanityCheck.checkDeclare(input,storage1,ImageFloat32.class);
-		storage2 = InputSanityCheck.checkDeclare(input,storage2,ImageFloat32.class);
+		ImageFloat32 work1 = InputSanityCheck.checkDeclareWork(input,storage1,ImageFloat32.class);
+		ImageFloat32 work2 = InputSanityCheck.checkDeclareWork(input,storage2,ImageFloat32.class);
 
-		ImageFloat32 blur = storage1;
+		ImageFloat32 blur = work1;
 
-		BlurImageOps.gaussian(input,blur,-1,radius,storage2);
+		BlurImageOps.gaussian(input,blur,-1,radius,work2);
 
 		if( down ) {
 			for( int y = 0; y < input.height; y++ ) {
@@ -590,6 +599,9 @@ public class ThresholdImageOps {
 			}
 		}
 
+		InputSanityCheck.releaseWork(storage1,work1);
+		InputSanityCheck.releaseWork(storage2,work2);
+
 		return output;
 	}
 
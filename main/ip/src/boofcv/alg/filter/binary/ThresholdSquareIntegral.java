@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageFloat64;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * <p>
+ * Adaptive square threshold which computes the local mean from an integral image.  Unlike
+ * {@link ThresholdImageOps#adaptiveSquare(ImageUInt8, ImageUInt8, int, int, boolean, ImageUInt8, ImageUInt8)}
+ * a blurred copy of the image is never created.  Instead, the sum inside the square region around each pixel
+ * is looked up in the integral image and compared against the pixel in the same pass which writes the binary
+ * image.  The integral image is saved between calls, so no memory is declared once the image size is stable.
+ * </p>
+ *
+ * <p>
+ * The region is the square of width radius*2+1 centered on each pixel, clipped by the image border.  The mean
+ * is computed exactly from the pixels inside the clipped region, which makes the results slightly different
+ * from adaptiveSquare near the image border and due to rounding of the blurred image.
+ * If down is true then b(x,y) = I(x,y) <= T(x,y) + bias ? 1 : 0.  Otherwise b(x,y) = I(x,y) >= T(x,y) + bias ? 1 : 0.
+ * </p>
+ *
+ * <p>
+ * If concurrent is true then the thresholding step is split into bands of rows which are processed in parallel.
+ * Each band only reads from the integral image, so the output is identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ThresholdSquareIntegral {
+
+	// minimum number of rows in a band
+	public static final int MIN_BLOCK = 20;
+
+	// integral images with an extra row and column of zeros at the top and left
+	private ImageSInt32 integralI = new ImageSInt32(1,1);
+	private ImageFloat64 integralF = new ImageFloat64(1,1);
+	// the part of the integral images which is written to
+	private ImageSInt32 subIntegralI = new ImageSInt32();
+	private ImageFloat64 subIntegralF = new ImageFloat64();
+
+	// should the image be processed in bands by multiple threads
+	private boolean concurrent;
+
+	// parameters and images used by the band tasks
+	private int radius;
+	private int biasI;
+	private float biasF;
+	private boolean down;
+	private ImageUInt8 inputU8;
+	private ImageFloat32 inputF32;
+	private ImageUInt8 output;
+
+	private IntRangeTask taskU8 = new IntRangeTask() {
+		@Override
+		public void process(int y0, int y1) {
+			if( down )
+				thresholdDown_U8(y0,y1);
+			else
+				thresholdUp_U8(y0,y1);
+		}
+	};
+
+	private IntRangeTask taskF32 = new IntRangeTask() {
+		@Override
+		public void process(int y0, int y1) {
+			if( down )
+				thresholdDown_F32(y0,y1);
+			else
+				thresholdUp_F32(y0,y1);
+		}
+	};
+
+	/**
+	 * @param concurrent If true the image will be thresholded in parallel using {@link BoofConcurrency}.
+	 */
+	public ThresholdSquareIntegral( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Creates a single threaded version.
+	 */
+	public ThresholdSquareIntegral() {
+		this(false);
+	}
+
+	/**
+	 * Thresholds the input image using the mean inside a square region around each pixel.  The number of pixels
+	 * in the region times 255 must be less than 2<sup>31</sup>.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output (optional) Output binary image.  If null it will be declared internally.
+	 * @param radius Radius of square region.
+	 * @param bias Bias used to adjust threshold
+	 * @param down Should it threshold up or down.
+	 * @return Thresholded image.
+	 */
+	public ImageUInt8 process( ImageUInt8 input , ImageUInt8 output , int radius , int bias , boolean down ) {
+		output = InputSanityCheck.checkDeclare(input,output,ImageUInt8.class);
+
+		// integer overflow while computing the integral image is harmless, since the sum inside the region
+		// is the difference of corners and only needs to fit inside an int
+		integralI.reshape(input.width+1,input.height+1);
+		zeroBorder(integralI);
+		IntegralImageOps.transform(input,subimage(integralI,subIntegralI));
+
+		this.inputU8 = input;
+		this.output = output;
+		this.radius = radius;
+		this.biasI = bias;
+		this.down = down;
+
+		process(input.height,taskU8);
+
+		this.inputU8 = null;
+		this.output = null;
+
+		return output;
+	}
+
+	/**
+	 * Thresholds the input image using the mean inside a square region around each pixel.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output (optional) Output binary image.  If null it will be declared internally.
+	 * @param radius Radius of square region.
+	 * @param bias Bias used to adjust threshold
+	 * @param down Should it threshold up or down.
+	 * @return Thresholded image.
+	 */
+	public ImageUInt8 process( ImageFloat32 input , ImageUInt8 output , int radius , float bias , boolean down ) {
+		output = InputSanityCheck.checkDeclare(input,output,ImageUInt8.class);
+
+		integralF.reshape(input.width+1,input.height+1);
+		zeroBorder(integralF);
+		IntegralImageOps.transformDouble(input,subimage(integralF,subIntegralF));
+
+		this.inputF32 = input;
+		this.output = output;
+		this.radius = radius;
+		this.biasF = bias;
+		this.down = down;
+
+		process(input.height,taskF32);
+
+		this.inputF32 = null;
+		this.output = null;
+
+		return output;
+	}
+
+	private void process( int height , IntRangeTask task ) {
+		if( concurrent )
+			BoofConcurrency.loopBlocks(0,height,MIN_BLOCK,task);
+		else
+			task.process(0,height);
+	}
+
+	@SuppressWarnings({"unchecked"})
+	private static <T extends ImageSingleBand> T subimage( T integral , T storage ) {
+		return (T)integral.subimage(1,1,integral.width,integral.height,storage);
+	}
+
+	private static void zeroBorder( ImageSInt32 integral ) {
+		for( int x = 0; x < integral.width; x++ )
+			integral.data[x] = 0;
+		for( int y = 1; y < integral.height; y++ )
+			integral.data[y*integral.stride] = 0;
+	}
+
+	private static void zeroBorder( ImageFloat64 integral ) {
+		for( int x = 0; x < integral.width; x++ )
+			integral.data[x] = 0;
+		for( int y = 1; y < integral.height; y++ )
+			integral.data[y*integral.stride] = 0;
+	}
+
+	/*
+	 * The region around (x,y) covers columns x0 <= i < x1 and rows y0 <= j < y1 of the input, which is
+	 * the difference of four corners in the padded integral image.  Comparisons are done against the sum
+	 * instead of the mean to avoid a division in the U8 case.
+	 */
+
+	private void thresholdDown_U8( int rowStart , int rowEnd ) {
+		final int width = inputU8.width;
+		final int height = inputU8.height;
+		final int stride = integralI.stride;
+		final int[] ii = integralI.data;
+
+		for( int y = rowStart; y < rowEnd; y++ ) {
+			int y0 = Math.max(0,y-radius);
+			int y1 = Math.min(height,y+radius+1);
+			int top = y0*stride;
+			int bottom = y1*stride;
+			int regionHeight = y1-y0;
+
+			int indexIn = inputU8.startIndex + y*inputU8.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			for( int x = 0; x < width; x++ ) {
+				int x0 = Math.max(0,x-radius);
+				int x1 = Math.min(width,x+radius+1);
+				int area = (x1-x0)*regionHeight;
+
+				int sum = ii[bottom+x1] - ii[bottom+x0] - ii[top+x1] + ii[top+x0];
+
+				int value = (inputU8.data[indexIn++] & 0xFF)*area;
+				output.data[indexOut++] = (byte)(value <= sum + biasI*area ? 1 : 0);
+			}
+		}
+	}
+
+	private void thresholdUp_U8( int rowStart , int rowEnd ) {
+		final int width = inputU8.width;
+		final int height = inputU8.height;
+		final int stride = integralI.stride;
+		final int[] ii = integralI.data;
+
+		for( int y = rowStart; y < rowEnd; y++ ) {
+			int y0 = Math.max(0,y-radius);
+			int y1 = Math.min(height,y+radius+1);
+			int top = y0*stride;
+			int bottom = y1*stride;
+			int regionHeight = y1-y0;
+
+			int indexIn = inputU8.startIndex + y*inputU8.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			for( int x = 0; x < width; x++ ) {
+				int x0 = Math.max(0,x-radius);
+				int x1 = Math.min(width,x+radius+1);
+				int area = (x1-x0)*regionHeight;
+
+				int sum = ii[bottom+x1] - ii[bottom+x0] - ii[top+x1] + ii[top+x0];
+
+				int value = (inputU8.data[indexIn++] & 0xFF)*area;
+				output.data[indexOut++] = (byte)(value >= sum + biasI*area ? 1 : 0);
+			}
+		}
+	}
+
+	private void thresholdDown_F32( int rowStart , int rowEnd ) {
+		final int width = inputF32.width;
+		final int height = inputF32.height;
+		final int stride = integralF.stride;
+		final double[] ii = integralF.data;
+
+		for( int y = rowStart; y < rowEnd; y++ ) {
+			int y0 = Math.max(0,y-radius);
+			int y1 = Math.min(height,y+radius+1);
+			int top = y0*stride;
+			int bottom = y1*stride;
+			int regionHeight = y1-y0;
+
+			int indexIn = inputF32.startIndex + y*inputF32.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			for( int x = 0; x < width; x++ ) {
+				int x0 = Math.max(0,x-radius);
+				int x1 = Math.min(width,x+radius+1);
+				int area = (x1-x0)*regionHeight;
+
+				double sum = ii[bottom+x1] - ii[bottom+x0] - ii[top+x1] + ii[top+x0];
+				float threshold = (float)(sum/area) + biasF;
+
+				output.data[indexOut++] = (byte)(inputF32.data[indexIn++] <= threshold ? 1 : 0);
+			}
+		}
+	}
+
+	private void thresholdUp_F32( int rowStart , int rowEnd ) {
+		final int width = inputF32.width;
+		final int height = inputF32.height;
+		final int stride = integralF.stride;
+		final double[] ii = integralF.data;
+
+		for( int y = rowStart; y < rowEnd; y++ ) {
+			int y0 = Math.max(0,y-radius);
+			int y1 = Math.min(height,y+radius+1);
+			int top = y0*stride;
+			int bottom = y1*stride;
+			int regionHeight = y1-y0;
+
+			int indexIn = inputF32.startIndex + y*inputF32.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			for( int x = 0; x < width; x++ ) {
+				int x0 = Math.max(0,x-radius);
+				int x1 = Math.min(width,x+radius+1);
+				int area = (x1-x0)*regionHeight;
+
+				double sum = ii[bottom+x1] - ii[bottom+x0] - ii[top+x1] + ii[top+x0];
+				float threshold = (float)(sum/area) + biasF;
+
+				output.data[indexOut++] = (byte)(inputF32.data[indexIn++] >= threshold ? 1 : 0);
+			}
+		}
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+}
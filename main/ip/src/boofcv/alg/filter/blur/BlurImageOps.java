@@ -19,8 +19,7 @@
 package boofcv.alg.filter.blur;
 
 import boofcv.alg.InputSanityCheck;
-import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner;
-import boofcv.alg.filter.blur.impl.ImplMedianSortEdgeNaive;
+import boofcv.alg.filter.blur.impl.ImplMedianHistogramConstant;
 import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;
 import boofcv.alg.filter.convolve.ConvolveImageMean;
 import boofcv.alg.filter.convolve.ConvolveNormalized;
@@ -28,6 +27,7 @@ import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.struct.convolve.Kernel1D_F32;
 import boofcv.struct.convolve.Kernel1D_I32;
 import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt16;
 import boofcv.struct.image.ImageUInt8;
 
 /**
@@ -53,10 +53,12 @@ public class BlurImageOps {
 			throw new IllegalArgumentException("Radius must be > 0");
 
 		output = InputSanityCheck.checkDeclare(input,output);
-		storage = InputSanityCheck.checkDeclare(input,storage);
+		ImageUInt8 work = InputSanityCheck.checkDeclareWork(input,storage);
 
-		ConvolveImageMean.horizontal(input, storage, radius);
-		ConvolveImageMean.vertical(storage, output, radius);
+		ConvolveImageMean.horizontal(input, work, radius);
+		ConvolveImageMean.vertical(work, output, radius);
+
+		InputSanityCheck.releaseWork(storage,work);
 
 		return output;
 	}
@@ -70,17 +72,61 @@ public class BlurImageOps {
 	 * @return Output blurred image.
 	 */
 	public static ImageUInt8 median(ImageUInt8 input, ImageUInt8 output, int radius) {
+		return median(input,output,radius,null);
+	}
+
+	/**
+	 * Applies a median filter.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param radius Radius of the median blur function.
+	 * @param storage (Optional) Filter and its internal storage.  Reuse to avoid declaring memory.  Can be null.
+	 * @return Output blurred image.
+	 */
+	public static ImageUInt8 median(ImageUInt8 input, ImageUInt8 output, int radius, ImplMedianHistogramConstant storage) {
 		if( radius <= 0 )
 			throw new IllegalArgumentException("Radius must be > 0");
 
 		output = InputSanityCheck.checkDeclare(input,output);
+		if( storage == null )
+			storage = new ImplMedianHistogramConstant();
+
+		storage.process(input, output, radius);
+
+		return output;
+	}
+
+	/**
+	 * Applies a median filter.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param radius Radius of the median blur function.
+	 * @return Output blurred image.
+	 */
+	public static ImageUInt16 median(ImageUInt16 input, ImageUInt16 output, int radius) {
+		return median(input,output,radius,null);
+	}
+
+	/**
+	 * Applies a median filter.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param radius Radius of the median blur function.
+	 * @param storage (Optional) Filter and its internal storage.  Reuse to avoid declaring memory.  Can be null.
+	 * @return Output blurred image.
+	 */
+	public static ImageUInt16 median(ImageUInt16 input, ImageUInt16 output, int radius, ImplMedianHistogramConstant storage) {
+		if( radius <= 0 )
+			throw new IllegalArgumentException("Radius must be > 0");
 
-		int w = radius*2+1;
-		int offset[] = new int[ w*w ];
-		int histogram[] = new int[ 256 ];
+		output = InputSanityCheck.checkDeclare(input,output);
+		if( storage == null )
+			storage = new ImplMedianHistogramConstant();
 
-		ImplMedianHistogramInner.process(input, output, radius, offset, histogram);
-		ImplMedianSortEdgeNaive.process(input, output, radius, offset);
+		storage.process(input, output, radius);
 
 		return output;
 	}
@@ -98,12 +144,14 @@ public class BlurImageOps {
 	public static ImageUInt8 gaussian(ImageUInt8 input, ImageUInt8 output, double sigma , int radius,
 									  ImageUInt8 storage ) {
 		output = InputSanityCheck.checkDeclare(input,output);
-		storage = InputSanityCheck.checkDeclare(input,storage);
+		ImageUInt8 work = InputSanityCheck.checkDeclareWork(input,storage);
 
 		Kernel1D_I32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_I32.class,sigma,radius);
 
-		ConvolveNormalized.horizontal(kernel,input,storage);
-		ConvolveNormalized.vertical(kernel,storage,output);
+		ConvolveNormalized.horizontal(kernel,input,work);
+		ConvolveNormalized.vertical(kernel,work,output);
+
+		InputSanityCheck.releaseWork(storage,work);
 
 		return output;
 	}
@@ -123,10 +171,12 @@ public class BlurImageOps {
 			throw new IllegalArgumentException("Radius must be > 0");
 
 		output = InputSanityCheck.checkDeclare(input,output);
-		storage = InputSanityCheck.checkDeclare(input,storage);
+		ImageFloat32 work = InputSanityCheck.checkDeclareWork(input,storage);
 
-		ConvolveImageMean.horizontal(input,storage,radius);
-		ConvolveImageMean.vertical(storage,output,radius);
+		ConvolveImageMean.horizontal(input,work,radius);
+		ConvolveImageMean.vertical(work,output,radius);
+
+		InputSanityCheck.releaseWork(storage,work);
 
 		return output;
 	}
@@ -140,13 +190,61 @@ public class BlurImageOps {
 	 * @return Output blurred image.
 	 */
 	public static ImageFloat32 median(ImageFloat32 input, ImageFloat32 output, int radius) {
+		return median(input,output,radius,null);
+	}
+
+	/**
+	 * Applies a median filter.  If the image has more than 2<sup>16</sup> unique values then a much slower
+	 * algorithm is used, see {@link #medianQuantized(ImageFloat32, ImageFloat32, int, ImplMedianHistogramConstant)}.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param radius Radius of the median blur function.
+	 * @param storage (Optional) Filter and its internal storage.  Reuse to avoid declaring memory.  Can be null.
+	 * @return Output blurred image.
+	 */
+	public static ImageFloat32 median(ImageFloat32 input, ImageFloat32 output, int radius,
+									  ImplMedianHistogramConstant storage ) {
 
 		if( radius <= 0 )
 			throw new IllegalArgumentException("Radius must be > 0");
 
 		output = InputSanityCheck.checkDeclare(input,output);
+		if( storage == null )
+			storage = new ImplMedianHistogramConstant();
 
-		ImplMedianSortNaive.process(input,output,radius,null);
+		// the histogram approach is exact if there are not too many unique values
+		if( storage.isExact(input) )
+			storage.process(input, output, radius, false);
+		else
+			ImplMedianSortNaive.process(input,output,radius,null);
+
+		return output;
+	}
+
+	/**
+	 * Applies an approximate median filter which takes the same amount of time for any radius.  If the image has
+	 * more than 2<sup>16</sup> unique values then they are quantized into 2<sup>16</sup> levels, each with about
+	 * the same number of pixels, and the output is the smallest value in the median's level.  Otherwise the
+	 * output is the same as {@link #median(ImageFloat32, ImageFloat32, int)}.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param radius Radius of the median blur function.
+	 * @param storage (Optional) Filter and its internal storage.  Reuse to avoid declaring memory.  Can be null.
+	 * @return Output blurred image.
+	 */
+	public static ImageFloat32 medianQuantized(ImageFloat32 input, ImageFloat32 output, int radius,
+											   ImplMedianHistogramConstant storage ) {
+
+		if( radius <= 0 )
+			throw new IllegalArgumentException("Radius must be > 0");
+
+		output = InputSanityCheck.checkDeclare(input,output);
+		if( storage == null )
+			storage = new ImplMedianHistogramConstant();
+
+		storage.process(input, output, radius, true);
 
 		return output;
 	}
@@ -165,12 +263,14 @@ public class BlurImageOps {
 										double sigma , int radius,
 										ImageFloat32 storage ) {
 		output = InputSanityCheck.checkDeclare(input,output);
-		storage = InputSanityCheck.checkDeclare(input,storage);
+		ImageFloat32 work = InputSanityCheck.checkDeclareWork(input,storage);
 
 		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,sigma, radius);
 
-		ConvolveNormalized.horizontal(kernel,input,storage);
-		ConvolveNormalized.vertical(kernel,storage,output);
+		ConvolveNormalized.horizontal(kernel,input,work);
+		ConvolveNormalized.vertical(kernel,work,output);
+
+		InputSanityCheck.releaseWork(storage,work);
 
 		return output;
 	}
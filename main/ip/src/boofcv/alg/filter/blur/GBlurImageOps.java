@@ -18,8 +18,10 @@
 
 package boofcv.alg.filter.blur;
 
+import boofcv.alg.filter.blur.impl.ImplMedianHistogramConstant;
 import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt16;
 import boofcv.struct.image.ImageUInt8;
 
 
@@ -63,15 +65,55 @@ public class GBlurImageOps {
 	 */
 	public static <T extends ImageSingleBand>
 	T median(T input, T output, int radius ) {
+		return median(input,output,radius,null);
+	}
+
+	/**
+	 * Applies a median filter.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param radius Radius of the median blur function.
+	 * @param storage (Optional) Filter and its internal storage.  Reuse to avoid declaring memory.  Can be null.
+	 * @param <T> Input image type.
+	 * @return Output blurred image.
+	 */
+	public static <T extends ImageSingleBand>
+	T median(T input, T output, int radius, ImplMedianHistogramConstant storage ) {
 		if( input instanceof ImageUInt8 ) {
-			return (T)BlurImageOps.median((ImageUInt8)input,(ImageUInt8)output,radius);
+			return (T)BlurImageOps.median((ImageUInt8)input,(ImageUInt8)output,radius,storage);
+		} else if( input instanceof ImageUInt16 ) {
+			return (T)BlurImageOps.median((ImageUInt16)input,(ImageUInt16)output,radius,storage);
 		} else if( input instanceof ImageFloat32) {
-			return (T)BlurImageOps.median((ImageFloat32)input,(ImageFloat32)output,radius);
+			return (T)BlurImageOps.median((ImageFloat32)input,(ImageFloat32)output,radius,storage);
 		} else  {
 			throw new IllegalArgumentException("Unsupported image type");
 		}
 	}
 
+	/**
+	 * Applies a median filter which takes the same amount of time for any radius.  Floating point images with
+	 * too many unique values are quantized, see
+	 * {@link BlurImageOps#medianQuantized(ImageFloat32, ImageFloat32, int, ImplMedianHistogramConstant)}.  Integer
+	 * images never need to be quantized and give the same output as
+	 * {@link #median(ImageSingleBand, ImageSingleBand, int)}.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param radius Radius of the median blur function.
+	 * @param storage (Optional) Filter and its internal storage.  Reuse to avoid declaring memory.  Can be null.
+	 * @param <T> Input image type.
+	 * @return Output blurred image.
+	 */
+	public static <T extends ImageSingleBand>
+	T medianQuantized(T input, T output, int radius, ImplMedianHistogramConstant storage ) {
+		if( input instanceof ImageFloat32) {
+			return (T)BlurImageOps.medianQuantized((ImageFloat32)input,(ImageFloat32)output,radius,storage);
+		} else  {
+			return median(input,output,radius,storage);
+		}
+	}
+
 	/**
 	 * Applies Gaussian blur.
 	 *
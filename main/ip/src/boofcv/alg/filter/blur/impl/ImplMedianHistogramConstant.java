@@ -0,0 +1,508 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt16;
+import boofcv.struct.image.ImageUInt8;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Median filter which takes a constant amount of time per pixel, independent of the radius [1].  A histogram is
+ * maintained for every column of the image, covering the rows inside the filter's region.  Moving down one row
+ * only requires adding and removing one pixel from each column histogram.  The region's histogram is computed
+ * by adding and removing one column histogram as the region moves to the right.  Histograms are composed
+ * of a coarse and a fine level.  The coarse level is updated for every pixel while a segment in the fine level
+ * is only updated when the median is inside of it, which keeps the cost per pixel low.
+ * </p>
+ *
+ * <p>
+ * Pixel values are converted into an integer level before being processed.  For integer images the level
+ * is the pixel's value.  For floating point images the level is the pixel's index in the sorted list of unique
+ * pixel values, which gives the exact median if there are no more than 2<sup>16</sup> unique values.  If there
+ * are more then the unique values can be quantized into 2<sup>16</sup> levels, see
+ * {@link #process(ImageFloat32, ImageFloat32, int, boolean)}.
+ * </p>
+ *
+ * <p>
+ * The image's border is handled by only considering pixels inside the image.  The output is identical to
+ * {@link ImplMedianSortNaive}.  The image is processed in vertical strips so that the column histograms of
+ * images with a large number of levels fit inside of memory.  A strip is always at least 2*radius+16 pixels
+ * wide, otherwise the columns shared between strips would make the cost per pixel grow with the radius.  For
+ * 16-bit levels and a large radius (above 12 with the default settings) this uses more than the maximum number
+ * of strip bins, up to (4*radius+16)*2<sup>16</sup> elements.
+ * </p>
+ *
+ * <p>
+ * [1] Perreault, S. and Hébert, P. "Median Filtering in Constant Time" IEEE Trans. Image Processing, 2007
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplMedianHistogramConstant {
+
+	// largest number of bits in a level
+	public static final int MAX_BITS = 16;
+	// default maximum number of elements in the column histograms of a strip
+	public static final int DEFAULT_MAX_STRIP_BINS = 1 << 22;
+
+	// maximum number of elements in the column histograms of a strip
+	int maxStripBins;
+
+	// the level of each pixel and the median level
+	int[] levels = new int[0];
+	int[] medians = new int[0];
+
+	// histograms of each column in the strip
+	int[] columnCoarse = new int[0];
+	int[] columnFine = new int[0];
+
+	// histogram of the filter region
+	int[] kernelCoarse = new int[0];
+	int[] kernelFine = new int[0];
+	// range of columns which has been added to each segment in the fine histogram of the region
+	int[] segmentStart = new int[0];
+	int[] segmentEnd = new int[0];
+
+	// storage for converting floating point images
+	float[] sorted = new float[0];
+	float[] levelValue = new float[0];
+	// hash table used to count the number of unique values in floating point images
+	int[] uniqueTable = new int[0];
+
+	/**
+	 * Creates a filter which uses {@link #DEFAULT_MAX_STRIP_BINS}.
+	 */
+	public ImplMedianHistogramConstant() {
+		this(DEFAULT_MAX_STRIP_BINS);
+	}
+
+	/**
+	 * @param maxStripBins Maximum number of elements in the column histograms of a strip.  Wide images are
+	 *                     split into strips so that this limit is not exceeded, unless the radius is large.
+	 */
+	public ImplMedianHistogramConstant( int maxStripBins ) {
+		if( maxStripBins <= 0 )
+			throw new IllegalArgumentException("maxStripBins must be positive");
+		this.maxStripBins = maxStripBins;
+	}
+
+	/**
+	 * Applies the median filter
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radius Size of the filter region.
+	 */
+	public void process( ImageUInt8 input , ImageUInt8 output , int radius ) {
+		int width = input.width;
+		int height = input.height;
+		declareImage(width*height);
+
+		int index = 0;
+		for( int y = 0; y < height; y++ ) {
+			int indexIn = input.startIndex + y*input.stride;
+			for( int x = 0; x < width; x++ ) {
+				levels[index++] = input.data[indexIn++] & 0xFF;
+			}
+		}
+
+		computeMedian(width, height, radius, 8);
+
+		index = 0;
+		for( int y = 0; y < height; y++ ) {
+			int indexOut = output.startIndex + y*output.stride;
+			for( int x = 0; x < width; x++ ) {
+				output.data[indexOut++] = (byte)medians[index++];
+			}
+		}
+	}
+
+	/**
+	 * Applies the median filter.  The number of levels is selected using the largest value in the image.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radius Size of the filter region.
+	 */
+	public void process( ImageUInt16 input , ImageUInt16 output , int radius ) {
+		int width = input.width;
+		int height = input.height;
+		declareImage(width*height);
+
+		int max = 0;
+		int index = 0;
+		for( int y = 0; y < height; y++ ) {
+			int indexIn = input.startIndex + y*input.stride;
+			for( int x = 0; x < width; x++ ) {
+				int value = input.data[indexIn++] & 0xFFFF;
+				if( value > max )
+					max = value;
+				levels[index++] = value;
+			}
+		}
+
+		computeMedian(width, height, radius, bitsFor(max));
+
+		index = 0;
+		for( int y = 0; y < height; y++ ) {
+			int indexOut = output.startIndex + y*output.stride;
+			for( int x = 0; x < width; x++ ) {
+				output.data[indexOut++] = (short)medians[index++];
+			}
+		}
+	}
+
+	/**
+	 * Applies the median filter.  Each pixel is replaced by its index in the sorted list of unique pixel values.
+	 * If there are too many unique values then the image is either not processed or the values are quantized.
+	 * When quantized, each level contains about the same number of pixels and the output is the smallest
+	 * value in the median's level.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radius Size of the filter region.
+	 * @param quantize If there are more than 2<sup>16</sup> unique values should the image be quantized or not
+	 *                 processed.
+	 * @return true if the image was processed.
+	 */
+	public boolean process( ImageFloat32 input , ImageFloat32 output , int radius , boolean quantize ) {
+		int width = input.width;
+		int height = input.height;
+		int N = width*height;
+		if( N == 0 )
+			return true;
+		declareImage(N);
+
+		if( sorted.length < N )
+			sorted = new float[N];
+
+		int index = 0;
+		for( int y = 0; y < height; y++ ) {
+			int indexIn = input.startIndex + y*input.stride;
+			for( int x = 0; x < width; x++ ) {
+				sorted[index++] = input.data[indexIn++];
+			}
+		}
+		Arrays.sort(sorted, 0, N);
+
+		int numUnique = N == 0 ? 0 : 1;
+		for( int i = 1; i < N; i++ ) {
+			if( Float.compare(sorted[i], sorted[i-1]) != 0 )
+				numUnique++;
+		}
+
+		int bits;
+		if( numUnique <= 1 << MAX_BITS ) {
+			// exact solution.  Each unique value is a level
+			numUnique = 0;
+			for( int i = 0; i < N; i++ ) {
+				if( numUnique == 0 || Float.compare(sorted[i], sorted[numUnique-1]) != 0 )
+					sorted[numUnique++] = sorted[i];
+			}
+			if( levelValue.length < numUnique )
+				levelValue = new float[numUnique];
+			System.arraycopy(sorted, 0, levelValue, 0, numUnique);
+
+			index = 0;
+			for( int y = 0; y < height; y++ ) {
+				int indexIn = input.startIndex + y*input.stride;
+				for( int x = 0; x < width; x++ ) {
+					levels[index++] = lowerBound(sorted, numUnique, input.data[indexIn++]);
+				}
+			}
+			bits = bitsFor(numUnique-1);
+		} else if( quantize ) {
+			// the level is selected using the index of a value in the sorted list of all pixels
+			int numLevels = 1 << MAX_BITS;
+			if( levelValue.length < numLevels )
+				levelValue = new float[numLevels];
+			Arrays.fill(levelValue, 0, numLevels, Float.NaN);
+
+			index = 0;
+			for( int y = 0; y < height; y++ ) {
+				int indexIn = input.startIndex + y*input.stride;
+				for( int x = 0; x < width; x++ ) {
+					float value = input.data[indexIn++];
+					int level = (int)((long)lowerBound(sorted, N, value)*numLevels/N);
+					levels[index++] = level;
+					if( Float.isNaN(levelValue[level]) || Float.compare(value,levelValue[level]) < 0 )
+						levelValue[level] = value;
+				}
+			}
+			bits = MAX_BITS;
+		} else {
+			return false;
+		}
+
+		computeMedian(width, height, radius, bits);
+
+		index = 0;
+		for( int y = 0; y < height; y++ ) {
+			int indexOut = output.startIndex + y*output.stride;
+			for( int x = 0; x < width; x++ ) {
+				output.data[indexOut++] = levelValue[medians[index++]];
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Checks to see if there are few enough unique values for the exact solution to be computed by
+	 * {@link #process(ImageFloat32, ImageFloat32, int, boolean)}.  A hash table is used to count unique values and
+	 * it stops as soon as too many have been found, which is much faster than sorting the image.
+	 *
+	 * @param input Input image. Not modified.
+	 * @return true if there are no more than 2<sup>16</sup> unique values
+	 */
+	public boolean isExact( ImageFloat32 input ) {
+		int maxUnique = 1 << MAX_BITS;
+		if( input.width*input.height <= maxUnique )
+			return true;
+
+		// keep the table at most 1/4 full
+		int tableBits = MAX_BITS + 2;
+		int mask = (1 << tableBits) - 1;
+		if( uniqueTable.length != 1 << tableBits )
+			uniqueTable = new int[1 << tableBits];
+		// floatToIntBits() never returns this NaN bit pattern, so it can mark empty elements
+		Arrays.fill(uniqueTable, -1);
+
+		int numUnique = 0;
+		for( int y = 0; y < input.height; y++ ) {
+			int indexIn = input.startIndex + y*input.stride;
+			for( int x = 0; x < input.width; x++ ) {
+				// same definition of equality as Float.compare()
+				int bits = Float.floatToIntBits(input.data[indexIn++]);
+				int index = (bits*0x9E3779B9) >>> (32 - tableBits);
+				while( true ) {
+					int v = uniqueTable[index];
+					if( v == bits )
+						break;
+					if( v == -1 ) {
+						if( ++numUnique > maxUnique )
+							return false;
+						uniqueTable[index] = bits;
+						break;
+					}
+					index = (index + 1) & mask;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the median level of every pixel
+	 *
+	 * @param bits Number of bits needed to describe every level
+	 */
+	protected void computeMedian( int width , int height , int radius , int bits ) {
+		int fineBits = bits/2;
+		int numFine = 1 << bits;
+		int numCoarse = 1 << (bits-fineBits);
+
+		if( kernelCoarse.length < numCoarse ) {
+			kernelCoarse = new int[numCoarse];
+			segmentStart = new int[numCoarse];
+			segmentEnd = new int[numCoarse];
+		}
+		if( kernelFine.length < numFine )
+			kernelFine = new int[numFine];
+
+		// number of output columns in each strip.  Narrower strips would spend most of their time on the
+		// columns they share with their neighbors
+		int stripWidth = Math.max(2*radius + 16,maxStripBins/numFine - 2*radius);
+
+		for( int x0 = 0; x0 < width; x0 += stripWidth ) {
+			int x1 = Math.min(width, x0 + stripWidth);
+			// columns which need a histogram
+			int c0 = Math.max(0, x0 - radius);
+			int c1 = Math.min(width, x1 + radius);
+			int numColumns = c1-c0;
+
+			if( columnCoarse.length < numColumns*numCoarse )
+				columnCoarse = new int[numColumns*numCoarse];
+			if( columnFine.length < numColumns*numFine )
+				columnFine = new int[numColumns*numFine];
+			Arrays.fill(columnCoarse, 0, numColumns*numCoarse, 0);
+			Arrays.fill(columnFine, 0, numColumns*numFine, 0);
+
+			// rows inside the region of the first row
+			for( int y = 0; y <= radius && y < height; y++ ) {
+				updateColumns(y, 1, width, c0, c1, fineBits, numCoarse, numFine);
+			}
+
+			for( int y = 0; y < height; y++ ) {
+				if( y > 0 ) {
+					if( y + radius < height )
+						updateColumns(y + radius, 1, width, c0, c1, fineBits, numCoarse, numFine);
+					if( y - radius - 1 >= 0 )
+						updateColumns(y - radius - 1, -1, width, c0, c1, fineBits, numCoarse, numFine);
+				}
+				int numRows = Math.min(height-1, y + radius) - Math.max(0, y - radius) + 1;
+
+				computeRow(y, numRows, x0, x1, c0, width, radius, fineBits, numCoarse, numFine);
+			}
+		}
+	}
+
+	/**
+	 * Adds or removes all the pixels in a row from the column histograms
+	 */
+	private void updateColumns( int row , int delta , int width , int c0 , int c1 ,
+								int fineBits , int numCoarse , int numFine ) {
+		int indexLevel = row*width + c0;
+		for( int c = 0; c < c1-c0; c++ ) {
+			int level = levels[indexLevel++];
+			columnCoarse[c*numCoarse + (level >> fineBits)] += delta;
+			columnFine[c*numFine + level] += delta;
+		}
+	}
+
+	/**
+	 * Computes the median of each pixel along a row inside the strip
+	 */
+	private void computeRow( int y , int numRows , int x0 , int x1 , int c0 , int width , int radius ,
+							 int fineBits , int numCoarse , int numFine ) {
+		int segmentSize = 1 << fineBits;
+
+		// fine segments are out of date since the column histograms have changed
+		Arrays.fill(kernelCoarse, 0, numCoarse, 0);
+		Arrays.fill(segmentEnd, 0, numCoarse, -1);
+
+		// columns inside the region
+		int k0 = Math.max(0, x0 - radius);
+		int k1 = Math.min(width, x0 + radius + 1);
+		for( int col = k0; col < k1; col++ ) {
+			addCoarse(col - c0, 1, numCoarse);
+		}
+
+		int indexOut = y*width + x0;
+		for( int x = x0; x < x1; x++ ) {
+			if( x > x0 ) {
+				int add = x + radius;
+				if( add < width ) {
+					addCoarse(add - c0, 1, numCoarse);
+					k1 = add + 1;
+				}
+				int remove = x - radius - 1;
+				if( remove >= 0 ) {
+					addCoarse(remove - c0, -1, numCoarse);
+					k0 = remove + 1;
+				}
+			}
+
+			// index of the median in the sorted list of pixels in the region
+			int target = numRows*(k1 - k0)/2;
+
+			// find the coarse bin which contains the median
+			int coarse = 0;
+			int below = 0;
+			while( below + kernelCoarse[coarse] <= target ) {
+				below += kernelCoarse[coarse++];
+			}
+
+			// bring the fine segment up to date with the current region
+			int start = segmentStart[coarse];
+			int end = segmentEnd[coarse];
+			if( end <= k0 || (k0 - start) + (k1 - end) >= k1 - k0 ) {
+				Arrays.fill(kernelFine, coarse*segmentSize, (coarse+1)*segmentSize, 0);
+				for( int col = k0; col < k1; col++ )
+					addFine(col - c0, 1, coarse, segmentSize, numFine);
+			} else {
+				for( int col = start; col < k0; col++ )
+					addFine(col - c0, -1, coarse, segmentSize, numFine);
+				for( int col = end; col < k1; col++ )
+					addFine(col - c0, 1, coarse, segmentSize, numFine);
+			}
+			segmentStart[coarse] = k0;
+			segmentEnd[coarse] = k1;
+
+			// find the median inside the segment
+			int level = coarse*segmentSize;
+			while( below + kernelFine[level] <= target ) {
+				below += kernelFine[level++];
+			}
+
+			medians[indexOut++] = level;
+		}
+	}
+
+	private void addCoarse( int column , int delta , int numCoarse ) {
+		int index = column*numCoarse;
+		if( delta > 0 ) {
+			for( int i = 0; i < numCoarse; i++ )
+				kernelCoarse[i] += columnCoarse[index++];
+		} else {
+			for( int i = 0; i < numCoarse; i++ )
+				kernelCoarse[i] -= columnCoarse[index++];
+		}
+	}
+
+	private void addFine( int column , int delta , int coarse , int segmentSize , int numFine ) {
+		int indexKernel = coarse*segmentSize;
+		int index = column*numFine + indexKernel;
+		if( delta > 0 ) {
+			for( int i = 0; i < segmentSize; i++ )
+				kernelFine[indexKernel++] += columnFine[index++];
+		} else {
+			for( int i = 0; i < segmentSize; i++ )
+				kernelFine[indexKernel++] -= columnFine[index++];
+		}
+	}
+
+	private void declareImage( int N ) {
+		if( levels.length < N ) {
+			levels = new int[N];
+			medians = new int[N];
+		}
+	}
+
+	/**
+	 * Returns the index of the first element in the sorted array which is equal to or greater than the value
+	 */
+	private static int lowerBound( float[] sorted , int length , float value ) {
+		int low = 0;
+		int high = length;
+		while( low < high ) {
+			int mid = (low + high) >>> 1;
+			if( Float.compare(sorted[mid], value) < 0 )
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Number of bits needed to describe the value
+	 */
+	private static int bitsFor( int value ) {
+		return Math.max(1, 32 - Integer.numberOfLeadingZeros(value));
+	}
+
+	public int getMaxStripBins() {
+		return maxStripBins;
+	}
+}
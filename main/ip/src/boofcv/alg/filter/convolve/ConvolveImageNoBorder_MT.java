@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.filter.convolve.noborder.*;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel1D_I32;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.convolve.Kernel2D_I32;
+import boofcv.struct.image.*;
+
+
+/**
+ * <p>
+ * Concurrent version of {@link ConvolveImageNoBorder}.  The image is split into bands of rows which are
+ * convolved in parallel, see {@link boofcv.concurrency.BoofConcurrency}.  The output is identical to what the
+ * single threaded functions produce, so the two can be used interchangeably.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"ForLoopReplaceableByForEach"})
+public class ConvolveImageNoBorder_MT {
+
+	/**
+	 * Performs a horizontal 1D convolution across the image.  The horizontal border
+	 * is not processed and the vertical border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 * @param includeVerticalBorder Should the vertical border of the image be processed?
+	 */
+	public static void horizontal(Kernel1D_F32 kernel,
+								  ImageFloat32 input,  ImageFloat32 output,
+								  boolean includeVerticalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if (!ConvolveImageUnrolled_F32_F32_MT.horizontal(kernel, input, output, includeVerticalBorder))
+			ConvolveImageStandard_MT.horizontal(kernel, input, output, includeVerticalBorder);
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution across the image with division.  The horizontal border
+	 * is not processed and the vertical border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input		The original image. Not modified.
+	 * @param output		Where the resulting image is written to. Modified.
+	 * @param kernel	The kernel that is being convolved. Not modified.
+	 * @param divisor	The value that the convolved image is divided by.
+	 * @param includeVerticalBorder Should the vertical border of the image be processed?
+	 */
+	public static void horizontal(Kernel1D_I32 kernel,
+								  ImageUInt8 input,  ImageInt8 output, int divisor, boolean includeVerticalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if( !ConvolveImageUnrolled_U8_I8_Div_MT.horizontal(kernel, input,  output, divisor, includeVerticalBorder))
+			ConvolveImageStandard_MT.horizontal(kernel, input,  output, divisor, includeVerticalBorder);
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution across the image.  The horizontal border
+	 * is not processed and the vertical border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input		 The original image. Not modified.
+	 * @param output		  Where the resulting image is written to. Modified.
+	 * @param kernel		The kernel that is being convolved. Not modified.
+	 * @param includeVerticalBorder Should the vertical border of the image be processed?
+	 */
+	public static void horizontal(Kernel1D_I32 kernel,
+								  ImageUInt8 input,  ImageInt16 output, boolean includeVerticalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if (!ConvolveImageUnrolled_U8_I16_MT.horizontal(kernel, input,  output, includeVerticalBorder))
+			ConvolveImageStandard_MT.horizontal(kernel, input,  output, includeVerticalBorder);
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution across the image.  The horizontal border
+	 * is not processed and the vertical border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input		 The original image. Not modified.
+	 * @param output	Where the resulting image is written to. Modified.
+	 * @param kernel	The kernel that is being convolved. Not modified.
+	 * @param includeVerticalBorder Should the vertical border of the image be processed?
+	 */
+	public static void horizontal(Kernel1D_I32 kernel,
+								  ImageUInt8 input, ImageSInt32 output, boolean includeVerticalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		ConvolveImageStandard_MT.horizontal(kernel, input, output, includeVerticalBorder);
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution across the image.  The horizontal border
+	 * is not processed and the vertical border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input		The original image. Not modified.
+	 * @param output	Where the resulting image is written to. Modified.
+	 * @param kernel	The kernel that is being convolved. Not modified.
+	 * @param includeVerticalBorder Should the vertical border of the image be processed?
+	 */
+	public static void horizontal(Kernel1D_I32 kernel,
+								  ImageSInt16 input, ImageInt16 output, boolean includeVerticalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if (!ConvolveImageUnrolled_S16_I16_MT.horizontal(kernel, input, output, includeVerticalBorder))
+			ConvolveImageStandard_MT.horizontal(kernel, input, output, includeVerticalBorder);
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution across the image.  The horizontal border
+	 * is not processed and the vertical border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input		 The original image. Not modified.
+	 * @param output		  Where the resulting image is written to. Modified.
+	 * @param kernel		The kernel that is being convolved. Not modified.
+	 * @param divisor	   The value that the convolved image is divided by.
+	 * @param includeVerticalBorder Should the vertical border of the image be processed?
+	 */
+	public static void horizontal(Kernel1D_I32 kernel,
+								  ImageSInt16 input, ImageInt16 output, int divisor, boolean includeVerticalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if (!ConvolveImageUnrolled_S16_I16_Div_MT.horizontal(kernel, input, output, divisor, includeVerticalBorder))
+			ConvolveImageStandard_MT.horizontal(kernel, input, output, divisor, includeVerticalBorder);
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution across the image.  The horizontal border
+	 * is not processed and the vertical border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input		 The original image. Not modified.
+	 * @param output		  Where the resulting image is written to. Modified.
+	 * @param kernel		The kernel that is being convolved. Not modified.
+	 * @param divisor	   The value that the convolved image is divided by.
+	 * @param includeVerticalBorder Should the vertical border of the image be processed?
+	 */
+	public static void horizontal(Kernel1D_I32 kernel,
+								  ImageSInt32 input, ImageSInt32 output, int divisor, boolean includeVerticalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if (!ConvolveImageUnrolled_S32_S32_Div_MT.horizontal(kernel, input, output, divisor, includeVerticalBorder))
+			ConvolveImageStandard_MT.horizontal(kernel, input, output, divisor, includeVerticalBorder);
+	}
+
+	/**
+	 * Performs a vertical 1D convolution across the image.  The vertical border
+	 * is not processed and the horizontal border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input		 The original image. Not modified.
+	 * @param output		  Where the resulting image is written to. Modified.
+	 * @param kernel		The kernel that is being convolved. Not modified.
+	 * @param includeHorizontalBorder Should the horizontal border of the image be processed?
+	 */
+	public static void vertical(Kernel1D_F32 kernel,
+								ImageFloat32 input,  ImageFloat32 output,
+								boolean includeHorizontalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if (!ConvolveImageUnrolled_F32_F32_MT.vertical(kernel, input,  output, includeHorizontalBorder))
+			ConvolveImageStandard_MT.vertical(kernel, input,  output, includeHorizontalBorder);
+	}
+
+	/**
+	 * Performs a vertical 1D convolution with division across the image.  The vertical border
+	 * is not processed and the horizontal border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input		 The original image. Not modified.
+	 * @param output		  Where the resulting image is written to. Modified.
+	 * @param kernel		The kernel that is being convolved. Not modified.
+	 * @param divisor	   The value that the convolved image is divided by.
+	 * @param includeHorizontalBorder Should the horizontal border of the image be processed?
+	 */
+	public static void vertical(Kernel1D_I32 kernel,
+								ImageUInt8 input,  ImageInt8 output, int divisor, boolean includeHorizontalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if( !ConvolveImageUnrolled_U8_I8_Div_MT.vertical(kernel, input,  output, divisor, includeHorizontalBorder))
+			ConvolveImageStandard_MT.vertical(kernel, input,  output, divisor, includeHorizontalBorder);
+	}
+
+	/**
+	 * Performs a vertical 1D convolution across the image.  The vertical border
+	 * is not processed and the horizontal border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input		 The original image. Not modified.
+	 * @param output		  Where the resulting image is written to. Modified.
+	 * @param kernel		The kernel that is being convolved. Not modified.
+	 * @param includeHorizontalBorder Should the horizontal border of the image be processed?
+	 */
+	public static void vertical(Kernel1D_I32 kernel,
+								ImageUInt8 input,  ImageInt16 output,
+								boolean includeHorizontalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if (!ConvolveImageUnrolled_U8_I16_MT.vertical(kernel, input,  output, includeHorizontalBorder))
+			ConvolveImageStandard_MT.vertical(kernel, input,  output, includeHorizontalBorder);
+	}
+
+	/**
+	 * Performs a vertical 1D convolution across the image.  The vertical border
+	 * is not processed and the horizontal border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input		 The original image. Not modified.
+	 * @param output		  Where the resulting image is written to. Modified.
+	 * @param kernel		The kernel that is being convolved. Not modified.
+	 * @param includeHorizontalBorder Should the horizontal border of the image be processed?
+	 */
+	public static void vertical(Kernel1D_I32 kernel,
+								ImageUInt8 input,  ImageSInt32 output,
+								boolean includeHorizontalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		ConvolveImageStandard_MT.vertical(kernel, input,  output, includeHorizontalBorder);
+	}
+
+	/**
+	 * Performs a vertical 1D convolution across the image.  The vertical border
+	 * is not processed and the horizontal border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input		 The original image. Not modified.
+	 * @param output		  Where the resulting image is written to. Modified.
+	 * @param kernel		The kernel that is being convolved. Not modified.
+	 * @param includeHorizontalBorder Should the horizontal border of the image be processed?
+	 */
+	public static void vertical(Kernel1D_I32 kernel,
+								ImageSInt16 input,  ImageInt16 output,
+								boolean includeHorizontalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if (!ConvolveImageUnrolled_S16_I16_MT.vertical(kernel, input,  output, includeHorizontalBorder))
+			ConvolveImageStandard_MT.vertical(kernel, input,  output, includeHorizontalBorder);
+	}
+
+	/**
+	 * Performs a vertical 1D convolution across the image.  The vertical border
+	 * is not processed and the horizontal border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input		 The original image. Not modified.
+	 * @param output		  Where the resulting image is written to. Modified.
+	 * @param kernel		The kernel that is being convolved. Not modified.
+	 * @param divisor	   The value that the convolved image is divided by.
+	 * @param includeHorizontalBorder Should the horizontal border of the image be processed?
+	 */
+	public static void vertical(Kernel1D_I32 kernel,
+								ImageSInt16 input,  ImageInt16 output,
+								int divisor , boolean includeHorizontalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if (!ConvolveImageUnrolled_S16_I16_Div_MT.vertical(kernel, input, output, divisor, includeHorizontalBorder))
+			ConvolveImageStandard_MT.vertical(kernel, input, output, divisor, includeHorizontalBorder);
+	}
+
+	/**
+	 * Performs a vertical 1D convolution across the image.  The vertical border
+	 * is not processed and the horizontal border is optionally processed.  The border is as wide
+	 * as the radius of the kernel.
+	 *
+	 * @param input		 The original image. Not modified.
+	 * @param output		  Where the resulting image is written to. Modified.
+	 * @param kernel		The kernel that is being convolved. Not modified.
+	 * @param divisor	   The value that the convolved image is divided by.
+	 * @param includeHorizontalBorder Should the horizontal border of the image be processed?
+	 */
+	public static void vertical(Kernel1D_I32 kernel,
+								ImageSInt32 input,  ImageSInt32 output,
+								int divisor , boolean includeHorizontalBorder) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if (!ConvolveImageUnrolled_S32_S32_Div_MT.vertical(kernel, input, output, divisor, includeHorizontalBorder))
+			ConvolveImageStandard_MT.vertical(kernel, input, output, divisor, includeHorizontalBorder);
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.  The image's borders are not processed.
+	 *
+	 * @param kernel A square kernel that will be convolved across the source image
+	 * @param input  The source image that is to be convolved
+	 * @param output   The results of the convolution
+	 */
+	public static void convolve(Kernel2D_F32 kernel, ImageFloat32 input,  ImageFloat32 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if( !ConvolveImageUnrolled_F32_F32_MT.convolve(kernel,input,output))
+			ConvolveImageStandard_MT.convolve(kernel, input,  output);
+	}
+
+	/**
+	 * Performs a 2D convolution with division across the image.  The image's borders are not processed.
+	 *
+	 * @param kernel  A square kernel that will be convolved across the source image
+	 * @param input   The source image that is to be convolved
+	 * @param output	The results of the convolution
+	 * @param divisor The value that the convolved image is divided by.
+	 */
+	public static void convolve(Kernel2D_I32 kernel,
+								ImageUInt8 input,  ImageInt8 output, int divisor) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if( !ConvolveImageUnrolled_U8_I8_Div_MT.convolve(kernel,input,output,divisor))
+			ConvolveImageStandard_MT.convolve(kernel, input,  output, divisor);
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.  The image's borders are not processed.
+	 *
+	 * @param kernel A square kernel that will be convolved across the source image
+	 * @param input  The source image that is to be convolved
+	 * @param output   The results of the convolution
+	 */
+	public static void convolve(Kernel2D_I32 kernel, ImageUInt8 input,  ImageInt16 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if( !ConvolveImageUnrolled_U8_I16_MT.convolve(kernel,input,output))
+			ConvolveImageStandard_MT.convolve(kernel, input,  output);
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.  The image's borders are not processed.
+	 *
+	 * @param kernel A square kernel that will be convolved across the source image
+	 * @param input  The source image that is to be convolved
+	 * @param output   The results of the convolution
+	 */
+	public static void convolve(Kernel2D_I32 kernel, ImageUInt8 input,  ImageSInt32 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		ConvolveImageStandard_MT.convolve(kernel, input,  output);
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.  The image's borders are not processed.
+	 *
+	 * @param kernel A square kernel that will be convolved across the source image
+	 * @param input  The source image that is to be convolved
+	 * @param output   The results of the convolution
+	 */
+	public static void convolve(Kernel2D_I32 kernel, ImageSInt16 input,  ImageInt16 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if( !ConvolveImageUnrolled_S16_I16_MT.convolve(kernel,input,output))
+			ConvolveImageStandard_MT.convolve(kernel, input,  output);
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.  The image's borders are not processed.
+	 *
+	 * @param kernel A square kernel that will be convolved across the source image
+	 * @param input  The source image that is to be convolved
+	 * @param output   The results of the convolution
+	 * @param divisor The value that the convolved image is divided by.
+	 */
+	public static void convolve(Kernel2D_I32 kernel, ImageSInt16 input,  ImageInt16 output, int divisor ) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if( !ConvolveImageUnrolled_S16_I16_Div_MT.convolve(kernel,input,output,divisor))
+			ConvolveImageStandard_MT.convolve(kernel, input,  output, divisor);
+	}
+}
\ No newline at end of file
@@ -39,7 +39,20 @@ public class DiscreteFourierTransformOps {
 	 * @return {@link DiscreteFourierTransform}
 	 */
 	public static DiscreteFourierTransform<ImageFloat32,InterleavedF32>  createTransformF32() {
-		return new GeneralFft_to_DiscreteFourierTransform_F32();
+		return createTransformF32(false);
+	}
+
+	/**
+	 * Creates a {@link DiscreteFourierTransform} for images of type {@link ImageFloat32}.  If concurrent then blocks
+	 * of rows and columns are transformed in parallel.  Concurrency only pays off for larger images.
+	 *
+	 * @see GeneralPurposeFFT_F32_2D
+	 *
+	 * @param concurrent If true then multiple threads will be used
+	 * @return {@link DiscreteFourierTransform}
+	 */
+	public static DiscreteFourierTransform<ImageFloat32,InterleavedF32>  createTransformF32( boolean concurrent ) {
+		return new GeneralFft_to_DiscreteFourierTransform_F32(concurrent);
 	}
 
 	/**
@@ -50,7 +63,20 @@ public class DiscreteFourierTransformOps {
 	 * @return {@link DiscreteFourierTransform}
 	 */
 	public static DiscreteFourierTransform<ImageFloat64,InterleavedF64>  createTransformF64() {
-		return new GeneralFft_to_DiscreteFourierTransform_F64();
+		return createTransformF64(false);
+	}
+
+	/**
+	 * Creates a {@link DiscreteFourierTransform} for images of type {@link ImageFloat64}.  If concurrent then blocks
+	 * of rows and columns are transformed in parallel.  Concurrency only pays off for larger images.
+	 *
+	 * @see GeneralPurposeFFT_F64_2D
+	 *
+	 * @param concurrent If true then multiple threads will be used
+	 * @return {@link DiscreteFourierTransform}
+	 */
+	public static DiscreteFourierTransform<ImageFloat64,InterleavedF64>  createTransformF64( boolean concurrent ) {
+		return new GeneralFft_to_DiscreteFourierTransform_F64(concurrent);
 	}
 
 	/**
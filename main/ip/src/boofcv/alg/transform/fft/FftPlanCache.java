@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.transform.fft;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Cache of 1D FFT plans, indexed by size.  Computing the tables used by {@link GeneralPurposeFFT_F32_1D} and
+ * {@link GeneralPurposeFFT_F64_1D} is expensive relative to transforming a small image, so when a transform of
+ * the same size is requested again the tables are reused.  Each lookup returns a new instance which shares the
+ * read only tables but has its own work space, so the returned instance can be used by a single thread while
+ * other threads use other instances of the same size.
+ * </p>
+ *
+ * <p>
+ * The least recently used plans are discarded once the number of plans for a data type exceeds the
+ * maximum size.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FftPlanCache {
+
+	// maximum number of plans saved for each data type
+	private static int maxSize = 32;
+
+	private static final Map<Integer,GeneralPurposeFFT_F32_1D> plansF32 = new Cache<GeneralPurposeFFT_F32_1D>();
+	private static final Map<Integer,GeneralPurposeFFT_F64_1D> plansF64 = new Cache<GeneralPurposeFFT_F64_1D>();
+
+	/**
+	 * Returns a new 1D transform for data of the specified size.
+	 *
+	 * @param n size of data
+	 * @return New instance which shares tables with the cached plan.
+	 */
+	public static synchronized GeneralPurposeFFT_F32_1D lookupF32( int n ) {
+		GeneralPurposeFFT_F32_1D plan = plansF32.get(n);
+		if( plan == null ) {
+			plan = new GeneralPurposeFFT_F32_1D(n);
+			plansF32.put(n,plan);
+		}
+		return new GeneralPurposeFFT_F32_1D(plan);
+	}
+
+	/**
+	 * Returns a new 1D transform for data of the specified size.
+	 *
+	 * @param n size of data
+	 * @return New instance which shares tables with the cached plan.
+	 */
+	public static synchronized GeneralPurposeFFT_F64_1D lookupF64( int n ) {
+		GeneralPurposeFFT_F64_1D plan = plansF64.get(n);
+		if( plan == null ) {
+			plan = new GeneralPurposeFFT_F64_1D(n);
+			plansF64.put(n,plan);
+		}
+		return new GeneralPurposeFFT_F64_1D(plan);
+	}
+
+	/**
+	 * Returns true if a plan of the specified type and size is in the cache
+	 */
+	public static synchronized boolean contains( int n , boolean isDouble ) {
+		if( isDouble )
+			return plansF64.containsKey(n);
+		else
+			return plansF32.containsKey(n);
+	}
+
+	/**
+	 * Discards all the saved plans
+	 */
+	public static synchronized void clear() {
+		plansF32.clear();
+		plansF64.clear();
+	}
+
+	/**
+	 * Specifies the maximum number of plans which are saved for each data type.  If zero then nothing is saved.
+	 */
+	public static synchronized void setMaxSize( int maxSize ) {
+		if( maxSize < 0 )
+			throw new IllegalArgumentException("maxSize must be >= 0");
+		FftPlanCache.maxSize = maxSize;
+		trim(plansF32);
+		trim(plansF64);
+	}
+
+	public static synchronized int getMaxSize() {
+		return maxSize;
+	}
+
+	private static void trim( Map<Integer,?> plans ) {
+		while( plans.size() > maxSize ) {
+			plans.remove(plans.keySet().iterator().next());
+		}
+	}
+
+	/**
+	 * Map which is ordered by access and discards the least recently used plan
+	 */
+	private static class Cache<T> extends LinkedHashMap<Integer,T> {
+		private static final long serialVersionUID = 1L;
+
+		public Cache() {
+			super(16,0.75f,true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, T> eldest) {
+			return size() > maxSize;
+		}
+	}
+}
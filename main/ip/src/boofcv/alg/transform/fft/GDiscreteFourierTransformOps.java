@@ -40,9 +40,24 @@ public class GDiscreteFourierTransformOps {
 	 */
 	public static <T extends ImageFloat, W extends ImageInterleaved>
 	DiscreteFourierTransform<T,W> createTransform( ImageDataType type ) {
+		return createTransform(type, false);
+	}
+
+	/**
+	 * Creates a {@link boofcv.abst.transform.fft.DiscreteFourierTransform} for the specified type which can
+	 * optionally use multiple threads.
+	 *
+	 * @see DiscreteFourierTransform
+	 *
+	 * @param type Image data type
+	 * @param concurrent If true then multiple threads will be used
+	 * @return {@link boofcv.abst.transform.fft.DiscreteFourierTransform}
+	 */
+	public static <T extends ImageFloat, W extends ImageInterleaved>
+	DiscreteFourierTransform<T,W> createTransform( ImageDataType type , boolean concurrent ) {
 		switch( type ) {
-			case F32: return (DiscreteFourierTransform)createTransformF32();
-			case F64: return (DiscreteFourierTransform)createTransformF64();
+			case F32: return (DiscreteFourierTransform)createTransformF32(concurrent);
+			case F64: return (DiscreteFourierTransform)createTransformF64(concurrent);
 		}
 		throw new IllegalArgumentException("Unsupported image type "+type);
 	}
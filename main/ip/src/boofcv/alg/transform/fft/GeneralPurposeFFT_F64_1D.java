@@ -144,6 +144,40 @@ public class GeneralPurposeFFT_F64_1D {
 		ch2 = new double[n*2];
 	}
 
+	/**
+	 * Creates a new instance which references the precomputed tables of the original instance.  The tables are
+	 * never modified after construction, so both instances can be used at the same time by different threads.
+	 * Only the work space is declared.
+	 *
+	 * @param original
+	 *            instance whose tables are referenced
+	 */
+	public GeneralPurposeFFT_F64_1D(GeneralPurposeFFT_F64_1D original) {
+		this.n = original.n;
+		this.nBluestein = original.nBluestein;
+		this.ip = original.ip;
+		this.w = original.w;
+		this.nw = original.nw;
+		this.nc = original.nc;
+		this.wtable = original.wtable;
+		this.wtable_r = original.wtable_r;
+		this.bk1 = original.bk1;
+		this.bk2 = original.bk2;
+		this.plan = original.plan;
+
+		if( original.ak != null )
+			ak = new double[original.ak.length];
+		ch = new double[n];
+		ch2 = new double[n*2];
+	}
+
+	/**
+	 * Returns the size of the data which is transformed
+	 */
+	public int getSize() {
+		return n;
+	}
+
 	/**
 	 * Computes 1D forward DFT of complex data leaving the result in
 	 * <code>a</code>. Complex number is stored as two double values in
@@ -18,6 +18,12 @@
 
 package boofcv.alg.transform.fft;
 
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Computes 2D Discrete Fourier Transform (DFT) of complex and real, double
  * precision data. The size of the data can be an arbitrary number. The code originally comes from
@@ -26,8 +32,9 @@ package boofcv.alg.transform.fft;
  * <p></p>
  * This code has a bit of a history.  Originally from General Purpose FFT.  Which was then ported into
  * JFFTPack written by Baoshe Zhang (http://jfftpack.sourceforge.net/), and then into JTransforms by Piotr Wendykier.
- * The major modification from JTransforms is that the SMP code has been stripped out.  It might be added back in
- * once an SMP strategy has been finalized in BoofCV.
+ * The major modification from JTransforms is that its SMP code has been replaced.  When concurrent, blocks of
+ * rows and columns are transformed in parallel using {@link BoofConcurrency}, each with its own copy of the
+ * 1D transforms and work space.  The 1D transforms are looked up in {@link FftPlanCache}.
  * <p></p>
  * Code License:  The original license of General Purpose FFT Package is shown below.  This file will fall
  * under the same license:
@@ -58,6 +65,27 @@ public class GeneralPurposeFFT_F64_2D {
 	private double[] temp;
 	private double[][] temp2;
 
+	// minimum number of rows or columns processed by a thread
+	public static final int MIN_BLOCK = 16;
+
+	// if true blocks of rows and columns are transformed using multiple threads
+	private boolean concurrent;
+	// work space for each block.  The first one references the fields above
+	private List<Workspace> workspace = new ArrayList<Workspace>();
+
+	// passes which are applied to a range of rows or columns
+	private static final int ROWS_COMPLEX_FORWARD = 0;
+	private static final int ROWS_COMPLEX_INVERSE = 1;
+	private static final int ROWS_REAL_FORWARD = 2;
+	private static final int ROWS_REAL_INVERSE = 3;
+	private static final int ROWS_REAL_INVERSE2 = 4;
+	private static final int COLUMNS_COMPLEX_FORWARD = 5;
+	private static final int COLUMNS_COMPLEX_INVERSE = 6;
+	private static final int COLUMNS_POW2_FORWARD = 7;
+	private static final int COLUMNS_POW2_INVERSE = 8;
+	private static final int COLUMNS_MIXED_FORWARD = 9;
+	private static final int COLUMNS_MIXED_INVERSE = 10;
+
 	/**
 	 * Creates new instance of DoubleFFT_2D.
 	 *
@@ -67,6 +95,21 @@ public class GeneralPurposeFFT_F64_2D {
 	 *            number of columns
 	 */
 	public GeneralPurposeFFT_F64_2D(int rows, int columns) {
+		this(rows,columns,false);
+	}
+
+	/**
+	 * Creates new instance which can optionally transform blocks of rows and columns using multiple threads.
+	 * The output is identical in either case.
+	 *
+	 * @param rows
+	 *            number of rows
+	 * @param columns
+	 *            number of columns
+	 * @param concurrent
+	 *            if true then multiple threads will be used
+	 */
+	public GeneralPurposeFFT_F64_2D(int rows, int columns, boolean concurrent) {
 		if (rows < 1 || columns < 1 ) {
 			throw new IllegalArgumentException("rows and columns must be greater than 0");
 		}
@@ -86,14 +129,17 @@ public class GeneralPurposeFFT_F64_2D {
 			t = new double[nt];
 		}
 
-		fftRows = new GeneralPurposeFFT_F64_1D(rows);
+		fftRows = FftPlanCache.lookupF64(rows);
 		if (rows == columns) {
 			fftColumns = fftRows;
 		} else {
-			fftColumns = new GeneralPurposeFFT_F64_1D(columns);
+			fftColumns = FftPlanCache.lookupF64(columns);
 		}
 
 		temp = new double[2 * rows];
+
+		this.concurrent = concurrent;
+		workspace.add(new Workspace(fftRows, fftColumns, t, temp));
 	}
 
 	/**
@@ -121,37 +167,15 @@ public class GeneralPurposeFFT_F64_2D {
 			return;
 		}
 
+		applyPass(ROWS_COMPLEX_FORWARD, a, true, 0, rows);
+
 		if (isPowerOfTwo) {
 			int oldn2 = columns;
 			columns = 2 * columns;
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexForward(a, r * columns);
-			}
 			cdft2d_sub(-1, a, true);
 			columns = oldn2;
 		} else {
-			final int rowStride = 2 * columns;
-
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexForward(a, r * rowStride);
-			}
-
-			for (int c = 0; c < columns; c++) {
-				int idx0 = 2 * c;
-				for (int r = 0; r < rows; r++) {
-					int idx1 = 2 * r;
-					int idx2 = r * rowStride + idx0;
-					temp[idx1] = a[idx2];
-					temp[idx1 + 1] = a[idx2 + 1];
-				}
-				fftRows.complexForward(temp);
-				for (int r = 0; r < rows; r++) {
-					int idx1 = 2 * r;
-					int idx2 = r * rowStride + idx0;
-					a[idx2] = temp[idx1];
-					a[idx2 + 1] = temp[idx1 + 1];
-				}
-			}
+			applyPass(COLUMNS_COMPLEX_FORWARD, a, true, 0, columns);
 		}
 	}
 
@@ -184,36 +208,15 @@ public class GeneralPurposeFFT_F64_2D {
 			return;
 		}
 
+		applyPass(ROWS_COMPLEX_INVERSE, a, scale, 0, rows);
+
 		if (isPowerOfTwo) {
 			int oldn2 = columns;
 			columns = 2 * columns;
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexInverse(a, r * columns, scale);
-			}
 			cdft2d_sub(1, a, scale);
 			columns = oldn2;
 		} else {
-			final int rowspan = 2 * columns;
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexInverse(a, r * rowspan, scale);
-			}
-
-			for (int c = 0; c < columns; c++) {
-				int idx1 = 2 * c;
-				for (int r = 0; r < rows; r++) {
-					int idx2 = 2 * r;
-					int idx3 = r * rowspan + idx1;
-					temp[idx2] = a[idx3];
-					temp[idx2 + 1] = a[idx3 + 1];
-				}
-				fftRows.complexInverse(temp, scale);
-				for (int r = 0; r < rows; r++) {
-					int idx2 = 2 * r;
-					int idx3 = r * rowspan + idx1;
-					a[idx3] = temp[idx2];
-					a[idx3 + 1] = temp[idx2 + 1];
-				}
-			}
+			applyPass(COLUMNS_COMPLEX_INVERSE, a, scale, 0, columns);
 		}
 	}
 
@@ -262,9 +265,7 @@ public class GeneralPurposeFFT_F64_2D {
 		if (isPowerOfTwo == false) {
 			throw new IllegalArgumentException("rows and columns must be power of two numbers");
 		} else {
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realForward(a, r * columns);
-			}
+			applyPass(ROWS_REAL_FORWARD, a, true, 0, rows);
 			cdft2d_sub(-1, a, true);
 			rdft2d_sub(1, a);
 		}
@@ -293,9 +294,7 @@ public class GeneralPurposeFFT_F64_2D {
 		}
 
 		if (isPowerOfTwo) {
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realForward(a, r * columns);
-			}
+			applyPass(ROWS_REAL_FORWARD, a, true, 0, rows);
 			cdft2d_sub(-1, a, true);
 			rdft2d_sub(1, a);
 			fillSymmetric(a);
@@ -354,9 +353,7 @@ public class GeneralPurposeFFT_F64_2D {
 		} else {
 			rdft2d_sub(-1, a);
 			cdft2d_sub(1, a, scale);
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realInverse(a, r * columns, scale);
-			}
+			applyPass(ROWS_REAL_INVERSE, a, scale, 0, rows);
 		}
 	}
 
@@ -385,9 +382,7 @@ public class GeneralPurposeFFT_F64_2D {
 		}
 
 		if (isPowerOfTwo) {
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realInverse2(a, r * columns, scale);
-			}
+			applyPass(ROWS_REAL_INVERSE2, a, scale, 0, rows);
 			cdft2d_sub(1, a, scale);
 			rdft2d_sub(1, a);
 			fillSymmetric(a);
@@ -409,24 +404,13 @@ public class GeneralPurposeFFT_F64_2D {
 		final int n2d2 = columns / 2 + 1;
 		final double[][] temp = temp2;
 
-		for (int r = 0; r < rows; r++) {
-			fftColumns.realForward(a, r * columns);
-		}
+		applyPass(ROWS_REAL_FORWARD, a, true, 0, rows);
 		for (int r = 0; r < rows; r++) {
 			temp[0][r] = a[r * columns]; //first column is always real
 		}
 		fftRows.realForwardFull(temp[0]);
 
-		for (int c = 1; c < n2d2 - 1; c++) {
-			int idx0 = 2 * c;
-			for (int r = 0; r < rows; r++) {
-				int idx1 = 2 * r;
-				int idx2 = r * columns + idx0;
-				temp[c][idx1] = a[idx2];
-				temp[c][idx1 + 1] = a[idx2 + 1];
-			}
-			fftRows.complexForward(temp[c]);
-		}
+		applyPass(COLUMNS_MIXED_FORWARD, a, true, 1, n2d2 - 1);
 
 		if ((columns % 2) == 0) {
 			for (int r = 0; r < rows; r++) {
@@ -478,24 +462,13 @@ public class GeneralPurposeFFT_F64_2D {
 		final int n2d2 = columns / 2 + 1;
 		final double[][] temp = temp2;
 
-		for (int r = 0; r < rows; r++) {
-			fftColumns.realInverse2(a, r * columns, scale);
-		}
+		applyPass(ROWS_REAL_INVERSE2, a, scale, 0, rows);
 		for (int r = 0; r < rows; r++) {
 			temp[0][r] = a[r * columns]; //first column is always real
 		}
 		fftRows.realInverseFull(temp[0], scale);
 
-		for (int c = 1; c < n2d2 - 1; c++) {
-			int idx0 = 2 * c;
-			for (int r = 0; r < rows; r++) {
-				int idx1 = 2 * r;
-				int idx2 = r * columns + idx0;
-				temp[c][idx1] = a[idx2];
-				temp[c][idx1 + 1] = a[idx2 + 1];
-			}
-			fftRows.complexInverse(temp[c], scale);
-		}
+		applyPass(COLUMNS_MIXED_INVERSE, a, scale, 1, n2d2 - 1);
 
 		if ((columns % 2) == 0) {
 			for (int r = 0; r < rows; r++) {
@@ -573,46 +546,195 @@ public class GeneralPurposeFFT_F64_2D {
 		}
 	}
 
-	private void cdft2d_sub(int isgn, double[] a, boolean scale) {
+	/**
+	 * Applies the pass to the range of rows or columns.  If concurrent the range is split into blocks which
+	 * are processed in parallel, each with its own work space.
+	 */
+	private void applyPass( final int pass , final double[] a , final boolean scale ,
+							final int start , final int end ) {
+		int minBlock = pass == COLUMNS_POW2_FORWARD || pass == COLUMNS_POW2_INVERSE ? MIN_BLOCK/8 : MIN_BLOCK;
+		final int numBlocks = concurrent ? BoofConcurrency.computeNumBlocks(end - start, minBlock) : 1;
+
+		if( numBlocks <= 1 ) {
+			applyPass(workspace.get(0), pass, a, scale, start, end);
+			return;
+		}
+
+		while( workspace.size() < numBlocks ) {
+			workspace.add(new Workspace(workspace.get(0)));
+		}
+
+		BoofConcurrency.loopBlocks(0, numBlocks, 1, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int block = min; block < max; block++ ) {
+					int i0 = BoofConcurrency.blockStart(start, end, numBlocks, block);
+					int i1 = BoofConcurrency.blockStart(start, end, numBlocks, block + 1);
+					applyPass(workspace.get(block), pass, a, scale, i0, i1);
+				}
+			}
+		});
+	}
+
+	private void applyPass( Workspace w , int pass , double[] a , boolean scale , int start , int end ) {
+		switch( pass ) {
+			case ROWS_COMPLEX_FORWARD:
+				for (int r = start; r < end; r++) {
+					w.fftColumns.complexForward(a, r * 2 * columns);
+				}
+				break;
+
+			case ROWS_COMPLEX_INVERSE:
+				for (int r = start; r < end; r++) {
+					w.fftColumns.complexInverse(a, r * 2 * columns, scale);
+				}
+				break;
+
+			case ROWS_REAL_FORWARD:
+				for (int r = start; r < end; r++) {
+					w.fftColumns.realForward(a, r * columns);
+				}
+				break;
+
+			case ROWS_REAL_INVERSE:
+				for (int r = start; r < end; r++) {
+					w.fftColumns.realInverse(a, r * columns, scale);
+				}
+				break;
+
+			case ROWS_REAL_INVERSE2:
+				for (int r = start; r < end; r++) {
+					w.fftColumns.realInverse2(a, r * columns, scale);
+				}
+				break;
+
+			case COLUMNS_COMPLEX_FORWARD:
+			case COLUMNS_COMPLEX_INVERSE:
+				complexColumns(w, pass == COLUMNS_COMPLEX_FORWARD, a, scale, start, end);
+				break;
+
+			case COLUMNS_POW2_FORWARD:
+			case COLUMNS_POW2_INVERSE:
+				cdft2d_columns(w, pass == COLUMNS_POW2_FORWARD, a, scale, start * 8, end * 8);
+				break;
+
+			case COLUMNS_MIXED_FORWARD:
+			case COLUMNS_MIXED_INVERSE:
+				mixedRadixColumns(w, pass == COLUMNS_MIXED_FORWARD, a, scale, start, end);
+				break;
+
+			default:
+				throw new RuntimeException("Unknown pass");
+		}
+	}
+
+	/**
+	 * Transforms the specified columns in complex data whose size isn't a power of two
+	 */
+	private void complexColumns( Workspace w , boolean forward , double[] a , boolean scale , int c0 , int c1 ) {
+		final int rowStride = 2 * columns;
+		final double[] temp = w.temp;
+
+		for (int c = c0; c < c1; c++) {
+			int idx0 = 2 * c;
+			for (int r = 0; r < rows; r++) {
+				int idx1 = 2 * r;
+				int idx2 = r * rowStride + idx0;
+				temp[idx1] = a[idx2];
+				temp[idx1 + 1] = a[idx2 + 1];
+			}
+			if( forward )
+				w.fftRows.complexForward(temp);
+			else
+				w.fftRows.complexInverse(temp, scale);
+			for (int r = 0; r < rows; r++) {
+				int idx1 = 2 * r;
+				int idx2 = r * rowStride + idx0;
+				a[idx2] = temp[idx1];
+				a[idx2 + 1] = temp[idx1 + 1];
+			}
+		}
+	}
+
+	/**
+	 * Transforms the specified columns of real data, excluding the first and last, whose size isn't a power of two
+	 */
+	private void mixedRadixColumns( Workspace w , boolean forward , double[] a , boolean scale , int c0 , int c1 ) {
+		final double[][] temp = temp2;
+
+		for (int c = c0; c < c1; c++) {
+			int idx0 = 2 * c;
+			for (int r = 0; r < rows; r++) {
+				int idx1 = 2 * r;
+				int idx2 = r * columns + idx0;
+				temp[c][idx1] = a[idx2];
+				temp[c][idx1 + 1] = a[idx2 + 1];
+			}
+			if( forward )
+				w.fftRows.complexForward(temp[c]);
+			else
+				w.fftRows.complexInverse(temp[c], scale);
+		}
+	}
+
+	/**
+	 * Transforms the specified columns, eight at a time, when the size is a power of two
+	 */
+	private void cdft2d_columns( Workspace w , boolean forward , double[] a , boolean scale , int c0 , int c1 ) {
 		int idx1, idx2, idx3, idx4, idx5;
+		final double[] t = w.t;
+		final GeneralPurposeFFT_F64_1D fftRows = w.fftRows;
+
+		for (int c = c0; c < c1; c += 8) {
+			for (int r = 0; r < rows; r++) {
+				idx1 = r * columns + c;
+				idx2 = 2 * r;
+				idx3 = 2 * rows + 2 * r;
+				idx4 = idx3 + 2 * rows;
+				idx5 = idx4 + 2 * rows;
+				t[idx2] = a[idx1];
+				t[idx2 + 1] = a[idx1 + 1];
+				t[idx3] = a[idx1 + 2];
+				t[idx3 + 1] = a[idx1 + 3];
+				t[idx4] = a[idx1 + 4];
+				t[idx4 + 1] = a[idx1 + 5];
+				t[idx5] = a[idx1 + 6];
+				t[idx5 + 1] = a[idx1 + 7];
+			}
+			if( forward ) {
+				fftRows.complexForward(t, 0);
+				fftRows.complexForward(t, 2 * rows);
+				fftRows.complexForward(t, 4 * rows);
+				fftRows.complexForward(t, 6 * rows);
+			} else {
+				fftRows.complexInverse(t, 0, scale);
+				fftRows.complexInverse(t, 2 * rows, scale);
+				fftRows.complexInverse(t, 4 * rows, scale);
+				fftRows.complexInverse(t, 6 * rows, scale);
+			}
+			for (int r = 0; r < rows; r++) {
+				idx1 = r * columns + c;
+				idx2 = 2 * r;
+				idx3 = 2 * rows + 2 * r;
+				idx4 = idx3 + 2 * rows;
+				idx5 = idx4 + 2 * rows;
+				a[idx1] = t[idx2];
+				a[idx1 + 1] = t[idx2 + 1];
+				a[idx1 + 2] = t[idx3];
+				a[idx1 + 3] = t[idx3 + 1];
+				a[idx1 + 4] = t[idx4];
+				a[idx1 + 5] = t[idx4 + 1];
+				a[idx1 + 6] = t[idx5];
+				a[idx1 + 7] = t[idx5 + 1];
+			}
+		}
+	}
+
+	private void cdft2d_sub(int isgn, double[] a, boolean scale) {
+		int idx1, idx2, idx3;
 		if (isgn == -1) {
 			if (columns > 4) {
-				for (int c = 0; c < columns; c += 8) {
-					for (int r = 0; r < rows; r++) {
-						idx1 = r * columns + c;
-						idx2 = 2 * r;
-						idx3 = 2 * rows + 2 * r;
-						idx4 = idx3 + 2 * rows;
-						idx5 = idx4 + 2 * rows;
-						t[idx2] = a[idx1];
-						t[idx2 + 1] = a[idx1 + 1];
-						t[idx3] = a[idx1 + 2];
-						t[idx3 + 1] = a[idx1 + 3];
-						t[idx4] = a[idx1 + 4];
-						t[idx4 + 1] = a[idx1 + 5];
-						t[idx5] = a[idx1 + 6];
-						t[idx5 + 1] = a[idx1 + 7];
-					}
-					fftRows.complexForward(t, 0);
-					fftRows.complexForward(t, 2 * rows);
-					fftRows.complexForward(t, 4 * rows);
-					fftRows.complexForward(t, 6 * rows);
-					for (int r = 0; r < rows; r++) {
-						idx1 = r * columns + c;
-						idx2 = 2 * r;
-						idx3 = 2 * rows + 2 * r;
-						idx4 = idx3 + 2 * rows;
-						idx5 = idx4 + 2 * rows;
-						a[idx1] = t[idx2];
-						a[idx1 + 1] = t[idx2 + 1];
-						a[idx1 + 2] = t[idx3];
-						a[idx1 + 3] = t[idx3 + 1];
-						a[idx1 + 4] = t[idx4];
-						a[idx1 + 5] = t[idx4 + 1];
-						a[idx1 + 6] = t[idx5];
-						a[idx1 + 7] = t[idx5 + 1];
-					}
-				}
+				applyPass(COLUMNS_POW2_FORWARD, a, scale, 0, columns / 8);
 			} else if (columns == 4) {
 				for (int r = 0; r < rows; r++) {
 					idx1 = r * columns;
@@ -651,42 +773,7 @@ public class GeneralPurposeFFT_F64_2D {
 			}
 		} else {
 			if (columns > 4) {
-				for (int c = 0; c < columns; c += 8) {
-					for (int r = 0; r < rows; r++) {
-						idx1 = r * columns + c;
-						idx2 = 2 * r;
-						idx3 = 2 * rows + 2 * r;
-						idx4 = idx3 + 2 * rows;
-						idx5 = idx4 + 2 * rows;
-						t[idx2] = a[idx1];
-						t[idx2 + 1] = a[idx1 + 1];
-						t[idx3] = a[idx1 + 2];
-						t[idx3 + 1] = a[idx1 + 3];
-						t[idx4] = a[idx1 + 4];
-						t[idx4 + 1] = a[idx1 + 5];
-						t[idx5] = a[idx1 + 6];
-						t[idx5 + 1] = a[idx1 + 7];
-					}
-					fftRows.complexInverse(t, 0, scale);
-					fftRows.complexInverse(t, 2 * rows, scale);
-					fftRows.complexInverse(t, 4 * rows, scale);
-					fftRows.complexInverse(t, 6 * rows, scale);
-					for (int r = 0; r < rows; r++) {
-						idx1 = r * columns + c;
-						idx2 = 2 * r;
-						idx3 = 2 * rows + 2 * r;
-						idx4 = idx3 + 2 * rows;
-						idx5 = idx4 + 2 * rows;
-						a[idx1] = t[idx2];
-						a[idx1 + 1] = t[idx2 + 1];
-						a[idx1 + 2] = t[idx3];
-						a[idx1 + 3] = t[idx3 + 1];
-						a[idx1 + 4] = t[idx4];
-						a[idx1 + 5] = t[idx4 + 1];
-						a[idx1 + 6] = t[idx5];
-						a[idx1 + 7] = t[idx5 + 1];
-					}
-				}
+				applyPass(COLUMNS_POW2_INVERSE, a, scale, 0, columns / 8);
 			} else if (columns == 4) {
 				for (int r = 0; r < rows; r++) {
 					idx1 = r * columns;
@@ -915,4 +1002,39 @@ public class GeneralPurposeFFT_F64_2D {
 		a[idx1 + 1] = 0;
 		a[idx1 + columns + 1] = 0;
 	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Storage and 1D transforms which can't be shared between threads
+	 */
+	private static class Workspace {
+		GeneralPurposeFFT_F64_1D fftColumns, fftRows;
+		double[] t;
+		double[] temp;
+
+		public Workspace(GeneralPurposeFFT_F64_1D fftRows, GeneralPurposeFFT_F64_1D fftColumns,
+						 double[] t, double[] temp) {
+			this.fftRows = fftRows;
+			this.fftColumns = fftColumns;
+			this.t = t;
+			this.temp = temp;
+		}
+
+		/**
+		 * Creates a new work space with the same shape as the original
+		 */
+		public Workspace( Workspace original ) {
+			fftRows = new GeneralPurposeFFT_F64_1D(original.fftRows);
+			if( original.fftColumns == original.fftRows )
+				fftColumns = fftRows;
+			else
+				fftColumns = new GeneralPurposeFFT_F64_1D(original.fftColumns);
+			if( original.t != null )
+				t = new double[original.t.length];
+			temp = new double[original.temp.length];
+		}
+	}
 }
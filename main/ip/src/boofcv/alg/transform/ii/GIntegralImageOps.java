@@ -55,6 +55,8 @@ public class GIntegralImageOps {
 	public static <I extends ImageSingleBand, T extends ImageSingleBand>
 	T transform( I input , T transformed ) {
 		if( input instanceof ImageFloat32 ) {
+			if( transformed instanceof ImageFloat64 )
+				return (T)IntegralImageOps.transformDouble((ImageFloat32)input,(ImageFloat64)transformed);
 			return (T)IntegralImageOps.transform((ImageFloat32)input,(ImageFloat32)transformed);
 		} else if( input instanceof ImageFloat64) {
 			return (T)IntegralImageOps.transform((ImageFloat64)input,(ImageFloat64)transformed);
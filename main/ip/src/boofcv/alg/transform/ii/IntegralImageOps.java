@@ -48,6 +48,23 @@ public class IntegralImageOps {
 		return transformed;
 	}
 
+	/**
+	 * Converts a regular image into an integral image.  The sums are accumulated in double precision, which
+	 * avoids the round off errors that single precision integral images suffer from on large images.  Has a
+	 * different name from transform() so that existing calls which pass in a null output are not ambiguous.
+	 *
+	 * @param input Regular image. Not modified.
+	 * @param transformed Integral image. If null a new image will be created. Modified.
+	 * @return Integral image.
+	 */
+	public static ImageFloat64 transformDouble( ImageFloat32 input , ImageFloat64 transformed ) {
+		transformed = InputSanityCheck.checkDeclare(input,transformed,ImageFloat64.class);
+
+		ImplIntegralImageOps.transformDouble(input,transformed);
+
+		return transformed;
+	}
+
 	/**
 	 * Converts a regular image into an integral image.
 	 *
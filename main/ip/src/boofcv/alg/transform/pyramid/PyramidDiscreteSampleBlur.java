@@ -47,9 +47,9 @@ import boofcv.struct.pyramid.PyramidDiscrete;
 public class PyramidDiscreteSampleBlur<T extends ImageSingleBand> extends PyramidDiscrete<T> {
 
 	// stores the results from the first convolution
-	private T temp;
-	GenericConvolveDown<T,T> horizontal;
-	GenericConvolveDown<T,T> vertical;
+	protected T temp;
+	protected GenericConvolveDown<T,T> horizontal;
+	protected GenericConvolveDown<T,T> vertical;
 
 	// amount of blur applied to each layer
 	double sigmas[];
@@ -101,27 +101,30 @@ public class PyramidDiscreteSampleBlur<T extends ImageSingleBand> extends Pyrami
 				getLayer(0).setTo(input);
 			}
 		} else {
-			int skip = scale[0];
-
-			horizontal.setSkip(skip);
-			vertical.setSkip(skip);
-
-			temp.reshape(input.width/skip,input.height);
-			horizontal.process(input,temp);
-			vertical.process(temp,getLayer(0));
+			blurDown(input,scale[0],getLayer(0));
 		}
 
 		for (int index = 1; index < getNumLayers(); index++) {
 			int skip = scale[index]/scale[index-1];
-			T prev = getLayer(index-1);
-			temp.reshape(prev.width/skip,prev.height);
+			blurDown(getLayer(index-1),skip,getLayer(index));
+		}
+	}
 
-			horizontal.setSkip(skip);
-			vertical.setSkip(skip);
+	/**
+	 * Blurs the input image and down samples it into the output image.
+	 *
+	 * @param input Image being down sampled
+	 * @param skip Sampling period
+	 * @param output Down sampled image
+	 */
+	protected void blurDown( T input , int skip , T output ) {
+		temp.reshape(input.width/skip,input.height);
 
-			horizontal.process(prev,temp);
-			vertical.process(temp,getLayer(index));
-		}
+		horizontal.setSkip(skip);
+		vertical.setSkip(skip);
+
+		horizontal.process(input,temp);
+		vertical.process(temp,output);
 	}
 
 	/**
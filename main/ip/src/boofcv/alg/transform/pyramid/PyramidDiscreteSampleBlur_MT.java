@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.image.ImageSingleBand;
+
+/**
+ * <p>
+ * Concurrent version of {@link PyramidDiscreteSampleBlur}.  Each layer still depends on the previous layer,
+ * but the convolution used to create a layer is split up between threads.  The horizontal pass does not mix
+ * rows, so it is split into bands of rows, and the vertical pass does not mix columns, so it is split into bands
+ * of columns.  Each band is processed as a sub-image, so the output is identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"unchecked"})
+public class PyramidDiscreteSampleBlur_MT<T extends ImageSingleBand> extends PyramidDiscreteSampleBlur<T> {
+
+	// minimum number of rows or columns in a band
+	int minBlock;
+
+	/**
+	 * See {@link PyramidDiscreteSampleBlur#PyramidDiscreteSampleBlur}
+	 */
+	public PyramidDiscreteSampleBlur_MT(Kernel1D kernel, double sigma, Class<T> imageType,
+										boolean saveOriginalReference, int... scaleFactors)
+	{
+		super(kernel, sigma, imageType, saveOriginalReference, scaleFactors);
+
+		// column bands must be wider than the kernel or a different algorithm is selected for the border
+		minBlock = Math.max(20,kernel.getWidth()+1);
+	}
+
+	@Override
+	protected void blurDown( final T input , int skip , final T output ) {
+		temp.reshape(input.width/skip,input.height);
+
+		horizontal.setSkip(skip);
+		vertical.setSkip(skip);
+
+		BoofConcurrency.loopBlocks(0, input.height, minBlock, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				horizontal.process((T)input.subimage(0, y0, input.width, y1, null),
+						(T)temp.subimage(0, y0, temp.width, y1, null));
+			}
+		});
+
+		BoofConcurrency.loopBlocks(0, temp.width, minBlock, new IntRangeTask() {
+			@Override
+			public void process(int x0, int x1) {
+				vertical.process((T)temp.subimage(x0, 0, x1, temp.height, null),
+						(T)output.subimage(x0, 0, x1, output.height, null));
+			}
+		});
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <p>
+ * Shared thread pool and loop helpers used by the concurrent (_MT) implementations of algorithms.  A range of
+ * integers, typically image rows, is split into contiguous blocks which are then processed in parallel.  The
+ * thread which invokes a loop processes the first block itself and then waits for the others to finish.  The
+ * way a range is split only depends on its size and the number of threads, so results do not depend on how
+ * the threads are scheduled.
+ * </p>
+ *
+ * <p>
+ * Loops which are started from inside another concurrent loop are run on the calling thread.  This prevents
+ * the pool from deadlocking when a concurrent algorithm is invoked by another concurrent algorithm.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BoofConcurrency {
+
+	// maximum number of threads which will process a single loop
+	private static int maxThreads = Runtime.getRuntime().availableProcessors();
+
+	// pool of worker threads.  Lazily created.
+	private static ExecutorService pool;
+
+	// number of concurrent loops the current thread is inside of
+	private static final ThreadLocal<int[]> depth = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[1];
+		}
+	};
+
+	/**
+	 * Specifies the maximum number of threads which will be used to process a loop.  If set to one then
+	 * all loops are run on the calling thread.  The old pool is shut down once the blocks already given to it
+	 * are done.  Loops which are still submitting blocks to the old pool process the rejected blocks on the
+	 * calling thread.
+	 *
+	 * @param maxThreads Maximum number of threads.  Must be &ge; 1.
+	 */
+	public static synchronized void setMaxThreads( int maxThreads ) {
+		if( maxThreads < 1 )
+			throw new IllegalArgumentException("Must have at least one thread");
+		if( BoofConcurrency.maxThreads == maxThreads )
+			return;
+		BoofConcurrency.maxThreads = maxThreads;
+		if( pool != null ) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+	public static synchronized int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * Splits the range into one block per thread and processes each block in parallel.
+	 *
+	 * @param start First element in the range, inclusive.
+	 * @param end Last element in the range, exclusive.
+	 * @param task The task which processes each block.
+	 */
+	public static void loopBlocks( int start , int end , IntRangeTask task ) {
+		loopBlocks(start, end, 1, task);
+	}
+
+	/**
+	 * Splits the range into blocks and processes each block in parallel.  No more blocks than threads are
+	 * created and each block will contain at least minBlock elements, unless the entire range is smaller.
+	 *
+	 * @param start First element in the range, inclusive.
+	 * @param end Last element in the range, exclusive.
+	 * @param minBlock Minimum number of elements in a block.
+	 * @param task The task which processes each block.
+	 */
+	public static void loopBlocks( int start , int end , int minBlock , IntRangeTask task ) {
+		if( end <= start )
+			return;
+
+		int numBlocks = computeNumBlocks(end-start,minBlock);
+		int[] d = depth.get();
+		if( numBlocks <= 1 || d[0] > 0 ) {
+			d[0]++;
+			try {
+				task.process(start,end);
+			} finally {
+				d[0]--;
+			}
+			return;
+		}
+
+		ExecutorService pool = getPool();
+		List<Future<?>> futures = new ArrayList<Future<?>>(numBlocks-1);
+		// blocks which the pool rejected because setMaxThreads() shut it down
+		List<BlockRunnable> rejected = new ArrayList<BlockRunnable>();
+		for( int i = 1; i < numBlocks; i++ ) {
+			BlockRunnable block = new BlockRunnable(task,
+					blockStart(start,end,numBlocks,i),blockStart(start,end,numBlocks,i+1));
+			try {
+				futures.add(pool.submit(block));
+			} catch( RejectedExecutionException e ) {
+				rejected.add(block);
+			}
+		}
+
+		boolean success = false;
+		d[0]++;
+		try {
+			task.process(start,blockStart(start,end,numBlocks,1));
+			for( BlockRunnable block : rejected )
+				block.run();
+			success = true;
+		} finally {
+			d[0]--;
+			// workers can still be using the task, so wait for them even if this thread failed.  Their failures
+			// are only reported if the exception from this thread would not be hidden
+			waitForAll(futures,success);
+		}
+	}
+
+	/**
+	 * Returns the number of blocks a range of the specified length will be split into.  Useful when
+	 * workspace needs to be allocated for each block ahead of time.
+	 *
+	 * @param length Number of elements in the range.
+	 * @param minBlock Minimum number of elements in a block.
+	 * @return Number of blocks.
+	 */
+	public static int computeNumBlocks( int length , int minBlock ) {
+		int numBlocks = Math.min(getMaxThreads(), length/Math.max(1,minBlock));
+		return Math.max(1,numBlocks);
+	}
+
+	/**
+	 * Returns the first element in the specified block.  Blocks are as close to equal in size as possible.
+	 */
+	public static int blockStart( int start , int end , int numBlocks , int block ) {
+		return start + (int)((long)(end-start)*block/numBlocks);
+	}
+
+	/**
+	 * Returns true if the current thread is processing a block of a concurrent loop.
+	 */
+	public static boolean isInsideLoop() {
+		return depth.get()[0] > 0;
+	}
+
+	/**
+	 * Waits for every future to finish.  If requested, the first failure is then thrown.
+	 */
+	private static void waitForAll( List<Future<?>> futures , boolean report ) {
+		Throwable failure = null;
+		for( Future<?> f : futures ) {
+			try {
+				f.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				if( failure == null )
+					failure = new RuntimeException(e);
+			} catch (ExecutionException e) {
+				if( failure == null )
+					failure = e.getCause();
+			}
+		}
+		if( failure == null || !report )
+			return;
+		if( failure instanceof RuntimeException )
+			throw (RuntimeException)failure;
+		else if( failure instanceof Error )
+			throw (Error)failure;
+		else
+			throw new RuntimeException(failure);
+	}
+
+	private static synchronized ExecutorService getPool() {
+		if( pool == null ) {
+			pool = Executors.newFixedThreadPool(maxThreads, new ThreadFactory() {
+				int count = 0;
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r,"BoofConcurrency-"+(count++));
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return pool;
+	}
+
+	private static class BlockRunnable implements Runnable {
+		IntRangeTask task;
+		int minInclusive,maxExclusive;
+
+		private BlockRunnable(IntRangeTask task, int minInclusive, int maxExclusive) {
+			this.task = task;
+			this.minInclusive = minInclusive;
+			this.maxExclusive = maxExclusive;
+		}
+
+		@Override
+		public void run() {
+			int[] d = depth.get();
+			d[0]++;
+			try {
+				task.process(minInclusive,maxExclusive);
+			} finally {
+				d[0]--;
+			}
+		}
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.concurrency;
+
+/**
+ * Task which processes a contiguous range of integers, typically a band of image rows.  Implementations must
+ * only write to data which is owned by the range they are passed, since ranges are processed concurrently.
+ *
+ * @author Peter Abeles
+ */
+public interface IntRangeTask {
+
+	/**
+	 * Process all the elements inside the range.
+	 *
+	 * @param minInclusive First element in the range.
+	 * @param maxExclusive One past the last element in the range.
+	 */
+	public void process( int minInclusive , int maxExclusive );
+}
@@ -46,21 +46,11 @@ public class ConvertBufferedImage {
 	 * @return An image whose internal data is the same as the input image.
 	 */
 	public static InterleavedU8 extractInterleavedU8(BufferedImage img) {
-
-		if (img.getRaster() instanceof ByteInterleavedRaster &&
-				img.getType() != BufferedImage.TYPE_BYTE_INDEXED ) {
-			ByteInterleavedRaster raster = (ByteInterleavedRaster) img.getRaster();
-
-			InterleavedU8 ret = new InterleavedU8();
-
-			ret.width = img.getWidth();
-			ret.height = img.getHeight();
-			ret.stride = raster.getScanlineStride();
-			ret.startIndex = raster.getDataOffset(0)-raster.getPixelStride()+1;
-			ret.numBands = raster.getNumBands();
-			ret.data = raster.getDataStorage();
-
-			return ret;
+		RasterLayout layout = RasterLayout.create(img);
+		if( layout != null ) {
+			InterleavedU8 ret = layout.wrapInterleavedU8();
+			if( ret != null )
+				return ret;
 		}
 		throw new IllegalArgumentException("Buffered image does not have an interleaved byte raster");
 	}
@@ -75,21 +65,11 @@ public class ConvertBufferedImage {
 	 * @return An image whose internal data is the same as the input image.
 	 */
 	public static ImageUInt8 extractImageUInt8(BufferedImage img) {
-		if (img.getRaster() instanceof ByteInterleavedRaster &&
-				img.getType() != BufferedImage.TYPE_BYTE_INDEXED ) {
-
-			ByteInterleavedRaster raster = (ByteInterleavedRaster) img.getRaster();
-			if (raster.getNumBands() != 1)
+		RasterLayout layout = RasterLayout.create(img);
+		if( layout != null && layout.isPackedBytes() ) {
+			if (layout.numBands != 1)
 				throw new IllegalArgumentException("Input image has more than one channel");
-			ImageUInt8 ret = new ImageUInt8();
-
-			ret.width = img.getWidth();
-			ret.height = img.getHeight();
-			ret.startIndex = raster.getDataOffset(0);
-			ret.stride = raster.getScanlineStride();
-			ret.data = raster.getDataStorage();
-
-			return ret;
+			return layout.wrapUInt8();
 		}
 		throw new IllegalArgumentException("Buffered image does not have a gray scale byte raster");
 	}
@@ -191,17 +171,68 @@ public class ConvertBufferedImage {
 	 * @param orderRgb If applicable, should it adjust the ordering of each color band to maintain color consistency
 	 */
 	public static <T extends ImageBase> void convertFrom(BufferedImage src, T dst , boolean orderRgb) {
+		convertFrom(src, dst, orderRgb, false);
+	}
+
+	/**
+	 * Converts a buffered image into an image of the specified type.  If the layout of the buffered image's raster
+	 * is recognised, see {@link RasterLayout}, and concurrent is true then the image is converted using
+	 * multiple threads.
+	 *
+	 * @param src Input BufferedImage which is to be converted
+	 * @param dst The image which it is being converted into
+	 * @param orderRgb If applicable, should it adjust the ordering of each color band to maintain color consistency
+	 * @param concurrent If true the conversion will be done using multiple threads when possible
+	 */
+	public static <T extends ImageBase> void convertFrom(BufferedImage src, T dst , boolean orderRgb ,
+														 boolean concurrent ) {
 		if( dst instanceof ImageSingleBand ) {
 			ImageSingleBand sb = (ImageSingleBand)dst;
-			convertFromSingle(src, sb, (Class<ImageSingleBand>) sb.getClass());
+			if (src.getWidth() != dst.getWidth() || src.getHeight() != dst.getHeight()) {
+				throw new IllegalArgumentException("image dimension are different");
+			}
+			if( !convertFromLayout(RasterLayout.create(src), sb, concurrent) )
+				convertFromSingle(src, sb, (Class<ImageSingleBand>) sb.getClass());
 		} else if( dst instanceof MultiSpectral ) {
 			MultiSpectral ms = (MultiSpectral)dst;
-			convertFromMulti(src,ms,orderRgb,ms.getType());
+			convertFromMulti(src,ms,orderRgb,ms.getType(),concurrent);
+		} else if( dst instanceof InterleavedU8 ) {
+			convertFromInterleaved(src,(InterleavedU8)dst,orderRgb,concurrent);
 		} else {
 			throw new IllegalArgumentException("Unknown type " + dst.getClass().getSimpleName());
 		}
 	}
 
+	/**
+	 * Converts the raster described by the layout into a single band image.
+	 *
+	 * @return true if the layout is supported for the output type and the image was converted
+	 */
+	private static boolean convertFromLayout( RasterLayout layout , ImageSingleBand dst , boolean concurrent ) {
+		if( layout == null )
+			return false;
+
+		if( ImageInt16.class.isAssignableFrom(dst.getClass()) ) {
+			if( layout.type == RasterLayout.Type.USHORT && layout.numColorBands != 1 )
+				return false;
+			ConvertRaster.bufferedToGray(layout, (ImageInt16) dst, concurrent);
+			return true;
+		}
+
+		// the value of 16-bit images can't be stored inside of the other types
+		if( layout.type == RasterLayout.Type.USHORT )
+			return false;
+
+		if( dst.getClass() == ImageUInt8.class ) {
+			ConvertRaster.bufferedToGray(layout, (ImageUInt8) dst, concurrent);
+			return true;
+		} else if( dst.getClass() == ImageFloat32.class ) {
+			ConvertRaster.bufferedToGray(layout, (ImageFloat32) dst, concurrent);
+			return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Converts a buffered image into an image of the specified type.  In a 'dst' image is provided
 	 * it will be used for output, otherwise a new image will be created.
@@ -235,6 +266,9 @@ public class ConvertBufferedImage {
 			dst = new ImageUInt8(src.getWidth(), src.getHeight());
 		}
 
+		if( convertFromLayout(RasterLayout.create(src), dst, false) )
+			return dst;
+
 		try {
 			if (src.getRaster() instanceof ByteInterleavedRaster &&
 					src.getType() != BufferedImage.TYPE_BYTE_INDEXED ) {
@@ -269,6 +303,9 @@ public class ConvertBufferedImage {
 			dst = GeneralizedImageOps.createSingleBand(type,src.getWidth(), src.getHeight());
 		}
 
+		if( convertFromLayout(RasterLayout.create(src), dst, false) )
+			return dst;
+
 		try {
 			if (src.getRaster() instanceof ShortInterleavedRaster ) {
 				ConvertRaster.bufferedToGray((ShortInterleavedRaster) src.getRaster(), dst);
@@ -299,6 +336,9 @@ public class ConvertBufferedImage {
 			dst = new ImageFloat32(src.getWidth(), src.getHeight());
 		}
 
+		if( convertFromLayout(RasterLayout.create(src), dst, false) )
+			return dst;
+
 		try {
 			if (src.getRaster() instanceof ByteInterleavedRaster &&
 					src.getType() != BufferedImage.TYPE_BYTE_INDEXED ) {
@@ -329,6 +369,25 @@ public class ConvertBufferedImage {
 	 */
 	public static <T extends ImageSingleBand> MultiSpectral<T>
 	convertFromMulti(BufferedImage src, MultiSpectral<T> dst , boolean orderRgb , Class<T> type )
+	{
+		return convertFromMulti(src, dst, orderRgb, type, false);
+	}
+
+	/**
+	 * Converts the buffered image into an {@link boofcv.struct.image.MultiSpectral} image of the specified
+	 * type.  If the layout of the buffered image's raster is recognised, see {@link RasterLayout}, and
+	 * concurrent is true then the image is converted using multiple threads.
+	 *
+	 * @param src Input image. Not modified.
+	 * @param dst Output. The converted image is written to.  If null a new unsigned image is created.
+	 * @param orderRgb If applicable, should it adjust the ordering of each color band to maintain color consistency.
+	 *                 Most of the time you want this to be true.
+	 * @param type Which type of data structure is each band. (ImageUInt8 or ImageFloat32)
+	 * @param concurrent If true the conversion will be done using multiple threads when possible
+	 * @return Converted image.
+	 */
+	public static <T extends ImageSingleBand> MultiSpectral<T>
+	convertFromMulti(BufferedImage src, MultiSpectral<T> dst , boolean orderRgb , Class<T> type , boolean concurrent )
 	{
 		if( src == null )
 			throw new IllegalArgumentException("src is null!");
@@ -353,7 +412,12 @@ public class ConvertBufferedImage {
 			else if( dst.getNumBands() != numBands )
 				throw new IllegalArgumentException("Expected "+numBands+" bands in dst not "+dst.getNumBands());
 
-			if( type == ImageUInt8.class ) {
+			RasterLayout layout = RasterLayout.create(src);
+			if( layout != null && layout.type != RasterLayout.Type.USHORT && type == ImageUInt8.class ) {
+				ConvertRaster.bufferedToMulti_U8(layout, (MultiSpectral<ImageUInt8>)dst, concurrent);
+			} else if( layout != null && layout.type != RasterLayout.Type.USHORT && type == ImageFloat32.class ) {
+				ConvertRaster.bufferedToMulti_F32(layout, (MultiSpectral<ImageFloat32>)dst, concurrent);
+			} else if( type == ImageUInt8.class ) {
 				if (src.getRaster() instanceof ByteInterleavedRaster &&
 						src.getType() != BufferedImage.TYPE_BYTE_INDEXED ) {
 					if( src.getType() == BufferedImage.TYPE_BYTE_GRAY)  {
@@ -405,6 +469,53 @@ public class ConvertBufferedImage {
 		return dst;
 	}
 
+	/**
+	 * Converts the buffered image into an {@link InterleavedU8}.  If the layout of the buffered image's raster
+	 * is recognised, see {@link RasterLayout}, then the pixels are copied directly from the raster and can be
+	 * converted using multiple threads.  Otherwise the slower RGB interface is used and the output
+	 * will be in RGB order.
+	 *
+	 * @param src Input image. Not modified.
+	 * @param dst Output. The converted image is written to.  If null a new image is created.
+	 * @param orderRgb If true the bands will be in RGB order followed by alpha, otherwise they will be in the
+	 *                 same order as they are stored in the raster.
+	 * @param concurrent If true the conversion will be done using multiple threads when possible
+	 * @return Converted image.
+	 */
+	public static InterleavedU8 convertFromInterleaved(BufferedImage src, InterleavedU8 dst,
+													   boolean orderRgb , boolean concurrent )
+	{
+		RasterLayout layout = RasterLayout.create(src);
+		if( layout != null && layout.type == RasterLayout.Type.USHORT )
+			layout = null;
+
+		int numBands;
+		if( layout != null )
+			numBands = layout.numBands;
+		else if( src.getColorModel().getNumComponents() == 1 )
+			numBands = 1;
+		else
+			numBands = src.getColorModel().hasAlpha() ? 4 : 3;
+
+		if (dst != null) {
+			if (src.getWidth() != dst.getWidth() || src.getHeight() != dst.getHeight()) {
+				throw new IllegalArgumentException("image dimension are different");
+			}
+			if( dst.getNumBands() != numBands )
+				throw new IllegalArgumentException("Expected "+numBands+" bands in dst not "+dst.getNumBands());
+		} else {
+			dst = new InterleavedU8(src.getWidth(),src.getHeight(),numBands);
+		}
+
+		if( layout != null ) {
+			ConvertRaster.bufferedToInterleaved(layout, dst, orderRgb, concurrent);
+		} else {
+			ConvertRaster.bufferedToInterleaved(src, dst);
+		}
+
+		return dst;
+	}
+
 	/**
 	 * Converts an image into a BufferedImage.
 	 *
@@ -18,10 +18,10 @@
 
 package boofcv.core.image;
 
-import boofcv.struct.image.ImageFloat32;
-import boofcv.struct.image.ImageInt16;
-import boofcv.struct.image.ImageUInt8;
-import boofcv.struct.image.MultiSpectral;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.core.image.impl.ImplConvertRasterLayout;
+import boofcv.struct.image.*;
 import sun.awt.image.ByteInterleavedRaster;
 import sun.awt.image.IntegerInterleavedRaster;
 import sun.awt.image.ShortInterleavedRaster;
@@ -37,6 +37,11 @@ import java.awt.image.WritableRaster;
  */
 public class ConvertRaster {
 
+	/**
+	 * Minimum number of rows processed by each thread when converting concurrently
+	 */
+	public static final int MIN_BLOCK = 20;
+
 	/**
 	 * A faster convert that works directly with a specific raster
 	 */
@@ -726,6 +731,189 @@ public class ConvertRaster {
 		}
 	}
 
+	/**
+	 * <p>
+	 * Converts a buffered image into an interleaved image using the BufferedImage's RGB interface.  Bands
+	 * are written in RGB order, followed by alpha if there are 4 bands.  A single band image is
+	 * set to the average of the red, green, and blue values.
+	 * </p>
+	 * <p>
+	 * This is much slower than working directly with the BufferedImage's internal raster and should be
+	 * avoided if possible.
+	 * </p>
+	 *
+	 * @param src Input image.
+	 * @param dst Output image.
+	 */
+	public static void bufferedToInterleaved(BufferedImage src, InterleavedU8 dst) {
+		final int width = src.getWidth();
+		final int height = src.getHeight();
+		final byte[] data = dst.data;
+
+		if( dst.numBands != 1 && dst.numBands != 3 && dst.numBands != 4 )
+			throw new IllegalArgumentException("Unexpected number of bands "+dst.numBands);
+
+		for (int y = 0; y < height; y++) {
+			int index = dst.startIndex + y * dst.stride;
+			for (int x = 0; x < width; x++) {
+				int argb = src.getRGB(x, y);
+				int r = (argb >>> 16) & 0xFF;
+				int g = (argb >>> 8) & 0xFF;
+				int b = argb & 0xFF;
+
+				if( dst.numBands == 1 ) {
+					data[index++] = (byte)((r + g + b) / 3);
+				} else {
+					data[index++] = (byte) r;
+					data[index++] = (byte) g;
+					data[index++] = (byte) b;
+					if( dst.numBands == 4 )
+						data[index++] = (byte) (argb >>> 24);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Converts the pixels described by the layout into a gray scale image.  If concurrent the image is split into
+	 * bands of rows which are converted in parallel.
+	 *
+	 * @param src Description of the input image's raster.
+	 * @param dst Output image.  Must be the same shape as the input.
+	 * @param concurrent If true the conversion will be done using multiple threads.
+	 */
+	public static void bufferedToGray(final RasterLayout src, final ImageUInt8 dst, boolean concurrent) {
+		if( concurrent ) {
+			BoofConcurrency.loopBlocks(0, dst.height, MIN_BLOCK, new IntRangeTask() {
+				@Override
+				public void process(int minInclusive, int maxExclusive) {
+					ImplConvertRasterLayout.grayU8(src, dst, minInclusive, maxExclusive);
+				}
+			});
+		} else {
+			ImplConvertRasterLayout.grayU8(src, dst, 0, dst.height);
+		}
+	}
+
+	/**
+	 * Converts the pixels described by the layout into a gray scale image.  If concurrent the image is split into
+	 * bands of rows which are converted in parallel.
+	 *
+	 * @param src Description of the input image's raster.
+	 * @param dst Output image.  Must be the same shape as the input.
+	 * @param concurrent If true the conversion will be done using multiple threads.
+	 */
+	public static void bufferedToGray(final RasterLayout src, final ImageInt16 dst, boolean concurrent) {
+		if( concurrent ) {
+			BoofConcurrency.loopBlocks(0, dst.height, MIN_BLOCK, new IntRangeTask() {
+				@Override
+				public void process(int minInclusive, int maxExclusive) {
+					ImplConvertRasterLayout.grayI16(src, dst, minInclusive, maxExclusive);
+				}
+			});
+		} else {
+			ImplConvertRasterLayout.grayI16(src, dst, 0, dst.height);
+		}
+	}
+
+	/**
+	 * Converts the pixels described by the layout into a gray scale image.  If concurrent the image is split into
+	 * bands of rows which are converted in parallel.
+	 *
+	 * @param src Description of the input image's raster.
+	 * @param dst Output image.  Must be the same shape as the input.
+	 * @param concurrent If true the conversion will be done using multiple threads.
+	 */
+	public static void bufferedToGray(final RasterLayout src, final ImageFloat32 dst, boolean concurrent) {
+		if( concurrent ) {
+			BoofConcurrency.loopBlocks(0, dst.height, MIN_BLOCK, new IntRangeTask() {
+				@Override
+				public void process(int minInclusive, int maxExclusive) {
+					ImplConvertRasterLayout.grayF32(src, dst, minInclusive, maxExclusive);
+				}
+			});
+		} else {
+			ImplConvertRasterLayout.grayF32(src, dst, 0, dst.height);
+		}
+	}
+
+	/**
+	 * Converts the pixels described by the layout into a multi-band image with the bands in storage order.
+	 * If concurrent the image is split into bands of rows which are converted in parallel.
+	 *
+	 * @param src Description of the input image's raster.
+	 * @param dst Output image.  Must be the same shape and have the same number of bands as the input.
+	 * @param concurrent If true the conversion will be done using multiple threads.
+	 */
+	public static void bufferedToMulti_U8(final RasterLayout src, final MultiSpectral<ImageUInt8> dst,
+										  boolean concurrent) {
+		if( concurrent ) {
+			BoofConcurrency.loopBlocks(0, dst.height, MIN_BLOCK, new IntRangeTask() {
+				@Override
+				public void process(int minInclusive, int maxExclusive) {
+					ImplConvertRasterLayout.multiU8(src, dst, minInclusive, maxExclusive);
+				}
+			});
+		} else {
+			ImplConvertRasterLayout.multiU8(src, dst, 0, dst.height);
+		}
+	}
+
+	/**
+	 * Converts the pixels described by the layout into a multi-band image with the bands in storage order.
+	 * If concurrent the image is split into bands of rows which are converted in parallel.
+	 *
+	 * @param src Description of the input image's raster.
+	 * @param dst Output image.  Must be the same shape and have the same number of bands as the input.
+	 * @param concurrent If true the conversion will be done using multiple threads.
+	 */
+	public static void bufferedToMulti_F32(final RasterLayout src, final MultiSpectral<ImageFloat32> dst,
+										   boolean concurrent) {
+		if( concurrent ) {
+			BoofConcurrency.loopBlocks(0, dst.height, MIN_BLOCK, new IntRangeTask() {
+				@Override
+				public void process(int minInclusive, int maxExclusive) {
+					ImplConvertRasterLayout.multiF32(src, dst, minInclusive, maxExclusive);
+				}
+			});
+		} else {
+			ImplConvertRasterLayout.multiF32(src, dst, 0, dst.height);
+		}
+	}
+
+	/**
+	 * Converts the pixels described by the layout into an interleaved image.  If orderRgb is true the bands
+	 * will be in RGB order followed by alpha, otherwise they are in storage order.  If concurrent the image
+	 * is split into bands of rows which are converted in parallel.
+	 *
+	 * @param src Description of the input image's raster.
+	 * @param dst Output image.  Must be the same shape and have the same number of bands as the input.
+	 * @param orderRgb If true the bands are put into RGB order.
+	 * @param concurrent If true the conversion will be done using multiple threads.
+	 */
+	public static void bufferedToInterleaved(final RasterLayout src, final InterleavedU8 dst,
+											 boolean orderRgb, boolean concurrent) {
+		final int order[];
+		if( orderRgb ) {
+			order = new int[src.numBands];
+			for( int i = 0; i < order.length; i++ )
+				order[i] = i;
+		} else {
+			order = src.storageOrder;
+		}
+
+		if( concurrent ) {
+			BoofConcurrency.loopBlocks(0, dst.height, MIN_BLOCK, new IntRangeTask() {
+				@Override
+				public void process(int minInclusive, int maxExclusive) {
+					ImplConvertRasterLayout.interleavedU8(src, order, dst, minInclusive, maxExclusive);
+				}
+			});
+		} else {
+			ImplConvertRasterLayout.interleavedU8(src, order, dst, 0, dst.height);
+		}
+	}
+
 	public static void grayToBuffered(ImageUInt8 src, ByteInterleavedRaster dst) {
 
 		final byte[] srcData = src.data;
@@ -136,7 +136,26 @@ public class GeneralizedImageOps {
 		return createSingleBand(typeClass, width, height);
 	}
 
+	/**
+	 * Creates a single band image of the specified type.  If a global {@link ImagePool} has been set then the image
+	 * is taken from the pool, otherwise a new image is declared.  In either case the image is filled with zeros.
+	 */
 	public static <T extends ImageSingleBand> T createSingleBand(Class<T> type, int width, int height) {
+		ImagePool pool = ImagePool.getGlobal();
+		if( pool != null ) {
+			type = BoofTesting.convertGenericToSpecificType(type);
+			// ImageInteger is a generic type, so just create something
+			if( type == ImageInteger.class )
+				type = (Class)ImageSInt32.class;
+			return pool.acquireZeros(ImageType.single(type), width, height);
+		}
+		return declareSingleBand(type, width, height);
+	}
+
+	/**
+	 * Declares a new single band image, bypassing the global {@link ImagePool}
+	 */
+	static <T extends ImageSingleBand> T declareSingleBand(Class<T> type, int width, int height) {
 		type = BoofTesting.convertGenericToSpecificType(type);
 
 		if (type == ImageUInt8.class) {
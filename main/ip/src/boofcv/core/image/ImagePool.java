@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.core.image;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Pool of images which are recycled instead of being discarded.  Images are grouped by their {@link ImageType}
+ * and shape, so an image is only handed out again for a request with the exact same type, width, and height.
+ * Memory used by the pool is bounded by the number of images stored for each shape and by the total number of bytes
+ * stored.  When either bound is exceeded the least recently used shape is evicted first.
+ * </p>
+ *
+ * <p>
+ * A pool can be set globally using {@link #setGlobal}.  When one is set {@link GeneralizedImageOps#createSingleBand}
+ * draws from it, and functions which internally declare work images, such as the blur and adaptive threshold
+ * operators, return those work images back to the pool once they are done.  By default no global pool is set
+ * and images are declared as usual.
+ * </p>
+ *
+ * <p>
+ * Counters are provided to see how many images were declared and how many were recycled.  In a steady state
+ * where the same shapes are processed over and over the number of allocations should stop increasing.
+ * </p>
+ *
+ * <p>
+ * All functions are thread safe.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImagePool {
+
+	// pool used by functions in the library.  if null then the pool is disabled
+	private static volatile ImagePool global;
+
+	// maximum number of images stored for a specific type and shape
+	private int maxPerShape;
+	// maximum number of bytes stored by all images in the pool
+	private long maxBytes;
+
+	// images which can be recycled.  Iteration order is from least recently used to most recently used
+	private LinkedHashMap<Key,List<ImageBase>> available = new LinkedHashMap<Key,List<ImageBase>>(16,0.75f,true);
+
+	// number of bytes stored by images in the pool
+	private long storedBytes;
+	// number of images stored in the pool
+	private int storedImages;
+
+	// number of new images that had to be declared
+	private long allocations;
+	// number of requests which were handled by recycling an image
+	private long reuses;
+	// number of images given back to the pool
+	private long releases;
+	// number of images discarded to stay inside the bounds
+	private long evictions;
+
+	/**
+	 * Creates a pool with the specified bounds.
+	 *
+	 * @param maxPerShape Maximum number of images of the same type and shape which are stored.
+	 * @param maxBytes Maximum number of bytes stored by all the images in the pool.
+	 */
+	public ImagePool(int maxPerShape, long maxBytes) {
+		if( maxPerShape <= 0 )
+			throw new IllegalArgumentException("maxPerShape must be more than zero");
+		if( maxBytes < 0 )
+			throw new IllegalArgumentException("maxBytes must be positive");
+		this.maxPerShape = maxPerShape;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Creates a pool which stores up to 4 images of each shape and 64 MB in total.
+	 */
+	public ImagePool() {
+		this(4,64*1024*1024);
+	}
+
+	/**
+	 * Returns the pool used by functions in the library or null if there is none.
+	 */
+	public static ImagePool getGlobal() {
+		return global;
+	}
+
+	/**
+	 * Specifies the pool used by functions in the library.  Set to null to disable pooling.
+	 */
+	public static void setGlobal(ImagePool pool) {
+		global = pool;
+	}
+
+	/**
+	 * Gives the image to the global pool, if there is one.  Otherwise nothing happens.
+	 *
+	 * @param image The image being recycled.  Can be null.
+	 */
+	public static void releaseGlobal( ImageBase image ) {
+		ImagePool pool = global;
+		if( pool != null && image != null )
+			pool.release(image);
+	}
+
+	/**
+	 * Returns an image of the specified type and shape.  A recycled image is returned if one is available, otherwise
+	 * a new one is declared.  The contents of a recycled image are not modified and should be assumed to be garbage.
+	 *
+	 * @param type Type of image.
+	 * @param width Image width.
+	 * @param height Image height.
+	 * @return An image of the specified type and shape.
+	 */
+	public <T extends ImageBase> T acquire( ImageType<T> type , int width , int height ) {
+		return acquire(type,width,height,false);
+	}
+
+	/**
+	 * Same as {@link #acquire} but recycled images are filled with zeros, just like a newly declared image.
+	 */
+	public <T extends ImageBase> T acquireZeros( ImageType<T> type , int width , int height ) {
+		return acquire(type,width,height,true);
+	}
+
+	private <T extends ImageBase> T acquire( ImageType<T> type , int width , int height , boolean zeros ) {
+		Key key = new Key(type.getFamily(),type.getDataType(),bandsOf(type),width,height);
+
+		ImageBase image = null;
+		synchronized( this ) {
+			List<ImageBase> list = available.get(key);
+			if( list != null ) {
+				image = list.remove(list.size()-1);
+				if( list.isEmpty() )
+					available.remove(key);
+				storedImages--;
+				storedBytes -= key.bytes();
+				reuses++;
+			} else {
+				allocations++;
+			}
+		}
+
+		if( image == null )
+			return declare(type,width,height);
+
+		// a newly declared image is already zero and doesn't need to be filled
+		if( zeros )
+			GImageMiscOps.fill(image,0);
+		return (T)image;
+	}
+
+	/**
+	 * Returns a single band image of the specified type and shape.  See {@link #acquire}.
+	 */
+	public <T extends ImageSingleBand> T acquireSingle( Class<T> type , int width , int height ) {
+		return acquire(ImageType.single(type),width,height);
+	}
+
+	/**
+	 * Gives an image to the pool so that it can be recycled.  The caller must not use the image after it has been
+	 * released.  Sub-images and images which don't have a compact stride are not stored.
+	 *
+	 * @param image The image being released.
+	 * @return true if the image was stored in the pool or false if it was rejected or discarded.
+	 */
+	public synchronized boolean release( ImageBase image ) {
+		Key key = keyOf(image);
+		if( key == null )
+			return false;
+
+		long bytes = key.bytes();
+		if( bytes > maxBytes )
+			return false;
+
+		List<ImageBase> list = available.get(key);
+		if( list == null ) {
+			list = new ArrayList<ImageBase>();
+			available.put(key,list);
+		} else {
+			// protect against the same image being released twice and then handed out to two users
+			for( int i = 0; i < list.size(); i++ ) {
+				if( list.get(i) == image )
+					return true;
+			}
+		}
+
+		releases++;
+		list.add(image);
+		storedImages++;
+		storedBytes += bytes;
+
+		// only keep the most recently released images of this shape
+		if( list.size() > maxPerShape ) {
+			list.remove(0);
+			storedImages--;
+			storedBytes -= bytes;
+			evictions++;
+		}
+
+		// remove the least recently used shapes until it's inside the memory bounds
+		Iterator<Map.Entry<Key,List<ImageBase>>> iter = available.entrySet().iterator();
+		while( storedBytes > maxBytes && iter.hasNext() ) {
+			Map.Entry<Key,List<ImageBase>> e = iter.next();
+			List<ImageBase> l = e.getValue();
+			long b = e.getKey().bytes();
+			while( storedBytes > maxBytes && !l.isEmpty() ) {
+				l.remove(0);
+				storedImages--;
+				storedBytes -= b;
+				evictions++;
+			}
+			if( l.isEmpty() )
+				iter.remove();
+		}
+
+		return list.contains(image);
+	}
+
+	/**
+	 * Discards all the images in the pool.  Counters are not modified.
+	 */
+	public synchronized void clear() {
+		available.clear();
+		storedImages = 0;
+		storedBytes = 0;
+	}
+
+	/**
+	 * Sets all the counters back to zero.
+	 */
+	public synchronized void resetCounters() {
+		allocations = 0;
+		reuses = 0;
+		releases = 0;
+		evictions = 0;
+	}
+
+	/**
+	 * Number of images declared because there wasn't one which could be recycled.
+	 */
+	public synchronized long getAllocations() {
+		return allocations;
+	}
+
+	/**
+	 * Number of requests which were handled by recycling an image.
+	 */
+	public synchronized long getReuses() {
+		return reuses;
+	}
+
+	/**
+	 * Number of images which have been added to the pool.
+	 */
+	public synchronized long getReleases() {
+		return releases;
+	}
+
+	/**
+	 * Number of images discarded to stay inside the bounds.
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Number of images currently in the pool.
+	 */
+	public synchronized int getStoredImages() {
+		return storedImages;
+	}
+
+	/**
+	 * Number of bytes used by images currently in the pool.
+	 */
+	public synchronized long getStoredBytes() {
+		return storedBytes;
+	}
+
+	public int getMaxPerShape() {
+		return maxPerShape;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	private static int bandsOf( ImageType type ) {
+		return type.getFamily() == ImageType.Family.SINGLE_BAND ? 1 : type.getNumBands();
+	}
+
+	/**
+	 * Declares a new image without going through the global pool.
+	 */
+	private static <T extends ImageBase> T declare( ImageType<T> type , int width , int height ) {
+		Class imageClass = type.getImageClass();
+		switch( type.getFamily() ) {
+			case SINGLE_BAND:
+				return (T)GeneralizedImageOps.declareSingleBand(imageClass, width, height);
+
+			case INTERLEAVED:
+				return (T)GeneralizedImageOps.createInterleaved(imageClass, width, height, type.getNumBands());
+
+			case MULTI_SPECTRAL:
+				MultiSpectral ms = new MultiSpectral(imageClass,type.getNumBands());
+				ms.width = width;
+				ms.height = height;
+				ms.stride = width;
+				for( int i = 0; i < type.getNumBands(); i++ )
+					ms.bands[i] = GeneralizedImageOps.declareSingleBand(imageClass, width, height);
+				return (T)ms;
+
+			default:
+				throw new IllegalArgumentException("Type not yet supported");
+		}
+	}
+
+	/**
+	 * Describes the image or returns null if it can't be stored in the pool.
+	 */
+	private static Key keyOf( ImageBase image ) {
+		if( image.isSubimage() || image.startIndex != 0 )
+			return null;
+
+		if( image instanceof ImageSingleBand ) {
+			if( image.stride != image.width )
+				return null;
+			ImageDataType dataType = ((ImageSingleBand)image).getTypeInfo();
+			return new Key(ImageType.Family.SINGLE_BAND,dataType,1,image.width,image.height);
+		} else if( image instanceof ImageInterleaved ) {
+			ImageInterleaved inter = (ImageInterleaved)image;
+			if( image.stride != image.width*inter.numBands )
+				return null;
+			return new Key(ImageType.Family.INTERLEAVED,inter.getTypeInfo(),inter.numBands,image.width,image.height);
+		} else if( image instanceof MultiSpectral ) {
+			MultiSpectral ms = (MultiSpectral)image;
+			ImageDataType dataType = null;
+			for( int i = 0; i < ms.getNumBands(); i++ ) {
+				ImageSingleBand band = ms.getBand(i);
+				if( band == null || band.isSubimage() || band.stride != band.width ||
+						band.width != image.width || band.height != image.height )
+					return null;
+				dataType = band.getTypeInfo();
+			}
+			if( dataType == null )
+				return null;
+			return new Key(ImageType.Family.MULTI_SPECTRAL,dataType,ms.getNumBands(),image.width,image.height);
+		}
+		return null;
+	}
+
+	/**
+	 * Type and shape of images stored in the pool
+	 */
+	private static class Key {
+		ImageType.Family family;
+		ImageDataType dataType;
+		int numBands;
+		int width;
+		int height;
+
+		Key(ImageType.Family family, ImageDataType dataType, int numBands, int width, int height) {
+			this.family = family;
+			this.dataType = dataType;
+			this.numBands = numBands;
+			this.width = width;
+			this.height = height;
+		}
+
+		long bytes() {
+			return (long)width*height*numBands*dataType.getNumBits()/8;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if( !(o instanceof Key) )
+				return false;
+			Key k = (Key)o;
+			return family == k.family && dataType == k.dataType && numBands == k.numBands &&
+					width == k.width && height == k.height;
+		}
+
+		@Override
+		public int hashCode() {
+			int h = family.hashCode();
+			h = 31*h + dataType.hashCode();
+			h = 31*h + numBands;
+			h = 31*h + width;
+			return 31*h + height;
+		}
+	}
+}
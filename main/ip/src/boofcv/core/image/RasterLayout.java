@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.core.image;
+
+import boofcv.struct.image.ImageUInt16;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.struct.image.InterleavedU8;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.*;
+
+/**
+ * <p>
+ * Describes how the pixels inside a {@link BufferedImage} are laid out in its backing array.  Only the public
+ * {@link DataBuffer} and {@link SampleModel} API is used, so any raster with a common layout is recognised, not just
+ * the ones created by {@link BufferedImage}'s constructor.  Recognised layouts are:
+ * </p>
+ * <ul>
+ * <li>BYTE: Interleaved bytes, e.g. TYPE_BYTE_GRAY, TYPE_3BYTE_BGR, TYPE_4BYTE_ABGR</li>
+ * <li>USHORT: Interleaved unsigned shorts, e.g. TYPE_USHORT_GRAY</li>
+ * <li>INT_PACKED: 8-bit bands packed into an int, e.g. TYPE_INT_RGB, TYPE_INT_ARGB, TYPE_INT_BGR</li>
+ * </ul>
+ * <p>
+ * Indexed color models, bit packed binary images, and images with bands in separate banks are not recognised.
+ * </p>
+ *
+ * <p>
+ * Bands are described in two orders. Color model order is R,G,B followed by alpha, or gray followed by alpha.
+ * Storage order is the order in which the bands appear in memory, with the most significant byte first for
+ * packed ints, which is the order used by {@link ConvertRaster}'s other functions.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RasterLayout {
+
+	public static enum Type {
+		BYTE,
+		USHORT,
+		INT_PACKED
+	}
+
+	// how the pixels are encoded
+	public Type type;
+
+	// the raster's backing array.  Only the one which matches the type is not null
+	public byte[] dataByte;
+	public short[] dataShort;
+	public int[] dataInt;
+
+	// shape of the image
+	public int width;
+	public int height;
+
+	// index of the first array element of the top left pixel
+	public int startIndex;
+	// number of array elements between the start of each row
+	public int stride;
+	// number of array elements between the start of each pixel.  1 for INT_PACKED
+	public int pixelStride;
+
+	// total number of bands, including alpha
+	public int numBands;
+	// number of color bands.  1 for gray and 3 for RGB
+	public int numColorBands;
+
+	// offset of each band from the start of the pixel, in color model order.  Only used by interleaved types
+	public int[] bandOffsets;
+	// bit shift of each band, in color model order.  Only used by INT_PACKED
+	public int[] bandShifts;
+
+	// color model band index for each band in storage order
+	public int[] storageOrder;
+
+	/**
+	 * Describes the layout of the provided image.  If the layout is not recognised or access to the raster is
+	 * not allowed then null is returned.
+	 *
+	 * @param image Image whose layout is described
+	 * @return Layout or null
+	 */
+	public static RasterLayout create( BufferedImage image ) {
+		try {
+			return create(image.getRaster(), image.getColorModel());
+		} catch( java.security.AccessControlException e ) {
+			// Applets don't allow access to the raster()
+			return null;
+		}
+	}
+
+	private static RasterLayout create( WritableRaster raster , ColorModel colorModel ) {
+		if( colorModel instanceof IndexColorModel )
+			return null;
+		if( !(colorModel instanceof ComponentColorModel || colorModel instanceof DirectColorModel) )
+			return null;
+
+		int numColorBands = colorModel.getNumColorComponents();
+		int colorSpace = colorModel.getColorSpace().getType();
+		if( !(numColorBands == 1 && colorSpace == ColorSpace.TYPE_GRAY) &&
+				!(numColorBands == 3 && colorSpace == ColorSpace.TYPE_RGB) )
+			return null;
+
+		SampleModel sampleModel = raster.getSampleModel();
+		DataBuffer buffer = raster.getDataBuffer();
+		if( buffer.getNumBanks() != 1 || sampleModel.getNumBands() != colorModel.getNumComponents() )
+			return null;
+
+		// location of the raster inside the sample model, which is not zero for sub-images
+		int x0 = raster.getMinX() - raster.getSampleModelTranslateX();
+		int y0 = raster.getMinY() - raster.getSampleModelTranslateY();
+
+		RasterLayout ret = new RasterLayout();
+		ret.width = raster.getWidth();
+		ret.height = raster.getHeight();
+		ret.numBands = sampleModel.getNumBands();
+		ret.numColorBands = numColorBands;
+
+		if( sampleModel instanceof ComponentSampleModel ) {
+			ComponentSampleModel csm = (ComponentSampleModel)sampleModel;
+
+			for( int bank : csm.getBankIndices() ) {
+				if( bank != 0 )
+					return null;
+			}
+			for( int bits : csm.getSampleSize() ) {
+				if( bits != DataBuffer.getDataTypeSize(buffer.getDataType()) )
+					return null;
+			}
+
+			if( buffer instanceof DataBufferByte ) {
+				ret.type = Type.BYTE;
+				ret.dataByte = ((DataBufferByte)buffer).getData();
+			} else if( buffer instanceof DataBufferUShort ) {
+				ret.type = Type.USHORT;
+				ret.dataShort = ((DataBufferUShort)buffer).getData();
+			} else {
+				return null;
+			}
+
+			ret.stride = csm.getScanlineStride();
+			ret.pixelStride = csm.getPixelStride();
+			ret.bandOffsets = csm.getBandOffsets();
+			ret.startIndex = buffer.getOffset() + y0*ret.stride + x0*ret.pixelStride;
+			ret.storageOrder = sortIndexes(ret.bandOffsets, true);
+		} else if( sampleModel instanceof SinglePixelPackedSampleModel && buffer instanceof DataBufferInt ) {
+			SinglePixelPackedSampleModel spp = (SinglePixelPackedSampleModel)sampleModel;
+
+			int masks[] = spp.getBitMasks();
+			int offsets[] = spp.getBitOffsets();
+			for( int i = 0; i < masks.length; i++ ) {
+				if( masks[i] != 0xFF << offsets[i] )
+					return null;
+			}
+
+			ret.type = Type.INT_PACKED;
+			ret.dataInt = ((DataBufferInt)buffer).getData();
+			ret.stride = spp.getScanlineStride();
+			ret.pixelStride = 1;
+			ret.bandShifts = offsets;
+			ret.startIndex = buffer.getOffset() + y0*ret.stride + x0;
+			ret.storageOrder = sortIndexes(ret.bandShifts, false);
+		} else {
+			return null;
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Returns the indexes of the values sorted in ascending or descending order
+	 */
+	private static int[] sortIndexes( int values[] , boolean ascending ) {
+		int order[] = new int[values.length];
+		for( int i = 0; i < order.length; i++ )
+			order[i] = i;
+
+		// insertion sort.  There are only a few bands
+		for( int i = 1; i < order.length; i++ ) {
+			int j = i;
+			while( j > 0 && (values[order[j-1]] > values[order[j]]) == ascending &&
+					values[order[j-1]] != values[order[j]] ) {
+				int tmp = order[j-1];
+				order[j-1] = order[j];
+				order[j] = tmp;
+				j--;
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * Returns true if the pixels are stored as interleaved bytes with no gaps between pixels, so that
+	 * they can be wrapped by {@link InterleavedU8} or {@link ImageUInt8}.
+	 */
+	public boolean isPackedBytes() {
+		if( type != Type.BYTE || pixelStride != numBands )
+			return false;
+
+		// every offset from 0 to numBands-1 must be used once
+		for( int i = 0; i < numBands; i++ ) {
+			if( bandOffsets[storageOrder[i]] != i )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Creates an {@link InterleavedU8} which shares the raster's backing array.  Bands are in storage order.
+	 *
+	 * @return The wrapped image or null if the layout does not allow it
+	 */
+	public InterleavedU8 wrapInterleavedU8() {
+		if( !isPackedBytes() )
+			return null;
+
+		InterleavedU8 ret = new InterleavedU8();
+		ret.width = width;
+		ret.height = height;
+		ret.numBands = numBands;
+		ret.startIndex = startIndex;
+		ret.stride = stride;
+		ret.data = dataByte;
+		return ret;
+	}
+
+	/**
+	 * Creates an {@link ImageUInt8} which shares the raster's backing array.
+	 *
+	 * @return The wrapped image or null if the layout does not allow it
+	 */
+	public ImageUInt8 wrapUInt8() {
+		if( numBands != 1 || !isPackedBytes() )
+			return null;
+
+		ImageUInt8 ret = new ImageUInt8();
+		ret.width = width;
+		ret.height = height;
+		ret.startIndex = startIndex;
+		ret.stride = stride;
+		ret.data = dataByte;
+		return ret;
+	}
+
+	/**
+	 * Creates an {@link ImageUInt16} which shares the raster's backing array.
+	 *
+	 * @return The wrapped image or null if the layout does not allow it
+	 */
+	public ImageUInt16 wrapUInt16() {
+		if( type != Type.USHORT || numBands != 1 || pixelStride != 1 )
+			return null;
+
+		ImageUInt16 ret = new ImageUInt16();
+		ret.width = width;
+		ret.height = height;
+		ret.startIndex = startIndex + bandOffsets[0];
+		ret.stride = stride;
+		ret.data = dataShort;
+		return ret;
+	}
+}
@@ -0,0 +1,571 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.core.image.impl;
+
+import boofcv.core.image.RasterLayout;
+import boofcv.struct.image.*;
+
+/**
+ * <p>
+ * Low level implementations for converting the pixels described by a {@link RasterLayout} into BoofCV images.
+ * Each function only processes the rows from y0 to y1, exclusive, so that different rows can be processed
+ * by different threads.  Multi-band output is written in storage order, see {@link RasterLayout}.
+ * </p>
+ *
+ * <p>
+ * Gray scale images are computed from color images by averaging the red, green, and blue bands.  Alpha is ignored.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplConvertRasterLayout {
+
+	public static void grayU8( RasterLayout src , ImageUInt8 dst , int y0 , int y1 ) {
+		byte[] data = dst.data;
+		int srcStart = src.startIndex, srcStride = src.stride;
+		int dstStart = dst.startIndex, dstStride = dst.stride;
+
+		if( src.type == RasterLayout.Type.BYTE ) {
+			byte[] srcData = src.dataByte;
+			int pixelStride = src.pixelStride;
+
+			if( src.numColorBands == 1 ) {
+				int offset = src.bandOffsets[0];
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride + offset;
+					int indexDst = dstStart + y*dstStride;
+					if( pixelStride == 1 ) {
+						System.arraycopy(srcData, indexSrc, data, indexDst, dst.width);
+					} else {
+						int indexDstEnd = indexDst + dst.width;
+						for( ; indexDst < indexDstEnd; indexDst++ , indexSrc += pixelStride ) {
+							data[indexDst] = srcData[indexSrc];
+						}
+					}
+				}
+			} else {
+				int offR = src.bandOffsets[0], offG = src.bandOffsets[1], offB = src.bandOffsets[2];
+				// the average doesn't depend on the order of the bands, so if the color bands are next to each
+				// other they can be read in the order they are stored
+				int offMin = Math.min(offR, Math.min(offG, offB));
+				boolean contiguous = Math.max(offR, Math.max(offG, offB)) - offMin == 2;
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride;
+					int indexDst = dstStart + y*dstStride;
+					int indexDstEnd = indexDst + dst.width;
+					if( contiguous ) {
+						indexSrc += offMin;
+						for( ; indexDst < indexDstEnd; indexDst++ , indexSrc += pixelStride ) {
+							int r = srcData[indexSrc] & 0xFF;
+							int g = srcData[indexSrc+1] & 0xFF;
+							int b = srcData[indexSrc+2] & 0xFF;
+
+							data[indexDst] = (byte)((r + g + b)/3);
+						}
+					} else {
+						for( ; indexDst < indexDstEnd; indexDst++ , indexSrc += pixelStride ) {
+							int r = srcData[indexSrc+offR] & 0xFF;
+							int g = srcData[indexSrc+offG] & 0xFF;
+							int b = srcData[indexSrc+offB] & 0xFF;
+
+							data[indexDst] = (byte)((r + g + b)/3);
+						}
+					}
+				}
+			}
+		} else if( src.type == RasterLayout.Type.INT_PACKED ) {
+			int[] srcData = src.dataInt;
+
+			if( src.numColorBands == 1 ) {
+				int shift = src.bandShifts[0];
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride;
+					int indexDst = dstStart + y*dstStride;
+					int indexDstEnd = indexDst + dst.width;
+					for( ; indexDst < indexDstEnd; indexDst++ ) {
+						data[indexDst] = (byte)(srcData[indexSrc++] >>> shift);
+					}
+				}
+			} else {
+				int shiftR = src.bandShifts[0], shiftG = src.bandShifts[1], shiftB = src.bandShifts[2];
+				// the average doesn't depend on the order of the bands, so constant shifts can be used
+				// for all the common types
+				boolean lower24 = isLower24(src);
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride;
+					int indexDst = dstStart + y*dstStride;
+					int indexDstEnd = indexDst + dst.width;
+					if( lower24 ) {
+						for( ; indexDst < indexDstEnd; indexDst++ ) {
+							int rgb = srcData[indexSrc++];
+
+							int r = (rgb >>> 16) & 0xFF;
+							int g = (rgb >>> 8) & 0xFF;
+							int b = rgb & 0xFF;
+
+							data[indexDst] = (byte)((r + g + b)/3);
+						}
+					} else {
+						for( ; indexDst < indexDstEnd; indexDst++ ) {
+							int rgb = srcData[indexSrc++];
+
+							int r = (rgb >>> shiftR) & 0xFF;
+							int g = (rgb >>> shiftG) & 0xFF;
+							int b = (rgb >>> shiftB) & 0xFF;
+
+							data[indexDst] = (byte)((r + g + b)/3);
+						}
+					}
+				}
+			}
+		} else {
+			throw new IllegalArgumentException("Unsupported layout "+src.type);
+		}
+	}
+
+	public static void grayI16( RasterLayout src , ImageInt16 dst , int y0 , int y1 ) {
+		short[] data = dst.data;
+		int srcStart = src.startIndex, srcStride = src.stride;
+		int dstStart = dst.startIndex, dstStride = dst.stride;
+
+		if( src.type == RasterLayout.Type.USHORT ) {
+			if( src.numColorBands != 1 )
+				throw new IllegalArgumentException("Only gray scale 16-bit images are supported");
+
+			short[] srcData = src.dataShort;
+			int pixelStride = src.pixelStride;
+			int offset = src.bandOffsets[0];
+			for( int y = y0; y < y1; y++ ) {
+				int indexSrc = srcStart + y*srcStride + offset;
+				int indexDst = dstStart + y*dstStride;
+				if( pixelStride == 1 ) {
+					System.arraycopy(srcData, indexSrc, data, indexDst, dst.width);
+				} else {
+					int indexDstEnd = indexDst + dst.width;
+					for( ; indexDst < indexDstEnd; indexDst++ , indexSrc += pixelStride ) {
+						data[indexDst] = srcData[indexSrc];
+					}
+				}
+			}
+		} else if( src.type == RasterLayout.Type.BYTE ) {
+			byte[] srcData = src.dataByte;
+			int pixelStride = src.pixelStride;
+
+			if( src.numColorBands == 1 ) {
+				int offset = src.bandOffsets[0];
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride + offset;
+					int indexDst = dstStart + y*dstStride;
+					int indexDstEnd = indexDst + dst.width;
+					for( ; indexDst < indexDstEnd; indexDst++ , indexSrc += pixelStride ) {
+						data[indexDst] = (short)(srcData[indexSrc] & 0xFF);
+					}
+				}
+			} else {
+				int offR = src.bandOffsets[0], offG = src.bandOffsets[1], offB = src.bandOffsets[2];
+				// the average doesn't depend on the order of the bands, so if the color bands are next to each
+				// other they can be read in the order they are stored
+				int offMin = Math.min(offR, Math.min(offG, offB));
+				boolean contiguous = Math.max(offR, Math.max(offG, offB)) - offMin == 2;
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride;
+					int indexDst = dstStart + y*dstStride;
+					int indexDstEnd = indexDst + dst.width;
+					if( contiguous ) {
+						indexSrc += offMin;
+						for( ; indexDst < indexDstEnd; indexDst++ , indexSrc += pixelStride ) {
+							int r = srcData[indexSrc] & 0xFF;
+							int g = srcData[indexSrc+1] & 0xFF;
+							int b = srcData[indexSrc+2] & 0xFF;
+
+							data[indexDst] = (short)((r + g + b)/3);
+						}
+					} else {
+						for( ; indexDst < indexDstEnd; indexDst++ , indexSrc += pixelStride ) {
+							int r = srcData[indexSrc+offR] & 0xFF;
+							int g = srcData[indexSrc+offG] & 0xFF;
+							int b = srcData[indexSrc+offB] & 0xFF;
+
+							data[indexDst] = (short)((r + g + b)/3);
+						}
+					}
+				}
+			}
+		} else {
+			int[] srcData = src.dataInt;
+
+			if( src.numColorBands == 1 ) {
+				int shift = src.bandShifts[0];
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride;
+					int indexDst = dstStart + y*dstStride;
+					int indexDstEnd = indexDst + dst.width;
+					for( ; indexDst < indexDstEnd; indexDst++ ) {
+						data[indexDst] = (short)((srcData[indexSrc++] >>> shift) & 0xFF);
+					}
+				}
+			} else {
+				int shiftR = src.bandShifts[0], shiftG = src.bandShifts[1], shiftB = src.bandShifts[2];
+				// the average doesn't depend on the order of the bands, so constant shifts can be used
+				// for all the common types
+				boolean lower24 = isLower24(src);
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride;
+					int indexDst = dstStart + y*dstStride;
+					int indexDstEnd = indexDst + dst.width;
+					if( lower24 ) {
+						for( ; indexDst < indexDstEnd; indexDst++ ) {
+							int rgb = srcData[indexSrc++];
+
+							int r = (rgb >>> 16) & 0xFF;
+							int g = (rgb >>> 8) & 0xFF;
+							int b = rgb & 0xFF;
+
+							data[indexDst] = (short)((r + g + b)/3);
+						}
+					} else {
+						for( ; indexDst < indexDstEnd; indexDst++ ) {
+							int rgb = srcData[indexSrc++];
+
+							int r = (rgb >>> shiftR) & 0xFF;
+							int g = (rgb >>> shiftG) & 0xFF;
+							int b = (rgb >>> shiftB) & 0xFF;
+
+							data[indexDst] = (short)((r + g + b)/3);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	public static void grayF32( RasterLayout src , ImageFloat32 dst , int y0 , int y1 ) {
+		float[] data = dst.data;
+		int srcStart = src.startIndex, srcStride = src.stride;
+		int dstStart = dst.startIndex, dstStride = dst.stride;
+
+		if( src.type == RasterLayout.Type.BYTE ) {
+			byte[] srcData = src.dataByte;
+			int pixelStride = src.pixelStride;
+
+			if( src.numColorBands == 1 ) {
+				int offset = src.bandOffsets[0];
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride + offset;
+					int indexDst = dstStart + y*dstStride;
+					int indexDstEnd = indexDst + dst.width;
+					for( ; indexDst < indexDstEnd; indexDst++ , indexSrc += pixelStride ) {
+						data[indexDst] = srcData[indexSrc] & 0xFF;
+					}
+				}
+			} else {
+				int offR = src.bandOffsets[0], offG = src.bandOffsets[1], offB = src.bandOffsets[2];
+				// the average doesn't depend on the order of the bands, so if the color bands are next to each
+				// other they can be read in the order they are stored
+				int offMin = Math.min(offR, Math.min(offG, offB));
+				boolean contiguous = Math.max(offR, Math.max(offG, offB)) - offMin == 2;
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride;
+					int indexDst = dstStart + y*dstStride;
+					int indexDstEnd = indexDst + dst.width;
+					if( contiguous ) {
+						indexSrc += offMin;
+						for( ; indexDst < indexDstEnd; indexDst++ , indexSrc += pixelStride ) {
+							int r = srcData[indexSrc] & 0xFF;
+							int g = srcData[indexSrc+1] & 0xFF;
+							int b = srcData[indexSrc+2] & 0xFF;
+
+							data[indexDst] = (r + g + b)/3.0f;
+						}
+					} else {
+						for( ; indexDst < indexDstEnd; indexDst++ , indexSrc += pixelStride ) {
+							int r = srcData[indexSrc+offR] & 0xFF;
+							int g = srcData[indexSrc+offG] & 0xFF;
+							int b = srcData[indexSrc+offB] & 0xFF;
+
+							data[indexDst] = (r + g + b)/3.0f;
+						}
+					}
+				}
+			}
+		} else if( src.type == RasterLayout.Type.INT_PACKED ) {
+			int[] srcData = src.dataInt;
+
+			if( src.numColorBands == 1 ) {
+				int shift = src.bandShifts[0];
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride;
+					int indexDst = dstStart + y*dstStride;
+					int indexDstEnd = indexDst + dst.width;
+					for( ; indexDst < indexDstEnd; indexDst++ ) {
+						data[indexDst] = (srcData[indexSrc++] >>> shift) & 0xFF;
+					}
+				}
+			} else {
+				int shiftR = src.bandShifts[0], shiftG = src.bandShifts[1], shiftB = src.bandShifts[2];
+				// the average doesn't depend on the order of the bands, so constant shifts can be used
+				// for all the common types
+				boolean lower24 = isLower24(src);
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride;
+					int indexDst = dstStart + y*dstStride;
+					int indexDstEnd = indexDst + dst.width;
+					if( lower24 ) {
+						for( ; indexDst < indexDstEnd; indexDst++ ) {
+							int rgb = srcData[indexSrc++];
+
+							int r = (rgb >>> 16) & 0xFF;
+							int g = (rgb >>> 8) & 0xFF;
+							int b = rgb & 0xFF;
+
+							data[indexDst] = (r + g + b)/3.0f;
+						}
+					} else {
+						for( ; indexDst < indexDstEnd; indexDst++ ) {
+							int rgb = srcData[indexSrc++];
+
+							int r = (rgb >>> shiftR) & 0xFF;
+							int g = (rgb >>> shiftG) & 0xFF;
+							int b = (rgb >>> shiftB) & 0xFF;
+
+							data[indexDst] = (r + g + b)/3.0f;
+						}
+					}
+				}
+			}
+		} else {
+			throw new IllegalArgumentException("Unsupported layout "+src.type);
+		}
+	}
+
+	/**
+	 * Copies each band into the output image one row at a time.  The output bands are in storage order.
+	 */
+	public static void multiU8( RasterLayout src , MultiSpectral<ImageUInt8> dst , int y0 , int y1 ) {
+		int srcStart = src.startIndex, srcStride = src.stride;
+
+		if( src.type == RasterLayout.Type.INT_PACKED && src.numBands == 3 ) {
+			// read each int only once
+			int[] srcData = src.dataInt;
+			int shift0 = src.bandShifts[src.storageOrder[0]];
+			int shift1 = src.bandShifts[src.storageOrder[1]];
+			int shift2 = src.bandShifts[src.storageOrder[2]];
+			byte[] data0 = dst.getBand(0).data;
+			byte[] data1 = dst.getBand(1).data;
+			byte[] data2 = dst.getBand(2).data;
+
+			for( int y = y0; y < y1; y++ ) {
+				int indexSrc = srcStart + y*srcStride;
+				int indexDst = dst.startIndex + y*dst.stride;
+				int indexDstEnd = indexDst + dst.width;
+				for( ; indexDst < indexDstEnd; indexDst++ ) {
+					int rgb = srcData[indexSrc++];
+
+					data0[indexDst] = (byte)(rgb >>> shift0);
+					data1[indexDst] = (byte)(rgb >>> shift1);
+					data2[indexDst] = (byte)(rgb >>> shift2);
+				}
+			}
+			return;
+		}
+
+		for( int band = 0; band < src.numBands; band++ ) {
+			ImageUInt8 output = dst.getBand(band);
+			byte[] data = output.data;
+			int which = src.storageOrder[band];
+
+			if( src.type == RasterLayout.Type.BYTE ) {
+				byte[] srcData = src.dataByte;
+				int pixelStride = src.pixelStride;
+				int offset = src.bandOffsets[which];
+
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride + offset;
+					int indexDst = output.startIndex + y*output.stride;
+					if( pixelStride == 1 ) {
+						System.arraycopy(srcData, indexSrc, data, indexDst, output.width);
+					} else {
+						int indexDstEnd = indexDst + output.width;
+						for( ; indexDst < indexDstEnd; indexDst++ , indexSrc += pixelStride ) {
+							data[indexDst] = srcData[indexSrc];
+						}
+					}
+				}
+			} else if( src.type == RasterLayout.Type.INT_PACKED ) {
+				int[] srcData = src.dataInt;
+				int shift = src.bandShifts[which];
+
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride;
+					int indexDst = output.startIndex + y*output.stride;
+					int indexDstEnd = indexDst + output.width;
+					for( ; indexDst < indexDstEnd; indexDst++ ) {
+						data[indexDst] = (byte)(srcData[indexSrc++] >>> shift);
+					}
+				}
+			} else {
+				throw new IllegalArgumentException("Unsupported layout "+src.type);
+			}
+		}
+	}
+
+	/**
+	 * Copies each band into the output image one row at a time.  The output bands are in storage order.
+	 */
+	public static void multiF32( RasterLayout src , MultiSpectral<ImageFloat32> dst , int y0 , int y1 ) {
+		int srcStart = src.startIndex, srcStride = src.stride;
+
+		if( src.type == RasterLayout.Type.INT_PACKED && src.numBands == 3 ) {
+			// read each int only once
+			int[] srcData = src.dataInt;
+			int shift0 = src.bandShifts[src.storageOrder[0]];
+			int shift1 = src.bandShifts[src.storageOrder[1]];
+			int shift2 = src.bandShifts[src.storageOrder[2]];
+			float[] data0 = dst.getBand(0).data;
+			float[] data1 = dst.getBand(1).data;
+			float[] data2 = dst.getBand(2).data;
+
+			for( int y = y0; y < y1; y++ ) {
+				int indexSrc = srcStart + y*srcStride;
+				int indexDst = dst.startIndex + y*dst.stride;
+				int indexDstEnd = indexDst + dst.width;
+				for( ; indexDst < indexDstEnd; indexDst++ ) {
+					int rgb = srcData[indexSrc++];
+
+					data0[indexDst] = (rgb >>> shift0) & 0xFF;
+					data1[indexDst] = (rgb >>> shift1) & 0xFF;
+					data2[indexDst] = (rgb >>> shift2) & 0xFF;
+				}
+			}
+			return;
+		}
+
+		for( int band = 0; band < src.numBands; band++ ) {
+			ImageFloat32 output = dst.getBand(band);
+			float[] data = output.data;
+			int which = src.storageOrder[band];
+
+			if( src.type == RasterLayout.Type.BYTE ) {
+				byte[] srcData = src.dataByte;
+				int pixelStride = src.pixelStride;
+				int offset = src.bandOffsets[which];
+
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride + offset;
+					int indexDst = output.startIndex + y*output.stride;
+					int indexDstEnd = indexDst + output.width;
+					for( ; indexDst < indexDstEnd; indexDst++ , indexSrc += pixelStride ) {
+						data[indexDst] = srcData[indexSrc] & 0xFF;
+					}
+				}
+			} else if( src.type == RasterLayout.Type.INT_PACKED ) {
+				int[] srcData = src.dataInt;
+				int shift = src.bandShifts[which];
+
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride;
+					int indexDst = output.startIndex + y*output.stride;
+					int indexDstEnd = indexDst + output.width;
+					for( ; indexDst < indexDstEnd; indexDst++ ) {
+						data[indexDst] = (srcData[indexSrc++] >>> shift) & 0xFF;
+					}
+				}
+			} else {
+				throw new IllegalArgumentException("Unsupported layout "+src.type);
+			}
+		}
+	}
+
+	/**
+	 * Copies the pixels into an interleaved image.
+	 *
+	 * @param order Color model band index of each output band
+	 */
+	public static void interleavedU8( RasterLayout src , int order[] , InterleavedU8 dst , int y0 , int y1 ) {
+		int srcStart = src.startIndex, srcStride = src.stride;
+		int dstStart = dst.startIndex, dstStride = dst.stride;
+		byte[] data = dst.data;
+		int numBands = dst.numBands;
+		int rowLength = dst.width*numBands;
+
+		if( src.type == RasterLayout.Type.BYTE ) {
+			byte[] srcData = src.dataByte;
+			int pixelStride = src.pixelStride;
+
+			// see if the rows can be copied without being rearranged
+			boolean copyRows = pixelStride == numBands;
+			for( int band = 0; band < numBands && copyRows; band++ ) {
+				copyRows = src.bandOffsets[order[band]] == band;
+			}
+
+			if( copyRows ) {
+				for( int y = y0; y < y1; y++ ) {
+					System.arraycopy(srcData, srcStart + y*srcStride,
+							data, dstStart + y*dstStride, rowLength);
+				}
+			} else {
+				int offsets[] = new int[numBands];
+				for( int band = 0; band < numBands; band++ )
+					offsets[band] = src.bandOffsets[order[band]];
+
+				for( int y = y0; y < y1; y++ ) {
+					int indexSrc = srcStart + y*srcStride;
+					int indexDst = dstStart + y*dstStride;
+					int indexDstEnd = indexDst + rowLength;
+					for( ; indexDst < indexDstEnd; indexSrc += pixelStride ) {
+						for( int band = 0; band < numBands; band++ ) {
+							data[indexDst++] = srcData[indexSrc+offsets[band]];
+						}
+					}
+				}
+			}
+		} else if( src.type == RasterLayout.Type.INT_PACKED ) {
+			int[] srcData = src.dataInt;
+
+			int shifts[] = new int[numBands];
+			for( int band = 0; band < numBands; band++ )
+				shifts[band] = src.bandShifts[order[band]];
+
+			for( int y = y0; y < y1; y++ ) {
+				int indexSrc = srcStart + y*srcStride;
+				int indexDst = dstStart + y*dstStride;
+				int indexDstEnd = indexDst + rowLength;
+				while( indexDst < indexDstEnd ) {
+					int value = srcData[indexSrc++];
+					for( int band = 0; band < numBands; band++ ) {
+						data[indexDst++] = (byte)(value >>> shifts[band]);
+					}
+				}
+			}
+		} else {
+			throw new IllegalArgumentException("Unsupported layout "+src.type);
+		}
+	}
+
+	/**
+	 * Returns true if the color bands are packed into the lower 24-bits, in any order
+	 */
+	private static boolean isLower24( RasterLayout src ) {
+		int mask = 0;
+		for( int i = 0; i < 3; i++ )
+			mask |= 0xFF << src.bandShifts[i];
+		return mask == 0xFFFFFF;
+	}
+}
@@ -19,9 +19,15 @@
 package boofcv.factory.distort;
 
 import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.distort.ImageDistortPacked;
+import boofcv.alg.distort.ImageDistortPacked_MT;
 import boofcv.alg.distort.impl.*;
 import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.FactoryImageBorder;
 import boofcv.core.image.border.ImageBorder;
+import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.image.*;
 
 /**
@@ -94,4 +100,78 @@ public class FactoryDistort {
 			throw new IllegalArgumentException("Image type not supported: "+imageType.getSimpleName());
 		}
 	}
+
+	/**
+	 * Caches the distortion for each pixel in compact primitive arrays and processes the image one tile at a
+	 * time.  Uses much less memory than {@link #distortCached}.  In fixed point format the distortion is stored
+	 * with a resolution of 1/32 of a pixel.
+	 *
+	 * @see boofcv.alg.distort.PixelTransformPacked_F32
+	 *
+	 * @param interp Which interpolation algorithm should be used.
+	 * @param border Specifies how requests to pixels outside the image should be handled.  If null then no change
+	 * @param fixedPoint If true the distortion is stored in fixed point, which uses half the memory.
+	 * @param imageType Type of image being processed.
+	 * @return Image distort which caches the distortion.
+	 */
+	public static <T extends ImageSingleBand>
+	ImageDistort<T> distortPacked(InterpolatePixelS<T> interp, ImageBorder border ,
+								  boolean fixedPoint , Class<T> imageType)
+	{
+		return createPacked(interp,border,fixedPoint,imageType);
+	}
+
+	/**
+	 * Creates an {@link ImageDistort} which caches the distortion in compact primitive arrays.  The concurrent
+	 * version splits the output image between threads, with each thread having its own interpolation.
+	 *
+	 * @param interpType Which type of pixel interpolation should be used.
+	 * @param borderType How pixels outside the source image are handled.  If null they are skipped over and
+	 *                   if {@link BorderType#VALUE} they are set to zero.
+	 * @param fixedPoint If true the distortion is stored in fixed point, which uses half the memory.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @param imageType Type of image being processed.
+	 * @return Image distort which caches the distortion.
+	 */
+	public static <T extends ImageSingleBand>
+	ImageDistort<T> distortPacked(final TypeInterpolate interpType, final BorderType borderType,
+								  final boolean fixedPoint, boolean concurrent, final Class<T> imageType)
+	{
+		ImageDistortPacked_MT.Factory<T> factory = new ImageDistortPacked_MT.Factory<T>() {
+			@Override
+			public ImageDistortPacked<T> create() {
+				InterpolatePixelS<T> interp = FactoryInterpolation.createPixelS(0, 255, interpType, imageType);
+				ImageBorder<T> border;
+				if( borderType == null )
+					border = null;
+				else if( borderType == BorderType.VALUE )
+					border = FactoryImageBorder.value(imageType, 0);
+				else
+					border = FactoryImageBorder.general(imageType, borderType);
+				return createPacked(interp,border,fixedPoint,imageType);
+			}
+		};
+
+		if( concurrent )
+			return new ImageDistortPacked_MT<T>(factory);
+		else
+			return factory.create();
+	}
+
+	private static <T extends ImageSingleBand>
+	ImageDistortPacked<T> createPacked(InterpolatePixelS<T> interp, ImageBorder border ,
+									   boolean fixedPoint , Class<T> imageType)
+	{
+		if( imageType == ImageFloat32.class ) {
+			return (ImageDistortPacked<T>)new ImplImageDistortPacked_F32((InterpolatePixelS<ImageFloat32>)interp,border,fixedPoint);
+		} else if( ImageSInt32.class.isAssignableFrom(imageType) ) {
+			return (ImageDistortPacked<T>)new ImplImageDistortPacked_S32((InterpolatePixelS<ImageSInt32>)interp,border,fixedPoint);
+		} else if( ImageInt16.class.isAssignableFrom(imageType) ) {
+			return (ImageDistortPacked<T>)new ImplImageDistortPacked_I16((InterpolatePixelS<ImageInt16>)interp,border,fixedPoint);
+		} else if( ImageInt8.class.isAssignableFrom(imageType) ) {
+			return (ImageDistortPacked<T>)new ImplImageDistortPacked_I8((InterpolatePixelS<ImageInt8>)interp,border,fixedPoint);
+		} else {
+			throw new IllegalArgumentException("Image type not supported: "+imageType.getSimpleName());
+		}
+	}
 }
@@ -20,12 +20,16 @@ package boofcv.factory.filter.binary;
 
 import boofcv.abst.filter.FilterImageInterface;
 import boofcv.abst.filter.FilterImageReflection;
+import boofcv.abst.filter.binary.ThresholdSquareIntegralFilter;
 import boofcv.alg.filter.binary.BinaryImageOps;
+import boofcv.alg.filter.binary.ThresholdSquareIntegral;
+import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageSingleBand;
 import boofcv.struct.image.ImageUInt8;
 
 /**
- * {@link FilterImageInterface} wrappers around functions inside of {@link BinaryImageOps}.
+ * {@link FilterImageInterface} wrappers around functions inside of {@link BinaryImageOps} and thresholding algorithms.
  *
  * NOTE:: Not all functions inside of {@link BinaryImageOps} are contained here.
  */
@@ -87,4 +91,35 @@ public class FactoryBinaryImageOps {
 		return new FilterImageReflection<ImageSInt32, ImageUInt8>(BinaryImageOps.class, "labelToBinary", 0, 0, ImageSInt32.class, ImageUInt8.class);
 	}
 
+	/**
+	 * Adaptive square threshold which computes the local mean using an integral image.  The integral image is
+	 * saved inside the filter, so no memory is declared after the first call for a given image size.
+	 *
+	 * @see ThresholdSquareIntegral
+	 *
+	 * @param radius Radius of square region.
+	 * @param bias Bias used to adjust threshold
+	 * @param down Should it threshold up or down.
+	 * @param concurrent If true the image will be processed in bands of rows by multiple threads.
+	 * @param inputType Type of input image.  ImageUInt8 and ImageFloat32 are supported.
+	 * @return Filter which thresholds the image.
+	 */
+	public static <T extends ImageSingleBand>
+	FilterImageInterface<T, ImageUInt8> adaptiveSquareIntegral( int radius , double bias , boolean down ,
+																boolean concurrent , Class<T> inputType ) {
+		if( inputType != ImageUInt8.class && inputType != ImageFloat32.class )
+			throw new IllegalArgumentException("Unsupported image type: "+inputType.getSimpleName());
+
+		ThresholdSquareIntegral alg = new ThresholdSquareIntegral(concurrent);
+		return new ThresholdSquareIntegralFilter<T>(alg,radius,bias,down,inputType);
+	}
+
+	/**
+	 * Single threaded version of {@link #adaptiveSquareIntegral(int, double, boolean, boolean, Class)}.
+	 */
+	public static <T extends ImageSingleBand>
+	FilterImageInterface<T, ImageUInt8> adaptiveSquareIntegral( int radius , double bias , boolean down ,
+																Class<T> inputType ) {
+		return adaptiveSquareIntegral(radius,bias,down,false,inputType);
+	}
 }
@@ -40,6 +40,18 @@ public class FactoryBlurFilter {
 		return new MedianImageFilter<T>(type,radius);
 	}
 
+	/**
+	 * Creates a median filter which takes the same amount of time for any radius.  Floating point images with more
+	 * than 2<sup>16</sup> unique values are quantized and the output is approximate.
+	 *
+	 * @param type Image type.
+	 * @param radius Size of the filter.
+	 * @return Median image filter.
+	 */
+	public static <T extends ImageSingleBand> MedianImageFilter<T> medianQuantized( Class<T> type , int radius ) {
+		return new MedianImageFilter<T>(type,radius,true);
+	}
+
 	/**
 	 * Creates a mean filter for the specified image type.
 	 *
@@ -21,6 +21,7 @@ package boofcv.factory.filter.convolve;
 import boofcv.abst.filter.convolve.ConvolveInterface;
 import boofcv.abst.filter.convolve.GenericConvolve;
 import boofcv.alg.filter.convolve.ConvolveImageNoBorder;
+import boofcv.alg.filter.convolve.ConvolveImageNoBorder_MT;
 import boofcv.alg.filter.convolve.ConvolveNormalized;
 import boofcv.alg.filter.convolve.ConvolveWithBorder;
 import boofcv.core.image.border.BorderType;
@@ -51,6 +52,25 @@ public class FactoryConvolve {
 	public static <Input extends ImageSingleBand, Output extends ImageSingleBand>
 	ConvolveInterface<Input,Output>
 	convolve( Kernel1D kernel, Class<Input> inputType, Class<Output> outputType , BorderType border , boolean isHorizontal )
+	{
+		return convolve(kernel,inputType,outputType,border,isHorizontal,false);
+	}
+
+	/**
+	 * Creates a filter for convolving 1D kernels along the image.
+	 *
+	 * @param kernel Convolution kernel.
+	 * @param inputType Specifies input image type.
+	 * @param outputType Specifies input image type.
+	 * @param border How the image border is handled.
+	 * @param concurrent If true and the border is {@link BorderType#SKIP} then the image is convolved using
+	 *                   multiple threads.  See {@link ConvolveImageNoBorder_MT}.
+	 * @return FilterInterface which will perform the specified convolution.
+	 */
+	public static <Input extends ImageSingleBand, Output extends ImageSingleBand>
+	ConvolveInterface<Input,Output>
+	convolve( Kernel1D kernel, Class<Input> inputType, Class<Output> outputType , BorderType border ,
+			  boolean isHorizontal , boolean concurrent )
 	{
 		outputType = BoofTesting.convertToGenericType(outputType);
 
@@ -60,7 +80,7 @@ public class FactoryConvolve {
 		try {
 			switch( border ) {
 				case SKIP:
-					m = ConvolveImageNoBorder.class.
+					m = noBorderClass(concurrent).
 							getMethod(direction,kernel.getClass(),inputType,outputType,boolean.class);
 					break;
 
@@ -104,6 +124,25 @@ public class FactoryConvolve {
 	public static <Input extends ImageSingleBand, Output extends ImageSingleBand>
 	ConvolveInterface<Input,Output>
 	convolve( Kernel2D kernel, Class<Input> inputType, Class<Output> outputType , BorderType borderType)
+	{
+		return convolve(kernel,inputType,outputType,borderType,false);
+	}
+
+	/**
+	 * Creates a filter for convolving 2D kernels along the image axis.
+	 *
+	 * @param kernel Convolution kernel.
+	 * @param inputType Specifies input image type.
+	 * @param outputType Specifies input image type.
+	 * @param borderType How the image border is handled.
+	 * @param concurrent If true and the border is {@link BorderType#SKIP} then the image is convolved using
+	 *                   multiple threads.  See {@link ConvolveImageNoBorder_MT}.
+	 * @return FilterInterface which will perform the specified convolution.
+	 */
+	public static <Input extends ImageSingleBand, Output extends ImageSingleBand>
+	ConvolveInterface<Input,Output>
+	convolve( Kernel2D kernel, Class<Input> inputType, Class<Output> outputType , BorderType borderType,
+			  boolean concurrent )
 	{
 		outputType = BoofTesting.convertToGenericType(outputType);
 
@@ -112,7 +151,7 @@ public class FactoryConvolve {
 		try {
 			switch(borderType) {
 				case SKIP:
-					m = ConvolveImageNoBorder.class.
+					m = noBorderClass(concurrent).
 							getMethod("convolve",kernel.getClass(),inputType,outputType);
 					break;
 
@@ -143,4 +182,8 @@ public class FactoryConvolve {
 
 		return new GenericConvolve<Input,Output>(m,kernel, borderType,inputType);
 	}
+
+	private static Class<?> noBorderClass( boolean concurrent ) {
+		return concurrent ? ConvolveImageNoBorder_MT.class : ConvolveImageNoBorder.class;
+	}
 }
@@ -65,7 +65,22 @@ public class FactoryDerivative {
 	public static <I extends ImageSingleBand, D extends ImageSingleBand>
 	ImageGradient<I,D> sobel( Class<I> inputType , Class<D> derivType)
 	{
-		Method m = findDerivative(GradientSobel.class,inputType,derivType);
+		return sobel(inputType,derivType,false);
+	}
+
+	/**
+	 * Sobel gradient which can optionally be computed using multiple threads.
+	 *
+	 * @see GradientSobel_MT
+	 *
+	 * @param inputType Type of input image
+	 * @param derivType Type of derivative image
+	 * @param concurrent If true the gradient will be computed using multiple threads.
+	 */
+	public static <I extends ImageSingleBand, D extends ImageSingleBand>
+	ImageGradient<I,D> sobel( Class<I> inputType , Class<D> derivType , boolean concurrent )
+	{
+		Method m = findDerivative(concurrent ? GradientSobel_MT.class : GradientSobel.class,inputType,derivType);
 		return new ImageGradient_Reflection<I,D>(m);
 	}
 
@@ -20,6 +20,7 @@ package boofcv.factory.transform.pyramid;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.transform.pyramid.PyramidDiscreteSampleBlur;
+import boofcv.alg.transform.pyramid.PyramidDiscreteSampleBlur_MT;
 import boofcv.alg.transform.pyramid.PyramidFloatGaussianScale;
 import boofcv.factory.filter.kernel.FactoryKernel;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
@@ -57,6 +58,30 @@ public class FactoryPyramid {
 		return new PyramidDiscreteSampleBlur<T>(kernel,sigma,imageType,saveOriginalReference,scaleFactors);
 	}
 
+	/**
+	 * Creates an updater for discrete pyramids where a Gaussian is convolved across the input
+	 * prior to sub-sampling.
+	 *
+	 * @param imageType Type of input image.
+	 * @param sigma Gaussian sigma.  If < 0 then a sigma is selected using the radius.
+	 * @param radius Radius of the Gaussian kernel.  If < 0 then the radius is selected using sigma.
+	 * @param concurrent If true each layer will be computed using multiple threads.  See {@link PyramidDiscreteSampleBlur_MT}
+	 * @return PyramidUpdaterDiscrete
+	 */
+	public static <T extends ImageSingleBand>
+	PyramidDiscrete<T> discreteGaussian( int[] scaleFactors , double sigma , int radius ,
+										 boolean saveOriginalReference, Class<T> imageType , boolean concurrent )
+	{
+		if( !concurrent )
+			return discreteGaussian(scaleFactors,sigma,radius,saveOriginalReference,imageType);
+
+		Class<Kernel1D> kernelType = FactoryKernel.getKernelType(imageType,1);
+
+		Kernel1D kernel = FactoryKernelGaussian.gaussian(kernelType,sigma,radius);
+
+		return new PyramidDiscreteSampleBlur_MT<T>(kernel,sigma,imageType,saveOriginalReference,scaleFactors);
+	}
+
 	/**
 	 * Creates an updater for float pyramids where each layer is blurred using a Gaussian with the specified
 	 * sigma.  Bilinear interpolation is used when sub-sampling.
@@ -52,4 +52,50 @@ public abstract class CodeGeneratorBase {
 	public String getPackage() {
 		return getClass().getPackage().getName();
 	}
+
+	/**
+	 * Prints the loop across the image's rows.  For the concurrent version the rows are split into blocks
+	 * and each block is processed by a different thread.
+	 *
+	 * @param concurrent If true the rows are processed by {@link boofcv.concurrency.BoofConcurrency}
+	 * @param var Name of the row variable
+	 * @param start First row, inclusive
+	 * @param end Last row, exclusive
+	 * @param blockSetup Variables which are declared once before the rows are processed.  Indented by 2 tabs.
+	 * @param body Code inside the row loop.  Indented by 3 tabs.
+	 */
+	protected void printRowLoop( boolean concurrent , String var , String start , String end , String blockSetup , String body ) {
+		if( concurrent ) {
+			out.print("\t\tBoofConcurrency.loopBlocks(" + start + "," + end + ",new IntRangeTask() {\n" +
+					"\t\t\t@Override\n" +
+					"\t\t\tpublic void process(int y0, int y1) {\n");
+			out.print(indent(blockSetup));
+			out.print("\t\t\t\tfor( int " + var + " = y0; " + var + " < y1; " + var + "++ ) {\n");
+			out.print(indent(body));
+			out.print("\t\t\t\t}\n" +
+					"\t\t\t}\n" +
+					"\t\t});\n");
+		} else {
+			out.print(blockSetup);
+			out.print("\t\tfor( int " + var + " = " + start + "; " + var + " < " + end + "; " + var + "++ ) {\n");
+			out.print(body);
+			out.print("\t\t}\n");
+		}
+	}
+
+	/**
+	 * Adds two tabs to the start of every line which isn't empty
+	 */
+	protected static String indent( String text ) {
+		StringBuilder builder = new StringBuilder();
+		String lines[] = text.split("\n",-1);
+		for (int i = 0; i < lines.length; i++) {
+			if( lines[i].length() > 0 )
+				builder.append("\t\t");
+			builder.append(lines[i]);
+			if( i != lines.length-1 )
+				builder.append('\n');
+		}
+		return builder.toString();
+	}
 }
@@ -19,8 +19,10 @@
 package boofcv.struct.pyramid;
 
 import boofcv.core.image.ImageGenerator;
+import boofcv.core.image.ImagePool;
 import boofcv.core.image.inst.FactoryImageGenerator;
 import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageType;
 
 /**
  * <p>
@@ -35,6 +37,11 @@ import boofcv.struct.image.ImageSingleBand;
  * to true.
  * </p>
  *
+ * <p>
+ * If a global {@link ImagePool} has been set then layers are taken from the pool and returned to it when the
+ * input image changes shape.  References to old layers should not be kept after the shape has changed.
+ * </p>
+ *
  * @author Peter Abeles
  */
 @SuppressWarnings({"unchecked"})
@@ -79,20 +86,45 @@ public abstract class ImagePyramidBase<T extends ImageSingleBand>
 
 		this.bottomWidth = width;
 		this.bottomHeight = height;
+		releaseLayers();
 		layers = generator.createArray(getNumLayers());
 		double scaleFactor = getScale(0);
 
 		if (scaleFactor == 1) {
 			if (!saveOriginalReference) {
-				layers[0] = generator.createInstance(bottomWidth, bottomHeight);
+				layers[0] = declareLayer(bottomWidth, bottomHeight);
 			}
 		} else {
-			layers[0] = generator.createInstance((int)Math.ceil(bottomWidth / scaleFactor), (int)Math.ceil(bottomHeight / scaleFactor));
+			layers[0] = declareLayer((int)Math.ceil(bottomWidth / scaleFactor), (int)Math.ceil(bottomHeight / scaleFactor));
 		}
 
 		for (int i = 1; i < layers.length; i++) {
 			scaleFactor = getScale(i);
-			layers[i] = generator.createInstance((int)Math.ceil(bottomWidth / scaleFactor), (int)Math.ceil(bottomHeight / scaleFactor));
+			layers[i] = declareLayer((int)Math.ceil(bottomWidth / scaleFactor), (int)Math.ceil(bottomHeight / scaleFactor));
+		}
+	}
+
+	/**
+	 * Declares a layer.  If a global {@link ImagePool} is set then the layer is taken from the pool.
+	 */
+	protected T declareLayer( int width , int height ) {
+		ImagePool pool = ImagePool.getGlobal();
+		if( pool != null )
+			return pool.acquireZeros(ImageType.single(generator.getType()), width, height);
+		return generator.createInstance(width, height);
+	}
+
+	/**
+	 * Gives layers from the previous image size back to the global {@link ImagePool}, if there is one.
+	 */
+	private void releaseLayers() {
+		if( layers == null || ImagePool.getGlobal() == null )
+			return;
+
+		// the first layer could be a reference to an image owned by someone else
+		int start = saveOriginalReference ? 1 : 0;
+		for (int i = start; i < layers.length; i++) {
+			ImagePool.releaseGlobal(layers[i]);
 		}
 	}
 
@@ -18,9 +18,12 @@
 
 package boofcv.alg;
 
+import boofcv.core.image.ImagePool;
 import boofcv.struct.image.ImageUInt8;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -93,4 +96,35 @@ public class TestInputSanityCheck {
 		} catch (IllegalArgumentException e) {
 		}
 	}
+
+	@Test
+	public void checkDeclareWork() {
+		ImageUInt8 input = new ImageUInt8(imgWidth, imgHeight);
+
+		// no pool, should behave just like checkDeclare
+		ImageUInt8 work = InputSanityCheck.checkDeclareWork(input, null);
+		assertEquals(imgWidth, work.width);
+		assertEquals(imgHeight, work.height);
+		ImageUInt8 provided = new ImageUInt8(imgWidth, imgHeight);
+		assertTrue(provided == InputSanityCheck.checkDeclareWork(input, provided));
+
+		ImagePool pool = new ImagePool();
+		ImagePool.setGlobal(pool);
+		try {
+			work = InputSanityCheck.checkDeclareWork(input, null, ImageUInt8.class);
+			assertEquals(1, pool.getAllocations());
+
+			// a provided image should not be put into the pool
+			InputSanityCheck.releaseWork(provided, provided);
+			assertEquals(0, pool.getStoredImages());
+
+			InputSanityCheck.releaseWork(null, work);
+			assertEquals(1, pool.getStoredImages());
+
+			assertTrue(work == InputSanityCheck.checkDeclareWork(input, null));
+			assertEquals(1, pool.getReuses());
+		} finally {
+			ImagePool.setGlobal(null);
+		}
+	}
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.testing.BoofTesting;
+import georegression.struct.affine.Affine2D_F32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImageDistortPacked_MT {
+
+	Random rand = new Random(234);
+
+	int width = 150;
+	int height = 220;
+
+	int maxThreads;
+
+	PixelTransformAffine_F32 tran = new PixelTransformAffine_F32(
+			new Affine2D_F32(0.9f,0.2f,-0.15f,0.8f,12.5f,-5.2f));
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	/**
+	 * The output should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingle() {
+		for( boolean fixedPoint : new boolean[]{false,true}) {
+			for( BorderType border : new BorderType[]{null,BorderType.VALUE,BorderType.EXTENDED}) {
+				compare(fixedPoint, border, 0, 0, width, height);
+				compare(fixedPoint, border, 10, 30, 80, 200);
+			}
+		}
+	}
+
+	private void compare( boolean fixedPoint , BorderType border , int x0 , int y0 , int x1 , int y1 ) {
+		ImageFloat32 src = new ImageFloat32(width,height);
+		ImageFloat32 expected = new ImageFloat32(width,height);
+		ImageFloat32 found = new ImageFloat32(width,height);
+		ImageMiscOps.fillUniform(src, rand, 0, 100);
+
+		ImageDistort<ImageFloat32> single = FactoryDistort.distortPacked(
+				TypeInterpolate.BILINEAR, border, fixedPoint, false, ImageFloat32.class);
+		ImageDistort<ImageFloat32> alg = FactoryDistort.distortPacked(
+				TypeInterpolate.BILINEAR, border, fixedPoint, true, ImageFloat32.class);
+		assertTrue(alg instanceof ImageDistortPacked_MT);
+
+		single.setModel(tran);
+		alg.setModel(tran);
+
+		// apply it twice to make sure the cached table is used correctly
+		for( int i = 0; i < 2; i++ ) {
+			single.apply(src,expected,x0,y0,x1,y1);
+			alg.apply(src,found,x0,y0,x1,y1);
+
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+
+	/**
+	 * Every worker should use the same table
+	 */
+	@Test
+	public void sharedTable() {
+		ImageFloat32 src = new ImageFloat32(width,height);
+		ImageFloat32 dst = new ImageFloat32(width,height);
+
+		ImageDistortPacked_MT<ImageFloat32> alg = (ImageDistortPacked_MT<ImageFloat32>)FactoryDistort.distortPacked(
+				TypeInterpolate.BILINEAR, BorderType.VALUE, false, true, ImageFloat32.class);
+		alg.setModel(tran);
+		alg.apply(src,dst);
+
+		assertTrue(alg.workers.size() > 1);
+		for( ImageDistortPacked<ImageFloat32> w : alg.workers ) {
+			assertTrue(w.getTable() == alg.getTable());
+		}
+	}
+}
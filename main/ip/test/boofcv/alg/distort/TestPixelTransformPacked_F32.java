@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort;
+
+import boofcv.struct.distort.PixelTransform_F32;
+import georegression.struct.point.Point2D_F32;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPixelTransformPacked_F32 {
+
+	int width = 30;
+	int height = 25;
+
+	PixelTransform_F32 tran = new PixelTransform_F32() {
+		@Override
+		public void compute(int x, int y) {
+			distX = 0.93f*x + 0.1f*y - 3.21f;
+			distY = -0.05f*x + 1.1f*y + 2.7f;
+		}
+	};
+
+	/**
+	 * Floating point should be identical to the original transform
+	 */
+	@Test
+	public void floatingPoint() {
+		PixelTransformPacked_F32 alg = new PixelTransformPacked_F32(false);
+		alg.set(tran,width,height);
+
+		assertEquals(width,alg.getWidth());
+		assertEquals(height,alg.getHeight());
+		assertEquals(width*height*8,alg.getMemoryBytes());
+
+		checkAll(alg, 0);
+	}
+
+	/**
+	 * Fixed point should be within the rounding error
+	 */
+	@Test
+	public void fixedPoint() {
+		PixelTransformPacked_F32 alg = new PixelTransformPacked_F32(true);
+		alg.set(tran,width,height);
+
+		assertEquals(0,alg.getNumOverflow());
+		assertEquals(width*height*4,alg.getMemoryBytes());
+
+		checkAll(alg, 0.5f/PixelTransformPacked_F32.SCALE + 1e-4f);
+	}
+
+	/**
+	 * Displacements which are too large for fixed point should be exactly recalled
+	 */
+	@Test
+	public void fixedPoint_overflow() {
+		PixelTransform_F32 large = new PixelTransform_F32() {
+			@Override
+			public void compute(int x, int y) {
+				distX = x;
+				distY = y;
+				if( x == 3 )
+					distX = x + 5000.25f;
+				if( y == 7 )
+					distY = y - 3000.5f;
+				if( x == 5 && y == 5 )
+					distX = Float.NaN;
+			}
+		};
+
+		PixelTransformPacked_F32 alg = new PixelTransformPacked_F32(true);
+		alg.set(large,width,height);
+
+		assertEquals(height+width-1+1,alg.getNumOverflow());
+
+		Point2D_F32 found = new Point2D_F32();
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				large.compute(x,y);
+				alg.get(x,y,found);
+				if( x == 5 && y == 5 ) {
+					assertTrue(Float.isNaN(found.x));
+				} else {
+					assertEquals(large.distX,found.x,0);
+				}
+				assertEquals(large.distY,found.y,0);
+			}
+		}
+	}
+
+	/**
+	 * Recompute the table for a different shape
+	 */
+	@Test
+	public void set_reshape() {
+		PixelTransformPacked_F32 alg = new PixelTransformPacked_F32(true);
+		alg.set(tran,10,12);
+		alg.set(tran,width,height);
+
+		checkAll(alg, 0.5f/PixelTransformPacked_F32.SCALE + 1e-4f);
+	}
+
+	private void checkAll(PixelTransformPacked_F32 alg, float tol) {
+		Point2D_F32 found = new Point2D_F32();
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				tran.compute(x,y);
+				alg.get(x,y,found);
+				assertEquals(tran.distX,found.x,tol);
+				assertEquals(tran.distY,found.y,tol);
+
+				alg.compute(x,y);
+				assertEquals(found.x,alg.distX,0);
+				assertEquals(found.y,alg.distY,0);
+			}
+		}
+	}
+}
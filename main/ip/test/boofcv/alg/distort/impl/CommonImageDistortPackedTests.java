@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort.impl;
+
+import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.distort.ImageDistortPacked;
+import boofcv.alg.distort.PixelTransformAffine_F32;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.core.image.border.ImageBorder;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.testing.BoofTesting;
+import georegression.struct.affine.Affine2D_F32;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public abstract class CommonImageDistortPackedTests<T extends ImageSingleBand> {
+
+	Class<T> imageType;
+
+	Random rand = new Random(234234);
+
+	// rotate and scale the image so that most of it is inside the input image
+	Affine2D_F32 affine = new Affine2D_F32(0.9f,0.2f,-0.15f,0.8f,12.5f,-5.2f);
+	PixelTransformAffine_F32 tran = new PixelTransformAffine_F32(affine);
+
+	InterpolatePixelS<T> interp;
+	ImageBorder<T> border;
+
+	T src;
+	T dst0;
+	T dst1;
+
+	protected CommonImageDistortPackedTests(Class<T> imageType) {
+		this.imageType = imageType;
+		interp = FactoryInterpolation.bilinearPixelS(imageType);
+		border = FactoryImageBorder.value(imageType, 1);
+
+		src = GeneralizedImageOps.createSingleBand(imageType,200,300);
+		dst0 = GeneralizedImageOps.createSingleBand(imageType,200,300);
+		dst1 = GeneralizedImageOps.createSingleBand(imageType,200,300);
+
+		GImageMiscOps.addGaussian(src, rand, 10, 0, 255);
+	}
+
+	/**
+	 * In floating point the output should be the same as the standard algorithm
+	 */
+	@Test
+	public void compareNoCrop() {
+		compare(false, 1e-4, false);
+	}
+
+	@Test
+	public void compareCrop() {
+		compare(true, 1e-4, false);
+	}
+
+	/**
+	 * Fixed point will only be approximately the same due to rounding the coordinates
+	 */
+	@Test
+	public void compareFixedPoint() {
+		compare(false, 2, false);
+		compare(true, 2, true);
+	}
+
+	private void compare( boolean crop , double tol , boolean fixedPoint ) {
+		ImageDistort<T> standard = FactoryDistort.distort(interp,border,imageType);
+		ImageDistortPacked<T> alg = create(interp,border,fixedPoint);
+		// make the tiles not line up with the image or the crop
+		alg.setTileSize(17,13);
+
+		standard.setModel(tran);
+		alg.setModel(tran);
+
+		GImageMiscOps.fill(dst0,0);
+		GImageMiscOps.fill(dst1,0);
+
+		if( crop ) {
+			standard.apply(src,dst0,10,30,80,60);
+			alg.apply(src,dst1,10,30,80,60);
+		} else {
+			standard.apply(src,dst0);
+			alg.apply(src,dst1);
+		}
+
+		BoofTesting.assertEquals(dst0, dst1, tol);
+	}
+
+	/**
+	 * The output image is a sub-image
+	 */
+	@Test
+	public void subimage() {
+		ImageDistort<T> standard = FactoryDistort.distort(interp,border,imageType);
+		ImageDistortPacked<T> alg = create(interp,border,false);
+
+		standard.setModel(tran);
+		alg.setModel(tran);
+
+		T sub = BoofTesting.createSubImageOf(dst1);
+
+		standard.apply(src,dst0);
+		alg.apply(src,sub);
+
+		BoofTesting.assertEquals(dst0, sub, 1e-4);
+	}
+
+	public abstract ImageDistortPacked<T>
+	create(InterpolatePixelS<T> interp, ImageBorder<T> border , boolean fixedPoint );
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestContourLabelBlocks {
+
+	Random rand = new Random(234);
+
+	int previousThreads;
+
+	@Before
+	public void before() {
+		previousThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(previousThreads);
+	}
+
+	/**
+	 * Compare against the images used to test {@link LinearContourLabelChang2004}
+	 */
+	@Test
+	public void compareToChang2004_TestImages() {
+		byte[][] images = new byte[][]{TestLinearContourLabelChang2004.TEST1,TestLinearContourLabelChang2004.TEST2};
+		for( byte[] data : images ) {
+			ImageUInt8 input = new ImageUInt8(13,8);
+			input.data = data;
+			compareToChang2004(input);
+		}
+		ImageUInt8 input = new ImageUInt8(5,7);
+		input.data = TestLinearContourLabelChang2004.TEST3;
+		compareToChang2004(input);
+		input = new ImageUInt8(7,8);
+		input.data = TestLinearContourLabelChang2004.TEST4;
+		compareToChang2004(input);
+	}
+
+	/**
+	 * Random images with different amounts of blobs and holes
+	 */
+	@Test
+	public void compareToChang2004_Random() {
+		for( int i = 0; i < 20; i++ ) {
+			ImageUInt8 input = new ImageUInt8(30+rand.nextInt(40),20+rand.nextInt(40));
+			randomBinary(input, 0.1 + 0.8*rand.nextDouble());
+			compareToChang2004(input);
+		}
+	}
+
+	/**
+	 * The image is large enough to be split into several bands and blocks of blobs
+	 */
+	@Test
+	public void compareToChang2004_Concurrent() {
+		for( int i = 0; i < 3; i++ ) {
+			ImageUInt8 input = new ImageUInt8(211,253);
+			randomBinary(input, 0.3 + 0.2*i);
+			compareToChang2004(input);
+		}
+	}
+
+	@Test
+	public void subimage() {
+		ImageUInt8 input = new ImageUInt8(40,35);
+		randomBinary(input,0.5);
+		BoofTesting.checkSubImage(this,"compareToChang2004",true,input);
+	}
+
+	private void randomBinary( ImageUInt8 input , double probability ) {
+		for( int y = 0; y < input.height; y++ ) {
+			for( int x = 0; x < input.width; x++ ) {
+				input.unsafe_set(x,y, rand.nextDouble() < probability ? 1 : 0);
+			}
+		}
+	}
+
+	public void compareToChang2004( ImageUInt8 input ) {
+		for( int rule = 4; rule <= 8; rule += 4 ) {
+			LinearContourLabelChang2004 expectedAlg = new LinearContourLabelChang2004(rule);
+			ImageSInt32 expectedLabeled = new ImageSInt32(input.width,input.height);
+			expectedAlg.process(input.clone(), expectedLabeled);
+			FastQueue<Contour> expected = expectedAlg.getContours();
+
+			for( int i = 0; i < 2; i++ ) {
+				ContourLabelBlocks alg = new ContourLabelBlocks(rule,i == 1);
+				ImageSInt32 labeled = new ImageSInt32(input.width,input.height);
+				ImageMiscOps.fillUniform(labeled,rand,0,100);
+
+				// process it twice to make sure the internal state is reset
+				alg.process(input,labeled);
+				alg.process(input,labeled);
+
+				BoofTesting.assertEquals(expectedLabeled,labeled,0);
+
+				PackedContours found = alg.getContours();
+				assertEquals(expected.size,found.getNumBlobs());
+				for( int blob = 0; blob < expected.size; blob++ ) {
+					Contour e = expected.get(blob);
+					Contour f = found.toContour(blob,null);
+
+					assertEquals(e.id,f.id);
+					checkSame(e.external,f.external);
+					assertEquals(e.internal.size(),f.internal.size());
+					for( int j = 0; j < e.internal.size(); j++ ) {
+						checkSame(e.internal.get(j),f.internal.get(j));
+					}
+				}
+			}
+		}
+	}
+
+	private void checkSame( List<Point2D_I32> expected , List<Point2D_I32> found ) {
+		assertEquals(expected.size(),found.size());
+		for( int i = 0; i < expected.size(); i++ ) {
+			Point2D_I32 e = expected.get(i);
+			Point2D_I32 f = found.get(i);
+			assertEquals(e.x,f.x);
+			assertEquals(e.y,f.y);
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLabelBlobsUnionFind {
+
+	Random rand = new Random(234);
+
+	int previousThreads;
+
+	@Before
+	public void before() {
+		previousThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(previousThreads);
+	}
+
+	/**
+	 * Labels should be the same as the ones produced by {@link LinearContourLabelChang2004}
+	 */
+	@Test
+	public void compareToChang2004() {
+		ImageUInt8 input = new ImageUInt8(45,38);
+		randomBinary(input,0.5);
+
+		BoofTesting.checkSubImage(this,"compareToChang2004",true,input);
+	}
+
+	public void compareToChang2004( ImageUInt8 input ) {
+		for( int rule = 4; rule <= 8; rule += 4 ) {
+			ImageSInt32 expected = new ImageSInt32(input.width,input.height);
+			LinearContourLabelChang2004 alg = new LinearContourLabelChang2004(rule);
+			alg.process(input,expected);
+
+			LabelBlobsUnionFind found = new LabelBlobsUnionFind(rule,false);
+			ImageSInt32 labeled = new ImageSInt32(input.width,input.height);
+			ImageMiscOps.fillUniform(labeled,rand,0,100);
+
+			assertEquals(alg.getContours().size, found.process(input,1,labeled));
+			BoofTesting.assertEquals(expected,labeled,0);
+
+			// the first pixel of each blob is the first point in its external contour
+			for( int i = 0; i < alg.getContours().size; i++ ) {
+				Contour c = alg.getContours().get(i);
+				assertEquals(c.external.get(0).x,found.getFirstX().get(i));
+				assertEquals(c.external.get(0).y,found.getFirstY().get(i));
+			}
+		}
+	}
+
+	/**
+	 * Label pixels which are zero instead of one
+	 */
+	@Test
+	public void labelZeros() {
+		ImageUInt8 input = new ImageUInt8(45,38);
+		randomBinary(input,0.5);
+
+		ImageUInt8 inverted = new ImageUInt8(input.width,input.height);
+		for( int i = 0; i < input.data.length; i++ )
+			inverted.data[i] = (byte)(1-input.data[i]);
+
+		for( int rule = 4; rule <= 8; rule += 4 ) {
+			ImageSInt32 expected = new ImageSInt32(input.width,input.height);
+			ImageSInt32 found = new ImageSInt32(input.width,input.height);
+
+			new LabelBlobsUnionFind(rule,false).process(inverted,1,expected);
+			new LabelBlobsUnionFind(rule,false).process(input,0,found);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	/**
+	 * Splitting the image into bands should not change the results.  Includes blobs which
+	 * cross several seams.
+	 */
+	@Test
+	public void concurrent() {
+		ImageUInt8 input = new ImageUInt8(120,317);
+		randomBinary(input,0.55);
+		// long vertical and diagonal lines which cross all the seams
+		for( int y = 0; y < input.height; y++ ) {
+			input.set(5,y,1);
+			input.set(20+(y%60),y,1);
+		}
+
+		for( int rule = 4; rule <= 8; rule += 4 ) {
+			ImageSInt32 expected = new ImageSInt32(input.width,input.height);
+			ImageSInt32 found = new ImageSInt32(input.width,input.height);
+
+			LabelBlobsUnionFind serial = new LabelBlobsUnionFind(rule,false);
+			LabelBlobsUnionFind parallel = new LabelBlobsUnionFind(rule,true);
+
+			int numExpected = serial.process(input,1,expected);
+			assertEquals(numExpected, parallel.process(input,1,found));
+			BoofTesting.assertEquals(expected,found,0);
+
+			for( int i = 0; i < numExpected; i++ ) {
+				assertEquals(serial.getFirstX().get(i),parallel.getFirstX().get(i));
+				assertEquals(serial.getFirstY().get(i),parallel.getFirstY().get(i));
+			}
+		}
+	}
+
+	private void randomBinary( ImageUInt8 input , double probability ) {
+		for( int y = 0; y < input.height; y++ ) {
+			for( int x = 0; x < input.width; x++ ) {
+				input.unsafe_set(x,y, rand.nextDouble() < probability ? 1 : 0);
+			}
+		}
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.binary;
+
+import georegression.struct.point.Point2D_I32;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPackedContours {
+
+	@Test
+	public void constructBlobs() {
+		PackedContours alg = createTwoBlobs();
+
+		assertEquals(2,alg.getNumBlobs());
+		assertEquals(4,alg.getNumContours());
+
+		assertEquals(0,alg.getNumInternal(0));
+		assertEquals(2,alg.getNumInternal(1));
+		assertEquals(0,alg.getExternal(0));
+		assertEquals(1,alg.getExternal(1));
+		assertEquals(3,alg.getInternal(1,1));
+
+		assertEquals(2,alg.getContourSize(0));
+		assertEquals(1,alg.getContourSize(1));
+		assertEquals(3,alg.getContourSize(2));
+		assertEquals(1,alg.getContourSize(3));
+
+		assertEquals(6,alg.getX(2,1));
+		assertEquals(7,alg.getY(2,1));
+	}
+
+	@Test
+	public void reset() {
+		PackedContours alg = createTwoBlobs();
+		alg.reset();
+
+		assertEquals(0,alg.getNumBlobs());
+		assertEquals(0,alg.getNumContours());
+		assertEquals(0,alg.points.size);
+	}
+
+	@Test
+	public void append() {
+		PackedContours a = createTwoBlobs();
+		PackedContours b = createTwoBlobs();
+		a.append(b);
+
+		assertEquals(4,a.getNumBlobs());
+		assertEquals(8,a.getNumContours());
+
+		for( int blob = 0; blob < 2; blob++ ) {
+			assertEquals(b.getNumInternal(blob),a.getNumInternal(blob+2));
+			assertEquals(b.getExternal(blob)+4,a.getExternal(blob+2));
+		}
+		for( int contour = 0; contour < 4; contour++ ) {
+			assertEquals(b.getContourSize(contour),a.getContourSize(contour+4));
+			for( int i = 0; i < b.getContourSize(contour); i++ ) {
+				assertEquals(b.getX(contour,i),a.getX(contour+4,i));
+				assertEquals(b.getY(contour,i),a.getY(contour+4,i));
+			}
+		}
+	}
+
+	@Test
+	public void toContour() {
+		PackedContours alg = createTwoBlobs();
+
+		Contour c = alg.toContour(1,null);
+		assertEquals(2,c.id);
+		assertEquals(1,c.external.size());
+		assertEquals(2,c.internal.size());
+		assertEquals(3,c.internal.get(0).size());
+		assertEquals(1,c.internal.get(1).size());
+
+		Point2D_I32 p = c.internal.get(0).get(1);
+		assertEquals(6,p.x);
+		assertEquals(7,p.y);
+
+		// storage should be cleared before it is used
+		c = alg.toContour(0,c);
+		assertEquals(1,c.id);
+		assertEquals(2,c.external.size());
+		assertEquals(0,c.internal.size());
+
+		List<Contour> list = alg.toList();
+		assertEquals(2,list.size());
+		assertEquals(1,list.get(0).id);
+		assertEquals(2,list.get(1).id);
+	}
+
+	/**
+	 * Blob 0 has an external contour only, blob 1 has two internal contours
+	 */
+	private PackedContours createTwoBlobs() {
+		PackedContours alg = new PackedContours();
+
+		alg.addPoint(1,2);
+		alg.addPoint(2,2);
+		alg.finishContour();
+		alg.finishBlob();
+
+		alg.addPoint(4,5);
+		alg.finishContour();
+		alg.addPoint(5,7);
+		alg.addPoint(6,7);
+		alg.addPoint(7,7);
+		alg.finishContour();
+		alg.addPoint(9,9);
+		alg.finishContour();
+		alg.finishBlob();
+
+		return alg;
+	}
+}
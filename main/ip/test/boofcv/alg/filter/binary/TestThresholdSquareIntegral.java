@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestThresholdSquareIntegral {
+
+	int width = 20;
+	int height = 30;
+
+	Random rand = new Random(234);
+
+	int previousThreads;
+
+	@Before
+	public void before() {
+		previousThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(previousThreads);
+	}
+
+	@Test
+	public void compareToNaive_U8() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		BoofTesting.checkSubImage(this,"checkNaive",true,input,new ImageUInt8(width,height));
+	}
+
+	@Test
+	public void compareToNaive_F32() {
+		ImageFloat32 input = new ImageFloat32(width,height);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		BoofTesting.checkSubImage(this,"checkNaive",true,input,new ImageUInt8(width,height));
+	}
+
+	public void checkNaive( ImageSingleBand input , ImageUInt8 output ) {
+		ThresholdSquareIntegral alg = new ThresholdSquareIntegral();
+		ImageUInt8 expected = new ImageUInt8(output.width,output.height);
+
+		// radius of 20 is larger than the image along one axis
+		for( int radius = 1; radius <= 20; radius += 3 ) {
+			for( int indexBias = 0; indexBias < 4; indexBias++ ) {
+				int bias = indexBias*10-20;
+
+				for( int i = 0; i < 2; i++ ) {
+					boolean down = i == 0;
+
+					ImageMiscOps.fillUniform(output,rand,0,200);
+					GThresholdImageOps.adaptiveSquareIntegral(input, output, radius, bias, down, alg);
+					naive(input, expected, radius, bias, down);
+
+					BoofTesting.assertEquals(expected,output,0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * For U8 images the bias should be rounded to the nearest integer, not truncated
+	 */
+	@Test
+	public void fractionalBias_U8() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		ImageUInt8 expected = new ImageUInt8(width,height);
+		ImageUInt8 found = new ImageUInt8(width,height);
+
+		ThresholdSquareIntegral alg = new ThresholdSquareIntegral();
+		for( double bias : new double[]{2.6,-2.6,2.4,-2.4} ) {
+			naive(input, expected, 4, Math.round(bias), true);
+			GThresholdImageOps.adaptiveSquareIntegral(input, found, 4, bias, true, alg);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	/**
+	 * The concurrent version should produce the same results as the single threaded version
+	 */
+	@Test
+	public void concurrent() {
+		ImageUInt8 inputU8 = new ImageUInt8(150,213);
+		ImageFloat32 inputF32 = new ImageFloat32(150,213);
+		GImageMiscOps.fillUniform(inputU8, rand, 0, 255);
+		GImageMiscOps.fillUniform(inputF32, rand, 0, 255);
+
+		ThresholdSquareIntegral serial = new ThresholdSquareIntegral(false);
+		ThresholdSquareIntegral concurrent = new ThresholdSquareIntegral(true);
+
+		for( int i = 0; i < 2; i++ ) {
+			boolean down = i == 0;
+
+			ImageUInt8 expected = serial.process(inputU8,null,6,-5,down);
+			ImageUInt8 found = concurrent.process(inputU8,null,6,-5,down);
+			BoofTesting.assertEquals(expected,found,0);
+
+			expected = serial.process(inputF32,null,6,-5f,down);
+			found = concurrent.process(inputF32,null,6,-5f,down);
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	/**
+	 * The saved integral image should be resized when the input image changes shape
+	 */
+	@Test
+	public void changeImageShape() {
+		ThresholdSquareIntegral alg = new ThresholdSquareIntegral();
+
+		ImageUInt8 large = new ImageUInt8(60,45);
+		ImageUInt8 small = new ImageUInt8(25,31);
+		GImageMiscOps.fillUniform(large, rand, 0, 200);
+		GImageMiscOps.fillUniform(small, rand, 0, 200);
+
+		ImageUInt8 expected = new ImageUInt8(small.width,small.height);
+		naive(small, expected, 4, 3, true);
+
+		alg.process(large,null,4,3,true);
+		ImageUInt8 found = alg.process(small,null,4,3,true);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	/**
+	 * Computes the mean inside the square region clipped by the image border
+	 */
+	private void naive( ImageSingleBand input, ImageUInt8 output,
+						int radius, double bias, boolean down ) {
+
+		for( int y = 0; y < input.height; y++ ) {
+			for( int x = 0; x < input.width; x++ ) {
+				int x0 = Math.max(0,x-radius);
+				int x1 = Math.min(input.width,x+radius+1);
+				int y0 = Math.max(0,y-radius);
+				int y1 = Math.min(input.height,y+radius+1);
+
+				double sum = 0;
+				for( int i = y0; i < y1; i++ ) {
+					for( int j = x0; j < x1; j++ ) {
+						sum += GeneralizedImageOps.get(input,j,i);
+					}
+				}
+				int area = (x1-x0)*(y1-y0);
+				double v = GeneralizedImageOps.get(input,x,y);
+
+				boolean one;
+				if( input instanceof ImageUInt8 ) {
+					// integer comparison avoids round off error in the mean
+					int lhs = (int)v*area;
+					int rhs = (int)sum + (int)bias*area;
+					one = down ? lhs <= rhs : lhs >= rhs;
+				} else {
+					float threshold = (float)(sum/area) + (float)bias;
+					one = down ? (float)v <= threshold : (float)v >= threshold;
+				}
+
+				output.set(x,y,one ? 1 : 0);
+			}
+		}
+	}
+}
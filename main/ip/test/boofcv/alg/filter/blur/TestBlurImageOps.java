@@ -18,6 +18,7 @@
 
 package boofcv.alg.filter.blur;
 
+import boofcv.alg.filter.blur.impl.ImplMedianHistogramConstant;
 import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;
 import boofcv.alg.filter.convolve.ConvolveNormalized;
 import boofcv.alg.filter.convolve.normalized.ConvolveNormalizedNaive;
@@ -27,6 +28,7 @@ import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.struct.convolve.Kernel1D_I32;
 import boofcv.struct.convolve.Kernel2D_F32;
 import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt16;
 import boofcv.struct.image.ImageUInt8;
 import boofcv.testing.BoofTesting;
 import org.junit.Test;
@@ -113,6 +115,23 @@ public class TestBlurImageOps {
 		}
 	}
 
+	@Test
+	public void median_U16() {
+
+		ImageUInt16 input = new ImageUInt16(width,height);
+		ImageUInt16 found = new ImageUInt16(width,height);
+		ImageUInt16 expected = new ImageUInt16(width,height);
+
+		GImageMiscOps.fillUniform(input, rand, 0, 2000);
+
+		for( int radius = 1; radius <= 4; radius++ ) {
+			ImplMedianSortNaive.process(input,expected,radius,null);
+			BlurImageOps.median(input,found,radius);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
 	@Test
 	public void median_F32() {
 		ImageFloat32 input = new ImageFloat32(width,height);
@@ -129,6 +148,45 @@ public class TestBlurImageOps {
 		}
 	}
 
+	/**
+	 * Too many unique values for the histogram to be exact
+	 */
+	@Test
+	public void median_F32_manyValues() {
+		ImageFloat32 input = new ImageFloat32(300,300);
+		ImageFloat32 found = new ImageFloat32(300,300);
+		ImageFloat32 expected = new ImageFloat32(300,300);
+
+		GImageMiscOps.fillUniform(input, rand, 0, 20);
+
+		ImplMedianHistogramConstant storage = new ImplMedianHistogramConstant();
+		ImplMedianSortNaive.process(input,expected,2,null);
+		BlurImageOps.median(input,found,2,storage);
+		BoofTesting.assertEquals(expected,found,0);
+
+		// quantized is approximate, each level has one or two pixels
+		BlurImageOps.medianQuantized(input,found,2,storage);
+		BoofTesting.assertEquals(expected,found,1e-2);
+	}
+
+	@Test
+	public void medianQuantized_F32() {
+		ImageFloat32 input = new ImageFloat32(width,height);
+		ImageFloat32 found = new ImageFloat32(width,height);
+		ImageFloat32 expected = new ImageFloat32(width,height);
+
+		GImageMiscOps.fillUniform(input, rand, 0, 20);
+
+		// few enough values to be exact
+		ImplMedianHistogramConstant storage = new ImplMedianHistogramConstant();
+		for( int radius = 1; radius <= 4; radius++ ) {
+			ImplMedianSortNaive.process(input,expected,radius,null);
+			BlurImageOps.medianQuantized(input,found,radius,storage);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
 	@Test
 	public void gaussian_U8() {
 		ImageUInt8 input = new ImageUInt8(width,height);
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt16;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplMedianHistogramConstant {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compareToSort_U8() {
+		ImageUInt8 image = new ImageUInt8(20,30);
+		ImageMiscOps.fillUniform(image, rand, 0, 255);
+
+		ImageUInt8 found = new ImageUInt8( image.width , image.height );
+		ImageUInt8 expected = new ImageUInt8( image.width , image.height );
+
+		BoofTesting.checkSubImage(this, "compareToSort", true, image, found, expected);
+	}
+
+	public void compareToSort(ImageUInt8 image, ImageUInt8 found, ImageUInt8 expected) {
+		ImplMedianHistogramConstant alg = new ImplMedianHistogramConstant();
+		for( int radius = 1; radius <= 12; radius++ ) {
+			ImplMedianSortNaive.process(image,expected,radius,null);
+			alg.process(image,found,radius);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	@Test
+	public void compareToSort_U16() {
+		ImageUInt16 image = new ImageUInt16(20,30);
+
+		ImageUInt16 found = new ImageUInt16( image.width , image.height );
+		ImageUInt16 expected = new ImageUInt16( image.width , image.height );
+
+		// the number of levels depends on the largest value
+		for( int max : new int[]{1,100,4000,65535}) {
+			ImageMiscOps.fillUniform(image, rand, 0, max);
+			BoofTesting.checkSubImage(this, "compareToSort", true, image, found, expected);
+		}
+	}
+
+	public void compareToSort(ImageUInt16 image, ImageUInt16 found, ImageUInt16 expected) {
+		ImplMedianHistogramConstant alg = new ImplMedianHistogramConstant();
+		for( int radius = 1; radius <= 12; radius += 3 ) {
+			ImplMedianSortNaive.process(image,expected,radius,null);
+			alg.process(image,found,radius);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	@Test
+	public void compareToSort_F32() {
+		ImageFloat32 image = new ImageFloat32(20,30);
+		ImageMiscOps.fillUniform(image, rand, -10, 10);
+
+		ImageFloat32 found = new ImageFloat32( image.width , image.height );
+		ImageFloat32 expected = new ImageFloat32( image.width , image.height );
+
+		BoofTesting.checkSubImage(this, "compareToSort", true, image, found, expected);
+	}
+
+	public void compareToSort(ImageFloat32 image, ImageFloat32 found, ImageFloat32 expected) {
+		ImplMedianHistogramConstant alg = new ImplMedianHistogramConstant();
+		for( int radius = 1; radius <= 12; radius += 3 ) {
+			ImplMedianSortNaive.process(image,expected,radius,null);
+			assertTrue(alg.process(image, found, radius, false));
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	/**
+	 * Large image where the number of unique values is less than the number of levels
+	 */
+	@Test
+	public void manyPixelsFewValues_F32() {
+		ImageFloat32 image = new ImageFloat32(300,300);
+		for( int i = 0; i < image.data.length; i++ )
+			image.data[i] = rand.nextInt(5000)*0.1f;
+
+		ImageFloat32 found = new ImageFloat32( image.width , image.height );
+		ImageFloat32 expected = new ImageFloat32( image.width , image.height );
+
+		ImplMedianSortNaive.process(image,expected,3,null);
+		assertTrue(new ImplMedianHistogramConstant().process(image, found, 3, false));
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	/**
+	 * Images with more unique values than levels are either not processed or quantized
+	 */
+	@Test
+	public void tooManyValues_F32() {
+		ImageFloat32 image = new ImageFloat32(300,300);
+		ImageMiscOps.fillUniform(image, rand, 0, 1);
+
+		ImageFloat32 found = new ImageFloat32( image.width , image.height );
+		ImageFloat32 expected = new ImageFloat32( image.width , image.height );
+
+		ImplMedianHistogramConstant alg = new ImplMedianHistogramConstant();
+		assertFalse(alg.process(image, found, 2, false));
+		assertTrue(alg.process(image, found, 2, true));
+
+		ImplMedianSortNaive.process(image,expected,2,null);
+
+		// each level contains one or two pixels so the error should be about the same as the gap between
+		// adjacent values
+		BoofTesting.assertEquals(expected,found,1e-3);
+	}
+
+	@Test
+	public void isExact() {
+		ImplMedianHistogramConstant alg = new ImplMedianHistogramConstant();
+
+		// small images always have few enough values
+		ImageFloat32 image = new ImageFloat32(300,300);
+		ImageMiscOps.fillUniform(image, rand, 0, 1);
+		assertTrue(alg.isExact(image.subimage(0,0,300,200,null)));
+		assertFalse(alg.isExact(image));
+
+		// exactly the maximum number of unique values, plus repeats
+		for( int i = 0; i < image.data.length; i++ )
+			image.data[i] = i % (1 << ImplMedianHistogramConstant.MAX_BITS);
+		assertTrue(alg.isExact(image));
+		image.data[5] = -1;
+		assertFalse(alg.isExact(image));
+
+		// positive and negative zero are different values, all NaN are the same value
+		for( int i = 0; i < image.data.length; i++ )
+			image.data[i] = i % ((1 << ImplMedianHistogramConstant.MAX_BITS) - 2) + 1;
+		image.data[0] = 0;
+		image.data[1] = Float.NaN;
+		image.data[2] = Float.intBitsToFloat(0x7fc00001);
+		assertTrue(alg.isExact(image));
+		image.data[3] = -0.0f;
+		assertFalse(alg.isExact(image));
+	}
+
+	/**
+	 * The strip width has to grow with the radius when there are many levels
+	 */
+	@Test
+	public void multipleStrips_largeRadius() {
+		ImplMedianHistogramConstant alg = new ImplMedianHistogramConstant(1 << 18);
+
+		ImageUInt16 image = new ImageUInt16(60,20);
+		ImageMiscOps.fillUniform(image, rand, 0, 65535);
+
+		ImageUInt16 found = new ImageUInt16( image.width , image.height );
+		ImageUInt16 expected = new ImageUInt16( image.width , image.height );
+
+		ImplMedianSortNaive.process(image,expected,8,null);
+		alg.process(image,found,8);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	/**
+	 * Force the image to be processed in multiple strips
+	 */
+	@Test
+	public void multipleStrips() {
+		ImplMedianHistogramConstant alg = new ImplMedianHistogramConstant(256*20);
+
+		ImageUInt8 image = new ImageUInt8(75,30);
+		ImageMiscOps.fillUniform(image, rand, 0, 255);
+
+		ImageUInt8 found = new ImageUInt8( image.width , image.height );
+		ImageUInt8 expected = new ImageUInt8( image.width , image.height );
+
+		for( int radius = 1; radius <= 5; radius += 2 ) {
+			ImplMedianSortNaive.process(image,expected,radius,null);
+			alg.process(image,found,radius);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	/**
+	 * The radius is larger than the image
+	 */
+	@Test
+	public void largeRadius() {
+		ImageUInt8 image = new ImageUInt8(7,9);
+		ImageMiscOps.fillUniform(image, rand, 0, 255);
+
+		ImageUInt8 found = new ImageUInt8( image.width , image.height );
+		ImageUInt8 expected = new ImageUInt8( image.width , image.height );
+
+		ImplMedianSortNaive.process(image,expected,12,null);
+		new ImplMedianHistogramConstant().process(image,found,12);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+}
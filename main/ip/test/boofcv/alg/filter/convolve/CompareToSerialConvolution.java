@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.convolve.Kernel1D_F64;
+import boofcv.struct.convolve.Kernel2D_F64;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.testing.BoofTesting;
+
+/**
+ * Compares a concurrent implementation against its single threaded counterpart.  The results must be identical.
+ *
+ * @author Peter Abeles
+ */
+public class CompareToSerialConvolution extends CompareToStandardConvolution {
+
+	public CompareToSerialConvolution(Class<?> targetClass, Class<?> serialClass) {
+		super(targetClass, serialClass);
+		// make it tall enough that the rows are split up between several threads
+		height = 150;
+	}
+
+	/**
+	 * The concurrent implementations also have double precision functions
+	 */
+	@Override
+	protected Object createKernel( Class<?> type ) {
+		if (Kernel1D_F64.class == type) {
+			return FactoryKernel.random1D_F64(kernelRadius, -1, 1, rand);
+		} else if (Kernel2D_F64.class == type) {
+			return FactoryKernel.random2D_F64(kernelRadius, 0, 5, rand);
+		} else {
+			return super.createKernel(type);
+		}
+	}
+
+	@Override
+	protected void compareResults(Object targetResult, Object[] targetParam, Object validationResult, Object[] validationParam) {
+		for( int i = 0; i < targetParam.length; i++ ) {
+			if( !(targetParam[i] instanceof ImageSingleBand) )
+				continue;
+
+			BoofTesting.assertEquals((ImageSingleBand)validationParam[i],(ImageSingleBand)targetParam[i], 0);
+		}
+	}
+}
@@ -48,6 +48,10 @@ public class CompareToStandardConvolution extends CompareIdenticalFunctions
 		super(targetClass, ConvolveImageStandard.class);
 	}
 
+	public CompareToStandardConvolution( Class<?> targetClass , Class<?> validationClass ) {
+		super(targetClass, validationClass);
+	}
+
 	public void compareMethod( Method target , String validationName , int radius ) {
 		this.kernelRadius = radius;
 		super.compareMethod(target,validationName);
@@ -57,18 +61,7 @@ public class CompareToStandardConvolution extends CompareIdenticalFunctions
 	protected Object[][] createInputParam(Method candidate, Method validation) {
 		Class<?> paramTypes[] = candidate.getParameterTypes();
 
-		Object kernel;
-		if (Kernel1D_F32.class == paramTypes[0]) {
-			kernel = FactoryKernel.random1D_F32(kernelRadius, -1, 1, rand);
-		} else if (Kernel1D_I32.class == paramTypes[0]) {
-			kernel = FactoryKernel.random1D_I32(kernelRadius, 0, 5, rand);
-		} else if (Kernel2D_I32.class == paramTypes[0]) {
-			kernel = FactoryKernel.random2D_I32(kernelRadius, -1, 1, rand);
-		} else if (Kernel2D_F32.class == paramTypes[0]) {
-			kernel = FactoryKernel.random2D_F32(kernelRadius, 0, 5, rand);
-		} else {
-			throw new RuntimeException("Unknown kernel type");
-		}
+		Object kernel = createKernel(paramTypes[0]);
 
 		ImageSingleBand src = ConvolutionTestHelper.createImage(paramTypes[1], width, height);
 		GImageMiscOps.fillUniform(src, rand, 0, 130);
@@ -102,4 +95,18 @@ public class CompareToStandardConvolution extends CompareIdenticalFunctions
 			return ret;
 		}
 	}
+
+	protected Object createKernel( Class<?> type ) {
+		if (Kernel1D_F32.class == type) {
+			return FactoryKernel.random1D_F32(kernelRadius, -1, 1, rand);
+		} else if (Kernel1D_I32.class == type) {
+			return FactoryKernel.random1D_I32(kernelRadius, 0, 5, rand);
+		} else if (Kernel2D_I32.class == type) {
+			return FactoryKernel.random2D_I32(kernelRadius, -1, 1, rand);
+		} else if (Kernel2D_F32.class == type) {
+			return FactoryKernel.random2D_F32(kernelRadius, 0, 5, rand);
+		} else {
+			throw new RuntimeException("Unknown kernel type");
+		}
+	}
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.junit.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvolveImageNoBorder_MT {
+
+	@Test
+	public void compareToStandard() {
+		CompareToStandardConvolution a = new CompareToStandardConvolution(ConvolveImageNoBorder_MT.class);
+		a.performTests(20);
+	}
+
+	@Test
+	public void compareToSingleThread() {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			CompareToSerialConvolution a = new CompareToSerialConvolution(ConvolveImageNoBorder_MT.class,ConvolveImageNoBorder.class);
+			a.performTests(20);
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+}
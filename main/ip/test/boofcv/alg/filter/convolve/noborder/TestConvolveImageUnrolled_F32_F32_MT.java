@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve.noborder;
+
+import boofcv.alg.filter.convolve.CompareToSerialConvolution;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.image.ImageFloat32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvolveImageUnrolled_F32_F32_MT {
+	CompareToSerialConvolution compareToSerial = new CompareToSerialConvolution(ConvolveImageUnrolled_F32_F32_MT.class,ConvolveImageUnrolled_F32_F32.class);
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	@Test
+	public void convolve() throws NoSuchMethodException {
+		for (int i = 0; i < GenerateConvolvedUnrolled.numUnrolled; i++) {
+			Method m = ConvolveImageUnrolled_F32_F32_MT.class.getMethod("convolve",
+					Kernel2D_F32.class, ImageFloat32.class, ImageFloat32.class );
+
+			compareToSerial.compareMethod(m, "convolve", i + 1);
+		}
+	}
+
+	@Test
+	public void horizontal() throws NoSuchMethodException {
+		for (int i = 0; i < GenerateConvolvedUnrolled.numUnrolled; i++) {
+			Method m = ConvolveImageUnrolled_F32_F32_MT.class.getMethod("horizontal",
+					Kernel1D_F32.class, ImageFloat32.class, ImageFloat32.class, boolean.class);
+
+			compareToSerial.compareMethod(m, "horizontal", i + 1);
+		}
+	}
+
+	@Test
+	public void vertical() throws NoSuchMethodException {
+		for (int i = 0; i < GenerateConvolvedUnrolled.numUnrolled; i++) {
+			Method m = ConvolveImageUnrolled_F32_F32_MT.class.getMethod("vertical",
+					Kernel1D_F32.class, ImageFloat32.class, ImageFloat32.class, boolean.class);
+
+			compareToSerial.compareMethod(m, "vertical", i + 1);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.derivative;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.ImageBorder_F32;
+import boofcv.core.image.border.ImageBorder_I32;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSInt16;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGradientSobel_MT {
+	Random rand = new Random(234);
+
+	int width = 20;
+	int height = 25;
+
+	int before;
+
+	@Before
+	public void setThreads() {
+		before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void restoreThreads() {
+		BoofConcurrency.setMaxThreads(before);
+	}
+
+	@Test
+	public void compareToConvolve_I8() throws NoSuchMethodException {
+		CompareDerivativeToConvolution validator = new CompareDerivativeToConvolution();
+		validator.setTarget(GradientSobel_MT.class.getMethod("process",
+				ImageUInt8.class, ImageSInt16.class, ImageSInt16.class, ImageBorder_I32.class ));
+
+		validator.setKernel(0,GradientSobel.kernelDerivX_I32);
+		validator.setKernel(1,GradientSobel.kernelDerivY_I32);
+
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 10);
+		ImageSInt16 derivX = new ImageSInt16(width,height);
+		ImageSInt16 derivY = new ImageSInt16(width,height);
+
+		validator.compare(input,derivX,derivY);
+	}
+
+	@Test
+	public void compareToConvolve_I16() throws NoSuchMethodException {
+		CompareDerivativeToConvolution validator = new CompareDerivativeToConvolution();
+		validator.setTarget(GradientSobel_MT.class.getMethod("process",
+				ImageSInt16.class, ImageSInt16.class, ImageSInt16.class, ImageBorder_I32.class ));
+
+		validator.setKernel(0,GradientSobel.kernelDerivX_I32);
+		validator.setKernel(1,GradientSobel.kernelDerivY_I32);
+
+		ImageSInt16 input = new ImageSInt16(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 10);
+		ImageSInt16 derivX = new ImageSInt16(width,height);
+		ImageSInt16 derivY = new ImageSInt16(width,height);
+
+		validator.compare(input,derivX,derivY);
+	}
+
+	@Test
+	public void compareToConvolve_F32() throws NoSuchMethodException {
+		CompareDerivativeToConvolution validator = new CompareDerivativeToConvolution();
+		validator.setTarget(GradientSobel_MT.class.getMethod("process",
+				ImageFloat32.class, ImageFloat32.class, ImageFloat32.class, ImageBorder_F32.class));
+
+		validator.setKernel(0,GradientSobel.kernelDerivX_F32);
+		validator.setKernel(1,GradientSobel.kernelDerivY_F32);
+
+		ImageFloat32 input = new ImageFloat32(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 10);
+		ImageFloat32 derivX = new ImageFloat32(width,height);
+		ImageFloat32 derivY = new ImageFloat32(width,height);
+
+		validator.compare(input,derivX,derivY);
+	}
+
+	/**
+	 * Output should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingleThread() {
+		ImageUInt8 input = new ImageUInt8(60,83);
+		ImageMiscOps.fillUniform(input, rand, 0, 200);
+		ImageSInt16 expectedX = new ImageSInt16(60,83);
+		ImageSInt16 expectedY = new ImageSInt16(60,83);
+		ImageSInt16 foundX = new ImageSInt16(60,83);
+		ImageSInt16 foundY = new ImageSInt16(60,83);
+
+		GradientSobel.process(input,expectedX,expectedY,(ImageBorder_I32)FactoryImageBorder.general(input, BorderType.EXTENDED));
+		GradientSobel_MT.process(input,foundX,foundY,(ImageBorder_I32)FactoryImageBorder.general(input, BorderType.EXTENDED));
+
+		BoofTesting.assertEquals(expectedX,foundX,0);
+		BoofTesting.assertEquals(expectedY,foundY,0);
+
+		ImageFloat32 inputF = new ImageFloat32(60,83);
+		ImageMiscOps.fillUniform(inputF, rand, 0, 200);
+		ImageFloat32 expectedXF = new ImageFloat32(60,83);
+		ImageFloat32 expectedYF = new ImageFloat32(60,83);
+		ImageFloat32 foundXF = new ImageFloat32(60,83);
+		ImageFloat32 foundYF = new ImageFloat32(60,83);
+
+		GradientSobel.process(inputF,expectedXF,expectedYF,null);
+		GradientSobel_MT.process(inputF,foundXF,foundYF,null);
+
+		BoofTesting.assertEquals(expectedXF,foundXF,0);
+		BoofTesting.assertEquals(expectedYF,foundYF,0);
+	}
+}
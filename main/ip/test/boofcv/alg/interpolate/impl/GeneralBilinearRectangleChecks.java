@@ -142,6 +142,32 @@ public abstract class GeneralBilinearRectangleChecks<T extends ImageSingleBand>
 			}
 		}
 	}
+
+	/**
+	 * The copy should produce identical results and not share the image
+	 */
+	@Test
+	public void checkCopy() {
+		T img = createImage(width, height);
+		GImageMiscOps.fillUniform(img, rand, 0, 200);
+
+		InterpolateRectangle<T> interpA = createRectangleInterpolate();
+		interpA.setImage(img);
+
+		InterpolateRectangle<T> interpB = interpA.copy();
+		assertTrue(interpA != interpB);
+		assertTrue(interpB.getImage() == null);
+		interpB.setImage(img);
+
+		ImageFloat32 outA = new ImageFloat32(20,25);
+		ImageFloat32 outB = new ImageFloat32(20,25);
+
+		interpA.region(5.4f, 8.6f, outA );
+		interpB.region(5.4f, 8.6f, outB );
+
+		BoofTesting.assertEquals(outA, outB, 0);
+	}
+
 	/**
 	 * Compare region against the value returned by get ImplBilinearPixel_F32
 	 */
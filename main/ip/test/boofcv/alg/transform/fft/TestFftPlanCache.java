@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.transform.fft;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFftPlanCache {
+
+	Random rand = new Random(234);
+
+	int maxSize;
+
+	@Before
+	public void before() {
+		maxSize = FftPlanCache.getMaxSize();
+		FftPlanCache.clear();
+	}
+
+	@After
+	public void after() {
+		FftPlanCache.setMaxSize(maxSize);
+		FftPlanCache.clear();
+	}
+
+	/**
+	 * Each lookup should return a new instance which produces the same results as a freshly declared transform
+	 */
+	@Test
+	public void lookupF32() {
+		for( int n : new int[]{16,100,422} ) {
+			assertFalse(FftPlanCache.contains(n, false));
+			GeneralPurposeFFT_F32_1D a = FftPlanCache.lookupF32(n);
+			assertTrue(FftPlanCache.contains(n, false));
+			assertFalse(FftPlanCache.contains(n, true));
+			GeneralPurposeFFT_F32_1D b = FftPlanCache.lookupF32(n);
+			assertTrue(a != b);
+			assertEquals(n, b.getSize());
+
+			float input[] = new float[2*n];
+			for( int i = 0; i < input.length; i++ ) {
+				input[i] = (float)rand.nextGaussian();
+			}
+			float expected[] = input.clone();
+			float found[] = input.clone();
+			new GeneralPurposeFFT_F32_1D(n).complexForward(expected);
+			b.complexForward(found);
+
+			for( int i = 0; i < input.length; i++ ) {
+				assertEquals(expected[i], found[i], 0);
+			}
+		}
+	}
+
+	@Test
+	public void lookupF64() {
+		for( int n : new int[]{16,100,422} ) {
+			assertFalse(FftPlanCache.contains(n, true));
+			GeneralPurposeFFT_F64_1D a = FftPlanCache.lookupF64(n);
+			assertTrue(FftPlanCache.contains(n, true));
+			assertFalse(FftPlanCache.contains(n, false));
+			GeneralPurposeFFT_F64_1D b = FftPlanCache.lookupF64(n);
+			assertTrue(a != b);
+			assertEquals(n, b.getSize());
+
+			double input[] = new double[2*n];
+			for( int i = 0; i < input.length; i++ ) {
+				input[i] = rand.nextGaussian();
+			}
+			double expected[] = input.clone();
+			double found[] = input.clone();
+			new GeneralPurposeFFT_F64_1D(n).complexForward(expected);
+			b.complexForward(found);
+
+			for( int i = 0; i < input.length; i++ ) {
+				assertEquals(expected[i], found[i], 0);
+			}
+		}
+	}
+
+	/**
+	 * The least recently used plan should be discarded
+	 */
+	@Test
+	public void setMaxSize() {
+		FftPlanCache.setMaxSize(2);
+
+		FftPlanCache.lookupF32(10);
+		FftPlanCache.lookupF32(20);
+		FftPlanCache.lookupF32(10);
+		FftPlanCache.lookupF32(30);
+
+		assertTrue(FftPlanCache.contains(10, false));
+		assertFalse(FftPlanCache.contains(20, false));
+		assertTrue(FftPlanCache.contains(30, false));
+
+		FftPlanCache.setMaxSize(1);
+		assertFalse(FftPlanCache.contains(10, false));
+		assertTrue(FftPlanCache.contains(30, false));
+
+		FftPlanCache.setMaxSize(0);
+		FftPlanCache.lookupF32(10);
+		assertFalse(FftPlanCache.contains(10, false));
+	}
+
+	@Test
+	public void clear() {
+		FftPlanCache.lookupF32(10);
+		FftPlanCache.lookupF64(10);
+		FftPlanCache.clear();
+		assertFalse(FftPlanCache.contains(10, false));
+		assertFalse(FftPlanCache.contains(10, true));
+	}
+}
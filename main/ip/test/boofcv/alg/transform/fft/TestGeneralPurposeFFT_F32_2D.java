@@ -18,12 +18,16 @@
 
 package boofcv.alg.transform.fft;
 
+import boofcv.concurrency.BoofConcurrency;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Random;
 
 import static boofcv.alg.transform.fft.TestGeneralPurposeFFT_F32_1D.checkForChange;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -36,6 +40,19 @@ public class TestGeneralPurposeFFT_F32_2D {
 
 	int sizes[] = new int[]{1,2,3,16,32,100,103};
 
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
 	@Test
 	public void realFull() {
 		for( int i = 0; i < sizes.length; i++ ) {
@@ -114,4 +131,68 @@ public class TestGeneralPurposeFFT_F32_2D {
 		}
 	}
 
+	/**
+	 * The concurrent transform should produce exactly the same results as the single threaded transform
+	 */
+	@Test
+	public void concurrent() {
+		int sizes[] = new int[]{1,2,4,8,64,100,103};
+
+		for( int i = 0; i < sizes.length; i++ ) {
+			for( int j = 0; j < sizes.length; j++ ) {
+				checkConcurrent(sizes[i], sizes[j]);
+			}
+		}
+		checkConcurrent(323,768);
+	}
+
+	private void checkConcurrent(int numRows, int numColumns) {
+		GeneralPurposeFFT_F32_2D single = new GeneralPurposeFFT_F32_2D(numRows,numColumns,false);
+		GeneralPurposeFFT_F32_2D multi = new GeneralPurposeFFT_F32_2D(numRows,numColumns,true);
+		assertTrue(multi.isConcurrent());
+
+		float input[] = new float[numRows*numColumns*2];
+		for( int i = 0; i < input.length; i++ ) {
+			input[i] = (float)rand.nextGaussian();
+		}
+
+		float expected[] = input.clone();
+		float found[] = input.clone();
+		single.complexForward(expected);
+		multi.complexForward(found);
+		checkIdentical(expected, found);
+		single.complexInverse(expected, true);
+		multi.complexInverse(found, true);
+		checkIdentical(expected, found);
+
+		expected = input.clone();
+		found = input.clone();
+		single.realForwardFull(expected);
+		multi.realForwardFull(found);
+		checkIdentical(expected, found);
+
+		expected = input.clone();
+		found = input.clone();
+		single.realInverseFull(expected, true);
+		multi.realInverseFull(found, true);
+		checkIdentical(expected, found);
+
+		if( numRows > 1 && numColumns > 1 &&
+				DiscreteFourierTransformOps.isPowerOf2(numRows) && DiscreteFourierTransformOps.isPowerOf2(numColumns)) {
+			expected = input.clone();
+			found = input.clone();
+			single.realForward(expected);
+			multi.realForward(found);
+			checkIdentical(expected, found);
+			single.realInverse(expected, true);
+			multi.realInverse(found, true);
+			checkIdentical(expected, found);
+		}
+	}
+
+	private void checkIdentical( float[] expected , float[] found ) {
+		for( int i = 0; i < expected.length; i++ ) {
+			assertEquals(expected[i], found[i], 0);
+		}
+	}
 }
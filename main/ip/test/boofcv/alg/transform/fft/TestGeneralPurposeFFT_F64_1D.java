@@ -153,4 +153,41 @@ public class TestGeneralPurposeFFT_F64_1D {
 			assertEquals(original[i*2+1],input[i*2+1],1e-8);
 		}
 	}
+
+	/**
+	 * An instance which references the tables of another instance should produce identical results
+	 */
+	@Test
+	public void copyConstructor() {
+		// 422 is transformed using Bluestein's algorithm
+		int sizes[] = new int[]{1,2,3,16,32,100,103,422};
+
+		for( int i = 0; i < sizes.length; i++ ) {
+			int n = sizes[i];
+			GeneralPurposeFFT_F64_1D original = new GeneralPurposeFFT_F64_1D(n);
+			GeneralPurposeFFT_F64_1D copy = new GeneralPurposeFFT_F64_1D(original);
+			assertEquals(n, copy.getSize());
+
+			double input[] = new double[n*2];
+			for( int j = 0; j < input.length; j++ ) {
+				input[j] = rand.nextGaussian();
+			}
+
+			double expected[] = input.clone();
+			double found[] = input.clone();
+			original.complexForward(expected);
+			copy.complexForward(found);
+			for( int j = 0; j < input.length; j++ ) {
+				assertEquals(expected[j], found[j], 0);
+			}
+
+			expected = input.clone();
+			found = input.clone();
+			original.realForwardFull(expected);
+			copy.realForwardFull(found);
+			for( int j = 0; j < input.length; j++ ) {
+				assertEquals(expected[j], found[j], 0);
+			}
+		}
+	}
 }
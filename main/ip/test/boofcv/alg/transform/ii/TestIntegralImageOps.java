@@ -41,6 +41,15 @@ public class TestIntegralImageOps {
 		assertEquals(expected, found);
 	}
 
+	@Test
+	public void transformDouble() {
+		int expected = countName("transformDouble",IntegralImageOps.class);
+		int found = countName("transformDouble",ImplIntegralImageOps.class);
+
+		assertTrue(found != 0 );
+		assertEquals(expected, found);
+	}
+
 	@Test
 	public void convolve() {
 		int expected = countName("convolve",IntegralImageOps.class);
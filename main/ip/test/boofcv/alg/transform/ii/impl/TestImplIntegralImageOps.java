@@ -30,6 +30,8 @@ import boofcv.core.image.border.FactoryImageBorderAlgs;
 import boofcv.core.image.border.ImageBorder_I32;
 import boofcv.struct.ImageRectangle;
 import boofcv.struct.convolve.Kernel2D_I32;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageFloat64;
 import boofcv.struct.image.ImageSInt32;
 import boofcv.struct.image.ImageSingleBand;
 import boofcv.struct.image.ImageUInt8;
@@ -59,6 +61,11 @@ public class TestImplIntegralImageOps {
 		Assert.assertEquals(5, numFound);
 	}
 
+	@Test
+	public void transformDouble() throws NoSuchMethodException {
+		transform(ImplIntegralImageOps.class.getMethod("transformDouble",ImageFloat32.class,ImageFloat64.class));
+	}
+
 	public void transform( Method m ) {
 		Class paramType[] = m.getParameterTypes();
 		Class inputType = paramType[0];
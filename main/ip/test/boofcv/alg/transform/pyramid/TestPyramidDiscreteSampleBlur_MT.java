@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.struct.pyramid.ImagePyramid;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPyramidDiscreteSampleBlur_MT extends GenericPyramidTests<ImageFloat32> {
+
+	public TestPyramidDiscreteSampleBlur_MT() {
+		super(ImageFloat32.class);
+	}
+
+	/**
+	 * Every layer should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingleThread() {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			compareToSingleThread(ImageFloat32.class, true, 1, 2, 4, 8);
+			compareToSingleThread(ImageFloat32.class, false, 2, 4);
+			compareToSingleThread(ImageUInt8.class, true, 1, 2, 4, 8);
+			compareToSingleThread(ImageUInt8.class, false, 2, 6);
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	private <I extends ImageSingleBand>
+	void compareToSingleThread( Class<I> imageType , boolean saveOriginal , int... scales ) {
+		Class<Kernel1D> kernelType = FactoryKernel.getKernelType(imageType, 1);
+		Kernel1D kernel = FactoryKernelGaussian.gaussian(kernelType, -1, 2);
+
+		I input = GeneralizedImageOps.createSingleBand(imageType, 213, 157);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		PyramidDiscreteSampleBlur<I> expected =
+				new PyramidDiscreteSampleBlur<I>(kernel, 2, imageType, saveOriginal, scales);
+		PyramidDiscreteSampleBlur_MT<I> found =
+				new PyramidDiscreteSampleBlur_MT<I>(kernel, 2, imageType, saveOriginal, scales);
+
+		expected.process(input);
+		found.process(input);
+
+		for( int i = 0; i < scales.length; i++ ) {
+			BoofTesting.assertEquals(expected.getLayer(i), found.getLayer(i), 0);
+		}
+	}
+
+	@Override
+	protected ImagePyramid<ImageFloat32> createPyramid(int... scales) {
+		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1,3);
+		return new PyramidDiscreteSampleBlur_MT<ImageFloat32>(kernel,3,ImageFloat32.class,true,new int[]{1,2,4});
+	}
+}
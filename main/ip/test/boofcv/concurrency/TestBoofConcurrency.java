@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.concurrency;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBoofConcurrency {
+
+	/**
+	 * Every element should be processed exactly once and all the blocks should be contiguous
+	 */
+	@Test
+	public void loopBlocks_coverage() {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			for( int length = 0; length < 30; length++ ) {
+				final int counts[] = new int[length+5];
+				BoofConcurrency.loopBlocks(5,5+length,new IntRangeTask() {
+					@Override
+					public void process(int minInclusive, int maxExclusive) {
+						for( int i = minInclusive; i < maxExclusive; i++ )
+							counts[i]++;
+					}
+				});
+				for( int i = 0; i < counts.length; i++ ) {
+					assertEquals(i < 5 ? 0 : 1, counts[i]);
+				}
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	@Test
+	public void loopBlocks_minBlock() {
+		assertEquals(1,BoofConcurrency.computeNumBlocks(10,20));
+		assertEquals(1,BoofConcurrency.computeNumBlocks(0,20));
+		assertTrue(BoofConcurrency.computeNumBlocks(1000,1) <= BoofConcurrency.getMaxThreads());
+	}
+
+	/**
+	 * Loops inside of loops should be run on the thread which invoked them
+	 */
+	@Test
+	public void loopBlocks_nested() {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(2);
+		try {
+			final int counts[] = new int[100];
+			BoofConcurrency.loopBlocks(0,10,new IntRangeTask() {
+				@Override
+				public void process(int minInclusive, int maxExclusive) {
+					assertTrue(BoofConcurrency.isInsideLoop());
+					for( int i = minInclusive; i < maxExclusive; i++ ) {
+						final int row = i;
+						final Thread outer = Thread.currentThread();
+						BoofConcurrency.loopBlocks(0,10,new IntRangeTask() {
+							@Override
+							public void process(int minInclusive, int maxExclusive) {
+								assertTrue(outer == Thread.currentThread());
+								for( int j = minInclusive; j < maxExclusive; j++ )
+									counts[row*10+j]++;
+							}
+						});
+					}
+				}
+			});
+			for( int i = 0; i < counts.length; i++ )
+				assertEquals(1,counts[i]);
+			assertFalse(BoofConcurrency.isInsideLoop());
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	/**
+	 * Exceptions thrown inside of a worker thread should be passed to the caller
+	 */
+	@Test
+	public void loopBlocks_exception() {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(2);
+		try {
+			BoofConcurrency.loopBlocks(0,10,new IntRangeTask() {
+				@Override
+				public void process(int minInclusive, int maxExclusive) {
+					if( minInclusive > 0 )
+						throw new IllegalArgumentException("Oh no");
+				}
+			});
+			fail("Exception should have been thrown");
+		} catch( IllegalArgumentException ignore ) {
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	/**
+	 * If the calling thread fails then its exception should be thrown, after the workers are done
+	 */
+	@Test
+	public void loopBlocks_callerException() {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(2);
+		final AtomicBoolean workerDone = new AtomicBoolean(false);
+		try {
+			BoofConcurrency.loopBlocks(0,10,new IntRangeTask() {
+				@Override
+				public void process(int minInclusive, int maxExclusive) {
+					if( minInclusive > 0 ) {
+						workerDone.set(true);
+						throw new IllegalStateException("Worker");
+					}
+					throw new IllegalArgumentException("Caller");
+				}
+			});
+			fail("Exception should have been thrown");
+		} catch( IllegalArgumentException ignore ) {
+			assertTrue(workerDone.get());
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	/**
+	 * Changing the number of threads while other threads are running loops should not cause them to fail
+	 */
+	@Test
+	public void setMaxThreads_whileLooping() throws InterruptedException {
+		int before = BoofConcurrency.getMaxThreads();
+		final AtomicBoolean running = new AtomicBoolean(true);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread looper = new Thread() {
+			@Override
+			public void run() {
+				try {
+					while( running.get() ) {
+						final int counts[] = new int[50];
+						BoofConcurrency.loopBlocks(0,counts.length,new IntRangeTask() {
+							@Override
+							public void process(int minInclusive, int maxExclusive) {
+								for( int i = minInclusive; i < maxExclusive; i++ )
+									counts[i]++;
+							}
+						});
+						for( int i = 0; i < counts.length; i++ )
+							assertEquals(1,counts[i]);
+					}
+				} catch( Throwable e ) {
+					failure.set(e);
+				}
+			}
+		};
+		looper.start();
+		try {
+			for( int i = 0; i < 2000 && failure.get() == null; i++ ) {
+				BoofConcurrency.setMaxThreads(2 + i%3);
+			}
+		} finally {
+			running.set(false);
+			looper.join();
+			BoofConcurrency.setMaxThreads(before);
+		}
+		assertNull(failure.get());
+	}
+
+	@Test
+	public void blockStart() {
+		assertEquals(2,BoofConcurrency.blockStart(2,12,3,0));
+		assertEquals(5,BoofConcurrency.blockStart(2,12,3,1));
+		assertEquals(8,BoofConcurrency.blockStart(2,12,3,2));
+		assertEquals(12,BoofConcurrency.blockStart(2,12,3,3));
+	}
+}
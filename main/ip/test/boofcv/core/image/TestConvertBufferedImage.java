@@ -21,6 +21,7 @@ package boofcv.core.image;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.misc.ImageInterleavedTestingOps;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.*;
 import boofcv.testing.BoofTesting;
 import org.junit.Test;
@@ -315,6 +316,71 @@ public class TestConvertBufferedImage {
 		}
 	}
 
+	@Test
+	public void convertFromInterleaved() {
+		int types[] = new int[]{BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+				BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_BGR, BufferedImage.TYPE_INT_ARGB,
+				BufferedImage.TYPE_BYTE_INDEXED};
+
+		for( int type : types ) {
+			BufferedImage origImg = TestConvertRaster.createByteBuffByType(imgWidth, imgHeight, type, rand);
+
+			for( int j = 0; j < 2; j++ ) {
+				if( j == 1 ) {
+					origImg = origImg.getSubimage(1,2,imgWidth-1,imgHeight-2);
+				}
+
+				InterleavedU8 found = ConvertBufferedImage.convertFromInterleaved(origImg, null, true, false);
+				assertEquals(origImg.getWidth(), found.width);
+				assertEquals(origImg.getHeight(), found.height);
+
+				for( int y = 0; y < found.height; y++ ) {
+					for( int x = 0; x < found.width; x++ ) {
+						int argb = origImg.getRGB(x,y);
+						assertEquals((argb >>> 16) & 0xFF, found.getBand(x,y,0));
+						assertEquals((argb >>> 8) & 0xFF, found.getBand(x,y,1));
+						assertEquals(argb & 0xFF, found.getBand(x,y,2));
+						if( found.numBands == 4 )
+							assertEquals(argb >>> 24, found.getBand(x,y,3));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Converting with and without threads should produce the same results
+	 */
+	@Test
+	public void convertFrom_concurrent() {
+		int types[] = new int[]{BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_BYTE_GRAY,
+				BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_BYTE_INDEXED};
+
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			for( int type : types ) {
+				BufferedImage origImg = TestConvertRaster.createByteBuffByType(40, 90, type, rand);
+				int numBands = type == BufferedImage.TYPE_BYTE_INDEXED ? 3 : origImg.getRaster().getNumBands();
+
+				ImageBase images[] = new ImageBase[]{new ImageUInt8(40,90),new ImageFloat32(40,90),
+						new MultiSpectral<ImageUInt8>(ImageUInt8.class,40,90,numBands),
+						new InterleavedU8(40,90,numBands)};
+
+				for( ImageBase expected : images ) {
+					ImageBase found = expected._createNew(40,90);
+
+					ConvertBufferedImage.convertFrom(origImg, expected, true, false);
+					ConvertBufferedImage.convertFrom(origImg, found, true, true);
+
+					BoofTesting.assertEquals(expected, found, 1e-4);
+				}
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
 	/**
 	 * Create an image and convert it into a buffered image
 	 */
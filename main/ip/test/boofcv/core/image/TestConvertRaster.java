@@ -19,6 +19,7 @@
 package boofcv.core.image;
 
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.*;
 import boofcv.testing.BoofTesting;
 import org.junit.Test;
@@ -28,6 +29,7 @@ import sun.awt.image.ShortInterleavedRaster;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Random;
@@ -45,7 +47,7 @@ public class TestConvertRaster {
 	int imgWidth = 10;
 	int imgHeight = 20;
 
-	int numMethods = 30;
+	int numMethods = 31;
 
 	/**
 	 * Use reflections to test all the functions.
@@ -157,7 +159,9 @@ public class TestConvertRaster {
 		int numBands = inputBuff.getRaster().getNumBands();
 
 		ImageBase output;
-		if (ImageSingleBand.class.isAssignableFrom(imageType)) {
+		if (imageType == InterleavedU8.class) {
+			output = new InterleavedU8(inputBuff.getWidth(), inputBuff.getHeight(), 3);
+		} else if (ImageSingleBand.class.isAssignableFrom(imageType)) {
 			output = GeneralizedImageOps.createSingleBand(imageType, inputBuff.getWidth(), inputBuff.getHeight());
 		} else {
 			Class type;
@@ -213,7 +217,10 @@ public class TestConvertRaster {
 					BoofTesting.checkEquals(input, output, false, 1f);
 			} else {
 				m.invoke(null, input, output);
-				BoofTesting.checkEquals(input, output, false, 1f);
+				if( output instanceof InterleavedU8 )
+					checkEqualsRgb(input, (InterleavedU8) output);
+				else
+					BoofTesting.checkEquals(input, output, false, 1f);
 			}
 		} catch (IllegalAccessException e) {
 			throw new RuntimeException(e);
@@ -222,6 +229,109 @@ public class TestConvertRaster {
 		}
 	}
 
+	/**
+	 * Checks to see if the interleaved image has the same RGB values as the BufferedImage
+	 */
+	private static void checkEqualsRgb(BufferedImage expected, InterleavedU8 found) {
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				int rgb = expected.getRGB(x, y);
+
+				assertEquals((rgb >>> 16) & 0xFF, found.getBand(x, y, 0));
+				assertEquals((rgb >>> 8) & 0xFF, found.getBand(x, y, 1));
+				assertEquals(rgb & 0xFF, found.getBand(x, y, 2));
+			}
+		}
+	}
+
+	/**
+	 * Compares the functions which use {@link RasterLayout} against the values read from the raster for
+	 * the commonly used image types, sub-images, and with and without concurrency.
+	 */
+	@Test
+	public void layout_bufferedTo() {
+		int types[] = new int[]{BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+				BufferedImage.TYPE_4BYTE_ABGR_PRE, BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_INT_RGB,
+				BufferedImage.TYPE_INT_BGR, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE};
+
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			for( int type : types ) {
+				BufferedImage orig = new BufferedImage(30, 65, type);
+				randomizeRaster(orig, rand);
+
+				for( BufferedImage img : new BufferedImage[]{orig,orig.getSubimage(1,2,25,60)} ) {
+					checkLayout(img, false);
+					checkLayout(img, true);
+				}
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	private void checkLayout( BufferedImage img , boolean concurrent ) {
+		RasterLayout layout = RasterLayout.create(img);
+		assertTrue(layout != null);
+
+		int w = img.getWidth(), h = img.getHeight();
+		int n = layout.numBands;
+
+		ImageUInt8 grayU8 = new ImageUInt8(w,h);
+		ImageSInt16 grayI16 = new ImageSInt16(w,h);
+		ImageFloat32 grayF32 = new ImageFloat32(w,h);
+		MultiSpectral<ImageUInt8> msU8 = new MultiSpectral<ImageUInt8>(ImageUInt8.class,w,h,n);
+		MultiSpectral<ImageFloat32> msF32 = new MultiSpectral<ImageFloat32>(ImageFloat32.class,w,h,n);
+		InterleavedU8 inter = new InterleavedU8(w,h,n);
+		InterleavedU8 interRgb = new InterleavedU8(w,h,n);
+
+		ConvertRaster.bufferedToGray(layout, grayU8, concurrent);
+		ConvertRaster.bufferedToGray(layout, grayI16, concurrent);
+		ConvertRaster.bufferedToGray(layout, grayF32, concurrent);
+		ConvertRaster.bufferedToMulti_U8(layout, msU8, concurrent);
+		ConvertRaster.bufferedToMulti_F32(layout, msF32, concurrent);
+		ConvertRaster.bufferedToInterleaved(layout, inter, false, concurrent);
+		ConvertRaster.bufferedToInterleaved(layout, interRgb, true, concurrent);
+
+		int pixel[] = new int[n];
+		for( int y = 0; y < h; y++ ) {
+			for( int x = 0; x < w; x++ ) {
+				img.getRaster().getPixel(x,y,pixel);
+
+				int gray = layout.numColorBands == 1 ? pixel[0] : (pixel[0]+pixel[1]+pixel[2])/3;
+				float grayF = layout.numColorBands == 1 ? pixel[0] : (pixel[0]+pixel[1]+pixel[2])/3.0f;
+				assertEquals(gray, grayU8.get(x,y));
+				assertEquals(gray, grayI16.get(x,y));
+				assertEquals(grayF, grayF32.get(x,y), 1e-4f);
+
+				for( int band = 0; band < n; band++ ) {
+					int expected = pixel[layout.storageOrder[band]];
+					assertEquals(expected, msU8.getBand(band).get(x,y));
+					assertEquals(expected, msF32.getBand(band).get(x,y), 1e-4f);
+					assertEquals(expected, inter.getBand(x,y,band));
+					assertEquals(pixel[band], interRgb.getBand(x,y,band));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void layout_bufferedToGray_U16() {
+		BufferedImage orig = new BufferedImage(30, 65, BufferedImage.TYPE_USHORT_GRAY);
+		randomizeRaster(orig, rand);
+		BufferedImage img = orig.getSubimage(1,2,25,60);
+
+		ImageUInt16 found = new ImageUInt16(25,60);
+		ConvertRaster.bufferedToGray(RasterLayout.create(img), found, true);
+
+		for( int y = 0; y < found.height; y++ ) {
+			for( int x = 0; x < found.width; x++ ) {
+				assertEquals(img.getRaster().getSample(x,y,0), found.get(x,y));
+			}
+		}
+	}
+
 	private void testImageTo(Method m) {
 
 		Class paramTypes[] = m.getParameterTypes();
@@ -305,6 +415,21 @@ public class TestConvertRaster {
 		return ret;
 	}
 
+	/**
+	 * Fills every band in the raster with random values, including alpha
+	 */
+	public static void randomizeRaster(BufferedImage img, Random rand) {
+		WritableRaster raster = img.getRaster();
+		for (int band = 0; band < raster.getNumBands(); band++) {
+			int max = 1 << raster.getSampleModel().getSampleSize(band);
+			for (int y = 0; y < img.getHeight(); y++) {
+				for (int x = 0; x < img.getWidth(); x++) {
+					raster.setSample(x, y, band, rand.nextInt(max));
+				}
+			}
+		}
+	}
+
 	public static void randomize(BufferedImage img, Random rand) {
 		for (int i = 0; i < img.getWidth(); i++) {
 			for (int j = 0; j < img.getHeight(); j++) {
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.core.image;
+
+import boofcv.alg.filter.binary.ThresholdImageOps;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImagePool {
+
+	Random rand = new Random(234);
+
+	@After
+	public void after() {
+		ImagePool.setGlobal(null);
+	}
+
+	@Test
+	public void acquire_release() {
+		ImagePool pool = new ImagePool();
+
+		ImageFloat32 a = pool.acquireSingle(ImageFloat32.class, 20, 30);
+		assertEquals(20, a.width);
+		assertEquals(30, a.height);
+		assertEquals(1, pool.getAllocations());
+
+		assertTrue(pool.release(a));
+		assertEquals(1, pool.getStoredImages());
+		assertEquals(20*30*4, pool.getStoredBytes());
+
+		// different shape or type should not be recycled
+		assertTrue(a != pool.acquireSingle(ImageFloat32.class, 30, 20));
+		assertTrue(a != (Object)pool.acquireSingle(ImageUInt8.class, 20, 30));
+		assertEquals(0, pool.getReuses());
+
+		assertTrue(a == pool.acquireSingle(ImageFloat32.class, 20, 30));
+		assertEquals(1, pool.getReuses());
+		assertEquals(0, pool.getStoredImages());
+		assertEquals(0, pool.getStoredBytes());
+	}
+
+	@Test
+	public void acquire_allFamilies() {
+		ImagePool pool = new ImagePool();
+
+		ImageType types[] = new ImageType[]{
+				ImageType.single(ImageSInt16.class),
+				ImageType.ms(3, ImageFloat32.class),
+				new ImageType(ImageType.Family.INTERLEAVED, ImageDataType.U8, 3)};
+
+		for( ImageType type : types ) {
+			ImageBase a = pool.acquire(type, 10, 15);
+			assertEquals(type.getImageClass(), a instanceof MultiSpectral ? ((MultiSpectral)a).getType() : a.getClass());
+			assertEquals(10, a.width);
+			assertEquals(15, a.height);
+			assertTrue(pool.release(a));
+			assertTrue(a == pool.acquire(type, 10, 15));
+		}
+		assertEquals(3, pool.getAllocations());
+		assertEquals(3, pool.getReuses());
+	}
+
+	@Test
+	public void acquireZeros() {
+		ImagePool pool = new ImagePool();
+
+		ImageUInt8 a = pool.acquireSingle(ImageUInt8.class, 20, 30);
+		ImageMiscOps.fill(a, 5);
+		pool.release(a);
+
+		ImageUInt8 b = pool.acquireZeros(ImageType.single(ImageUInt8.class), 20, 30);
+		assertTrue(a == b);
+		assertEquals(0, ImageStatistics.sum(b));
+	}
+
+	@Test
+	public void release_rejected() {
+		ImagePool pool = new ImagePool();
+
+		ImageUInt8 a = new ImageUInt8(20, 30);
+		ImageUInt8 sub = a.subimage(2, 3, 10, 12, null);
+		assertFalse(pool.release(sub));
+
+		// larger than the entire pool
+		pool = new ImagePool(4, 100);
+		assertFalse(pool.release(a));
+		assertEquals(0, pool.getStoredImages());
+	}
+
+	@Test
+	public void release_twice() {
+		ImagePool pool = new ImagePool();
+
+		ImageUInt8 a = new ImageUInt8(20, 30);
+		pool.release(a);
+		pool.release(a);
+		assertEquals(1, pool.getStoredImages());
+		assertEquals(1, pool.getReleases());
+	}
+
+	@Test
+	public void evict_maxPerShape() {
+		ImagePool pool = new ImagePool(2, 1000000);
+
+		ImageUInt8 a = new ImageUInt8(20, 30);
+		ImageUInt8 b = new ImageUInt8(20, 30);
+		ImageUInt8 c = new ImageUInt8(20, 30);
+
+		pool.release(a);
+		pool.release(b);
+		pool.release(c);
+
+		assertEquals(2, pool.getStoredImages());
+		assertEquals(1, pool.getEvictions());
+
+		// the oldest one should have been discarded
+		assertTrue(c == pool.acquireSingle(ImageUInt8.class, 20, 30));
+		assertTrue(b == pool.acquireSingle(ImageUInt8.class, 20, 30));
+		assertTrue(a != pool.acquireSingle(ImageUInt8.class, 20, 30));
+	}
+
+	@Test
+	public void evict_maxBytes() {
+		ImagePool pool = new ImagePool(10, 2*20*30);
+
+		ImageUInt8 a = new ImageUInt8(20, 30);
+		ImageUInt8 b = new ImageUInt8(30, 20);
+		ImageUInt8 c = new ImageUInt8(10, 60);
+
+		pool.release(a);
+		pool.release(b);
+		// recently used shapes should be kept
+		pool.acquireSingle(ImageUInt8.class, 20, 30);
+		pool.release(a);
+		pool.release(c);
+
+		assertEquals(2, pool.getStoredImages());
+		assertEquals(2*20*30, pool.getStoredBytes());
+		assertEquals(1, pool.getEvictions());
+
+		assertTrue(a == pool.acquireSingle(ImageUInt8.class, 20, 30));
+		assertTrue(c == pool.acquireSingle(ImageUInt8.class, 10, 60));
+		assertTrue(b != pool.acquireSingle(ImageUInt8.class, 30, 20));
+	}
+
+	@Test
+	public void clear_resetCounters() {
+		ImagePool pool = new ImagePool();
+		pool.release(pool.acquireSingle(ImageUInt8.class, 20, 30));
+
+		pool.clear();
+		assertEquals(0, pool.getStoredImages());
+		assertEquals(0, pool.getStoredBytes());
+		assertEquals(1, pool.getAllocations());
+
+		pool.resetCounters();
+		assertEquals(0, pool.getAllocations());
+		assertEquals(0, pool.getReleases());
+	}
+
+	/**
+	 * When set globally createSingleBand should draw from the pool and return an image filled with zeros
+	 */
+	@Test
+	public void global_createSingleBand() {
+		ImagePool pool = new ImagePool();
+		ImagePool.setGlobal(pool);
+
+		ImageFloat32 a = GeneralizedImageOps.createSingleBand(ImageFloat32.class, 20, 30);
+		ImageMiscOps.fill(a, 2);
+		ImagePool.releaseGlobal(a);
+
+		ImageFloat32 b = GeneralizedImageOps.createSingleBand(ImageFloat32.class, 20, 30);
+		assertTrue(a == b);
+		for( int i = 0; i < b.data.length; i++ )
+			assertEquals(0, b.data[i], 0);
+
+		// generic type should still work
+		ImageInteger c = GeneralizedImageOps.createSingleBand(ImageInteger.class, 20, 30);
+		assertEquals(ImageSInt32.class, c.getClass());
+	}
+
+	/**
+	 * Once all the images have been declared, blurring and thresholding repeatedly should not declare new images
+	 * and the results should be the same as when no pool is used.
+	 */
+	@Test
+	public void global_steadyState() {
+		ImageUInt8 input = new ImageUInt8(40, 35);
+		ImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		ImageUInt8 expectedBlur = BlurImageOps.gaussian(input, null, -1, 2, null);
+		ImageUInt8 expectedThresh = ThresholdImageOps.adaptiveSquare(input, null, 3, 0, true, null, null);
+
+		ImagePool pool = new ImagePool();
+		ImagePool.setGlobal(pool);
+
+		ImageUInt8 blur = new ImageUInt8(40, 35);
+		ImageUInt8 thresh = new ImageUInt8(40, 35);
+
+		for( int trial = 0; trial < 5; trial++ ) {
+			if( trial == 1 )
+				pool.resetCounters();
+
+			BlurImageOps.mean(input, blur, 2, null);
+			BlurImageOps.gaussian(input, blur, -1, 2, null);
+			ThresholdImageOps.adaptiveSquare(input, thresh, 3, 0, true, null, null);
+
+			BoofTesting.assertEquals(expectedBlur, blur, 0);
+			BoofTesting.assertEquals(expectedThresh, thresh, 0);
+		}
+
+		assertEquals(0, pool.getAllocations());
+		assertTrue(pool.getReuses() > 0);
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.core.image;
+
+import boofcv.struct.image.ImageUInt16;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.struct.image.InterleavedU8;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRasterLayout {
+
+	Random rand = new Random(234);
+
+	int width = 10;
+	int height = 15;
+
+	@Test
+	public void create_byte() {
+		RasterLayout layout = create(BufferedImage.TYPE_3BYTE_BGR);
+		assertEquals(RasterLayout.Type.BYTE, layout.type);
+		assertEquals(3, layout.numBands);
+		assertEquals(3, layout.numColorBands);
+		assertEquals(3, layout.pixelStride);
+		assertEquals(width*3, layout.stride);
+		assertArrayEquals(new int[]{2,1,0}, layout.storageOrder);
+
+		layout = create(BufferedImage.TYPE_4BYTE_ABGR);
+		assertEquals(4, layout.numBands);
+		assertEquals(3, layout.numColorBands);
+		assertArrayEquals(new int[]{3,2,1,0}, layout.storageOrder);
+
+		layout = create(BufferedImage.TYPE_BYTE_GRAY);
+		assertEquals(1, layout.numBands);
+		assertEquals(1, layout.numColorBands);
+		assertArrayEquals(new int[]{0}, layout.storageOrder);
+	}
+
+	@Test
+	public void create_ushort() {
+		RasterLayout layout = create(BufferedImage.TYPE_USHORT_GRAY);
+		assertEquals(RasterLayout.Type.USHORT, layout.type);
+		assertEquals(1, layout.numBands);
+		assertEquals(width, layout.stride);
+	}
+
+	@Test
+	public void create_int() {
+		RasterLayout layout = create(BufferedImage.TYPE_INT_RGB);
+		assertEquals(RasterLayout.Type.INT_PACKED, layout.type);
+		assertEquals(3, layout.numBands);
+		assertEquals(1, layout.pixelStride);
+		assertArrayEquals(new int[]{0,1,2}, layout.storageOrder);
+
+		layout = create(BufferedImage.TYPE_INT_BGR);
+		assertArrayEquals(new int[]{2,1,0}, layout.storageOrder);
+
+		layout = create(BufferedImage.TYPE_INT_ARGB);
+		assertEquals(4, layout.numBands);
+		assertArrayEquals(new int[]{3,0,1,2}, layout.storageOrder);
+	}
+
+	@Test
+	public void create_notSupported() {
+		assertNull(create(BufferedImage.TYPE_BYTE_INDEXED));
+		assertNull(create(BufferedImage.TYPE_BYTE_BINARY));
+		assertNull(create(BufferedImage.TYPE_USHORT_565_RGB));
+		assertNull(create(BufferedImage.TYPE_USHORT_555_RGB));
+	}
+
+	/**
+	 * The start of a sub-image should be the location of its first pixel
+	 */
+	@Test
+	public void create_subimage() {
+		BufferedImage orig = new BufferedImage(width,height,BufferedImage.TYPE_INT_RGB);
+		RasterLayout layout = RasterLayout.create(orig.getSubimage(2,3,5,6));
+
+		assertEquals(5, layout.width);
+		assertEquals(6, layout.height);
+		assertEquals(3*width + 2, layout.startIndex);
+
+		orig = new BufferedImage(width,height,BufferedImage.TYPE_3BYTE_BGR);
+		layout = RasterLayout.create(orig.getSubimage(2,3,5,6));
+		assertEquals(3*width*3 + 2*3, layout.startIndex);
+	}
+
+	@Test
+	public void wrapInterleavedU8() {
+		BufferedImage orig = TestConvertRaster.createByteBuff(width, height, 3, rand);
+		BufferedImage sub = orig.getSubimage(2,3,5,6);
+
+		InterleavedU8 found = RasterLayout.create(sub).wrapInterleavedU8();
+		assertTrue(found.data == RasterLayout.create(orig).dataByte);
+
+		int pixel[] = new int[3];
+		for( int y = 0; y < 6; y++ ) {
+			for( int x = 0; x < 5; x++ ) {
+				sub.getRaster().getPixel(x,y,pixel);
+				// bands are in storage order, which is BGR
+				assertEquals(pixel[2], found.getBand(x, y, 0));
+				assertEquals(pixel[1], found.getBand(x, y, 1));
+				assertEquals(pixel[0], found.getBand(x, y, 2));
+			}
+		}
+
+		// data can't be wrapped
+		assertNull(create(BufferedImage.TYPE_INT_RGB).wrapInterleavedU8());
+	}
+
+	@Test
+	public void wrapUInt8() {
+		BufferedImage orig = TestConvertRaster.createByteBuff(width, height, 1, rand);
+		BufferedImage sub = orig.getSubimage(2,3,5,6);
+
+		ImageUInt8 found = RasterLayout.create(sub).wrapUInt8();
+
+		for( int y = 0; y < 6; y++ ) {
+			for( int x = 0; x < 5; x++ ) {
+				assertEquals(sub.getRaster().getSample(x, y, 0), found.get(x, y));
+			}
+		}
+
+		// changes to one should be seen by the other
+		found.set(1, 2, 123);
+		assertEquals(123, sub.getRaster().getSample(1, 2, 0));
+
+		assertNull(create(BufferedImage.TYPE_3BYTE_BGR).wrapUInt8());
+	}
+
+	@Test
+	public void wrapUInt16() {
+		BufferedImage orig = TestConvertRaster.createShortBuff(width, height, rand);
+		BufferedImage sub = orig.getSubimage(2,3,5,6);
+
+		ImageUInt16 found = RasterLayout.create(sub).wrapUInt16();
+
+		for( int y = 0; y < 6; y++ ) {
+			for( int x = 0; x < 5; x++ ) {
+				assertEquals(sub.getRaster().getSample(x, y, 0), found.get(x, y));
+			}
+		}
+
+		found.set(1, 2, 40000);
+		assertEquals(40000, sub.getRaster().getSample(1, 2, 0));
+
+		assertNull(create(BufferedImage.TYPE_BYTE_GRAY).wrapUInt16());
+	}
+
+	private RasterLayout create( int type ) {
+		return RasterLayout.create(new BufferedImage(width, height, type));
+	}
+}
@@ -19,6 +19,7 @@
 package boofcv.struct.pyramid;
 
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.ImagePool;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageUInt8;
 import boofcv.testing.BoofTesting;
@@ -103,6 +104,34 @@ public class TestImagePyramidBase {
 		assertTrue(pyramid.layers[0] != null);
 	}
 
+	/**
+	 * When a global pool is set layers should be recycled when the shape changes
+	 */
+	@Test
+	public void initialize_pool() {
+		ImagePool pool = new ImagePool();
+		ImagePool.setGlobal(pool);
+		try {
+			Dummy pyramid = new Dummy(ImageUInt8.class,true);
+			pyramid.setScaleFactors(1,2,4);
+			pyramid.initialize(100,120);
+			ImageUInt8 reference = new ImageUInt8(100,120);
+			pyramid.setFirstLayer(reference);
+			assertEquals(2,pool.getAllocations());
+
+			pyramid.initialize(60,80);
+			// the first layer belongs to the user and should not be recycled
+			assertEquals(2,pool.getStoredImages());
+			assertEquals(4,pool.getAllocations());
+
+			pyramid.initialize(100,120);
+			assertEquals(2,pool.getReuses());
+			assertEquals(4,pool.getAllocations());
+		} finally {
+			ImagePool.setGlobal(null);
+		}
+	}
+
 	@Test
 	public void getWidth_Height() {
 		Dummy pyramid = new Dummy(ImageUInt8.class,false);
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.*;
+
+import java.util.Random;
+
+/**
+ * Functions shared between benchmarks for decoding parameters and creating input images.  Image sizes are
+ * specified as "WIDTHxHEIGHT" strings and image types by their abbreviated name, e.g. "U8", so that they can
+ * be used as JMH parameters and appear in the results.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkUtils {
+
+	/**
+	 * Seed used by all the benchmarks so that the input is the same between runs
+	 */
+	public static final long SEED = 0xBEEF;
+
+	/**
+	 * Parses a string with the format "640x480" into width and height.
+	 */
+	public static int[] parseSize( String size ) {
+		String words[] = size.toLowerCase().split("x");
+		if( words.length != 2 )
+			throw new IllegalArgumentException("Expected WIDTHxHEIGHT, not "+size);
+		return new int[]{Integer.parseInt(words[0]),Integer.parseInt(words[1])};
+	}
+
+	/**
+	 * Converts an abbreviated image type name into the image class.
+	 */
+	public static <T extends ImageSingleBand> Class<T> imageType( String name ) {
+		if( name.equals("U8") )
+			return (Class)ImageUInt8.class;
+		else if( name.equals("S16") )
+			return (Class)ImageSInt16.class;
+		else if( name.equals("S32") )
+			return (Class)ImageSInt32.class;
+		else if( name.equals("F32") )
+			return (Class)ImageFloat32.class;
+		else if( name.equals("F64") )
+			return (Class)ImageFloat64.class;
+		else
+			throw new IllegalArgumentException("Unknown image type "+name);
+	}
+
+	/**
+	 * Creates an image of the specified size and type which is filled with uniform noise.
+	 */
+	public static <T extends ImageSingleBand> T createRandom( Class<T> type , String size , Random rand ) {
+		int shape[] = parseSize(size);
+		T image = GeneralizedImageOps.createSingleBand(type,shape[0],shape[1]);
+		GImageMiscOps.fillUniform(image, rand, 0, 100);
+		return image;
+	}
+
+	/**
+	 * Creates an image which is composed of randomly placed rectangles with a little bit of noise added.  Unlike
+	 * uniform noise this will produce a reasonable number of features which can be tracked or associated.
+	 */
+	public static <T extends ImageSingleBand> T createRectangles( Class<T> type , String size ,
+																  int numRectangles , Random rand ) {
+		int shape[] = parseSize(size);
+		T image = GeneralizedImageOps.createSingleBand(type,shape[0],shape[1]);
+		GImageMiscOps.fill(image,20);
+		addRectangles(image, numRectangles, rand);
+		GImageMiscOps.addGaussian(image,rand,2,0,255);
+		return image;
+	}
+
+	/**
+	 * Draws randomly placed rectangles with random intensity values inside the image
+	 */
+	public static void addRectangles( ImageSingleBand image , int numRectangles , Random rand ) {
+		int maxSide = Math.max(10,Math.min(image.width,image.height)/10);
+		for( int i = 0; i < numRectangles; i++ ) {
+			int w = 5+rand.nextInt(maxSide);
+			int h = 5+rand.nextInt(maxSide);
+			int x0 = rand.nextInt(image.width-w);
+			int y0 = rand.nextInt(image.height-h);
+			GImageMiscOps.fillRectangle(image,40+rand.nextInt(200),x0,y0,w,h);
+		}
+	}
+
+	/**
+	 * Creates an image of the same shape and type as the input
+	 */
+	public static <T extends ImageSingleBand> T createSameShape( Class<T> type , ImageBase input ) {
+		return GeneralizedImageOps.createSingleBand(type,input.width,input.height);
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Compares two CSV files created by {@link RunBenchmarks} and prints the relative change for each benchmark
+ * which is in both files.  If a benchmark got slower by more than the tolerance it is flagged as a regression
+ * and the exit code is set to 1, making it easy to use inside of a script.
+ * </p>
+ *
+ * <pre>
+ * java -cp benchmarks.jar boofcv.jmh.CompareResults baseline.csv current.csv [tolerance]
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class CompareResults {
+
+	/**
+	 * Results for a single benchmark and set of parameters
+	 */
+	public static class Entry {
+		public String mode;
+		public double score;
+		public double error;
+		public String unit;
+	}
+
+	/**
+	 * Reads a JMH CSV file.  The key for each entry is the benchmark name followed by its parameters.
+	 */
+	public static Map<String,Entry> load( String fileName ) throws IOException {
+		Map<String,Entry> results = new LinkedHashMap<String, Entry>();
+
+		BufferedReader reader = new BufferedReader(new FileReader(fileName));
+		try {
+			List<String> header = parseLine(reader.readLine());
+			int indexMode = header.indexOf("Mode");
+			int indexScore = header.indexOf("Score");
+			int indexUnit = header.indexOf("Unit");
+			if( indexMode < 0 || indexScore < 0 || indexUnit < 0 )
+				throw new IOException("Unexpected header in "+fileName);
+
+			String line;
+			while( (line = reader.readLine()) != null ) {
+				if( line.length() == 0 )
+					continue;
+				List<String> words = parseLine(line);
+
+				String key = words.get(0);
+				for( int i = indexUnit+1; i < words.size(); i++ ) {
+					key += " "+header.get(i).replace("Param: ","")+"="+words.get(i);
+				}
+
+				Entry e = new Entry();
+				e.mode = words.get(indexMode);
+				e.score = Double.parseDouble(words.get(indexScore));
+				e.error = Double.parseDouble(words.get(indexScore+1));
+				e.unit = words.get(indexUnit);
+				results.put(key,e);
+			}
+		} finally {
+			reader.close();
+		}
+
+		return results;
+	}
+
+	/**
+	 * Splits a line in a CSV file.  Quoted fields can contain commas.
+	 */
+	public static List<String> parseLine( String line ) {
+		List<String> words = new ArrayList<String>();
+		StringBuilder word = new StringBuilder();
+		boolean quoted = false;
+		for( int i = 0; i < line.length(); i++ ) {
+			char c = line.charAt(i);
+			if( c == '"' ) {
+				quoted = !quoted;
+			} else if( c == ',' && !quoted ) {
+				words.add(word.toString());
+				word.setLength(0);
+			} else {
+				word.append(c);
+			}
+		}
+		words.add(word.toString());
+		return words;
+	}
+
+	/**
+	 * Returns the fractional change in performance.  Positive values mean it got slower.
+	 */
+	public static double slowdown( Entry before , Entry after ) {
+		// throughput modes measure operations per unit time, everything else is time per operation
+		if( before.mode.equals("thrpt") )
+			return before.score/after.score - 1.0;
+		else
+			return after.score/before.score - 1.0;
+	}
+
+	public static void main( String args[] ) throws IOException {
+		if( args.length < 2 ) {
+			System.out.println("java boofcv.jmh.CompareResults baseline.csv current.csv [tolerance]");
+			System.exit(-1);
+		}
+
+		double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.1;
+
+		Map<String,Entry> baseline = load(args[0]);
+		Map<String,Entry> current = load(args[1]);
+
+		int totalRegressions = 0;
+		for( Map.Entry<String,Entry> e : baseline.entrySet() ) {
+			Entry after = current.get(e.getKey());
+			if( after == null ) {
+				System.out.printf("%-80s missing\n",e.getKey());
+				continue;
+			}
+			Entry before = e.getValue();
+			if( !before.unit.equals(after.unit) ) {
+				System.out.printf("%-80s units changed %s %s\n",e.getKey(),before.unit,after.unit);
+				continue;
+			}
+
+			double change = slowdown(before,after);
+			String flag = change > tolerance ? "  REGRESSION" : "";
+			if( change > tolerance )
+				totalRegressions++;
+
+			System.out.printf("%-80s %12.4f %12.4f %s %+7.1f%%%s\n",
+					e.getKey(),before.score,after.score,before.unit,change*100,flag);
+		}
+
+		System.out.println();
+		System.out.println("Total regressions "+totalRegressions);
+		if( totalRegressions > 0 )
+			System.exit(1);
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * <p>
+ * Runs all the benchmarks, or the ones which match a regular expression, and saves the results to a CSV file.
+ * The file name contains the library version and the date so that results from different releases can be kept
+ * side by side and compared using {@link CompareResults}.
+ * </p>
+ *
+ * <pre>
+ * java -jar benchmarks.jar [regex] [output directory]
+ * java -jar benchmarks.jar JmhConvolve results
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class RunBenchmarks {
+
+	public static void main( String args[] ) throws RunnerException {
+		String include = args.length > 0 ? args[0] : "boofcv\\.jmh\\..*";
+		File directory = new File(args.length > 1 ? args[1] : "results");
+
+		if( !directory.exists() && !directory.mkdirs() )
+			throw new RuntimeException("Can't create output directory "+directory.getPath());
+
+		String version = RunBenchmarks.class.getPackage().getImplementationVersion();
+		if( version == null )
+			version = "unknown";
+		String date = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+		File output = new File(directory,"boofcv_"+version+"_"+date+".csv");
+
+		Options opt = new OptionsBuilder()
+				.include(include)
+				.resultFormat(ResultFormatType.CSV)
+				.result(output.getPath())
+				.build();
+
+		new Runner(opt).run();
+
+		System.out.println();
+		System.out.println("Saved results to "+output.getPath());
+	}
+}
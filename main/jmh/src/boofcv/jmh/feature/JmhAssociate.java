@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh.feature;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.abst.feature.associate.WrapAssociateGreedy;
+import boofcv.alg.feature.associate.AssociateGreedy;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Association between two sets of descriptors.  The destination set is a noisy copy of the source set so
+ * that every feature has a true match.  Descriptors are SURF sized for floating point and BRIEF sized for binary.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JmhAssociate {
+
+	@Param({"500","2000","5000"})
+	public int numFeatures;
+
+	FastQueue<TupleDesc_F64> srcF64 = new FastQueue<TupleDesc_F64>(TupleDesc_F64.class,false);
+	FastQueue<TupleDesc_F64> dstF64 = new FastQueue<TupleDesc_F64>(TupleDesc_F64.class,false);
+	FastQueue<TupleDesc_B> srcB = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+	FastQueue<TupleDesc_B> dstB = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+
+	AssociateDescription<TupleDesc_F64> greedyF64;
+	AssociateDescription<TupleDesc_B> greedyB;
+	AssociateDescription<TupleDesc_B> greedyTableB;
+	AssociateDescription<TupleDesc_F64> kdForest;
+	AssociateDescription<TupleDesc_B> hashing;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(BenchmarkUtils.SEED);
+
+		srcF64.reset(); dstF64.reset(); srcB.reset(); dstB.reset();
+		for( int i = 0; i < numFeatures; i++ ) {
+			TupleDesc_F64 a = new TupleDesc_F64(64);
+			TupleDesc_F64 b = new TupleDesc_F64(64);
+			for( int j = 0; j < a.value.length; j++ ) {
+				a.value[j] = rand.nextDouble();
+				b.value[j] = a.value[j] + rand.nextGaussian()*0.02;
+			}
+			srcF64.add(a);
+			dstF64.add(b);
+
+			TupleDesc_B c = new TupleDesc_B(512);
+			TupleDesc_B d = new TupleDesc_B(512);
+			for( int j = 0; j < c.data.length; j++ ) {
+				c.data[j] = rand.nextInt();
+				// flip a few bits
+				d.data[j] = c.data[j] ^ (1 << rand.nextInt(32));
+			}
+			srcB.add(c);
+			dstB.add(d);
+		}
+
+		ScoreAssociation<TupleDesc_F64> scoreF64 = FactoryAssociation.scoreEuclidean(TupleDesc_F64.class,true);
+		ScoreAssociation<TupleDesc_B> scoreB = FactoryAssociation.scoreHamming(TupleDesc_B.class);
+
+		greedyF64 = FactoryAssociation.greedy(scoreF64,Double.MAX_VALUE,true);
+		greedyB = FactoryAssociation.greedy(scoreB,Double.MAX_VALUE,true);
+		// the factory selects the packed implementation for Hamming distance, force the lookup table version
+		greedyTableB = new WrapAssociateGreedy<TupleDesc_B>(new AssociateGreedy<TupleDesc_B>(scoreB,true));
+		kdForest = FactoryAssociation.kdForest(TupleDesc_F64.class,4,200,0.8,Double.MAX_VALUE,true,BenchmarkUtils.SEED);
+		hashing = FactoryAssociation.multiIndexHashing(1,0.8,Double.MAX_VALUE,true);
+	}
+
+	@Benchmark
+	public int greedy_F64() {
+		greedyF64.setSource(srcF64);
+		greedyF64.setDestination(dstF64);
+		greedyF64.associate();
+		return greedyF64.getMatches().size;
+	}
+
+	@Benchmark
+	public int greedy_B() {
+		greedyB.setSource(srcB);
+		greedyB.setDestination(dstB);
+		greedyB.associate();
+		return greedyB.getMatches().size;
+	}
+
+	@Benchmark
+	public int greedyTable_B() {
+		greedyTableB.setSource(srcB);
+		greedyTableB.setDestination(dstB);
+		greedyTableB.associate();
+		return greedyTableB.getMatches().size;
+	}
+
+	@Benchmark
+	public int kdForest_F64() {
+		kdForest.setSource(srcF64);
+		kdForest.setDestination(dstF64);
+		kdForest.associate();
+		return kdForest.getMatches().size;
+	}
+
+	@Benchmark
+	public int multiIndexHashing_B() {
+		hashing.setSource(srcB);
+		hashing.setDestination(dstB);
+		hashing.associate();
+		return hashing.getMatches().size;
+	}
+}
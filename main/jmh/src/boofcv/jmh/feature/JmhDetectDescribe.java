@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh.feature;
+
+import boofcv.abst.feature.describe.ConfigSurfDescribe;
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.abst.feature.detect.interest.ConfigFastHessian;
+import boofcv.abst.feature.detect.interest.ConfigSiftDetector;
+import boofcv.abst.feature.orientation.ConfigAverageIntegral;
+import boofcv.abst.feature.orientation.ConfigSlidingIntegral;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Combined detection and description of SURF and SIFT features.  SIFT only supports {@link ImageFloat32}
+ * so it always processes a floating point image.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JmhDetectDescribe {
+
+	@Param({"640x480","1920x1080","3840x2160"})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	@Param({"false","true"})
+	public boolean concurrent;
+
+	ImageSingleBand input;
+	ImageFloat32 inputF32;
+
+	DetectDescribePoint surfFast;
+	DetectDescribePoint surfStable;
+	DetectDescribePoint<ImageFloat32,?> sift;
+
+	@Setup
+	public void setup() {
+		Class inputType = BenchmarkUtils.imageType(imageType);
+
+		input = BenchmarkUtils.createRectangles(inputType, size, 1000, new Random(BenchmarkUtils.SEED));
+		inputF32 = BenchmarkUtils.createRectangles(ImageFloat32.class, size, 1000, new Random(BenchmarkUtils.SEED));
+
+		ConfigFastHessian configDetector = new ConfigFastHessian(1, 2, 200, 1, 9, 4, 4);
+
+		surfFast = FactoryDetectDescribe.surfFast(configDetector,
+				new ConfigSurfDescribe.Speed(), new ConfigAverageIntegral(), inputType, concurrent);
+		surfStable = FactoryDetectDescribe.surfStable(configDetector,
+				new ConfigSurfDescribe.Stablility(), new ConfigSlidingIntegral(), inputType, concurrent);
+		sift = FactoryDetectDescribe.sift(null, new ConfigSiftDetector(2, 1, 500, 5), null, null, concurrent);
+	}
+
+	@Benchmark
+	public int surfFast() {
+		surfFast.detect(input);
+		return surfFast.getNumberOfFeatures();
+	}
+
+	@Benchmark
+	public int surfStable() {
+		surfStable.detect(input);
+		return surfStable.getNumberOfFeatures();
+	}
+
+	@Benchmark
+	public int sift() {
+		sift.detect(inputF32);
+		return sift.getNumberOfFeatures();
+	}
+}
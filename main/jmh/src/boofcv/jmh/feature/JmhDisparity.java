@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh.feature;
+
+import boofcv.abst.feature.disparity.StereoDisparity;
+import boofcv.factory.feature.disparity.DisparityAlgorithms;
+import boofcv.factory.feature.disparity.FactoryStereoDisparity;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageSingleBand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dense stereo disparity using rectangular regions.  The right image is a shifted copy of the left image.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JmhDisparity {
+
+	@Param({"640x480","1920x1080"})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	@Param({"RECT","RECT_FIVE"})
+	public String algorithm;
+
+	@Param({"false","true"})
+	public boolean concurrent;
+
+	ImageSingleBand left;
+	ImageSingleBand right;
+
+	StereoDisparity wta;
+	StereoDisparity subpixel;
+
+	@Setup
+	public void setup() {
+		Class inputType = BenchmarkUtils.imageType(imageType);
+
+		left = BenchmarkUtils.createRectangles(inputType, size, 1000, new Random(BenchmarkUtils.SEED));
+		right = BenchmarkUtils.createSameShape(inputType,left);
+		right.subimage(0,0,left.width-10,left.height,null).setTo(left.subimage(10,0,left.width,left.height,null));
+
+		DisparityAlgorithms which = DisparityAlgorithms.valueOf(algorithm);
+		wta = FactoryStereoDisparity.regionWta(which,0,100,3,3,20,1,0.2,inputType,concurrent);
+		subpixel = FactoryStereoDisparity.regionSubpixelWta(which,0,100,3,3,20,1,0.2,inputType,concurrent);
+	}
+
+	@Benchmark
+	public ImageSingleBand wta() {
+		wta.process(left,right);
+		return wta.getDisparity();
+	}
+
+	@Benchmark
+	public ImageSingleBand subpixel() {
+		subpixel.process(left,right);
+		return subpixel.getDisparity();
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh.feature;
+
+import boofcv.abst.feature.detect.interest.ConfigFast;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.factory.feature.detect.interest.FactoryDetectPoint;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageSingleBand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Corner detectors which are composed of a feature intensity and non-maximum suppression.  Image derivatives
+ * are computed once ahead of time so that only the detector is measured.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JmhFeatureDetector {
+
+	@Param({"640x480","1920x1080","3840x2160"})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	ImageSingleBand input;
+	ImageSingleBand derivX;
+	ImageSingleBand derivY;
+
+	GeneralFeatureDetector fast;
+	GeneralFeatureDetector harris;
+	GeneralFeatureDetector shiTomasi;
+
+	@Setup
+	public void setup() {
+		Class inputType = BenchmarkUtils.imageType(imageType);
+		Class derivType = GImageDerivativeOps.getDerivativeType(inputType);
+
+		input = BenchmarkUtils.createRectangles(inputType, size, 1000, new Random(BenchmarkUtils.SEED));
+		derivX = BenchmarkUtils.createSameShape(derivType,input);
+		derivY = BenchmarkUtils.createSameShape(derivType,input);
+
+		ImageGradient gradient = FactoryDerivative.sobel(inputType, derivType);
+		gradient.process(input,derivX,derivY);
+
+		ConfigGeneralDetector config = new ConfigGeneralDetector(-1,2,1);
+		fast = FactoryDetectPoint.createFast(new ConfigFast(20,9),config,inputType);
+		harris = FactoryDetectPoint.createHarris(config,false,derivType);
+		shiTomasi = FactoryDetectPoint.createShiTomasi(config,false,derivType);
+	}
+
+	@Benchmark
+	public int fast() {
+		fast.process(input,null,null,null,null,null);
+		return fast.getMaximums().size;
+	}
+
+	@Benchmark
+	public int harris() {
+		harris.process(input,derivX,derivY,null,null,null);
+		return harris.getMaximums().size;
+	}
+
+	@Benchmark
+	public int shiTomasi() {
+		shiTomasi.process(input,derivX,derivY,null,null,null);
+		return shiTomasi.getMaximums().size;
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh.feature;
+
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.alg.feature.associate.DescriptorDistance;
+import boofcv.alg.feature.associate.PackedDescriptors_B;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of different ways to compute the Hamming distance between every pair in two sets of binary
+ * descriptors.  Results are in pairs scored per microsecond.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JmhHammingScore {
+
+	public static final int NUM_FEATURES = 500;
+
+	@Param({"256","512"})
+	public int numBits;
+
+	FastQueue<TupleDesc_B> setA = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+	FastQueue<TupleDesc_B> setB = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+
+	PackedDescriptors_B packedA = new PackedDescriptors_B();
+	PackedDescriptors_B packedB = new PackedDescriptors_B();
+	int scores[] = new int[NUM_FEATURES];
+
+	ScoreAssociateHamming_B table = new ScoreAssociateHamming_B();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(BenchmarkUtils.SEED);
+		setA.reset();
+		setB.reset();
+		for( int i = 0; i < NUM_FEATURES; i++ ) {
+			setA.add(create(rand));
+			setB.add(create(rand));
+		}
+		packedA.setTo(setA);
+		packedB.setTo(setB);
+	}
+
+	private TupleDesc_B create( Random rand ) {
+		TupleDesc_B d = new TupleDesc_B(numBits);
+		for( int i = 0; i < d.data.length; i++ )
+			d.data[i] = rand.nextInt();
+		return d;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_FEATURES*NUM_FEATURES)
+	public double lookupTable() {
+		double total = 0;
+		for( int i = 0; i < NUM_FEATURES; i++ ) {
+			TupleDesc_B a = setA.data[i];
+			for( int j = 0; j < NUM_FEATURES; j++ )
+				total += table.score(a,setB.data[j]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_FEATURES*NUM_FEATURES)
+	public int descriptorDistance() {
+		int total = 0;
+		for( int i = 0; i < NUM_FEATURES; i++ ) {
+			TupleDesc_B a = setA.data[i];
+			for( int j = 0; j < NUM_FEATURES; j++ )
+				total += DescriptorDistance.hamming(a,setB.data[j]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_FEATURES*NUM_FEATURES)
+	public int packed() {
+		int total = 0;
+		for( int i = 0; i < NUM_FEATURES; i++ ) {
+			packedA.hammingAll(i,packedB,scores);
+			total += scores[0];
+		}
+		return total;
+	}
+
+	/**
+	 * Includes the cost of packing the descriptors
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NUM_FEATURES*NUM_FEATURES)
+	public int packedWithSetup() {
+		packedA.setTo(setA);
+		packedB.setTo(setB);
+		return packed();
+	}
+}
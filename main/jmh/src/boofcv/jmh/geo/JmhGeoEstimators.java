@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh.geo;
+
+import boofcv.abst.geo.Estimate1ofEpipolar;
+import boofcv.abst.geo.Estimate1ofPnP;
+import boofcv.factory.geo.EnumEpipolar;
+import boofcv.factory.geo.EnumPNP;
+import boofcv.factory.geo.FactoryMultiView;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.geo.AssociatedPair;
+import boofcv.struct.geo.Point2D3D;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Linear estimators for epipolar geometry, homographies, and PnP.  Observations are noise free and in
+ * normalized image coordinates.  Replaces the runtime portion of BenchmarkRuntimeFundamental,
+ * BenchmarkRuntimeHomography, and BenchmarkRuntimePose.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JmhGeoEstimators {
+
+	@Param({"8","100","500"})
+	public int numPoints;
+
+	List<AssociatedPair> pairs;
+	List<AssociatedPair> pairsPlanar;
+	List<Point2D3D> observationPose;
+
+	Estimate1ofEpipolar essential8;
+	Estimate1ofEpipolar essential5;
+	Estimate1ofEpipolar homography;
+	Estimate1ofPnP epnp;
+
+	DenseMatrix64F foundE = new DenseMatrix64F(3,3);
+	Se3_F64 foundPose = new Se3_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(BenchmarkUtils.SEED);
+
+		Se3_F64 motion = new Se3_F64();
+		motion.getR().set(RotationMatrixGenerator.eulerArbitrary(0, 1, 2, 0.5, -0.2, 0.15));
+		motion.getT().set(0.1,-0.2,0.01);
+
+		pairs = new ArrayList<AssociatedPair>();
+		pairsPlanar = new ArrayList<AssociatedPair>();
+		observationPose = new ArrayList<Point2D3D>();
+
+		for( int i = 0; i < numPoints; i++ ) {
+			double x = (rand.nextDouble()-0.5)*2;
+			double y = (rand.nextDouble()-0.5)*2;
+
+			Point3D_F64 p = new Point3D_F64(x,y,2+rand.nextDouble());
+			AssociatedPair pair = observe(motion,p);
+			pairs.add(pair);
+			observationPose.add(new Point2D3D(pair.p2,p));
+
+			pairsPlanar.add(observe(motion,new Point3D_F64(x,y,3)));
+		}
+
+		essential8 = FactoryMultiView.computeFundamental_1(EnumEpipolar.ESSENTIAL_8_LINEAR, 0);
+		essential5 = FactoryMultiView.computeFundamental_1(EnumEpipolar.ESSENTIAL_5_NISTER, 1);
+		homography = FactoryMultiView.computeHomography(true);
+		epnp = FactoryMultiView.computePnP_1(EnumPNP.EPNP, 5, 0);
+	}
+
+	private static AssociatedPair observe( Se3_F64 motion , Point3D_F64 p1 ) {
+		Point3D_F64 p2 = SePointOps_F64.transform(motion, p1, null);
+		AssociatedPair pair = new AssociatedPair();
+		pair.p1.set(p1.x/p1.z,p1.y/p1.z);
+		pair.p2.set(p2.x/p2.z,p2.y/p2.z);
+		return pair;
+	}
+
+	@Benchmark
+	public boolean essential8() {
+		return essential8.process(pairs, foundE);
+	}
+
+	@Benchmark
+	public boolean essential5() {
+		return essential5.process(pairs, foundE);
+	}
+
+	@Benchmark
+	public boolean homography() {
+		return homography.process(pairsPlanar, foundE);
+	}
+
+	@Benchmark
+	public boolean epnp() {
+		return epnp.process(observationPose, foundPose);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh.ip;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageSingleBand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Image blur and gradient operations which are used as the first step in most feature detectors.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JmhBlurGradient {
+
+	@Param({"640x480","1920x1080","3840x2160"})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	@Param({"2","5"})
+	public int radius;
+
+	ImageSingleBand input;
+	ImageSingleBand output;
+	ImageSingleBand storage;
+	ImageSingleBand derivX;
+	ImageSingleBand derivY;
+
+	ImageGradient sobel;
+
+	@Setup
+	public void setup() {
+		Class inputType = BenchmarkUtils.imageType(imageType);
+		Class derivType = GImageDerivativeOps.getDerivativeType(inputType);
+
+		input = BenchmarkUtils.createRandom(inputType, size, new Random(BenchmarkUtils.SEED));
+		output = BenchmarkUtils.createSameShape(inputType,input);
+		storage = BenchmarkUtils.createSameShape(inputType,input);
+		derivX = BenchmarkUtils.createSameShape(derivType,input);
+		derivY = BenchmarkUtils.createSameShape(derivType,input);
+
+		sobel = FactoryDerivative.sobel(inputType,derivType);
+	}
+
+	@Benchmark
+	public ImageSingleBand gaussian() {
+		return GBlurImageOps.gaussian(input, output, -1, radius, storage);
+	}
+
+	@Benchmark
+	public ImageSingleBand mean() {
+		return GBlurImageOps.mean(input, output, radius, storage);
+	}
+
+	@Benchmark
+	public ImageSingleBand median() {
+		return GBlurImageOps.median(input, output, radius);
+	}
+
+	@Benchmark
+	public ImageSingleBand sobel() {
+		sobel.process(input,derivX,derivY);
+		return derivX;
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh.ip;
+
+import boofcv.abst.filter.convolve.ConvolveInterface;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.filter.convolve.FactoryConvolve;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel1D_I32;
+import boofcv.struct.convolve.Kernel2D;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.convolve.Kernel2D_I32;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSInt16;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Convolution with the image border skipped.  Replaces BenchmarkConvolve.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JmhConvolve {
+
+	@Param({"640x480","1920x1080","3840x2160"})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	@Param({"1","3","5"})
+	public int radius;
+
+	@Param({"false","true"})
+	public boolean concurrent;
+
+	ImageSingleBand input;
+	ImageSingleBand output;
+
+	ConvolveInterface horizontal;
+	ConvolveInterface vertical;
+	ConvolveInterface convolve2D;
+
+	@Setup
+	public void setup() {
+		Class inputType = BenchmarkUtils.imageType(imageType);
+		Class outputType = inputType == ImageUInt8.class ? ImageSInt16.class : ImageFloat32.class;
+		boolean isInteger = inputType == ImageUInt8.class;
+
+		input = BenchmarkUtils.createRandom(inputType, size, new Random(BenchmarkUtils.SEED));
+		output = BenchmarkUtils.createSameShape(outputType, input);
+
+		Class kernel1DType = isInteger ? Kernel1D_I32.class : Kernel1D_F32.class;
+		Class kernel2DType = isInteger ? Kernel2D_I32.class : Kernel2D_F32.class;
+		Kernel1D kernel1D = (Kernel1D)FactoryKernelGaussian.gaussian(kernel1DType, -1, radius);
+		Kernel2D kernel2D = (Kernel2D)FactoryKernelGaussian.gaussian(kernel2DType, -1, radius);
+
+		horizontal = FactoryConvolve.convolve(kernel1D,inputType,outputType,BorderType.SKIP,true,concurrent);
+		vertical = FactoryConvolve.convolve(kernel1D,inputType,outputType,BorderType.SKIP,false,concurrent);
+		convolve2D = FactoryConvolve.convolve(kernel2D,inputType,outputType,BorderType.SKIP,concurrent);
+	}
+
+	@Benchmark
+	public ImageSingleBand horizontal() {
+		horizontal.process(input,output);
+		return output;
+	}
+
+	@Benchmark
+	public ImageSingleBand vertical() {
+		vertical.process(input,output);
+		return output;
+	}
+
+	@Benchmark
+	public ImageSingleBand convolve2D() {
+		convolve2D.process(input,output);
+		return output;
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh.ip;
+
+import boofcv.abst.transform.fft.DiscreteFourierTransform;
+import boofcv.alg.transform.fft.DiscreteFourierTransformOps;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.InterleavedF32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forward and inverse 2D FFT of an image.  Power of two and arbitrary sizes go through different code paths.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JmhFourierTransform {
+
+	@Param({"512x512","1024x1024","640x480","1920x1080"})
+	public String size;
+
+	@Param({"false","true"})
+	public boolean concurrent;
+
+	ImageFloat32 input;
+	ImageFloat32 output;
+	InterleavedF32 transform;
+
+	DiscreteFourierTransform<ImageFloat32,InterleavedF32> fft;
+
+	@Setup
+	public void setup() {
+		input = BenchmarkUtils.createRandom(ImageFloat32.class, size, new Random(BenchmarkUtils.SEED));
+		output = new ImageFloat32(input.width,input.height);
+		transform = new InterleavedF32(input.width,input.height,2);
+
+		fft = DiscreteFourierTransformOps.createTransformF32(concurrent);
+		fft.forward(input,transform);
+	}
+
+	@Benchmark
+	public InterleavedF32 forward() {
+		fft.forward(input,transform);
+		return transform;
+	}
+
+	@Benchmark
+	public ImageFloat32 inverse() {
+		fft.inverse(transform,output);
+		return output;
+	}
+}
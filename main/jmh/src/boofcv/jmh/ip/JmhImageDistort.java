@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh.ip;
+
+import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.distort.PixelTransform_F32;
+import boofcv.struct.image.ImageSingleBand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes radial lens distortion from an image, which is how most images from a calibrated camera are processed.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JmhImageDistort {
+
+	@Param({"640x480","2592x1944"})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	@Param({"basic","cached","packed","packed_fixed","packed_mt","packed_fixed_mt"})
+	public String algorithm;
+
+	ImageSingleBand input;
+	ImageSingleBand output;
+
+	ImageDistort distort;
+
+	@Setup
+	public void setup() {
+		Class type = BenchmarkUtils.imageType(imageType);
+
+		input = BenchmarkUtils.createRandom(type, size, new Random(BenchmarkUtils.SEED));
+		output = BenchmarkUtils.createSameShape(type,input);
+
+		if( algorithm.startsWith("packed") ) {
+			boolean fixed = algorithm.startsWith("packed_fixed");
+			boolean concurrent = algorithm.endsWith("_mt");
+			distort = FactoryDistort.distortPacked(TypeInterpolate.BILINEAR,BorderType.VALUE,fixed,concurrent,type);
+		} else {
+			InterpolatePixelS interp = FactoryInterpolation.bilinearPixelS(type);
+			if( algorithm.equals("cached") )
+				distort = FactoryDistort.distortCached(interp, FactoryImageBorder.value(type,0),type);
+			else
+				distort = FactoryDistort.distort(interp, FactoryImageBorder.value(type,0),type);
+		}
+		distort.setModel(new RadialDistortion(input.width/2,input.height/2,input.width));
+
+		// compute the cached distortion before measuring
+		distort.apply(input,output);
+	}
+
+	@Benchmark
+	public ImageSingleBand apply() {
+		distort.apply(input,output);
+		return output;
+	}
+
+	/**
+	 * Simple barrel distortion centered in the image
+	 */
+	public static class RadialDistortion extends PixelTransform_F32 {
+		float cx,cy,scale;
+
+		public RadialDistortion(float cx, float cy, float scale) {
+			this.cx = cx;
+			this.cy = cy;
+			this.scale = scale;
+		}
+
+		@Override
+		public void compute(int x, int y) {
+			float nx = (x-cx)/scale;
+			float ny = (y-cy)/scale;
+			float r2 = nx*nx + ny*ny;
+			float k = 1 + 0.2f*r2 + 0.05f*r2*r2;
+			distX = cx + nx*k*scale;
+			distY = cy + ny*k*scale;
+		}
+	}
+}
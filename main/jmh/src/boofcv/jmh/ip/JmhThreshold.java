@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh.ip;
+
+import boofcv.alg.filter.binary.GThresholdImageOps;
+import boofcv.alg.filter.binary.ThresholdSquareIntegral;
+import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global and locally adaptive thresholding, plus the integral image which is often used along side it.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JmhThreshold {
+
+	@Param({"640x480","1920x1080","3840x2160"})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	@Param({"6","15"})
+	public int radius;
+
+	ImageSingleBand input;
+	ImageSingleBand work1;
+	ImageSingleBand work2;
+	ImageSingleBand integral;
+	ImageUInt8 binary;
+
+	ThresholdSquareIntegral squareIntegral = new ThresholdSquareIntegral(false);
+	ThresholdSquareIntegral squareIntegral_MT = new ThresholdSquareIntegral(true);
+
+	@Setup
+	public void setup() {
+		Class inputType = BenchmarkUtils.imageType(imageType);
+
+		input = BenchmarkUtils.createRandom(inputType, size, new Random(BenchmarkUtils.SEED));
+		work1 = BenchmarkUtils.createSameShape(inputType,input);
+		work2 = BenchmarkUtils.createSameShape(inputType,input);
+		integral = BenchmarkUtils.createSameShape(GIntegralImageOps.getIntegralType(inputType),input);
+		binary = new ImageUInt8(input.width,input.height);
+	}
+
+	@Benchmark
+	public ImageUInt8 global() {
+		return GThresholdImageOps.threshold(input, binary, 50, true);
+	}
+
+	@Benchmark
+	public ImageUInt8 adaptiveSquare() {
+		return GThresholdImageOps.adaptiveSquare(input, binary, radius, 0, true, work1, work2);
+	}
+
+	@Benchmark
+	public ImageUInt8 adaptiveSquareIntegral() {
+		return GThresholdImageOps.adaptiveSquareIntegral(input, binary, radius, 0, true, squareIntegral);
+	}
+
+	@Benchmark
+	public ImageUInt8 adaptiveSquareIntegral_MT() {
+		return GThresholdImageOps.adaptiveSquareIntegral(input, binary, radius, 0, true, squareIntegral_MT);
+	}
+
+	@Benchmark
+	public ImageUInt8 adaptiveGaussian() {
+		return GThresholdImageOps.adaptiveGaussian(input, binary, radius, 0, true, work1, work2);
+	}
+
+	@Benchmark
+	public ImageSingleBand integralImage() {
+		return GIntegralImageOps.transform(input, integral);
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh.recognition;
+
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.alg.tracker.tld.TldParameters;
+import boofcv.alg.tracker.tld.TldTracker;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.factory.tracker.FactoryTrackerObjectAlgs;
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.io.wrapper.DefaultMediaManager;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.ImageUInt8;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TLD object tracking with the single threaded and concurrent detection cascade.  Frames are read from a
+ * recorded MJPEG sequence, or created by translating a larger synthetic image when the video is "synthetic".
+ * The target is initialized in the center of the first frame.  Every invocation tracks the next frame, which
+ * runs the detection cascade over every sliding window region.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JmhTld {
+
+	public static final int NUM_FRAMES = 30;
+
+	// relative to the jmh directory
+	@Param({"../../data/applet/tracking/track_book.mjpeg","synthetic"})
+	public String video;
+
+	@Param({"false","true"})
+	public boolean concurrent;
+
+	List<ImageUInt8> frames = new ArrayList<ImageUInt8>();
+	int frameIndex;
+
+	TldTracker tracker;
+
+	@Setup
+	public void setup() {
+		if( video.equals("synthetic") ) {
+			ImageUInt8 large = BenchmarkUtils.createRectangles(ImageUInt8.class,
+					(640+2*NUM_FRAMES)+"x"+(480+NUM_FRAMES), 1000, new Random(BenchmarkUtils.SEED));
+			for( int i = 0; i < NUM_FRAMES; i++ ) {
+				ImageUInt8 frame = new ImageUInt8(640,480);
+				frame.setTo(large.subimage(2*i,i,2*i+640,i+480,null));
+				frames.add(frame);
+			}
+		} else {
+			SimpleImageSequence<ImageUInt8> sequence =
+					DefaultMediaManager.INSTANCE.openVideo(video, ImageType.single(ImageUInt8.class));
+			while( sequence.hasNext() && frames.size() < NUM_FRAMES ) {
+				frames.add(sequence.next().clone());
+			}
+			sequence.close();
+		}
+
+		Class<ImageUInt8> imageType = ImageUInt8.class;
+		Class derivType = GImageDerivativeOps.getDerivativeType(imageType);
+
+		tracker = FactoryTrackerObjectAlgs.createTLD(new TldParameters(),
+				FactoryInterpolation.bilinearPixelS(imageType),
+				FactoryDerivative.sobel(imageType, derivType), imageType, derivType, concurrent);
+	}
+
+	@Benchmark
+	public boolean track() {
+		ImageUInt8 frame = frames.get(frameIndex);
+		frameIndex = (frameIndex+1) % frames.size();
+		if( frameIndex == 1 ) {
+			int w = frame.width/4;
+			int h = frame.height/4;
+			tracker.initialize(frame, frame.width/2-w, frame.height/2-h, frame.width/2+w, frame.height/2+h);
+			return true;
+		}
+		return tracker.track(frame);
+	}
+}
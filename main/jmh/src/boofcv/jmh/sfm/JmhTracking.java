@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.jmh.sfm;
+
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.abst.feature.tracker.PointTracker;
+import boofcv.abst.sfm.d2.ImageMotion2D;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.alg.tracker.klt.PkltConfig;
+import boofcv.factory.feature.tracker.FactoryPointTracker;
+import boofcv.factory.sfm.FactoryMotion2D;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageSingleBand;
+import georegression.struct.homo.Homography2D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * KLT point tracking and 2D image motion estimation on a synthetic sequence.  Each frame is a translated view
+ * of a larger image and every invocation processes the next frame in the sequence.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JmhTracking {
+
+	public static final int NUM_FRAMES = 20;
+
+	@Param({"640x480","1920x1080"})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	@Param({"false","true"})
+	public boolean concurrent;
+
+	ImageSingleBand frames[];
+	int frameIndex;
+
+	PointTracker tracker;
+	ImageMotion2D motion;
+
+	@Setup
+	public void setup() {
+		Class inputType = BenchmarkUtils.imageType(imageType);
+		Class derivType = GImageDerivativeOps.getDerivativeType(inputType);
+
+		int shape[] = BenchmarkUtils.parseSize(size);
+		String sizeLarge = (shape[0]+2*NUM_FRAMES)+"x"+(shape[1]+NUM_FRAMES);
+		ImageSingleBand large = BenchmarkUtils.createRectangles(inputType, sizeLarge, 1000,
+				new Random(BenchmarkUtils.SEED));
+
+		frames = new ImageSingleBand[NUM_FRAMES];
+		for( int i = 0; i < NUM_FRAMES; i++ ) {
+			frames[i] = (ImageSingleBand)large._createNew(shape[0],shape[1]);
+			frames[i].setTo(large.subimage(2*i,i,2*i+shape[0],i+shape[1],null));
+		}
+
+		PkltConfig configKlt = new PkltConfig();
+		configKlt.pyramidScaling = new int[]{1,2,4,8};
+		configKlt.templateRadius = 3;
+
+		tracker = FactoryPointTracker.klt(configKlt,new ConfigGeneralDetector(600,3,1),
+				inputType,derivType,concurrent);
+
+		PointTracker trackerMotion = FactoryPointTracker.klt(configKlt,new ConfigGeneralDetector(600,3,1),
+				inputType,derivType,concurrent);
+		motion = FactoryMotion2D.createMotion2D(200,3,2,30,0.6,0.5,false,trackerMotion,new Homography2D_F64(),
+				concurrent);
+	}
+
+	private ImageSingleBand nextFrame() {
+		ImageSingleBand frame = frames[frameIndex];
+		frameIndex = (frameIndex+1) % NUM_FRAMES;
+		return frame;
+	}
+
+	@Benchmark
+	public PointTracker klt() {
+		ImageSingleBand frame = nextFrame();
+		if( frameIndex == 1 )
+			tracker.dropAllTracks();
+		tracker.process(frame);
+		tracker.spawnTracks();
+		return tracker;
+	}
+
+	@Benchmark
+	public boolean motion2D() {
+		ImageSingleBand frame = nextFrame();
+		if( frameIndex == 1 )
+			motion.reset();
+		return motion.process(frame);
+	}
+}
@@ -20,13 +20,16 @@ package boofcv.alg.tracker.tld;
 
 import boofcv.alg.sfm.robust.DistanceScaleTranslate2DSq;
 import boofcv.alg.sfm.robust.GenerateScaleTranslate2D;
+import boofcv.alg.sfm.robust.LeastMedianOfSquares_MT;
 import boofcv.alg.sfm.robust.ModelManagerScaleTranslate2D;
+import boofcv.alg.sfm.robust.Ransac_MT;
 import boofcv.struct.geo.AssociatedPair;
 import boofcv.struct.sfm.ScaleTranslate2D;
 import georegression.struct.shapes.RectangleCorner2D_F64;
 import org.ddogleg.fitting.modelset.DistanceFromModel;
 import org.ddogleg.fitting.modelset.ModelGenerator;
 import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.ModelMatcher;
 import org.ddogleg.fitting.modelset.lmeds.LeastMedianOfSquares;
 import org.ddogleg.struct.FastQueue;
 
@@ -38,7 +41,7 @@ import org.ddogleg.struct.FastQueue;
 public class TldAdjustRegion {
 
 	// used for estimating motion from track locations
-	private LeastMedianOfSquares<ScaleTranslate2D,AssociatedPair> estimateMotion;
+	private ModelMatcher<ScaleTranslate2D,AssociatedPair> estimateMotion;
 
 	int imageWidth;
 	int imageHeight;
@@ -48,13 +51,42 @@ public class TldAdjustRegion {
 	 * @param numCycles Number of iterations in robust motion estimation.  Try 50.
 	 */
 	public TldAdjustRegion( int numCycles ) {
+		this(numCycles,false);
+	}
+
+	/**
+	 *
+	 * @param numCycles Number of iterations in robust motion estimation.  Try 50.
+	 * @param concurrent If true the motion hypotheses are generated and scored by multiple threads.
+	 *                   See {@link LeastMedianOfSquares_MT}.
+	 */
+	public TldAdjustRegion( int numCycles , boolean concurrent ) {
 
 		ModelManager<ScaleTranslate2D> manager = new ModelManagerScaleTranslate2D();
-		ModelGenerator<ScaleTranslate2D,AssociatedPair> generator = new GenerateScaleTranslate2D();
-		DistanceFromModel<ScaleTranslate2D,AssociatedPair> distance = new DistanceScaleTranslate2DSq();
 
-		estimateMotion = new LeastMedianOfSquares<ScaleTranslate2D, AssociatedPair>(123123,numCycles,Double.MAX_VALUE,
-				0,manager,generator,distance);
+		if( concurrent ) {
+			Ransac_MT.Factory<ScaleTranslate2D,AssociatedPair> factory =
+					new Ransac_MT.Factory<ScaleTranslate2D, AssociatedPair>() {
+						@Override
+						public ModelGenerator<ScaleTranslate2D, AssociatedPair> createGenerator() {
+							return new GenerateScaleTranslate2D();
+						}
+
+						@Override
+						public DistanceFromModel<ScaleTranslate2D, AssociatedPair> createDistance() {
+							return new DistanceScaleTranslate2DSq();
+						}
+					};
+
+			estimateMotion = new LeastMedianOfSquares_MT<ScaleTranslate2D, AssociatedPair>(123123,numCycles,
+					Double.MAX_VALUE,0,manager,factory);
+		} else {
+			ModelGenerator<ScaleTranslate2D,AssociatedPair> generator = new GenerateScaleTranslate2D();
+			DistanceFromModel<ScaleTranslate2D,AssociatedPair> distance = new DistanceScaleTranslate2DSq();
+
+			estimateMotion = new LeastMedianOfSquares<ScaleTranslate2D, AssociatedPair>(123123,numCycles,
+					Double.MAX_VALUE,0,manager,generator,distance);
+		}
 	}
 
 	public void init( int imageWidth , int imageHeight ) {
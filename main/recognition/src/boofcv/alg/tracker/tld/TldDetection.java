@@ -38,14 +38,17 @@ import java.util.List;
 public class TldDetection<T extends ImageSingleBand> {
 
 	// Detects rectangles: Removes candidates don't match the fern descriptors
-	private TldFernClassifier<T> fern;
+	protected TldFernClassifier<T> fern;
 	// Detects rectangles: Removes candidates don't match NCC descriptors
 	protected TldTemplateMatching<T> template;
 	// Detects rectangles: Removes candidates which lack texture
-	private TldVarianceFilter<T> variance;
+	protected TldVarianceFilter<T> variance;
 
 	// Storage for results of the fern test on individual regions
 	protected FastQueue<TldRegionFernInfo> fernInfo = new FastQueue<TldRegionFernInfo>(TldRegionFernInfo.class,true);
+	// sum of P and N for all the regions in fernInfo
+	protected int totalP;
+	protected int totalN;
 
 	protected TldParameters config;
 
@@ -108,28 +111,9 @@ public class TldDetection<T extends ImageSingleBand> {
 
 		fernInfo.reset();
 
-		int totalP = 0;
-		int totalN = 0;
-
 		// Run through all candidate regions, ignore ones without enough variance, compute
 		// the fern for each one
-		TldRegionFernInfo info = fernInfo.grow();
-		for( int i = 0; i < cascadeRegions.size; i++ ) {
-			ImageRectangle region = cascadeRegions.get(i);
-
-			if( !variance.checkVariance(region)) {
-				continue;
-			}
-
-			info.r = region;
-
-			if( fern.lookupFernPN(info)) {
-				totalP += info.sumP;
-				totalN += info.sumN;
-				info = fernInfo.grow();
-			}
-		}
-		fernInfo.removeTail();
+		computeFernInfo(cascadeRegions);
 
 		// avoid overflow errors in the future by re-normalizing the Fern detector
 		if( totalP > 0x0fffffff)
@@ -157,6 +141,33 @@ public class TldDetection<T extends ImageSingleBand> {
 		success = true;
 	}
 
+	/**
+	 * Computes the fern for each region which passes the variance test.  Regions where a known fern value
+	 * was observed are added to {@link #fernInfo} and their sums are added to {@link #totalP} and {@link #totalN}.
+	 */
+	protected void computeFernInfo( FastQueue<ImageRectangle> cascadeRegions ) {
+		totalP = 0;
+		totalN = 0;
+
+		TldRegionFernInfo info = fernInfo.grow();
+		for( int i = 0; i < cascadeRegions.size; i++ ) {
+			ImageRectangle region = cascadeRegions.get(i);
+
+			if( !variance.checkVariance(region)) {
+				continue;
+			}
+
+			info.r = region;
+
+			if( fern.lookupFernPN(info)) {
+				totalP += info.sumP;
+				totalN += info.sumN;
+				info = fernInfo.grow();
+			}
+		}
+		fernInfo.removeTail();
+	}
+
 	/**
 	 * Computes the confidence for all the regions which pass the fern test
 	 */
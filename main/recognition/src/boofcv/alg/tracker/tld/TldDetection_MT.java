@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.tracker.tld;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.ImageRectangle;
+import boofcv.struct.feature.NccFeature;
+import boofcv.struct.image.ImageSingleBand;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent version of {@link TldDetection}.  The variance and fern tests are applied to blocks of cascade
+ * regions at the same time.  Each block saves its results into its own {@link TldRegionFernInfo} storage, which
+ * are then combined in the same order as the single threaded algorithm.  The confidence of regions which
+ * pass the fern test is also computed in blocks, with a template descriptor for each block.  Non-maximum
+ * suppression and everything after it is single threaded.  The output is identical to {@link TldDetection}.
+ * </p>
+ *
+ * <p>
+ * The fern and template classifiers share the image interpolation and it must be thread safe, e.g. bilinear.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TldDetection_MT<T extends ImageSingleBand> extends TldDetection<T> {
+
+	// minimum number of regions processed by a thread in the fern test
+	public static final int MIN_BLOCK_FERN = 500;
+	// minimum number of regions processed by a thread in the template test
+	public static final int MIN_BLOCK_TEMPLATE = 10;
+
+	// storage for each block
+	List<Block> blocks = new ArrayList<Block>();
+
+	// confidence of each region in fernRegions
+	GrowQueue_F64 confidences = new GrowQueue_F64();
+
+	public TldDetection_MT(TldFernClassifier<T> fern, TldTemplateMatching<T> template,
+						   TldVarianceFilter<T> variance, TldParameters config) {
+		super(fern, template, variance, config);
+	}
+
+	@Override
+	protected void computeFernInfo( final FastQueue<ImageRectangle> cascadeRegions ) {
+		final int numBlocks = BoofConcurrency.computeNumBlocks(cascadeRegions.size, MIN_BLOCK_FERN);
+		if( numBlocks == 1 ) {
+			// avoid copying the results when there's nothing to gain
+			super.computeFernInfo(cascadeRegions);
+			return;
+		}
+		declareBlocks(numBlocks);
+
+		BoofConcurrency.loopBlocks(0, numBlocks, 1, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int block = min; block < max; block++ ) {
+					int start = BoofConcurrency.blockStart(0, cascadeRegions.size, numBlocks, block);
+					int end = BoofConcurrency.blockStart(0, cascadeRegions.size, numBlocks, block+1);
+					blocks.get(block).computeFernInfo(cascadeRegions, start, end);
+				}
+			}
+		});
+
+		// combine the results in the same order as the single threaded algorithm
+		totalP = 0;
+		totalN = 0;
+		for( int block = 0; block < numBlocks; block++ ) {
+			Block b = blocks.get(block);
+			for( int i = 0; i < b.fernInfo.size; i++ ) {
+				TldRegionFernInfo src = b.fernInfo.get(i);
+				TldRegionFernInfo dst = fernInfo.grow();
+				dst.r = src.r;
+				dst.sumP = src.sumP;
+				dst.sumN = src.sumN;
+			}
+			totalP += b.totalP;
+			totalN += b.totalN;
+		}
+	}
+
+	@Override
+	protected void computeTemplateConfidence() {
+		final int N = fernRegions.size();
+		final int numBlocks = BoofConcurrency.computeNumBlocks(N, MIN_BLOCK_TEMPLATE);
+		if( numBlocks == 1 ) {
+			super.computeTemplateConfidence();
+			return;
+		}
+		declareBlocks(numBlocks);
+		confidences.resize(N);
+
+		BoofConcurrency.loopBlocks(0, numBlocks, 1, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int block = min; block < max; block++ ) {
+					int start = BoofConcurrency.blockStart(0, N, numBlocks, block);
+					int end = BoofConcurrency.blockStart(0, N, numBlocks, block+1);
+					NccFeature observed = blocks.get(block).observed;
+					for( int i = start; i < end; i++ ) {
+						ImageRectangle r = fernRegions.get(i);
+						confidences.data[i] = template.computeConfidence(r.x0, r.y0, r.x1, r.y1, observed);
+					}
+				}
+			}
+		});
+
+		for( int i = 0; i < N; i++ ) {
+			double confidence = confidences.data[i];
+
+			if( confidence < config.confidenceThresholdUpper)
+				continue;
+			TldRegion r = candidateDetections.grow();
+			r.connections = 0;
+			r.rect.set(fernRegions.get(i));
+			r.confidence = confidence;
+		}
+	}
+
+	private void declareBlocks( int numBlocks ) {
+		while( blocks.size() < numBlocks )
+			blocks.add(new Block());
+	}
+
+	/**
+	 * Storage for the regions processed by a single thread
+	 */
+	private class Block {
+		FastQueue<TldRegionFernInfo> fernInfo = new FastQueue<TldRegionFernInfo>(TldRegionFernInfo.class,true);
+		int totalP;
+		int totalN;
+
+		NccFeature observed = new NccFeature(15*15);
+
+		/**
+		 * Applies the variance and fern test to the regions in the specified range
+		 */
+		public void computeFernInfo( FastQueue<ImageRectangle> cascadeRegions , int start , int end ) {
+			fernInfo.reset();
+			totalP = 0;
+			totalN = 0;
+
+			TldRegionFernInfo info = fernInfo.grow();
+			for( int i = start; i < end; i++ ) {
+				ImageRectangle region = cascadeRegions.get(i);
+
+				if( !variance.checkVariance(region)) {
+					continue;
+				}
+
+				info.r = region;
+
+				if( fern.lookupFernPN(info)) {
+					totalP += info.sumP;
+					totalN += info.sumN;
+					info = fernInfo.grow();
+				}
+			}
+			fernInfo.removeTail();
+		}
+	}
+}
@@ -177,6 +177,18 @@ public class TldTemplateMatching<T extends ImageSingleBand> {
 	 * @return value from 0 to 1, where higher values are more confident
 	 */
 	public double computeConfidence( int x0 , int y0 , int x1 , int y1 ) {
+		return computeConfidence(x0,y0,x1,y1,observed);
+	}
+
+	/**
+	 * Same as {@link #computeConfidence(int, int, int, int)} but the region's descriptor is written into
+	 * the provided storage.  Several threads can call this function at the same time, with different storage,
+	 * if the interpolation is thread safe and the templates are not being modified.
+	 *
+	 * @param observed (Output) Storage for the region's descriptor
+	 * @return value from 0 to 1, where higher values are more confident
+	 */
+	public double computeConfidence( int x0 , int y0 , int x1 , int y1 , NccFeature observed ) {
 
 		computeNccDescriptor(observed,x0,y0,x1,y1);
 
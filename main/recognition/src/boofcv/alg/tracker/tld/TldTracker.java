@@ -123,6 +123,19 @@ public class TldTracker<T extends ImageSingleBand, D extends ImageSingleBand> {
 	public TldTracker( TldParameters config ,
 					   InterpolatePixelS<T> interpolate , ImageGradient<T,D> gradient ,
 					   Class<T> imageType , Class<D> derivType) {
+		this(config,interpolate,gradient,imageType,derivType,false);
+	}
+
+	/**
+	 * Configures the TLD tracker
+	 *
+	 * @param config Configuration class which specifies the tracker's behavior
+	 * @param concurrent If true the detection cascade and motion estimation are run by multiple threads.  The
+	 *                   interpolation must be thread safe.  See {@link TldDetection_MT} and {@link TldAdjustRegion}.
+	 */
+	public TldTracker( TldParameters config ,
+					   InterpolatePixelS<T> interpolate , ImageGradient<T,D> gradient ,
+					   Class<T> imageType , Class<D> derivType , boolean concurrent ) {
 		this.config = config;
 
 		Random rand = new Random(config.randomSeed);
@@ -131,13 +144,16 @@ public class TldTracker<T extends ImageSingleBand, D extends ImageSingleBand> {
 
 		tracking = new TldRegionTracker<T, D>(config.trackerGridWidth,config.trackerFeatureRadius,
 				config.maximumErrorFB,gradient,tracker,imageType,derivType);
-		adjustRegion = new TldAdjustRegion(config.motionIterations);
+		adjustRegion = new TldAdjustRegion(config.motionIterations,concurrent);
 		variance = new TldVarianceFilter<T>(imageType);
 		template = new TldTemplateMatching<T>(interpolate);
 		fern = new TldFernClassifier<T>(
 				rand,config.numFerns,config.fernSize,20,0.5f,interpolate);
 
-		detection = new TldDetection<T>(fern,template,variance,config);
+		if( concurrent )
+			detection = new TldDetection_MT<T>(fern,template,variance,config);
+		else
+			detection = new TldDetection<T>(fern,template,variance,config);
 		learning = new TldLearning<T>(rand,config,template,variance,fern,detection);
 	}
 
@@ -49,7 +49,20 @@ public class FactoryTrackerObjectAlgs {
 	TldTracker<T,D> createTLD( TldParameters config ,
 							   InterpolatePixelS<T> interpolate , ImageGradient<T,D> gradient ,
 							   Class<T> imageType , Class<D> derivType ) {
-		return new TldTracker<T,D>(config,interpolate,gradient,imageType,derivType);
+		return createTLD(config,interpolate,gradient,imageType,derivType,false);
+	}
+
+	/**
+	 * Creates a {@link TldTracker}.
+	 *
+	 * @param concurrent If true the detection cascade and motion estimation are run by multiple threads.  The
+	 *                   interpolation must be thread safe.
+	 */
+	public static <T extends ImageSingleBand,D extends ImageSingleBand>
+	TldTracker<T,D> createTLD( TldParameters config ,
+							   InterpolatePixelS<T> interpolate , ImageGradient<T,D> gradient ,
+							   Class<T> imageType , Class<D> derivType , boolean concurrent ) {
+		return new TldTracker<T,D>(config,interpolate,gradient,imageType,derivType,concurrent);
 	}
 
 	public static <T extends ImageSingleBand,D extends ImageSingleBand>
@@ -56,6 +56,20 @@ public class FactoryTrackerObjectQuad {
 	 */
 	public static <T extends ImageSingleBand,D extends ImageSingleBand>
 	TrackerObjectQuad<T> tld(ConfigTld config , Class<T> imageType ) {
+		return tld(config,imageType,false);
+	}
+
+	/**
+	 * Create an instance of {@link TldTracker  Tracking-Learning-Detection (TLD)} tracker for the
+	 * {@link TrackerObjectQuad} interface.
+	 * @param config Configuration for the tracker
+	 * @param concurrent If true the detection cascade and motion estimation are run by multiple threads.
+	 * @param <T> Image input type
+	 * @param <D> Image derivative type
+	 * @return TrackerObjectQuad
+	 */
+	public static <T extends ImageSingleBand,D extends ImageSingleBand>
+	TrackerObjectQuad<T> tld(ConfigTld config , Class<T> imageType , boolean concurrent ) {
 		if( config == null )
 			config = new ConfigTld();
 
@@ -64,7 +78,8 @@ public class FactoryTrackerObjectQuad {
 		InterpolatePixelS<T> interpolate = FactoryInterpolation.bilinearPixelS(imageType);
 		ImageGradient<T,D> gradient =  FactoryDerivative.sobel(imageType, derivType);
 
-		TldTracker<T,D> tracker = new TldTracker<T,D>(config.parameters,interpolate,gradient,imageType,derivType);
+		TldTracker<T,D> tracker = new TldTracker<T,D>(config.parameters,interpolate,gradient,imageType,derivType,
+				concurrent);
 
 		return new Tld_to_TrackerObjectQuad<T,D>(tracker,imageType);
 	}
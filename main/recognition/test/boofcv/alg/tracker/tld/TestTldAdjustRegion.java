@@ -20,6 +20,15 @@ public class TestTldAdjustRegion {
 
 	@Test
 	public void process() {
+		process(false);
+	}
+
+	@Test
+	public void process_concurrent() {
+		process(true);
+	}
+
+	private void process( boolean concurrent ) {
 		ScaleTranslate2D motion = new ScaleTranslate2D(1.5,2,3);
 
 		FastQueue<AssociatedPair> pairs = new FastQueue<AssociatedPair>(AssociatedPair.class,true);
@@ -35,7 +44,7 @@ public class TestTldAdjustRegion {
 
 		RectangleCorner2D_F64 rect = new RectangleCorner2D_F64(10,20,30,40);
 
-		TldAdjustRegion alg = new TldAdjustRegion(30);
+		TldAdjustRegion alg = new TldAdjustRegion(30,concurrent);
 		alg.init(300,400);
 
 		assertTrue(alg.process(pairs, rect));
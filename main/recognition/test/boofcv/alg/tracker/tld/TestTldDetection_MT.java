@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.tracker.tld;
+
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.ImageSInt16;
+import boofcv.struct.image.ImageUInt8;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTldDetection_MT {
+
+	Random rand = new Random(234);
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	/**
+	 * Track a target through a sequence and compare the cascade results to the single threaded version
+	 * after every frame
+	 */
+	@Test
+	public void compareToSingle() {
+		ImageUInt8 large = new ImageUInt8(340,250);
+		for( int i = 0; i < 200; i++ ) {
+			int x = rand.nextInt(large.width-10);
+			int y = rand.nextInt(large.height-10);
+			ImageMiscOps.fillRectangle(large, rand.nextInt(255), x, y, rand.nextInt(40)+10, rand.nextInt(40)+10);
+		}
+
+		TldTracker<ImageUInt8,ImageSInt16> single = create(false);
+		TldTracker<ImageUInt8,ImageSInt16> multi = create(true);
+		assertTrue(multi.getDetection() instanceof TldDetection_MT);
+
+		ImageUInt8 frame = new ImageUInt8(320,240);
+		for( int i = 0; i < 5; i++ ) {
+			frame.setTo(large.subimage(2*i, i, 2*i + frame.width, i + frame.height, null));
+
+			if( i == 0 ) {
+				single.initialize(frame, 100, 80, 160, 140);
+				multi.initialize(frame, 100, 80, 160, 140);
+			} else {
+				assertEquals(single.track(frame), multi.track(frame));
+			}
+
+			compare(single.getDetection(), multi.getDetection());
+		}
+	}
+
+	private void compare( TldDetection<ImageUInt8> expected , TldDetection<ImageUInt8> found ) {
+		assertEquals(expected.isSuccess(), found.isSuccess());
+		assertEquals(expected.totalP, found.totalP);
+		assertEquals(expected.totalN, found.totalN);
+
+		FastQueue<TldRegionFernInfo> infoA = expected.getFernInfo();
+		FastQueue<TldRegionFernInfo> infoB = found.getFernInfo();
+		assertEquals(infoA.size, infoB.size);
+		for( int i = 0; i < infoA.size; i++ ) {
+			TldRegionFernInfo a = infoA.get(i);
+			TldRegionFernInfo b = infoB.get(i);
+			assertEquals(a.r.x0, b.r.x0);
+			assertEquals(a.r.y0, b.r.y0);
+			assertEquals(a.r.x1, b.r.x1);
+			assertEquals(a.r.y1, b.r.y1);
+			assertEquals(a.sumP, b.sumP);
+			assertEquals(a.sumN, b.sumN);
+		}
+
+		FastQueue<TldRegion> candA = expected.getCandidateDetections();
+		FastQueue<TldRegion> candB = found.getCandidateDetections();
+		assertEquals(candA.size, candB.size);
+		for( int i = 0; i < candA.size; i++ ) {
+			TldRegion a = candA.get(i);
+			TldRegion b = candB.get(i);
+			assertEquals(a.rect.x0, b.rect.x0);
+			assertEquals(a.rect.y0, b.rect.y0);
+			assertEquals(a.rect.x1, b.rect.x1);
+			assertEquals(a.rect.y1, b.rect.y1);
+			assertEquals(a.confidence, b.confidence, 0);
+		}
+	}
+
+	private TldTracker<ImageUInt8,ImageSInt16> create( boolean concurrent ) {
+		Class<ImageSInt16> derivType = GImageDerivativeOps.getDerivativeType(ImageUInt8.class);
+		return new TldTracker<ImageUInt8,ImageSInt16>(new TldParameters(),
+				FactoryInterpolation.bilinearPixelS(ImageUInt8.class),
+				FactoryDerivative.sobel(ImageUInt8.class, derivType),
+				ImageUInt8.class, derivType, concurrent);
+	}
+}
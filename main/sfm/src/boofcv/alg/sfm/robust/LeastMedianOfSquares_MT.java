@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.ddogleg.sorting.QuickSelectArray;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Least Median of Squares which generates and scores its hypotheses concurrently.  Hypotheses are split into
+ * blocks the same way as {@link Ransac_MT} and each block is processed by a worker with its own
+ * {@link ModelGenerator} and {@link DistanceFromModel}.  The {@link ModelManager} is shared by all the workers
+ * and must not have any internal state.
+ * </p>
+ *
+ * <p>
+ * Each hypothesis draws its sample from a random number generator seeded from the global seed and the index
+ * of the hypothesis.  The best hypothesis is the one with the smallest median error and ties go to the
+ * hypothesis with the lowest index, so the output does not depend on the number of threads.  It will not be
+ * identical to {@link org.ddogleg.fitting.modelset.lmeds.LeastMedianOfSquares} since the samples are drawn
+ * differently.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LeastMedianOfSquares_MT<Model,Point> implements ModelMatcher<Model,Point> {
+
+	// minimum number of hypotheses processed by a thread
+	public static final int MIN_BLOCK = 10;
+
+	// creates the generator and distance function for each worker
+	Ransac_MT.Factory<Model,Point> factory;
+	// creates and copies models
+	ModelManager<Model> manager;
+
+	// seed used to compute the seed for each hypothesis
+	long seed;
+	// number of hypotheses which are generated
+	int totalCycles;
+	// if the median error is larger than this then it fails
+	double maxMedianError;
+	// fraction of points with the smallest error which are returned as inliers.  If zero all points are returned
+	double inlierFraction;
+
+	// the number of points required to generate a model
+	int sampleSize;
+
+	// storage for each block of hypotheses
+	List<Worker> workers = new ArrayList<Worker>();
+
+	// the best model found and its median error
+	Model bestModel;
+	double bestMedian;
+	// inliers of the best model and their index in the input list
+	List<Point> matchSet = new ArrayList<Point>();
+	int[] matchToInput = new int[1];
+	int[] indexes = new int[1];
+
+	/**
+	 * Configures Least Median of Squares
+	 *
+	 * @param seed Seed for the random number generator.
+	 * @param totalCycles Number of hypotheses which are generated.
+	 * @param maxMedianError If the best median error is larger than this it is considered a failure.
+	 * @param inlierFraction Fraction of the points with the smallest error which are returned as inliers.  If
+	 *                       zero then all the points are returned.
+	 * @param manager Creates and copies models.  Shared by all threads.
+	 * @param factory Creates a generator and distance function for each thread.
+	 */
+	public LeastMedianOfSquares_MT(long seed, int totalCycles, double maxMedianError, double inlierFraction,
+								   ModelManager<Model> manager, Ransac_MT.Factory<Model, Point> factory) {
+		if( inlierFraction < 0 || inlierFraction > 1 )
+			throw new IllegalArgumentException("Inlier fraction must be from 0 to 1");
+
+		this.seed = seed;
+		this.totalCycles = totalCycles;
+		this.maxMedianError = maxMedianError;
+		this.inlierFraction = inlierFraction;
+		this.manager = manager;
+		this.factory = factory;
+
+		bestModel = manager.createModelInstance();
+		workers.add(new Worker());
+		sampleSize = workers.get(0).generator.getMinimumPoints();
+	}
+
+	@Override
+	public boolean process(final List<Point> dataSet) {
+		matchSet.clear();
+		bestMedian = Double.MAX_VALUE;
+
+		if( dataSet.size() < sampleSize )
+			return false;
+
+		final int numBlocks = BoofConcurrency.computeNumBlocks(totalCycles, MIN_BLOCK);
+		while( workers.size() < numBlocks )
+			workers.add(new Worker());
+
+		BoofConcurrency.loopBlocks(0, numBlocks, 1, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int block = min; block < max; block++ ) {
+					int start = BoofConcurrency.blockStart(0, totalCycles, numBlocks, block);
+					int end = BoofConcurrency.blockStart(0, totalCycles, numBlocks, block+1);
+					workers.get(block).process(dataSet, start, end);
+				}
+			}
+		});
+
+		// blocks are in order of hypothesis index so the first of any equally good hypotheses is selected
+		Worker best = null;
+		for( int block = 0; block < numBlocks; block++ ) {
+			Worker w = workers.get(block);
+			if( w.bestMedian < Double.MAX_VALUE && (best == null || w.bestMedian < best.bestMedian) )
+				best = w;
+		}
+
+		if( best == null )
+			return false;
+
+		bestMedian = best.bestMedian;
+		manager.copyModel(best.bestModel, bestModel);
+		selectMatchSet(dataSet);
+
+		return bestMedian <= maxMedianError;
+	}
+
+	/**
+	 * Selects the fraction of points with the smallest error as inliers, or all the points if the fraction is zero
+	 */
+	private void selectMatchSet( List<Point> dataSet ) {
+		int N = dataSet.size();
+		if( matchToInput.length < N ) {
+			matchToInput = new int[ N ];
+			indexes = new int[ N ];
+		}
+
+		int numInliers = (int)(N*inlierFraction);
+		if( inlierFraction > 0 && numInliers > sampleSize ) {
+			double[] errors = workers.get(0).errors;
+			DistanceFromModel<Model,Point> distance = workers.get(0).distance;
+			distance.setModel(bestModel);
+			distance.computeDistance(dataSet, errors);
+
+			QuickSelectArray.selectIndex(errors, numInliers, N, indexes);
+			for( int i = 0; i < numInliers; i++ ) {
+				matchToInput[i] = indexes[i];
+				matchSet.add(dataSet.get(indexes[i]));
+			}
+		} else {
+			for( int i = 0; i < N; i++ ) {
+				matchToInput[i] = i;
+				matchSet.add(dataSet.get(i));
+			}
+		}
+	}
+
+	@Override
+	public Model getModelParameters() {
+		return bestModel;
+	}
+
+	@Override
+	public List<Point> getMatchSet() {
+		return matchSet;
+	}
+
+	@Override
+	public int getInputIndex(int matchIndex) {
+		return matchToInput[matchIndex];
+	}
+
+	/**
+	 * Returns the median error of the best model
+	 */
+	@Override
+	public double getFitQuality() {
+		return bestMedian;
+	}
+
+	@Override
+	public int getMinimumSize() {
+		return sampleSize;
+	}
+
+	public int getTotalCycles() {
+		return totalCycles;
+	}
+
+	public void setTotalCycles(int totalCycles) {
+		this.totalCycles = totalCycles;
+	}
+
+	/**
+	 * Generates and scores a block of hypotheses
+	 */
+	private class Worker {
+		ModelGenerator<Model,Point> generator = factory.createGenerator();
+		DistanceFromModel<Model,Point> distance = factory.createDistance();
+
+		Random rand = new Random();
+		int[] sampleIndexes = new int[ generator.getMinimumPoints() ];
+		List<Point> sample = new ArrayList<Point>();
+		double[] errors = new double[1];
+
+		Model candidate = manager.createModelInstance();
+		Model bestModel = manager.createModelInstance();
+		double bestMedian;
+
+		public void process( List<Point> dataSet , int start , int end ) {
+			bestMedian = Double.MAX_VALUE;
+
+			int N = dataSet.size();
+			if( errors.length < N )
+				errors = new double[ N ];
+
+			for( int hypothesis = start; hypothesis < end; hypothesis++ ) {
+				// the same hypothesis is generated no matter which worker processes it
+				rand.setSeed(Ransac_MT.hypothesisSeed(seed,hypothesis));
+				Ransac_MT.drawSample(rand, dataSet, sampleIndexes, sample);
+
+				if( !generator.generate(sample, candidate) )
+					continue;
+
+				distance.setModel(candidate);
+				distance.computeDistance(dataSet, errors);
+
+				double median = QuickSelectArray.select(errors, N/2, N);
+
+				if( median < bestMedian ) {
+					bestMedian = median;
+					manager.copyModel(candidate, bestModel);
+				}
+			}
+		}
+	}
+}
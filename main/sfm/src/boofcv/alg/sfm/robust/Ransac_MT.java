@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * RANSAC which generates and scores its hypotheses concurrently.  The set of hypotheses is split into blocks
+ * and each block is processed by a worker with its own {@link ModelGenerator} and {@link DistanceFromModel},
+ * created by the provided {@link Factory}.  The {@link ModelManager} is shared by all the workers and must not
+ * have any internal state.
+ * </p>
+ *
+ * <p>
+ * Each hypothesis draws its sample from a random number generator seeded from the global seed and the index
+ * of the hypothesis, instead of a single stream shared by all iterations.  The best hypothesis is the one with
+ * the most inliers and ties go to the hypothesis with the lowest index.  The output is thus the same no matter
+ * how many threads are used.  It will not be identical to the single threaded {@link org.ddogleg.fitting.modelset.ransac.Ransac}
+ * since the samples are drawn differently.
+ * </p>
+ *
+ * <p>
+ * Two tests are used to stop scoring a hypothesis early.  The first is the T(d,d) pre-test [1], where d randomly
+ * selected points are checked first and the hypothesis is discarded unless all of them are inliers.  The second
+ * stops scoring a hypothesis once it can no longer beat the best hypothesis its worker has already found.
+ * Neither test changes which hypothesis the worker would pick, except for hypotheses rejected by T(d,d).
+ * </p>
+ *
+ * <p>
+ * [1] Matas, J. and Chum, O. "Randomized RANSAC with T(d,d) test" Image and Vision Computing, 2004
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Ransac_MT<Model,Point> implements ModelMatcher<Model,Point> {
+
+	// minimum number of hypotheses processed by a thread
+	public static final int MIN_BLOCK = 10;
+
+	// creates the generator and distance function for each worker
+	Factory<Model,Point> factory;
+	// creates and copies models
+	ModelManager<Model> manager;
+
+	// seed used to compute the seed for each hypothesis
+	long seed;
+	// number of hypotheses which are generated
+	int maxIterations;
+	// points with a distance less than this are inliers
+	double thresholdFit;
+	// number of points checked by the T(d,d) test.  If zero the test is skipped
+	int numPreTest;
+
+	// the number of points required to generate a model
+	int sampleSize;
+
+	// storage for each block of hypotheses
+	List<Worker> workers = new ArrayList<Worker>();
+
+	// the best model found
+	Model bestModel;
+	// inliers of the best model and their index in the input list
+	List<Point> matchSet = new ArrayList<Point>();
+	int[] matchToInput = new int[1];
+
+	/**
+	 * Configures RANSAC
+	 *
+	 * @param seed Seed for the random number generator.
+	 * @param manager Creates and copies models.  Shared by all threads.
+	 * @param factory Creates a generator and distance function for each thread.
+	 * @param maxIterations Number of hypotheses which are generated.
+	 * @param thresholdFit Points with a distance from the model less than this are inliers.
+	 * @param numPreTest Number of points checked by the T(d,d) test.  Try 1.  If zero the test is turned off.
+	 */
+	public Ransac_MT(long seed, ModelManager<Model> manager, Factory<Model, Point> factory,
+					 int maxIterations, double thresholdFit, int numPreTest) {
+		if( numPreTest < 0 )
+			throw new IllegalArgumentException("numPreTest must be >= 0");
+
+		this.seed = seed;
+		this.manager = manager;
+		this.factory = factory;
+		this.maxIterations = maxIterations;
+		this.thresholdFit = thresholdFit;
+		this.numPreTest = numPreTest;
+
+		bestModel = manager.createModelInstance();
+		workers.add(new Worker());
+		sampleSize = workers.get(0).generator.getMinimumPoints();
+	}
+
+	@Override
+	public boolean process(final List<Point> dataSet) {
+		matchSet.clear();
+
+		if( dataSet.size() < sampleSize )
+			return false;
+
+		final int numBlocks = BoofConcurrency.computeNumBlocks(maxIterations, MIN_BLOCK);
+		while( workers.size() < numBlocks )
+			workers.add(new Worker());
+
+		BoofConcurrency.loopBlocks(0, numBlocks, 1, new IntRangeTask() {
+			@Override
+			public void process(int min, int max) {
+				for( int block = min; block < max; block++ ) {
+					int start = BoofConcurrency.blockStart(0, maxIterations, numBlocks, block);
+					int end = BoofConcurrency.blockStart(0, maxIterations, numBlocks, block+1);
+					workers.get(block).process(dataSet, start, end);
+				}
+			}
+		});
+
+		// blocks are in order of hypothesis index so the first of any equally good hypotheses is selected
+		Worker best = null;
+		for( int block = 0; block < numBlocks; block++ ) {
+			Worker w = workers.get(block);
+			if( w.bestCount > 0 && (best == null || w.bestCount > best.bestCount) )
+				best = w;
+		}
+
+		if( best == null )
+			return false;
+
+		manager.copyModel(best.bestModel, bestModel);
+		selectMatchSet(dataSet);
+
+		return matchSet.size() > 0;
+	}
+
+	/**
+	 * Finds all the inliers of the best model
+	 */
+	private void selectMatchSet( List<Point> dataSet ) {
+		if( matchToInput.length < dataSet.size() )
+			matchToInput = new int[ dataSet.size() ];
+
+		DistanceFromModel<Model,Point> distance = workers.get(0).distance;
+		distance.setModel(bestModel);
+
+		for( int i = 0; i < dataSet.size(); i++ ) {
+			Point p = dataSet.get(i);
+			if( distance.computeDistance(p) < thresholdFit ) {
+				matchToInput[matchSet.size()] = i;
+				matchSet.add(p);
+			}
+		}
+	}
+
+	/**
+	 * Computes the seed for a hypothesis.  The bits are mixed so that hypotheses with adjacent indexes
+	 * have unrelated random sequences.
+	 */
+	protected static long hypothesisSeed( long seed , int hypothesis ) {
+		long z = seed + (hypothesis+1)*0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Randomly selects points without replacement.  Shared by the concurrent robust estimators.
+	 *
+	 * @param rand Random number generator.
+	 * @param dataSet Points which are being sampled.
+	 * @param sampleIndexes Storage for the index of each selected point.  Its length is the sample size.
+	 * @param sample Output.  The selected points.
+	 */
+	protected static <Point> void drawSample( Random rand , List<Point> dataSet ,
+											  int[] sampleIndexes , List<Point> sample ) {
+		sample.clear();
+		for( int i = 0; i < sampleIndexes.length; i++ ) {
+			int index;
+			boolean unique;
+			do {
+				index = rand.nextInt(dataSet.size());
+				unique = true;
+				for( int j = 0; j < i; j++ ) {
+					if( sampleIndexes[j] == index ) {
+						unique = false;
+						break;
+					}
+				}
+			} while( !unique );
+			sampleIndexes[i] = index;
+			sample.add(dataSet.get(index));
+		}
+	}
+
+	@Override
+	public Model getModelParameters() {
+		return bestModel;
+	}
+
+	@Override
+	public List<Point> getMatchSet() {
+		return matchSet;
+	}
+
+	@Override
+	public int getInputIndex(int matchIndex) {
+		return matchToInput[matchIndex];
+	}
+
+	@Override
+	public double getFitQuality() {
+		return matchSet.size();
+	}
+
+	@Override
+	public int getMinimumSize() {
+		return sampleSize;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	public double getThresholdFit() {
+		return thresholdFit;
+	}
+
+	public void setThresholdFit(double thresholdFit) {
+		this.thresholdFit = thresholdFit;
+	}
+
+	public int getNumPreTest() {
+		return numPreTest;
+	}
+
+	/**
+	 * Generates and scores a block of hypotheses
+	 */
+	private class Worker {
+		ModelGenerator<Model,Point> generator = factory.createGenerator();
+		DistanceFromModel<Model,Point> distance = factory.createDistance();
+
+		Random rand = new Random();
+		int[] sampleIndexes = new int[ generator.getMinimumPoints() ];
+		List<Point> sample = new ArrayList<Point>();
+
+		Model candidate = manager.createModelInstance();
+		Model bestModel = manager.createModelInstance();
+		int bestCount;
+
+		public void process( List<Point> dataSet , int start , int end ) {
+			bestCount = 0;
+
+			int N = dataSet.size();
+			for( int hypothesis = start; hypothesis < end; hypothesis++ ) {
+				// the same hypothesis is generated no matter which worker processes it
+				rand.setSeed(hypothesisSeed(seed,hypothesis));
+				drawSample(rand, dataSet, sampleIndexes, sample);
+
+				if( !generator.generate(sample, candidate) )
+					continue;
+
+				distance.setModel(candidate);
+
+				if( !preTest(dataSet) )
+					continue;
+
+				// count the inliers and stop if it can't be better than the best hypothesis already found
+				int count = 0;
+				for( int i = 0; i < N; i++ ) {
+					if( distance.computeDistance(dataSet.get(i)) < thresholdFit )
+						count++;
+					else if( count + N - i - 1 <= bestCount )
+						break;
+				}
+
+				if( count > bestCount ) {
+					bestCount = count;
+					manager.copyModel(candidate, bestModel);
+				}
+			}
+		}
+
+		/**
+		 * T(d,d) test.  Returns true only if all of the randomly selected points are inliers
+		 */
+		private boolean preTest( List<Point> dataSet ) {
+			for( int i = 0; i < numPreTest; i++ ) {
+				Point p = dataSet.get(rand.nextInt(dataSet.size()));
+				if( distance.computeDistance(p) >= thresholdFit )
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Creates a new instance of the classes used by each thread.  Each call must return a new instance which
+	 * is configured identically to the others.
+	 */
+	public interface Factory<Model,Point> {
+		ModelGenerator<Model,Point> createGenerator();
+
+		DistanceFromModel<Model,Point> createDistance();
+	}
+}
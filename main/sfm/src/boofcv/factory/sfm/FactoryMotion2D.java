@@ -76,40 +76,43 @@ public class FactoryMotion2D {
 										double respawnCoverageFraction,
 										boolean refineEstimate ,
 										PointTracker<I> tracker , IT motionModel ) {
+		return createMotion2D(ransacIterations,inlierThreshold,outlierPrune,absoluteMinimumTracks,
+				respawnTrackFraction,respawnCoverageFraction,refineEstimate,tracker,motionModel,false);
+	}
+
+	/**
+	 * Estimates the 2D motion of an image using different models.  See
+	 * {@link #createMotion2D(int, double, int, int, double, double, boolean, PointTracker, InvertibleTransform)}
+	 * for a description of the other parameters.
+	 *
+	 * @param concurrent If true RANSAC hypotheses are generated and scored by multiple threads using
+	 *                   {@link Ransac_MT}.
+	 */
+	public static <I extends ImageBase, IT extends InvertibleTransform>
+	ImageMotion2D<I,IT> createMotion2D( int ransacIterations , double inlierThreshold,int outlierPrune,
+										int absoluteMinimumTracks, double respawnTrackFraction,
+										double respawnCoverageFraction,
+										boolean refineEstimate ,
+										PointTracker<I> tracker , IT motionModel , boolean concurrent ) {
 
-		ModelManager<IT> manager;
-		ModelGenerator<IT,AssociatedPair> fitter;
-		DistanceFromModel<IT,AssociatedPair> distance;
+		MotionModelFactory<IT> factory = new MotionModelFactory<IT>(motionModel);
+		ModelManager<IT> manager = factory.createManager();
+		ModelGenerator<IT,AssociatedPair> fitter = factory.createGenerator();
+		DistanceFromModel<IT,AssociatedPair> distance = factory.createDistance();
 		ModelFitter<IT,AssociatedPair> modelRefiner = null;
 
-		if( motionModel instanceof Homography2D_F64) {
-			GenerateHomographyLinear mf = new GenerateHomographyLinear(true);
-			manager = (ModelManager)new ModelManagerHomography2D_F64();
-			fitter = (ModelGenerator)mf;
-			if( refineEstimate )
-				modelRefiner = (ModelFitter)mf;
-			distance = (DistanceFromModel)new DistanceHomographySq();
-		} else if( motionModel instanceof Affine2D_F64) {
-			manager = (ModelManager)new ModelManagerAffine2D_F64();
-			GenerateAffine2D mf = new GenerateAffine2D();
-			fitter = (ModelGenerator)mf;
-			if( refineEstimate )
-				modelRefiner = (ModelFitter)mf;
-			distance =  (DistanceFromModel)new DistanceAffine2DSq();
-		} else if( motionModel instanceof Se2_F64) {
-			manager = (ModelManager)new ModelManagerSe2_F64();
-			MotionTransformPoint<Se2_F64, Point2D_F64> alg = new MotionSe2PointSVD_F64();
-			GenerateSe2_AssociatedPair mf = new GenerateSe2_AssociatedPair(alg);
-			fitter = (ModelGenerator)mf;
-			distance =  (DistanceFromModel)new DistanceSe2Sq();
-			// no refine, already optimal
+		// Se2 is not refined since its estimate is already optimal
+		if( refineEstimate && !(motionModel instanceof Se2_F64) )
+			modelRefiner = (ModelFitter)fitter;
+
+		ModelMatcher<IT,AssociatedPair>  modelMatcher;
+		if( concurrent ) {
+			modelMatcher = new Ransac_MT<IT,AssociatedPair>(123123,manager,
+					factory,ransacIterations,inlierThreshold,1);
 		} else {
-			throw new RuntimeException("Unknown model type: "+motionModel.getClass().getSimpleName());
+			modelMatcher = new Ransac(123123,manager,fitter,distance,ransacIterations,inlierThreshold);
 		}
 
-		ModelMatcher<IT,AssociatedPair>  modelMatcher =
-				new Ransac(123123,manager,fitter,distance,ransacIterations,inlierThreshold);
-
 		ImageMotionPointTrackerKey<I,IT> lowlevel =
 				new ImageMotionPointTrackerKey<I, IT>(tracker,modelMatcher,modelRefiner,motionModel,outlierPrune);
 
@@ -120,6 +123,56 @@ public class FactoryMotion2D {
 		return new WrapImageMotionPtkSmartRespawn<I, IT>(smartRespawn);
 	}
 
+	/**
+	 * Creates the manager, generator, and distance function for a motion model.  It is also used to create the
+	 * generator and distance function for each thread in {@link Ransac_MT}.
+	 */
+	private static class MotionModelFactory<IT extends InvertibleTransform>
+			implements Ransac_MT.Factory<IT,AssociatedPair>
+	{
+		IT motionModel;
+
+		private MotionModelFactory( IT motionModel ) {
+			if( !(motionModel instanceof Homography2D_F64 || motionModel instanceof Affine2D_F64 ||
+					motionModel instanceof Se2_F64) )
+				throw new RuntimeException("Unknown model type: "+motionModel.getClass().getSimpleName());
+			this.motionModel = motionModel;
+		}
+
+		public ModelManager<IT> createManager() {
+			if( motionModel instanceof Homography2D_F64) {
+				return (ModelManager)new ModelManagerHomography2D_F64();
+			} else if( motionModel instanceof Affine2D_F64) {
+				return (ModelManager)new ModelManagerAffine2D_F64();
+			} else {
+				return (ModelManager)new ModelManagerSe2_F64();
+			}
+		}
+
+		@Override
+		public ModelGenerator<IT, AssociatedPair> createGenerator() {
+			if( motionModel instanceof Homography2D_F64) {
+				return (ModelGenerator)new GenerateHomographyLinear(true);
+			} else if( motionModel instanceof Affine2D_F64) {
+				return (ModelGenerator)new GenerateAffine2D();
+			} else {
+				MotionTransformPoint<Se2_F64, Point2D_F64> alg = new MotionSe2PointSVD_F64();
+				return (ModelGenerator)new GenerateSe2_AssociatedPair(alg);
+			}
+		}
+
+		@Override
+		public DistanceFromModel<IT, AssociatedPair> createDistance() {
+			if( motionModel instanceof Homography2D_F64) {
+				return (DistanceFromModel)new DistanceHomographySq();
+			} else if( motionModel instanceof Affine2D_F64) {
+				return (DistanceFromModel)new DistanceAffine2DSq();
+			} else {
+				return (DistanceFromModel)new DistanceSe2Sq();
+			}
+		}
+	}
+
 	/**
 	 * Estimates the image motion then combines images together.  Typically used for mosaics and stabilization.
 	 *
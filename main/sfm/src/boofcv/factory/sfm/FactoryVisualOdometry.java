@@ -153,10 +153,40 @@ public class FactoryVisualOdometry {
 
 													  PointTracker<T> tracker ,
 													  ImageType<T> imageType ) {
+		return monoPlaneOverhead(cellSize,maxCellsPerPixel,mapHeightFraction,inlierGroundTol,ransacIterations,
+				thresholdRetire,absoluteMinimumTracks,respawnTrackFraction,respawnCoverageFraction,
+				tracker,imageType,false);
+	}
+
+	/**
+	 * Monocular plane based visual odometry algorithm which creates a synthetic overhead view and tracks image
+	 * features inside this synthetic view.  See {@link #monoPlaneOverhead(double, double, double, double, int,
+	 * int, int, double, double, PointTracker, ImageType)} for a description of the other parameters.
+	 *
+	 * @param concurrent (RANSAC) If true hypotheses are generated and scored by multiple threads
+	 * @return MonocularPlaneVisualOdometry
+	 */
+	public static <T extends ImageSingleBand>
+	MonocularPlaneVisualOdometry<T> monoPlaneOverhead(double cellSize,
+													  double maxCellsPerPixel,
+													  double mapHeightFraction ,
+
+													  double inlierGroundTol,
+													  int ransacIterations ,
+
+													  int thresholdRetire ,
+													  int absoluteMinimumTracks,
+													  double respawnTrackFraction,
+													  double respawnCoverageFraction,
+
+													  PointTracker<T> tracker ,
+													  ImageType<T> imageType ,
+													  boolean concurrent ) {
 
 		ImageMotion2D<T,Se2_F64> motion2D = FactoryMotion2D.createMotion2D(
 				ransacIterations,inlierGroundTol*inlierGroundTol,thresholdRetire,
-				absoluteMinimumTracks,respawnTrackFraction,respawnCoverageFraction,false,tracker,new Se2_F64());
+				absoluteMinimumTracks,respawnTrackFraction,respawnCoverageFraction,false,tracker,new Se2_F64(),
+				concurrent);
 
 
 		VisOdomMonoOverheadMotion2D<T> alg =
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.geo.AssociatedPair;
+import georegression.fitting.se.ModelManagerSe2_F64;
+import georegression.fitting.se.MotionSe2PointSVD_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.se.Se2_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLeastMedianOfSquares_MT {
+
+	Random rand = new Random(234);
+
+	int maxThreads;
+
+	Se2_F64 model = new Se2_F64(1.5,-2,0.4);
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	/**
+	 * Find the model in noise free data where less than half the points are outliers
+	 */
+	@Test
+	public void findModel() {
+		List<AssociatedPair> data = createData(200, 0.3);
+
+		LeastMedianOfSquares_MT<Se2_F64,AssociatedPair> alg = create(0);
+
+		assertTrue(alg.process(data));
+
+		Se2_F64 found = alg.getModelParameters();
+		assertEquals(model.getX(), found.getX(), 1e-8);
+		assertEquals(model.getY(), found.getY(), 1e-8);
+		assertEquals(model.getYaw(), found.getYaw(), 1e-8);
+		assertEquals(0, alg.getFitQuality(), 1e-8);
+
+		// all the points are returned when the inlier fraction is zero
+		assertEquals(data.size(), alg.getMatchSet().size());
+		for( int i = 0; i < data.size(); i++ ) {
+			assertEquals(i, alg.getInputIndex(i));
+		}
+	}
+
+	/**
+	 * Only the fraction of points with the smallest error should be returned
+	 */
+	@Test
+	public void inlierFraction() {
+		List<AssociatedPair> data = createData(200, 0.3);
+
+		LeastMedianOfSquares_MT<Se2_F64,AssociatedPair> alg = create(0.5);
+
+		assertTrue(alg.process(data));
+
+		List<AssociatedPair> matches = alg.getMatchSet();
+		assertEquals(100, matches.size());
+		for( int i = 0; i < matches.size(); i++ ) {
+			int index = alg.getInputIndex(i);
+			// inliers are at the start of the list
+			assertTrue(index < 140);
+			assertTrue(matches.get(i) == data.get(index));
+		}
+	}
+
+	/**
+	 * The output should not depend on the number of threads
+	 */
+	@Test
+	public void independentOfThreads() {
+		List<AssociatedPair> data = createData(150, 0.3);
+		// add noise so that different hypotheses have different scores
+		for( AssociatedPair p : data ) {
+			p.p2.x += rand.nextGaussian()*0.02;
+			p.p2.y += rand.nextGaussian()*0.02;
+		}
+
+		BoofConcurrency.setMaxThreads(1);
+		LeastMedianOfSquares_MT<Se2_F64,AssociatedPair> single = create(0.5);
+		assertTrue(single.process(data));
+
+		BoofConcurrency.setMaxThreads(4);
+		LeastMedianOfSquares_MT<Se2_F64,AssociatedPair> multi = create(0.5);
+		// process twice to make sure internal storage is reset correctly
+		assertTrue(multi.process(data));
+		assertTrue(multi.process(data));
+
+		Se2_F64 expected = single.getModelParameters();
+		Se2_F64 found = multi.getModelParameters();
+		assertEquals(expected.getX(), found.getX(), 0);
+		assertEquals(expected.getY(), found.getY(), 0);
+		assertEquals(expected.getYaw(), found.getYaw(), 0);
+		assertEquals(single.getFitQuality(), multi.getFitQuality(), 0);
+
+		assertEquals(single.getMatchSet().size(), multi.getMatchSet().size());
+		for( int i = 0; i < single.getMatchSet().size(); i++ ) {
+			assertEquals(single.getInputIndex(i), multi.getInputIndex(i));
+		}
+	}
+
+	/**
+	 * Fail if the median error is too large
+	 */
+	@Test
+	public void maxMedianError() {
+		List<AssociatedPair> data = createData(150, 0.3);
+		for( AssociatedPair p : data ) {
+			p.p2.x += rand.nextGaussian()*0.5;
+			p.p2.y += rand.nextGaussian()*0.5;
+		}
+
+		LeastMedianOfSquares_MT<Se2_F64,AssociatedPair> alg =
+				new LeastMedianOfSquares_MT<Se2_F64, AssociatedPair>(234,200,1e-4,0,new ModelManagerSe2_F64(),factory());
+
+		assertFalse(alg.process(data));
+		assertTrue(alg.getFitQuality() > 1e-4);
+	}
+
+	@Test
+	public void tooFewPoints() {
+		LeastMedianOfSquares_MT<Se2_F64,AssociatedPair> alg = create(0);
+
+		List<AssociatedPair> data = createData(alg.getMinimumSize()-1, 0);
+		assertFalse(alg.process(data));
+		assertEquals(0, alg.getMatchSet().size());
+	}
+
+	private LeastMedianOfSquares_MT<Se2_F64,AssociatedPair> create( double inlierFraction ) {
+		return new LeastMedianOfSquares_MT<Se2_F64, AssociatedPair>(234,200,Double.MAX_VALUE,inlierFraction,
+				new ModelManagerSe2_F64(),factory());
+	}
+
+	private Ransac_MT.Factory<Se2_F64,AssociatedPair> factory() {
+		return new Ransac_MT.Factory<Se2_F64, AssociatedPair>() {
+			@Override
+			public ModelGenerator<Se2_F64, AssociatedPair> createGenerator() {
+				return new GenerateSe2_AssociatedPair(new MotionSe2PointSVD_F64());
+			}
+
+			@Override
+			public DistanceFromModel<Se2_F64, AssociatedPair> createDistance() {
+				return new DistanceSe2Sq();
+			}
+		};
+	}
+
+	/**
+	 * Creates a set of observations where the inliers are at the start of the list
+	 */
+	private List<AssociatedPair> createData( int N , double fractionOutlier ) {
+		List<AssociatedPair> data = new ArrayList<AssociatedPair>();
+
+		int numInliers = N - (int)(N*fractionOutlier);
+		for( int i = 0; i < N; i++ ) {
+			Point2D_F64 a = new Point2D_F64(rand.nextGaussian()*5,rand.nextGaussian()*5);
+			Point2D_F64 b = new Point2D_F64();
+			if( i < numInliers )
+				SePointOps_F64.transform(model, a, b);
+			else
+				b.set(rand.nextGaussian()*5,rand.nextGaussian()*5);
+			data.add(new AssociatedPair(a,b));
+		}
+
+		return data;
+	}
+}